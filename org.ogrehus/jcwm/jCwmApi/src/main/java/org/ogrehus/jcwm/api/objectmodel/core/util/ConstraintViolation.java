@@ -118,6 +118,66 @@ extends
 
 
 
+	/**
+	 * Constructs a new ConstraintViolation, which may be created without a stack trace.
+	 * 
+	 * @param	violated Identifier of the violation of the CWM-Constraint.
+	 * 
+	 * @param	writableStackTrace <code>false</code> if the stack trace should not be filled in.
+	 * 
+	 * @param	objects The objects used to create the message.
+	 * 
+	 * @see #withoutStackTrace(CwmConstraint, Object...) 
+	 * 
+	 */
+	protected ConstraintViolation( CwmConstraint violated, boolean writableStackTrace, Object[] objects ) {
+		super( null, null, writableStackTrace );
+		this.violated = violated;
+		this.objects  = objects;
+	}
+
+
+
+	/**
+	 * Creates a ConstraintViolation without a stack trace.
+	 * <p>
+	 * Suitable to report violations found by a validation, where the violations are collected instead of being thrown and the creation of a stack
+	 * trace would dominate the costs. The message is formatted not before it is requested by {@link #getLocalizedMessage(Locale)}.
+	 * </p>
+	 * 
+	 * @param	violated Identifier of the violation of the CWM-Constraint.
+	 * 
+	 * @param	objects The objects used to create the message.
+	 * 
+	 * @return A new ConstraintViolation without stack trace.
+	 * 
+	 */
+	public static ConstraintViolation withoutStackTrace( CwmConstraint violated, Object ...objects ) {
+		return new ConstraintViolation( violated, false, objects );
+	}
+
+
+
+	/**
+	 * @return Identifier of the violation of the CWM-Constraint.
+	 * 
+	 */
+	public CwmConstraint getViolated() {
+		return this.violated;
+	}
+
+
+
+	/**
+	 * @return The objects used to create the message.
+	 * 
+	 */
+	public Object[] getObjects() {
+		return this.objects;
+	}
+
+
+
 	@Override
 	public String getLocalizedMessage( Locale locale ) {
 //        if ( this.objects == null ) {
@@ -23,8 +23,16 @@
  */
 package org.ogrehus.jcwm.api.objectmodel.core.util;
 
+import java.text.FieldPosition;
 import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Constraints are statements of facts assumed to be true always and are core parts of any expressive meta-model.
@@ -54,6 +62,10 @@ import java.util.Locale;
  * Unless otherwise stated for a particular OCL constraint, the evaluation policy for all CWM constraints is deferred meaning that constraint checking
  * should occur at the end of bulk operations, such as a load, or as part of a model validation operation.
  * </p>
+ * <p>
+ * The messages of the constraints are read from the resource bundle <code>org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint</code>.
+ * Each message template is compiled once per Locale and shared by all threads afterwards.
+ * </p>
  * <p> 
  * This implementation was guided by the <a href="http://www.omg.org/cgi-bin/doc?formal/03-03-02">CWM Specification V1.1</a> by
  * <a href="http://www.omg.org">OMG</a>
@@ -104,354 +116,143 @@ public enum CwmConstraint {
 	;
 
 
+
 	/**
-	 * Returns a MessageFormat supported by i18n for each constraint.
+	 * Returns the message of a constraint, formatted by the message template of the resource bundle suitable to the Locale.
 	 * 
 	 * @param constraint The violated constraint.
 	 * 
-	 * @param locale The Locale to be used for any further formatting.
+	 * @param locale The Locale to be used for any further formatting. If <code>null</code>, the default Locale is used.
 	 * 
 	 * @param objects The objects used to populate details to the messages.
 	 * 
-	 * @return A MessageFormat suitable to the parameter <code>constraint</code>.
+	 * @return The formatted message or <code>null</code>, if no message is defined for the parameter <code>constraint</code>.
 	 * 
 	 */
 	public static String getMessage( CwmConstraint constraint, Locale locale, Object ...objects ) {
-		// TODO: May be better to use a property-file later here!		
-		switch ( constraint ) {
-		// general constraint
-		case readOnly:	return getMessage_ReadOnly( locale ).format( objects );
-		case multiplicity: return getMessage_Multiplicity( locale ).format( objects );
-		case methodeNoMoreSuitable: return getMessage_MethodNoMoreSuitable(locale).format( objects );
-		// objectmodel::core		
-		case C_3_1: 	
-			return getMessage_C_3_1( locale ).format( objects );
-		case C_3_2: 	
-			return getMessage_C_3_2( locale ).format( objects );
-		case C_3_6:		
-			return getMessage_C_3_6( locale ).format( objects );
-		// objectmodel::behavioral		
-		case C_4_3:		
-			return getMessage_C_4_3( locale ).format( objects );
-		case C_4_6:		
-			return getMessage_C_4_6( locale ).format( objects );
-		case C_4_7:		
-			return getMessage_C_4_7( locale ).format( objects );
-		case C_4_8:		
-			return getMessage_C_4_8( locale ).format( objects );
-		case C_4_9:		
-			return getMessage_C_4_9( locale ).format( objects );
-		case C_4_10:		
-            return getMessage_C_4_10( locale ).format( objects );
-		// objectmodel::relationships
-		case C_5_1:     
-			return getMessage_C_5_1( locale ).format( objects );
-		case C_5_2:     
-			return getMessage_C_5_2( locale ).format( objects );
-		case C_5_3:     
-			return getMessage_C_5_3( locale ).format( objects );
-		case C_5_4:     
-			return getMessage_C_5_4( locale ).format( objects );
-		case C_5_6:     
-			return getMessage_C_5_6( locale ).format( objects );
-		// objectmodel::instance		
-		case C_6_1:     
-			return getMessage_C_6_1( locale ).format( objects );
-		case C_6_2:     
-			return getMessage_C_6_2( locale ).format( objects );
-		case C_6_7:     
-			return getMessage_C_6_7( locale ).format( objects );
-		case Foundation_C_4_1:
-			return getMessage_Foundation_C_4_1( locale ).format( objects );
-		case Foundation_C_6_1: 
-			return getMessage_Foundation_C_6_1( locale ).format( objects );
-		case Foundation_C_8_1: 
-			return getMessage_Foundation_C_8_1( locale ).format( objects );
-			
-		default: 
+		StringBuffer out = new StringBuffer( 128 );
+		if ( !format( constraint, locale, out, objects ) ) {
 			return null;
 		}
-	}
-
-
-
-	protected static MessageFormat getMessage_ReadOnly( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[general] The object to be modified is readOnly to protect a Constraint. Use legal access methods to the object.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[general] Das zu modifizierte Objekt kann nur gelesen werden, da es durch einen Constraint überwacht wird. "
-					+ "Bitte verwenden sie die zulässigen Zugriffsmethoden in den verwaltenden Klassen."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_Multiplicity( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[general] The multiplicity {0} was violated in {1} ";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern  = "[general] Die Multiplizität {0} wurde verletzt in {1} ";
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_MethodNoMoreSuitable( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[general] The method {0} is no longer suitable, use the method {1} instead!";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern  = "[general] Die Methode {0} ist nicht länger passend, bitte die Methode {1} verwenden!"; 
-		}
-		return new MessageFormat( pattern, locale );
-	}
-
-
-
-	protected static MessageFormat getMessage_C_3_1( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-3-1] A Constraint cannot be applied to itself. Affected Element is {0}.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-3-1] Ein Constraint kann nicht zu sich selbst hinzugefügt werden. Betroffenes Element ist: {0}."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
 
-
-	protected static MessageFormat getMessage_C_3_2( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-3-2] A DataType cannot contain any other ModelElements. Affected DataType is {0}.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-3-2] Einem DataType kann kein ModelElemente hinzugefügt werden. Betroffenes DataType ist: {0}."; 
-		}
-		return new MessageFormat( pattern, locale ); 
+		return out.toString();
 	}
 
 
 
-	protected static MessageFormat getMessage_C_3_6( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-3-6] The baseClass of a stereotype name must be provided.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-3-6] Es muss in einem Stereotype immer ein Wert existieren für die Eigenschaft: baseClass"; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_C_4_3( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-4-3] The number of arguments must be the same as the number of the Operation.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-4-3] Die Anzahl der Argumente muss mit denen der Operation übereinstimmen."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_C_4_6( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-4-6] All Features defined in an Interface are public.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-4-6] Alle Features, die in einem Interface definiert werden müssen public sein."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_C_4_7( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-4-7] If the realized Operation is a query, then so is the Method.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-4-7] Wenn die realisierende Operation eine Query ist, dann muss es die Methode ebenfalls sein."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_C_4_8( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-4-8] The signature of the Method should be the same as the signature of the realized Operation.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-4-8] Die Signatur der Methode sollte die gleiche sein, wie die der zu realisierenden Operation."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_C_4_9( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-4-9] The visibility of the Method should be the same as for the realized Operation.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-4-9] Die Sichtbarkeit der Methode sollte die gleiche sein, wie die der zu realisierenden Operation."; 
+	/**
+	 * Appends the message of a constraint to a buffer, without creating an intermediate String.
+	 * <p>
+	 * Intended for bulk reports, where many messages are written one after another into the same buffer.
+	 * </p>
+	 * 
+	 * @param constraint The violated constraint. Must not be <code>null</code>.
+	 * 
+	 * @param locale The Locale to be used for any further formatting. If <code>null</code>, the default Locale is used.
+	 * 
+	 * @param out The buffer the message is appended to. Must not be <code>null</code>.
+	 * 
+	 * @param objects The objects used to populate details to the messages.
+	 * 
+	 * @return <code>true</code> if a message was appended, <code>false</code> if no message is defined for the parameter <code>constraint</code>.
+	 * 
+	 */
+	public static Boolean format( CwmConstraint constraint, Locale locale, StringBuffer out, Object ...objects ) {
+		if ( constraint == null ) {
+			throw new NullPointerException( "Parameter: constraint must not be null." );
 		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_C_4_10( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-4-10] The realized Operation must be a feature (possibly inherited) of the same Classifier as the Method.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-4-10] Die zu realisierende Operation muss zuvor als ein Feature (möglicherweise auch vererbt) in dem gleichem Classifier "
-					+ "bekannt sein."; 
+		if ( out == null ) {
+			throw new NullPointerException( "Parameter: out must not be null." );
 		}
-		return new MessageFormat( pattern, locale );
-	}
-
-
-
-	protected static MessageFormat getMessage_C_5_1( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-5-1] An Association must have at least 2 AssociationEnds.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-5-1] Eine Association besteht aus mindestens 2 AssociationEnds."; 
+		MessageFormat format = getMessageFormat( constraint, locale );
+		if ( format == null ) {
+			return Boolean.FALSE;
 		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
+		( (MessageFormat) format.clone() ).format( objects, out, new FieldPosition( 0 ) ); // a clone, cause MessageFormat is not thread safe
 
-
-	protected static MessageFormat getMessage_C_5_2( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-5-2] The AssociationEnds must have a unique name within the association. The name \"{0}\" is already available within "
-						+ "the Association \"{1}\".";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-5-2] Der Name eines AssociationEnds muss innerhalb einer Association eindeutig sein. Der Name \"{0}\" wurde innerhalb "
-					+ "der Association \"{1}\" bereits vergeben."; 
-		}
-		return new MessageFormat( pattern, locale ); 
+		return Boolean.TRUE;
 	}
 
 
 
-	protected static MessageFormat getMessage_C_5_3( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-5-3] At most one AssociationEnd may be an aggregation or composition. The AssociationEnd \"{0}\" is already assigned "
-						+ "to the Association \"{1}\" and is typeof aggregation or composition.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-5-3] Nur ein AssociationEnd darf maximal eine Aggregation oder Composition sein. Das AssociationEnd \"{0}\" ist bereits "
-					+ "der Association \"{1}\" zugewiesen und vom Typ Aggregation oder Composition."; 
+	/**
+	 * Returns the compiled message template of a constraint.
+	 * <p>
+	 * The templates of a Locale are loaded and compiled on first request and cached for the lifetime of the class. A MessageFormat is not thread
+	 * safe, so callers format by a clone of the returned instance, which copies the compiled template without parsing it again.
+	 * </p>
+	 * 
+	 * @param constraint The constraint. Must not be <code>null</code>.
+	 * 
+	 * @param locale The Locale of the template. If <code>null</code>, the default Locale is used.
+	 * 
+	 * @return The shared MessageFormat of the constraint or <code>null</code>, if no message is defined for the parameter <code>constraint</code>.
+	 * 
+	 */
+	protected static MessageFormat getMessageFormat( CwmConstraint constraint, Locale locale ) {
+		if ( locale == null ) {
+			locale = Locale.getDefault();
 		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-
-	protected static MessageFormat getMessage_C_5_4( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-5-4] If an Association has three or more AssociationEnds, then no AssociationEnd may be an aggregation or composition. The AssociationEnd \"{0}\" can't be typeof aggregation or composition in the Association \"{1}\".";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-5-4] Wenn eine Association 3 oder mehr AssociationEnds haben soll, dann darf keine der AssociationEnds vom Typ Aggregation oder Composition sein. Das AssociationEnd \"{0}\" in derAssociation \"{1}\" kann nicht vom Typ Aggregation oder Composition sein."; 
+		Map<CwmConstraint, MessageFormat> formats = templates.get( locale );
+		if ( formats == null ) {
+			formats = loadMessageFormats( locale );
+			Map<CwmConstraint, MessageFormat> known = templates.putIfAbsent( locale, formats );
+			if ( known != null ) {
+				formats = known; // another thread was faster
+			}
 		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
 
-	protected static MessageFormat getMessage_C_5_6( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-5-6] An AssociationEnd must have an owning Association.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-5-6] Ein AssociationEnd muss eine besitzende Association haben."; 
-		}
-		return new MessageFormat( pattern, locale ); 
+		return formats.get( constraint );
 	}
 
 
 
-	protected static MessageFormat getMessage_C_6_1( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-6-1] - A DataValue originates from a Classifier that is a GDataType";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-6-1] Ein DataValue entsteht aus einem Classifier, der ein Datentyp sein muss."; 
+	/**
+	 * Loads and compiles all message templates of a Locale.
+	 * <p>
+	 * The lookup does not fall back to the default Locale of the JVM, so English (the base bundle) is used if no matching language was found.
+	 * </p>
+	 * 
+	 */
+	private static Map<CwmConstraint, MessageFormat> loadMessageFormats( Locale locale ) {
+		Map<CwmConstraint, MessageFormat> formats = new EnumMap<CwmConstraint, MessageFormat>( CwmConstraint.class );
+		ResourceBundle bundle = null;
+		try {
+			bundle = ResourceBundle.getBundle( BUNDLE, locale, ResourceBundle.Control.getNoFallbackControl( 
+				ResourceBundle.Control.FORMAT_PROPERTIES 
+			) );
+		} catch ( MissingResourceException e ) {
+			return Collections.unmodifiableMap( formats ); // no messages available at all
 		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
-	
-	protected static MessageFormat getMessage_C_6_2( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-6-2] - A DataValue has no Slots.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-6-2] - Ein DataValue besitzt keine Slots."; 
+		for ( CwmConstraint constraint : values() ) {
+			if ( bundle.containsKey( constraint.name() ) ) {
+				formats.put( constraint, new MessageFormat( bundle.getString( constraint.name() ), locale ) );
+			}
 		}
-		return new MessageFormat( pattern, locale ); 
-	}
-
-
 
-	protected static MessageFormat getMessage_C_6_7( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[C-6-7] The StructuralFeature instance obtained via the feature reference inherited from Slot must be an Attribute.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[C-6-7] Die Instanz StructuralFeature aus der Referenz feature durch die Vererbung von Slot muss in DataSlot ein Attribut sein."; 
-		}
-		return new MessageFormat( pattern, locale ); 
+		return Collections.unmodifiableMap( formats );
 	}
 
 
 
-	protected static MessageFormat getMessage_Foundation_C_4_1( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[Foundation_C_4_1] The TypeAlias instance \"{0}\" cannot alias itself.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[Foundation_C_4_1] Der TypeAlias \"{0}\" kann sich nicht selber als Pseudonym (Alias) benennen."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
 
 
 
-	protected static MessageFormat getMessage_Foundation_C_6_1( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found		
-		String pattern  = "[Foundation_C_6_1] The isAscending attribute is valid only if the isSorted attribute is true.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[Foundation_C_6_1] Das Attribut: isAscending is nur gültig, wenn das Attribut: isSorted true ist."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
+	/**
+	 * Base name of the resource bundle containing the message templates.
+	 * 
+	 */
+	private static final String BUNDLE = "org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint";
 
 
 
-	protected static MessageFormat getMessage_Foundation_C_8_1( Locale locale ) {
-		String language = locale.getLanguage();
-		// English language is default if no matching language was found
-		String pattern  = "[Foundation_C_8_1] The sourceType and targetType references may not refer to the same Classifier instance.";
-		if ( Locale.GERMAN.getDisplayLanguage().equals( language ) ) {
-			pattern = "[Foundation_C_8_1] Der Quelltyp und der Zieltyp dürfen nicht den gleichen Classifier referenzieren."; 
-		}
-		return new MessageFormat( pattern, locale ); 
-	}
-}
\ No newline at end of file
+	/**
+	 * The compiled message templates, by Locale.
+	 * 
+	 */
+	private static final ConcurrentMap<Locale, Map<CwmConstraint, MessageFormat>> templates = 
+		new ConcurrentHashMap<Locale, Map<CwmConstraint, MessageFormat>>();
+}
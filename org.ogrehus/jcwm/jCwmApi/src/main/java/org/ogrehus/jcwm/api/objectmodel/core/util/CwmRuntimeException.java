@@ -110,6 +110,27 @@ extends
 
 
 
+	/**
+	 * Constructs a new runtime exception with the specified detail message and cause, which may be created without a stack trace.
+	 * <p>
+	 * Filling in the stack trace is the most expensive part of creating an exception. Exceptions used to collect results, like violations found
+	 * by a validation, do not need a stack trace.
+	 * </p>
+	 *
+	 * @param  message the detail message (which is saved for later retrieval by the {@link #getMessage()} method).
+	 * 
+	 * @param  cause the cause (which is saved for later retrieval by the {@link #getCause()} method).  (A <tt>null</tt> value is permitted, and 
+	 * indicates that the cause is nonexistent or unknown.)
+	 * 
+	 * @param  writableStackTrace <code>false</code> if the stack trace should not be filled in.
+	 * 
+	 */
+	protected CwmRuntimeException( String message, Throwable cause, boolean writableStackTrace ) {
+		super( message, cause, true, writableStackTrace );
+	}
+
+
+
 	@Override
 	public String getLocalizedMessage() {
 		return getLocalizedMessage( Locale.getDefault() );
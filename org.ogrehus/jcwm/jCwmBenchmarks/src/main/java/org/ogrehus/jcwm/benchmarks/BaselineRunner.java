@@ -0,0 +1,62 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs all benchmarks of this module with the allocation profiler and writes the results as JSON, the baseline later runs are compared with.
+ * <p>
+ * Usage: <code>BaselineRunner [resultFile]</code>, the default result file is <code>jmh-baseline.json</code>. Two result files can be compared
+ * by any JMH result viewer; a regression shows as a lower throughput, a higher average time or a higher <code>gc.alloc.rate.norm</code>.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class BaselineRunner {
+
+
+	private BaselineRunner() {
+		// only static
+	}
+
+
+
+	public static void main( String[] args ) throws RunnerException {
+		String resultFile = args.length > 0 ? args[0] : "jmh-baseline.json";
+		Options options = new OptionsBuilder()
+			.include( BaselineRunner.class.getPackage().getName() + ".*Benchmark" )
+			.addProfiler( GCProfiler.class )
+			.resultFormat( ResultFormatType.JSON )
+			.result( resultFile )
+			.build();
+
+		new Runner( options ).run();
+	}
+}
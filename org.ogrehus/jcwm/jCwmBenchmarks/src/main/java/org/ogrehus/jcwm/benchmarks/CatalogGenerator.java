@@ -0,0 +1,292 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.benchmarks;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+import org.ogrehus.jcwm.api.resource.relational.util.ReferentialRule;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.resource.relational.FunSQLSimpleTypePool;
+
+
+/**
+ * A CatalogGenerator builds synthetic catalogs of a configurable shape for the benchmarks.
+ * <p>
+ * Every Table has a PrimaryKey on its first column. Foreign keys reference the PrimaryKey of a random earlier Table of the same Schema, indexes
+ * span a random column. Names follow the pattern <code>CATALOG_0</code>, <code>SCHEMA_0</code>, <code>TABLE_0</code>, <code>COLUMN_0</code>,
+ * so a benchmark can compute the name of any element. The generator is deterministic for a seed, so two runs measure the same model.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class CatalogGenerator {
+
+
+	/**
+	 * Creates a new instance of CatalogGenerator.
+	 *
+	 * @param catalogs The number of catalogs.
+	 *
+	 * @param schemas The number of schemas per catalog.
+	 *
+	 * @param tables The number of tables per schema.
+	 *
+	 * @param columns The number of columns per table. Must be at least one, cause the PrimaryKey spans the first column.
+	 *
+	 * @param foreignKeys The number of foreign keys per table. The first table of a schema has none.
+	 *
+	 * @param indexes The number of indexes per table.
+	 *
+	 * @param seed The seed of the random choices.
+	 *
+	 * @throws IllegalArgumentException Is thrown if a count is negative or <code>columns</code> is zero.
+	 *
+	 */
+	public CatalogGenerator( int catalogs, int schemas, int tables, int columns, int foreignKeys, int indexes, long seed ) {
+		if ( catalogs < 0 || schemas < 0 || tables < 0 || foreignKeys < 0 || indexes < 0 ) {
+			throw new IllegalArgumentException( "Parameter: counts must not be negative." );
+		}
+		if ( columns < 1 ) {
+			throw new IllegalArgumentException( "Parameter: columns must be at least 1." );
+		}
+		this.catalogs = catalogs;
+		this.schemas = schemas;
+		this.tables = tables;
+		this.columns = columns;
+		this.foreignKeys = foreignKeys;
+		this.indexes = indexes;
+		this.seed = seed;
+	}
+
+
+
+//====================================================================================================================================================
+// CatalogGenerator capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return New catalogs of the configured shape. Can't be <code>null</code>.
+	 *
+	 */
+	public List<Catalog> generate() {
+		Random random = new Random( this.seed );
+		List<Catalog> result = new ArrayList<Catalog>( this.catalogs );
+		for ( int c = 0; c < this.catalogs; c++ ) {
+			Catalog catalog = this.factory.createCatalog( getCatalogName( c ), "UTF8", "binary" );
+			for ( int s = 0; s < this.schemas; s++ ) {
+				catalog.addOwnedElement( generateSchema( s, random ) );
+			}
+			result.add( catalog );
+		}
+
+		return result;
+	}
+
+
+
+	/**
+	 * @return The number of model elements of one generation: catalogs, schemas, tables, columns, keys and indexes, without types.
+	 *
+	 */
+	public long getElementCount() {
+		long perTable = 1L + this.columns + 1 + this.indexes;
+		long foreignKeysPerSchema = this.tables > 0 ? (long) ( this.tables - 1 ) * this.foreignKeys : 0;
+		long perSchema = 1L + this.tables * perTable + foreignKeysPerSchema;
+
+		return this.catalogs * ( 1L + this.schemas * perSchema );
+	}
+
+
+
+	public static String getCatalogName( int index ) {
+		return "CATALOG_" + index;
+	}
+
+
+
+	public static String getSchemaName( int index ) {
+		return "SCHEMA_" + index;
+	}
+
+
+
+	public static String getTableName( int index ) {
+		return "TABLE_" + index;
+	}
+
+
+
+	public static String getColumnName( int index ) {
+		return "COLUMN_" + index;
+	}
+
+
+
+//====================================================================================================================================================
+// CatalogGenerator internals
+//====================================================================================================================================================
+
+
+
+	private FunSchema generateSchema( int index, Random random ) {
+		FunSchema schema = new FunSchema( getSchemaName( index ), Visibility._public );
+		FunSQLSimpleTypePool pool = schema.getSQLSimpleTypePool();
+		List<Table> generated = new ArrayList<Table>( this.tables );
+		for ( int t = 0; t < this.tables; t++ ) {
+			Table table = this.factory.createTable( getTableName( t ) );
+			for ( int c = 0; c < this.columns; c++ ) {
+				table.addColumn( getColumnName( c ), getType( pool, random ) );
+			}
+			PrimaryKey primaryKey = this.factory.createPrimaryKey( "PK_" + t, Deferability.notDeferrable );
+			primaryKey.addFeature( table.getColumn( getColumnName( 0 ) ) );
+			table.setPrimaryKey( primaryKey );
+
+			for ( int f = 0; f < this.foreignKeys && t > 0; f++ ) {
+				Table referenced = generated.get( random.nextInt( generated.size() ) );
+				ForeignKey foreignKey = this.factory.createForeignKey(
+					  "FK_" + t + "_" + f
+					, referenced.getPrimaryKey()
+					, ReferentialRule.importedKeyRestrict
+					, ReferentialRule.importedKeyCascade
+					, Deferability.notDeferrable
+				);
+				foreignKey.addFeature( getRandomColumn( table, random ) );
+				table.addForeignKey( foreignKey );
+			}
+			for ( int i = 0; i < this.indexes; i++ ) {
+				SQLIndex sqlIndex = this.factory.createSQLIndex(
+					"IX_" + t + "_" + i, Boolean.FALSE, Boolean.TRUE, Boolean.FALSE, table, "", Boolean.TRUE, Boolean.TRUE
+				);
+				sqlIndex.addIndexedFeature( getRandomColumn( table, random ) );
+				schema.addSQLIndex( sqlIndex );
+			}
+			schema.addOwnedElement( table );
+			generated.add( table );
+		}
+
+		return schema;
+	}
+
+
+
+	private TableColumn getRandomColumn( Table table, Random random ) {
+		return table.getColumn( getColumnName( random.nextInt( this.columns ) ) );
+	}
+
+
+
+	/**
+	 * @return A type of a small, realistic set, cause real catalogs repeat few types across many columns.
+	 *
+	 */
+	private static SQLSimpleType getType( FunSQLSimpleTypePool pool, Random random ) {
+		switch ( random.nextInt( 4 ) ) {
+			case 0:
+				return pool.get( Types.INTEGER, "INTEGER", 10, null, (short) 0, (short) 10, null );
+			case 1:
+				return pool.get( Types.NUMERIC, "NUMERIC", 18, null, (short) 2, (short) 10, null );
+			case 2:
+				return pool.get( Types.TIMESTAMP, "TIMESTAMP", null, null, null, null, null );
+			default:
+				int length = 10 * ( 1 + random.nextInt( 20 ) );
+				return pool.get( Types.VARCHAR, "VARCHAR", null, length, null, null, length );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[CatalogGenerator" );
+		out.append( " | catalogs=" + this.catalogs );
+		out.append( " | schemas=" + this.schemas );
+		out.append( " | tables=" + this.tables );
+		out.append( " | columns=" + this.columns );
+		out.append( " | foreignKeys=" + this.foreignKeys );
+		out.append( " | indexes=" + this.indexes );
+		out.append( " | seed=" + this.seed );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final FunRelationalPackage factory = new FunRelationalPackage();
+
+
+
+	private final int catalogs;
+
+
+
+	private final int schemas;
+
+
+
+	private final int tables;
+
+
+
+	private final int columns;
+
+
+
+	private final int foreignKeys;
+
+
+
+	private final int indexes;
+
+
+
+	private final long seed;
+}
@@ -0,0 +1,136 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.benchmarks;
+
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+
+
+/**
+ * Measures the construction of the model, like a harvester does: tables created by {@link FunRelationalPackage#createTable(String)}, filled
+ * by <code>addColumn</code> and added to a Schema.
+ * <p>
+ * The Schema is replaced each iteration, so the cost of adding to a growing Schema is part of the measurement, but the Schema does not grow
+ * without bounds.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 2 )
+public class ConstructionBenchmark {
+
+
+	@Setup( Level.Iteration )
+	public void setUp() {
+		this.schema = new FunSchema( "SCHEMA", Visibility._public );
+		this.type = this.factory.createSQLSimpleType(
+			this.schema.getSQLSimpleTypePool(), Types.VARCHAR, "VARCHAR", null, 40, null, null, 40
+		);
+		this.tableCount = 0;
+	}
+
+
+
+//====================================================================================================================================================
+// Benchmarks
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return A detached table with the configured number of columns.
+	 *
+	 */
+	@Benchmark
+	public Table createTableWithColumns() {
+		Table table = this.factory.createTable( CatalogGenerator.getTableName( this.tableCount++ ) );
+		for ( int c = 0; c < this.columns; c++ ) {
+			table.addColumn( CatalogGenerator.getColumnName( c ), this.type );
+		}
+
+		return table;
+	}
+
+
+
+	/**
+	 * @return A table with the configured number of columns, added to the Schema of the iteration.
+	 *
+	 */
+	@Benchmark
+	public Boolean createTableInSchema() {
+		return this.schema.addOwnedElement( createTableWithColumns() );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	@Param( { "10", "50" } )
+	public int columns;
+
+
+
+	private final FunRelationalPackage factory = new FunRelationalPackage();
+
+
+
+	private FunSchema schema;
+
+
+
+	private SQLSimpleType type;
+
+
+
+	private int tableCount;
+}
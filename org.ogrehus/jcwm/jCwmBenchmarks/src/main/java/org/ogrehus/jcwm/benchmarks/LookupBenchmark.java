@@ -0,0 +1,185 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.NamedColumnSet;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+
+
+/**
+ * Measures the lookups by name: a column of a Table, a Table of a Schema and a ForeignKey by its qualified name from the Catalog. Columns are
+ * features and not owned elements, so the deep lookup searches the deepest owned elements instead, the ForeignKeys of the Tables.
+ * <p>
+ * Each invocation looks up another, randomly chosen element, so the measurement does not profit from a single hot entry. The names are
+ * computed in the setup, so only the lookup is measured.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 2 )
+public class LookupBenchmark {
+
+
+	@Setup( Level.Trial )
+	public void setUp() {
+		this.catalog = new CatalogGenerator( 1, 1, this.tables, this.columns, 2, 2, 42L ).generate().get( 0 );
+		this.schema = this.catalog.getOwnedElement( Schema.class, CatalogGenerator.getSchemaName( 0 ) );
+
+		Random random = new Random( 7L );
+		this.tableNames = new String[PROBES];
+		this.columnNames = new String[PROBES];
+		this.qualifiedNames = new String[PROBES];
+		this.probeTables = new Table[PROBES];
+		for ( int i = 0; i < PROBES; i++ ) {
+			int table = 1 + random.nextInt( this.tables - 1 ); // the first table has no ForeignKey
+			this.tableNames[i] = CatalogGenerator.getTableName( table );
+			this.columnNames[i] = CatalogGenerator.getColumnName( random.nextInt( this.columns ) );
+			this.probeTables[i] = (Table) this.schema.getNamedColumnSet( this.tableNames[i] );
+			this.qualifiedNames[i] = this.probeTables[i].getForeignKey( "FK_" + table + "_0" ).getQualifiedName();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Benchmarks
+//====================================================================================================================================================
+
+
+
+	@Benchmark
+	public TableColumn getColumn() {
+		int probe = nextProbe();
+
+		return this.probeTables[probe].getColumn( this.columnNames[probe] );
+	}
+
+
+
+	@Benchmark
+	public NamedColumnSet<?> getNamedColumnSet() {
+		return this.schema.getNamedColumnSet( this.tableNames[nextProbe()] );
+	}
+
+
+
+	@Benchmark
+	public ForeignKey getOwnedElementDeep() {
+		return this.catalog.getOwnedElementDeep( ForeignKey.class, this.qualifiedNames[nextProbe()] );
+	}
+
+
+
+//====================================================================================================================================================
+// LookupBenchmark internals
+//====================================================================================================================================================
+
+
+
+	private int nextProbe() {
+		this.probe = ( this.probe + 1 ) & ( PROBES - 1 );
+
+		return this.probe;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The number of precomputed lookups, a power of two.
+	 *
+	 */
+	private static final int PROBES = 1024;
+
+
+
+	/**
+	 * The number of tables, at least two, cause the first table has no ForeignKey.
+	 *
+	 */
+	@Param( { "100", "1000" } )
+	public int tables;
+
+
+
+	@Param( { "20" } )
+	public int columns;
+
+
+
+	private Catalog catalog;
+
+
+
+	private Schema schema;
+
+
+
+	private String[] tableNames;
+
+
+
+	private String[] columnNames;
+
+
+
+	private String[] qualifiedNames;
+
+
+
+	private Table[] probeTables;
+
+
+
+	private int probe;
+}
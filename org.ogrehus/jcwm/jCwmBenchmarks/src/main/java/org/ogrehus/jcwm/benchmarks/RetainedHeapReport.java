@@ -0,0 +1,118 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Locale;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+
+
+/**
+ * The RetainedHeapReport prints the heap retained by generated catalogs of growing size, in total and per model element.
+ * <p>
+ * JMH measures time and allocation rate, but not what a model keeps alive. The report measures the used heap after a full collection before
+ * and after a generation, while the catalogs are still reachable. The numbers are stable within a few percent on a quiet JVM; run it with a
+ * fixed heap, like <code>-Xms2g -Xmx2g</code>, to compare two builds.
+ * </p>
+ * <p>
+ * Usage: <code>RetainedHeapReport [tablesPerSchema ...]</code>, default sizes are 100, 1000 and 10000 tables.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class RetainedHeapReport {
+
+
+	private RetainedHeapReport() {
+		// only static
+	}
+
+
+
+	public static void main( String[] args ) {
+		int[] sizes = { 100, 1000, 10000 };
+		if ( args.length > 0 ) {
+			sizes = new int[args.length];
+			for ( int i = 0; i < args.length; i++ ) {
+				sizes[i] = Integer.parseInt( args[i] );
+			}
+		}
+
+		System.out.println( String.format( Locale.ROOT, "%10s %12s %14s %14s", "tables", "elements", "retained [KB]", "bytes/element" ) );
+		for ( int tables : sizes ) {
+			CatalogGenerator generator = new CatalogGenerator( 1, 1, tables, 20, 2, 2, 42L );
+			long before = getUsedHeap();
+			List<Catalog> catalogs = generator.generate();
+			long after = getUsedHeap();
+
+			long elements = countElements( catalogs );
+			long retained = after - before;
+			System.out.println( String.format(
+				Locale.ROOT, "%10d %12d %14d %14.1f", tables, elements, retained / 1024, (double) retained / Math.max( 1, elements )
+			) );
+			catalogs.clear(); // keeps the list reachable up to here, cause the measurement must see the model
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// RetainedHeapReport internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The number of elements reachable by ownership.
+	 *
+	 */
+	private static long countElements( List<Catalog> catalogs ) {
+		long count = 0;
+		for ( Catalog catalog : catalogs ) {
+			for ( @SuppressWarnings( "unused" ) ModelElement element : new ModelTraversal( catalog ) ) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+
+
+	private static long getUsedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long used = Long.MAX_VALUE;
+		for ( int i = 0; i < 5; i++ ) { // a single gc() may leave floating garbage
+			memory.gc();
+			used = Math.min( used, memory.getHeapMemoryUsage().getUsed() );
+		}
+
+		return used;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+
+/**
+ * Measures the operations visiting many elements: all contents of a Catalog by type, the qualified name of a deeply owned element and the
+ * rendering of a Table by <code>toString</code>. The deepest owned elements are the ForeignKeys of the Tables, cause columns are features.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 2 )
+public class TraversalBenchmark {
+
+
+	@Setup( Level.Trial )
+	public void setUp() {
+		this.catalog = new CatalogGenerator( 1, 2, this.tables, 20, 2, 2, 42L ).generate().get( 0 );
+		Schema schema = this.catalog.getOwnedElement( Schema.class, CatalogGenerator.getSchemaName( 1 ) );
+		this.table = (Table) schema.getNamedColumnSet( CatalogGenerator.getTableName( this.tables / 2 ) );
+		this.foreignKey = this.table.getForeignKey( "FK_" + ( this.tables / 2 ) + "_0" );
+	}
+
+
+
+//====================================================================================================================================================
+// Benchmarks
+//====================================================================================================================================================
+
+
+
+	@Benchmark
+	public Set<ForeignKey> getAllContentsGeneric() {
+		return this.catalog.getAllContentsGeneric( ForeignKey.class );
+	}
+
+
+
+	@Benchmark
+	public String getQualifiedName() {
+		return this.foreignKey.getQualifiedName();
+	}
+
+
+
+	@Benchmark
+	public String tableToString() {
+		return this.table.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	@Param( { "100", "1000" } )
+	public int tables;
+
+
+
+	private Catalog catalog;
+
+
+
+	private Table table;
+
+
+
+	private ForeignKey foreignKey;
+}
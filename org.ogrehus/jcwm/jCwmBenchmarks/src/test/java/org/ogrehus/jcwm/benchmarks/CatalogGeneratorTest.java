@@ -0,0 +1,167 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.benchmarks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.SQLDataType;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+
+
+/**
+ * Tests the shape of the catalogs of a CatalogGenerator, which the benchmarks rely on.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class CatalogGeneratorTest {
+
+
+	/**
+	 * A generation has the configured number of elements and its elements are found by the computed names.
+	 *
+	 */
+	@Test
+	public void testCatalogsHaveTheConfiguredShape() {
+		CatalogGenerator generator = new CatalogGenerator( 2, 3, 4, 5, 2, 1, 42L );
+		List<Catalog> catalogs = generator.generate();
+		assertEquals( 2, catalogs.size() );
+
+		long count = 0;
+		for ( Catalog catalog : catalogs ) {
+			for ( ModelElement element : new ModelTraversal( catalog ) ) {
+				if ( !( element instanceof SQLDataType ) ) {
+					count++;
+				}
+			}
+		}
+		assertEquals( generator.getElementCount(), count );
+
+		Catalog catalog = catalogs.get( 1 );
+		assertEquals( CatalogGenerator.getCatalogName( 1 ), catalog.getSimpleName() );
+		Schema schema = findSchema( catalog, CatalogGenerator.getSchemaName( 2 ) );
+		Table table = (Table) schema.getNamedColumnSet( CatalogGenerator.getTableName( 3 ) );
+		assertNotNull( table );
+		assertNotNull( table.getColumn( CatalogGenerator.getColumnName( 4 ) ) );
+		assertSame( table.getColumn( CatalogGenerator.getColumnName( 0 ) ), table.getPrimaryKey().getFeatures().iterator().next() );
+		assertEquals( 2, table.getForeignKeys().size() );
+		assertTrue( ( (Table) schema.getNamedColumnSet( CatalogGenerator.getTableName( 0 ) ) ).getForeignKeys().isEmpty() );
+	}
+
+
+
+	/**
+	 * Foreign keys reference a Table generated before their own Table in the same Schema.
+	 *
+	 */
+	@Test
+	public void testForeignKeysReferenceEarlierTables() {
+		Catalog catalog = new CatalogGenerator( 1, 1, 20, 3, 3, 0, 7L ).generate().get( 0 );
+		Schema schema = catalog.getSchemas().iterator().next();
+		for ( int t = 0; t < 20; t++ ) {
+			Table table = (Table) schema.getNamedColumnSet( CatalogGenerator.getTableName( t ) );
+			for ( ForeignKey foreignKey : table.getForeignKeys() ) {
+				Table referenced = foreignKey.getUniqueKey().getNamespace();
+				assertSame( schema, referenced.getNamespace() );
+				assertTrue( referenced.getSimpleName(), indexOf( referenced ) < t );
+			}
+		}
+	}
+
+
+
+	/**
+	 * Two generations of the same seed are equal, so two runs measure the same model, another seed gives another model.
+	 *
+	 */
+	@Test
+	public void testGenerationIsDeterministicForASeed() {
+		GFunModelElement<?, ?, ?, ?> first  = (GFunModelElement<?, ?, ?, ?>) new CatalogGenerator( 1, 2, 10, 4, 2, 2, 1L ).generate().get( 0 );
+		GFunModelElement<?, ?, ?, ?> second = (GFunModelElement<?, ?, ?, ?>) new CatalogGenerator( 1, 2, 10, 4, 2, 2, 1L ).generate().get( 0 );
+		GFunModelElement<?, ?, ?, ?> other  = (GFunModelElement<?, ?, ?, ?>) new CatalogGenerator( 1, 2, 10, 4, 2, 2, 2L ).generate().get( 0 );
+		assertEquals( first.getFingerprint(), second.getFingerprint() );
+		assertFalse( first.getFingerprint().equals( other.getFingerprint() ) );
+	}
+
+
+
+	/**
+	 * Negative counts and Tables without columns are rejected.
+	 *
+	 */
+	@Test
+	public void testInvalidShapesAreRejected() {
+		int[][] shapes = { { -1, 1, 1, 1, 0, 0 }, { 1, 1, 1, 0, 0, 0 }, { 1, 1, 1, 1, -1, 0 }, { 1, 1, 1, 1, 0, -1 } };
+		for ( int[] shape : shapes ) {
+			try {
+				new CatalogGenerator( shape[ 0 ], shape[ 1 ], shape[ 2 ], shape[ 3 ], shape[ 4 ], shape[ 5 ], 0L );
+				fail( "An invalid shape was accepted." );
+			} catch ( IllegalArgumentException expected ) {
+				assertTrue( expected.getMessage(), expected.getMessage().startsWith( "Parameter:" ) );
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// CatalogGeneratorTest internals
+//====================================================================================================================================================
+
+
+
+	private static Schema findSchema( Catalog catalog, String name ) {
+		for ( Schema schema : catalog.getSchemas() ) {
+			if ( name.equals( schema.getSimpleName() ) ) {
+				return schema;
+			}
+		}
+
+		return null;
+	}
+
+
+
+	/**
+	 * @return The index a Table was generated with, taken from its name.
+	 *
+	 */
+	private static int indexOf( Table table ) {
+		return Integer.parseInt( table.getSimpleName().substring( CatalogGenerator.getTableName( 0 ).length() - 1 ) );
+	}
+}
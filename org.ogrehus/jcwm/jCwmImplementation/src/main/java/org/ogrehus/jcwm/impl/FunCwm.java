@@ -25,6 +25,7 @@ import org.ogrehus.jcwm.api.Cwm;
 import org.ogrehus.jcwm.impl.foundation.FunFoundationPackage;
 import org.ogrehus.jcwm.impl.objectmodel.FunObjectModel;
 import org.ogrehus.jcwm.impl.resource.FunResourcePackage;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
 
 
 public class FunCwm
@@ -40,8 +41,23 @@ extends
 	 * 
 	 */
 	public FunCwm() {
-		this.objectmodel = new FunObjectModel();
-		this.foundation  = new FunFoundationPackage();
-		this.resource    = new FunResourcePackage();
+		this( ElementRegistry.getDefault() );
+	}
+
+
+	/**
+	 * Creates a new Instance of FunCwm, whose factories register the created elements in an ElementRegistry of their own, like one registry
+	 * per repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunCwm( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.objectmodel = new FunObjectModel( registry );
+		this.foundation  = new FunFoundationPackage( registry );
+		this.resource    = new FunResourcePackage( registry );
 	}
 }
\ No newline at end of file
@@ -26,6 +26,7 @@ import org.ogrehus.jcwm.impl.foundation.datatypes.FunDataTypePackage;
 import org.ogrehus.jcwm.impl.foundation.keyindexes.FunKeyIndexesPackage;
 import org.ogrehus.jcwm.impl.foundation.softwaredeployment.FunSoftwareDeploymentPackage;
 import org.ogrehus.jcwm.impl.foundation.typemapping.FunTypeMappingPackage;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
 
 
 public class FunFoundationPackage
@@ -42,11 +43,26 @@ extends
 	 * 
 	 */
 	public FunFoundationPackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+	/**
+	 * Creates a new Instance of FunFoundationPackage, whose factories register the created elements in an ElementRegistry of their own, like one registry
+	 * per repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunFoundationPackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
 //		this.businessinformation = new FunBehavioralPackage();
-		this.datatype            = new FunDataTypePackage();
+		this.datatype            = new FunDataTypePackage( registry );
 //		this.expression          = new FunExpressionPackage();
-		this.keyindexes          = new FunKeyIndexesPackage();
-		this.softwaredeployment  = new FunSoftwareDeploymentPackage();
-		this.typemapping         = new FunTypeMappingPackage();
+		this.keyindexes          = new FunKeyIndexesPackage( registry );
+		this.softwaredeployment  = new FunSoftwareDeploymentPackage( registry );
+		this.typemapping         = new FunTypeMappingPackage( registry );
 	}
 }
\ No newline at end of file
@@ -30,6 +30,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.Expression;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
 
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
 
 /**
  * DataTypePackage provides hierarchical access to any factory method in this jCwmAPI in scope of the package core.
@@ -65,6 +67,34 @@ public class FunDataTypePackage
 extends
     DataTypePackage
 {
+
+
+	/**
+	 * Creates a new instance of FunDataTypePackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunDataTypePackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunDataTypePackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunDataTypePackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	
 
 	/**
@@ -109,15 +139,15 @@ extends
 		, Visibility firstLiteralVisibility
 		, Expression... firstLiteralValues
 	) {
-	return new FunCwmEnumeration( 
+		return this.registry.adopt( new FunCwmEnumeration(
 			  name
 			, visibility
 			, notInstantiable
 			, isOrdered
 			, firstLiteralName
 			, firstLiteralVisibility
-			, firstLiteralValues 
-		);
+			, firstLiteralValues
+		) );
 	}
 
 
@@ -173,7 +203,7 @@ extends
 		, Boolean notInstantiable
 		, TYPE type
 	) {
-		return new FunTypeAlias<TYPE>( name, visibility, notInstantiable, type );
+		return this.registry.adopt( new FunTypeAlias<TYPE>( name, visibility, notInstantiable, type ) );
 	}
 
 
@@ -241,5 +271,19 @@ extends
 //		, GClassifier<?, ?, ?, ?, ?, ?> type
 //		, Expression memberCase
 //		, Boolean isDefault
-//	);	
-}
\ No newline at end of file
+//	);
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
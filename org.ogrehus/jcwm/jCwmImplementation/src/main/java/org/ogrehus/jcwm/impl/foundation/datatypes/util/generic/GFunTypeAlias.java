@@ -29,6 +29,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunDataType;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -186,16 +187,15 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunTypeAlias" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunTypeAlias" );
 		if ( this.type != null ) {
-			out.append( " | type=" + this.type.getSimpleName() + "<" + this.type.getClass().getSimpleName() + ">" );
+			out.property( "type", this.type.getSimpleName() );
+			out.type( this.type );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		
-		return out.toString();
 	}
 
 
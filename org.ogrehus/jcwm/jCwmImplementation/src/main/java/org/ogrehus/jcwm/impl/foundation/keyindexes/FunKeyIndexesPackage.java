@@ -30,6 +30,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.CwmClass;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.relationships.AssociationEnd;
 
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
 
 public class FunKeyIndexesPackage
 extends
@@ -37,6 +39,32 @@ extends
 {
 
 
+	/**
+	 * Creates a new instance of FunKeyIndexesPackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunKeyIndexesPackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunKeyIndexesPackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunKeyIndexesPackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	/**
 	 * Factory method that creates a new instance of Index by specific parameters.
 	 * 
@@ -83,7 +111,7 @@ extends
 		, Visibility indexedVisibility
 		, Attribute indexedFeature
 	) {
-		return new FunIndex( 
+		return this.registry.adopt( new FunIndex( 
 			  name
 			, visibility
 			, isUnique
@@ -93,7 +121,7 @@ extends
 			, indexedName
 			, indexedVisibility
 			, indexedFeature 
-		);
+		) );
 	}
 
 
@@ -144,7 +172,7 @@ extends
 		, Visibility indexedVisibility
 		, AssociationEnd indexedFeature
 	) {
-		return new FunIndex(
+		return this.registry.adopt( new FunIndex(
 			  name
 			, visibility
 			, isUnique
@@ -154,7 +182,7 @@ extends
 			, indexedName
 			, indexedVisibility
 			, indexedFeature 
-		);
+		) );
 	}
 
 
@@ -184,7 +212,7 @@ extends
 	 * 
 	 */
 	public UniqueKey createUniqueKey( String name, Visibility visibility, KeyRelationship keyRelationship ) {
-		return new FunUniqueKey( name, visibility, keyRelationship );
+		return this.registry.adopt( new FunUniqueKey( name, visibility, keyRelationship ) );
 	}
 
 
@@ -210,6 +238,20 @@ extends
 	 * 
 	 */
 	public KeyRelationship createKeyRelationship( String name, Visibility visibility, UniqueKey uniqueKey ) {
-		return new FunKeyRelationship( name, visibility, uniqueKey );
+		return this.registry.adopt( new FunKeyRelationship( name, visibility, uniqueKey ) );
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
@@ -35,6 +35,9 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * Instances of the Index class represent the ordering of the instances of some other Class, and the Index is said to span the Class.
@@ -136,7 +139,7 @@ implements
 	 * 
 	 */
 	public Boolean isUnique() {
-		return this.isUnique;
+		return getFlag( UNIQUE_FLAG );
 	}
 
 
@@ -161,11 +164,13 @@ implements
 	 * 
 	 */
 	public Boolean setUnique( Boolean isUnique ) {
+		checkMutable();
 		if ( isUnique == null ) {
 			throw new NullPointerException( "The parameter: isUnique must not be null!" );
 		}
-		Boolean old = isUnique;
-		this.isUnique = isUnique;
+		Boolean old = getFlag( UNIQUE_FLAG );
+		setFlag( UNIQUE_FLAG, isUnique );
+		fireChange( ModelChangeKind.propertyChanged, "isUnique", old, isUnique );
 		
 		return old;
 	}
@@ -187,7 +192,7 @@ implements
 	 * 
 	 */
 	public Boolean isSorted() {
-		return this.isSorted;
+		return getFlag( SORTED_FLAG );
 	}
 
 
@@ -212,12 +217,14 @@ implements
 	 * 
 	 */
 	public Boolean setSorted( Boolean isSorted ) {
+		checkMutable();
 		if ( isSorted == null ) {
 			throw new NullPointerException( "The parameter: isSorted must not be null!" );
 		}
 		
-		Boolean old = isSorted;
-		this.isSorted = isSorted;
+		Boolean old = getFlag( SORTED_FLAG );
+		setFlag( SORTED_FLAG, isSorted );
+		fireChange( ModelChangeKind.propertyChanged, "isSorted", old, isSorted );
 		
 		return old;
 	}
@@ -239,7 +246,7 @@ implements
 	 * 
 	 */
 	public Boolean isPartitioning() {
-		return this.isPartitioning;
+		return getFlag( PARTITIONING_FLAG );
 	}
 
 
@@ -264,12 +271,14 @@ implements
 	 * 
 	 */
 	public Boolean setPartitioning( Boolean isPartitioning ) {
+		checkMutable();
 		if ( isPartitioning == null ) {
 			throw new NullPointerException( "The parameter: isPartitioning must not be null!" );
 		}
 
-		Boolean old = isPartitioning;
-		this.isPartitioning = isPartitioning;
+		Boolean old = getFlag( PARTITIONING_FLAG );
+		setFlag( PARTITIONING_FLAG, isPartitioning );
+		fireChange( ModelChangeKind.propertyChanged, "isPartitioning", old, isPartitioning );
 		
 		return old;
 	}
@@ -315,12 +324,14 @@ implements
 	 * 
 	 */
 	public Boolean removeIndexedFeature( GIndexedFeature<?, ?, ?, ?> indexedFeature ) {
+		checkMutable();
 		if ( indexedFeatures == null ) {
 			return Boolean.TRUE;
 		}
 		
 		if ( this.indexedFeatures.size() > 1 && this.indexedFeatures.remove( indexedFeature ) ) {
 			indexedFeature.removeIndex();
+			fireChange( ModelChangeKind.unlinked, "indexedFeature", indexedFeature, null );
 			return Boolean.TRUE;
 		}
 		
@@ -330,8 +341,10 @@ implements
 
 
 	protected <I extends INDEXED_FEATURE> Boolean addIndexFeatureGeneric( I indexedFeature ) {
+		checkMutable();
 		if ( indexedFeature != null && this.indexedFeatures.add( indexedFeature ) ) {
 			invokeByReflection( indexedFeature, "setIndex", this ); // bi-directional reference
+			fireChange( ModelChangeKind.linked, "indexedFeature", null, indexedFeature );
 			return Boolean.TRUE;
 		}
 		return Boolean.FALSE;
@@ -471,30 +484,28 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunIndex" );
-		if ( this.isUnique != null ) {
-			out.append( " | isUnique=" + this.isUnique );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunIndex" );
+		if ( getFlag( UNIQUE_FLAG ) != null ) {
+			out.property( "isUnique", getFlag( UNIQUE_FLAG ) );
 		}
 		
-		if ( this.isSorted != null ) {
-			out.append( " | isSorted=" + this.isSorted );
+		if ( getFlag( SORTED_FLAG ) != null ) {
+			out.property( "isSorted", getFlag( SORTED_FLAG ) );
 		}
-		if ( this.isPartitioning != null ) {
-			out.append( " | isPartitioning=" + this.isPartitioning );
+		if ( getFlag( PARTITIONING_FLAG ) != null ) {
+			out.property( "isPartitioning", getFlag( PARTITIONING_FLAG ) );
 		}
 		
 		if ( this.spannedClass != null ) {
-			out.append( " | spannedClass=" + this.spannedClass.getQualifiedName() );
-			out.append( "<" + spannedClass.getClass().getSimpleName() + ">" );
+			out.property( "spannedClass", this.spannedClass );
+			out.type( spannedClass );
 		}
 		
-		out.append( collectionToString( "indexedFeatures", this.indexedFeatures, true ) );
+		out.elements( "indexedFeatures", this.indexedFeatures, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		
-		return out.toString();
 	}
 
 
@@ -517,7 +528,7 @@ implements
 	 * </ul>
 	 * 
 	 */
-	protected Boolean isUnique = null;
+	protected static final int UNIQUE_FLAG = 6;
 
 
 
@@ -533,7 +544,7 @@ implements
 	 * </ul>
 	 * 
 	 */
-	protected Boolean isSorted = null;
+	protected static final int SORTED_FLAG = 8;
 
 
 
@@ -549,7 +560,7 @@ implements
 	 * </ul>
 	 * 
 	 */
-	protected Boolean isPartitioning = null;
+	protected static final int PARTITIONING_FLAG = 10;
 
 
 
@@ -32,6 +32,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GStructuralFeature;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+
 /**
  * Instances of the IndexedFeature class map StructuralFeature instances of the spanned Class instance to the Index instances that employ them as
  * (part of) their key.
@@ -156,8 +158,10 @@ implements
 	 * 
 	 */
 	public Boolean setAscending( Boolean isAscending ) {
+		checkMutable();
 		Boolean old = this.isAscending;
 		this.isAscending = isAscending;
+		fireChange( ModelChangeKind.propertyChanged, "isAscending", old, isAscending );
 		
 		return old;
 	}
@@ -207,6 +211,7 @@ implements
 	 * 
 	 */
 	public INDEX setIndex( INDEX index ) {
+		checkMutable();
 		if ( index == null ) {
 			throw new NullPointerException( "The parameter: index must not be null!" );
 		}
@@ -218,6 +223,7 @@ implements
 		if ( old != null ) {
 			old.removeIndexedFeature( this );
 		}
+		fireChange( ModelChangeKind.propertyChanged, "index", old, index );
 		
 		return old;
 	}
@@ -225,12 +231,15 @@ implements
 
 
 	public Boolean removeIndex() {
+		checkMutable();
 		if ( this.index == null ) {
 			return Boolean.TRUE;
 		}
 		
-		this.index.removeIndexedFeature( this );
+		INDEX old = this.index;
 		this.index = null;
+		old.removeIndexedFeature( this );
+		fireChange( ModelChangeKind.propertyChanged, "index", old, null );
 		
 		return Boolean.TRUE;
 	}
@@ -34,6 +34,9 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GStructuralFeature;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * KeyRelationship instances represent relationships between UniqueKey instances and the Class(es) that reference them.
@@ -145,20 +148,32 @@ implements
 	 * 
 	 */
 	public Boolean removeFeature( GStructuralFeature<?, ?, ?, ?, ?, ?> feature ) {
+		checkMutable();
 		if ( feature == null ) {
 			return Boolean.TRUE;
 		}
 		
-		return ( this.features.size() >= 1 && this.features.remove( feature ) );
+		if ( this.features.size() >= 1 && this.features.remove( feature ) ) {
+			fireChange( ModelChangeKind.unlinked, "feature", feature, null );
+			return Boolean.TRUE;
+		}
+
+		return Boolean.FALSE;
 	}
 
 
 
 	protected Boolean addFeatureGeneric( STRUCTURAL feature ) {
+		checkMutable();
 		if ( feature == null ) {
 			throw new NullPointerException( "The parameter feature might not be null!" );
 		}
-		return this.features.add( feature );
+		if ( this.features.add( feature ) ) {
+			fireChange( ModelChangeKind.linked, "feature", null, feature );
+			return Boolean.TRUE;
+		}
+
+		return Boolean.FALSE;
 	}
 
 
@@ -193,18 +208,48 @@ implements
 
 
 	protected UNIQUE_KEY setUniqueKeyGeneric( UNIQUE_KEY uniqueKey ) {
+		checkMutable();
 		if ( uniqueKey == null ) {
 			throw new NullPointerException( "The uniqueKey feature might not be null!" );
 		}
+		checkMutable( uniqueKey );
+		checkMutable( this.uniqueKey );
 		
 		UNIQUE_KEY old = this.uniqueKey;
+		if ( old == uniqueKey ) {
+			return old; // no changes its the same uniqueKey
+		}
 		this.uniqueKey = uniqueKey;
+		if ( old instanceof GFunUniqueKey ) {
+			( (GFunUniqueKey<?, ?, ?, ?>) old ).unlinkKeyRelationship( this ); // bi-directional reference
+		}
+		if ( uniqueKey instanceof GFunUniqueKey ) {
+			( (GFunUniqueKey<?, ?, ?, ?>) uniqueKey ).linkKeyRelationship( this ); // bi-directional reference
+		}
+		fireChange( ModelChangeKind.propertyChanged, "uniqueKey", old, uniqueKey );
 		
 		return old;
 	}
 
 
 
+	/**
+	 * Unregisters this KeyRelationship from its UniqueKey, after it was dropped from the model: the UniqueKey does not keep it reachable
+	 * anymore. This KeyRelationship keeps referring to the UniqueKey, cause the reference is mandatory.
+	 *
+	 * @return <code>true</code> if this KeyRelationship was registered by its UniqueKey.
+	 *
+	 */
+	public Boolean releaseUniqueKey() {
+		if ( this.uniqueKey instanceof GFunUniqueKey ) {
+			return ( (GFunUniqueKey<?, ?, ?, ?>) this.uniqueKey ).unlinkKeyRelationship( this );
+		}
+
+		return Boolean.FALSE;
+	}
+
+
+
 //====================================================================================================================================================
 // GModelElement capabilities
 //====================================================================================================================================================
@@ -246,19 +291,17 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunForeignKey" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunForeignKey" );
 		if ( this.uniqueKey != null ) {
-			out.append( " | uniqueKey=" + this.uniqueKey.getQualifiedName() );
-			out.append( "<" + this.uniqueKey.getClass().getSimpleName() + ">" );
+			out.property( "uniqueKey", this.uniqueKey );
+			out.type( this.uniqueKey );
 		}
 		
-		out.append( collectionToString( "features", this.features, true ) );
+		out.elements( "features", this.features, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		
-		return out.toString();
 	}
 
 
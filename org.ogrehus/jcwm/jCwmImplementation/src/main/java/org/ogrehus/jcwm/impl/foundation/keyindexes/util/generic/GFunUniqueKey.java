@@ -35,6 +35,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GStructuralFeature;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -147,17 +149,29 @@ implements
 	 * 
 	 */
 	public Boolean removeFeature( GStructuralFeature<?, ?, ?, ?, ?, ?> feature ) {
+		checkMutable();
 		if ( feature == null ) {
 			return Boolean.TRUE;
 		}
 		
-		return ( this.features.size() >= 1 && this.features.remove( feature ) );
+		if ( this.features.size() >= 1 && this.features.remove( feature ) ) {
+			fireChange( ModelChangeKind.unlinked, "feature", feature, null );
+			return Boolean.TRUE;
+		}
+
+		return Boolean.FALSE;
 	}
 
 
 
 	protected Boolean addFeatureGeneric( STRUCTURAL feature ) {
-		return ( feature != null && this.features.add( feature ) );
+		checkMutable();
+		if ( feature != null && this.features.add( feature ) ) {
+			fireChange( ModelChangeKind.linked, "feature", null, feature );
+			return Boolean.TRUE;
+		}
+
+		return Boolean.FALSE;
 	}
 
 
@@ -184,9 +198,12 @@ implements
 
 
 
+	@SuppressWarnings( { "unchecked", "rawtypes" } )
 	public Boolean addKeyRelationshipGeneric( KEY_RELATION keyRelationship ) {
 		if ( keyRelationship != null && this.keyRelationships.add( keyRelationship ) ) {
-			invokeByReflection( keyRelationship, "addUniqueKey", this ); // bi-directional reference
+			if ( keyRelationship.getUniqueKey() != this && keyRelationship instanceof GFunKeyRelationship ) {
+				( (GFunKeyRelationship) keyRelationship ).setUniqueKeyGeneric( this ); // bi-directional reference
+			}
 			return Boolean.TRUE;
 		}
 		
@@ -195,6 +212,36 @@ implements
 
 
 
+	/**
+	 * Registers a KeyRelationship that refers to this UniqueKey without updating the KeyRelationship. Used by the KeyRelationship to organize
+	 * the bi-directional reference.
+	 * 
+	 * @param keyRelationship The KeyRelationship referencing this UniqueKey.
+	 * 
+	 * @return <code>true</code> if the KeyRelationship was not registered before.
+	 * 
+	 */
+	@SuppressWarnings( "unchecked" )
+	Boolean linkKeyRelationship( GKeyRelationship<?, ?, ?, ?> keyRelationship ) {
+		return this.keyRelationships.add( (KEY_RELATION) keyRelationship );
+	}
+
+
+
+	/**
+	 * Unregisters a KeyRelationship that does not refer to this UniqueKey anymore.
+	 * 
+	 * @param keyRelationship The KeyRelationship that was referencing this UniqueKey.
+	 * 
+	 * @return <code>true</code> if the KeyRelationship was registered before.
+	 * 
+	 */
+	Boolean unlinkKeyRelationship( GKeyRelationship<?, ?, ?, ?> keyRelationship ) {
+		return this.keyRelationships.remove( keyRelationship );
+	}
+
+
+
 //====================================================================================================================================================
 // GModelElement capabilities
 //====================================================================================================================================================
@@ -236,15 +283,13 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunUniqueKey" );
-		out.append( collectionToString( "features", this.features, true ) );
-		out.append( collectionToString( "keyRelationships", this.keyRelationships, true ) );        
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunUniqueKey" );
+		out.elements( "features", this.features, true );
+		out.elements( "keyRelationships", this.keyRelationships, true );        
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		
-		return out.toString();
 	}
 
 
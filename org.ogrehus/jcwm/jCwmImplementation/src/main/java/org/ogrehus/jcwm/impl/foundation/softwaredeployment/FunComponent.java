@@ -35,6 +35,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunClassifier;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -259,43 +260,15 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunComponent" );
-		if ( !this.designPackages.isEmpty() ) {
-			out.append( " | designPackages(" + this.designPackages.size() + ")={" );
-			boolean comma = false;
-			for ( GCwmPackage<?, ?, ?, ?, ?, ?, ?> designPackage : this.designPackages ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( designPackage.getSimpleName() );
-				out.append( "<" + designPackage.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+	public void describe( ModelDescription out ) {
+		out.append( "[FunComponent" );
+		out.simpleNames( "designPackages", this.designPackages, true );
 
-		if ( !this.deployments.isEmpty() ) {
-			out.append( " | deployments(" + this.deployments.size() + ")={" );
-			boolean comma = false;
-			for ( GCwmPackage<?, ?, ?, ?, ?, ?, ?> deployment : this.deployments ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( deployment.getSimpleName() );
-				out.append( "<" + deployment.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+		out.simpleNames( "deployments", this.deployments, true );
 		
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		
-		return out.toString();
 	}
 
 
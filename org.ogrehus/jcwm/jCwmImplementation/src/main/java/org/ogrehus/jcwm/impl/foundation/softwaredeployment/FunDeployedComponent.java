@@ -40,6 +40,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 import org.ogrehus.jcwm.api.resource.relational.Catalog;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunCwmPackage;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -511,47 +512,19 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunDeployedComponent" );
-		out.append( " | pathname=" + this.pathname );
-		out.append( " | component=" + this.component.getQualifiedName() );
-		out.append( " | machine=" + this.machine.getQualifiedName() );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunDeployedComponent" );
+		out.property( "pathname", this.pathname );
+		out.property( "component", this.component );
+		out.property( "machine", this.machine );
 		
-		if ( !this.usedComponents.isEmpty() ) {
-			out.append( " | usedComponents(" + this.usedComponents.size() + ")={" );
-			boolean comma = false;
-			for ( DeployedComponent usedComponent : this.usedComponents ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( usedComponent.getSimpleName() );
-				out.append( "<" + usedComponent.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+		out.simpleNames( "usedComponents", this.usedComponents, true );
 		
-		if ( !this.usingComponents.isEmpty() ) {
-			out.append( " | usingComponents(" + this.usingComponents.size() + ")={" );
-			boolean comma = false;
-			for ( DeployedComponent usingComponent : this.usingComponents ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( usingComponent.getSimpleName() );
-				out.append( "<" + usingComponent.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+		out.simpleNames( "usingComponents", this.usingComponents, true );
 		
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		
-		return out.toString();
 	}
 
 
@@ -30,6 +30,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.resource.relational.Catalog;
 
 import org.ogrehus.jcwm.impl.foundation.softwaredeployment.util.generic.GFunDataProvider;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -113,12 +114,10 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunJDBCProvider" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunJDBCProvider" );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		
-		return out.toString();
 	}
 }
\ No newline at end of file
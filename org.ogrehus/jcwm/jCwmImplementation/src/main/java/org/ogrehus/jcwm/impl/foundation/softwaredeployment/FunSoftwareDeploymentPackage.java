@@ -35,6 +35,8 @@ import org.ogrehus.jcwm.api.foundation.softwaredeployment.SoftwareSystem;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.resource.relational.Catalog;
 
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
 /**
  * FunSoftwareDeploymentPackage provides hierarchical access to any factory method in this jCwmAPI in scope of the package 
  * <code>softwaredeployment</code>.
@@ -67,6 +69,32 @@ extends
 {
 
 
+	/**
+	 * Creates a new instance of FunSoftwareDeploymentPackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunSoftwareDeploymentPackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunSoftwareDeploymentPackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunSoftwareDeploymentPackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	/**
 	 * Creates a new instance of Component by specific parameters.
 	 * 
@@ -84,7 +112,7 @@ extends
 	 *
 	 */
 	public Component createComponent( String name ) {
-		return new FunComponent( name, Visibility._public, Boolean.TRUE );
+		return this.registry.adopt( new FunComponent( name, Visibility._public, Boolean.TRUE ) );
 	}
 
 
@@ -121,7 +149,7 @@ extends
 		, Component component
 		, Machine machine
 	) {
-		return new FunDeployedComponent( name, Visibility._public, pathname, component, machine );
+		return this.registry.adopt( new FunDeployedComponent( name, Visibility._public, pathname, component, machine ) );
 	}
 
 
@@ -162,7 +190,7 @@ extends
 		, Machine machine
 		, Boolean isCaseSensitive
 	) {
-		return new FunJDBCManager( name, Visibility._public, pathname, component, machine, isCaseSensitive );
+		return this.registry.adopt( new FunJDBCManager( name, Visibility._public, pathname, component, machine, isCaseSensitive ) );
 	}
 
 
@@ -203,7 +231,7 @@ extends
 		, Machine machine
 		, Boolean isCaseSensitive
 	) {
-		return new FunJDBCProvider( name, Visibility._public, pathname, component, machine, isCaseSensitive );
+		return this.registry.adopt( new FunJDBCProvider( name, Visibility._public, pathname, component, machine, isCaseSensitive ) );
 	}
 
 
@@ -237,7 +265,7 @@ extends
 		, String fixLevel
 		, SoftwareSystem softwareSystem
 	) {
-		return new FunDeployedSoftwareSystem( name, Visibility._public, fixLevel, softwareSystem );
+		return this.registry.adopt( new FunDeployedSoftwareSystem( name, Visibility._public, fixLevel, softwareSystem ) );
 	}
 
 
@@ -261,7 +289,7 @@ extends
 	 * 
 	 */
 	public Machine createMachine( String name ) {
-		return new FunMachine( name, Visibility._public );
+		return this.registry.adopt( new FunMachine( name, Visibility._public ) );
 	}
 
 
@@ -291,7 +319,7 @@ extends
 	 * 
 	 */
 	public JDBCPackageUsage createJDBCPackageUsage( String name, JDBCConnection client, Catalog supplier ) {
-		return new FunJDBCPackageUsage( name, Visibility._public, client, supplier );
+		return this.registry.adopt( new FunJDBCPackageUsage( name, Visibility._public, client, supplier ) );
 	}
 
 
@@ -324,7 +352,7 @@ extends
 		, JDBCProvider jdbcProvider
 		, JDBCManager jdbcManager
 	) {
-		return new FunJDBCConnection( name, Visibility._public, isReadOnly, jdbcProvider, jdbcManager );
+		return this.registry.adopt( new FunJDBCConnection( name, Visibility._public, isReadOnly, jdbcProvider, jdbcManager ) );
 	}
 
 
@@ -393,6 +421,20 @@ extends
 	 * 
 	 */
 	public SoftwareSystem createSoftwareSystem( String name ) {
-		return new FunSoftwareSystem( name, Visibility._public, Boolean.TRUE );
+		return this.registry.adopt( new FunSoftwareSystem( name, Visibility._public, Boolean.TRUE ) );
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
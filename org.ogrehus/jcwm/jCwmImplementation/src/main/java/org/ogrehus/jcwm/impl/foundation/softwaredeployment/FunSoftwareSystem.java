@@ -35,6 +35,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.Model;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
 
+import org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve.TypeSystemRegistry;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunSubsystem;
 
 
@@ -83,6 +84,7 @@ implements
 	public FunSoftwareSystem( String name, Visibility visibility, Boolean notInstantiable ) {
 		super( name, visibility, notInstantiable ); // may throw NullPointerException
 		this.typespaces = new HashSet<TypeSystem>();
+		this.typespaceRegistry = new TypeSystemRegistry( this.typespaces );
 		this.deployedSoftwareSystems = new HashSet<DeployedSoftwareSystem>();
 	}
 
@@ -393,19 +395,7 @@ implements
 
 
 	public TypeSystem getTypespace( String typeSystemName, String typeSystemVersion ) {
-		for ( TypeSystem system : this.typespaces ) {
-			if ( system.getSimpleName().equals( typeSystemName ) ) {
-				if ( typeSystemVersion == null ) {
-					return system; // ignore version return any by name
-				} else {
-					if ( typeSystemVersion.equals( system.getVersion() ) ) {
-						return system;
-					}
-				}
-			}
-		}
-
-		return null;
+		return this.typespaceRegistry.get( typeSystemName, typeSystemVersion ); // a null version accepts any by name
 	}
 
 
@@ -568,5 +558,13 @@ implements
 
 
 
+	/**
+	 * Finds the typespaces by name and version.
+	 *
+	 */
+	private TypeSystemRegistry typespaceRegistry = null;
+
+
+
 	protected Set<DeployedSoftwareSystem> deployedSoftwareSystems = null;
 }
\ No newline at end of file
@@ -32,6 +32,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 
 import org.ogrehus.jcwm.impl.foundation.softwaredeployment.FunDeployedComponent;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -274,46 +275,18 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunDataProvider" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunDataProvider" );
 		if ( this.caseSensitive != null ) {
-			out.append( " | caseSensitive=" + this.caseSensitive );
+			out.property( "caseSensitive", this.caseSensitive );
 		}
 
-		if ( !this.dataPackages.isEmpty() ) {
-			out.append( " | dataPackages(" + this.dataPackages.size() + ")={" );
-			boolean comma = false;
-			for ( DATA_PACKAGE dataPackage : this.dataPackages ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( dataPackage.getSimpleName() );
-				out.append( "<" + dataPackage.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+		out.simpleNames( "dataPackages", this.dataPackages, true );
 		
-		if ( !this.clientConnections.isEmpty() ) {
-			out.append( " | clientConnections(" + this.clientConnections.size() + ")={" );
-			boolean comma = false;
-			for ( CONNECTION clientConnection : this.clientConnections ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( clientConnection.getSimpleName() );
-				out.append( "<" + clientConnection.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+		out.simpleNames( "clientConnections", this.clientConnections, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -30,6 +30,7 @@ import org.ogrehus.jcwm.api.foundation.softwaredeployment.util.generic.GDataProv
 import org.ogrehus.jcwm.api.foundation.softwaredeployment.util.generic.GProviderConnection;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A DataProvider is a deployed software Component that acts as a client to provide access to data that is managed by another product.
@@ -172,27 +173,12 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunDataProvider" );
-		if ( !this.resourceConnections.isEmpty() ) {
-			out.append( " | resourceConnections(" + this.resourceConnections.size() + ")={" );
-			boolean comma = false;
-			for ( CONNECTION resourceConnection : this.resourceConnections ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( resourceConnection.getSimpleName() );
-				out.append( "<" + resourceConnection.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunDataProvider" );
+		out.simpleNames( "resourceConnections", this.resourceConnections, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
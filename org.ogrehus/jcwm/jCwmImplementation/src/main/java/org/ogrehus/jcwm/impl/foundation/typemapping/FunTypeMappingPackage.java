@@ -27,12 +27,40 @@ import org.ogrehus.jcwm.api.foundation.typemapping.TypeSystem;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
 
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
 public class FunTypeMappingPackage
 extends
 	TypeMappingPackage
 {
 
 
+	/**
+	 * Creates a new instance of FunTypeMappingPackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunTypeMappingPackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunTypeMappingPackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunTypeMappingPackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	
 	@Override
 	public TypeMapping createTypeMapping(
@@ -43,13 +71,27 @@ extends
 		, GClassifier<?, ?, ?, ?, ?, ?> sourceType 
 		, GClassifier<?, ?, ?, ?, ?, ?> targetType
 	) {
-		return new FunTypeMapping( name, visibility, isBestMatch, isLossy, sourceType, targetType );
+		return this.registry.adopt( new FunTypeMapping( name, visibility, isBestMatch, isLossy, sourceType, targetType ) );
 	}
 
 
 
 	@Override
 	public TypeSystem createTypeSystem( String name, Visibility visibility, String version ) {
-		return new FunTypeSystem( name, visibility, version );
+		return this.registry.adopt( new FunTypeSystem( name, visibility, version ) );
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
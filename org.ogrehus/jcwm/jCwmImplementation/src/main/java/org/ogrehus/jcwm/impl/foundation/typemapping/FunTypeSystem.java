@@ -39,6 +39,8 @@ import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
 import org.ogrehus.jcwm.api.resource.relational.SQLStructuredType;
 
 import org.ogrehus.jcwm.impl.foundation.typemapping.util.generic.GFunTypeSystem;
+import org.ogrehus.jcwm.impl.resource.relational.FunSQLSimpleTypePool;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 public class FunTypeSystem
@@ -221,6 +223,30 @@ implements
 
 
 
+	/**
+	 * Returns the pool of the SQLSimpleTypes shared by the columns typed by this TypeSystem. The pool is created on first use and lives as long as this
+	 * TypeSystem.
+	 *
+	 * @return The pool of this TypeSystem. Can't be <code>null</code>.
+	 *
+	 */
+	public FunSQLSimpleTypePool getSQLSimpleTypePool() {
+		FunSQLSimpleTypePool pool = this.sqlSimpleTypePool;
+		if ( pool == null ) {
+			synchronized ( this ) {
+				pool = this.sqlSimpleTypePool;
+				if ( pool == null ) {
+					pool = new FunSQLSimpleTypePool( this );
+					this.sqlSimpleTypePool = pool;
+				}
+			}
+		}
+
+		return pool;
+	}
+
+
+
 //====================================================================================================================================================
 // Object capabilities
 //====================================================================================================================================================
@@ -228,26 +254,12 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunTypeSystem" );
-		if ( !this.softwareSystems.isEmpty() ) {
-			out.append( " | softwareSystems(" + this.softwareSystems.size() + ")={" );
-			boolean comma = false;
-			for ( SoftwareSystem system : this.softwareSystems ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( system.getSimpleName() );
-				out.append( "<" + system.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunTypeSystem" );
+		out.simpleNames( "softwareSystems", this.softwareSystems, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		return out.toString();
 	}
 
 
@@ -259,4 +271,12 @@ implements
 
 
 	protected Set<SoftwareSystem> softwareSystems = null;
+
+
+
+	/**
+	 * The pool of shared SQLSimpleTypes, or <code>null</code> if not used yet.
+	 *
+	 */
+	private volatile FunSQLSimpleTypePool sqlSimpleTypePool = null;
 }
\ No newline at end of file
@@ -33,6 +33,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+
 public abstract class GFunTypeMapping<
 	  NAMESPACE  extends GNamespace<?, ?, ?, ?, ?>
 	, PACKAGE    extends GCwmPackage<?, ?, ?, ?, ?, ?, ?>
@@ -127,16 +129,22 @@ implements
 
 
 	public Boolean setBestMatch( Boolean bestMatch ) {
+		checkMutable();
 		Boolean old = this.isBestMatch;
 		this.isBestMatch = bestMatch;
+		fireChange( ModelChangeKind.propertyChanged, "isBestMatch", old, bestMatch );
+		mappingChanged();
 		return old;
 	}
 
 
 
 	public Boolean setLossy( Boolean lossy ) {
+		checkMutable();
 		Boolean old = this.isLossy;
 		this.isLossy = lossy;
+		fireChange( ModelChangeKind.propertyChanged, "isLossy", old, lossy );
+		mappingChanged();
 		return old;
 	}
 
@@ -154,6 +162,24 @@ implements
 
 
 
+//====================================================================================================================================================
+// GFunTypeMapping internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Drops the index of the owning TypeSystem, cause the flags of this mapping take part in the resolution of its source type.
+	 *
+	 */
+	private void mappingChanged() {
+		if ( getNamespace() instanceof GFunTypeSystem<?, ?, ?, ?, ?> ) {
+			( (GFunTypeSystem<?, ?, ?, ?, ?>) getNamespace() ).typeMappingsChanged();
+		}
+	}
+
+
+
 //====================================================================================================================================================
 //	Properties
 //====================================================================================================================================================
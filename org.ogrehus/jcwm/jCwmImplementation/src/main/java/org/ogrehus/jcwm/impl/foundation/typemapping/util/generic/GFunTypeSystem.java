@@ -23,8 +23,14 @@ package org.ogrehus.jcwm.impl.foundation.typemapping.util.generic;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.ogrehus.jcwm.api.foundation.typemapping.TypeMapping;
 import org.ogrehus.jcwm.api.foundation.typemapping.util.generic.GTypeSystem;
@@ -36,8 +42,13 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.OwnedElement;
 
+import org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve.TypeResolution;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunCwmPackage;
+import org.ogrehus.jcwm.impl.util.metrics.CacheKind;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -171,76 +182,229 @@ implements
 
 
 
+	/**
+	 * Returns the best match for the sourceType in this TypeSystem. If no mapping of the sourceType is flagged as best match, the target of the
+	 * last mapping is returned, cause any mapping is better than none.
+	 *
+	 * @param sourceType The Type that should be mapped.
+	 *
+	 * @return The target type, or <code>null</code> if this TypeSystem has no mapping for the sourceType.
+	 *
+	 */
 	public GClassifier<?, ?, ?, ?, ?, ?> getTarget( GClassifier<?, ?, ?, ?, ?, ?> sourceType ) {
-		Collection<TypeMapping> sourceMappings = getSourceMappings( sourceType );
-		TypeMapping lastChance = null;
-		for ( TypeMapping mapping : sourceMappings ) {
-			if ( mapping.isBestMatch() ) {
-				return mapping.getTargetType();
-			}
-			lastChance = mapping;
-		}
+		TypeResolution resolution = getResolution( sourceType );
 
-		return lastChance.getTargetType(); // return the last mapping is better than no mapping, if no bestMatch avail.
+		return resolution == null ? null : resolution.getTargetType();
+	}
+
+
+
+	/**
+	 * Resolves a source type by the index of the mappings of this TypeSystem. The index is built on first use and outdated whenever a mapping
+	 * is added, removed or changes its best match or lossy flag.
+	 *
+	 * @param sourceType The Type that should be mapped.
+	 *
+	 * @return All mappings of the sourceType with the chosen one, or <code>null</code> if this TypeSystem has no mapping for the sourceType.
+	 *
+	 */
+	public TypeResolution getResolution( GClassifier<?, ?, ?, ?, ?, ?> sourceType ) {
+		return getMappingIndex().resolutions.get( sourceType );
 	}
 
 
 
 	protected Collection<TypeMapping> getSourceMappings( GClassifier<?, ?, ?, ?, ?, ?> sourceType ) {
-		Collection<TypeMapping> sourceMappings = new ArrayList<TypeMapping>();
-		for ( TypeMapping mapping : this.getOwnedTypeMappings() ) {
-			if ( mapping.getSourceType().equals( sourceType ) ) {
-				sourceMappings.add( mapping );
-			}
-		}
+		TypeResolution resolution = getResolution( sourceType );
 
-		return sourceMappings;
+		return resolution == null ? Collections.<TypeMapping>emptyList() : resolution.getMappings();
 	}
 
 
 
+	/**
+	 * @return A read only Collection of all source Classifiers mapped in this TypeSystem.
+	 *
+	 */
 	public Collection<GClassifier<?, ?, ?, ?, ?, ?>> getSourceTypes() {
-		Integer countTypes = this.getOwnedElements().size();
-		Collection<GClassifier<?, ?, ?, ?, ?, ?>> sourceTypes = new HashSet<GClassifier<?,?,?,?,?,?>>( countTypes );
-		for ( OWNED owned : getOwnedElements() ) {
-			if ( owned instanceof TypeMapping ) {
-				TypeMapping mapping = (TypeMapping)owned;
-				sourceTypes.add( mapping.getSourceType() );
-			}
+		return getMappingIndex().sourceTypes;
+	}
+
+
+
+	/**
+	 * @return A read only Collection of all target Classifiers mapped in this TypeSystem.
+	 *
+	 */
+	public Collection<GClassifier<?, ?, ?, ?, ?, ?>> getTargetTypes() {
+		return getMappingIndex().targetTypes;
+	}
+
+
+
+	/**
+	 * @return A read only Collection of all Classifiers mapped in this TypeSystem.
+	 *
+	 */
+	public Collection<GClassifier<?, ?, ?, ?, ?, ?>> getTypes() {
+		return getMappingIndex().types;
+	}
+
+
+
+	/**
+	 * Counts the changes of the owned types and mappings of all TypeSystems. Caches that span several TypeSystems, like the chains of a
+	 * TypeMappingResolver, are valid as long as the count does not change.
+	 *
+	 * @return The current count of changes.
+	 *
+	 */
+	public static long getMappingEpoch() {
+		return mappingEpoch.get();
+	}
+
+
+
+//====================================================================================================================================================
+// GNamespace capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	protected <E extends OWNED> Boolean addOwnedElementGeneric( E ownedElement ) {
+		Boolean added = super.addOwnedElementGeneric( ownedElement );
+		if ( added ) {
+			ownedElementsChanged( ownedElement );
 		}
 
-		return sourceTypes;
+		return added;
 	}
 
 
 
-	public Collection<GClassifier<?, ?, ?, ?, ?, ?>> getTargetTypes() {
-		Integer countTypes = this.getOwnedElements().size();		
-		Collection<GClassifier<?, ?, ?, ?, ?, ?>> targetTypes = new HashSet<GClassifier<?,?,?,?,?,?>>( countTypes );
-		for ( OWNED owned : this.getOwnedElements() ) {
-			if ( owned instanceof TypeMapping ) {
-				TypeMapping mapping = (TypeMapping)owned;
-				targetTypes.add( mapping.getTargetType() );
-			}			
+	@Override
+	public Boolean removeOwnedElement( OwnedElement<?> ownedElement ) {
+		Boolean contained = ownedElement != null && getOwnedElements().contains( ownedElement );
+		Boolean removed = super.removeOwnedElement( ownedElement );
+		if ( contained ) {
+			ownedElementsChanged( ownedElement );
 		}
 
-		return targetTypes;
+		return removed;
 	}
 
 
-	public Collection<GClassifier<?, ?, ?, ?, ?, ?>> getTypes() {
-		Integer countTypes = getOwnedElements().size() * 2; 
-		Collection<GClassifier<?, ?, ?, ?, ?, ?>> types = new HashSet<GClassifier<?,?,?,?,?,?>>( countTypes );
-		for ( OWNED owned : this.getOwnedElements() ) {
-			if ( owned instanceof TypeMapping ) {
-				TypeMapping mapping = (TypeMapping)owned;
-				types.add( mapping.getSourceType() );				
-				types.add( mapping.getTargetType() );
-			}			
+
+//====================================================================================================================================================
+// GFunTypeSystem internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Drops the index of the mappings. Called by the mappings of this TypeSystem when their flags change.
+	 *
+	 */
+	void typeMappingsChanged() {
+		this.mappingGeneration.incrementAndGet();
+		mappingEpoch.incrementAndGet();
+	}
+
+
+
+	/**
+	 * A new or removed type can complete or break a chain of mappings through this TypeSystem, so every change of the owned elements counts.
+	 *
+	 */
+	private void ownedElementsChanged( Object ownedElement ) {
+		if ( ownedElement instanceof TypeMapping ) {
+			this.mappingGeneration.incrementAndGet();
+		}
+		mappingEpoch.incrementAndGet();
+	}
+
+
+
+	/**
+	 * Returns the index of the current mappings. An index is tagged with the generation of the mappings it was built of, so an index built
+	 * while the mappings changed may be stored, but is never used: the next call sees a newer generation and builds it again.
+	 *
+	 */
+	private MappingIndex getMappingIndex() {
+		long generation = this.mappingGeneration.get();
+		MappingIndex index = this.mappingIndex;
+		if ( index == null || index.generation != generation ) {
+			ModelMetrics.miss( CacheKind.typeMappingIndex );
+			index = new MappingIndex( getOwnedTypeMappings(), generation );
+			this.mappingIndex = index;
+		} else {
+			ModelMetrics.hit( CacheKind.typeMappingIndex );
 		}
 
-		return types;
-	}	
+		return index;
+	}
+
+
+
+	/**
+	 * The resolutions of all source types of a TypeSystem, with the mapped types collected once.
+	 *
+	 */
+	private static final class MappingIndex {
+
+
+		MappingIndex( Collection<TypeMapping> mappings, long generation ) {
+			Map<GClassifier<?, ?, ?, ?, ?, ?>, List<TypeMapping>> bySource = new LinkedHashMap<GClassifier<?, ?, ?, ?, ?, ?>, List<TypeMapping>>();
+			Set<GClassifier<?, ?, ?, ?, ?, ?>> targetTypes = new LinkedHashSet<GClassifier<?, ?, ?, ?, ?, ?>>();
+			for ( TypeMapping mapping : mappings ) {
+				List<TypeMapping> sourceMappings = bySource.get( mapping.getSourceType() );
+				if ( sourceMappings == null ) {
+					sourceMappings = new ArrayList<TypeMapping>( 2 );
+					bySource.put( mapping.getSourceType(), sourceMappings );
+				}
+				sourceMappings.add( mapping );
+				targetTypes.add( mapping.getTargetType() );
+			}
+
+			Map<GClassifier<?, ?, ?, ?, ?, ?>, TypeResolution> resolutions = new HashMap<GClassifier<?, ?, ?, ?, ?, ?>, TypeResolution>();
+			for ( Map.Entry<GClassifier<?, ?, ?, ?, ?, ?>, List<TypeMapping>> entry : bySource.entrySet() ) {
+				resolutions.put( entry.getKey(), new TypeResolution( entry.getKey(), entry.getValue() ) );
+			}
+			Set<GClassifier<?, ?, ?, ?, ?, ?>> types = new LinkedHashSet<GClassifier<?, ?, ?, ?, ?, ?>>( bySource.keySet() );
+			types.addAll( targetTypes );
+
+			this.generation  = generation;
+			this.resolutions = resolutions;
+			this.sourceTypes = Collections.unmodifiableSet( new LinkedHashSet<GClassifier<?, ?, ?, ?, ?, ?>>( bySource.keySet() ) );
+			this.targetTypes = Collections.unmodifiableSet( targetTypes );
+			this.types       = Collections.unmodifiableSet( types );
+		}
+
+
+
+		/**
+		 * The generation of the mappings the index was built of.
+		 *
+		 */
+		final long generation;
+
+
+
+		final Map<GClassifier<?, ?, ?, ?, ?, ?>, TypeResolution> resolutions;
+
+
+
+		final Collection<GClassifier<?, ?, ?, ?, ?, ?>> sourceTypes;
+
+
+
+		final Collection<GClassifier<?, ?, ?, ?, ?, ?>> targetTypes;
+
+
+
+		final Collection<GClassifier<?, ?, ?, ?, ?, ?>> types;
+	}
 
 
 
@@ -251,16 +415,14 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunTypeSystem" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunTypeSystem" );
 		if ( this.version != null ) {
-			out.append( " | version=" + this.version );
+			out.property( "version", this.version );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -284,4 +446,25 @@ implements
 	 * 
 	 */
 	protected String version = null;
+
+
+
+	/**
+	 * The index of the owned mappings, or <code>null</code> if it has to be built. It is outdated, if its generation differs from
+	 * {@link #mappingGeneration}.
+	 *
+	 */
+	private volatile MappingIndex mappingIndex = null;
+
+
+
+	/**
+	 * The number of changes of the owned mappings, each outdates the index.
+	 *
+	 */
+	private final AtomicLong mappingGeneration = new AtomicLong();
+
+
+
+	private static final AtomicLong mappingEpoch = new AtomicLong();
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeMapping;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+
+
+/**
+ * A TypeMappingChain translates a type in several steps, like <code>Oracle NUMBER -&gt; SQL99 NUMERIC -&gt; Postgres numeric</code>, where
+ * the target type of each TypeMapping is the source type of the next one.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class TypeMappingChain {
+
+
+	TypeMappingChain( GClassifier<?, ?, ?, ?, ?, ?> sourceType, List<TypeMapping> mappings ) {
+		this.sourceType = sourceType;
+		this.mappings = Collections.unmodifiableList( new ArrayList<TypeMapping>( mappings ) );
+	}
+
+
+
+	public GClassifier<?, ?, ?, ?, ?, ?> getSourceType() {
+		return this.sourceType;
+	}
+
+
+
+	/**
+	 * @return The type at the end of the chain. Equals the source type, if the chain has no mappings.
+	 *
+	 */
+	public GClassifier<?, ?, ?, ?, ?, ?> getTargetType() {
+		return this.mappings.isEmpty() ? this.sourceType : this.mappings.get( this.mappings.size() - 1 ).getTargetType();
+	}
+
+
+
+	/**
+	 * @return The mappings in the order of translation. Can't be <code>null</code>, but an empty read only List if the source type is already
+	 * a target type.
+	 *
+	 */
+	public List<TypeMapping> getMappings() {
+		return this.mappings;
+	}
+
+
+
+	public int getLength() {
+		return this.mappings.size();
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if every mapping of the chain is flagged as best match.
+	 *
+	 */
+	public Boolean isExact() {
+		for ( TypeMapping mapping : this.mappings ) {
+			if ( !Boolean.TRUE.equals( mapping.isBestMatch() ) ) {
+				return Boolean.FALSE;
+			}
+		}
+
+		return Boolean.TRUE;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if any mapping of the chain may lose information.
+	 *
+	 */
+	public Boolean isLossy() {
+		for ( TypeMapping mapping : this.mappings ) {
+			if ( Boolean.TRUE.equals( mapping.isLossy() ) ) {
+				return Boolean.TRUE;
+			}
+		}
+
+		return Boolean.FALSE;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[TypeMappingChain | " );
+		out.append( this.sourceType.getSimpleName() );
+		for ( TypeMapping mapping : this.mappings ) {
+			out.append( " -> " + mapping.getTargetType().getSimpleName() );
+		}
+		out.append( " | exact=" + isExact() );
+		out.append( " | lossy=" + isLossy() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final GClassifier<?, ?, ?, ?, ?, ?> sourceType;
+
+
+
+	private final List<TypeMapping> mappings;
+}
@@ -0,0 +1,290 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeMapping;
+import org.ogrehus.jcwm.api.foundation.typemapping.util.generic.GTypeSystem;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+
+import org.ogrehus.jcwm.impl.foundation.typemapping.util.generic.GFunTypeSystem;
+import org.ogrehus.jcwm.impl.util.metrics.CacheKind;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+
+
+/**
+ * A TypeMappingResolver translates types across several TypeSystems, also if no TypeSystem maps a type directly to the requested target.
+ * <p>
+ * The mappings of all TypeSystems of the resolver form a graph of types. A chain is found by a breadth first search, so it has as few steps as
+ * possible. At each type the mappings are tried in the order of the TypeSystems, the chosen mapping of a TypeResolution before its
+ * alternatives, so among the shortest chains the one following best matches wins.
+ * </p>
+ * <p>
+ * Found chains are memoized, cause a migration translates the same few types for every column. The memo is dropped as soon as a type or
+ * mapping of any TypeSystem changes, see {@link GFunTypeSystem#getMappingEpoch()}.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class TypeMappingResolver {
+
+
+	/**
+	 * Creates a new instance of TypeMappingResolver.
+	 *
+	 * @param typeSystems The TypeSystems whose mappings are used, in the order of preference. Must not be <code>null</code>.
+	 *
+	 */
+	public TypeMappingResolver( Collection<? extends GTypeSystem<?, ?, ?, ?, ?>> typeSystems ) {
+		if ( typeSystems == null ) {
+			throw new NullPointerException( "Parameter: typeSystems must not be null." );
+		}
+		this.typeSystems = Collections.unmodifiableList( new ArrayList<GTypeSystem<?, ?, ?, ?, ?>>( typeSystems ) );
+	}
+
+
+
+//====================================================================================================================================================
+// TypeMappingResolver capabilities
+//====================================================================================================================================================
+
+
+
+	public List<GTypeSystem<?, ?, ?, ?, ?>> getTypeSystems() {
+		return this.typeSystems;
+	}
+
+
+
+	/**
+	 * Finds the shortest chain of mappings from a type to any type owned by a TypeSystem.
+	 *
+	 * @param sourceType The type to be translated. Must not be <code>null</code>.
+	 *
+	 * @param targetSystem The TypeSystem owning the requested target type. Must not be <code>null</code>.
+	 *
+	 * @return The chain, or <code>null</code> if the target TypeSystem can't be reached.
+	 *
+	 */
+	public TypeMappingChain getChain( GClassifier<?, ?, ?, ?, ?, ?> sourceType, GTypeSystem<?, ?, ?, ?, ?> targetSystem ) {
+		if ( targetSystem == null ) {
+			throw new NullPointerException( "Parameter: targetSystem must not be null." );
+		}
+
+		return getMemoized( sourceType, targetSystem );
+	}
+
+
+
+	/**
+	 * Finds the shortest chain of mappings from a type to another.
+	 *
+	 * @param sourceType The type to be translated. Must not be <code>null</code>.
+	 *
+	 * @param targetType The requested target type. Must not be <code>null</code>.
+	 *
+	 * @return The chain, or <code>null</code> if the target type can't be reached.
+	 *
+	 */
+	public TypeMappingChain getChain( GClassifier<?, ?, ?, ?, ?, ?> sourceType, GClassifier<?, ?, ?, ?, ?, ?> targetType ) {
+		if ( targetType == null ) {
+			throw new NullPointerException( "Parameter: targetType must not be null." );
+		}
+
+		return getMemoized( sourceType, targetType );
+	}
+
+
+
+	/**
+	 * @return The number of memoized chains, including the memoized failures.
+	 *
+	 */
+	public synchronized int getMemoSize() {
+		int size = 0;
+		for ( Map<Object, TypeMappingChain> chains : this.memo.values() ) {
+			size += chains.size();
+		}
+
+		return size;
+	}
+
+
+
+//====================================================================================================================================================
+// TypeMappingResolver internals
+//====================================================================================================================================================
+
+
+
+	private synchronized TypeMappingChain getMemoized( GClassifier<?, ?, ?, ?, ?, ?> sourceType, Object target ) {
+		if ( sourceType == null ) {
+			throw new NullPointerException( "Parameter: sourceType must not be null." );
+		}
+		long epoch = GFunTypeSystem.getMappingEpoch();
+		if ( epoch != this.memoEpoch ) {
+			this.memo.clear();
+			this.memoEpoch = epoch;
+		}
+
+		Map<Object, TypeMappingChain> chains = this.memo.get( sourceType );
+		if ( chains == null ) {
+			chains = new HashMap<Object, TypeMappingChain>( 4 );
+			this.memo.put( sourceType, chains );
+		}
+		if ( !chains.containsKey( target ) ) {
+			ModelMetrics.miss( CacheKind.typeMappingChain );
+			chains.put( target, search( sourceType, target ) ); // a failure is memoized as null
+		} else {
+			ModelMetrics.hit( CacheKind.typeMappingChain );
+		}
+
+		return chains.get( target );
+	}
+
+
+
+	private TypeMappingChain search( GClassifier<?, ?, ?, ?, ?, ?> sourceType, Object target ) {
+		if ( isTarget( sourceType, target ) ) {
+			return new TypeMappingChain( sourceType, Collections.<TypeMapping>emptyList() );
+		}
+
+		Map<GClassifier<?, ?, ?, ?, ?, ?>, TypeMapping> reachedBy = new HashMap<GClassifier<?, ?, ?, ?, ?, ?>, TypeMapping>();
+		reachedBy.put( sourceType, null );
+		Deque<GClassifier<?, ?, ?, ?, ?, ?>> open = new ArrayDeque<GClassifier<?, ?, ?, ?, ?, ?>>();
+		open.add( sourceType );
+		while ( !open.isEmpty() ) {
+			for ( TypeMapping mapping : getMappings( open.poll() ) ) {
+				GClassifier<?, ?, ?, ?, ?, ?> next = mapping.getTargetType();
+				if ( reachedBy.containsKey( next ) ) {
+					continue;
+				}
+				reachedBy.put( next, mapping );
+				if ( isTarget( next, target ) ) {
+					LinkedList<TypeMapping> mappings = new LinkedList<TypeMapping>();
+					for ( TypeMapping step = mapping; step != null; step = reachedBy.get( step.getSourceType() ) ) {
+						mappings.addFirst( step );
+					}
+					return new TypeMappingChain( sourceType, mappings );
+				}
+				open.add( next );
+			}
+		}
+
+		return null;
+	}
+
+
+
+	private static Boolean isTarget( GClassifier<?, ?, ?, ?, ?, ?> type, Object target ) {
+		if ( target instanceof GTypeSystem<?, ?, ?, ?, ?> ) {
+			return ( (GTypeSystem<?, ?, ?, ?, ?>) target ).getOwnedElements().contains( type );
+		}
+
+		return type == target;
+	}
+
+
+
+	/**
+	 * @return The mappings of a source type in all TypeSystems, the chosen mapping of each TypeSystem before its alternatives.
+	 *
+	 */
+	private List<TypeMapping> getMappings( GClassifier<?, ?, ?, ?, ?, ?> sourceType ) {
+		List<TypeMapping> mappings = new ArrayList<TypeMapping>();
+		for ( GTypeSystem<?, ?, ?, ?, ?> system : this.typeSystems ) {
+			TypeResolution resolution = null;
+			if ( system instanceof GFunTypeSystem<?, ?, ?, ?, ?> ) {
+				resolution = ( (GFunTypeSystem<?, ?, ?, ?, ?>) system ).getResolution( sourceType );
+			} else {
+				List<TypeMapping> sourceMappings = new ArrayList<TypeMapping>();
+				for ( Object owned : system.getOwnedElements() ) {
+					if ( owned instanceof TypeMapping && ( (TypeMapping) owned ).getSourceType() == sourceType ) {
+						sourceMappings.add( (TypeMapping) owned );
+					}
+				}
+				resolution = sourceMappings.isEmpty() ? null : new TypeResolution( sourceType, sourceMappings );
+			}
+			if ( resolution != null ) {
+				mappings.add( resolution.getBestMatch() );
+				mappings.addAll( resolution.getAlternatives() );
+			}
+		}
+
+		return mappings;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public synchronized String toString() {
+		StringBuffer out = new StringBuffer( "[TypeMappingResolver" );
+		out.append( " | typeSystems=" + this.typeSystems.size() );
+		out.append( " | memoized=" + getMemoSize() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final List<GTypeSystem<?, ?, ?, ?, ?>> typeSystems;
+
+
+
+	/**
+	 * The found chains by source type and target, a TypeSystem or a type.
+	 *
+	 */
+	private final Map<GClassifier<?, ?, ?, ?, ?, ?>, Map<Object, TypeMappingChain>> memo
+		= new HashMap<GClassifier<?, ?, ?, ?, ?, ?>, Map<Object, TypeMappingChain>>();
+
+
+
+	/**
+	 * The mapping epoch the memo is valid for.
+	 *
+	 */
+	private long memoEpoch = -1;
+}
@@ -0,0 +1,192 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeMapping;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+
+
+/**
+ * A TypeResolution holds all TypeMappings of a TypeSystem for one source type, with the mapping chosen for a translation.
+ * <p>
+ * The chosen mapping is the first mapping flagged as best match. If no mapping is flagged, the last mapping is chosen, cause any mapping is
+ * better than none. All other mappings are alternatives in the order of the TypeSystem.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class TypeResolution {
+
+
+	/**
+	 * Creates a new instance of TypeResolution.
+	 *
+	 * @param sourceType The mapped source type. Must not be <code>null</code>.
+	 *
+	 * @param mappings All mappings of the source type. Must not be <code>null</code> or empty.
+	 *
+	 */
+	public TypeResolution( GClassifier<?, ?, ?, ?, ?, ?> sourceType, List<TypeMapping> mappings ) {
+		if ( sourceType == null ) {
+			throw new NullPointerException( "Parameter: sourceType must not be null." );
+		}
+		if ( mappings == null ) {
+			throw new NullPointerException( "Parameter: mappings must not be null." );
+		}
+		if ( mappings.isEmpty() ) {
+			throw new IllegalArgumentException( "Parameter: mappings must not be empty." );
+		}
+		this.sourceType = sourceType;
+		this.mappings = Collections.unmodifiableList( new ArrayList<TypeMapping>( mappings ) );
+
+		TypeMapping best = null;
+		for ( TypeMapping mapping : mappings ) {
+			if ( Boolean.TRUE.equals( mapping.isBestMatch() ) ) {
+				best = mapping;
+				break;
+			}
+		}
+		this.bestMatch = best != null ? best : mappings.get( mappings.size() - 1 );
+
+		List<TypeMapping> alternatives = new ArrayList<TypeMapping>( mappings.size() - 1 );
+		for ( TypeMapping mapping : mappings ) {
+			if ( mapping != this.bestMatch ) {
+				alternatives.add( mapping );
+			}
+		}
+		this.alternatives = Collections.unmodifiableList( alternatives );
+	}
+
+
+
+	public GClassifier<?, ?, ?, ?, ?, ?> getSourceType() {
+		return this.sourceType;
+	}
+
+
+
+	/**
+	 * @return The mapping chosen for a translation of the source type. Can't be <code>null</code>.
+	 *
+	 */
+	public TypeMapping getBestMatch() {
+		return this.bestMatch;
+	}
+
+
+
+	/**
+	 * @return The target type of the chosen mapping. Can't be <code>null</code>.
+	 *
+	 */
+	public GClassifier<?, ?, ?, ?, ?, ?> getTargetType() {
+		return this.bestMatch.getTargetType();
+	}
+
+
+
+	/**
+	 * @return The mappings of the source type, except the chosen one. Can't be <code>null</code>, but an empty read only List.
+	 *
+	 */
+	public List<TypeMapping> getAlternatives() {
+		return this.alternatives;
+	}
+
+
+
+	/**
+	 * @return All mappings of the source type in the order of the TypeSystem. Can't be <code>null</code>.
+	 *
+	 */
+	public List<TypeMapping> getMappings() {
+		return this.mappings;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the chosen mapping is flagged as best match, <code>false</code> if it is a fallback.
+	 *
+	 */
+	public Boolean isExact() {
+		return Boolean.TRUE.equals( this.bestMatch.isBestMatch() );
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if a translation by the chosen mapping may lose information.
+	 *
+	 */
+	public Boolean isLossy() {
+		return Boolean.TRUE.equals( this.bestMatch.isLossy() );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[TypeResolution" );
+		out.append( " | source=" + this.sourceType.getSimpleName() );
+		out.append( " | target=" + getTargetType().getSimpleName() );
+		out.append( " | exact=" + isExact() );
+		out.append( " | lossy=" + isLossy() );
+		out.append( " | alternatives=" + this.alternatives.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final GClassifier<?, ?, ?, ?, ?, ?> sourceType;
+
+
+
+	private final TypeMapping bestMatch;
+
+
+
+	private final List<TypeMapping> alternatives;
+
+
+
+	private final List<TypeMapping> mappings;
+}
@@ -0,0 +1,170 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeSystem;
+
+import org.ogrehus.jcwm.impl.util.metrics.CacheKind;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+
+
+/**
+ * A TypeSystemRegistry finds TypeSystems by name and version without a scan of all TypeSystems.
+ * <p>
+ * The registry is a view of a live Collection. A hit is checked against the Collection and the current name and version of the TypeSystem, so
+ * a stale entry is never returned. A miss rebuilds the registry once, so TypeSystems added, renamed or versioned since the last build are found
+ * as well. Only lookups of unknown TypeSystems still cost a scan.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class TypeSystemRegistry {
+
+
+	/**
+	 * Creates a new instance of TypeSystemRegistry.
+	 *
+	 * @param typeSystems The live Collection of registered TypeSystems. Must not be <code>null</code>.
+	 *
+	 */
+	public TypeSystemRegistry( Collection<TypeSystem> typeSystems ) {
+		if ( typeSystems == null ) {
+			throw new NullPointerException( "Parameter: typeSystems must not be null." );
+		}
+		this.typeSystems = typeSystems;
+	}
+
+
+
+	/**
+	 * @param name The simple name of the requested TypeSystem.
+	 *
+	 * @param version The version of the requested TypeSystem, or <code>null</code> to accept any version.
+	 *
+	 * @return The matching TypeSystem, or <code>null</code> if none matches.
+	 *
+	 */
+	public synchronized TypeSystem get( String name, String version ) {
+		if ( name == null ) {
+			return null;
+		}
+		TypeSystem system = lookup( name, version );
+		if ( system == null ) {
+			ModelMetrics.miss( CacheKind.typeSystemRegistry );
+			rebuild();
+			system = lookup( name, version );
+		} else {
+			ModelMetrics.hit( CacheKind.typeSystemRegistry );
+		}
+
+		return system;
+	}
+
+
+
+//====================================================================================================================================================
+// TypeSystemRegistry internals
+//====================================================================================================================================================
+
+
+
+	private TypeSystem lookup( String name, String version ) {
+		TypeSystem system = version == null ? this.byName.get( name ) : this.byNameAndVersion.get( getKey( name, version ) );
+		if (   system == null
+			|| !this.typeSystems.contains( system )
+			|| !name.equals( system.getSimpleName() )
+			|| ( version != null && !version.equals( system.getVersion() ) )
+		) {
+			return null;
+		}
+
+		return system;
+	}
+
+
+
+	private void rebuild() {
+		this.byName.clear();
+		this.byNameAndVersion.clear();
+		for ( TypeSystem system : this.typeSystems ) {
+			String name = system.getSimpleName();
+			if ( !this.byName.containsKey( name ) ) {
+				this.byName.put( name, system );
+			}
+			String key = getKey( name, system.getVersion() );
+			if ( !this.byNameAndVersion.containsKey( key ) ) {
+				this.byNameAndVersion.put( key, system );
+			}
+		}
+	}
+
+
+
+	private static String getKey( String name, String version ) {
+		return name + '\u0000' + version;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public synchronized String toString() {
+		StringBuffer out = new StringBuffer( "[TypeSystemRegistry" );
+		out.append( " | typeSystems=" + this.typeSystems.size() );
+		out.append( " | registered=" + this.byNameAndVersion.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final Collection<TypeSystem> typeSystems;
+
+
+
+	/**
+	 * The first TypeSystem of each name, for lookups of any version.
+	 *
+	 */
+	private final Map<String, TypeSystem> byName = new HashMap<String, TypeSystem>();
+
+
+
+	private final Map<String, TypeSystem> byNameAndVersion = new HashMap<String, TypeSystem>();
+}
@@ -27,6 +27,7 @@ import org.ogrehus.jcwm.impl.objectmodel.behavioral.FunBehavioralPackage;
 import org.ogrehus.jcwm.impl.objectmodel.core.FunCorePackage;
 import org.ogrehus.jcwm.impl.objectmodel.instance.FunInstancePackage;
 import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
 
 
 public class FunObjectModel
@@ -42,9 +43,24 @@ extends
 	 * 
 	 */
 	public FunObjectModel() {
-		this.behavioral   = new FunBehavioralPackage();
-		this.core         = new FunCorePackage();
-		this.instance     = new FunInstancePackage();
-		this.relationship = new FunRelationalPackage();
+		this( ElementRegistry.getDefault() );
+	}
+
+
+	/**
+	 * Creates a new Instance of FunObjectModel, whose factories register the created elements in an ElementRegistry of their own, like one registry
+	 * per repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunObjectModel( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.behavioral   = new FunBehavioralPackage( registry );
+		this.core         = new FunCorePackage( registry );
+		this.instance     = new FunInstancePackage( registry );
+		this.relationship = new FunRelationalPackage( registry );
 	}
 }
\ No newline at end of file
@@ -35,6 +35,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.ProcedureExpression;
 import org.ogrehus.jcwm.api.objectmodel.behavioral.util.ParameterDirection;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
 
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
 /**
  * FunBehavioralPackage provides hierarchical access to any factory method in this jCwmAPI in scope of the package core.
  * <p>
@@ -66,6 +68,32 @@ extends
 {
 
 
+	/**
+	 * Creates a new instance of FunBehavioralPackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunBehavioralPackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunBehavioralPackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunBehavioralPackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	/**
 	 * Factory method that creates a new instance of Argument by specific parameters.
 	 * 
@@ -82,7 +110,7 @@ extends
 	 * 
 	 */
 	public Argument createArgument( String name, Visibility visibility, Expression value ) {
-		return new FunArgument( name, visibility, value );
+		return this.registry.adopt( new FunArgument( name, visibility, value ) );
 	}
 
 
@@ -103,7 +131,7 @@ extends
 	 * 
 	 */
 	public CallAction createCallAction( String name, Visibility visibility, Operation operation ) {
-		return new FunCallAction( name, visibility, operation );
+		return this.registry.adopt( new FunCallAction( name, visibility, operation ) );
 	}
 
 
@@ -121,7 +149,7 @@ extends
 	 * 
 	 */
 	public Event createEvent( String name, Visibility visibility ) {
-		return new FunEvent( name, visibility );
+		return this.registry.adopt( new FunEvent( name, visibility ) );
 	}
 
 
@@ -139,7 +167,7 @@ extends
 	 * 
 	 */
 	public Interface createInterface( String name, Visibility visibility ) {
-		return new FunInterface( name, visibility );
+		return this.registry.adopt( new FunInterface( name, visibility ) );
 	}
 
 
@@ -172,10 +200,10 @@ extends
 	 * 
 	 */
 	public CwmMethod createMethod( Operation specification, ProcedureExpression body ) {
-		return new FunCwmMethod( specification.getSimpleName()
+		return this.registry.adopt( new FunCwmMethod( specification.getSimpleName()
 							   , specification.getVisibility()
 							   , specification
-							   , body );
+							   , body ) );
 	}
 
 
@@ -201,7 +229,7 @@ extends
 	 * 
 	 */
 	public Operation createOperation( String name, Visibility visibility, Boolean isQuery, Boolean isAbstract ) {
-		return new FunOperation( name, visibility, isQuery, isAbstract );
+		return this.registry.adopt( new FunOperation( name, visibility, isQuery, isAbstract ) );
 	}
 
 
@@ -229,6 +257,20 @@ extends
 		, ParameterDirection kind
 		, T type
 	) { 
-		return new FunParameter( name, visibility, kind, type );
+		return this.registry.adopt( new FunParameter( name, visibility, kind, type ) );
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
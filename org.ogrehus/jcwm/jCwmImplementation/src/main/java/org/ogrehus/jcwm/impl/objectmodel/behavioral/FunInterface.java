@@ -190,6 +190,6 @@ implements
 			throw new ConstraintViolation( CwmConstraint.C_4_6, operation.getName() );
 		}
 		
-		return this.features.add( operation );
+		return addFeatureGeneric( operation );
 	}
 }
\ No newline at end of file
@@ -37,6 +37,9 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunFeature;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * GFunBehavioralFeature is an abstract meta-class.
@@ -117,12 +120,14 @@ implements
 	 * 
 	 */
 	public Boolean removeParameter( BehavioralParameter<?> parameter ) {
+		checkMutable();
 		if ( parameter == null) {
 			return Boolean.FALSE;
 		}
 		
 		if ( this.parameters.remove( parameter ) ) {
 			parameter.removeBehavioralFeature();
+			fireChange( ModelChangeKind.unlinked, "parameter", parameter, null );
 			return Boolean.TRUE;
 		}
 
@@ -176,8 +181,10 @@ implements
 
 
 	protected <P extends PARAMETER> Boolean addParameterGeneric( P parameter ) {
+		checkMutable();
 		if ( parameter != null && this.parameters.add( parameter ) ) {
 			invokeByReflection( parameter, "setBehavioralFeature", this );
+			fireChange( ModelChangeKind.linked, "parameter", null, parameter );
 			return Boolean.TRUE;
 		}
 
@@ -204,7 +211,7 @@ implements
 	 *  
 	 */
 	public Boolean isQuery() {
-		return this.isQuery;
+		return getFlag( QUERY_FLAG );
 	}
 
 
@@ -234,11 +241,13 @@ implements
 	 * 
 	 */
 	public Boolean setQuery( Boolean isQuery ) {
+		checkMutable();
 		if ( isQuery == null ) {
 			throw new NullPointerException( "Parameter: isQuery must not be null!" );
 		}
-		Boolean old = this.isQuery;
-		this.isQuery = isQuery;
+		Boolean old = getFlag( QUERY_FLAG );
+		setFlag( QUERY_FLAG, isQuery );
+		fireChange( ModelChangeKind.propertyChanged, "isQuery", old, isQuery );
 
 		return old;
 	}
@@ -323,30 +332,15 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunBehavioralFeature" );
-		if ( this.isQuery != null ) {
-			out.append( " | isQuery=" + this.isQuery );
-		}
-		if ( !this.parameters.isEmpty() ) {
-			out.append( " | ownedElements(" + this.parameters.size() + ")={" );
-			boolean comma = false;
-			for ( PARAMETER parameter : this.parameters ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( parameter.getSimpleName() );
-				out.append( "<" + parameter.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunBehavioralFeature" );
+		if ( getFlag( QUERY_FLAG ) != null ) {
+			out.property( "isQuery", getFlag( QUERY_FLAG ) );
 		}
+		out.simpleNames( "ownedElements", this.parameters, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -371,7 +365,7 @@ implements
 	 * </ul>
 	 * 
 	 */
-	protected Boolean isQuery = null;
+	protected static final int QUERY_FLAG = 16;
 
 
 
@@ -34,6 +34,9 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * Method is the implementation of an Operation. It specifies the algorithm or procedure that effects the results of an 
@@ -169,11 +172,13 @@ implements
 	 *  
 	 */
 	public ProcedureExpression setBody( ProcedureExpression body ) {
+		checkMutable();
         if ( body == null ) {
             throw new NullPointerException( "Parameter: body must not be null!" );
         }
         ProcedureExpression old = this.body;
         this.body = body;
+        fireChange( ModelChangeKind.propertyChanged, "body", old, body );
         return old;
     }
     
@@ -182,6 +187,7 @@ implements
     protected <P extends PARAMETER> Boolean addParameterGeneric( P parameter ) {
 		if ( parameter != null && this.parameters.add( parameter ) ) {
             invokeByReflection( parameter, "setBehavioralFeature", this );
+            fireChange( ModelChangeKind.linked, "parameter", null, parameter );
 			return Boolean.TRUE;
 		}
 		return Boolean.FALSE;
@@ -283,13 +289,14 @@ implements
      * 
 	 */
 	public Operation setSpecification( Operation specification ) {
+		checkMutable();
         if ( specification == null ) {
             throw new NullPointerException( "The parameter: specification must not be null!" );
         }
         if ( specification.equals( this.specification ) ) {
         	return specification; // no changes, cause its the same specification
         }
-        if ( specification.isQuery() && !this.isQuery ) {
+        if ( specification.isQuery() && !isQuery() ) {
             throw new ConstraintViolation( CwmConstraint.C_4_7 );
         }
         if ( !this.hasSameSignature( specification ) ) {
@@ -334,16 +341,19 @@ implements
 		if ( !this.specification.getMethods().contains( this ) ) {
 			invokeByReflection( this.specification, "addMethod", this ); // bi-directional reference 
 		}
+        fireChange( ModelChangeKind.propertyChanged, "specification", old, specification );
         return old;
     }  
 
 	
 	public Boolean removeSpecification() {
+		checkMutable();
 		if ( this.specification == null ) {
 			return Boolean.TRUE;
 		}
         Operation old = this.specification;
         this.specification = null;
+        fireChange( ModelChangeKind.propertyChanged, "specification", old, null );
         return old.removeMethod( this );
 	}		
 
@@ -353,18 +363,17 @@ implements
 //======================================================================================================================
 
     @Override
-    public String toString() {
-        StringBuffer out = new StringBuffer( "[GFunCwmMethod" );
+    public void describe( ModelDescription out ) {
+        out.append( "[GFunCwmMethod" );
         if ( this.body != null ) {
-            out.append( " | body=" + this.body.getBody() );
+            out.property( "body", this.body.getBody() );
         }
         if ( this.specification != null ) {
-            out.append( " | specification=" + this.specification.getSimpleName() );                
+            out.property( "specification", this.specification.getSimpleName() );                
         }
         out.append( " |\nextends: " );
-        out.append( super.toString() );
+        super.describe( out );
         out.append( "]" );        
-        return out.toString();
     }
 	    
 	
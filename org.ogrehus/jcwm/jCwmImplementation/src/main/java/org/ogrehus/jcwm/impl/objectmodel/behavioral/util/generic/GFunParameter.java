@@ -34,6 +34,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -308,36 +309,34 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunParameter" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunParameter" );
 		if ( this.defaultValue != null ) {
-			out.append( " | defaultValue=" + this.defaultValue.getBody() 
-					  + "<" + this.defaultValue.getClass().getSimpleName() + ">" );
+			out.property( "defaultValue", this.defaultValue.getBody() );
+			out.type( this.defaultValue );
 		}
 
 		if ( this.kind != null ) {
-			out.append( " | kind=" + this.kind );
+			out.property( "kind", this.kind );
 		}
 
 		if ( this.behavioralFeature != null ) {
-			out.append( " | behavioralFeature=" + this.behavioralFeature.getSimpleName()
-					  + "<" + this.behavioralFeature.getClass().getSimpleName() + ">" );
+			out.property( "behavioralFeature", this.behavioralFeature.getSimpleName() );
+			out.type( this.behavioralFeature );
 		}
 
 		if ( this.event != null ) {
-			out.append( " | event=" + this.event.getSimpleName()
-					  + "<" + this.event.getClass().getSimpleName() + ">" );
+			out.property( "event", this.event.getSimpleName() );
+			out.type( this.event );
 		}
 		
 		if ( this.type != null ) {
-			out.append( " | type=" + this.type.getSimpleName()
-					  + "<" + this.type.getClass().getSimpleName() + ">" );
+			out.property( "type", this.type.getSimpleName() );
+			out.type( this.type );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
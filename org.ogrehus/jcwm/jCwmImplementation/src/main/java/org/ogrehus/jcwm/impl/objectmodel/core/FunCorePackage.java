@@ -49,6 +49,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Changeable;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
 
 public class FunCorePackage
 extends
@@ -56,20 +58,46 @@ extends
 {
 
 
+	/**
+	 * Creates a new instance of FunCorePackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunCorePackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunCorePackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunCorePackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	public Attribute createAttribute( String name, Visibility visibility, Changeable changeability, DataType type ) {
-		return new FunAttribute( name, visibility, changeability, type );
+		return this.registry.adopt( new FunAttribute( name, visibility, changeability, type ) );
 	}
 
 
 
 	public Attribute createAttribute( String name, Visibility visibility, Changeable changeability, CwmClass type ) {
-		return new FunAttribute( name, visibility, changeability, type );
+		return this.registry.adopt( new FunAttribute( name, visibility, changeability, type ) );
 	}
 
 
 
 	public Attribute createAttribute( String name, Visibility visibility, Changeable changeability, Interface type ) {
-		return new FunAttribute( name, visibility, changeability, type );
+		return this.registry.adopt( new FunAttribute( name, visibility, changeability, type ) );
 	}
 
 
@@ -81,67 +109,67 @@ extends
 
 
 	public CwmClass createClass( String name, Visibility visibility, Boolean notInstantiable ) {
-		return new FunCwmClass( name, visibility, notInstantiable );
+		return this.registry.adopt( new FunCwmClass( name, visibility, notInstantiable ) );
 	}
 
 
 
 	public Constraint createConstraint( String name, Visibility visibility, BooleanExpression body ) {
-		return new FunConstraint( name, visibility, body );
+		return this.registry.adopt( new FunConstraint( name, visibility, body ) );
 	}
 
 
 
 	public CwmAny createAny() {
-		return new FunCwmAny();
+		return this.registry.adopt( new FunCwmAny() );
 	}
 
 
 
 	public CwmBoolean createBoolean() {
-		return new FunCwmBoolean();
+		return this.registry.adopt( new FunCwmBoolean() );
 	}
 
 
 
 	@Override
 	public CwmFloat createFloat() {
-		return new FunCwmFloat();
+		return this.registry.adopt( new FunCwmFloat() );
 	}
 
 
 
 	@Override
 	public CwmInteger createInteger() {
-		return new FunCwmInteger();
+		return this.registry.adopt( new FunCwmInteger() );
 	}
 
 
 
 	@Override
 	public CwmString createString() {
-		return new FunCwmString();
+		return this.registry.adopt( new FunCwmString() );
 	}
 
 
 
 	@Override
 	public CwmTime createTime() {
-		return new FunCwmTime();
+		return this.registry.adopt( new FunCwmTime() );
 	}
 
 
 
 	@Override
 	public CwmUnlimitedInteger createUnlimitedInteger() {
-		return new FunCwmUnlimitedInteger();
+		return this.registry.adopt( new FunCwmUnlimitedInteger() );
 	}    
 
 
 
 	@Override
 	public DataType createDataType( String name, Visibility visibility, Boolean notInstantiable ) {
-		return new FunDataType(name, visibility, notInstantiable );
+		return this.registry.adopt( new FunDataType(name, visibility, notInstantiable ) );
 	}
 
 
@@ -153,7 +181,7 @@ extends
 		, GModelElement< ?, ?, ?, ?> client
 		, GModelElement< ?, ?, ?, ?> supplier
 	) {
-		return new FunDependency( name, visibility, client, supplier );
+		return this.registry.adopt( new FunDependency( name, visibility, client, supplier ) );
 	}
 
 
@@ -167,7 +195,7 @@ extends
 
 	@Override
 	public Model createModel( String name, Visibility visibility ) {
-		return new FunModel( name, visibility );
+		return this.registry.adopt( new FunModel( name, visibility ) );
 	}
 
 
@@ -181,7 +209,7 @@ extends
 
 	@Override
 	public CwmPackage createPackage( String name, Visibility visibility ) {
-		return new FunCwmPackage( name, visibility );
+		return this.registry.adopt( new FunCwmPackage( name, visibility ) );
 	}
 
 
@@ -195,21 +223,21 @@ extends
 
 	@Override
 	public Stereotype createStereotype( String name, Visibility visibility, Name baseClass ) {
-		return new FunStereotype( name, visibility, baseClass );
+		return this.registry.adopt( new FunStereotype( name, visibility, baseClass ) );
 	}
 
 
 
 	@Override
 	public Stereotype createStereotype( String name, Visibility visibility, String baseClass ) {
-		return new FunStereotype( name, visibility, new FunName( baseClass ) );
+		return this.registry.adopt( new FunStereotype( name, visibility, new FunName( baseClass ) ) );
 	}
 
 
 
 	@Override
 	public Subsystem createSubsystem( String name, Visibility visibility, Boolean notInstantiable ) {
-		return new FunSubsystem( name, visibility, notInstantiable );
+		return this.registry.adopt( new FunSubsystem( name, visibility, notInstantiable ) );
 	}
 
 
@@ -218,4 +246,18 @@ extends
 	public TaggedValue createTaggedValue( String tag, String value ) {
 		return new FunTaggedValue( tag, value );
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
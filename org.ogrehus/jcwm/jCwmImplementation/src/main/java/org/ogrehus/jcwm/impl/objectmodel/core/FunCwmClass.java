@@ -38,6 +38,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.api.objectmodel.relationships.Association;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunCwmClass;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A class is a description of a set of objects that share the same attributes, operations, methods, relationships, and semantics.
@@ -210,12 +211,10 @@ implements
 
 
  	@Override
- 	public String toString() {
- 		StringBuffer out = new StringBuffer( "[FunCwmClass" );
+ 	public void describe( ModelDescription out ) {
+ 		out.append( "[FunCwmClass" );
  		out.append( " |\nextends: " );
- 		out.append( super.toString() );
+ 		super.describe( out );
  		out.append( "]" );
- 
- 		return out.toString();
  	}
 }
\ No newline at end of file
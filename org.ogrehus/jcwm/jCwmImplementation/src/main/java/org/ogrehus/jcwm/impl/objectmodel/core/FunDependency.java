@@ -30,6 +30,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunDependency;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
 
 /**
  * A dependency states that the implementation or functioning of one or more elements requires the presence of one or more other elements.
@@ -134,7 +135,9 @@ implements
 
 
 	public Boolean addClient( GModelElement<?, ?, ?, ?> client ) {
+		checkMutable();
 		if ( this.clients.add( client ) ) {
+			fireChange( ModelChangeKind.linked, "client", null, client );
 			invokeByReflection( client, "addDependency", this ); // bi-directional reference
 
 			return Boolean.TRUE;
@@ -28,6 +28,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.TaggedValue;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 
 import org.ogrehus.jcwm.impl.FunCwm;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
 
 
 /**
@@ -96,6 +98,9 @@ implements
 		}
 		String old = this.value;
 		this.value = value;
+		if ( this.modelElement != null ) {
+			ModelChangeSupport.fire( this.modelElement, ModelChangeKind.propertyChanged, "taggedValue", old, value );
+		}
 
 		return old;
 	}
@@ -105,6 +110,14 @@ implements
 	public GModelElement<?, ?, ?, ?> setModelElement( GModelElement<?, ?, ?, ?> modelElement ) {
 		GModelElement<?, ?, ?, ?> old = this.modelElement;
 		this.modelElement = modelElement;
+		if ( old != modelElement ) { // a TaggedValue is no ModelElement, so its changes are reported by the extended element
+			if ( old != null ) {
+				ModelChangeSupport.fire( old, ModelChangeKind.unlinked, "taggedValue", this, null );
+			}
+			if ( modelElement != null ) {
+				ModelChangeSupport.fire( modelElement, ModelChangeKind.linked, "taggedValue", null, this );
+			}
+		}
 
 		return old;
 	}
@@ -0,0 +1,187 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.objectmodel.core.util.generic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
+import org.ogrehus.jcwm.api.objectmodel.relationships.Generalization;
+
+
+/**
+ * A ClassifierClosure is an immutable snapshot of the inheritance of a single GFunClassifier.
+ * <p>
+ * It holds the transitive closure of the parents and the linearized list of all features. A closure is stamped with the epoch of its classifier
+ * it was computed for. A change of the parents or features of a classifier increments the epochs of the classifier and of all its descendants, so
+ * a GFunClassifier keeps its closure as long as nothing above it changed, and repeated queries of the inheritance cost a single lookup instead of
+ * a walk through the hierarchy.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class ClassifierClosure {
+
+
+	/**
+	 * Computes the closure of a classifier.
+	 *
+	 * @param classifier The classifier to compute the closure for.
+	 *
+	 * @param epoch The epoch of the classifier at the start of the computation.
+	 *
+	 */
+	ClassifierClosure( GClassifier<?, ?, ?, ?, ?, ?> classifier, long epoch ) {
+		this.epoch = epoch;
+
+		// breadth first, so nearer parents are linearized before farther ones
+		Set<GClassifier<?, ?, ?, ?, ?, ?>> ancestors = new LinkedHashSet<GClassifier<?, ?, ?, ?, ?, ?>>();
+		Deque<GClassifier<?, ?, ?, ?, ?, ?>> open = new ArrayDeque<GClassifier<?, ?, ?, ?, ?, ?>>();
+		open.addAll( classifier.getParents() );
+		while ( !open.isEmpty() ) {
+			GClassifier<?, ?, ?, ?, ?, ?> parent = open.poll();
+			if ( parent != null && parent != classifier && ancestors.add( parent ) ) { // visited once, even in a cyclic hierarchy
+				open.addAll( parent.getParents() );
+			}
+		}
+		this.ancestors = Collections.unmodifiableSet( ancestors );
+
+		Set<GFeature<?, ?, ?, ?, ?>> features = new LinkedHashSet<GFeature<?, ?, ?, ?, ?>>( classifier.getFeatures() );
+		for ( GClassifier<?, ?, ?, ?, ?, ?> ancestor : ancestors ) {
+			features.addAll( ancestor.getFeatures() );
+		}
+		this.features       = Collections.unmodifiableSet( features );
+		this.linearFeatures = Collections.unmodifiableList( new ArrayList<GFeature<?, ?, ?, ?, ?>>( features ) );
+	}
+
+
+
+//====================================================================================================================================================
+// ClassifierClosure capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return <code>true</code> if this closure was computed for the passed epoch.
+	 *
+	 */
+	Boolean isCurrent( long epoch ) {
+		return this.epoch == epoch;
+	}
+
+
+
+	Set<GClassifier<?, ?, ?, ?, ?, ?>> getAncestors() {
+		return this.ancestors;
+	}
+
+
+
+	Set<GFeature<?, ?, ?, ?, ?>> getFeatures() {
+		return this.features;
+	}
+
+
+
+	List<GFeature<?, ?, ?, ?, ?>> getLinearFeatures() {
+		return this.linearFeatures;
+	}
+
+
+
+	/**
+	 * The descendants depend on changes below a classifier, which don't invalidate its closure, so they are not part of the closure.
+	 *
+	 * @return The transitive closure of the children of a classifier, nearest first. Empty if the classifier is <code>null</code>.
+	 *
+	 */
+	static Set<GClassifier<?, ?, ?, ?, ?, ?>> getDescendants( GClassifier<?, ?, ?, ?, ?, ?> classifier ) {
+		Set<GClassifier<?, ?, ?, ?, ?, ?>> descendants = new LinkedHashSet<GClassifier<?, ?, ?, ?, ?, ?>>();
+		if ( classifier == null ) {
+			return descendants;
+		}
+		Deque<GClassifier<?, ?, ?, ?, ?, ?>> open = new ArrayDeque<GClassifier<?, ?, ?, ?, ?, ?>>( getChildren( classifier ) );
+		while ( !open.isEmpty() ) {
+			GClassifier<?, ?, ?, ?, ?, ?> child = open.poll();
+			if ( child != classifier && descendants.add( child ) ) { // visited once, even in a cyclic hierarchy
+				open.addAll( getChildren( child ) );
+			}
+		}
+
+		return Collections.unmodifiableSet( descendants );
+	}
+
+
+
+	/**
+	 * @return The direct children of a classifier, given by the child of each of its specializations.
+	 *
+	 */
+	static Set<GClassifier<?, ?, ?, ?, ?, ?>> getChildren( GClassifier<?, ?, ?, ?, ?, ?> classifier ) {
+		Set<GClassifier<?, ?, ?, ?, ?, ?>> children = new LinkedHashSet<GClassifier<?, ?, ?, ?, ?, ?>>();
+		for ( Generalization specialization : classifier.getSpecializations() ) {
+			if ( specialization.getChild() != null ) {
+				children.add( specialization.getChild() );
+			}
+		}
+
+		return children;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final long epoch;
+
+
+
+	/**
+	 * The transitive closure of the parents, nearest first.
+	 *
+	 */
+	private final Set<GClassifier<?, ?, ?, ?, ?, ?>> ancestors;
+
+
+
+	/**
+	 * All features, the own features first followed by the features of the ancestors in the order of the ancestors.
+	 *
+	 */
+	private final Set<GFeature<?, ?, ?, ?, ?>> features;
+
+
+
+	private final List<GFeature<?, ?, ?, ?, ?>> linearFeatures;
+}
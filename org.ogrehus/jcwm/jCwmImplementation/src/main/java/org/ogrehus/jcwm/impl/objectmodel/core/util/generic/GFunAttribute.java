@@ -30,6 +30,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GConstraint;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GDependency;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -111,16 +112,14 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunAttribute" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunAttribute" );
 		if ( this.initialValue != null ) {
-			out.append( " | initialValue=" + this.initialValue.getBody() );
+			out.property( "initialValue", this.initialValue.getBody() );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -21,10 +21,12 @@
  */
 package org.ogrehus.jcwm.impl.objectmodel.core.util.generic;
 
-import java.util.SortedSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.ogrehus.jcwm.api.objectmodel.behavioral.CwmMethod;
 import org.ogrehus.jcwm.api.objectmodel.behavioral.Operation;
@@ -43,6 +45,11 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
 import org.ogrehus.jcwm.api.objectmodel.relationships.Generalization;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.metrics.CacheKind;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * A classifier is an element that describes structural and behavioral features; it comes in several specific forms, including class, data type,
@@ -110,22 +117,27 @@ implements
 
 
 	public Boolean isAbstract() {
-		return this.isAbstract;
+		return getFlag( ABSTRACT_FLAG );
 	}
 
 
 
 	public Boolean setAbstract( Boolean notInstantiable ) {
-		Boolean old = this.isAbstract;
-		this.isAbstract = notInstantiable;
+		checkMutable();
+		Boolean old = getFlag( ABSTRACT_FLAG );
+		setFlag( ABSTRACT_FLAG, notInstantiable );
+		fireChange( ModelChangeKind.propertyChanged, "isAbstract", old, notInstantiable );
 		return old;
 	}
 
 
 
 	protected <E extends FEATURE> Boolean addFeatureGeneric( E feature ) {
+		checkMutable();
 		if ( feature != null && this.features.add( feature ) ) {
 //System.out.println( "addFeatureGeneric( " + feature.getQualifiedName() + " ) -> size=" + this.features.size() );
+			invalidateClosures( this );
+			fireChange( ModelChangeKind.linked, "feature", null, feature );
 			invokeByReflection( feature, "setOwner", this ); // bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -135,7 +147,10 @@ implements
 
 
 	public Boolean removeFeature( Featured<?> feature ) {
+		checkMutable();
 		if ( this.features.remove( feature ) ) {
+			invalidateClosures( this );
+			fireChange( ModelChangeKind.unlinked, "feature", feature, null );
 			feature.removeOwner(); // remove bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -153,7 +168,8 @@ implements
 	/**
 	 * Returns a Features owned by the Classifier by type and name.
 	 * 
-	 * To find the feature, a lookup to all Features is done, so you can find even inherited features.
+	 * The own features are searched first, followed by the features of the ancestors, so you can find even inherited features. An own feature
+	 * is found without computing the inheritance closure.
 	 * 
 	 * @param typeof The Class of the feature to get from this Classifier.
 	 * 
@@ -168,9 +184,19 @@ implements
 			return null; // no name nothing to do...
 		}
 
-		for ( TYPE byType : getAllFeaturesGeneric( typeof ) ) {
-			if ( simpleName.equals( byType.getSimpleName() ) ) {
-				return byType;
+		for ( FEATURE feature : this.features ) { // own features hide inherited ones
+			if ( typeof.isInstance( feature ) && simpleName.equals( feature.getSimpleName() ) ) {
+				return typeof.cast( feature );
+			}
+		}
+		if ( this.generalizations.isEmpty() ) {
+			return null;
+		}
+		for ( GClassifier<?, ?, ?, ?, ?, ?> ancestor : getClosure().getAncestors() ) {
+			for ( GFeature<?, ?, ?, ?, ?> feature : ancestor.getFeatures() ) {
+				if ( typeof.isInstance( feature ) && simpleName.equals( feature.getSimpleName() ) ) {
+					return typeof.cast( feature );
+				}
 			}
 		}
 
@@ -235,20 +261,15 @@ implements
 	@Override
 	public Set<ModelElement> getAllContents() {
 		Set<ModelElement> allContents = new HashSet<ModelElement>();
-		allContents.addAll( this.getContents() );  
-		for ( GClassifier<?, ?, ?, ?, ?, ?> parent : this.getParents() ) {
-			for ( ModelElement content : parent.getAllContents() ) {
-				if ( content instanceof GNamespace<?, ?, ?, ?, ?> ) {
-					GNamespace<?, ?, ?, ?, ?> contentNamespace = (GNamespace<?, ?, ?, ?, ?>)content; 
-					for ( GModelElement<?, ?, ?, ?> owned : contentNamespace.getOwnedElements() ) {
-						switch ( owned.getVisibility() ) {
-						case _public:
-						case _protected:
-							allContents.add( owned );
-							break;
-						default: // do nothing
-						}
-					}
+		allContents.addAll( this.getContents() );
+		for ( GClassifier<?, ?, ?, ?, ?, ?> ancestor : getClosure().getAncestors() ) {
+			for ( ModelElement content : ancestor.getContents() ) {
+				switch ( content.getVisibility() ) {
+				case _public:
+				case _protected:
+					allContents.add( content );
+					break;
+				default: // do nothing
 				}
 			}
 		}
@@ -277,7 +298,10 @@ implements
 
 
 	public Boolean addGeneralization( Generalization generalization ) {
+		checkMutable();
 		if ( generalization != null && this.generalizations.add( generalization ) ) {
+			invalidateClosures( this );
+			fireChange( ModelChangeKind.linked, "generalization", null, generalization );
 			generalization.setChild( this ); // bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -288,11 +312,14 @@ implements
 
 
 	public Boolean removeGeneralization( Generalization generalization ) {
+		checkMutable();
 		if ( generalization == null ) {
 			return Boolean.TRUE;
 		}
 
 		if ( this.generalizations.remove( generalization ) ) {
+			invalidateClosures( this );
+			fireChange( ModelChangeKind.unlinked, "generalization", generalization, null );
 			generalization.removeChild(); // remove bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -316,13 +343,16 @@ implements
 	 * 
 	 */
 	public Set<Generalization> getSpecializations() {
-		return this.generalizations;
+		return this.specializations;
 	}
 
 
 
 	public Boolean addSpecialization( Generalization specialization ) {
+		checkMutable();
 		if ( specialization != null && this.specializations.add( specialization ) ) {
+			invalidateClosures( specialization.getChild() );
+			fireChange( ModelChangeKind.linked, "specialization", null, specialization );
 			specialization.setParent( this ); // bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -332,11 +362,14 @@ implements
 
 
 	public Boolean removeSpecialization( Generalization specialization ) {
+		checkMutable();
 		if ( specialization == null ) {
 			return Boolean.TRUE;
 		}
 
 		if ( this.specializations.remove( specialization ) ) {
+			invalidateClosures( specialization.getChild() );
+			fireChange( ModelChangeKind.unlinked, "specialization", specialization, null );
 			specialization.removeParent(); // remove bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -356,14 +389,17 @@ implements
 	 * parent = self.generalization.parent
 	 * </pre>
 	 * 
-	 * @return A HashSet containing all direct parents of this classifier, without this classifier itself, or an empty one if none exists.
+	 * @return A HashSet containing all direct parents of this classifier, without this classifier itself, or an empty one if none exists. A
+	 * Generalization without a parent is skipped.
 	 * 
 	 */
 	public Set<GClassifier<?, ?, ?, ?, ?, ?>> getParents() {
 		int maxParents = this.generalizations.size(); // each has only one this saves memory...
 		Set<GClassifier<?, ?, ?, ?, ?, ?>> parents = new HashSet<GClassifier<?, ?, ?, ?, ?, ?>>( maxParents );
 		for ( Generalization generalization : this.generalizations ) {
-			parents.add( generalization.getParent() );
+			if ( generalization.getParent() != null ) { // a Generalization removed from the specializations of its parent
+				parents.add( generalization.getParent() );
+			}
 		}
 
 		return parents;
@@ -382,19 +418,51 @@ implements
 	 * allParents = self.parent->union(self.parent.allParents)
 	 * </pre>
 	 * 
-	 * @return A HashSet containing all direct parents of this classifier, or 
-	 * an empty set if none exists.
+	 * @return An unmodifiable Set containing all direct and indirect parents of this classifier, nearest first, or an empty set if none exists.
 	 * 
 	 */
 	public Set<GClassifier<?, ?, ?, ?, ?, ?>> getAllParents() {
-		Set<GClassifier<?, ?, ?, ?, ?, ?>> parents    = getParents();
-		Set<GClassifier<?, ?, ?, ?, ?, ?>> allParents = new HashSet<GClassifier<?, ?, ?, ?, ?, ?>>();
-		allParents.addAll( getParents() );
-		for ( GClassifier<?, ?, ?, ?, ?, ?> parent : parents ) {
-			allParents.addAll( parent.getAllParents() );
-		}
+		return getClosure().getAncestors();
+	}
 
-		return parents;
+
+
+	/**
+	 * Returns the direct children of this classifier, the reverse of {@link #getParents()}.
+	 * 
+	 * @return A Set containing the child of each specialization of this classifier, or an empty set if none exists.
+	 * 
+	 */
+	public Set<GClassifier<?, ?, ?, ?, ?, ?>> getChildren() {
+		return ClassifierClosure.getChildren( this );
+	}
+
+
+
+	/**
+	 * Returns all classifiers inheriting from this classifier, the reverse of {@link #getAllParents()}. The closures are invalidated only
+	 * downwards, so the children are collected by each call.
+	 * 
+	 * @return An unmodifiable Set containing all direct and indirect children of this classifier, nearest first, or an empty set if none exists.
+	 * 
+	 */
+	public Set<GClassifier<?, ?, ?, ?, ?, ?>> getAllChildren() {
+		return ClassifierClosure.getDescendants( this );
+	}
+
+
+
+	/**
+	 * Checks whether this classifier inherits from another classifier. Once the inheritance closure of this classifier is computed, the check
+	 * is a single lookup, independent of the depth of the hierarchy.
+	 * 
+	 * @param classifier The possible ancestor.
+	 * 
+	 * @return <code>true</code> if the parameter is this classifier itself or one of its direct or indirect parents.
+	 * 
+	 */
+	public Boolean isSubtypeOf( GClassifier<?, ?, ?, ?, ?, ?> classifier ) {
+		return classifier == this || ( classifier != null && getClosure().getAncestors().contains( classifier ) );
 	}
 
 
@@ -409,17 +477,25 @@ implements
 	 *     allFeatures = self.feature->union(self.parent.oclAsType(GClassifier).allFeatures)
 	 * </pre>
 	 *  
-	 * @return A set containing all {@link Featured}s accomplished to the OCL, or an empty set if none exists.
+	 * @return An unmodifiable set containing all {@link Featured}s accomplished to the OCL, in the order of {@link #getLinearizedFeatures()}, or
+	 * an empty set if none exists.
 	 * 
 	 */
 	public Set<GFeature<?, ?, ?, ?, ?>> getAllFeatures() {
-		Set<GFeature<?, ?, ?, ?, ?>> allFeatures = new HashSet<GFeature<?, ?, ?, ?, ?>>();
-		allFeatures.addAll( this.features ); 
-		for ( GClassifier<?, ?, ?, ?, ?, ?> parent : getParents() ) {
-			allFeatures.addAll( parent.getAllFeatures() );
-		}
+		return getClosure().getFeatures();
+	}
 
-		return allFeatures;
+
+
+	/**
+	 * Returns all Features of this classifier in the order of their lookup: the own features first, followed by the features of the parents,
+	 * nearer parents before farther ones. A Feature inherited on several paths is listed once.
+	 * 
+	 * @return An unmodifiable List of all own and inherited Features, or an empty List if none exists.
+	 * 
+	 */
+	public List<GFeature<?, ?, ?, ?, ?>> getLinearizedFeatures() {
+		return getClosure().getLinearFeatures();
 	}
 
 
@@ -493,7 +569,7 @@ implements
 
 	public <F extends GFeature<?, ?, ?, ?, ?>> Set<F> getAllFeaturesGeneric( Class<F> featureType ) {
 		Set<F> allFeatures = new HashSet<F>();
-		for ( GFeature<?, ?, ?, ?, ?> feature : getFeatures() ) {
+		for ( GFeature<?, ?, ?, ?, ?> feature : getLinearizedFeatures() ) {
 			if ( featureType.isInstance( feature ) ) {
 				allFeatures.add( featureType.cast( feature ) );
 			}
@@ -504,6 +580,46 @@ implements
 
 
 
+	/**
+	 * @return The inheritance closure of this classifier for the current hierarchy and features. Can't be <code>null</code>.
+	 * 
+	 */
+	private ClassifierClosure getClosure() {
+		long epoch = this.epoch.get();
+		ClassifierClosure current = this.closure;
+		if ( current == null || !current.isCurrent( epoch ) ) {
+			ModelMetrics.miss( CacheKind.classifierClosure );
+			current = new ClassifierClosure( this, epoch );
+			this.closure = current;
+		} else {
+			ModelMetrics.hit( CacheKind.classifierClosure );
+		}
+
+		return current;
+	}
+
+
+
+	/**
+	 * Invalidates the closures of a classifier and of all classifiers inheriting from it, the only closures that include its ancestors and
+	 * features. Other hierarchies keep their closures.
+	 *
+	 * @param classifier The classifier, whose parents or features changed. May be <code>null</code> or of another implementation.
+	 *
+	 */
+	private static void invalidateClosures( GClassifier<?, ?, ?, ?, ?, ?> classifier ) {
+		if ( classifier instanceof GFunClassifier<?, ?, ?, ?, ?, ?> ) {
+			( (GFunClassifier<?, ?, ?, ?, ?, ?>) classifier ).epoch.incrementAndGet();
+		}
+		for ( GClassifier<?, ?, ?, ?, ?, ?> descendant : ClassifierClosure.getDescendants( classifier ) ) {
+			if ( descendant instanceof GFunClassifier<?, ?, ?, ?, ?, ?> ) {
+				( (GFunClassifier<?, ?, ?, ?, ?, ?>) descendant ).epoch.incrementAndGet();
+			}
+		}
+	}
+
+
+
 //====================================================================================================================================================
 // Object capabilities
 //====================================================================================================================================================
@@ -511,19 +627,17 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunClassifier" );
-		if ( this.isAbstract != null ) {
-			out.append( " | isAbstract=" + this.isAbstract );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunClassifier" );
+		if ( getFlag( ABSTRACT_FLAG ) != null ) {
+			out.property( "isAbstract", getFlag( ABSTRACT_FLAG ) );
 		}
-		out.append( collectionToString( "features", this.features, true ) );        
-		out.append( collectionToString( "generalizations", this.generalizations ) );
-		out.append( collectionToString( "specializations", this.specializations ) );		
+		out.elements( "features", this.features, true );        
+		out.elements( "generalizations", this.generalizations, false );
+		out.elements( "specializations", this.specializations, false );		
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -544,7 +658,7 @@ implements
 	 * </ul>
 	 *  
 	 */
-	protected Boolean isAbstract = null;
+	protected static final int ABSTRACT_FLAG = 0;
 
 
 
@@ -597,4 +711,20 @@ implements
 	 * 
 	 */
 	protected Set<Generalization> specializations = null;
+
+
+
+	/**
+	 * Counts the changes of the parents and features of this classifier and of its ancestors, each invalidates the closure.
+	 * 
+	 */
+	private final AtomicLong epoch = new AtomicLong();
+
+
+
+	/**
+	 * The cached inheritance closure, or <code>null</code> if not computed yet.
+	 * 
+	 */
+	private volatile ClassifierClosure closure = null;
 }
\ No newline at end of file
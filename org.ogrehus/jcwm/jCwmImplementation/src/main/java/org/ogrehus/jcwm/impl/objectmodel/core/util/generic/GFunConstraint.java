@@ -32,6 +32,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GDependency;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementconstraint.UnderConstraint;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -169,18 +170,18 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunConstraint" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunConstraint" );
 		if ( this.body != null ) {
-			out.append( " | body='" + this.body.getBody() + "'" );
-			out.append( "<" + this.body.getClass().getSimpleName() + ">" );
+			out.append( " | body='" );
+			out.value( this.body.getBody() );
+			out.append( '\'' );
+			out.type( this.body );
 		}
-		out.append( collectionToString( "constrainedElements", this.constrainedElements, true ) );
+		out.elements( "constrainedElements", this.constrainedElements, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -33,6 +33,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GDependency;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -178,13 +179,12 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunCwmClass" );
-		out.append( collectionToString( "indexes", this.indexes, true ) );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunCwmClass" );
+		out.elements( "indexes", this.indexes, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		return out.toString();
 	}
 
 
@@ -37,6 +37,10 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.references.importedelements.Im
 
 import org.ogrehus.jcwm.api.foundation.softwaredeployment.util.generic.GDataManager;
 
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+import org.ogrehus.jcwm.impl.util.metrics.TraversalKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * A package is a grouping of model elements.
@@ -280,19 +284,24 @@ implements
 
 	@Override
 	public <TYPE extends ModelElement> Set<TYPE> getAllContentsGeneric( Class<TYPE> typeOf ) {
-		Set<TYPE> allGeneric = new HashSet<TYPE>();
-		for ( ModelElement content : getContents() ) {
-			if ( content instanceof Namespace<?> ) {
-				Namespace<?> namespace = (Namespace<?>)content;
-				allGeneric.addAll( namespace.getAllContentsGeneric( typeOf ) );
-			}
+		long start = ModelMetrics.beginTraversal();
+		try {
+			Set<TYPE> allGeneric = new HashSet<TYPE>();
+			for ( ModelElement content : getContents() ) {
+				if ( content instanceof Namespace<?> ) {
+					Namespace<?> namespace = (Namespace<?>)content;
+					allGeneric.addAll( namespace.getAllContentsGeneric( typeOf ) );
+				}
 
-			if ( typeOf.isInstance( content ) ) {
-				allGeneric.add( typeOf.cast( content ) );
+				if ( typeOf.isInstance( content ) ) {
+					allGeneric.add( typeOf.cast( content ) );
+				}
 			}
-		}
 
-		return allGeneric;
+			return allGeneric;
+		} finally {
+			ModelMetrics.endTraversal( TraversalKind.allContents, this, start );
+		}
 	}
 
 
@@ -304,42 +313,14 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunCwmPackage" );
-		if ( !this.importedElements.isEmpty() ) {
-			out.append( " | importedElements(" + this.importedElements.size() + ")={" );
-			boolean comma = false;
-			for ( IMPORTED imported : this.importedElements ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( imported.getQualifiedName() );
-				out.append( "<" + imported.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunCwmPackage" );
+		out.elements( "importedElements", this.importedElements, true );
 		
-		if ( !this.dataManagers.isEmpty() ) {
-			out.append( " | dataManagers(" + this.dataManagers.size() + ")={" );
-			boolean comma = false;
-			for ( MANAGER manager : this.dataManagers ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( manager.getSimpleName() );
-				out.append( "<" + manager.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+		out.simpleNames( "dataManagers", this.dataManagers, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
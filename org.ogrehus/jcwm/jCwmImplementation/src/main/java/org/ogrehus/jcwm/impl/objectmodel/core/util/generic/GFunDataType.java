@@ -33,6 +33,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GDataType;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -145,12 +146,10 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunDataType" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunDataType" );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 }
\ No newline at end of file
@@ -34,6 +34,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.api.objectmodel.core.util.references.dependencyclient.ClientDependency;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+
 /**
  * A dependency states that the implementation or functioning of one or more elements requires the presence of one or more other elements.
  * <p>
@@ -136,19 +138,44 @@ implements
 
 
 
+	/**
+	 * Returns the suppliers of this Dependency.
+	 * <p>
+	 * Overrides the operation <code>supplier</code> of ClientDependency inherited from GFunModelElement, which would return the suppliers of
+	 * the dependencies this Dependency is a client of. For a Dependency the reference <code>supplier</code> of the CWM Specification is meant.
+	 * </p>
+	 * 
+	 * @return A Set of all direct suppliers of this Dependency.
+	 * 
+	 */
+	@Override
+	public Set<ModelElement> getSuppliers() {
+		return this.suppliers;
+	}
+
+
+
 	public Boolean addSupplier( ModelElement supplier ) {
-		return this.suppliers.add( supplier );
+		checkMutable();
+		if ( supplier != null && this.suppliers.add( supplier ) ) {
+			fireChange( ModelChangeKind.linked, "supplier", null, supplier );
+			return Boolean.TRUE;
+		}
+
+		return Boolean.FALSE;
 	}
 
 
 
 	public Boolean removeClient( ClientDependency<?> client ) {
+		checkMutable();
 		if ( client == null ) {
 			return Boolean.TRUE;
 		}
 		
 		if ( this.clients.remove( client ) ) {
 			client.removeDependency( this );
+			fireChange( ModelChangeKind.unlinked, "client", client, null );
 			return Boolean.TRUE;
 		}
 
@@ -158,11 +185,17 @@ implements
 
 
 	public Boolean removeSupplier( ModelElement supplier ) {
+		checkMutable();
 		if ( supplier == null ) {
 			return Boolean.TRUE;
 		}
 
-		return this.suppliers.remove( supplier );
+		if ( this.suppliers.remove( supplier ) ) {
+			fireChange( ModelChangeKind.unlinked, "supplier", supplier, null );
+			return Boolean.TRUE;
+		}
+
+		return Boolean.FALSE;
 	}
 
 
@@ -30,6 +30,9 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GDependency;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * A feature is an abstract property, like attribute or operation that is encapsulated within a Classifier.
@@ -82,11 +85,14 @@ implements
 
 
 	public Boolean removeOwner() {
+		checkMutable();
+		checkMutable( this.owner );
 		if ( this.owner == null ) {
 			return Boolean.TRUE;
 		}
 		CLASSIFIER old = this.owner;
 		this.owner = null;
+		fireChange( ModelChangeKind.propertyChanged, "owner", old, null );
 
 		return old.removeFeature( this );
 	}
@@ -94,6 +100,9 @@ implements
 
 
 	protected CLASSIFIER setOwnerGeneric( CLASSIFIER owner ) {
+		checkMutable();
+		checkMutable( owner );
+		checkMutable( this.owner );
 		if ( owner != null && owner.equals( this.owner ) ) {
 			return owner; // no changes, cause its the same namespace
 		}
@@ -102,6 +111,7 @@ implements
 			old.removeFeature( this );
 		}
 		this.owner = owner;
+		fireChange( ModelChangeKind.propertyChanged, "owner", old, owner );
 		if ( this.owner != null ) {
 			if ( !this.owner.getFeatures().contains( this ) ) {
 				// organize the bidirectional reference of new owner by reflection
@@ -128,8 +138,10 @@ implements
 
 
 	public Scope setOwnerScope( Scope ownerScope ) {
+		checkMutable();
 		Scope old = this.ownerScope;
 		this.ownerScope = ownerScope;
+		fireChange( ModelChangeKind.propertyChanged, "ownerScope", old, ownerScope );
 		return old;
 	}
 
@@ -142,21 +154,19 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunFeature" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunFeature" );
 		if ( this.ownerScope != null ) {
-			out.append( " | ownerScope=" + this.ownerScope );
+			out.property( "ownerScope", this.ownerScope );
 		}
 
 		if ( this.owner != null ) {
-			out.append( " | owner=" + this.owner.getQualifiedName() );
-			out.append( "<" + owner.getClass().getSimpleName() + ">" );
+			out.property( "owner", this.owner );
+			out.type( owner );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -21,10 +21,18 @@
  */
 package org.ogrehus.jcwm.impl.objectmodel.core.util.generic;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.ogrehus.jcwm.api.Cwm;
 import org.ogrehus.jcwm.api.foundation.businessinformation.Description;
@@ -37,6 +45,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.Name;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GConstraint;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GDependency;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.api.objectmodel.core.util.references.dependencyclient.Clientable;
@@ -49,6 +58,16 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.objectmodel.core.util.references.dependencyclient.ClientDependency;
 import org.ogrehus.jcwm.impl.FunCwm;
 import org.ogrehus.jcwm.impl.objectmodel.core.FunName;
+import org.ogrehus.jcwm.impl.util.collection.FrozenCollections;
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+import org.ogrehus.jcwm.impl.util.diff.Fingerprint;
+import org.ogrehus.jcwm.impl.util.diff.Fingerprinter;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+import org.ogrehus.jcwm.impl.util.render.ModelRenderer;
 
 
 /**
@@ -125,6 +144,8 @@ public abstract class GFunModelElement<
 			e.printStackTrace();
 			// can't occur, cause otherwise this class would be missing too! 
 		}
+
+		this.tracked = !( this instanceof FunName ); // names are values, not elements of the model
 	}
 
 
@@ -135,6 +156,72 @@ public abstract class GFunModelElement<
 
 
 
+	/**
+	 * Registers this element in an ElementRegistry once it is constructed, and reports its creation. A factory registers the elements it
+	 * creates in its registry, see {@link ElementRegistry#adopt(ModelElement)}. An element constructed otherwise, like a column of
+	 * <code>FunTable.addColumn(String, SQLDataType)</code>, is registered in the registry of the element it is linked to or referenced by
+	 * first. Till then its changes are kept and reported behind its <code>created</code> change, so listeners see them in their order.
+	 *
+	 * @param registry The registry of the element. Must not be <code>null</code>.
+	 *
+	 * @return The id of this element, the one it has if it is registered already. <code>0</code> for FunNames.
+	 *
+	 */
+	public final int register( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		if ( !this.tracked ) {
+			return 0;
+		}
+		int id;
+		List<Object> held;
+		synchronized ( this ) {
+			if ( this.registry != null ) {
+				return this.id;
+			}
+			id = registry.allocate();
+			this.id       = id;
+			this.registry = registry;
+			registry.bind( id, this ); // published completely constructed
+			held = this.held;
+			this.held = null;
+		}
+		report( ModelChangeKind.created, null, null, null );
+		if ( held != null ) {
+			for ( int i = 0; i < held.size(); i += HELD_SIZE ) {
+				report( (ModelChangeKind) held.get( i ), (String) held.get( i + 1 ), held.get( i + 2 ), held.get( i + 3 ) );
+			}
+		}
+
+		return id;
+	}
+
+
+
+	/**
+	 * @return The dense id of this element in its ElementRegistry, greater than <code>0</code>, see {@link ElementRegistry#resolve(int)}.
+	 * FunNames are values and have the id <code>0</code>, so has an element that is not registered yet, see
+	 * {@link #register(ElementRegistry)}.
+	 *
+	 */
+	public final int getId() {
+		return this.id;
+	}
+
+
+
+	/**
+	 * @return The ElementRegistry the element is registered in, see {@link #register(ElementRegistry)}. <code>null</code> for FunNames and
+	 * elements not registered yet.
+	 *
+	 */
+	public final ElementRegistry getRegistry() {
+		return this.registry;
+	}
+
+
+
 	public Name getName() {
 		if ( this.name == null ) {
 			return FunName.DEFAULT;
@@ -234,8 +321,10 @@ public abstract class GFunModelElement<
 
 
 	public Name setName( String name ) {
+		checkMutable();
 		Name old = this.name;
 		this.name = new FunName( name );
+		fireChange( ModelChangeKind.propertyChanged, "name", old, this.name );
 		return old;
 	}
 
@@ -248,11 +337,13 @@ public abstract class GFunModelElement<
 
 
 	public Visibility setVisibility(Visibility visibility) {
+		checkMutable();
 		if ( visibility == null ) {
 			throw new NullPointerException( "Parameter: visibility must not be null." );
 		}		
 		Visibility old = this.visibility;
 		this.visibility = visibility;
+		fireChange( ModelChangeKind.propertyChanged, "visibility", old, visibility );
 
 		return old;
 	}
@@ -266,8 +357,10 @@ public abstract class GFunModelElement<
 
 
 	public Stereotype setStereotype(Stereotype stereotype) {
+		checkMutable();
 		Stereotype old = this.stereotype;
 		this.stereotype = stereotype;
+		fireChange( ModelChangeKind.propertyChanged, "stereotype", old, stereotype );
 
 		return old;
 	}
@@ -287,6 +380,9 @@ public abstract class GFunModelElement<
 
 
 	protected NAMESPACE setNamespaceGeneric( NAMESPACE namespace ) {
+		checkMutable();
+		checkMutable( namespace );
+		checkMutable( this.namespace );
 		if ( namespace != null && namespace.equals( this.namespace ) ) {
 			return namespace; // no changes, cause its the same namespace
 		}
@@ -297,6 +393,7 @@ public abstract class GFunModelElement<
 		}
 
 		this.namespace = namespace;
+		fireChange( ModelChangeKind.propertyChanged, "namespace", old, namespace );
 		if ( this.namespace != null ) {
 			if ( !this.namespace.getOwnedElements().contains( this ) ) {
 				invokeByReflection( this.namespace, "addOwnedElement", this ); // organize the bidirectional reference 
@@ -315,12 +412,15 @@ public abstract class GFunModelElement<
 
 
 	public Boolean removeNamespace() {
+		checkMutable();
+		checkMutable( this.namespace );
 		if ( this.namespace == null ) {
 			return Boolean.TRUE;
 		}
 
 		NAMESPACE old = this.namespace;
 		this.namespace = null;
+		fireChange( ModelChangeKind.propertyChanged, "namespace", old, null );
 
 		return old.removeOwnedElement( this );
 	}
@@ -366,22 +466,37 @@ public abstract class GFunModelElement<
 
 
 
+	/**
+	 * Completes a bidirectional reference by looking up and invoking a method of the opposite side. Each call is counted by ModelMetrics as a
+	 * reflective link, with the time of the lookup and the invocation.
+	 *
+	 */
 	protected static final <INVOKE, PARAM> Boolean invokeByReflection( INVOKE invoker, String methodName, PARAM param ) {
-		Method call = findMethod( invoker, methodName, param );
-		if ( call == null ) {
-			throw new IllegalArgumentException( "The class " + invoker.getClass().getName()
-					+ " does not provide a suitable Method named: \"" + methodName + "\" to set the object type : "
-					+ param.getClass().getName() );
-		}
-		
+		long start = ModelMetrics.beginReflectiveLink();
 		try {
-			call.invoke( invoker.getClass().cast( invoker ), param );
-			return Boolean.TRUE;
-		} catch ( Exception e ) {
-			e.printStackTrace();
-		}
+			Method call = findMethod( invoker, methodName, param );
+			if ( call == null ) {
+				throw new IllegalArgumentException( "The class " + invoker.getClass().getName()
+						+ " does not provide a suitable Method named: \"" + methodName + "\" to set the object type : "
+						+ param.getClass().getName() );
+			}
+			
+			try {
+				call.invoke( invoker.getClass().cast( invoker ), param );
+				return Boolean.TRUE;
+			} catch ( InvocationTargetException e ) {
+				if ( e.getCause() instanceof UnsupportedOperationException ) {
+					throw (UnsupportedOperationException) e.getCause(); // the invoker is compacted
+				}
+				e.printStackTrace();
+			} catch ( Exception e ) {
+				e.printStackTrace();
+			}
 
-		return Boolean.FALSE;
+			return Boolean.FALSE;
+		} finally {
+			ModelMetrics.endReflectiveLink( invoker, methodName, start );
+		}
 	}
 
 
@@ -393,7 +508,9 @@ public abstract class GFunModelElement<
 
 
 	protected Boolean addImporterGeneric( PACKAGE importer ) {
+		checkMutable();
 		if ( importer != null && this.packages.add( importer) ) {
+			fireChange( ModelChangeKind.linked, "importer", null, importer );
 			invokeByReflection( importer, "addImportedElement", this ); // bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -404,12 +521,17 @@ public abstract class GFunModelElement<
 
 
 	public Boolean removeImporter( ImportedElement<?> importer ) {
+		checkMutable();
 		if ( importer == null ) {
 			return Boolean.TRUE;
 		}
 		importer.removeImportedElement( this );
+		if ( this.packages.remove( importer ) ) {
+			fireChange( ModelChangeKind.unlinked, "importer", importer, null );
+			return Boolean.TRUE;
+		}
 
-		return this.packages.remove( importer );
+		return Boolean.FALSE;
 	}
 
 
@@ -431,7 +553,9 @@ public abstract class GFunModelElement<
 
 
 	protected Boolean addDependencyGeneric( DEPENDENCY dependency ) {
+		checkMutable();
 		if ( dependency != null && this.dependencies.add( dependency ) ) {
+			fireChange( ModelChangeKind.linked, "clientDependency", null, dependency );
 			invokeByReflection( dependency, "addClient", this ); // bi-directional reference
 			return Boolean.TRUE;
 		}
@@ -442,11 +566,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean removeDependency( Clientable<?> dependency ) {
+		checkMutable();
 		if ( dependency == null ) {
 			return Boolean.TRUE;
 		}
 		
 		if ( this.dependencies.remove( dependency ) ) {
+			fireChange( ModelChangeKind.unlinked, "clientDependency", dependency, null );
 			dependency.removeClient( this );
 			return Boolean.TRUE;
 		}
@@ -472,14 +598,22 @@ public abstract class GFunModelElement<
 
 
 
+	/**
+	 * The transitive closure of the suppliers is collected iteratively, each supplier is visited exactly once. So cyclic dependencies terminate and
+	 * deep dependency chains do not overflow the stack.
+	 * 
+	 */
 	public Set<ModelElement> getAllSuppliers() {
 		Set<ModelElement> allSuppliers = new HashSet<ModelElement>();
-		Set<ModelElement> mySuppliers  = getSuppliers();
-		allSuppliers.addAll( mySuppliers );
-		for ( ModelElement aSupplier : mySuppliers ) {
-			new HashSet<ModelElement>();
-			if ( aSupplier instanceof ClientDependency<?> ) {
-				allSuppliers.addAll( ((ClientDependency<?>)aSupplier).getAllSuppliers() );
+		Deque<ModelElement> open = new ArrayDeque<ModelElement>( getSuppliers() );
+		while ( !open.isEmpty() ) {
+			ModelElement supplier = open.pop();
+			if ( allSuppliers.add( supplier ) && supplier instanceof ClientDependency<?> ) {
+				for ( ModelElement next : ( (ClientDependency<?>) supplier ).getSuppliers() ) {
+					if ( !allSuppliers.contains( next ) ) {
+						open.push( next );
+					}
+				}
 			}
 		}
 
@@ -495,7 +629,9 @@ public abstract class GFunModelElement<
 
 
 	protected Boolean addConstraintGeneric( CONSTRAINT constraint ) {
+		checkMutable();
 		if ( constraint != null && this.constraints.add( constraint ) ) {
+			fireChange( ModelChangeKind.linked, "constraint", null, constraint );
 			invokeByReflection( constraint, "addConstraintedElement", this ); // bi-directional reference
 
 			return Boolean.TRUE;
@@ -507,11 +643,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean removeConstraint( ConstraintedElement<?> constraint ) {
+		checkMutable();
 		if ( constraint == null ) {
 			return Boolean.TRUE;
 		}
 
 		if ( this.constraints.remove( constraint ) ) {
+			fireChange( ModelChangeKind.unlinked, "constraint", constraint, null );
 			constraint.removeConstraintedElement( this ); // remove bi-directional reference
 
 			return Boolean.TRUE;
@@ -529,8 +667,10 @@ public abstract class GFunModelElement<
 
 
 	public String setRemarks( String remarks ) {
+		checkMutable();
 		String old = this.remarks;
 		this.remarks = remarks;
+		fireChange( ModelChangeKind.propertyChanged, "remarks", old, remarks );
 		return old;
 	}
 
@@ -549,11 +689,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean addDocument( Document document ) {
+		checkMutable();
 		if ( document == null ) {
 			return Boolean.FALSE;
 		}
 
 		if ( this.documents.add( document ) ) {
+			fireChange( ModelChangeKind.linked, "document", null, document );
 			document.addModelElement( this );
 			return Boolean.TRUE;
 		}
@@ -564,11 +706,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean removeDocument( Document document ) {
+		checkMutable();
 		if ( document == null ) {
 			return Boolean.TRUE;
 		}
 
 		if ( this.documents.remove( document ) ) {
+			fireChange( ModelChangeKind.unlinked, "document", document, null );
 			document.removeModelElement( this );
 
 			return Boolean.TRUE;
@@ -586,11 +730,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean addDescription( Description description ) {
+		checkMutable();
 		if ( description == null ) {
 			return Boolean.FALSE;
 		}
 
 		if ( this.descriptions.add( description ) ) {
+			fireChange( ModelChangeKind.linked, "description", null, description );
 			description.addModelElement( this );
 
 			return Boolean.TRUE;
@@ -602,11 +748,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean removeDescription( Description description ) {
+		checkMutable();
 		if ( description == null ) {
 			return Boolean.TRUE;
 		}
 
 		if ( this.descriptions.remove( description ) ) {
+			fireChange( ModelChangeKind.unlinked, "description", description, null );
 			description.removeModelElement( this );
 			return Boolean.TRUE;
 		}
@@ -623,11 +771,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean addResponsibleParty( ResponsibleParty responsibleParty ) {
+		checkMutable();
 		if ( responsibleParty == null ) {
 			return Boolean.FALSE;
 		}
 
 		if ( this.responsibleParties.add( responsibleParty ) ) {
+			fireChange( ModelChangeKind.linked, "responsibleParty", null, responsibleParty );
 			responsibleParty.addModelElement( this );
 			return Boolean.TRUE;
 		}
@@ -638,11 +788,13 @@ public abstract class GFunModelElement<
 
 
 	public Boolean removeResponsibleParty( ResponsibleParty responsibleParty ) {
+		checkMutable();
 		if ( responsibleParty == null ) {
 			return Boolean.TRUE;
 		}
 
 		if ( this.responsibleParties.remove( responsibleParty ) ) {
+			fireChange( ModelChangeKind.unlinked, "responsibleParty", responsibleParty, null );
 			responsibleParty.removeModelElement( this );
 
 			return Boolean.TRUE;
@@ -660,88 +812,466 @@ public abstract class GFunModelElement<
 
 
 //====================================================================================================================================================
-// Object capabilities
+// Change notification
 //====================================================================================================================================================
 
 
-	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunModelElement" );
-		out.append( " | name=" + this.name );
-		out.append( " | visibility=" + this.visibility );
-		if ( this.namespace != null ) {
-			out.append( " | namespace=" + this.namespace.getQualifiedName() );
-			out.append( "<" + this.namespace.getClass().getSimpleName() + ">" );
+
+	/**
+	 * Reports a change of this ModelElement to the registered ModelChangeListeners. Every mutation point of the model calls this method after
+	 * the mutation was performed. The changes of an element not registered yet are held till it is registered, an element referenced by the
+	 * change is registered in the registry of this element first, if it is not registered yet.
+	 * 
+	 * @param kind The kind of the change.
+	 * 
+	 * @param feature The name of the changed attribute or reference, as used in the CWM Specification.
+	 * 
+	 * @param oldValue The value before the change, or the unlinked element.
+	 * 
+	 * @param newValue The value after the change, or the linked element.
+	 * 
+	 */
+	protected final void fireChange( ModelChangeKind kind, String feature, Object oldValue, Object newValue ) {
+		if ( this.shape != null || this.shapeReferenced != 0 ) {
+			invalidateShape( feature, oldValue );
+		}
+		if ( !this.tracked || this.registry == null && hold( kind, feature, oldValue, newValue ) ) {
+			return;
 		}
+		report( kind, feature, oldValue, newValue );
+	}
 
-		if ( this.stereotype != null ) {
-			out.append( " | stereotype=" + this.stereotype.getQualifiedName() );
+
+
+	/**
+	 * Holds a change of this element till it is registered.
+	 *
+	 * @return <code>false</code> if the element was registered meanwhile, so the change must be reported.
+	 *
+	 */
+	private synchronized boolean hold( ModelChangeKind kind, String feature, Object oldValue, Object newValue ) {
+		if ( this.registry != null ) {
+			return false;
+		}
+		if ( this.held == null ) {
+			this.held = new ArrayList<Object>( HELD_SIZE * 2 );
 		}
+		this.held.add( kind );
+		this.held.add( feature );
+		this.held.add( oldValue );
+		this.held.add( newValue );
 
-		if ( this.remarks != null ) {
-			out.append( " | remarks=" + this.remarks );
+		return true;
+	}
+
+
+
+	/**
+	 * Registers the elements of a change of this registered element, that are not registered yet, and reports the change.
+	 *
+	 */
+	private void report( ModelChangeKind kind, String feature, Object oldValue, Object newValue ) {
+		if ( oldValue instanceof GFunModelElement<?, ?, ?, ?> && ( (GFunModelElement<?, ?, ?, ?>) oldValue ).registry == null ) {
+			( (GFunModelElement<?, ?, ?, ?>) oldValue ).register( this.registry );
+		}
+		if ( newValue instanceof GFunModelElement<?, ?, ?, ?> && ( (GFunModelElement<?, ?, ?, ?>) newValue ).registry == null ) {
+			( (GFunModelElement<?, ?, ?, ?>) newValue ).register( this.registry );
+		}
+		if ( ModelChangeSupport.isActive() || ModelMetrics.isActive() ) {
+			ModelChangeSupport.fire( this, kind, feature, oldValue, newValue );
 		}
+	}
 
-		out.append( collectionToString( "packages", this.packages, true ) );
-		out.append( collectionToString( "dependencies", this.dependencies, true ) );
-		out.append( collectionToString( "constraints", this.constraints, true ) );
 
-		if ( !this.taggedValues.isEmpty() ) {
-			out.append( " | dependencies(" + this.taggedValues.size() + ")={" );
-			boolean comma = false;
-			for ( TaggedValue taggedValue : this.taggedValues ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
+
+//====================================================================================================================================================
+// Fingerprints
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The Fingerprint of this element and everything it owns, including its name, see {@link Fingerprinter#getSubtree(ModelElement)}.
+	 * Computed once and kept until this element or one of its descendants changes, so comparing two Schemas by their Fingerprints costs O(1).
+	 *
+	 */
+	public Fingerprint getFingerprint() {
+		return new Fingerprinter().getSubtree( this );
+	}
+
+
+
+	/**
+	 * @return The Fingerprint of the shape of this element stored by a Fingerprinter, <code>null</code> if none was stored or it is stale,
+	 * cause this element or one of its descendants changed since.
+	 *
+	 */
+	public final Fingerprint getStoredShape() {
+		return this.shapeEpoch == SHAPE_EPOCH.get() ? this.shape : null;
+	}
+
+
+
+	/**
+	 * Stores the Fingerprint of the shape of this element.
+	 *
+	 * @param epoch The epoch of the stored shapes when the computation of the Fingerprint started, see {@link #getShapeEpoch()}. A
+	 * Fingerprint computed while the epoch changed is stale right away.
+	 *
+	 */
+	public final void storeShape( Fingerprint shape, int epoch ) {
+		this.shape      = shape;
+		this.shapeEpoch = epoch;
+	}
+
+
+
+	/**
+	 * Marks this element as part of the path of a reference hashed by a Fingerprinter: renaming or moving it changes the Fingerprints of the
+	 * referencing elements, that are not its descendants.
+	 *
+	 * @param byValue <code>true</code> if all properties of this element are hashed into the referencing elements, like of a SQLSimpleType,
+	 * not only its name.
+	 *
+	 */
+	public final void markShapeReferenced( boolean byValue ) {
+		if ( this.shapeReferenced < ( byValue ? BY_VALUE : BY_NAME ) ) {
+			this.shapeReferenced = byValue ? BY_VALUE : BY_NAME;
+		}
+	}
+
+
+
+	/**
+	 * @return The epoch of the stored shapes. It changes when all stored shapes get stale at once: when an element on the path of a hashed
+	 * reference is renamed, or an element is moved to another parent.
+	 *
+	 */
+	public static int getShapeEpoch() {
+		return SHAPE_EPOCH.get();
+	}
+
+
+
+//====================================================================================================================================================
+// Packed properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @param shift The position of the two bits of the property in the flags.
+	 *
+	 * @return The Boolean property stored at the position, <code>null</code> if it was never set.
+	 *
+	 */
+	protected final Boolean getFlag( int shift ) {
+		int bits = getBits( shift );
+
+		return bits == 0 ? null : Boolean.valueOf( bits == 3 );
+	}
+
+
+
+	/**
+	 * Stores a Boolean property in two bits of the flags: <code>00</code> for <code>null</code>, <code>01</code> for <code>false</code> and
+	 * <code>11</code> for <code>true</code>.
+	 *
+	 */
+	protected final void setFlag( int shift, Boolean value ) {
+		setBits( shift, value == null ? 0 : value.booleanValue() ? 3 : 1 );
+	}
+
+
+
+	/**
+	 * @return The two bits of the flags at the position, a value between 0 and 3.
+	 *
+	 */
+	protected final int getBits( int shift ) {
+		return this.flags >>> shift & 3;
+	}
+
+
+
+	/**
+	 * Stores a value between 0 and 3, like the ordinal of an enumerated property plus one, in two bits of the flags. The flags are updated by
+	 * compare and set, so concurrent updates of other properties, or of the compaction, are not lost.
+	 *
+	 */
+	protected final void setBits( int shift, int bits ) {
+		int mask = 3 << shift;
+		int expected;
+		do {
+			expected = this.flags;
+		} while ( !FLAGS.compareAndSet( this, expected, expected & ~mask | ( bits & 3 ) << shift ) );
+	}
+
+
+
+	/**
+	 * Sets or clears the single bit of the compaction in the flags by compare and set.
+	 *
+	 * @return <code>true</code> if the bit was changed by this call.
+	 *
+	 */
+	private boolean setCompacted( boolean compacted ) {
+		int expected;
+		do {
+			expected = this.flags;
+			if ( ( ( expected & COMPACTED ) != 0 ) == compacted ) {
+				return false;
+			}
+		} while ( !FLAGS.compareAndSet( this, expected, expected ^ COMPACTED ) );
+
+		return true;
+	}
+
+
+
+	/**
+	 * @return The Integer of an int property, <code>null</code> for {@link #UNSET}.
+	 *
+	 */
+	protected static Integer toInteger( int value ) {
+		return value == UNSET ? null : Integer.valueOf( value );
+	}
+
+
+
+	/**
+	 * @return The int of an Integer property, {@link #UNSET} for <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException If the value is {@link #UNSET}, which can't be stored.
+	 *
+	 */
+	protected static int toInt( Integer value ) {
+		if ( value == null ) {
+			return UNSET;
+		}
+		if ( value.intValue() == UNSET ) {
+			throw new IllegalArgumentException( "The value: " + UNSET + " can't be stored, it denotes an unset property." );
+		}
+
+		return value.intValue();
+	}
+
+
+
+//====================================================================================================================================================
+// Compaction
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Compacts this element and everything it owns for read-mostly use, like a Catalog loaded once and queried by many threads: the
+	 * collections of the associations are replaced by immutable arrays of the exact size, see {@link FrozenCollections}. Empty collections are
+	 * shared, so a compacted element without tagged values, constraints or dependencies holds no collections of its own.
+	 * <p>
+	 * A compacted element rejects every change by an UnsupportedOperationException, until it is thawed by {@link #thaw()}. Elements outside
+	 * of the subtree, that reference compacted elements, can't link or unlink them either, like a ForeignKey to a compacted UniqueKey.
+	 * </p>
+	 *
+	 * @return The number of compacted elements.
+	 *
+	 */
+	public final int compact() {
+		int compacted = 0;
+		for ( ModelElement element : new ModelTraversal( this ) ) {
+			if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+				GFunModelElement<?, ?, ?, ?> current = (GFunModelElement<?, ?, ?, ?>) element;
+				if ( ( current.flags & COMPACTED ) == 0 ) {
+					FrozenCollections.freeze( current );
+					if ( current.setCompacted( true ) ) {
+						compacted++;
+					}
 				}
-				out.append( taggedValue.getTag() );
 			}
-			out.append( "}" );
 		}
-		
-		out.append( collectionToString( "descriptions"      , this.descriptions ) );        
-		out.append( collectionToString( "documents"         , this.documents ) );        
-		out.append( collectionToString( "responsibleParties", this.responsibleParties ) );
-		out.append( "]" );
-		
-		return out.toString();
+
+		return compacted;
 	}
 
 
 
-	static final protected String collectionToString( String name, Collection<? extends ModelElement> collection ) {
-		return collectionToString(name, collection, false );
+	/**
+	 * Thaws this element and everything it owns, compacted by {@link #compact()}, so it can be changed again. The compacted ancestors stay
+	 * compacted, so the rare edit of a single Table of a compacted Catalog thaws the Table only.
+	 *
+	 * @return The number of thawed elements.
+	 *
+	 */
+	public final int thaw() {
+		int thawed = 0;
+		for ( ModelElement element : new ModelTraversal( this ) ) {
+			if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+				GFunModelElement<?, ?, ?, ?> current = (GFunModelElement<?, ?, ?, ?>) element;
+				if ( ( current.flags & COMPACTED ) != 0 ) {
+					FrozenCollections.thaw( current );
+					if ( current.setCompacted( false ) ) {
+						thawed++;
+					}
+				}
+			}
+		}
+
+		return thawed;
+	}
+
+
+
+	public final Boolean isCompacted() {
+		return Boolean.valueOf( ( this.flags & COMPACTED ) != 0 );
+	}
+
+
+
+	/**
+	 * Called by every mutation point of the model before the mutation is performed, like {@link #fireChange(ModelChangeKind, String, Object,
+	 * Object)} after.
+	 *
+	 * @throws UnsupportedOperationException If this element is compacted.
+	 *
+	 */
+	protected final void checkMutable() {
+		if ( ( this.flags & COMPACTED ) != 0 ) {
+			throw new UnsupportedOperationException(
+				"The element: " + getQualifiedName() + " is compacted and can't be changed, it must be thawed first."
+			);
+		}
 	}
 
 
 
-	static final protected String collectionToString( String name, Collection<? extends ModelElement> collection, boolean typed ) {
-		StringBuffer out = new StringBuffer();
-		if ( collection != null && !collection.isEmpty() ) {
-			out.append( " | " );
-			out.append( name );
-			out.append( "(" );
-			out.append( collection.size() );
+	/**
+	 * Checks the other end of a bidirectional reference before this end is changed, like the new Namespace of this element, so a compacted
+	 * other end does not leave the reference half linked.
+	 *
+	 * @throws UnsupportedOperationException If the other element is compacted.
+	 *
+	 */
+	protected static final void checkMutable( Object other ) {
+		if ( other instanceof GFunModelElement<?, ?, ?, ?> ) {
+			( (GFunModelElement<?, ?, ?, ?>) other ).checkMutable();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Fingerprint internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Drops the stored shapes of this element and its ancestors, up to the first ancestor without a stored shape: the stored shape of an
+	 * element implies the stored shapes of its descendants, so the ancestors above have none either. Nothing is computed until a Fingerprint
+	 * is requested again.
+	 * <p>
+	 * The shape of an element depends on the names of the elements it references, and on its own location, if it references elements outside
+	 * of its subtree. So renaming an element on the path of a hashed reference, or moving an element with a stored shape, changes the epoch,
+	 * which turns all stored shapes stale at once, like any change of an element hashed by value. These are rare compared to changes of
+	 * properties.
+	 * </p>
+	 *
+	 */
+	private void invalidateShape( String feature, Object oldValue ) {
+		boolean moved = "namespace".equals( feature ) || "owner".equals( feature );
+		boolean referenced = this.shapeReferenced == BY_VALUE || this.shapeReferenced == BY_NAME && "name".equals( feature );
+		if ( referenced || moved && ( oldValue != null || this.shapeReferenced != 0 || getStoredShape() != null ) ) {
+			SHAPE_EPOCH.incrementAndGet();
+		}
+		for ( GFunModelElement<?, ?, ?, ?> current = this; current != null && current.shape != null; current = getParent( current ) ) {
+			current.shape = null;
+		}
+	}
+
+
+
+	private static GFunModelElement<?, ?, ?, ?> getParent( GFunModelElement<?, ?, ?, ?> element ) {
+		Object parent = element.namespace;
+		if ( parent == null && element instanceof GFeature<?, ?, ?, ?, ?> ) {
+			parent = ( (GFeature<?, ?, ?, ?, ?>) element ).getOwner();
+		}
+
+		return parent instanceof GFunModelElement<?, ?, ?, ?> ? (GFunModelElement<?, ?, ?, ?>) parent : null;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+	/**
+	 * Renders a bounded summary of this element, like <code>[FunTable | name=SALES.ORDERS | ownedElements(2) | features(12)]</code>.
+	 * <p>
+	 * The summary neither recurses into the owned elements nor lists all features, so printing a Schema with a million tables stays cheap.
+	 * All details are rendered by <code>ModelRenderer.getFull()</code>, see {@link #describe(ModelDescription)}.
+	 * </p>
+	 *
+	 */
+	@Override
+	public String toString() {
+		return ModelRenderer.getSummary().render( this );
+	}
+
+
+
+	/**
+	 * Describes all properties and references of this element. Subclasses describe their own properties and extend the description of their
+	 * superclass.
+	 *
+	 * @param out The bounded description to append to, which cuts long collections and ends the rendering at its maximum length.
+	 *
+	 */
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunModelElement" );
+		out.property( "name", this.name );
+		out.property( "visibility", this.visibility );
+		if ( this.namespace != null ) {
+			out.reference( "namespace", this.namespace );
+		}
+
+		if ( this.stereotype != null ) {
+			out.property( "stereotype", this.stereotype );
+		}
+
+		if ( this.remarks != null ) {
+			out.property( "remarks", this.remarks );
+		}
+
+		out.elements( "packages", this.packages, true );
+		out.elements( "dependencies", this.dependencies, true );
+		out.elements( "constraints", this.constraints, true );
+
+		if ( !this.taggedValues.isEmpty() ) {
+			out.append( " | taggedValues(" );
+			out.append( this.taggedValues.size() );
 			out.append( ")={" );
-			boolean comma = false;
-			for ( ModelElement element : collection ) {
-				if ( element != null ) {
-					if ( comma ) {
-						out.append( " , " );
-					} else {
-						comma = true;
-					}
-					out.append( element.getQualifiedName() );
-					if ( typed ) {
-						out.append( "<" + element.getClass().getSimpleName() + ">" );
-					}
+			int count = 0;
+			for ( TaggedValue taggedValue : this.taggedValues ) {
+				if ( count > 0 ) {
+					out.append( " , " );
 				}
+				if ( count == out.getMaxItems() ) {
+					out.append( "...+" );
+					out.append( this.taggedValues.size() - count );
+					break;
+				}
+				out.value( taggedValue.getTag() );
+				count++;
 			}
 			out.append( "}" );
 		}
-
-		return out.toString();
+		
+		out.elements( "descriptions"      , this.descriptions, false );
+		out.elements( "documents"         , this.documents, false );
+		out.elements( "responsibleParties", this.responsibleParties, false );
+		out.append( "]" );
 	}
 
 
@@ -940,4 +1470,127 @@ public abstract class GFunModelElement<
 
 
 	protected Cwm cwmFactory = null;
+
+
+
+	/**
+	 * <code>true</code> as soon as the construction of the GFunModelElement is completed and changes should be reported to ModelChangeListeners.
+	 * Instances of FunName are never tracked, cause they are values of other ModelElements.
+	 * 
+	 */
+	protected boolean tracked = false;
+
+
+
+	/**
+	 * The Boolean and enumerated properties of the subclasses, two bits each, see {@link #setFlag(int, Boolean)}. A primitive field instead
+	 * of a Boolean field per property saves a reference per property and keeps all of them in a single word. The positions:
+	 * <ul>
+	 * <li>0: GFunClassifier.isAbstract</li>
+	 * <li>2, 4: FunTable.isSystem, isTemporary</li>
+	 * <li>6, 8, 10: GFunIndex.isUnique, isSorted, isPartitioning</li>
+	 * <li>12, 14: FunSQLIndex.isNullable, autoUpdate</li>
+	 * <li>16: GFunBehavioralFeature.isQuery</li>
+	 * <li>18, 20: GFunColumn.isNullable, autoIncrement</li>
+	 * <li>22: compacted, a single bit, see {@link #compact()}</li>
+	 * </ul>
+	 *
+	 */
+	private volatile int flags = 0;
+
+
+
+	/**
+	 * Updates {@link #flags} by compare and set.
+	 *
+	 */
+	private static final VarHandle FLAGS;
+	static {
+		try {
+			FLAGS = MethodHandles.lookup().findVarHandle( GFunModelElement.class, "flags", int.class );
+		} catch ( ReflectiveOperationException e ) {
+			throw new ExceptionInInitializerError( e );
+		}
+	}
+
+
+
+	private static final int COMPACTED = 1 << 22;
+
+
+
+	/**
+	 * The value of a primitive int property, that was never set, like the length of a column without length.
+	 *
+	 */
+	protected static final int UNSET = Integer.MIN_VALUE;
+
+
+
+	/**
+	 * The number of entries of a held change: its kind, feature, old and new value.
+	 *
+	 */
+	private static final int HELD_SIZE = 4;
+
+
+
+	/**
+	 * The id of this element in its ElementRegistry, see {@link #getId()}. Set once, when the element is registered.
+	 *
+	 */
+	private int id = 0;
+
+
+
+	private ElementRegistry registry = null;
+
+
+
+	/**
+	 * The changes made before the element was registered, <code>HELD_SIZE</code> entries per change, see {@link #register(ElementRegistry)}.
+	 *
+	 */
+	private List<Object> held = null;
+
+
+
+	/**
+	 * The Fingerprint of the shape of this element, <code>null</code> if it must be computed, see {@link #getStoredShape()}.
+	 *
+	 */
+	private Fingerprint shape = null;
+
+
+
+	/**
+	 * The epoch the shape was computed in.
+	 *
+	 */
+	private int shapeEpoch = 0;
+
+
+
+	/**
+	 * {@link #BY_NAME} or {@link #BY_VALUE} if this element is on the path of a hashed reference, see {@link #markShapeReferenced(boolean)},
+	 * <code>0</code> if not.
+	 *
+	 */
+	private byte shapeReferenced = 0;
+
+
+
+	private static final byte BY_NAME = 1;
+
+
+
+	private static final byte BY_VALUE = 2;
+
+
+
+	/**
+	 * The epoch of the stored shapes of all elements.
+	 *
+	 */
+	private static final AtomicInteger SHAPE_EPOCH = new AtomicInteger( 1 );
 }
\ No newline at end of file
@@ -35,6 +35,11 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.Namespace;
 import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.OwnedElement;
 
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+import org.ogrehus.jcwm.impl.util.metrics.TraversalKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * A Namespace is a part of a model that contains a set of ModelElements each of whose names designates a unique element within the Namespace.
@@ -101,7 +106,9 @@ implements
 
 
 	protected <E extends OWNED> Boolean addOwnedElementGeneric( E ownedElement ) {
+		checkMutable();
 		if ( ownedElement != null && this.ownedElements.add( ownedElement ) ) {
+			fireChange( ModelChangeKind.linked, "ownedElement", null, ownedElement );
 			invokeByReflection( ownedElement, "setNamespace", this ); // bi-directional reference
 
 			return Boolean.TRUE;
@@ -113,11 +120,13 @@ implements
 
 
 	public Boolean removeOwnedElement( OwnedElement<?> ownedElement ) {
+		checkMutable();
 		if ( ownedElement == null ) {
 			return Boolean.TRUE;
 		}
 
 		if ( this.ownedElements.remove( ownedElement ) ) {
+			fireChange( ModelChangeKind.unlinked, "ownedElement", ownedElement, null );
 			ownedElement.removeNamespace(); // remove bi-directional reference
 
 			return Boolean.TRUE;
@@ -190,11 +199,16 @@ implements
 		, String surrounding 
 	) {
 		if ( qualifiedName != null ) {
-			for ( TYPE byType : getAllContentsGeneric( typeOf ) ) {
-				String qualifiedNameByType = byType.getQualifiedName( separator, surrounding );
-				if ( qualifiedName.equals( qualifiedNameByType ) ) {
-					return byType;
+			long start = ModelMetrics.beginTraversal();
+			try {
+				for ( TYPE byType : getAllContentsGeneric( typeOf ) ) {
+					String qualifiedNameByType = byType.getQualifiedName( separator, surrounding );
+					if ( qualifiedName.equals( qualifiedNameByType ) ) {
+						return byType;
+					}
 				}
+			} finally {
+				ModelMetrics.endTraversal( TraversalKind.ownedElementDeep, this, start );
 			}
 		}
 
@@ -253,20 +267,25 @@ implements
 
 
 	public <TYPE extends ModelElement> Set<TYPE> getAllContentsGeneric( Class<TYPE> typeOf ) {
-		Set<TYPE> allGeneric = new HashSet<TYPE>();
-		for ( ModelElement content : getContents() ) { // do not call generic content here for recursive lookahead
-			// 	do recursive lookahead for all typeOf instances
-			if ( content instanceof Namespace<?> ) {
-				Namespace<?> namespace = (Namespace<?>)content;
-				allGeneric.addAll( namespace.getAllContentsGeneric( typeOf ) );
-			}
-			// general add for all typeOf instances
-			if ( typeOf.isInstance( content ) ) {
-				allGeneric.add( typeOf.cast( content ) );
+		long start = ModelMetrics.beginTraversal();
+		try {
+			Set<TYPE> allGeneric = new HashSet<TYPE>();
+			for ( ModelElement content : getContents() ) { // do not call generic content here for recursive lookahead
+				// 	do recursive lookahead for all typeOf instances
+				if ( content instanceof Namespace<?> ) {
+					Namespace<?> namespace = (Namespace<?>)content;
+					allGeneric.addAll( namespace.getAllContentsGeneric( typeOf ) );
+				}
+				// general add for all typeOf instances
+				if ( typeOf.isInstance( content ) ) {
+					allGeneric.add( typeOf.cast( content ) );
+				}
 			}
-		}
 
-		return allGeneric;
+			return allGeneric;
+		} finally {
+			ModelMetrics.endTraversal( TraversalKind.allContents, this, start );
+		}
 	}
 
 
@@ -292,14 +311,12 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunNamespace" );
-		out.append( collectionToString( "ownedElements", this.ownedElements, true ) );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunNamespace" );
+		out.elements( "ownedElements", this.ownedElements, true );
 		out.append( " | \nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -32,6 +32,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GDependency;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GStructuralFeature;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A feature is an abstract property, like attribute or operation that is encapsulated within a Classifier.
@@ -104,6 +106,7 @@ implements
 		}
 		TYPE old  = this.type;
 		this.type = type;
+		fireChange( ModelChangeKind.propertyChanged, "type", old, type );
 
 		return old;
 	}
@@ -122,6 +125,7 @@ implements
 		}		
 		Changeable old  = this.changeability;
 		this.changeability = changeability;
+		fireChange( ModelChangeKind.propertyChanged, "changeability", old, changeability );
 
 		return old;
 	}
@@ -136,6 +140,7 @@ implements
 	public Multiplicity setMultiplicity( Multiplicity multiplicity ) {
 		Multiplicity old  = this.multiplicity;
 		this.multiplicity = multiplicity;
+		fireChange( ModelChangeKind.propertyChanged, "multiplicity", old, multiplicity );
 
 		return old;
 	}
@@ -151,6 +156,7 @@ implements
 	public Ordering setOrdering( Ordering ordering ) {
 		Ordering old  = this.ordering;
 		this.ordering = ordering;
+		fireChange( ModelChangeKind.propertyChanged, "ordering", old, ordering );
 
 		return old;
 	}
@@ -166,6 +172,7 @@ implements
 	public Scope setTargetScope( Scope targetScope ) {
 		Scope old  = this.targetScope;
 		this.targetScope = targetScope;
+		fireChange( ModelChangeKind.propertyChanged, "targetScope", old, targetScope );
 
 		return old;
 	}
@@ -185,29 +192,27 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunStructuralFeature" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunStructuralFeature" );
 		if ( this.changeability != null ) {
-			out.append( " | changeability=" + this.changeability );
+			out.property( "changeability", this.changeability );
 		}
 		if ( this.multiplicity != null ) {
-			out.append( " | multiplicity=" + this.multiplicity.getRanges() );
+			out.property( "multiplicity", this.multiplicity.getRanges() );
 		}
 		if ( this.ordering != null ) {
-			out.append( " | ordering=" + this.ordering );
+			out.property( "ordering", this.ordering );
 		}
 		if ( this.targetScope != null ) {
-			out.append( " | targetScope=" + this.targetScope );
+			out.property( "targetScope", this.targetScope );
 		}
 		if ( this.type != null ) {
-			out.append( " | type=" + this.type.getQualifiedName() );
-			out.append( "<" + this.type.getClass().getSimpleName() + ">" );
+			out.property( "type", this.type );
+			out.type( this.type );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
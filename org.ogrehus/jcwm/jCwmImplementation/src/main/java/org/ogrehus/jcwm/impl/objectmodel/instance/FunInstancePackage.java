@@ -29,6 +29,8 @@ import org.ogrehus.jcwm.api.objectmodel.instance.DataValue;
 import org.ogrehus.jcwm.api.objectmodel.instance.Extent;
 import org.ogrehus.jcwm.api.objectmodel.instance.InstancePackage;
 
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
 
 public class FunInstancePackage
 extends
@@ -36,6 +38,32 @@ extends
 {
 
 
+	/**
+	 * Creates a new instance of FunInstancePackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunInstancePackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunInstancePackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunInstancePackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	/**
 	 * Factory method that creates a new instance of this Extent by specific parameters.
 	 * 
@@ -49,7 +77,7 @@ extends
 	 * 
 	 */
 	public Extent createExtent( String name, Visibility visibility ) {
-		return new FunExtent( name, visibility );
+		return this.registry.adopt( new FunExtent( name, visibility ) );
 	}
 
 
@@ -70,7 +98,7 @@ extends
 	 * 
 	 */
 	public CwmObject createObject( String name, Visibility visibility, CwmClass classifier ) {
-		return new FunCwmObject( name, visibility, classifier );
+		return this.registry.adopt( new FunCwmObject( name, visibility, classifier ) );
 	}
 
 
@@ -93,6 +121,20 @@ extends
 	 * 
 	 */
 	public DataValue createDataValue( String name, Visibility visibility, DataType dataType, String value ) {
-		return new FunDataValue( name, visibility, dataType, value );
+		return this.registry.adopt( new FunDataValue( name, visibility, dataType, value ) );
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
@@ -23,6 +23,7 @@ package org.ogrehus.jcwm.impl.resource;
 
 import org.ogrehus.jcwm.api.resource.ResourcePackage;
 import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
 
 
 public class FunResourcePackage
@@ -38,6 +39,21 @@ extends
 	 * 
 	 */
 	public FunResourcePackage() {
-		this.relational = new FunRelationalPackage();
+		this( ElementRegistry.getDefault() );
+	}
+
+
+	/**
+	 * Creates a new Instance of FunResourcePackage, whose factories register the created elements in an ElementRegistry of their own, like one registry
+	 * per repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunResourcePackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.relational = new FunRelationalPackage( registry );
 	}
 }
\ No newline at end of file
@@ -30,6 +30,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.resource.relational.Catalog;
 import org.ogrehus.jcwm.api.resource.relational.Schema;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunCwmPackage;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A Catalog is the unit of login and identification. It also identifies the scope of SQL statements: the tables 
@@ -229,11 +231,13 @@ implements
 	 *
 	 */
 	public String setDefaultCharacterSetName( String defaultCharacterSetName ) {
+		checkMutable();
 		if ( defaultCharacterSetName == null ) {
 			throw new NullPointerException( "The parameter: defaultCharacterSetName must not be null." );
 		}
 		String old = this.defaultCharacterSetName;
 		this.defaultCharacterSetName = defaultCharacterSetName;
+		fireChange( ModelChangeKind.propertyChanged, "defaultCharacterSetName", old, defaultCharacterSetName );
 
 		return old;
 	}
@@ -295,11 +299,13 @@ implements
 	 * 
 	 */
 	public String setDefaultCollationName( String defaultCollationName ) {
+		checkMutable();
 		if ( defaultCollationName == null ) {
 			throw new NullPointerException( "The parameter: defaultCollationName must not be null." );
 		}
 		String old = this.defaultCollationName;
 		this.defaultCollationName = defaultCollationName;
+		fireChange( ModelChangeKind.propertyChanged, "defaultCollationName", old, defaultCollationName );
 
 		return old;
 	}
@@ -313,18 +319,17 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunCatalog" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunCatalog" );
 		if ( this.defaultCharacterSetName != null ) {
-			out.append( " | defaultCharacterSetName=" + this.defaultCharacterSetName );
+			out.property( "defaultCharacterSetName", this.defaultCharacterSetName );
 		}
 		if ( this.defaultCollationName != null ) {
-			out.append( " | defaultCollationName=" + this.defaultCollationName );
+			out.property( "defaultCollationName", this.defaultCollationName );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		return out.toString();
 	}
 
 
@@ -35,6 +35,8 @@ import org.ogrehus.jcwm.api.resource.relational.Table;
 import org.ogrehus.jcwm.api.resource.relational.TableColumn;
 import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunConstraint;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A rule that specifies the values allowed in one or more columns of every row of a table.
@@ -264,11 +266,14 @@ implements
 	 * 
 	 */
 	public Deferability setDeferability( Deferability deferability ) {
+		checkMutable();
 		if ( deferability == null ) {
 			throw new NullPointerException( "The parameter: deferability must not be null." );
 		}
 		Deferability old = this.deferability;
 		this.deferability = deferability;
+		fireChange( ModelChangeKind.propertyChanged, "deferability", old, deferability );
+
 		return old;
 	}
 
@@ -281,15 +286,14 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunCheckConstraint" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunCheckConstraint" );
 		if ( this.deferability != null ) {
-			out.append( " | deferability=" + this.deferability );
+			out.property( "deferability", this.deferability );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		return out.toString();
 	}
 
 
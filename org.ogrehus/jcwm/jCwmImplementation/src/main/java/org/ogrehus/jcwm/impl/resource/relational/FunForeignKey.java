@@ -32,6 +32,8 @@ import org.ogrehus.jcwm.api.resource.relational.UniqueConstraint;
 import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
 import org.ogrehus.jcwm.api.resource.relational.util.ReferentialRule;
 import org.ogrehus.jcwm.impl.foundation.keyindexes.util.generic.GFunKeyRelationship;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A Foreign Key associates columns from one table with columns of another table.
@@ -222,11 +224,14 @@ implements
 	 * 
 	 */
 	public ReferentialRule setDeleteRule( ReferentialRule deleteRule ) {
+		checkMutable();
 		if ( deleteRule == null ) {
 			throw new NullPointerException( "The parameter: deleteRule must not be null.");
 		}
 		ReferentialRule old = this.deleteRule;
 		this.deleteRule = deleteRule;
+		fireChange( ModelChangeKind.propertyChanged, "deleteRule", old, deleteRule );
+
 		return old;
 	}
 
@@ -273,11 +278,13 @@ implements
 	 * 
 	 */
 	public ReferentialRule setUpdateRule( ReferentialRule updateRule ) {
+		checkMutable();
 		if ( updateRule == null ) {
 			throw new NullPointerException( "The parameter: updateRule must not be null.");
 		}
 		ReferentialRule old = this.updateRule;
 		this.updateRule = updateRule;
+		fireChange( ModelChangeKind.propertyChanged, "updateRule", old, updateRule );
 
 		return old;
 	}
@@ -324,11 +331,14 @@ implements
 	 *  
 	 */
 	public Deferability setDeferability( Deferability deferability ) {
+		checkMutable();
 		if ( deferability == null ) {
 			throw new NullPointerException( "The paremter: deferability must not be null." );
 		}
 		Deferability old = this.deferability;
 		this.deferability = deferability;
+		fireChange( ModelChangeKind.propertyChanged, "deferability", old, deferability );
+
 		return old;
 	}
 	
@@ -339,21 +349,20 @@ implements
 	
 	
     @Override
-    public String toString() {
-        StringBuffer out = new StringBuffer( "[FunForeignKey" );
+    public void describe( ModelDescription out ) {
+        out.append( "[FunForeignKey" );
         if ( this.deleteRule != null ) {
-            out.append( " | deleteRule=" + this.deleteRule );
+            out.property( "deleteRule", this.deleteRule );
         }
         if ( this.updateRule != null ) {
-            out.append( " | updateRule=" + this.updateRule );
+            out.property( "updateRule", this.updateRule );
         }
         if ( this.deferability != null ) {
-            out.append( " | deferability=" + this.deferability );
+            out.property( "deferability", this.deferability );
         }
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
         out.append( "]" );
-        return out.toString();
     } 	
 	
 	
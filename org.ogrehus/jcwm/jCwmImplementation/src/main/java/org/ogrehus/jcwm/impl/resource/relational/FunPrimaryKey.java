@@ -23,6 +23,7 @@ package org.ogrehus.jcwm.impl.resource.relational;
 
 import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
 import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -79,11 +80,10 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunPrimaryKey" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunPrimaryKey" );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		return out.toString();
 	}
 }
\ No newline at end of file
@@ -34,6 +34,8 @@ import org.ogrehus.jcwm.api.resource.relational.SQLParameter;
 import org.ogrehus.jcwm.api.resource.relational.Schema;
 import org.ogrehus.jcwm.api.resource.relational.util.ProcedureType;
 import org.ogrehus.jcwm.impl.objectmodel.behavioral.FunOperation;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -239,11 +241,13 @@ Procedure
 	 * 
 	 */
 	public ProcedureType setType( ProcedureType type ) {
+		checkMutable();
 		if ( type == null ) {
 			throw new NullPointerException( "The parameter: type must not be null." );
 		}
 		ProcedureType old = this.type;
 		this.type = type;
+		fireChange( ModelChangeKind.propertyChanged, "type", old, type );
 
 		return old;
 	}
@@ -257,8 +261,11 @@ Procedure
 
 
 	public String setSqlQualifier( String sqlQualifier ) {
+		checkMutable();
 		String old = this.sqlQualifier;
 		this.sqlQualifier = sqlQualifier;
+		fireChange( ModelChangeKind.propertyChanged, "sqlQualifier", old, sqlQualifier );
+
 		return old;
 	}
 
@@ -271,20 +278,18 @@ Procedure
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunProcedure" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunProcedure" );
 		if ( this.type != null ) {
-			out.append( " | type=" + this.type );
+			out.property( "type", this.type );
 		}
 		if ( this.sqlQualifier != null ) {
-			out.append( " | sqlQualifier=" + this.sqlQualifier );
+			out.property( "sqlQualifier", this.sqlQualifier );
 		}
 
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
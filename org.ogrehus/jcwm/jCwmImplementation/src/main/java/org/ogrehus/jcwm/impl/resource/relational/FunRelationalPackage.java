@@ -83,6 +83,7 @@ import org.ogrehus.jcwm.impl.resource.relational.util.types.FunJdbcTimestamp;
 import org.ogrehus.jcwm.impl.resource.relational.util.types.FunJdbcTinyInt;
 import org.ogrehus.jcwm.impl.resource.relational.util.types.FunJdbcVarBinary;
 import org.ogrehus.jcwm.impl.resource.relational.util.types.FunJdbcVarChar;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
 
 
 public class FunRelationalPackage
@@ -91,6 +92,32 @@ extends
 {
 
 
+	/**
+	 * Creates a new instance of FunRelationalPackage, that registers the created elements in the default ElementRegistry.
+	 *
+	 */
+	public FunRelationalPackage() {
+		this( ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of FunRelationalPackage, that registers the created elements in an ElementRegistry of their own, like one registry per
+	 * repository.
+	 *
+	 * @param registry The registry of the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FunRelationalPackage( ElementRegistry registry ) {
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.registry = registry;
+	}
+
+
+
 	/**
 	 * Factory method that creates a new instance of Catalog by specific parameters.
 	 * <p>
@@ -117,7 +144,7 @@ extends
 	 * 
 	 */
 	public Catalog createCatalog( String name , String defaultCharacterSetName, String defaultCollationName	) {
-		return new FunCatalog( name, Visibility._public, defaultCharacterSetName, defaultCollationName );
+		return this.registry.adopt( new FunCatalog( name, Visibility._public, defaultCharacterSetName, defaultCollationName ) );
 	}
 
 
@@ -146,7 +173,7 @@ extends
 	 * 
 	 */
 	public CheckConstraint createCheckConstraint( String name, BooleanExpression body, Deferability deferability ) {
-		return new FunCheckConstraint( name, body, deferability );
+		return this.registry.adopt( new FunCheckConstraint( name, body, deferability ) );
 	}
 
 
@@ -173,7 +200,7 @@ extends
 	 * 
 	 */
 	public CheckConstraint createCheckConstraint( String name, BooleanExpression body ) {
-		return new FunCheckConstraint( name, body, Deferability.getDefault() );
+		return this.registry.adopt( new FunCheckConstraint( name, body, Deferability.getDefault() ) );
 	}
 
 
@@ -262,7 +289,7 @@ extends
 		, ReferentialRule updateRule
 		, Deferability deferability
 	) {
-		return new FunForeignKey( name, uniqueConstraint, deleteRule, updateRule, deferability );
+		return this.registry.adopt( new FunForeignKey( name, uniqueConstraint, deleteRule, updateRule, deferability ) );
 	}
 
 
@@ -318,7 +345,7 @@ extends
 	 * 
 	 */
 	public PrimaryKey createPrimaryKey( String name, Deferability deferability	) {
-		return new FunPrimaryKey( name, deferability );
+		return this.registry.adopt( new FunPrimaryKey( name, deferability ) );
 	}
 
 
@@ -349,7 +376,7 @@ extends
 	 * 
 	 */
 	public Procedure createProcedure( String name, ProcedureExpression body, ProcedureType type	) {
-		return new FunProcedure( name, body, type );
+		return this.registry.adopt( new FunProcedure( name, body, type ) );
 	}
 
 
@@ -382,7 +409,7 @@ extends
 		, ProcedureExpression body
 		, ProcedureType type
 	) {
-		return new FunProcedure( name, specification, body, type );
+		return this.registry.adopt( new FunProcedure( name, specification, body, type ) );
 	}
 
 
@@ -424,7 +451,7 @@ extends
 	 * 
 	 */
 	public Schema createSchema( String name	) {
-		return new FunSchema( name, Visibility._public );
+		return this.registry.adopt( new FunSchema( name, Visibility._public ) );
 	}
 
 
@@ -476,7 +503,7 @@ extends
 		, Boolean isNullable
 		, Boolean autoUpdate
 	) {
-		return new FunSQLIndex( name
+		return this.registry.adopt( new FunSQLIndex( name
 							  , isUnique
 							  , isSorted
 							  , isPartitioning
@@ -484,7 +511,7 @@ extends
 							  , filterCondition
 							  , isNullable
 							  , autoUpdate 
-						  );
+						  ) );
 	}
 
 
@@ -512,6 +539,52 @@ extends
 		, Short   numericScale				// => scale -  null is returned for data types where SCALE is not applicable.
 		, Short   radix 					// => radix
 		, Integer charOctedLength			// => the maximum length of binary and character based columns. For any other datatype the returned value is a NULL	
+	) {
+		return this.registry.adopt(
+			newSQLSimpleType( jdbcType, typeName, numericPrecision, characterMaximumLength, numericScale, radix, charOctedLength )
+		);
+	}
+
+
+
+	/**
+	 * Returns the shared SQLSimpleType of a pool by specific parameters. Columns with the same type descriptor get the same, read only instance.
+	 * 
+	 * @param pool The pool of the shared types, like the pool of the Schema or TypeSystem of the columns. Must not be <code>null</code>.
+	 * 
+	 * @return The shared type of the pool by specific parameters, see
+	 * {@link #createSQLSimpleType(Integer, String, Integer, Integer, Short, Short, Integer)}.
+	 * 
+	 * @throws NullPointerException Is thrown if one of the parameter: <code>pool</code> or <code>jdbcType</code> is <code>null</code>.
+	 * 
+	 */
+	public SQLSimpleType createSQLSimpleType(
+		  FunSQLSimpleTypePool pool
+		, Integer jdbcType
+		, String  typeName
+		, Integer numericPrecision
+		, Integer characterMaximumLength
+		, Short   numericScale
+		, Short   radix
+		, Integer charOctedLength
+	) {
+		if ( pool == null ) {
+			throw new NullPointerException( "The parameter: pool must not be null." );
+		}
+
+		return pool.get( jdbcType, typeName, numericPrecision, characterMaximumLength, numericScale, radix, charOctedLength );
+	}
+
+
+
+	static SQLSimpleType newSQLSimpleType(
+		  Integer jdbcType
+		, String  typeName
+		, Integer numericPrecision
+		, Integer characterMaximumLength
+		, Short   numericScale
+		, Short   radix
+		, Integer charOctedLength
 	) {
 		if ( jdbcType == null ) {
 			throw new NullPointerException( "The parameter: jdbcType must not be null." );
@@ -543,7 +616,7 @@ extends
 		case Types.NCHAR:			return new FunJdbcNChar( typeName, characterMaximumLength );
 		case Types.NCLOB:			return new FunJdbcNCLOB( typeName, characterMaximumLength );
 		case Types.NULL: 			return new FunJdbcNULL( typeName );
-		case Types.NUMERIC:			return new FunJdbcNumeric( typeName, numericPrecision, numericScale, radix );
+		case Types.NUMERIC:			return new FunJdbcNumeric( typeName, numericPrecision, radix, numericScale );
 		case Types.NVARCHAR:		return new FunJdbcNVarChar( typeName, characterMaximumLength );
 		case Types.OTHER:			return new FunJdbcOther( typeName );
 		case Types.REAL:			return new FunJdbcReal( typeName, numericPrecision, radix );
@@ -570,7 +643,7 @@ extends
 		, Boolean notInstantiable
 		, SQLSimpleType sqlSimpleType
 	) {
-		return new FunSQLDistinctType( name, visibility, notInstantiable, sqlSimpleType );
+		return this.registry.adopt( new FunSQLDistinctType( name, visibility, notInstantiable, sqlSimpleType ) );
 	}
 
 
@@ -595,7 +668,7 @@ extends
 	 *
 	 */
 	public SQLDistinctType createSQLDistinctType( String name, SQLSimpleType sqlSimpleType	) {
-		return new FunSQLDistinctType( name, sqlSimpleType );
+		return this.registry.adopt( new FunSQLDistinctType( name, sqlSimpleType ) );
 	}
 
 
@@ -617,7 +690,7 @@ extends
 	 *
 	 */
 	public SQLSimpleType createSQLSimpleType( String name, Visibility visibility, Boolean notInstantiable ) {
-		return new FunSQLSimpleType( name, visibility, notInstantiable );	
+		return this.registry.adopt( new FunSQLSimpleType( name, visibility, notInstantiable ) );
 	}
 
 
@@ -645,7 +718,7 @@ extends
 	 *
 	 */
 	public SQLStructuredType createSQLStructuredType( String name, Visibility visibility, Boolean notInstantiable ) {
-		return new FunSQLStructuredType( name, visibility, notInstantiable );
+		return this.registry.adopt( new FunSQLStructuredType( name, visibility, notInstantiable ) );
 	}
 
 
@@ -667,7 +740,7 @@ extends
 	 *
 	 */	
 	public SQLStructuredType createSQLStructuredType( String name	) {
-		return new FunSQLStructuredType( name );
+		return this.registry.adopt( new FunSQLStructuredType( name ) );
 	}
 
 
@@ -695,7 +768,7 @@ extends
 	 * 
 	 */	
 	public Table createTable( String name, Boolean isSystem, Boolean isTemporary ) {
-		return new FunTable( name, isSystem, isTemporary );
+		return this.registry.adopt( new FunTable( name, isSystem, isTemporary ) );
 	}
 
 
@@ -799,7 +872,7 @@ extends
 		, String conditionReferenceOldTable
 		, Table table
 	) {
-		return new FunTrigger( 
+		return this.registry.adopt( new FunTrigger( 
 			name
 		  , eventManipulation
 		  , actionCondition
@@ -808,7 +881,7 @@ extends
 		  , conditionTiming
 		  , conditionReferenceNewTable
 		  , conditionReferenceOldTable
-		  , table );
+		  , table ) );
 	}
 
 
@@ -835,7 +908,7 @@ extends
 	 * 
 	 */
 	public UniqueConstraint createUniqueConstraint( String name, Deferability deferability	) {
-		return new FunUniqueConstraint( name, deferability );
+		return this.registry.adopt( new FunUniqueConstraint( name, deferability ) );
 	}
 
 
@@ -861,12 +934,26 @@ extends
 	 * 
 	 */
 	public View createView( String name, QueryExpression queryExpression ) {
-		return new FunView( name, Boolean.TRUE, queryExpression );
+		return this.registry.adopt( new FunView( name, Boolean.TRUE, queryExpression ) );
 	}
 
 
 
 	public View createView( String name ) {
-		return new FunView( name, Boolean.TRUE, new FunQueryExpression( "" ) );
+		return this.registry.adopt( new FunView( name, Boolean.TRUE, new FunQueryExpression( "" ) ) );
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The registry the created elements register in.
+	 *
+	 */
+	private final ElementRegistry registry;
+}
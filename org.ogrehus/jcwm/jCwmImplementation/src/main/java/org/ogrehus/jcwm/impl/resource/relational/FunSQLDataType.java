@@ -30,6 +30,7 @@ import org.ogrehus.jcwm.api.resource.relational.SQLDataType;
 import org.ogrehus.jcwm.api.resource.relational.Schema;
 import org.ogrehus.jcwm.api.resource.relational.util.generic.GColumn;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunClassifier;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
 
 
 /**
@@ -119,8 +120,11 @@ implements
 	 * 
 	 */
 	public Integer setTypeNumber( Integer typeNumber ) {
+		checkMutable();
 		Integer old = this.typeNumber;
 		this.typeNumber = typeNumber;
+		fireChange( ModelChangeKind.propertyChanged, "typeNumber", old, typeNumber );
+
 		return old;
 	}
 
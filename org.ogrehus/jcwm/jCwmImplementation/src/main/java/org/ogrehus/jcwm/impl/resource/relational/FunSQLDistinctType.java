@@ -41,6 +41,8 @@ import org.ogrehus.jcwm.api.resource.relational.util.types.SqlTypeDateTime;
 import org.ogrehus.jcwm.api.resource.relational.util.types.SqlTypeNumeric;
 import org.ogrehus.jcwm.api.resource.relational.util.types.SqlTypeScaled;
 import org.ogrehus.jcwm.impl.foundation.datatypes.util.generic.GFunTypeAlias;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A data-type defined as a Distinct Type, per [SQL] standard.
@@ -96,8 +98,8 @@ implements
 	public FunSQLDistinctType( String name, Visibility visibility, Boolean notInstantiable, SQLSimpleType sqlSimpleType	) {
 		super( name, visibility, notInstantiable, sqlSimpleType );
 		setSqlSimpleType( sqlSimpleType );
-		this.length    = sqlSimpleType.getCharacterMaximumLength();
-		this.precision = sqlSimpleType.getNumericPrecision();
+		this.length    = toInt( sqlSimpleType.getCharacterMaximumLength() );
+		this.precision = toInt( sqlSimpleType.getNumericPrecision() );
 		this.typeNumber = Types.DISTINCT;
 	}
 
@@ -223,14 +225,14 @@ implements
 	 * 
 	 */
 	public Integer getLength() {
-		if ( this.length == null && this.type instanceof SqlTypeCharacters ) {
+		if ( this.length == UNSET && this.type instanceof SqlTypeCharacters ) {
 			SqlTypeCharacters characterType = (SqlTypeCharacters)this.type;
 			if ( characterType.getCharacterOctetLength() != null ) {
 				return characterType.getCharacterOctetLength();
 			}
 			return characterType.getCharacterMaximumLength();
 		}
-		return this.length;
+		return toInteger( this.length );
 	}
 
 
@@ -250,7 +252,7 @@ implements
 	 * 
 	 */
 	public Integer getPrecision() {
-		if ( this.precision == null ) {
+		if ( this.precision == UNSET ) {
 			if ( this.type instanceof SqlTypeNumeric ) {
 				return ((SqlTypeNumeric)this.type).getNumericPrecision();
 			}
@@ -259,7 +261,7 @@ implements
 				return dateType.getDateTimePrecision();
 			}
 		}
-		return this.precision;
+		return toInteger( this.precision );
 	}
 
 
@@ -279,10 +281,10 @@ implements
 	 * 
 	 */
 	public Integer getScale() {
-		if ( this.scale == null && this.type instanceof SqlTypeScaled ) {
+		if ( this.scale == UNSET && this.type instanceof SqlTypeScaled ) {
 			return Integer.valueOf( ((SqlTypeScaled)this.type).getNumericScale() );
 		}
-		return this.scale;
+		return toInteger( this.scale );
 	}
 
 
@@ -304,8 +306,11 @@ implements
 	 * 
 	 */
 	public Integer setLength( Integer length ) {
-		Integer old = this.length;
-		this.length = length;
+		checkMutable();
+		Integer old = toInteger( this.length );
+		this.length = toInt( length );
+		fireChange( ModelChangeKind.propertyChanged, "length", old, length );
+
 		return old;
 	}
 
@@ -328,8 +333,11 @@ implements
 	 * 
 	 */
 	public Integer setPrecision( Integer precision ) {
-		Integer old = this.precision;
-		this.precision = precision;
+		checkMutable();
+		Integer old = toInteger( this.precision );
+		this.precision = toInt( precision );
+		fireChange( ModelChangeKind.propertyChanged, "precision", old, precision );
+
 		return old;	
 	}
 
@@ -352,8 +360,11 @@ implements
 	 * 
 	 */
 	public Integer setScale( Integer scale ) {
-		Integer old = this.scale;
-		this.scale = scale;
+		checkMutable();
+		Integer old = toInteger( this.scale );
+		this.scale = toInt( scale );
+		fireChange( ModelChangeKind.propertyChanged, "scale", old, scale );
+
 		return old;	
 	}
 
@@ -455,7 +466,7 @@ implements
 	 * 
 	 */
 	public Integer getTypeNumber() {
-		return this.typeNumber;
+		return toInteger( this.typeNumber );
 	}
 
 
@@ -477,8 +488,11 @@ implements
 	 * 
 	 */
 	public Integer setTypeNumber( Integer typeNumber ) {
-		Integer old = this.typeNumber;
-		this.typeNumber = typeNumber;
+		checkMutable();
+		Integer old = toInteger( this.typeNumber );
+		this.typeNumber = toInt( typeNumber );
+		fireChange( ModelChangeKind.propertyChanged, "typeNumber", old, typeNumber );
+
 		return old;
 	}
 
@@ -491,29 +505,27 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunSQLDistinctType" );
-		if ( this.typeNumber != null ) {
-			out.append( " | typeNumber=" + this.typeNumber );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunSQLDistinctType" );
+		if ( this.typeNumber != UNSET ) {
+			out.property( "typeNumber", toInteger( this.typeNumber ) );
 		}
 		if ( getLength() != null ) {
-			out.append( " | length=" + getLength() );
+			out.property( "length", getLength() );
 		}
 		if ( getPrecision() != null ) {
-			out.append( " | precision=" + getPrecision() );
+			out.property( "precision", getPrecision() );
 		}
 		if ( getScale() != null ) {
-			out.append( " | scale=" + getScale() );
+			out.property( "scale", getScale() );
 		}
 		if ( this.sqlSimpleType != null ) {
-			out.append( " | sqlSimpleType=" + this.sqlSimpleType.getSimpleName() 
-					  + "<" + this.sqlSimpleType.getClass().getSimpleName() + ">" );
+			out.property( "sqlSimpleType", this.sqlSimpleType.getSimpleName() );
+			out.type( this.sqlSimpleType );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -540,7 +552,7 @@ implements
 	 * @return Old value of the property <code>typeNumber</code>.
 	 * 
 	 */
-	protected Integer typeNumber = null;
+	protected int typeNumber = UNSET;
 
 
 
@@ -560,7 +572,7 @@ implements
 	 * @return Old value of the property <code>typeNumber</code>.
 	 * 
 	 */
-	protected Integer length = null;
+	protected int length = UNSET;
 
 
 
@@ -580,7 +592,7 @@ implements
 	 * @return Old value of the property <code>typeNumber</code>.
 	 * 
 	 */
-	protected Integer precision = null;
+	protected int precision = UNSET;
 
 
 
@@ -600,7 +612,7 @@ implements
 	 * @return Old value of the property <code>typeNumber</code>.
 	 * 
 	 */
-	protected Integer scale = null;
+	protected int scale = UNSET;
 
 
 
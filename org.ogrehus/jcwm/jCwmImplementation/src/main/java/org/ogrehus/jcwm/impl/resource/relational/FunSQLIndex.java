@@ -28,6 +28,8 @@ import org.ogrehus.jcwm.api.resource.relational.Schema;
 import org.ogrehus.jcwm.api.resource.relational.Table;
 import org.ogrehus.jcwm.api.resource.relational.TableColumn;
 import org.ogrehus.jcwm.impl.foundation.keyindexes.util.generic.GFunIndex;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * An Index on a table.
@@ -230,8 +232,11 @@ implements
 	 * 
 	 */
 	public String setFilterCondition( String filterCondition ) {
+		checkMutable();
 		String old = this.filterCondition;
 		this.filterCondition = filterCondition;
+		fireChange( ModelChangeKind.propertyChanged, "filterCondition", old, filterCondition );
+
 		return old;
 	}
 
@@ -253,7 +258,7 @@ implements
 	 * 
 	 */
 	public Boolean isNullable() {
-		return this.isNullable;
+		return getFlag( NULLABLE_FLAG );
 	}
 
 
@@ -278,8 +283,11 @@ implements
 	 * 
 	 */
 	public Boolean setNullable( Boolean isNullable ) {
-		Boolean old = this.isNullable;
-		this.isNullable = isNullable;
+		checkMutable();
+		Boolean old = getFlag( NULLABLE_FLAG );
+		setFlag( NULLABLE_FLAG, isNullable );
+		fireChange( ModelChangeKind.propertyChanged, "isNullable", old, isNullable );
+
 		return old;
 	}
 
@@ -300,7 +308,7 @@ implements
 	 * 
 	 */
 	public Boolean isAutoUpdate() {
-		return this.autoUpdate;
+		return getFlag( AUTO_UPDATE_FLAG );
 	}
 
 
@@ -324,8 +332,11 @@ implements
 	 * 
 	 */
 	public Boolean setAutoUpdate( Boolean autoUpdate ) {
-		Boolean old = this.autoUpdate;
-		this.autoUpdate = autoUpdate;
+		checkMutable();
+		Boolean old = getFlag( AUTO_UPDATE_FLAG );
+		setFlag( AUTO_UPDATE_FLAG, autoUpdate );
+		fireChange( ModelChangeKind.propertyChanged, "autoUpdate", old, autoUpdate );
+
 		return old; 
 	}
 
@@ -338,22 +349,20 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunSQLIndex" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunSQLIndex" );
 		if ( this.filterCondition != null ) {
-			out.append( " | filterCondition=" + this.filterCondition );  
+			out.property( "filterCondition", this.filterCondition );  
 		}
-		if ( this.isNullable != null ) {
-			out.append( " | isNullable=" + this.isNullable );  
+		if ( getFlag( NULLABLE_FLAG ) != null ) {
+			out.property( "isNullable", getFlag( NULLABLE_FLAG ) );  
 		}
-		if ( this.autoUpdate != null ) {
-			out.append( " | autoUpdate=" + this.autoUpdate );  
+		if ( getFlag( AUTO_UPDATE_FLAG ) != null ) {
+			out.property( "autoUpdate", getFlag( AUTO_UPDATE_FLAG ) );  
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -405,7 +414,7 @@ implements
 	 * @throws NullPointerException is thrown if the parameter <code>isNullable</code> was <code>null</code>.
 	 * 
 	 */
-	protected Boolean isNullable = null;
+	protected static final int NULLABLE_FLAG = 12;
 
 
 
@@ -427,5 +436,5 @@ implements
 	 * @throws NullPointerException is thrown if the parameter <code>autoUpdate</code> was <code>null</code>.
 	 * 
 	 */
-	protected Boolean autoUpdate = null;
+	protected static final int AUTO_UPDATE_FLAG = 14;
 }
\ No newline at end of file
@@ -23,6 +23,8 @@ package org.ogrehus.jcwm.impl.resource.relational;
 
 import org.ogrehus.jcwm.api.objectmodel.behavioral.util.generic.GEvent;
 import org.ogrehus.jcwm.impl.objectmodel.behavioral.util.generic.GFunParameter;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
@@ -121,8 +123,10 @@ implements
 
 
 	public Nullable setNullable( Nullable nullable ) {
+		checkMutable();
 		Nullable old = this.nullable;
 		this.nullable = nullable;
+		fireChange( ModelChangeKind.propertyChanged, "nullable", old, nullable );
 
 		return old;
 	}
@@ -155,19 +159,17 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunSQLParameter" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunSQLParameter" );
 		if ( this.nullable != null ) {
-			out.append( " | nullable=" + this.nullable );
+			out.property( "nullable", this.nullable );
 		}
 		if ( this.returnValue != null ) {
-			out.append( " | returnValue=" + this.returnValue );
+			out.property( "returnValue", this.returnValue );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -25,6 +25,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.ogrehus.jcwm.api.foundation.typemapping.TypeSystem;
+import org.ogrehus.jcwm.api.objectmodel.core.util.ConstraintViolation;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
 import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
 import org.ogrehus.jcwm.api.resource.relational.SQLDataType;
 import org.ogrehus.jcwm.api.resource.relational.SQLDistinctType;
@@ -32,6 +34,8 @@ import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
 import org.ogrehus.jcwm.api.resource.relational.util.generic.GColumn;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunDataType;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A simple data-type used with an SQL column. 
@@ -139,8 +143,11 @@ implements
 	 * 
 	 */
 	public Integer setCharacterMaximumLength( Integer characterMaximumLength ) {
+		checkMutable();
+		checkShared();
 		Integer old = this.characterMaximumLength;
 		this.characterMaximumLength = characterMaximumLength;
+		fireChange( ModelChangeKind.propertyChanged, "characterMaximumLength", old, characterMaximumLength );
 
 		return old;
 	}
@@ -184,8 +191,12 @@ implements
 	 * 
 	 */
 	public Integer setCharacterOctetLength( Integer characterOctetLength ) {
+		checkMutable();
+		checkShared();
 		Integer old = this.characterOctetLength;
 		this.characterOctetLength = characterOctetLength;
+		fireChange( ModelChangeKind.propertyChanged, "characterOctetLength", old, characterOctetLength );
+
 		return old;
 	}
 
@@ -229,8 +240,11 @@ implements
 	 * 
 	 */
 	public Integer setNumericPrecision( Integer numericPrecision ) {
+		checkMutable();
+		checkShared();
 		Integer old = this.numericPrecision;
 		this.numericPrecision = numericPrecision;
+		fireChange( ModelChangeKind.propertyChanged, "numericPrecision", old, numericPrecision );
 
 		return old;
 	}
@@ -274,8 +288,12 @@ implements
 	 * 
 	 */
 	public Short setNumericPrecisionRadix( Short numericPrecisionRadix ) {
+		checkMutable();
+		checkShared();
 		Short old = this.numericPrecisionRadix;
 		this.numericPrecisionRadix = numericPrecisionRadix;
+		fireChange( ModelChangeKind.propertyChanged, "numericPrecisionRadix", old, numericPrecisionRadix );
+
 		return old;
 	}
 
@@ -319,8 +337,11 @@ implements
 	 * 
 	 */
 	public Short setNumericScale( Short numericScale ) {
+		checkMutable();
+		checkShared();
 		Short old = this.numericScale;
 		this.numericScale = numericScale;
+		fireChange( ModelChangeKind.propertyChanged, "numericScale", old, numericScale );
 
 		return old;
 	}
@@ -365,8 +386,12 @@ implements
 	 * 
 	 */
 	public Integer setDateTimePrecision( Integer dateTimePrecision ) {
+		checkMutable();
+		checkShared();
 		Integer old = this.dateTimePrecision;
 		this.dateTimePrecision = dateTimePrecision;
+		fireChange( ModelChangeKind.propertyChanged, "dateTimePrecision", old, dateTimePrecision );
+
 		return old;
 	}
 
@@ -412,6 +437,38 @@ implements
 
 
 
+	/**
+	 * @return <code>true</code> if this type is shared by a FunSQLSimpleTypePool and its descriptor is read only.
+	 *
+	 */
+	public Boolean isShared() {
+		return this.shared;
+	}
+
+
+
+	/**
+	 * Marks this type as shared by a FunSQLSimpleTypePool. From then on its descriptor is read only.
+	 *
+	 */
+	void share() {
+		this.shared = true;
+	}
+
+
+
+	/**
+	 * @throws ConstraintViolation Is thrown if this type is shared, cause a change would affect all columns of the type.
+	 *
+	 */
+	private void checkShared() {
+		if ( this.shared ) {
+			throw new ConstraintViolation( CwmConstraint.readOnly );
+		}
+	}
+
+
+
 //====================================================================================================================================================
 // SQLDataType capabilities
 //====================================================================================================================================================
@@ -455,6 +512,7 @@ implements
  	 * 
  	 */
  	public Integer setTypeNumber( Integer typeNumber ) {
+		checkShared();
  		Integer old = this.typeNumber;
  		this.typeNumber = typeNumber;
  		return old;
@@ -462,6 +520,43 @@ implements
 
 
 
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public void describe( ModelDescription out ) {
+		out.append( "[FunSQLSimpleType" );
+		if ( this.typeNumber != null ) {
+			out.property( "typeNumber", this.typeNumber );
+		}
+		if ( this.numericPrecision != null ) {
+			out.property( "numericPrecision", this.numericPrecision );
+		}
+		if ( this.characterMaximumLength != null ) {
+			out.property( "characterMaximumLength", this.characterMaximumLength );
+		}
+		if ( this.numericScale != null ) {
+			out.property( "numericScale", this.numericScale );
+		}
+		if ( this.numericPrecisionRadix != null ) {
+			out.property( "numericPrecisionRadix", this.numericPrecisionRadix );
+		}
+		if ( this.characterOctetLength != null ) {
+			out.property( "characterOctetLength", this.characterOctetLength );
+		}
+		if ( this.dateTimePrecision != null ) {
+			out.property( "dateTimePrecision", this.dateTimePrecision );
+		}
+		out.append( " |\nextends: " );
+		super.describe( out );
+		out.append( "]" );
+	}
+
+
+
 //====================================================================================================================================================
 // Properties
 //====================================================================================================================================================
@@ -586,6 +681,14 @@ implements
 
 
 
+	/**
+	 * <code>true</code> if this type is shared by a FunSQLSimpleTypePool.
+	 *
+	 */
+	private volatile boolean shared = false;
+
+
+
 	/**
 	 * The number assigned to the data-type by the owning RDBMS.
 	 * 
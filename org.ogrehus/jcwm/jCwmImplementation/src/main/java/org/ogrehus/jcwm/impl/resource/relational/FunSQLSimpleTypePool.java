@@ -0,0 +1,271 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.metrics.CacheKind;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * A FunSQLSimpleTypePool shares one SQLSimpleType among all columns with the same type descriptor.
+ * <p>
+ * A harvested catalog has millions of columns, but only a few thousand distinct combinations of JDBC type, type name, length, precision,
+ * scale and radix. The pool creates the type of each combination once and returns the same instance afterwards, so two columns have the same
+ * type exactly if their types are the same instance.
+ * </p>
+ * <p>
+ * The descriptor of a pooled type is read only, a setter throws a ConstraintViolation of <code>readOnly</code>, cause a change would affect
+ * every column of the pool. The pool is thread safe. Its scope is explicit: a pool of a Schema or TypeSystem lives as long as its owner, see
+ * {@link FunSchema#getSQLSimpleTypePool()}, and a pool created by a harvester can be dropped after the harvest.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class FunSQLSimpleTypePool {
+
+
+	/**
+	 * Creates a new, empty instance of FunSQLSimpleTypePool without an owner. A type of the pool is registered in the ElementRegistry of the
+	 * first element, that links it.
+	 *
+	 */
+	public FunSQLSimpleTypePool() {
+		this.owner = null;
+	}
+
+
+
+	/**
+	 * Creates a new, empty instance of FunSQLSimpleTypePool of an owner, like a Schema or TypeSystem. A type of the pool is created in the
+	 * ElementRegistry of the owner, or of the first element that links it, if the owner is not registered yet.
+	 *
+	 * @param owner The element the pool lives as long as. Must not be <code>null</code>.
+	 *
+	 * @throws NullPointerException Is thrown if the parameter <code>owner</code> is <code>null</code>.
+	 *
+	 */
+	public FunSQLSimpleTypePool( GFunModelElement<?, ?, ?, ?> owner ) {
+		if ( owner == null ) {
+			throw new NullPointerException( "Parameter: owner must not be null." );
+		}
+		this.owner = owner;
+	}
+
+
+
+	/**
+	 * Returns the shared type of a descriptor. The parameters are the same as of
+	 * {@link FunRelationalPackage#createSQLSimpleType(Integer, String, Integer, Integer, Short, Short, Integer)}.
+	 *
+	 * @return The shared, read only type of the descriptor. Can't be <code>null</code>.
+	 *
+	 * @throws NullPointerException Is thrown if the parameter <code>jdbcType</code> is <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException Is thrown if the parameter <code>jdbcType</code> is unknown or not a simple type.
+	 *
+	 */
+	public SQLSimpleType get(
+		  Integer jdbcType
+		, String  typeName
+		, Integer numericPrecision
+		, Integer characterMaximumLength
+		, Short   numericScale
+		, Short   radix
+		, Integer charOctedLength
+	) {
+		Descriptor descriptor = new Descriptor( jdbcType, typeName, numericPrecision, characterMaximumLength, numericScale, radix, charOctedLength );
+		SQLSimpleType type = this.types.get( descriptor );
+		if ( type == null ) {
+			ModelMetrics.miss( CacheKind.sqlSimpleTypePool );
+			SQLSimpleType created = FunRelationalPackage.newSQLSimpleType(
+				jdbcType, typeName, numericPrecision, characterMaximumLength, numericScale, radix, charOctedLength
+			); // may throw NullPointerException or IllegalArgumentException
+			( (FunSQLSimpleType) created ).share();
+			type = this.types.putIfAbsent( descriptor, created );
+			if ( type == null ) {
+				type = created; // no other thread was faster
+				ElementRegistry registry = this.owner == null ? null : this.owner.getRegistry();
+				if ( registry != null ) {
+					registry.adopt( created );
+				}
+			}
+		} else {
+			ModelMetrics.hit( CacheKind.sqlSimpleTypePool );
+		}
+
+		return type;
+	}
+
+
+
+	/**
+	 * @return The number of distinct types in the pool.
+	 *
+	 */
+	public int size() {
+		return this.types.size();
+	}
+
+
+
+	/**
+	 * Forgets all types. Types returned before stay shared and read only.
+	 *
+	 */
+	public void clear() {
+		this.types.clear();
+	}
+
+
+
+	/**
+	 * The key of a pooled type.
+	 *
+	 */
+	private static final class Descriptor {
+
+
+		Descriptor( Integer jdbcType, String typeName, Integer precision, Integer length, Short scale, Short radix, Integer octetLength ) {
+			this.jdbcType    = jdbcType;
+			this.typeName    = typeName;
+			this.precision   = precision;
+			this.length      = length;
+			this.scale       = scale;
+			this.radix       = radix;
+			this.octetLength = octetLength;
+			this.hash = hash( hash( hash( hash( hash( hash( hash( 0, jdbcType ), typeName ), precision ), length ), scale ), radix ), octetLength );
+		}
+
+
+
+		@Override
+		public boolean equals( Object anObject ) {
+			if ( this == anObject ) {
+				return true;
+			}
+			if ( !( anObject instanceof Descriptor ) ) {
+				return false;
+			}
+			Descriptor other = (Descriptor) anObject;
+
+			return this.hash == other.hash
+				&& isEqual( this.jdbcType,    other.jdbcType )
+				&& isEqual( this.typeName,    other.typeName )
+				&& isEqual( this.precision,   other.precision )
+				&& isEqual( this.length,      other.length )
+				&& isEqual( this.scale,       other.scale )
+				&& isEqual( this.radix,       other.radix )
+				&& isEqual( this.octetLength, other.octetLength );
+		}
+
+
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+
+
+		private static int hash( int hash, Object value ) {
+			return 31 * hash + ( value == null ? 0 : value.hashCode() );
+		}
+
+
+
+		private static boolean isEqual( Object a, Object b ) {
+			return a == null ? b == null : a.equals( b );
+		}
+
+
+
+		private final Integer jdbcType;
+
+
+
+		private final String typeName;
+
+
+
+		private final Integer precision;
+
+
+
+		private final Integer length;
+
+
+
+		private final Short scale;
+
+
+
+		private final Short radix;
+
+
+
+		private final Integer octetLength;
+
+
+
+		private final int hash;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[FunSQLSimpleTypePool" );
+		out.append( " | size=" + this.types.size() );
+		out.append( " | owner=" + ( this.owner == null ? null : this.owner.getSimpleName() ) );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final GFunModelElement<?, ?, ?, ?> owner;
+
+
+
+	private final ConcurrentMap<Descriptor, SQLSimpleType> types = new ConcurrentHashMap<Descriptor, SQLSimpleType>();
+}
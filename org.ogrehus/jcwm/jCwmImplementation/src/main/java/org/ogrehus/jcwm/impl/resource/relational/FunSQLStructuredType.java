@@ -41,6 +41,8 @@ import org.ogrehus.jcwm.api.resource.relational.Table;
 import org.ogrehus.jcwm.api.resource.relational.View;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunCwmClass;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -204,8 +206,11 @@ implements
 	 * 
 	 */
 	public Integer setTypeNumber( Integer typeNumber ) {
+		checkMutable();
 		Integer old = this.typeNumber;
 		this.typeNumber = typeNumber;
+		fireChange( ModelChangeKind.propertyChanged, "typeNumber", old, typeNumber );
+
 		return old;
 	}
 
@@ -356,45 +361,17 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunSQLStructuredType" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunSQLStructuredType" );
 		if ( this.typeNumber != null ) {
-			out.append( " | typeNumber=" + this.typeNumber );
-		}
-		if ( !this.columnSets.isEmpty() ) {
-			out.append( " | columnSets(" + this.columnSets.size() + ")={" );
-			boolean comma = false;
-			for ( ColumnSet<?> columnSet : this.columnSets ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( columnSet.getSimpleName() );
-				out.append( "<" + columnSet.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
+			out.property( "typeNumber", this.typeNumber );
 		}
+		out.simpleNames( "columnSets", this.columnSets, true );
 
-		if ( !this.referencingColumns.isEmpty() ) {
-			out.append( " | referencingColumns(" + this.referencingColumns.size() + ")={" );
-			boolean comma = false;
-			for ( Column column : this.referencingColumns ) {
-				if ( comma ) {
-					out.append( " , " );
-				} else {
-					comma = true;
-				}
-				out.append( column.getSimpleName() );
-				out.append( "<" + column.getClass().getSimpleName() + ">" );
-			}
-			out.append( "}" );
-		}
+		out.simpleNames( "referencingColumns", this.referencingColumns, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
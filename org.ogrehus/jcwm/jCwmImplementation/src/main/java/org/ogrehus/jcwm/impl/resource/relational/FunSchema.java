@@ -43,6 +43,7 @@ import org.ogrehus.jcwm.api.resource.relational.Trigger;
 import org.ogrehus.jcwm.api.resource.relational.View;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunCwmPackage;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 /**
  * A schema is a named collection of tables.
@@ -422,6 +423,11 @@ implements
 	 * <li><i>inverse</i>		: SQLIndex::namespace</li>
 	 * </ul>
 	 * 
+	 * <p>
+	 * The SQLIndexes of a Table loaded on demand are contained once the Table loaded its keys, see
+	 * {@link org.ogrehus.jcwm.impl.util.jdbc.JdbcSchemaLoader}.
+	 * </p>
+	 * 
 	 * @return A Collection of SQLIndex. Can't be <code>null</code>, but an empty Collection.
 	 * 
 	 */
@@ -507,6 +513,30 @@ implements
 
 
 
+	/**
+	 * Returns the pool of the SQLSimpleTypes shared by the columns of this Schema. The pool is created on first use and lives as long as this
+	 * Schema.
+	 *
+	 * @return The pool of this Schema. Can't be <code>null</code>.
+	 *
+	 */
+	public FunSQLSimpleTypePool getSQLSimpleTypePool() {
+		FunSQLSimpleTypePool pool = this.sqlSimpleTypePool;
+		if ( pool == null ) {
+			synchronized ( this ) {
+				pool = this.sqlSimpleTypePool;
+				if ( pool == null ) {
+					pool = new FunSQLSimpleTypePool( this );
+					this.sqlSimpleTypePool = pool;
+				}
+			}
+		}
+
+		return pool;
+	}
+
+
+
 //====================================================================================================================================================
 // Object capabilities
 //====================================================================================================================================================
@@ -514,12 +544,24 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunSchema" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunSchema" );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
-}
\ No newline at end of file
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The pool of shared SQLSimpleTypes, or <code>null</code> if not used yet.
+	 *
+	 */
+	private volatile FunSQLSimpleTypePool sqlSimpleTypePool = null;
+}
@@ -38,7 +38,10 @@ import org.ogrehus.jcwm.api.resource.relational.TableColumn;
 import org.ogrehus.jcwm.api.resource.relational.Trigger;
 import org.ogrehus.jcwm.api.resource.relational.UniqueConstraint;
 
+import org.ogrehus.jcwm.impl.resource.relational.util.ColumnSetPart;
 import org.ogrehus.jcwm.impl.resource.relational.util.generic.GFunNamedColumnSet;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -150,6 +153,14 @@ implements
 
 
 
+	@Override
+	public Set<SQLIndex> getIndexes() {
+		load( ColumnSetPart.keys );
+		return super.getIndexes();
+	}
+
+
+
 //====================================================================================================================================================
 // GClassifier capabilities
 //====================================================================================================================================================
@@ -163,6 +174,7 @@ implements
 
 
 	public Set<TableColumn> getColumns() {
+		load( ColumnSetPart.columns );
 		return super.getFeatures();
 	}
 
@@ -175,6 +187,7 @@ implements
 
 
 	public TableColumn getColumn( String simpleName ) {
+		load( ColumnSetPart.columns );
 		return super.getFeature( TableColumn.class, simpleName );
 	}
 
@@ -202,7 +215,7 @@ implements
 	 * 
 	 */ 
 	public Boolean isSystem() {
-		return this.isSystem;
+		return getFlag( SYSTEM_FLAG );
 	}
 
 
@@ -227,8 +240,11 @@ implements
 	 * 
 	 */ 
 	public Boolean setSystem( Boolean isSystem ) {
-		Boolean old = this.isSystem;
-		this.isSystem = isSystem;
+		checkMutable();
+		Boolean old = getFlag( SYSTEM_FLAG );
+		setFlag( SYSTEM_FLAG, isSystem );
+		fireChange( ModelChangeKind.propertyChanged, "isSystem", old, isSystem );
+
 		return old;
 	}
 
@@ -254,7 +270,7 @@ implements
 	 * 
 	 */
 	public Boolean isTemporary() {
-		return this.isTemporary;
+		return getFlag( TEMPORARY_FLAG );
 	}
 
 
@@ -283,8 +299,11 @@ implements
 	 * 
 	 */
 	public Boolean setTemporary( Boolean isTemporary ) {
-		Boolean old = this.isTemporary;
-		this.isTemporary = isTemporary;
+		checkMutable();
+		Boolean old = getFlag( TEMPORARY_FLAG );
+		setFlag( TEMPORARY_FLAG, isTemporary );
+		fireChange( ModelChangeKind.propertyChanged, "isTemporary", old, isTemporary );
+
 		return old;
 	}
 
@@ -353,8 +372,11 @@ implements
 	 * 
 	 */
 	public String setTemporaryScope( String temporaryScope ) {
+		checkMutable();
 		String old = this.temporaryScope;
 		this.temporaryScope = temporaryScope;
+		fireChange( ModelChangeKind.propertyChanged, "temporaryScope", old, temporaryScope );
+
 		return old;
 	}
 
@@ -491,6 +513,7 @@ implements
 	 * 
 	 */
 	public Set<ForeignKey> getForeignKeys() {
+		load( ColumnSetPart.keys );
 		return getOwnedElementsGeneric( ForeignKey.class );
 	}
 
@@ -503,6 +526,7 @@ implements
 
 
 	public ForeignKey getForeignKey(String simpleName) {
+		load( ColumnSetPart.keys );
 		return super.getOwnedElement( ForeignKey.class, simpleName );
 	}
 
@@ -564,6 +588,7 @@ implements
 	 * 
 	 */
 	public PrimaryKey getPrimaryKey() {
+		load( ColumnSetPart.columns );
 		Set<PrimaryKey> aPrimaryKeyOrNot = getOwnedElementsGeneric( PrimaryKey.class );
 		if ( aPrimaryKeyOrNot.isEmpty() ) {
 			return null; // no PrimaryKey found...
@@ -591,22 +616,21 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunTable" );
-		if ( this.isSystem != null ) {
-			out.append( " | isSystem=" + this.isSystem );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunTable" );
+		if ( getFlag( SYSTEM_FLAG ) != null ) {
+			out.property( "isSystem", getFlag( SYSTEM_FLAG ) );
 		}
-		if ( this.isTemporary != null ) {
-			out.append( " | isTemporary=" + this.isTemporary );
+		if ( getFlag( TEMPORARY_FLAG ) != null ) {
+			out.property( "isTemporary", getFlag( TEMPORARY_FLAG ) );
 		}
 		if ( this.temporaryScope != null ) {
-			out.append( " | temporaryScope=" + this.temporaryScope );
+			out.property( "temporaryScope", this.temporaryScope );
 		}
-		out.append( collectionToString( "triggers", this.triggers, false ) );
+		out.elements( "triggers", this.triggers, false );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-		return out.toString();
 	}
 
 
@@ -629,7 +653,7 @@ implements
 	 * </ul>
 	 * 
 	 */ 
-	protected Boolean isSystem = null;
+	protected static final int SYSTEM_FLAG = 2;
 
 
 
@@ -649,7 +673,7 @@ implements
 	 * </ul>
 	 * 
 	 */ 
-	protected Boolean isTemporary = null;
+	protected static final int TEMPORARY_FLAG = 4;
 
 
 
@@ -27,6 +27,7 @@ import org.ogrehus.jcwm.api.resource.relational.Table;
 import org.ogrehus.jcwm.api.resource.relational.TableColumn;
 
 import org.ogrehus.jcwm.impl.resource.relational.util.generic.GFunColumn;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -102,13 +103,11 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunTableColumn" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunTableColumn" );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -38,6 +38,8 @@ import org.ogrehus.jcwm.api.resource.relational.util.ConditionTiming;
 import org.ogrehus.jcwm.api.resource.relational.util.EventManipulation;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -162,11 +164,13 @@ implements
 
 
 	public EventManipulation setEventManipulation( EventManipulation eventManipulation ) {
+		checkMutable();
 		if ( eventManipulation == null ) {
 			throw new NullPointerException( "The parameter: eventManipulation must not be null." );
 		}
 		EventManipulation old = this.eventManipulation;
 		this.eventManipulation = eventManipulation;
+		fireChange( ModelChangeKind.propertyChanged, "eventManipulation", old, eventManipulation );
 
 		return old;
 	}
@@ -180,11 +184,13 @@ implements
 
 
 	public BooleanExpression setActionCondition( BooleanExpression actionCondition ) {
+		checkMutable();
 		if ( actionCondition == null ) {
 			throw new NullPointerException( "The parameter: actionCondition must not be null." );
 		}
 		BooleanExpression old = this.actionCondition;
 		this.actionCondition = actionCondition;
+		fireChange( ModelChangeKind.propertyChanged, "actionCondition", old, actionCondition );
 
 		return old;
 	}
@@ -198,11 +204,13 @@ implements
 
 
 	public ProcedureExpression setActionStatement( ProcedureExpression actionStatement ) {
+		checkMutable();
 		if ( actionStatement == null ) {
 			throw new NullPointerException( "The parameter: actionStatement must not be null." );
 		}
 		ProcedureExpression old = this.actionStatement;
 		this.actionStatement = actionStatement;
+		fireChange( ModelChangeKind.propertyChanged, "actionStatement", old, actionStatement );
 
 		return old;
 	}
@@ -216,11 +224,13 @@ implements
 
 
 	public ActionOrientation setActionOrientation( ActionOrientation actionOrientation ) {
+		checkMutable();
 		if ( actionOrientation == null ) {
 			throw new NullPointerException( "The parameter: actionOrientation must not be null." );
 		}
 		ActionOrientation old = this.actionOrientation;
 		this.actionOrientation = actionOrientation;
+		fireChange( ModelChangeKind.propertyChanged, "actionOrientation", old, actionOrientation );
 
 		return old;
 	}
@@ -234,11 +244,13 @@ implements
 
 
 	public ConditionTiming setConditionTiming( ConditionTiming conditionTiming ) {
+		checkMutable();
 		if ( conditionTiming == null ) {
 			throw new NullPointerException( "The parameter: conditionTiming must not be null." );
 		}
 		ConditionTiming old = this.conditionTiming;
 		this.conditionTiming = conditionTiming;
+		fireChange( ModelChangeKind.propertyChanged, "conditionTiming", old, conditionTiming );
 
 		return old;
 	}
@@ -252,11 +264,13 @@ implements
 
 
 	public String setConditionReferenceNewTable( String conditionReferenceNewTable ) {
+		checkMutable();
 		if ( conditionReferenceNewTable == null ) {
 			throw new NullPointerException( "The parameter: conditionReferenceNewTable must not be null." );
 		}
 		String old = this.conditionReferenceNewTable;
 		this.conditionReferenceNewTable = conditionReferenceNewTable;
+		fireChange( ModelChangeKind.propertyChanged, "conditionReferenceNewTable", old, conditionReferenceNewTable );
 
 		return old;
 	}
@@ -270,11 +284,13 @@ implements
 
 
 	public String setConditionReferenceOldTable( String conditionReferenceOldTable ) {
+		checkMutable();
 		if ( conditionReferenceOldTable == null ) {
 			throw new NullPointerException( "The parameter: conditionReferenceOldTable must not be null." );
 		}
 		String old = this.conditionReferenceOldTable;
 		this.conditionReferenceOldTable = conditionReferenceOldTable;
+		fireChange( ModelChangeKind.propertyChanged, "conditionReferenceOldTable", old, conditionReferenceOldTable );
 
 		return old;
 	}
@@ -361,38 +377,36 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunTrigger" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunTrigger" );
 		if ( this.eventManipulation != null ) {
-			out.append( " | eventManipulation=" + this.eventManipulation );
+			out.property( "eventManipulation", this.eventManipulation );
 		}
 		if ( this.actionCondition != null ) {
-			out.append( " | actionCondition=" + this.actionCondition.getBody() );
+			out.property( "actionCondition", this.actionCondition.getBody() );
 		}
 		if ( this.actionStatement != null ) {
-			out.append( " | actionStatement=" + this.actionStatement.getLanguage() );
+			out.property( "actionStatement", this.actionStatement.getLanguage() );
 		}
 		if ( this.actionOrientation != null ) {
-			out.append( " | actionOrientation=" + this.actionOrientation );
+			out.property( "actionOrientation", this.actionOrientation );
 		}
 		if ( this.conditionTiming != null ) {
-			out.append( " | conditionTiming=" + this.conditionTiming );
+			out.property( "conditionTiming", this.conditionTiming );
 		}
 		if ( this.conditionReferenceNewTable != null ) {
-			out.append( " | conditionReferenceNewTable=" + this.conditionReferenceNewTable );
+			out.property( "conditionReferenceNewTable", this.conditionReferenceNewTable );
 		}
 		if ( this.conditionReferenceOldTable != null ) {
-			out.append( " | conditionReferenceOldTable=" + this.conditionReferenceOldTable );
+			out.property( "conditionReferenceOldTable", this.conditionReferenceOldTable );
 		}
 		if ( this.table != null ) {
-			out.append( " | table=" + this.table.getQualifiedName() );
+			out.property( "table", this.table );
 		}
-		out.append( collectionToString( "usedColumnSets", this.usedColumnSets, true ) );
+		out.elements( "usedColumnSets", this.usedColumnSets, true );
 		out.append( " | \nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
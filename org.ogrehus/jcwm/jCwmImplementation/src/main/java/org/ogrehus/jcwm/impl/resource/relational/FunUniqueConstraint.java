@@ -29,6 +29,8 @@ import org.ogrehus.jcwm.api.resource.relational.TableColumn;
 import org.ogrehus.jcwm.api.resource.relational.UniqueConstraint;
 import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
 import org.ogrehus.jcwm.impl.foundation.keyindexes.util.generic.GFunUniqueKey;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -232,11 +234,13 @@ implements
 	 * 
 	 */
 	public Deferability setDeferability( Deferability deferability ) {
+		checkMutable();
 		if ( deferability == null ) {
 			throw new NullPointerException( "The parameter: deferability must not be null." );
 		}
 		Deferability old = this.deferability;
 		this.deferability = deferability;
+		fireChange( ModelChangeKind.propertyChanged, "deferability", old, deferability );
 
 		return old;
 	}
@@ -249,16 +253,14 @@ implements
 	
 	
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunUniqueConstraint" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunUniqueConstraint" );
 		if ( this.deferability != null ) {
-			out.append( " | deferability=" + this.deferability );
+			out.property( "deferability", this.deferability );
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -21,6 +21,8 @@
  */
 package org.ogrehus.jcwm.impl.resource.relational;
 
+import java.util.Set;
+
 import org.ogrehus.jcwm.api.foundation.datatypes.QueryExpression;
 import org.ogrehus.jcwm.api.objectmodel.core.Constraint;
 import org.ogrehus.jcwm.api.objectmodel.core.Dependency;
@@ -29,7 +31,9 @@ import org.ogrehus.jcwm.api.resource.relational.SQLDataType;
 import org.ogrehus.jcwm.api.resource.relational.View;
 import org.ogrehus.jcwm.api.resource.relational.ViewColumn;
 
+import org.ogrehus.jcwm.impl.resource.relational.util.ColumnSetPart;
 import org.ogrehus.jcwm.impl.resource.relational.util.generic.GFunNamedColumnSet;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
 
 
 /**
@@ -106,11 +110,19 @@ implements
 
 
 	public ViewColumn getColumn( String simpleName ) {
+		load( ColumnSetPart.columns );
 		return super.getFeature( ViewColumn.class, simpleName );
 	}
 
 
 
+	public Set<ViewColumn> getColumns() {
+		load( ColumnSetPart.columns );
+		return super.getFeatures();
+	}
+
+
+
 	/**
 	 * Indicates whether the underlying tables can be updated through an update to this View.
 	 * 
@@ -152,11 +164,14 @@ implements
 	 * 
 	 */
 	public Boolean setReadOnly( Boolean readOnly ) {
+		checkMutable();
 		if ( readOnly == null ) {
 			throw new NullPointerException( "The parameter: readOnly must not be null." );
 		}
 		Boolean old = this.isReadOnly;
 		this.isReadOnly = readOnly;
+		fireChange( ModelChangeKind.propertyChanged, "isReadOnly", old, readOnly );
+
 		return old;
 	}
 
@@ -207,11 +222,13 @@ implements
 	 * 
 	 */
 	public QueryExpression setQueryExpression( QueryExpression queryExpression ) {
+		checkMutable();
 		if ( queryExpression == null ) {
 			throw new NullPointerException( "The parameter: queryExpression must not be null." );
 		}
 		QueryExpression old = this.queryExpression;
 		this.queryExpression = queryExpression;
+		fireChange( ModelChangeKind.propertyChanged, "queryExpression", old, queryExpression );
 
 		return old;
 	}
@@ -283,8 +300,10 @@ implements
 	 * 
 	 */
 	public Boolean setCheckOption( Boolean checkOption ) {
+		checkMutable();
 		Boolean old = this.checkOption;
 		this.checkOption = checkOption;
+		fireChange( ModelChangeKind.propertyChanged, "checkOption", old, checkOption );
 
 		return old;
 	}
@@ -26,6 +26,7 @@ import org.ogrehus.jcwm.api.resource.relational.SQLDataType;
 import org.ogrehus.jcwm.api.resource.relational.View;
 import org.ogrehus.jcwm.api.resource.relational.ViewColumn;
 import org.ogrehus.jcwm.impl.resource.relational.util.generic.GFunColumn;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -101,13 +102,11 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[FunTableColumn" );
+	public void describe( ModelDescription out ) {
+		out.append( "[FunTableColumn" );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -0,0 +1,52 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util;
+
+import org.ogrehus.jcwm.impl.resource.relational.util.generic.GFunNamedColumnSet;
+
+
+/**
+ * A ColumnSetLoader fills a NamedColumnSet created as a stub on the first access to a part of it, see
+ * {@link GFunNamedColumnSet#setLoader(ColumnSetLoader)}.
+ * <p>
+ * The loader is called by the thread that accesses the part, before the part is read, on every access: it must return fast if the part is
+ * loaded already, and it is called again by the mutations it performs itself.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public interface ColumnSetLoader {
+
+
+	/**
+	 * Called before a part of a NamedColumnSet is read.
+	 *
+	 * @param columnSet The NamedColumnSet that is accessed. Can't be <code>null</code>.
+	 *
+	 * @param part The part that is accessed. Can't be <code>null</code>.
+	 *
+	 * @throws IllegalStateException Is thrown if the part could not be loaded. The access fails, the next access tries again.
+	 *
+	 */
+	void load( GFunNamedColumnSet<?, ?> columnSet, ColumnSetPart part );
+}
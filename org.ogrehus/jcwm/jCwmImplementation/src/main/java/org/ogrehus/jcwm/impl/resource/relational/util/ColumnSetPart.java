@@ -0,0 +1,42 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util;
+
+
+/**
+ * The parts of a NamedColumnSet a ColumnSetLoader loads on demand, in this order: the keys of a Table span its columns.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>columns</code> - The columns of a Table or View, and the PrimaryKey of a Table.</li>
+ * <li><code>keys</code> - The ForeignKeys and the SQLIndexes of a Table. Loading them loads the columns first.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum ColumnSetPart {
+	  columns
+	, keys
+	;
+}
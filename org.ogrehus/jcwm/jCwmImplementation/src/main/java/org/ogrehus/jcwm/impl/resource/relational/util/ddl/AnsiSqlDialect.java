@@ -0,0 +1,604 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.behavioral.util.ParameterDirection;
+import org.ogrehus.jcwm.api.objectmodel.core.BooleanExpression;
+import org.ogrehus.jcwm.api.objectmodel.core.ProcedureExpression;
+import org.ogrehus.jcwm.api.resource.relational.Procedure;
+import org.ogrehus.jcwm.api.resource.relational.SQLDistinctType;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.SQLParameter;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.SQLStructuredAttribute;
+import org.ogrehus.jcwm.api.resource.relational.SQLStructuredType;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.Trigger;
+import org.ogrehus.jcwm.api.resource.relational.util.ActionOrientation;
+import org.ogrehus.jcwm.api.resource.relational.util.Nullable;
+import org.ogrehus.jcwm.api.resource.relational.util.ProcedureType;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99BinaryLargeObject;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Bit;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99BitVarying;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Boolean;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Character;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99CharacterLargeObject;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99CharacterVarying;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Date;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Decimal;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99DoublePrecision;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Float;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Integer;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99NationalCharacter;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99NationalCharacterVarying;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Numeric;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Real;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99SmallInt;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Time;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99TimeWithTimezone;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99Timestamp;
+import org.ogrehus.jcwm.api.resource.relational.util.types.Sql99TimestampWithTimezone;
+
+
+/**
+ * The SqlDialect of ANSI SQL:1999, and the base of the dialects of concrete database products.
+ * <p>
+ * A simple data type is identified by its JDBC type number. Types without a type number are identified by the SQL:1999 interfaces they
+ * implement, like {@link Sql99Decimal}. Types known by neither are written by their own name.
+ * </p>
+ * <p>
+ * Subclasses override the type names, the type arguments and the parts of the statements that differ from the standard.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class AnsiSqlDialect
+implements
+	SqlDialect
+{
+
+
+	public AnsiSqlDialect() {
+		this( "SQL:1999", '"', '"', EnumSet.complementOf( EnumSet.of( DdlFeature.partialIndexes ) ) );
+	}
+
+
+
+	/**
+	 * @param name          The name of the database product.
+	 * @param openingQuote  The character opening a quoted identifier.
+	 * @param closingQuote  The character closing a quoted identifier, doubled within the identifier.
+	 * @param features      The supported optional statements and clauses.
+	 *
+	 */
+	protected AnsiSqlDialect( String name, char openingQuote, char closingQuote, Set<DdlFeature> features ) {
+		if ( name == null ) {
+			throw new NullPointerException( "Parameter: name must not be null." );
+		}
+		this.name         = name;
+		this.openingQuote = openingQuote;
+		this.closingQuote = closingQuote;
+		this.features     = Collections.unmodifiableSet( features.isEmpty() ? EnumSet.noneOf( DdlFeature.class ) : EnumSet.copyOf( features ) );
+	}
+
+
+
+//====================================================================================================================================================
+// SqlDialect capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+
+
+	@Override
+	public Boolean supports( DdlFeature feature ) {
+		return this.features.contains( feature );
+	}
+
+
+
+	@Override
+	public void writeIdentifier( DdlWriter out, String identifier ) throws IOException {
+		out.text( this.openingQuote );
+		int start = 0;
+		for ( int i = identifier.indexOf( this.closingQuote ); i >= 0; i = identifier.indexOf( this.closingQuote, start ) ) {
+			out.text( identifier.subSequence( start, i + 1 ) );
+			out.text( this.closingQuote );
+			start = i + 1;
+		}
+		out.text( identifier.subSequence( start, identifier.length() ) );
+		out.text( this.closingQuote );
+	}
+
+
+
+	@Override
+	public void writeSimpleType( DdlWriter out, SQLSimpleType type, Integer length, Integer precision, Integer scale ) throws IOException {
+		int typeNumber = getTypeNumber( type );
+		out.text( getTypeName( typeNumber, type ) );
+		switch ( getTypeArguments( typeNumber ) ) {
+		case length:
+			writeArguments( out, length != null ? length : getLength( type ), null );
+			break;
+		case precision:
+			writeArguments( out, precision != null ? precision : type.getNumericPrecision(), null );
+			break;
+		case fractionalSeconds:
+			writeArguments( out, scale != null ? scale : type.getDateTimePrecision(), null );
+			break;
+		case precisionAndScale:
+			Short typeScale = type.getNumericScale();
+			writeArguments( out, precision != null ? precision : type.getNumericPrecision(), scale != null ? scale : typeScale == null ? null : typeScale.intValue() );
+			break;
+		default:
+			break;
+		}
+		out.text( getTypeSuffix( typeNumber ) );
+	}
+
+
+
+	@Override
+	public void writeAutoIncrement( DdlWriter out ) throws IOException {
+		out.text( "GENERATED BY DEFAULT AS IDENTITY" );
+	}
+
+
+
+	@Override
+	public void writeDistinctType( DdlWriter out, SQLDistinctType distinctType ) throws IOException {
+		out.text( "CREATE TYPE " ).name( distinctType ).text( " AS " );
+		writeSimpleType( out, distinctType.getSqlSimpleType(), distinctType.getLength(), distinctType.getPrecision(), distinctType.getScale() );
+		out.text( " FINAL" ).endStatement();
+	}
+
+
+
+	@Override
+	public void writeStructuredType( DdlWriter out, SQLStructuredType structuredType ) throws IOException {
+		out.text( "CREATE TYPE " ).name( structuredType ).text( " AS (" );
+		boolean comma = false;
+		for ( SQLStructuredAttribute attribute : structuredType.getFeatures() ) {
+			out.text( comma ? "," : "" ).newLine().identifier( attribute.getSimpleName() ).text( ' ' ).dataType( attribute );
+			comma = true;
+		}
+		out.text( "\n)" );
+		writeStructuredTypeOptions( out, structuredType );
+		out.endStatement();
+	}
+
+
+
+	@Override
+	public void writeTrigger( DdlWriter out, Trigger trigger ) throws IOException {
+		ProcedureExpression statement = trigger.getActionStatement();
+		if ( trigger.getTable() == null || statement == null ) {
+			out.comment( "The trigger: " + trigger.getQualifiedName() + " has no table or action statement." );
+			return;
+		}
+		boolean forEachStatement = trigger.getActionOrientation() == ActionOrientation.statement;
+		if ( forEachStatement && !supports( DdlFeature.statementTriggers ) ) {
+			out.comment( this.name + " does not support statement triggers: " + trigger.getQualifiedName() );
+			return;
+		}
+		out.text( "CREATE TRIGGER " );
+		writeTriggerName( out, trigger );
+		out.text( ' ' ).text( keyword( trigger.getConditionTiming() ) );
+		out.text( ' ' ).text( keyword( trigger.getEventManipulation() ) );
+		out.text( " ON " ).name( trigger.getTable() );
+		if ( supports( DdlFeature.triggerReferences )
+			&& ( trigger.getConditionReferenceOldTable() != null || trigger.getConditionReferenceNewTable() != null ) ) {
+			out.newLine().text( "REFERENCING" );
+			if ( trigger.getConditionReferenceOldTable() != null ) {
+				out.text( " OLD TABLE AS " ).identifier( trigger.getConditionReferenceOldTable() );
+			}
+			if ( trigger.getConditionReferenceNewTable() != null ) {
+				out.text( " NEW TABLE AS " ).identifier( trigger.getConditionReferenceNewTable() );
+			}
+		}
+		out.newLine().text( forEachStatement ? "FOR EACH STATEMENT" : "FOR EACH ROW" );
+		BooleanExpression condition = trigger.getActionCondition();
+		if ( condition != null && condition.getBody() != null && supports( DdlFeature.triggerConditions ) ) {
+			out.newLine().text( "WHEN ( " ).text( condition.getBody() ).text( " )" );
+		}
+		out.newLine();
+		writeTriggerAction( out, trigger, statement );
+		out.endStatement();
+	}
+
+
+
+	@Override
+	public void writeProcedure( DdlWriter out, Procedure procedure ) throws IOException {
+		ProcedureExpression body = procedure.getBody();
+		if ( body == null || body.getBody() == null ) {
+			out.comment( "The procedure: " + procedure.getQualifiedName() + " has no body." );
+			return;
+		}
+		boolean function = isFunction( procedure.getType() );
+		SQLParameter returned = null;
+		out.text( function ? "CREATE FUNCTION " : "CREATE PROCEDURE " ).name( procedure ).text( " (" );
+		boolean comma = false;
+		for ( SQLParameter parameter : procedure.getParameters() ) {
+			ParameterDirection kind = parameter.getKind();
+			if ( Boolean.TRUE.equals( parameter.isReturnValue() ) || kind == ParameterDirection._return ) {
+				returned = parameter;
+				continue;
+			}
+			if ( kind == ParameterDirection._result ) {
+				continue;
+			}
+			out.text( comma ? ", " : " " );
+			comma = true;
+			if ( !function ) {
+				out.text( kind == ParameterDirection._out ? "OUT " : kind == ParameterDirection._inout ? "INOUT " : "IN " );
+			}
+			out.identifier( parameter.getSimpleName() );
+			if ( parameter.getType() != null ) {
+				out.text( ' ' ).dataType( parameter.getType() );
+			}
+		}
+		out.text( comma ? " )" : ")" );
+		if ( function && returned != null && returned.getType() != null ) {
+			out.text( " RETURNS " ).dataType( returned.getType() );
+		}
+		writeRoutineBody( out, procedure, body );
+		out.endStatement();
+	}
+
+
+
+	/**
+	 * Writes an <code>ALTER TABLE ... ALTER COLUMN</code> statement for each changed clause: the data type, <code>NOT NULL</code> and the
+	 * default value.
+	 *
+	 */
+	@Override
+	public void writeAlterColumn( DdlWriter out, TableColumn before, TableColumn after ) throws IOException {
+		String dataType = getDataType( after );
+		if ( dataType != null && !dataType.equals( getDataType( before ) ) ) {
+			writeAlterColumnStart( out, after );
+			out.text( "SET DATA TYPE " ).text( dataType ).endStatement();
+		}
+		boolean notNull = after.getNullable() == Nullable.columnNoNulls;
+		if ( notNull != ( before.getNullable() == Nullable.columnNoNulls ) ) {
+			writeAlterColumnStart( out, after );
+			out.text( notNull ? "SET NOT NULL" : "DROP NOT NULL" ).endStatement();
+		}
+		String defaultValue = after.getDefaultValue();
+		if ( defaultValue == null ? before.getDefaultValue() != null : !defaultValue.equals( before.getDefaultValue() ) ) {
+			writeAlterColumnStart( out, after );
+			if ( defaultValue == null ) {
+				out.text( "DROP DEFAULT" );
+			} else {
+				out.text( "SET DEFAULT " ).text( defaultValue );
+			}
+			out.endStatement();
+		}
+	}
+
+
+
+	/**
+	 * Writes <code>DROP INDEX</code> and the name of the index qualified by its Schema.
+	 *
+	 */
+	@Override
+	public void writeDropIndex( DdlWriter out, SQLIndex index ) throws IOException {
+		out.text( "DROP INDEX " ).name( index ).endStatement();
+	}
+
+
+
+//====================================================================================================================================================
+// AnsiSqlDialect capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The JDBC type number of a type, see {@link Types}, or <code>Types.OTHER</code> if unknown.
+	 *
+	 */
+	protected int getTypeNumber( SQLSimpleType type ) {
+		if ( type.getTypeNumber() != null ) {
+			return type.getTypeNumber();
+		}
+		if ( type instanceof Sql99Character )                { return Types.CHAR; }
+		if ( type instanceof Sql99CharacterVarying )         { return Types.VARCHAR; }
+		if ( type instanceof Sql99CharacterLargeObject )     { return Types.CLOB; }
+		if ( type instanceof Sql99NationalCharacter )        { return Types.NCHAR; }
+		if ( type instanceof Sql99NationalCharacterVarying ) { return Types.NVARCHAR; }
+		if ( type instanceof Sql99BinaryLargeObject )        { return Types.BLOB; }
+		if ( type instanceof Sql99Bit )                      { return Types.BIT; }
+		if ( type instanceof Sql99BitVarying )               { return Types.VARBINARY; }
+		if ( type instanceof Sql99Boolean )                  { return Types.BOOLEAN; }
+		if ( type instanceof Sql99SmallInt )                 { return Types.SMALLINT; }
+		if ( type instanceof Sql99Integer )                  { return Types.INTEGER; }
+		if ( type instanceof Sql99Decimal )                  { return Types.DECIMAL; }
+		if ( type instanceof Sql99Numeric )                  { return Types.NUMERIC; }
+		if ( type instanceof Sql99Real )                     { return Types.REAL; }
+		if ( type instanceof Sql99Float )                    { return Types.FLOAT; }
+		if ( type instanceof Sql99DoublePrecision )          { return Types.DOUBLE; }
+		if ( type instanceof Sql99Date )                     { return Types.DATE; }
+		if ( type instanceof Sql99TimeWithTimezone )         { return Types.TIME_WITH_TIMEZONE; }
+		if ( type instanceof Sql99Time )                     { return Types.TIME; }
+		if ( type instanceof Sql99TimestampWithTimezone )    { return Types.TIMESTAMP_WITH_TIMEZONE; }
+		if ( type instanceof Sql99Timestamp )                { return Types.TIMESTAMP; }
+
+		return Types.OTHER;
+	}
+
+
+
+	/**
+	 * @return The name of a type in this dialect, the name of the type itself if the type number is unknown.
+	 *
+	 */
+	protected String getTypeName( int typeNumber, SQLSimpleType type ) {
+		switch ( typeNumber ) {
+		case Types.BIT:                     return "BIT";
+		case Types.BOOLEAN:                 return "BOOLEAN";
+		case Types.TINYINT:
+		case Types.SMALLINT:                return "SMALLINT";
+		case Types.INTEGER:                 return "INTEGER";
+		case Types.BIGINT:                  return "BIGINT";
+		case Types.DECIMAL:                 return "DECIMAL";
+		case Types.NUMERIC:                 return "NUMERIC";
+		case Types.REAL:                    return "REAL";
+		case Types.FLOAT:                   return "FLOAT";
+		case Types.DOUBLE:                  return "DOUBLE PRECISION";
+		case Types.CHAR:                    return "CHARACTER";
+		case Types.VARCHAR:                 return "CHARACTER VARYING";
+		case Types.LONGVARCHAR:
+		case Types.CLOB:                    return "CHARACTER LARGE OBJECT";
+		case Types.NCHAR:                   return "NATIONAL CHARACTER";
+		case Types.NVARCHAR:                return "NATIONAL CHARACTER VARYING";
+		case Types.LONGNVARCHAR:
+		case Types.NCLOB:                   return "NATIONAL CHARACTER LARGE OBJECT";
+		case Types.BINARY:                  return "BINARY";
+		case Types.VARBINARY:               return "BINARY VARYING";
+		case Types.LONGVARBINARY:
+		case Types.BLOB:                    return "BINARY LARGE OBJECT";
+		case Types.DATE:                    return "DATE";
+		case Types.TIME:
+		case Types.TIME_WITH_TIMEZONE:      return "TIME";
+		case Types.TIMESTAMP:
+		case Types.TIMESTAMP_WITH_TIMEZONE: return "TIMESTAMP";
+		case Types.SQLXML:                  return "XML";
+		case Types.DATALINK:                return "DATALINK";
+		default:                            return type.getSimpleName();
+		}
+	}
+
+
+
+	/**
+	 * @return The kind of arguments written after the name of a type.
+	 *
+	 */
+	protected TypeArguments getTypeArguments( int typeNumber ) {
+		switch ( typeNumber ) {
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.BINARY:
+		case Types.VARBINARY:               return TypeArguments.length;
+		case Types.FLOAT:                   return TypeArguments.precision;
+		case Types.DECIMAL:
+		case Types.NUMERIC:                 return TypeArguments.precisionAndScale;
+		case Types.TIME:
+		case Types.TIME_WITH_TIMEZONE:
+		case Types.TIMESTAMP:
+		case Types.TIMESTAMP_WITH_TIMEZONE: return TypeArguments.fractionalSeconds;
+		default:                            return TypeArguments.none;
+		}
+	}
+
+
+
+	/**
+	 * @return The maximum length of a character or binary type. The JDBC types keep the column size reported by the driver as numeric
+	 * precision, so it is the fallback of the character maximum length.
+	 *
+	 */
+	protected Integer getLength( SQLSimpleType type ) {
+		Integer length = type.getCharacterMaximumLength();
+
+		return length != null ? length : type.getNumericPrecision();
+	}
+
+
+
+	/**
+	 * @return The text written after the arguments of a type, like <code> WITH TIME ZONE</code>.
+	 *
+	 */
+	protected String getTypeSuffix( int typeNumber ) {
+		switch ( typeNumber ) {
+		case Types.TIME_WITH_TIMEZONE:
+		case Types.TIMESTAMP_WITH_TIMEZONE: return " WITH TIME ZONE";
+		default:                            return "";
+		}
+	}
+
+
+
+	/**
+	 * Writes the options after the attributes of a structured type, <code>NOT FINAL</code> as SQL:1999 requires for structured types.
+	 *
+	 */
+	protected void writeStructuredTypeOptions( DdlWriter out, SQLStructuredType structuredType ) throws IOException {
+		out.text( " NOT FINAL" );
+	}
+
+
+
+	/**
+	 * Writes the name of a trigger in its <code>CREATE TRIGGER</code> statement, qualified by its Schema.
+	 *
+	 */
+	protected void writeTriggerName( DdlWriter out, Trigger trigger ) throws IOException {
+		out.name( trigger );
+	}
+
+
+
+	/**
+	 * Writes the triggered action, the action statement as is.
+	 *
+	 */
+	protected void writeTriggerAction( DdlWriter out, Trigger trigger, ProcedureExpression statement ) throws IOException {
+		out.text( statement.getBody() );
+	}
+
+
+
+	/**
+	 * Writes the body of a routine after its parameters, on a new line as is.
+	 *
+	 */
+	protected void writeRoutineBody( DdlWriter out, Procedure procedure, ProcedureExpression body ) throws IOException {
+		out.newLine().text( body.getBody() );
+	}
+
+
+
+	/**
+	 * @return The data type of a column as written by a DdlWriter, <code>null</code> if the column has no type.
+	 *
+	 */
+	protected String getDataType( TableColumn column ) throws IOException {
+		if ( column.getType() == null ) {
+			return null;
+		}
+		StringWriter dataType = new StringWriter();
+		new DdlWriter( dataType, this ).dataType( column );
+
+		return dataType.toString();
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if a procedure of a type is created as a function.
+	 *
+	 */
+	protected static boolean isFunction( ProcedureType type ) {
+		return type == ProcedureType.function
+			|| type == ProcedureType.scalarFunction
+			|| type == ProcedureType.tableFunction
+			|| type == ProcedureType.rowFunction;
+	}
+
+
+
+	/**
+	 * @return The name of an enumeration value as upper case keyword, like <code>INSERT</code> for <code>EventManipulation.insert</code>.
+	 *
+	 */
+	protected static String keyword( Enum<?> value ) {
+		return value.name().toUpperCase( Locale.ROOT );
+	}
+
+
+
+//====================================================================================================================================================
+// AnsiSqlDialect internals
+//====================================================================================================================================================
+
+
+
+	private static void writeAlterColumnStart( DdlWriter out, TableColumn column ) throws IOException {
+		out.text( "ALTER TABLE " ).name( column.getOwner() ).text( " ALTER COLUMN " ).identifier( column.getSimpleName() ).text( ' ' );
+	}
+
+
+
+	private static void writeArguments( DdlWriter out, Integer first, Integer second ) throws IOException {
+		if ( first == null ) {
+			return;
+		}
+		out.text( '(' ).number( first );
+		if ( second != null ) {
+			out.text( ',' ).number( second );
+		}
+		out.text( ')' );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[" );
+		out.append( getClass().getSimpleName() );
+		out.append( " | name=" + this.name );
+		out.append( " | features=" + this.features );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final String name;
+
+
+
+	private final char openingQuote;
+
+
+
+	private final char closingQuote;
+
+
+
+	private final Set<DdlFeature> features;
+}
@@ -0,0 +1,55 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+/**
+ * Classifies the optional statements and clauses of a SqlDialect. A DdlGenerator writes a comment instead of an unsupported statement.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>distinctTypes</code> - SQLDistinctTypes are created, as <code>CREATE TYPE</code> or <code>CREATE DOMAIN</code>.</li>
+ * <li><code>structuredTypes</code> - SQLStructuredTypes are created by <code>CREATE TYPE ... AS ( ... )</code>.</li>
+ * <li><code>deferrableConstraints</code> - Constraints have a <code>DEFERRABLE</code> clause.</li>
+ * <li><code>qualifiedIndexNames</code> - The name of an index is qualified by its Schema.</li>
+ * <li><code>partialIndexes</code> - An index has a <code>WHERE</code> clause for its filter condition.</li>
+ * <li><code>statementTriggers</code> - Triggers may be fired <code>FOR EACH STATEMENT</code>.</li>
+ * <li><code>triggerReferences</code> - Triggers have a <code>REFERENCING</code> clause for the old and new transition tables.</li>
+ * <li><code>triggerConditions</code> - Triggers have a <code>WHEN</code> clause for their action condition.</li>
+ * <li><code>cascadingDrops</code> - <code>DROP SCHEMA</code> has a <code>CASCADE</code> clause to drop the contents of the Schema.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum DdlFeature {
+	  distinctTypes
+	, structuredTypes
+	, deferrableConstraints
+	, qualifiedIndexNames
+	, partialIndexes
+	, statementTriggers
+	, triggerReferences
+	, triggerConditions
+	, cascadingDrops
+	;
+}
@@ -0,0 +1,617 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.ogrehus.jcwm.api.objectmodel.core.BooleanExpression;
+import org.ogrehus.jcwm.api.foundation.datatypes.QueryExpression;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.CheckConstraint;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.Procedure;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.SQLDistinctType;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndexColumn;
+import org.ogrehus.jcwm.api.resource.relational.SQLStructuredType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.Trigger;
+import org.ogrehus.jcwm.api.resource.relational.UniqueConstraint;
+import org.ogrehus.jcwm.api.resource.relational.View;
+import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+import org.ogrehus.jcwm.api.resource.relational.util.Nullable;
+import org.ogrehus.jcwm.api.resource.relational.util.ReferentialRule;
+
+
+/**
+ * A DdlGenerator writes the <code>CREATE</code> statements of Catalogs and Schemas of the relational model in the syntax of a SqlDialect.
+ * <p>
+ * The statements of a Schema are written in the order of their dependencies: types, tables, foreign keys, indexes, views, procedures and
+ * triggers. The tables are sorted topologically by their foreign keys, so a foreign key is declared within the table if the referenced table was
+ * created before. Foreign keys of cycles are added by <code>ALTER TABLE</code> after all tables of the Schema, foreign keys to other Schemas
+ * after all Schemas. System tables are not written.
+ * </p>
+ * <p>
+ * The statements are streamed to the Writer, nothing is rendered in memory. The time is linear in the number of elements, the memory linear in
+ * the number of tables of the largest Schema, for the topological order. Schemas can be written in parallel, each to its own Writer.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * try ( Writer out = Files.newBufferedWriter( path ) ) {
+ *     new DdlGenerator( new PostgreSqlDialect() ).generate( catalog, out );
+ * }
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class DdlGenerator {
+
+
+	/**
+	 * Creates a new instance of DdlGenerator by specific parameters.
+	 *
+	 * @param dialect The syntax of the statements. Must not be <code>null</code>.
+	 *
+	 */
+	public DdlGenerator( SqlDialect dialect ) {
+		if ( dialect == null ) {
+			throw new NullPointerException( "Parameter: dialect must not be null." );
+		}
+		this.dialect = dialect;
+	}
+
+
+
+//====================================================================================================================================================
+// DdlGenerator capabilities
+//====================================================================================================================================================
+
+
+
+	public SqlDialect getDialect() {
+		return this.dialect;
+	}
+
+
+
+	/**
+	 * Writes the statements of all Schemas of a Catalog to a single Writer, one Schema after the other.
+	 *
+	 * @return The number of statements written.
+	 *
+	 * @throws IOException If the Writer fails.
+	 *
+	 */
+	public long generate( Catalog catalog, Writer out ) throws IOException {
+		if ( catalog == null ) {
+			throw new NullPointerException( "Parameter: catalog must not be null." );
+		}
+		DdlWriter ddl = new DdlWriter( out, this.dialect );
+		ddl.comment( "Catalog: " + catalog.getSimpleName() + ", " + this.dialect.getName() );
+		ddl.text( '\n' );
+		List<ForeignKey> crossing = new ArrayList<ForeignKey>();
+		for ( Schema schema : catalog.getSchemas() ) {
+			crossing.addAll( writeSchema( ddl, schema ) );
+		}
+		writeAlterForeignKeys( ddl, crossing );
+		ddl.flush();
+
+		return ddl.getStatements();
+	}
+
+
+
+	/**
+	 * Writes the statements of a single Schema. Foreign keys to other Schemas are added at the end.
+	 *
+	 * @return The number of statements written.
+	 *
+	 * @throws IOException If the Writer fails.
+	 *
+	 */
+	public long generate( Schema schema, Writer out ) throws IOException {
+		if ( schema == null ) {
+			throw new NullPointerException( "Parameter: schema must not be null." );
+		}
+		DdlWriter ddl = new DdlWriter( out, this.dialect );
+		writeAlterForeignKeys( ddl, writeSchema( ddl, schema ) );
+		ddl.flush();
+
+		return ddl.getStatements();
+	}
+
+
+
+	/**
+	 * Writes the statements of the Schemas of a Catalog in parallel, each Schema to its own Writer opened by the target. The foreign keys between
+	 * the Schemas are written last to the Writer of foreign keys of the target.
+	 *
+	 * @param parallelism The number of threads writing Schemas. Must be greater than 0.
+	 *
+	 * @return The number of statements written.
+	 *
+	 * @throws IOException If opening or writing a Writer fails.
+	 *
+	 */
+	public long generate( Catalog catalog, final DdlTarget target, int parallelism ) throws IOException {
+		if ( catalog == null ) {
+			throw new NullPointerException( "Parameter: catalog must not be null." );
+		}
+		if ( target == null ) {
+			throw new NullPointerException( "Parameter: target must not be null." );
+		}
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException( "Parameter: parallelism must be greater than 0, but is " + parallelism + "." );
+		}
+		ExecutorService executor = Executors.newFixedThreadPool( parallelism );
+		try {
+			List<Future<SchemaResult>> results = new ArrayList<Future<SchemaResult>>();
+			for ( final Schema schema : catalog.getSchemas() ) {
+				results.add( executor.submit( new Callable<SchemaResult>() {
+					@Override
+					public SchemaResult call() throws IOException {
+						try ( Writer out = target.open( schema ) ) {
+							DdlWriter ddl = new DdlWriter( out, DdlGenerator.this.dialect );
+							List<ForeignKey> crossing = writeSchema( ddl, schema );
+							ddl.flush();
+							return new SchemaResult( ddl.getStatements(), crossing );
+						}
+					}
+				} ) );
+			}
+
+			long statements = 0;
+			List<ForeignKey> crossing = new ArrayList<ForeignKey>();
+			for ( Future<SchemaResult> result : results ) {
+				SchemaResult done = await( result );
+				statements += done.statements;
+				crossing.addAll( done.crossing );
+			}
+			try ( Writer out = target.openForeignKeys( catalog ) ) {
+				DdlWriter ddl = new DdlWriter( out, this.dialect );
+				writeAlterForeignKeys( ddl, crossing );
+				ddl.flush();
+				statements += ddl.getStatements();
+			}
+
+			return statements;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// DdlGenerator internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Writes all statements of a Schema.
+	 *
+	 * @return The foreign keys to tables of other Schemas, not written yet.
+	 *
+	 */
+	protected List<ForeignKey> writeSchema( DdlWriter out, Schema schema ) throws IOException {
+		out.comment( "Schema: " + schema.getSimpleName() );
+		out.text( "CREATE SCHEMA " ).identifier( schema.getSimpleName() ).endStatement();
+
+		for ( SQLDistinctType distinctType : schema.getSQLDistinctTypes() ) {
+			if ( this.dialect.supports( DdlFeature.distinctTypes ) ) {
+				this.dialect.writeDistinctType( out, distinctType );
+			} else {
+				out.comment( this.dialect.getName() + " does not support distinct types: " + distinctType.getQualifiedName() );
+			}
+		}
+		for ( SQLStructuredType structuredType : schema.getSQLStrucuredTypes() ) {
+			if ( this.dialect.supports( DdlFeature.structuredTypes ) ) {
+				this.dialect.writeStructuredType( out, structuredType );
+			} else {
+				out.comment( this.dialect.getName() + " does not support structured types: " + structuredType.getQualifiedName() );
+			}
+		}
+
+		List<ForeignKey> deferred = new ArrayList<ForeignKey>();
+		List<ForeignKey> crossing = new ArrayList<ForeignKey>();
+		Set<Table> created = new HashSet<Table>();
+		for ( Table table : sortTables( schema ) ) {
+			if ( !Boolean.TRUE.equals( table.isSystem() ) ) {
+				writeTable( out, schema, table, created, deferred, crossing );
+			}
+			created.add( table );
+		}
+		writeAlterForeignKeys( out, deferred );
+
+		for ( SQLIndex index : schema.getSQLIndexes() ) {
+			writeIndex( out, index );
+		}
+		for ( View view : schema.getViews() ) {
+			writeView( out, view );
+		}
+		for ( Procedure procedure : schema.getProcedures() ) {
+			this.dialect.writeProcedure( out, procedure );
+		}
+		for ( Trigger trigger : schema.getTriggers() ) {
+			this.dialect.writeTrigger( out, trigger );
+		}
+
+		return crossing;
+	}
+
+
+
+	/**
+	 * Sorts the tables of a Schema topologically by their foreign keys, referenced tables first (Kahn's algorithm). Tables of cycles follow in
+	 * the order of the Schema.
+	 *
+	 */
+	protected List<Table> sortTables( Schema schema ) {
+		Set<Table> tables = schema.getTables();
+		Map<Table, Integer>     references = new HashMap<Table, Integer>();     // the number of not yet created tables referenced by a table
+		Map<Table, List<Table>> dependents = new HashMap<Table, List<Table>>(); // the tables referencing a table
+		for ( Table table : tables ) {
+			int count = 0;
+			for ( ForeignKey foreignKey : table.getForeignKeys() ) {
+				Table referenced = getReferencedTable( foreignKey );
+				if ( referenced != null && referenced != table && tables.contains( referenced ) ) {
+					List<Table> list = dependents.get( referenced );
+					if ( list == null ) {
+						list = new ArrayList<Table>( 2 );
+						dependents.put( referenced, list );
+					}
+					list.add( table );
+					count++;
+				}
+			}
+			references.put( table, count );
+		}
+
+		List<Table> sorted = new ArrayList<Table>( tables.size() );
+		ArrayDeque<Table> ready = new ArrayDeque<Table>();
+		for ( Table table : tables ) {
+			if ( references.get( table ) == 0 ) {
+				ready.add( table );
+			}
+		}
+		while ( !ready.isEmpty() ) {
+			Table table = ready.poll();
+			sorted.add( table );
+			List<Table> list = dependents.get( table );
+			if ( list != null ) {
+				for ( Table dependent : list ) {
+					int count = references.get( dependent ) - 1;
+					references.put( dependent, count );
+					if ( count == 0 ) {
+						ready.add( dependent );
+					}
+				}
+			}
+		}
+		if ( sorted.size() < tables.size() ) {
+			for ( Table table : tables ) {
+				if ( references.get( table ) > 0 ) {
+					sorted.add( table );
+				}
+			}
+		}
+
+		return sorted;
+	}
+
+
+
+	protected void writeTable( DdlWriter out, Schema schema, Table table, Set<Table> created, List<ForeignKey> deferred, List<ForeignKey> crossing )
+	throws IOException {
+		out.text( "CREATE " );
+		if ( Boolean.TRUE.equals( table.isTemporary() ) ) {
+			out.text( table.getTemporaryScope() == null ? "GLOBAL" : table.getTemporaryScope() ).text( " TEMPORARY " );
+		}
+		out.text( "TABLE " ).name( table ).text( " (" );
+
+		boolean comma = false;
+		for ( TableColumn column : table.getColumns() ) {
+			out.text( comma ? "," : "" ).newLine();
+			comma = true;
+			writeColumn( out, column );
+		}
+
+		PrimaryKey primaryKey = table.getPrimaryKey();
+		if ( primaryKey != null ) {
+			out.text( comma ? "," : "" ).newLine();
+			comma = true;
+			writeUniqueConstraint( out, primaryKey );
+		}
+		for ( UniqueConstraint unique : table.getUniqueConstraints() ) {
+			if ( unique instanceof PrimaryKey ) {
+				continue;
+			}
+			out.text( comma ? "," : "" ).newLine();
+			comma = true;
+			writeUniqueConstraint( out, unique );
+		}
+		for ( CheckConstraint check : table.getCheckConstraints() ) {
+			if ( !hasBody( check ) ) {
+				continue;
+			}
+			out.text( comma ? "," : "" ).newLine();
+			comma = true;
+			writeCheckConstraint( out, check );
+		}
+		for ( ForeignKey foreignKey : table.getForeignKeys() ) {
+			Table referenced = getReferencedTable( foreignKey );
+			if ( referenced == null ) {
+				continue;
+			}
+			if ( referenced.getSchema() != schema ) {
+				crossing.add( foreignKey );
+			} else if ( referenced == table || created.contains( referenced ) ) {
+				out.text( comma ? "," : "" ).newLine();
+				comma = true;
+				writeForeignKey( out, foreignKey, referenced );
+			} else {
+				deferred.add( foreignKey );
+			}
+		}
+		out.text( "\n)" ).endStatement();
+	}
+
+
+
+	protected void writeColumn( DdlWriter out, TableColumn column ) throws IOException {
+		out.identifier( column.getSimpleName() ).text( ' ' ).dataType( column );
+		if ( Boolean.TRUE.equals( column.isAutoIncrement() ) ) {
+			out.text( ' ' );
+			this.dialect.writeAutoIncrement( out );
+		} else if ( column.getDefaultValue() != null ) {
+			out.text( " DEFAULT " ).text( column.getDefaultValue() );
+		}
+		if ( column.getNullable() == Nullable.columnNoNulls ) {
+			out.text( " NOT NULL" );
+		}
+	}
+
+
+
+	/**
+	 * Writes the clause of a primary key or a unique constraint within <code>CREATE TABLE</code> or <code>ALTER TABLE ... ADD</code>.
+	 *
+	 */
+	protected void writeUniqueConstraint( DdlWriter out, UniqueConstraint unique ) throws IOException {
+		writeConstraintName( out, unique.getSimpleName() );
+		out.text( unique instanceof PrimaryKey ? "PRIMARY KEY " : "UNIQUE " ).columns( unique.getFeatures() );
+		writeDeferability( out, unique.getDeferability() );
+	}
+
+
+
+	/**
+	 * Writes the clause of a check constraint with a body within <code>CREATE TABLE</code> or <code>ALTER TABLE ... ADD</code>.
+	 *
+	 */
+	protected void writeCheckConstraint( DdlWriter out, CheckConstraint check ) throws IOException {
+		writeConstraintName( out, check.getSimpleName() );
+		out.text( "CHECK ( " ).text( check.getBody().getBody() ).text( " )" );
+		writeDeferability( out, check.getDeferability() );
+	}
+
+
+
+	protected void writeForeignKey( DdlWriter out, ForeignKey foreignKey, Table referenced ) throws IOException {
+		writeConstraintName( out, foreignKey.getSimpleName() );
+		out.text( "FOREIGN KEY " ).columns( foreignKey.getFeatures() );
+		out.text( " REFERENCES " ).name( referenced ).text( ' ' ).columns( foreignKey.getUniqueKey().getFeatures() );
+		writeReferentialRule( out, " ON DELETE ", foreignKey.getDeleteRule() );
+		writeReferentialRule( out, " ON UPDATE ", foreignKey.getUpdateRule() );
+		writeDeferability( out, foreignKey.getDeferability() );
+	}
+
+
+
+	protected void writeAlterForeignKeys( DdlWriter out, List<ForeignKey> foreignKeys ) throws IOException {
+		for ( ForeignKey foreignKey : foreignKeys ) {
+			out.text( "ALTER TABLE " ).name( foreignKey.getNamespace() ).text( " ADD " );
+			writeForeignKey( out, foreignKey, getReferencedTable( foreignKey ) );
+			out.endStatement();
+		}
+	}
+
+
+
+	protected void writeIndex( DdlWriter out, SQLIndex index ) throws IOException {
+		Table table = index.getSpannedClass();
+		if ( table == null || index.getIndexedFeatures().isEmpty() ) {
+			out.comment( "The index: " + index.getQualifiedName() + " has no table or columns." );
+			return;
+		}
+		String filter = index.getFilterCondition();
+		if ( filter != null && filter.trim().isEmpty() ) {
+			filter = null;
+		}
+		if ( filter != null && !this.dialect.supports( DdlFeature.partialIndexes ) ) {
+			out.comment( this.dialect.getName() + " does not support partial indexes: " + index.getQualifiedName() );
+			return;
+		}
+		out.text( Boolean.TRUE.equals( index.isUnique() ) ? "CREATE UNIQUE INDEX " : "CREATE INDEX " );
+		if ( this.dialect.supports( DdlFeature.qualifiedIndexNames ) ) {
+			out.name( index );
+		} else {
+			out.identifier( index.getSimpleName() );
+		}
+		out.text( " ON " ).name( table ).text( " (" );
+		boolean comma = false;
+		for ( SQLIndexColumn indexColumn : index.getIndexedFeatures() ) {
+			out.text( comma ? ", " : " " );
+			comma = true;
+			out.identifier( indexColumn.getFeature().getSimpleName() );
+			if ( Boolean.FALSE.equals( indexColumn.isAscending() ) ) {
+				out.text( " DESC" );
+			}
+		}
+		out.text( " )" );
+		if ( filter != null ) {
+			out.text( " WHERE " ).text( filter );
+		}
+		out.endStatement();
+	}
+
+
+
+	protected void writeView( DdlWriter out, View view ) throws IOException {
+		QueryExpression query = view.getQueryExpression();
+		if ( query == null || query.getBody() == null ) {
+			out.comment( "The view: " + view.getQualifiedName() + " has no query expression." );
+			return;
+		}
+		out.text( "CREATE VIEW " ).name( view ).text( " AS" ).newLine().text( query.getBody() );
+		if ( Boolean.TRUE.equals( view.getCheckOption() ) ) {
+			out.newLine().text( "WITH CHECK OPTION" );
+		}
+		out.endStatement();
+	}
+
+
+
+	private void writeConstraintName( DdlWriter out, String name ) throws IOException {
+		if ( name != null && !name.isEmpty() ) {
+			out.text( "CONSTRAINT " ).identifier( name ).text( ' ' );
+		}
+	}
+
+
+
+	private void writeDeferability( DdlWriter out, Deferability deferability ) throws IOException {
+		if ( deferability == null || deferability == Deferability.notDeferrable || !this.dialect.supports( DdlFeature.deferrableConstraints ) ) {
+			return;
+		}
+		out.text( deferability == Deferability.initiallyDeferred ? " DEFERRABLE INITIALLY DEFERRED" : " DEFERRABLE INITIALLY IMMEDIATE" );
+	}
+
+
+
+	private static void writeReferentialRule( DdlWriter out, String event, ReferentialRule rule ) throws IOException {
+		if ( rule == null || rule == ReferentialRule.importedKeyNoAction ) {
+			return;
+		}
+		out.text( event );
+		switch ( rule ) {
+		case importedKeyCascade:    out.text( "CASCADE" );     break;
+		case importedKeySetNull:    out.text( "SET NULL" );    break;
+		case importedKeyRestrict:   out.text( "RESTRICT" );    break;
+		case importedKeySetDefault: out.text( "SET DEFAULT" ); break;
+		default:                    out.text( "NO ACTION" );   break;
+		}
+	}
+
+
+
+	static boolean hasBody( CheckConstraint check ) {
+		BooleanExpression body = check.getBody();
+
+		return body != null && body.getBody() != null;
+	}
+
+
+
+	static Table getReferencedTable( ForeignKey foreignKey ) {
+		UniqueConstraint uniqueKey = foreignKey.getUniqueKey();
+
+		return uniqueKey == null ? null : uniqueKey.getNamespace();
+	}
+
+
+
+	private static SchemaResult await( Future<SchemaResult> result ) throws IOException {
+		try {
+			return result.get();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException( "Interrupted while waiting for the DDL of a schema." );
+		} catch ( ExecutionException e ) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof IOException ) {
+				throw (IOException) cause;
+			}
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException( cause );
+		}
+	}
+
+
+
+	/**
+	 * The number of statements and the foreign keys to other Schemas of a Schema written in parallel.
+	 *
+	 */
+	private static final class SchemaResult {
+
+
+		SchemaResult( long statements, List<ForeignKey> crossing ) {
+			this.statements = statements;
+			this.crossing   = crossing;
+		}
+
+
+
+		final long statements;
+
+
+
+		final List<ForeignKey> crossing;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final SqlDialect dialect;
+}
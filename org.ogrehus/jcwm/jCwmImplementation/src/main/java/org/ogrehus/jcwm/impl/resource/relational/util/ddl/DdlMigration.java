@@ -0,0 +1,453 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
+import org.ogrehus.jcwm.api.resource.relational.CheckConstraint;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.Procedure;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.Trigger;
+import org.ogrehus.jcwm.api.resource.relational.UniqueConstraint;
+import org.ogrehus.jcwm.api.resource.relational.View;
+
+import org.ogrehus.jcwm.impl.util.diff.ChangeScript;
+import org.ogrehus.jcwm.impl.util.diff.Difference;
+
+
+/**
+ * A DdlMigration writes the statements, that migrate a database from the before model of a ChangeScript to its after model, like the
+ * Catalog of the production database to the Catalog of the next release.
+ * <p>
+ * The Differences are grouped by the element a statement is written for: a Schema, a table, a column, a constraint, an index, a view, a
+ * procedure or a trigger. A changed element without an <code>ALTER</code> statement, like a constraint, is dropped and created again. The
+ * statements are written in phases, so every statement finds the elements it depends on:
+ * </p>
+ * <ol>
+ * <li>drop the changed and removed foreign keys, constraints, indexes, views and procedures</li>
+ * <li>drop the removed columns, tables and Schemas</li>
+ * <li>rename the renamed tables and columns</li>
+ * <li>create the added Schemas and tables, add the added columns and alter the changed columns</li>
+ * <li>create the changed and added constraints, foreign keys, indexes, views, procedures and triggers</li>
+ * </ol>
+ * <p>
+ * Differences without a statement, like a changed property of a table or a distinct type, are written as comments at the end, to be migrated
+ * by hand. Data is not migrated: a narrowed column may fail on existing values.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * ChangeScript script = new ModelDiff().compare( production, release );
+ * new DdlMigration( new DdlGenerator( new PostgreSqlDialect() ) ).write( script, out );
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class DdlMigration {
+
+
+	/**
+	 * Creates a new instance of DdlMigration by specific parameters.
+	 *
+	 * @param generator Writes the created elements. Must not be <code>null</code>.
+	 *
+	 */
+	public DdlMigration( DdlGenerator generator ) {
+		if ( generator == null ) {
+			throw new NullPointerException( "Parameter: generator must not be null." );
+		}
+		this.generator = generator;
+		this.dialect   = generator.getDialect();
+	}
+
+
+
+//====================================================================================================================================================
+// DdlMigration capabilities
+//====================================================================================================================================================
+
+
+
+	public DdlGenerator getGenerator() {
+		return this.generator;
+	}
+
+
+
+	/**
+	 * Writes the statements of a ChangeScript of two relational models.
+	 *
+	 * @return The number of statements written.
+	 *
+	 * @throws IOException If the Writer fails.
+	 *
+	 */
+	public long write( ChangeScript script, Writer out ) throws IOException {
+		if ( script == null ) {
+			throw new NullPointerException( "Parameter: script must not be null." );
+		}
+		if ( out == null ) {
+			throw new NullPointerException( "Parameter: out must not be null." );
+		}
+		List<Change> changes = new ArrayList<Change>();
+		List<Difference> manual = new ArrayList<Difference>();
+		group( script, changes, manual );
+
+		DdlWriter ddl = new DdlWriter( out, this.dialect );
+		for ( Change change : changes ) {
+			if ( change.isDropped() && change.isRecreated() ) {
+				writeDrop( ddl, change );
+			}
+		}
+		for ( Change change : changes ) {
+			if ( change.removed && change.before instanceof TableColumn ) {
+				ddl.text( "ALTER TABLE " ).name( ( (TableColumn) change.before ).getOwner() );
+				ddl.text( " DROP COLUMN " ).identifier( change.before.getSimpleName() ).endStatement();
+			}
+		}
+		for ( Change change : changes ) {
+			if ( change.removed && ( change.before instanceof Table || change.before instanceof Schema ) ) {
+				writeDrop( ddl, change );
+			}
+		}
+		for ( Change change : changes ) {
+			if ( change.renamed ) {
+				writeRename( ddl, change );
+			}
+		}
+
+		List<ForeignKey> foreignKeys = new ArrayList<ForeignKey>();
+		for ( Change change : changes ) {
+			if ( !change.isRecreated() && ( change.added || change.changed && change.after instanceof TableColumn ) ) {
+				writeCreate( ddl, change, foreignKeys );
+			}
+		}
+		for ( Change change : changes ) {
+			if ( change.isCreated() && change.isRecreated() && isConstraint( change.after ) ) {
+				writeCreate( ddl, change, foreignKeys );
+			}
+		}
+		for ( Change change : changes ) {
+			if ( change.isCreated() && change.after instanceof ForeignKey ) {
+				foreignKeys.add( (ForeignKey) change.after );
+			}
+		}
+		this.generator.writeAlterForeignKeys( ddl, foreignKeys );
+		for ( Change change : changes ) {
+			if ( change.isCreated() && change.isRecreated() && !isConstraint( change.after ) && !( change.after instanceof ForeignKey ) ) {
+				writeCreate( ddl, change, foreignKeys );
+			}
+		}
+
+		for ( Difference difference : manual ) {
+			ddl.comment( "Not migrated: " + difference );
+		}
+		ddl.flush();
+
+		return ddl.getStatements();
+	}
+
+
+
+//====================================================================================================================================================
+// DdlMigration internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Groups the Differences of a script by the elements a statement is written for, in the order of the script.
+	 *
+	 * @param manual Takes the Differences without a statement.
+	 *
+	 */
+	private static void group( ChangeScript script, List<Change> changes, List<Difference> manual ) {
+		Map<ModelElement, Change> byElement = new IdentityHashMap<ModelElement, Change>();
+		for ( Difference difference : script ) {
+			ModelElement element = difference.getElement();
+			ModelElement subject = getSubject( element );
+			if ( subject == null ) {
+				manual.add( difference );
+				continue;
+			}
+			ModelElement before = difference.getBefore() == null ? script.getMatch( subject ) : getSubject( difference.getBefore() );
+			ModelElement after  = difference.getAfter()  == null ? script.getMatch( subject ) : getSubject( difference.getAfter() );
+			Change change = byElement.get( before != null ? before : after );
+			if ( change == null ) {
+				change = new Change( before, after );
+				byElement.put( before != null ? before : after, change );
+				changes.add( change );
+			}
+			if ( subject != element ) {
+				change.changed = true;
+				continue;
+			}
+			switch ( difference.getKind() ) {
+			case added:
+				change.added = true;
+				break;
+			case removed:
+				change.removed = true;
+				break;
+			case renamed:
+				change.renamed = true;
+				break;
+			default:
+				if ( subject instanceof Table || subject instanceof Schema ) {
+					manual.add( difference ); // no ALTER statement for the properties of tables and Schemas
+				} else {
+					change.changed = true;
+				}
+				break;
+			}
+		}
+	}
+
+
+
+	private void writeDrop( DdlWriter out, Change change ) throws IOException {
+		ModelElement element = change.before;
+		if ( element instanceof ForeignKey || element instanceof UniqueConstraint || element instanceof CheckConstraint ) {
+			out.text( "ALTER TABLE " ).name( (ModelElement) ( (GModelElement<?, ?, ?, ?>) element ).getNamespace() );
+			out.text( " DROP CONSTRAINT " ).identifier( element.getSimpleName() ).endStatement();
+		} else if ( element instanceof SQLIndex ) {
+			this.dialect.writeDropIndex( out, (SQLIndex) element );
+		} else if ( element instanceof View ) {
+			out.text( "DROP VIEW " ).name( element ).endStatement();
+		} else if ( element instanceof Procedure ) {
+			boolean function = AnsiSqlDialect.isFunction( ( (Procedure) element ).getType() );
+			out.text( function ? "DROP FUNCTION " : "DROP PROCEDURE " ).name( element ).endStatement();
+		} else if ( element instanceof Trigger ) {
+			out.comment( "The trigger: " + element.getQualifiedName() + " must be dropped by hand, the syntax differs too much." );
+		} else if ( element instanceof Table ) {
+			out.text( "DROP TABLE " ).name( element ).endStatement();
+		} else if ( element instanceof Schema ) {
+			out.text( "DROP SCHEMA " ).identifier( element.getSimpleName() );
+			out.text( this.dialect.supports( DdlFeature.cascadingDrops ) ? " CASCADE" : "" ).endStatement();
+		}
+	}
+
+
+
+	private void writeRename( DdlWriter out, Change change ) throws IOException {
+		if ( change.after instanceof Table ) {
+			out.text( "ALTER TABLE " ).name( change.before ).text( " RENAME TO " ).identifier( change.after.getSimpleName() ).endStatement();
+		} else if ( change.after instanceof TableColumn ) {
+			out.text( "ALTER TABLE " ).name( ( (TableColumn) change.after ).getOwner() );
+			out.text( " RENAME COLUMN " ).identifier( change.before.getSimpleName() );
+			out.text( " TO " ).identifier( change.after.getSimpleName() ).endStatement();
+		} else if ( change.after instanceof Schema ) {
+			out.comment( "The Schema: " + change.before.getSimpleName() + " must be renamed by hand to: " + change.after.getSimpleName() );
+		}
+		// any other element is dropped and created
+	}
+
+
+
+	/**
+	 * Writes an added element or the new state of a changed element.
+	 *
+	 * @param foreignKeys Takes the foreign keys of created tables, written after all tables.
+	 *
+	 */
+	private void writeCreate( DdlWriter out, Change change, List<ForeignKey> foreignKeys ) throws IOException {
+		ModelElement element = change.after;
+		if ( element instanceof Schema ) {
+			foreignKeys.addAll( this.generator.writeSchema( out, (Schema) element ) );
+		} else if ( element instanceof Table ) {
+			Table table = (Table) element;
+			Set<Table> created = Collections.emptySet(); // so every foreign key is deferred
+			this.generator.writeTable( out, table.getSchema(), table, created, foreignKeys, foreignKeys );
+		} else if ( element instanceof TableColumn && change.added ) {
+			out.text( "ALTER TABLE " ).name( ( (TableColumn) element ).getOwner() ).text( " ADD COLUMN " );
+			this.generator.writeColumn( out, (TableColumn) element );
+			out.endStatement();
+		} else if ( element instanceof TableColumn ) {
+			this.dialect.writeAlterColumn( out, (TableColumn) change.before, (TableColumn) element );
+		} else if ( element instanceof UniqueConstraint ) {
+			out.text( "ALTER TABLE " ).name( (ModelElement) ( (UniqueConstraint) element ).getNamespace() ).text( " ADD " );
+			this.generator.writeUniqueConstraint( out, (UniqueConstraint) element );
+			out.endStatement();
+		} else if ( element instanceof CheckConstraint ) {
+			if ( DdlGenerator.hasBody( (CheckConstraint) element ) ) {
+				out.text( "ALTER TABLE " ).name( (ModelElement) ( (CheckConstraint) element ).getNamespace() ).text( " ADD " );
+				this.generator.writeCheckConstraint( out, (CheckConstraint) element );
+				out.endStatement();
+			}
+		} else if ( element instanceof SQLIndex ) {
+			this.generator.writeIndex( out, (SQLIndex) element );
+		} else if ( element instanceof View ) {
+			this.generator.writeView( out, (View) element );
+		} else if ( element instanceof Procedure ) {
+			this.dialect.writeProcedure( out, (Procedure) element );
+		} else if ( element instanceof Trigger ) {
+			this.dialect.writeTrigger( out, (Trigger) element );
+		}
+	}
+
+
+
+	private static boolean isConstraint( ModelElement element ) {
+		return element instanceof UniqueConstraint || element instanceof CheckConstraint;
+	}
+
+
+
+	/**
+	 * @return The element itself or its nearest ancestor, that a statement is written for. <code>null</code> if there is none, like for a
+	 * distinct type.
+	 *
+	 */
+	private static ModelElement getSubject( ModelElement element ) {
+		for ( ModelElement current = element; current != null; current = getParent( current ) ) {
+			if ( current instanceof ForeignKey || current instanceof UniqueConstraint || current instanceof CheckConstraint
+				|| current instanceof SQLIndex || current instanceof View || current instanceof Procedure || current instanceof Trigger
+				|| current instanceof TableColumn || current instanceof Table || current instanceof Schema ) {
+				return current;
+			}
+		}
+
+		return null;
+	}
+
+
+
+	private static ModelElement getParent( ModelElement element ) {
+		if ( element instanceof GModelElement<?, ?, ?, ?> ) {
+			Object namespace = ( (GModelElement<?, ?, ?, ?>) element ).getNamespace();
+			if ( namespace instanceof ModelElement ) {
+				return (ModelElement) namespace;
+			}
+		}
+		if ( element instanceof GFeature<?, ?, ?, ?, ?> ) {
+			Object owner = ( (GFeature<?, ?, ?, ?, ?>) element ).getOwner();
+			if ( owner instanceof ModelElement ) {
+				return (ModelElement) owner;
+			}
+		}
+
+		return null;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final DdlGenerator generator;
+
+
+
+	private final SqlDialect dialect;
+
+
+
+	/**
+	 * The Differences of an element, that a statement is written for.
+	 *
+	 */
+	private static final class Change {
+
+
+		Change( ModelElement before, ModelElement after ) {
+			this.before = before;
+			this.after  = after;
+		}
+
+
+
+		/**
+		 * @return <code>true</code> if the element of the before model is dropped: removed, or changed without an <code>ALTER</code>
+		 * statement.
+		 *
+		 */
+		boolean isDropped() {
+			return this.removed || !this.added && ( this.changed || this.renamed ) && isRecreated();
+		}
+
+
+
+		/**
+		 * @return <code>true</code> if the element of the after model is created after all tables: added, or changed without an
+		 * <code>ALTER</code> statement.
+		 *
+		 */
+		boolean isCreated() {
+			return this.added || !this.removed && ( this.changed || this.renamed ) && isRecreated();
+		}
+
+
+
+		/**
+		 * @return <code>true</code> if the element has no <code>ALTER</code> statement, so it is dropped and created if it changed.
+		 *
+		 */
+		boolean isRecreated() {
+			ModelElement element = this.after != null ? this.after : this.before;
+
+			return !( element instanceof Table || element instanceof TableColumn || element instanceof Schema );
+		}
+
+
+
+		final ModelElement before;
+
+
+
+		final ModelElement after;
+
+
+
+		boolean added;
+
+
+
+		boolean removed;
+
+
+
+		boolean renamed;
+
+
+
+		boolean changed;
+	}
+}
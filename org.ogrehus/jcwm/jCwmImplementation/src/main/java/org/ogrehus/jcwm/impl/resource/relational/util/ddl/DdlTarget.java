@@ -0,0 +1,59 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+
+
+/**
+ * A DdlTarget opens a Writer for each Schema a DdlGenerator writes in parallel, like a file per Schema.
+ * <p>
+ * The scripts of the Schemas can be run in any order. The foreign keys between Schemas are written to a separate script, which must be run
+ * after the scripts of all Schemas. The DdlGenerator closes each Writer it opened.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see DdlGenerator#generate(Catalog, DdlTarget, int)
+ *
+ */
+public interface DdlTarget {
+
+
+	/**
+	 * Opens the Writer of the statements of a Schema. Called concurrently by the threads of the DdlGenerator.
+	 *
+	 */
+	Writer open( Schema schema ) throws IOException;
+
+
+
+	/**
+	 * Opens the Writer of the foreign keys between the Schemas of a Catalog. Called once after all Schemas are written.
+	 *
+	 */
+	Writer openForeignKeys( Catalog catalog ) throws IOException;
+}
@@ -0,0 +1,291 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
+import org.ogrehus.jcwm.api.resource.relational.SQLDistinctType;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.util.generic.GColumn;
+
+
+/**
+ * A DdlWriter writes the tokens of DDL statements to a Writer, the identifiers and data types in the syntax of a SqlDialect.
+ * <p>
+ * Everything is written straight to the Writer, nothing is buffered. The Writer should be buffered, like a <code>BufferedWriter</code>.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class DdlWriter {
+
+
+	/**
+	 * Creates a new instance of DdlWriter by specific parameters.
+	 *
+	 * @param out The Writer the statements are written to. Must not be <code>null</code>.
+	 *
+	 * @param dialect The syntax of identifiers and data types. Must not be <code>null</code>.
+	 *
+	 */
+	public DdlWriter( Writer out, SqlDialect dialect ) {
+		if ( out == null ) {
+			throw new NullPointerException( "Parameter: out must not be null." );
+		}
+		if ( dialect == null ) {
+			throw new NullPointerException( "Parameter: dialect must not be null." );
+		}
+		this.out     = out;
+		this.dialect = dialect;
+	}
+
+
+
+//====================================================================================================================================================
+// DdlWriter capabilities
+//====================================================================================================================================================
+
+
+
+	public SqlDialect getDialect() {
+		return this.dialect;
+	}
+
+
+
+	/**
+	 * Writes keywords or any other text as is.
+	 *
+	 */
+	public DdlWriter text( CharSequence text ) throws IOException {
+		this.out.append( text );
+
+		return this;
+	}
+
+
+
+	public DdlWriter text( char c ) throws IOException {
+		this.out.write( c );
+
+		return this;
+	}
+
+
+
+	public DdlWriter number( int number ) throws IOException {
+		this.out.write( Integer.toString( number ) );
+
+		return this;
+	}
+
+
+
+	/**
+	 * Writes a new line, indented by one tab.
+	 *
+	 */
+	public DdlWriter newLine() throws IOException {
+		this.out.write( "\n\t" );
+
+		return this;
+	}
+
+
+
+	/**
+	 * Writes an identifier quoted by the dialect.
+	 *
+	 */
+	public DdlWriter identifier( String identifier ) throws IOException {
+		this.dialect.writeIdentifier( this, identifier );
+
+		return this;
+	}
+
+
+
+	/**
+	 * Writes the name of an element, qualified by its Schema if it is owned by a Schema, like <code>"SALES"."ORDERS"</code>.
+	 *
+	 */
+	public DdlWriter name( ModelElement element ) throws IOException {
+		Schema schema = getSchema( element );
+		if ( schema != null ) {
+			identifier( schema.getSimpleName() );
+			text( '.' );
+		}
+
+		return identifier( element.getSimpleName() );
+	}
+
+
+
+	/**
+	 * Writes the names of columns in parentheses, like <code>( "ID", "NAME" )</code>.
+	 *
+	 */
+	public DdlWriter columns( Collection<? extends ModelElement> columns ) throws IOException {
+		text( "( " );
+		boolean comma = false;
+		for ( ModelElement column : columns ) {
+			if ( comma ) {
+				text( ", " );
+			} else {
+				comma = true;
+			}
+			identifier( column.getSimpleName() );
+		}
+
+		return text( " )" );
+	}
+
+
+
+	/**
+	 * Writes the data type of a column: a simple type by the dialect with the length, precision and scale of the column, any other type by its
+	 * qualified name.
+	 *
+	 * @throws IllegalArgumentException If the column has no type.
+	 *
+	 */
+	public DdlWriter dataType( GColumn<?, ?> column ) throws IOException {
+		Object type = column.getType();
+		if ( type instanceof SQLSimpleType ) {
+			this.dialect.writeSimpleType( this, (SQLSimpleType) type, column.getLength(), column.getPrecision(), column.getScale() );
+			return this;
+		}
+		if ( type instanceof ModelElement ) {
+			return dataType( (ModelElement) type );
+		}
+
+		throw new IllegalArgumentException( "The column: " + column.getQualifiedName() + " has no SQL data type." );
+	}
+
+
+
+	/**
+	 * Writes a data type: a simple type by the dialect with its own length, precision and scale, any other type by its qualified name. A
+	 * SQLDistinctType is written as its simple type if the dialect does not support distinct types.
+	 *
+	 */
+	public DdlWriter dataType( ModelElement type ) throws IOException {
+		if ( type instanceof SQLSimpleType ) {
+			this.dialect.writeSimpleType( this, (SQLSimpleType) type, null, null, null );
+			return this;
+		}
+		if ( type instanceof SQLDistinctType && !this.dialect.supports( DdlFeature.distinctTypes ) ) {
+			SQLDistinctType distinctType = (SQLDistinctType) type;
+			this.dialect.writeSimpleType(
+				this, distinctType.getSqlSimpleType(), distinctType.getLength(), distinctType.getPrecision(), distinctType.getScale()
+			);
+			return this;
+		}
+
+		return name( type );
+	}
+
+
+
+	/**
+	 * Writes a single line comment, like <code>-- text</code>.
+	 *
+	 */
+	public DdlWriter comment( CharSequence comment ) throws IOException {
+		text( "-- " );
+		text( comment );
+
+		return text( '\n' );
+	}
+
+
+
+	/**
+	 * Ends a statement by a semicolon and an empty line.
+	 *
+	 */
+	public DdlWriter endStatement() throws IOException {
+		this.out.write( ";\n\n" );
+		this.statements++;
+
+		return this;
+	}
+
+
+
+	/**
+	 * @return The number of statements written so far.
+	 *
+	 */
+	public long getStatements() {
+		return this.statements;
+	}
+
+
+
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+
+
+
+//====================================================================================================================================================
+// DdlWriter internals
+//====================================================================================================================================================
+
+
+
+	private static Schema getSchema( ModelElement element ) {
+		if ( element instanceof GModelElement<?, ?, ?, ?> ) {
+			Object namespace = ( (GModelElement<?, ?, ?, ?>) element ).getNamespace();
+			if ( namespace instanceof Schema ) {
+				return (Schema) namespace;
+			}
+		}
+
+		return null;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final Writer out;
+
+
+
+	private final SqlDialect dialect;
+
+
+
+	private long statements = 0;
+}
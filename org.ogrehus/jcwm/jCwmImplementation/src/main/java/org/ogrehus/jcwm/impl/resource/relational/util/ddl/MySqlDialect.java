@@ -0,0 +1,151 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.EnumSet;
+
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.util.Nullable;
+
+
+/**
+ * The SqlDialect of MySQL.
+ * <p>
+ * MySQL has neither user defined types nor deferrable constraints, partial indexes or statement triggers, so the DdlGenerator writes comments
+ * for them. Identifiers are quoted by backticks.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class MySqlDialect
+extends
+	AnsiSqlDialect
+{
+
+
+	public MySqlDialect() {
+		super( "MySQL", '`', '`', EnumSet.noneOf( DdlFeature.class ) );
+	}
+
+
+
+//====================================================================================================================================================
+// SqlDialect capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public void writeAutoIncrement( DdlWriter out ) throws IOException {
+		out.text( "AUTO_INCREMENT" );
+	}
+
+
+
+	/**
+	 * Writes a single <code>ALTER TABLE ... MODIFY COLUMN</code> statement with the complete definition of the column, cause MySQL can't alter
+	 * the data type or the nullability alone.
+	 *
+	 */
+	@Override
+	public void writeAlterColumn( DdlWriter out, TableColumn before, TableColumn after ) throws IOException {
+		String dataType     = getDataType( after );
+		String defaultValue = after.getDefaultValue();
+		boolean notNull     = after.getNullable() == Nullable.columnNoNulls;
+		if ( dataType == null
+			|| dataType.equals( getDataType( before ) )
+			&& notNull == ( before.getNullable() == Nullable.columnNoNulls )
+			&& ( defaultValue == null ? before.getDefaultValue() == null : defaultValue.equals( before.getDefaultValue() ) )
+		) {
+			return;
+		}
+		out.text( "ALTER TABLE " ).name( after.getOwner() ).text( " MODIFY COLUMN " ).identifier( after.getSimpleName() ).text( ' ' ).text( dataType );
+		if ( Boolean.TRUE.equals( after.isAutoIncrement() ) ) {
+			out.text( ' ' );
+			writeAutoIncrement( out );
+		} else if ( defaultValue != null ) {
+			out.text( " DEFAULT " ).text( defaultValue );
+		}
+		if ( notNull ) {
+			out.text( " NOT NULL" );
+		}
+		out.endStatement();
+	}
+
+
+
+	/**
+	 * Writes <code>DROP INDEX ... ON</code> and the table, cause an index of MySQL is named within its table.
+	 *
+	 */
+	@Override
+	public void writeDropIndex( DdlWriter out, SQLIndex index ) throws IOException {
+		out.text( "DROP INDEX " ).identifier( index.getSimpleName() ).text( " ON " ).name( index.getSpannedClass() ).endStatement();
+	}
+
+
+
+//====================================================================================================================================================
+// AnsiSqlDialect capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	protected String getTypeName( int typeNumber, SQLSimpleType type ) {
+		switch ( typeNumber ) {
+		case Types.TINYINT:                 return "TINYINT";
+		case Types.DOUBLE:                  return "DOUBLE";
+		case Types.CHAR:                    return "CHAR";
+		case Types.VARCHAR:                 return "VARCHAR";
+		case Types.NCHAR:                   return "NCHAR";
+		case Types.NVARCHAR:                return "NVARCHAR";
+		case Types.LONGVARCHAR:
+		case Types.CLOB:
+		case Types.LONGNVARCHAR:
+		case Types.NCLOB:
+		case Types.SQLXML:                  return "LONGTEXT";
+		case Types.VARBINARY:               return "VARBINARY";
+		case Types.LONGVARBINARY:
+		case Types.BLOB:                    return "LONGBLOB";
+		case Types.TIMESTAMP:               return "DATETIME";
+		case Types.TIMESTAMP_WITH_TIMEZONE: return "TIMESTAMP";
+		default:                            return super.getTypeName( typeNumber, type );
+		}
+	}
+
+
+
+	/**
+	 * @return Nothing, cause MySQL has no time zone types. A <code>TIMESTAMP</code> is stored in UTC, a <code>TIME</code> without zone.
+	 *
+	 */
+	@Override
+	protected String getTypeSuffix( int typeNumber ) {
+		return "";
+	}
+}
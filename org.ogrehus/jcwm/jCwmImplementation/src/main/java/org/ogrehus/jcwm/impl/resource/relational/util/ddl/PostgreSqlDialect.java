@@ -0,0 +1,147 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.EnumSet;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ProcedureExpression;
+import org.ogrehus.jcwm.api.resource.relational.Procedure;
+import org.ogrehus.jcwm.api.resource.relational.SQLDistinctType;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.SQLStructuredType;
+import org.ogrehus.jcwm.api.resource.relational.Trigger;
+
+
+/**
+ * The SqlDialect of PostgreSQL.
+ * <p>
+ * SQLDistinctTypes are created as domains, triggers execute the function named by their action statement and the bodies of routines are
+ * dollar quoted with the language of their ProcedureExpression.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class PostgreSqlDialect
+extends
+	AnsiSqlDialect
+{
+
+
+	public PostgreSqlDialect() {
+		super( "PostgreSQL", '"', '"', EnumSet.complementOf( EnumSet.of( DdlFeature.qualifiedIndexNames ) ) );
+	}
+
+
+
+//====================================================================================================================================================
+// SqlDialect capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public void writeDistinctType( DdlWriter out, SQLDistinctType distinctType ) throws IOException {
+		out.text( "CREATE DOMAIN " ).name( distinctType ).text( " AS " );
+		writeSimpleType( out, distinctType.getSqlSimpleType(), distinctType.getLength(), distinctType.getPrecision(), distinctType.getScale() );
+		out.endStatement();
+	}
+
+
+
+//====================================================================================================================================================
+// AnsiSqlDialect capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	protected String getTypeName( int typeNumber, SQLSimpleType type ) {
+		switch ( typeNumber ) {
+		case Types.BIT:                     return "BOOLEAN";
+		case Types.LONGVARCHAR:
+		case Types.CLOB:
+		case Types.LONGNVARCHAR:
+		case Types.NCLOB:                   return "TEXT";
+		case Types.NCHAR:                   return "CHARACTER";
+		case Types.NVARCHAR:                return "CHARACTER VARYING";
+		case Types.BINARY:
+		case Types.VARBINARY:
+		case Types.LONGVARBINARY:
+		case Types.BLOB:                    return "BYTEA";
+		default:                            return super.getTypeName( typeNumber, type );
+		}
+	}
+
+
+
+	@Override
+	protected TypeArguments getTypeArguments( int typeNumber ) {
+		switch ( typeNumber ) {
+		case Types.BINARY:
+		case Types.VARBINARY:               return TypeArguments.none;
+		default:                            return super.getTypeArguments( typeNumber );
+		}
+	}
+
+
+
+	@Override
+	protected void writeStructuredTypeOptions( DdlWriter out, SQLStructuredType structuredType ) throws IOException {
+		// PostgreSQL composite types have no options
+	}
+
+
+
+	/**
+	 * Writes the simple name of the trigger, cause a trigger is created in the Schema of its table.
+	 *
+	 */
+	@Override
+	protected void writeTriggerName( DdlWriter out, Trigger trigger ) throws IOException {
+		out.identifier( trigger.getSimpleName() );
+	}
+
+
+
+	/**
+	 * Writes <code>EXECUTE FUNCTION</code> and the action statement, the call of the trigger function like <code>audit_orders()</code>.
+	 *
+	 */
+	@Override
+	protected void writeTriggerAction( DdlWriter out, Trigger trigger, ProcedureExpression statement ) throws IOException {
+		out.text( "EXECUTE FUNCTION " ).text( statement.getBody() );
+	}
+
+
+
+	@Override
+	protected void writeRoutineBody( DdlWriter out, Procedure procedure, ProcedureExpression body ) throws IOException {
+		String text     = body.getBody();
+		String language = body.getLanguage();
+		String quote    = text.indexOf( "$$" ) < 0 ? "$$" : "$body$";
+		out.newLine().text( "LANGUAGE " ).text( language == null || language.isEmpty() ? "sql" : language );
+		out.newLine().text( "AS " ).text( quote ).text( text ).text( quote );
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import java.io.IOException;
+
+import org.ogrehus.jcwm.api.resource.relational.Procedure;
+import org.ogrehus.jcwm.api.resource.relational.SQLDistinctType;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.SQLStructuredType;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.Trigger;
+
+
+/**
+ * A SqlDialect adapts the statements written by a DdlGenerator to a database product.
+ * <p>
+ * The DdlGenerator writes the statements every product shares, a dialect writes identifiers, data types and the statements that differ between
+ * the products. Dialects are stateless and can be shared by threads. Custom dialects usually extend {@link AnsiSqlDialect}.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see AnsiSqlDialect
+ * @see PostgreSqlDialect
+ * @see MySqlDialect
+ *
+ */
+public interface SqlDialect {
+
+
+	/**
+	 * @return The name of the database product, like <code>PostgreSQL</code>.
+	 *
+	 */
+	String getName();
+
+
+
+	/**
+	 * @return <code>true</code> if statements or clauses of a feature can be written, <code>false</code> otherwise.
+	 *
+	 */
+	Boolean supports( DdlFeature feature );
+
+
+
+	/**
+	 * Writes a quoted identifier, like <code>"ORDER"</code>.
+	 *
+	 */
+	void writeIdentifier( DdlWriter out, String identifier ) throws IOException;
+
+
+
+	/**
+	 * Writes a simple data type, like <code>DECIMAL(12,2)</code>.
+	 *
+	 * @param length    The length of the column, or <code>null</code> for the length of the type.
+	 * @param precision The precision of the column, or <code>null</code> for the precision of the type.
+	 * @param scale     The scale of the column, or <code>null</code> for the scale of the type.
+	 *
+	 */
+	void writeSimpleType( DdlWriter out, SQLSimpleType type, Integer length, Integer precision, Integer scale ) throws IOException;
+
+
+
+	/**
+	 * Writes the clause of a column whose values are generated, like <code>GENERATED BY DEFAULT AS IDENTITY</code>.
+	 *
+	 */
+	void writeAutoIncrement( DdlWriter out ) throws IOException;
+
+
+
+	/**
+	 * Writes the complete statement of a SQLDistinctType, only called if {@link DdlFeature#distinctTypes} is supported.
+	 *
+	 */
+	void writeDistinctType( DdlWriter out, SQLDistinctType distinctType ) throws IOException;
+
+
+
+	/**
+	 * Writes the complete statement of a SQLStructuredType, only called if {@link DdlFeature#structuredTypes} is supported.
+	 *
+	 */
+	void writeStructuredType( DdlWriter out, SQLStructuredType structuredType ) throws IOException;
+
+
+
+	/**
+	 * Writes the complete statement of a Trigger.
+	 *
+	 */
+	void writeTrigger( DdlWriter out, Trigger trigger ) throws IOException;
+
+
+
+	/**
+	 * Writes the complete statement of a Procedure, a procedure or a function depending on its type.
+	 *
+	 */
+	void writeProcedure( DdlWriter out, Procedure procedure ) throws IOException;
+
+
+
+	/**
+	 * Writes the complete statements, that alter the data type, the nullability and the default value of a column from the before model to the
+	 * after model. Nothing is written if they are equal.
+	 *
+	 * @see DdlMigration
+	 *
+	 */
+	void writeAlterColumn( DdlWriter out, TableColumn before, TableColumn after ) throws IOException;
+
+
+
+	/**
+	 * Writes the complete statement dropping a SQLIndex.
+	 *
+	 * @see DdlMigration
+	 *
+	 */
+	void writeDropIndex( DdlWriter out, SQLIndex index ) throws IOException;
+}
@@ -0,0 +1,48 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+/**
+ * Classifies the arguments written after the name of a SQL data type.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>none</code> - The type has no arguments, like <code>INTEGER</code>.</li>
+ * <li><code>length</code> - The maximum length, like <code>VARCHAR(40)</code>.</li>
+ * <li><code>precision</code> - The precision, like <code>FLOAT(53)</code>.</li>
+ * <li><code>fractionalSeconds</code> - The digits of the fractional seconds, like <code>TIMESTAMP(6)</code>. Taken from the scale of a column,
+ * cause JDBC reports the display size of a datetime column as its precision.</li>
+ * <li><code>precisionAndScale</code> - The precision and the scale, like <code>DECIMAL(12,2)</code>.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum TypeArguments {
+	  none
+	, length
+	, precision
+	, fractionalSeconds
+	, precisionAndScale
+	;
+}
@@ -41,6 +41,8 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmClass;
 import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunAttribute;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -132,7 +134,9 @@ implements
 
 
 	public Nullable getNullable() {
-		return this.isNullable;
+		int bits = getBits( NULLABLE_BITS );
+
+		return bits == 0 ? null : NULLABLE[ bits - 1 ];
 	}
 
 
@@ -144,7 +148,7 @@ implements
 
 
 	public Integer getLength() {
-		if ( this.length == null ) {
+		if ( this.length == UNSET ) {
 			if ( this.type instanceof SqlTypeCharacters ) {
 				SqlTypeCharacters characterType = (SqlTypeCharacters)this.type;
 				if ( characterType.getCharacterOctetLength() != null ) {
@@ -155,13 +159,13 @@ implements
 			}
 		}
 
-		return this.length;		
+		return toInteger( this.length );		
 	}
 
 
 
 	public Integer getPrecision() {
-		if ( this.precision == null ) {
+		if ( this.precision == UNSET ) {
 			if ( this.type instanceof SqlTypeNumeric ) {
 				return ((SqlTypeNumeric)this.type).getNumericPrecision();
 			}
@@ -172,18 +176,18 @@ implements
 			}
 		}
 
-		return this.precision;
+		return toInteger( this.precision );
 	}
 
 
 
 	public Integer getScale() {
-		if ( this.scale == null ) {
+		if ( this.scale == UNSET ) {
 			if ( this.type instanceof SqlTypeScaled ) {
 				return Integer.valueOf( ((SqlTypeScaled)this.type).getNumericScale() );
 			}
 		}
-		return this.scale;
+		return toInteger( this.scale );
 	}
 
 
@@ -195,8 +199,10 @@ implements
 
 
 	public String setCharacterSetName( String characterSetName ) {
+		checkMutable();
 		String old = this.characterSetName;
 		this.characterSetName = characterSetName;
+		fireChange( ModelChangeKind.propertyChanged, "characterSetName", old, characterSetName );
 
 		return old;
 	}
@@ -204,8 +210,10 @@ implements
 
 
 	public String setCollationName( String collationName ) {
+		checkMutable();
 		String old = this.collationName;
 		this.collationName = collationName;
+		fireChange( ModelChangeKind.propertyChanged, "collationName", old, collationName );
 
 		return old;
 	}
@@ -213,8 +221,10 @@ implements
 
 
 	public Integer setLength( Integer length ) {
-		Integer old = this.length;
-		this.length = length;
+		checkMutable();
+		Integer old = toInteger( this.length );
+		this.length = toInt( length );
+		fireChange( ModelChangeKind.propertyChanged, "length", old, length );
 
 		return old;
 	}
@@ -222,8 +232,10 @@ implements
 
 
 	public Nullable setNullable( Nullable nullable ) {
-		Nullable old = this.isNullable;
-		this.isNullable = nullable;
+		checkMutable();
+		Nullable old = getNullable();
+		setBits( NULLABLE_BITS, nullable == null ? 0 : nullable.ordinal() + 1 );
+		fireChange( ModelChangeKind.propertyChanged, "isNullable", old, nullable );
 
 		return old;
 	}
@@ -304,7 +316,7 @@ implements
 
 
 	public Boolean isAutoIncrement() {
-		return this.autoIncrement;
+		return getFlag( AUTO_INCREMENT_FLAG );
 	}
 
 
@@ -313,14 +325,19 @@ implements
 		if ( isAutoIncrement == null ) {
 			return setAutoIncrement( (Boolean)null );
 		}
-		return this.autoIncrement = "YES".equals( isAutoIncrement );
+		Boolean autoIncrement = "YES".equals( isAutoIncrement );
+		setAutoIncrement( autoIncrement );
+
+		return autoIncrement;
 	}
 
 
 
 	public Boolean setAutoIncrement( Boolean isAutoIncrement ) {
-		Boolean old = this.autoIncrement;
-		this.autoIncrement = isAutoIncrement;
+		checkMutable();
+		Boolean old = getFlag( AUTO_INCREMENT_FLAG );
+		setFlag( AUTO_INCREMENT_FLAG, isAutoIncrement );
+		fireChange( ModelChangeKind.propertyChanged, "autoIncrement", old, isAutoIncrement );
 
 		return old;
 	}
@@ -328,8 +345,10 @@ implements
 
 
 	public String setDefaultValue( String defaultValue ) {
+		checkMutable();
 		String old = this.defaultValue;
 		this.defaultValue = defaultValue;
+		fireChange( ModelChangeKind.propertyChanged, "defaultValue", old, defaultValue );
 
 		return old;
 	}
@@ -337,8 +356,10 @@ implements
 
 
 	public Integer setPrecision( Integer precision ) {
-		Integer old = this.precision;
-		this.precision = precision;
+		checkMutable();
+		Integer old = toInteger( this.precision );
+		this.precision = toInt( precision );
+		fireChange( ModelChangeKind.propertyChanged, "precision", old, precision );
 
 		return old;
 	}
@@ -346,8 +367,10 @@ implements
 
 
 	public Integer setScale( Integer scale ) {
-		Integer old = this.scale;
-		this.scale = scale;
+		checkMutable();
+		Integer old = toInteger( this.scale );
+		this.scale = toInt( scale );
+		fireChange( ModelChangeKind.propertyChanged, "scale", old, scale );
 
 		return old;
 	}
@@ -355,8 +378,10 @@ implements
 
 
 	public SQLDataType<?, ?> setType( SQLDistinctType sqlDistinctType ) {
+		checkMutable();
 		SQLDataType<?, ?> old = this.type;
 		this.type = sqlDistinctType;
+		fireChange( ModelChangeKind.propertyChanged, "type", old, sqlDistinctType );
 
 		return old;
 	}
@@ -364,8 +389,10 @@ implements
 
 
 	public SQLDataType<?, ?> setType( SQLSimpleType sqlSimpleType ) {
+		checkMutable();
 		SQLDataType<?, ?> old = this.type;
 		this.type = sqlSimpleType;
+		fireChange( ModelChangeKind.propertyChanged, "type", old, sqlSimpleType );
 
 		return old;
 	}
@@ -373,8 +400,10 @@ implements
 
 
 	public SQLDataType<?, ?> setType( SQLStructuredType sqlStructuredType ) {
+		checkMutable();
 		SQLDataType<?, ?> old = this.type;
 		this.type = sqlStructuredType;
+		fireChange( ModelChangeKind.propertyChanged, "type", old, sqlStructuredType );
 
 		return old;
 	}
@@ -388,44 +417,42 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunColumn" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunColumn" );
 		if ( this.characterSetName != null ) {
-			out.append( " | characterSetName=" + this.characterSetName );
+			out.property( "characterSetName", this.characterSetName );
 		}
 		if ( this.collationName != null ) {
-			out.append( " | collationName=" + this.collationName );  
+			out.property( "collationName", this.collationName );  
 		}
-		if ( this.isNullable != null ) {
-			out.append( " | isNullable=" + this.isNullable );  
+		if ( getNullable() != null ) {
+			out.property( "isNullable", getNullable() );  
 		}
 		if ( getLength() != null ) {
-			out.append( " | length=" + getLength() );  
+			out.property( "length", getLength() );  
 		}
 		if ( getPrecision() != null ) {
-			out.append( " | precision=" + getPrecision() );  
+			out.property( "precision", getPrecision() );  
 		}
 		if ( getScale() != null ) {
-			out.append( " | scale=" + getScale() );  
+			out.property( "scale", getScale() );  
 		}
-		if ( this.autoIncrement != null ) {
-			out.append( " | autoIncrement=" + this.autoIncrement );  
+		if ( getFlag( AUTO_INCREMENT_FLAG ) != null ) {
+			out.property( "autoIncrement", getFlag( AUTO_INCREMENT_FLAG ) );  
 		}
 		if ( this.defaultValue != null ) {
-			out.append( " | defaultValue=" + this.defaultValue );  
+			out.property( "defaultValue", this.defaultValue );  
 		}
 		if ( this.referencedTableType != null ) {
-			out.append( " | referencedTableType=" + this.referencedTableType );  
+			out.property( "referencedTableType", this.referencedTableType );  
 		}
 		if ( this.referencedTableType != null ) {
-			out.append( " | optionScopeColumnSet=" + this.optionScopeColumnSet );
-			out.append( "<" + optionScopeColumnSet.getClass().getSimpleName() + ">" );            
+			out.property( "optionScopeColumnSet", this.optionScopeColumnSet );
+			out.type( optionScopeColumnSet );            
 		}
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -486,7 +513,11 @@ implements
 	 * </ul>
 	 * 
 	 */
-	protected Nullable isNullable = null;
+	protected static final int NULLABLE_BITS = 18;
+
+
+
+	private static final Nullable[] NULLABLE = Nullable.values();
 
 
 
@@ -505,7 +536,7 @@ implements
 	 * </ul>
 	 * 
 	 */
-	protected Integer length = null;
+	protected int length = UNSET;
 
 
 
@@ -529,7 +560,7 @@ implements
 	 * </ul> 
 	 * 
 	 */
-	protected Integer precision = null;
+	protected int precision = UNSET;
 
 
 
@@ -545,11 +576,11 @@ implements
 	 * </ul>
 	 * 
 	 */
-	protected Integer scale = null;
+	protected int scale = UNSET;
 
 
 
-	protected Boolean autoIncrement = null;
+	protected static final int AUTO_INCREMENT_FLAG = 20;
 
 
 
@@ -31,6 +31,7 @@ import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
 import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
 import org.ogrehus.jcwm.api.resource.relational.util.generic.GColumn;
 import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunCwmClass;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
 
 
 /**
@@ -93,12 +94,10 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunColumnSet" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunColumnSet" );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 }
\ No newline at end of file
@@ -33,6 +33,10 @@ import org.ogrehus.jcwm.api.resource.relational.Schema;
 import org.ogrehus.jcwm.api.resource.relational.Trigger;
 import org.ogrehus.jcwm.api.resource.relational.util.generic.GColumn;
 
+import org.ogrehus.jcwm.impl.resource.relational.util.ColumnSetLoader;
+import org.ogrehus.jcwm.impl.resource.relational.util.ColumnSetPart;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+
 
 /**
  * A cataloged set of columns, which may be Table or View.
@@ -231,6 +235,55 @@ implements
 
 
 
+//====================================================================================================================================================
+// Loading capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Makes this NamedColumnSet a stub, whose columns and keys are loaded by a ColumnSetLoader on the first access, like from the
+	 * DatabaseMetaData of a live database.
+	 *
+	 * @param loader The loader called before a part of this NamedColumnSet is read, <code>null</code> if everything is in the model.
+	 *
+	 * @return Old value of the property <code>loader</code>. Can be <code>null</code>.
+	 *
+	 */
+	public ColumnSetLoader setLoader( ColumnSetLoader loader ) {
+		ColumnSetLoader old = this.loader;
+		this.loader = loader;
+
+		return old;
+	}
+
+
+
+	/**
+	 * @return The loader called before a part of this NamedColumnSet is read, <code>null</code> if everything is in the model.
+	 *
+	 */
+	public ColumnSetLoader getLoader() {
+		return this.loader;
+	}
+
+
+
+	/**
+	 * Loads a part of this NamedColumnSet, if it has a loader. Called by the getters of the part.
+	 *
+	 * @throws IllegalStateException Is thrown if the part could not be loaded.
+	 *
+	 */
+	protected void load( ColumnSetPart part ) {
+		ColumnSetLoader current = this.loader;
+		if ( current != null ) {
+			current.load( this, part );
+		}
+	}
+
+
+
 //====================================================================================================================================================
 // Object capabilities
 //====================================================================================================================================================
@@ -238,18 +291,16 @@ implements
 
 
 	@Override
-	public String toString() {
-		StringBuffer out = new StringBuffer( "[GFunNamedColumnSet" );
+	public void describe( ModelDescription out ) {
+		out.append( "[GFunNamedColumnSet" );
 		if ( this.type != null ) {
-			out.append( " | type=" + this.type.getQualifiedName() );
+			out.property( "type", this.type );
 		}
-		out.append( collectionToString( "usingTriggers", this.usingTriggers, true ) );        
-		out.append( collectionToString( "optionScopeColumns", this.optionScopeColumns, true ) );
+		out.elements( "usingTriggers", this.usingTriggers, true );        
+		out.elements( "optionScopeColumns", this.optionScopeColumns, true );
 		out.append( " |\nextends: " );
-		out.append( super.toString() );
+		super.describe( out );
 		out.append( "]" );
-
-		return out.toString();
 	}
 
 
@@ -314,4 +365,12 @@ implements
 	 * 
 	 */
 	protected Set<Column> optionScopeColumns = null;
+
+
+
+	/**
+	 * Loads the columns and keys of this NamedColumnSet on demand, <code>null</code> if everything is in the model. Not part of the CWM.
+	 *
+	 */
+	private volatile ColumnSetLoader loader = null;
 }
\ No newline at end of file
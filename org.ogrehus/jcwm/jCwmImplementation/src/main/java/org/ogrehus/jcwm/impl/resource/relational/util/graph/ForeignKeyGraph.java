@@ -0,0 +1,656 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.UniqueConstraint;
+
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+
+
+/**
+ * A ForeignKeyGraph indexes the ForeignKeys between all Tables of the Schemas of a Catalog.
+ * <p>
+ * Each ForeignKey is an edge from its owning Table to the Table owning the referenced UniqueConstraint. The index answers which ForeignKeys leave
+ * or reach a Table, finds the shortest join paths between two Tables and clusters the Tables into groups that are connected by joins.
+ * </p>
+ * <p>
+ * The index is built once and then maintained by the changes of the model: adding or removing Schemas, Tables, ForeignKeys and UniqueConstraints
+ * and changing the UniqueConstraint of a ForeignKey updates only the affected edges. So a query builder can ask for join paths on every
+ * keystroke without rescanning the Catalog.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ForeignKeyGraph
+implements
+	ModelChangeListener
+{
+
+
+	private ForeignKeyGraph( Catalog catalog ) {
+		this.catalog = catalog;
+	}
+
+
+
+//====================================================================================================================================================
+// ForeignKeyGraph capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Creates a new instance of ForeignKeyGraph, registers it for changes of the model and indexes the Schemas of the Catalog under the lock of
+	 * the graph. A change made while the Schemas are indexed waits for the lock and is applied afterwards, a change of a Table not indexed yet
+	 * is ignored, the Table is indexed as it is then.
+	 *
+	 * @param catalog The Catalog whose Tables are indexed. Must not be <code>null</code>.
+	 *
+	 */
+	public static ForeignKeyGraph open( Catalog catalog ) {
+		if ( catalog == null ) {
+			throw new NullPointerException( "Parameter: catalog must not be null." );
+		}
+		ForeignKeyGraph graph = new ForeignKeyGraph( catalog );
+		ModelChangeSupport.addListener( graph );
+		synchronized ( graph ) {
+			for ( Schema schema : catalog.getSchemas() ) {
+				graph.addSchema( schema );
+			}
+		}
+
+		return graph;
+	}
+
+
+
+	public Catalog getCatalog() {
+		return this.catalog;
+	}
+
+
+
+	/**
+	 * @return All indexed Tables. Can't be <code>null</code>, but an empty Set.
+	 *
+	 */
+	public synchronized Set<Table> getTables() {
+		return Collections.unmodifiableSet( new LinkedHashSet<Table>( this.outgoing.keySet() ) );
+	}
+
+
+
+	/**
+	 * @param table A Table.
+	 *
+	 * @return <code>true</code> if the Table is owned by a Schema of the indexed Catalog.
+	 *
+	 */
+	public synchronized Boolean contains( Table table ) {
+		return this.outgoing.containsKey( table );
+	}
+
+
+
+	/**
+	 * @param table The referencing Table.
+	 *
+	 * @return The ForeignKeys owned by the Table. Can't be <code>null</code>, but an empty Set.
+	 *
+	 */
+	public synchronized Set<ForeignKey> getOutgoing( Table table ) {
+		return copyOf( this.outgoing.get( table ) );
+	}
+
+
+
+	/**
+	 * @param table The referenced Table.
+	 *
+	 * @return The ForeignKeys of all indexed Tables that reference a UniqueConstraint of the Table. Can't be <code>null</code>, but an empty Set.
+	 *
+	 */
+	public synchronized Set<ForeignKey> getIncoming( Table table ) {
+		return copyOf( this.incoming.get( table ) );
+	}
+
+
+
+	/**
+	 * @param foreignKey An indexed ForeignKey.
+	 *
+	 * @return The Table owning the UniqueConstraint referenced by the ForeignKey. Can be <code>null</code>, if the ForeignKey is not indexed or
+	 * its UniqueConstraint is not owned by a Table.
+	 *
+	 */
+	public synchronized Table getReferencedTable( ForeignKey foreignKey ) {
+		return this.targets.get( foreignKey );
+	}
+
+
+
+	/**
+	 * Finds one of the shortest join paths between two Tables.
+	 *
+	 * @param from The first Table of the path.
+	 *
+	 * @param to The last Table of the path.
+	 *
+	 * @return A path with the least number of joins. Can be <code>null</code>, if the Tables are not connected.
+	 *
+	 */
+	public synchronized JoinPath getJoinPath( Table from, Table to ) {
+		if ( !this.outgoing.containsKey( from ) || !this.outgoing.containsKey( to ) ) {
+			return null;
+		}
+
+		return findPath( from, to, Collections.<Table>emptySet(), Collections.<ForeignKey>emptySet() );
+	}
+
+
+
+	/**
+	 * Finds the <code>k</code> shortest join paths between two Tables.
+	 * <p>
+	 * The paths are found by Yen's algorithm: every further path deviates from one of the paths found before at one of its Tables, so only
+	 * paths that are candidates for the next rank are searched. Paths joining the same Tables by different ForeignKeys are different paths.
+	 * </p>
+	 *
+	 * @param from The first Table of the paths.
+	 *
+	 * @param to The last Table of the paths.
+	 *
+	 * @param k The maximum number of paths. Must not be negative.
+	 *
+	 * @return Up to <code>k</code> paths ordered by their number of joins. Can't be <code>null</code>, but an empty List.
+	 *
+	 */
+	public synchronized List<JoinPath> getJoinPaths( Table from, Table to, int k ) {
+		if ( k < 0 ) {
+			throw new IllegalArgumentException( "Parameter: k must not be negative, but is " + k + "." );
+		}
+		List<JoinPath> found = new ArrayList<JoinPath>();
+		JoinPath shortest = k == 0 ? null : getJoinPath( from, to );
+		if ( shortest == null ) {
+			return found;
+		}
+		found.add( shortest );
+
+		List<JoinPath> candidates = new ArrayList<JoinPath>();
+		Set<JoinPath> known = new HashSet<JoinPath>( found );
+		while ( found.size() < k ) {
+			JoinPath previous = found.get( found.size() - 1 );
+			for ( int spur = 0; spur < previous.getLength(); spur++ ) {
+				List<ForeignKey> root = previous.getForeignKeys().subList( 0, spur );
+
+				Set<ForeignKey> blockedForeignKeys = new HashSet<ForeignKey>();
+				for ( JoinPath path : found ) {
+					if ( path.getLength() > spur && path.getForeignKeys().subList( 0, spur ).equals( root ) ) {
+						blockedForeignKeys.add( path.getForeignKeys().get( spur ) );
+					}
+				}
+				Set<Table> blockedTables = new HashSet<Table>( previous.getTables().subList( 0, spur ) );
+
+				JoinPath deviation = findPath( previous.getTables().get( spur ), to, blockedTables, blockedForeignKeys );
+				if ( deviation != null ) {
+					List<Table> tables = new ArrayList<Table>( previous.getTables().subList( 0, spur ) );
+					tables.addAll( deviation.getTables() );
+					List<ForeignKey> foreignKeys = new ArrayList<ForeignKey>( root );
+					foreignKeys.addAll( deviation.getForeignKeys() );
+					JoinPath candidate = new JoinPath( tables, foreignKeys );
+					if ( known.add( candidate ) ) {
+						candidates.add( candidate );
+					}
+				}
+			}
+			if ( candidates.isEmpty() ) {
+				break;
+			}
+
+			int best = 0;
+			for ( int i = 1; i < candidates.size(); i++ ) {
+				if ( candidates.get( i ).getLength() < candidates.get( best ).getLength() ) {
+					best = i;
+				}
+			}
+			found.add( candidates.remove( best ) );
+		}
+
+		return found;
+	}
+
+
+
+	/**
+	 * Clusters the indexed Tables into groups of Tables that can be joined with each other.
+	 *
+	 * @return The connected components of the graph, ignoring the direction of the ForeignKeys. Can't be <code>null</code>, but an empty List.
+	 *
+	 */
+	public synchronized List<Set<Table>> getComponents() {
+		if ( this.components == null ) {
+			List<Set<Table>> result = new ArrayList<Set<Table>>();
+			Set<Table> visited = new HashSet<Table>();
+			ArrayDeque<Table> open = new ArrayDeque<Table>();
+			for ( Table start : this.outgoing.keySet() ) {
+				if ( !visited.add( start ) ) {
+					continue;
+				}
+				Set<Table> component = new LinkedHashSet<Table>();
+				open.add( start );
+				while ( !open.isEmpty() ) {
+					Table table = open.poll();
+					component.add( table );
+					for ( ForeignKey foreignKey : getJoins( table ) ) {
+						Table neighbour = getOpposite( foreignKey, table );
+						if ( neighbour != null && this.outgoing.containsKey( neighbour ) && visited.add( neighbour ) ) {
+							open.add( neighbour );
+						}
+					}
+				}
+				result.add( Collections.unmodifiableSet( component ) );
+			}
+			this.components = Collections.unmodifiableList( result );
+		}
+
+		return this.components;
+	}
+
+
+
+	/**
+	 * @param table An indexed Table.
+	 *
+	 * @return The Tables that can be joined with the Table, including the Table itself. Can't be <code>null</code>, but an empty Set.
+	 *
+	 */
+	public synchronized Set<Table> getComponent( Table table ) {
+		for ( Set<Table> component : getComponents() ) {
+			if ( component.contains( table ) ) {
+				return component;
+			}
+		}
+
+		return Collections.emptySet();
+	}
+
+
+
+	/**
+	 * Cancels the registration for changes of the model. The index stays available, but is not maintained anymore.
+	 *
+	 */
+	public void close() {
+		ModelChangeSupport.removeListener( this );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	public synchronized void modelChanged( ModelChange change ) {
+		String feature = change.getFeature();
+		if ( "uniqueKey".equals( feature ) ) {
+			if ( this.sources.containsKey( change.getElement() ) ) {
+				UniqueConstraint uniqueKey = (UniqueConstraint) change.getNewValue();
+				setTarget( (ForeignKey) change.getElement(), uniqueKey.getNamespace() );
+			}
+			return;
+		}
+		if ( !"ownedElement".equals( feature ) ) {
+			return;
+		}
+
+		Object owner   = change.getElement();
+		Object added   = change.getNewValue();
+		Object removed = change.getOldValue();
+		if ( owner == this.catalog ) {
+			if ( added instanceof Schema ) {
+				addSchema( (Schema) added );
+			} else if ( removed instanceof Schema ) {
+				removeSchema( (Schema) removed );
+			}
+		} else if ( this.schemas.contains( owner ) ) {
+			if ( added instanceof Table ) {
+				addTable( (Table) added );
+			} else if ( removed instanceof Table ) {
+				removeTable( (Table) removed );
+			}
+		} else if ( this.outgoing.containsKey( owner ) ) {
+			// the namespace of an added element is assigned after the event, so the owner is taken from the event
+			if ( added instanceof ForeignKey ) {
+				addForeignKey( (Table) owner, (ForeignKey) added );
+			} else if ( removed instanceof ForeignKey ) {
+				removeForeignKey( (ForeignKey) removed );
+			} else if ( added instanceof UniqueConstraint ) {
+				for ( ForeignKey foreignKey : ( (UniqueConstraint) added ).getKeyRelationships() ) {
+					if ( this.sources.containsKey( foreignKey ) ) {
+						setTarget( foreignKey, (Table) owner );
+					}
+				}
+			} else if ( removed instanceof UniqueConstraint ) {
+				for ( ForeignKey foreignKey : ( (UniqueConstraint) removed ).getKeyRelationships() ) {
+					if ( this.sources.containsKey( foreignKey ) ) {
+						setTarget( foreignKey, null );
+					}
+				}
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ForeignKeyGraph internals
+//====================================================================================================================================================
+
+
+
+	private void addSchema( Schema schema ) {
+		if ( this.schemas.add( schema ) ) {
+			for ( Table table : schema.getTables() ) {
+				addTable( table );
+			}
+		}
+	}
+
+
+
+	private void removeSchema( Schema schema ) {
+		if ( this.schemas.remove( schema ) ) {
+			for ( Table table : schema.getTables() ) {
+				removeTable( table );
+			}
+		}
+	}
+
+
+
+	private void addTable( Table table ) {
+		if ( this.outgoing.containsKey( table ) ) {
+			return;
+		}
+		this.outgoing.put( table, new LinkedHashSet<ForeignKey>() );
+		for ( ForeignKey foreignKey : table.getForeignKeys() ) {
+			addForeignKey( table, foreignKey );
+		}
+		this.components = null;
+	}
+
+
+
+	private void removeTable( Table table ) {
+		Set<ForeignKey> foreignKeys = this.outgoing.get( table );
+		if ( foreignKeys == null ) {
+			return;
+		}
+		for ( ForeignKey foreignKey : new ArrayList<ForeignKey>( foreignKeys ) ) {
+			removeForeignKey( foreignKey );
+		}
+		this.outgoing.remove( table );
+		this.components = null;
+	}
+
+
+
+	private void addForeignKey( Table source, ForeignKey foreignKey ) {
+		if ( this.sources.containsKey( foreignKey ) ) {
+			removeForeignKey( foreignKey ); // moved from another Table
+		}
+		this.sources.put( foreignKey, source );
+		this.outgoing.get( source ).add( foreignKey );
+		UniqueConstraint uniqueKey = foreignKey.getUniqueKey();
+		setTarget( foreignKey, uniqueKey == null ? null : uniqueKey.getNamespace() );
+	}
+
+
+
+	private void removeForeignKey( ForeignKey foreignKey ) {
+		Table source = this.sources.remove( foreignKey );
+		if ( source == null ) {
+			return;
+		}
+		this.outgoing.get( source ).remove( foreignKey );
+		setTarget( foreignKey, null );
+	}
+
+
+
+	private void setTarget( ForeignKey foreignKey, Table target ) {
+		Table old = target == null ? this.targets.remove( foreignKey ) : this.targets.put( foreignKey, target );
+		if ( old == target ) {
+			return;
+		}
+		if ( old != null ) {
+			Set<ForeignKey> referencing = this.incoming.get( old );
+			referencing.remove( foreignKey );
+			if ( referencing.isEmpty() ) {
+				this.incoming.remove( old );
+			}
+		}
+		if ( target != null ) {
+			Set<ForeignKey> referencing = this.incoming.get( target );
+			if ( referencing == null ) {
+				referencing = new LinkedHashSet<ForeignKey>();
+				this.incoming.put( target, referencing );
+			}
+			referencing.add( foreignKey );
+		}
+		this.components = null;
+	}
+
+
+
+	/**
+	 * @return All ForeignKeys leaving or reaching the Table.
+	 *
+	 */
+	private List<ForeignKey> getJoins( Table table ) {
+		List<ForeignKey> joins = new ArrayList<ForeignKey>();
+		Set<ForeignKey> leaving = this.outgoing.get( table );
+		if ( leaving != null ) {
+			joins.addAll( leaving );
+		}
+		Set<ForeignKey> reaching = this.incoming.get( table );
+		if ( reaching != null ) {
+			joins.addAll( reaching );
+		}
+
+		return joins;
+	}
+
+
+
+	/**
+	 * @return The Table at the other end of the ForeignKey. Is <code>null</code> for a ForeignKey that references its own Table or no Table.
+	 *
+	 */
+	private Table getOpposite( ForeignKey foreignKey, Table table ) {
+		Table source = this.sources.get( foreignKey );
+		Table target = this.targets.get( foreignKey );
+		if ( source == target ) {
+			return null;
+		}
+
+		return source == table ? target : source;
+	}
+
+
+
+	/**
+	 * Breadth first search for a path with the least number of joins.
+	 *
+	 * @param blockedTables Tables the path must not pass.
+	 *
+	 * @param blockedForeignKeys ForeignKeys that must not be the first join of the path.
+	 *
+	 */
+	private JoinPath findPath( Table from, Table to, Set<Table> blockedTables, Set<ForeignKey> blockedForeignKeys ) {
+		Map<Table, ForeignKey> reachedBy = new LinkedHashMap<Table, ForeignKey>();
+		reachedBy.put( from, null );
+		ArrayDeque<Table> open = new ArrayDeque<Table>();
+		open.add( from );
+		while ( !open.isEmpty() && !reachedBy.containsKey( to ) ) {
+			Table table = open.poll();
+			for ( ForeignKey foreignKey : getJoins( table ) ) {
+				if ( table == from && blockedForeignKeys.contains( foreignKey ) ) {
+					continue;
+				}
+				Table neighbour = getOpposite( foreignKey, table );
+				if (   neighbour == null
+					|| blockedTables.contains( neighbour )
+					|| !this.outgoing.containsKey( neighbour )
+					|| reachedBy.containsKey( neighbour )
+				) {
+					continue;
+				}
+				reachedBy.put( neighbour, foreignKey );
+				open.add( neighbour );
+			}
+		}
+		if ( !reachedBy.containsKey( to ) ) {
+			return null;
+		}
+
+		List<Table> tables = new ArrayList<Table>();
+		List<ForeignKey> foreignKeys = new ArrayList<ForeignKey>();
+		for ( Table table = to; table != from; ) {
+			ForeignKey foreignKey = reachedBy.get( table );
+			tables.add( table );
+			foreignKeys.add( foreignKey );
+			table = getOpposite( foreignKey, table );
+		}
+		tables.add( from );
+		Collections.reverse( tables );
+		Collections.reverse( foreignKeys );
+
+		return new JoinPath( tables, foreignKeys );
+	}
+
+
+
+	private static Set<ForeignKey> copyOf( Set<ForeignKey> foreignKeys ) {
+		if ( foreignKeys == null ) {
+			return Collections.emptySet();
+		}
+
+		return Collections.unmodifiableSet( new LinkedHashSet<ForeignKey>( foreignKeys ) );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public synchronized String toString() {
+		StringBuffer out = new StringBuffer( "[ForeignKeyGraph" );
+		out.append( " | catalog=" + this.catalog.getQualifiedName() );
+		out.append( " | tables=" + this.outgoing.size() );
+		out.append( " | foreignKeys=" + this.sources.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final Catalog catalog;
+
+
+
+	/**
+	 * The indexed Schemas of the Catalog.
+	 *
+	 */
+	private final Set<Schema> schemas = new LinkedHashSet<Schema>();
+
+
+
+	/**
+	 * The ForeignKeys owned by each indexed Table. The keys are the indexed Tables.
+	 *
+	 */
+	private final Map<Table, Set<ForeignKey>> outgoing = new LinkedHashMap<Table, Set<ForeignKey>>();
+
+
+
+	/**
+	 * The ForeignKeys referencing each Table.
+	 *
+	 */
+	private final Map<Table, Set<ForeignKey>> incoming = new LinkedHashMap<Table, Set<ForeignKey>>();
+
+
+
+	/**
+	 * The owning Table of each indexed ForeignKey.
+	 *
+	 */
+	private final Map<ForeignKey, Table> sources = new LinkedHashMap<ForeignKey, Table>();
+
+
+
+	/**
+	 * The referenced Table of each indexed ForeignKey, if known.
+	 *
+	 */
+	private final Map<ForeignKey, Table> targets = new LinkedHashMap<ForeignKey, Table>();
+
+
+
+	/**
+	 * The connected components or <code>null</code>, if they have to be recalculated.
+	 *
+	 */
+	private List<Set<Table>> components = null;
+}
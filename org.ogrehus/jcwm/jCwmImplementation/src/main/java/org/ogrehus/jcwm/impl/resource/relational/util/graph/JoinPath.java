@@ -0,0 +1,177 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.graph;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+
+/**
+ * A JoinPath is a sequence of Tables, where each two neighbouring Tables are joined by a ForeignKey.
+ * <p>
+ * A ForeignKey can be followed in both directions: from the referencing Table to the referenced Table or vice versa. The path of
+ * <code>n</code> joins contains <code>n + 1</code> Tables and no Table more than once.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class JoinPath {
+
+
+	/**
+	 * Creates a new instance of JoinPath by specific parameters.
+	 *
+	 * @param tables The joined Tables in the order of the joins. Must contain one Table more than <code>foreignKeys</code>.
+	 *
+	 * @param foreignKeys The ForeignKeys joining the Tables.
+	 *
+	 */
+	JoinPath( List<Table> tables, List<ForeignKey> foreignKeys ) {
+		if ( tables.size() != foreignKeys.size() + 1 ) {
+			throw new IllegalArgumentException( "A JoinPath of " + foreignKeys.size() + " joins needs " + ( foreignKeys.size() + 1 ) + " tables." );
+		}
+		this.tables      = Collections.unmodifiableList( tables );
+		this.foreignKeys = Collections.unmodifiableList( foreignKeys );
+	}
+
+
+
+//====================================================================================================================================================
+// JoinPath capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The joined Tables starting with the first Table. Can't be <code>null</code> or empty.
+	 *
+	 */
+	public List<Table> getTables() {
+		return this.tables;
+	}
+
+
+
+	/**
+	 * @return The ForeignKeys joining the Tables. The ForeignKey at index <code>i</code> joins the Tables at <code>i</code> and <code>i + 1</code>.
+	 *
+	 */
+	public List<ForeignKey> getForeignKeys() {
+		return this.foreignKeys;
+	}
+
+
+
+	/**
+	 * @return The number of joins of this path.
+	 *
+	 */
+	public int getLength() {
+		return this.foreignKeys.size();
+	}
+
+
+
+	public Table getFrom() {
+		return this.tables.get( 0 );
+	}
+
+
+
+	public Table getTo() {
+		return this.tables.get( this.tables.size() - 1 );
+	}
+
+
+
+	/**
+	 * @param join The index of the join.
+	 *
+	 * @return <code>true</code> if the join follows its ForeignKey from the referencing to the referenced Table, <code>false</code> if the join
+	 * follows it backwards.
+	 *
+	 */
+	public Boolean isForward( int join ) {
+		return this.foreignKeys.get( join ).getNamespace() == this.tables.get( join );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public boolean equals( Object other ) {
+		if ( this == other ) {
+			return true;
+		}
+		if ( !( other instanceof JoinPath ) ) {
+			return false;
+		}
+
+		return this.foreignKeys.equals( ( (JoinPath) other ).foreignKeys ) && this.tables.equals( ( (JoinPath) other ).tables );
+	}
+
+
+
+	@Override
+	public int hashCode() {
+		return this.foreignKeys.hashCode() * 31 + this.tables.get( 0 ).hashCode();
+	}
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[JoinPath | " );
+		out.append( getFrom().getSimpleName() );
+		for ( int join = 0; join < this.foreignKeys.size(); join++ ) {
+			String foreignKey = this.foreignKeys.get( join ).getSimpleName();
+			out.append( isForward( join ) ? " -" + foreignKey + "-> " : " <-" + foreignKey + "- " );
+			out.append( this.tables.get( join + 1 ).getSimpleName() );
+		}
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final List<Table> tables;
+
+
+
+	private final List<ForeignKey> foreignKeys;
+}
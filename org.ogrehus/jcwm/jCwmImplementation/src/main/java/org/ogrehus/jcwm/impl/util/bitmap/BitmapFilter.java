@@ -0,0 +1,156 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.bitmap;
+
+import java.util.List;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A BitmapFilter combines predicates over the properties indexed by a BitmapIndex by intersections of their bitmaps.
+ * <p>
+ * Each predicate is evaluated by the index when it is added, so the filter sees the changes of the model made in between. A BitmapFilter is
+ * not thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see BitmapIndex#select()
+ *
+ */
+public final class BitmapFilter {
+
+
+	BitmapFilter( BitmapIndex index ) {
+		this.index = index;
+	}
+
+
+
+//====================================================================================================================================================
+// BitmapFilter capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Keeps the elements with the value, see {@link BitmapIndex#get(BitmapProperty, Object)}.
+	 *
+	 */
+	public BitmapFilter where( BitmapProperty property, Object value ) {
+		RoaringBitmap matching = this.index.get( property, value );
+		this.ids = this.ids == null ? matching : RoaringBitmap.and( this.ids, matching );
+
+		return this;
+	}
+
+
+
+	/**
+	 * Keeps the elements with any of the values.
+	 *
+	 */
+	public BitmapFilter whereAny( BitmapProperty property, Object... values ) {
+		RoaringBitmap matching = new RoaringBitmap();
+		for ( Object value : values ) {
+			matching = RoaringBitmap.or( matching, this.index.get( property, value ) );
+		}
+		this.ids = this.ids == null ? matching : RoaringBitmap.and( this.ids, matching );
+
+		return this;
+	}
+
+
+
+	/**
+	 * Drops the elements with the value.
+	 *
+	 */
+	public BitmapFilter whereNot( BitmapProperty property, Object value ) {
+		RoaringBitmap current = this.ids == null ? this.index.getAll() : this.ids;
+		this.ids = RoaringBitmap.andNot( current, this.index.get( property, value ) );
+
+		return this;
+	}
+
+
+
+	/**
+	 * @return The ids of the matching elements.
+	 *
+	 */
+	public RoaringBitmap getIds() {
+		return this.ids == null ? this.index.getAll() : this.ids.copy();
+	}
+
+
+
+	public int count() {
+		return this.ids == null ? this.index.size() : this.ids.getCardinality();
+	}
+
+
+
+	/**
+	 * @return The matching elements, in the order of their ids.
+	 *
+	 */
+	public List<ModelElement> getElements() {
+		return this.index.getElements( this.ids == null ? this.index.getAll() : this.ids );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[BitmapFilter" );
+		out.append( " | matching=" + count() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final BitmapIndex index;
+
+
+
+	/**
+	 * The ids of the elements matching all predicates so far, <code>null</code> before the first predicate.
+	 *
+	 */
+	private RoaringBitmap ids = null;
+}
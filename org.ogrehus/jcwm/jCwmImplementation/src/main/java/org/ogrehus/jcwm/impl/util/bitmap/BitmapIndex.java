@@ -0,0 +1,390 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.bitmap;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+import org.ogrehus.jcwm.impl.util.query.QueryIndex;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * A BitmapIndex indexes the enumerated, boolean and type properties of all elements owned by a root element by RoaringBitmaps of element ids,
+ * maintained by the changes of the model.
+ * <p>
+ * Each value of each {@link BitmapProperty} refers to the bitmap of the ids of the elements with that value, the ids are the ids of the
+ * elements in the ElementRegistry of the root. So a filter of several predicates is an intersection of bitmaps, its cost depends on the number of
+ * matching elements and not on the number of getter calls of a traversal. Predicates the index does not cover, like a length above a limit,
+ * are checked for the remaining elements only:
+ * </p>
+ * <pre>
+ * for ( ModelElement element : index.select()
+ *         .where( BitmapProperty.nullable,   Nullable.columnNullable )
+ *         .where( BitmapProperty.sqlType,    FunJdbcVarChar.class )
+ *         .where( BitmapProperty.stereotype, "PII" )
+ *         .where( BitmapProperty.visibility, Visibility._public )
+ *         .getElements()
+ * ) {
+ *     if ( ( (Column) element ).getLength() &gt; 4000 ) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * Elements linked to or unlinked from an indexed namespace or classifier are added or removed together with everything they own. A changed
+ * property moves the id of the element from the bitmap of the old value to the bitmap of the new value.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class BitmapIndex
+implements
+	  QueryIndex
+	, ModelChangeListener
+{
+
+
+	private BitmapIndex( ModelElement root ) {
+		this.root     = root;
+		ElementRegistry registry = root instanceof GFunModelElement<?, ?, ?, ?> ? ( (GFunModelElement<?, ?, ?, ?>) root ).getRegistry() : null;
+		this.registry = registry == null ? ElementRegistry.getDefault() : registry;
+		this.values   = new EnumMap<BitmapProperty, Map<Object, RoaringBitmap>>( BitmapProperty.class );
+		for ( BitmapProperty property : BitmapProperty.values() ) {
+			this.values.put( property, new LinkedHashMap<Object, RoaringBitmap>() );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// QueryIndex capabilities
+//====================================================================================================================================================
+
+
+
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	public Iterable<? extends ModelElement> getByType( Class<?> type ) {
+		return getElements( get( BitmapProperty.kind, type ) );
+	}
+
+
+
+	/**
+	 * @return <code>null</code>, cause names are not indexed by bitmaps.
+	 *
+	 */
+	public Iterable<? extends ModelElement> getBySimpleName( String simpleName ) {
+		return null;
+	}
+
+
+
+//====================================================================================================================================================
+// BitmapIndex capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Creates a new instance of BitmapIndex, registers it for changes of the model and indexes the model under the lock of the index. A change
+	 * made while the model is indexed waits for the lock and is applied to the index afterwards, so no change between the indexing and the
+	 * registration is lost.
+	 *
+	 * @param root The root of the indexed model. Must not be <code>null</code>.
+	 *
+	 */
+	public static BitmapIndex open( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		BitmapIndex index = new BitmapIndex( root );
+		ModelChangeSupport.addListener( index );
+		synchronized ( index ) {
+			index.add( root );
+		}
+
+		return index;
+	}
+
+
+
+	/**
+	 * @param value The requested value. A class requests all subclasses, like <code>SQLSimpleType.class</code> for the property
+	 * <code>sqlType</code>; a String requests the Stereotypes with that name. Must not be <code>null</code>.
+	 *
+	 * @return A new bitmap of the ids of the indexed elements with the value.
+	 *
+	 */
+	public synchronized RoaringBitmap get( BitmapProperty property, Object value ) {
+		if ( property == null ) {
+			throw new NullPointerException( "Parameter: property must not be null." );
+		}
+		if ( value == null ) {
+			throw new NullPointerException( "Parameter: value must not be null." );
+		}
+		RoaringBitmap result = null;
+		for ( Map.Entry<Object, RoaringBitmap> entry : this.values.get( property ).entrySet() ) {
+			if ( property.matches( entry.getKey(), value ) ) {
+				result = result == null ? entry.getValue().copy() : RoaringBitmap.or( result, entry.getValue() );
+			}
+		}
+
+		return result == null ? new RoaringBitmap() : result;
+	}
+
+
+
+	/**
+	 * @return A new bitmap of the ids of all indexed elements.
+	 *
+	 */
+	public synchronized RoaringBitmap getAll() {
+		return this.all.copy();
+	}
+
+
+
+	/**
+	 * @return The distinct values of a property of the indexed elements.
+	 *
+	 */
+	public synchronized Set<Object> getValues( BitmapProperty property ) {
+		return new LinkedHashSet<Object>( this.values.get( property ).keySet() );
+	}
+
+
+
+	/**
+	 * @return A new filter, that matches all indexed elements until predicates are added.
+	 *
+	 */
+	public BitmapFilter select() {
+		return new BitmapFilter( this );
+	}
+
+
+
+	/**
+	 * @return The elements of the ids, in the order of the ids. Ids of elements that are not reachable anymore are left out.
+	 *
+	 */
+	public List<ModelElement> getElements( RoaringBitmap ids ) {
+		List<ModelElement> elements = new ArrayList<ModelElement>( ids.getCardinality() );
+		for ( int id = ids.nextSetBit( 0 ); id >= 0; id = ids.nextSetBit( id + 1 ) ) {
+			ModelElement element = this.registry.resolve( id );
+			if ( element != null ) {
+				elements.add( element );
+			}
+		}
+
+		return elements;
+	}
+
+
+
+	/**
+	 * @return The number of indexed elements.
+	 *
+	 */
+	public synchronized int size() {
+		return this.all.getCardinality();
+	}
+
+
+
+	/**
+	 * Cancels the registration for changes of the model. The index stays available, but is not maintained anymore.
+	 *
+	 */
+	public void close() {
+		ModelChangeSupport.removeListener( this );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	public synchronized void modelChanged( ModelChange change ) {
+		ModelElement element = change.getElement();
+		int id = this.registry.getId( element );
+		if ( id == 0 || !this.all.contains( id ) ) {
+			return;
+		}
+
+		String feature = change.getFeature();
+		if ( "ownedElement".equals( feature ) || "feature".equals( feature ) ) {
+			if ( change.getKind() == ModelChangeKind.linked && change.getNewValue() instanceof ModelElement ) {
+				add( (ModelElement) change.getNewValue() );
+			} else if ( change.getKind() == ModelChangeKind.unlinked && change.getOldValue() instanceof ModelElement ) {
+				remove( (ModelElement) change.getOldValue() );
+			}
+		} else if ( change.getKind() == ModelChangeKind.propertyChanged && feature != null ) {
+			for ( BitmapProperty property : BitmapProperty.values() ) {
+				if ( feature.equals( property.getFeature() ) ) {
+					removeValue( property, id, property.getKey( change.getOldValue() ) );
+					addValue( property, id, property.getValue( element ) );
+				}
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public synchronized String toString() {
+		long bytes = this.all.getSizeInBytes();
+		for ( Map<Object, RoaringBitmap> byValue : this.values.values() ) {
+			for ( RoaringBitmap bitmap : byValue.values() ) {
+				bytes += bitmap.getSizeInBytes();
+			}
+		}
+		StringBuffer out = new StringBuffer( "[BitmapIndex" );
+		out.append( " | root=" + this.root.getQualifiedName() );
+		out.append( " | size=" + this.all.getCardinality() );
+		out.append( " | bytes=" + bytes );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// BitmapIndex internals
+//====================================================================================================================================================
+
+
+
+	private void add( ModelElement owner ) {
+		for ( ModelElement element : new ModelTraversal( owner ) ) {
+			int id = this.registry.getId( element );
+			if ( id == 0 || !this.all.add( id ) ) {
+				continue; // not registered, like a Name, or indexed already
+			}
+			for ( BitmapProperty property : BitmapProperty.values() ) {
+				addValue( property, id, property.getValue( element ) );
+			}
+		}
+	}
+
+
+
+	private void remove( ModelElement owner ) {
+		for ( ModelElement element : new ModelTraversal( owner ) ) {
+			int id = this.registry.getId( element );
+			if ( id == 0 || !this.all.remove( id ) ) {
+				continue;
+			}
+			for ( BitmapProperty property : BitmapProperty.values() ) {
+				removeValue( property, id, property.getValue( element ) );
+			}
+		}
+	}
+
+
+
+	private void addValue( BitmapProperty property, int id, Object value ) {
+		if ( value == null ) {
+			return;
+		}
+		Map<Object, RoaringBitmap> byValue = this.values.get( property );
+		RoaringBitmap bitmap = byValue.get( value );
+		if ( bitmap == null ) {
+			bitmap = new RoaringBitmap();
+			byValue.put( value, bitmap );
+		}
+		bitmap.add( id );
+	}
+
+
+
+	private void removeValue( BitmapProperty property, int id, Object value ) {
+		if ( value == null ) {
+			return;
+		}
+		Map<Object, RoaringBitmap> byValue = this.values.get( property );
+		RoaringBitmap bitmap = byValue.get( value );
+		if ( bitmap != null && bitmap.remove( id ) && bitmap.isEmpty() ) {
+			byValue.remove( value );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement root;
+
+
+
+	private final ElementRegistry registry;
+
+
+
+	/**
+	 * The bitmaps of element ids by property and value.
+	 *
+	 */
+	private final Map<BitmapProperty, Map<Object, RoaringBitmap>> values;
+
+
+
+	/**
+	 * The ids of all indexed elements.
+	 *
+	 */
+	private final RoaringBitmap all = new RoaringBitmap();
+}
@@ -0,0 +1,160 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.bitmap;
+
+import org.ogrehus.jcwm.api.foundation.keyindexes.util.generic.GIndex;
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Column;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.util.generic.GColumn;
+
+
+/**
+ * The properties of ModelElements indexed by a BitmapIndex, each with a bitmap of element ids per value.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>kind</code> - The concrete class of each element.</li>
+ * <li><code>visibility</code> - The Visibility of each element.</li>
+ * <li><code>stereotype</code> - The Stereotype of each element that has one.</li>
+ * <li><code>nullable</code> - The Nullable of each Column.</li>
+ * <li><code>autoIncrement</code> - Whether a Column is auto incremented.</li>
+ * <li><code>sqlType</code> - The concrete class of the data type of each Column, like <code>FunJdbcVarChar</code>.</li>
+ * <li><code>system</code> - Whether a Table is a system table.</li>
+ * <li><code>temporary</code> - Whether a Table is a temporary table.</li>
+ * <li><code>unique</code> - Whether an Index is unique.</li>
+ * <li><code>sorted</code> - Whether an Index is sorted.</li>
+ * <li><code>partitioning</code> - Whether an Index is partitioning.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum BitmapProperty {
+	  kind          ( null )
+	, visibility    ( "visibility" )
+	, stereotype    ( "stereotype" )
+	, nullable      ( "isNullable" )
+	, autoIncrement ( "autoIncrement" )
+	, sqlType       ( "type" )
+	, system        ( "isSystem" )
+	, temporary     ( "isTemporary" )
+	, unique        ( "isUnique" )
+	, sorted        ( "isSorted" )
+	, partitioning  ( "isPartitioning" )
+	;
+
+
+
+	private BitmapProperty( String feature ) {
+		this.feature = feature;
+	}
+
+
+
+	/**
+	 * @return The feature a change of this property is reported for, see {@link org.ogrehus.jcwm.impl.util.event.ModelChange#getFeature()},
+	 * <code>null</code> if the property never changes.
+	 *
+	 */
+	public String getFeature() {
+		return this.feature;
+	}
+
+
+
+	/**
+	 * @return The indexed value of this property of an element, <code>null</code> if the element has no such property or no value.
+	 *
+	 */
+	Object getValue( ModelElement element ) {
+		switch ( this ) {
+			case kind:
+				return element.getClass();
+			case visibility:
+				return element.getVisibility();
+			case stereotype:
+				return element.getStereotype();
+			case nullable:
+				return element instanceof Column ? ( (Column) element ).getNullable() : null;
+			case autoIncrement:
+				return element instanceof Column ? ( (Column) element ).isAutoIncrement() : null;
+			case sqlType:
+				return element instanceof GColumn<?, ?> ? getKey( ( (GColumn<?, ?>) element ).getType() ) : null;
+			case system:
+				return element instanceof Table ? ( (Table) element ).isSystem() : null;
+			case temporary:
+				return element instanceof Table ? ( (Table) element ).isTemporary() : null;
+			case unique:
+				return element instanceof GIndex<?, ?, ?, ?> ? ( (GIndex<?, ?, ?, ?>) element ).isUnique() : null;
+			case sorted:
+				return element instanceof GIndex<?, ?, ?, ?> ? ( (GIndex<?, ?, ?, ?>) element ).isSorted() : null;
+			case partitioning:
+				return element instanceof GIndex<?, ?, ?, ?> ? ( (GIndex<?, ?, ?, ?>) element ).isPartitioning() : null;
+			default:
+				return null;
+		}
+	}
+
+
+
+	/**
+	 * @return The indexed value of a value reported by a change of this property.
+	 *
+	 */
+	Object getKey( Object value ) {
+		if ( this == sqlType ) {
+			return value == null ? null : value.getClass();
+		}
+
+		return value;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if an indexed value matches a requested value: a class matches all its subclasses, a name matches the
+	 * Stereotypes with that name, any other value matches equal values.
+	 *
+	 */
+	boolean matches( Object indexed, Object requested ) {
+		if ( requested instanceof Class<?> && indexed instanceof Class<?> ) {
+			return ( (Class<?>) requested ).isAssignableFrom( (Class<?>) indexed );
+		}
+		if ( requested instanceof String && indexed instanceof ModelElement ) {
+			return requested.equals( ( (ModelElement) indexed ).getSimpleName() );
+		}
+
+		return requested.equals( indexed );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final String feature;
+}
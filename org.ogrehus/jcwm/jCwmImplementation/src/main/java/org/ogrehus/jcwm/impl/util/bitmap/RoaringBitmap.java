@@ -0,0 +1,789 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.bitmap;
+
+import java.util.Arrays;
+
+
+/**
+ * A RoaringBitmap is a compressed set of non negative int values, like the ids of ModelElements.
+ * <p>
+ * The values are split by their upper 16 bits into chunks of 65536 values. Each chunk is stored by the cheaper of two containers: a sorted
+ * array of the lower 16 bits for up to 4096 values (2 bytes per value), or a plain bitmap of 8 KB for more values. So sparse sets cost about
+ * two bytes per value and dense sets one bit per value. Intersections, unions and differences work chunk by chunk and word by word, without
+ * visiting single values of bitmap containers.
+ * </p>
+ * <p>
+ * Values are visited like the bits of a <code>BitSet</code>:
+ * </p>
+ * <pre>
+ * for ( int id = bitmap.nextSetBit( 0 ); id &gt;= 0; id = bitmap.nextSetBit( id + 1 ) ) {
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * A RoaringBitmap is not synchronized.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class RoaringBitmap {
+
+
+	/**
+	 * Creates a new, empty instance of RoaringBitmap.
+	 *
+	 */
+	public RoaringBitmap() {
+		this.keys       = new char[ 4 ];
+		this.containers = new Container[ 4 ];
+	}
+
+
+
+	private RoaringBitmap( int capacity ) {
+		this.keys       = new char[ Math.max( 1, capacity ) ];
+		this.containers = new Container[ Math.max( 1, capacity ) ];
+	}
+
+
+
+//====================================================================================================================================================
+// RoaringBitmap capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return <code>true</code> if the value was not contained before.
+	 *
+	 * @throws IllegalArgumentException If the value is negative.
+	 *
+	 */
+	public boolean add( int value ) {
+		if ( value < 0 ) {
+			throw new IllegalArgumentException( "Parameter: value must not be negative." );
+		}
+		char key = (char) ( value >>> 16 );
+		int index = find( key );
+		if ( index < 0 ) {
+			index = -index - 1;
+			insert( index, key, new ArrayContainer() );
+		}
+		Container container = this.containers[ index ];
+		int cardinality = container.getCardinality();
+		this.containers[ index ] = container.add( (char) value );
+
+		return this.containers[ index ].getCardinality() > cardinality;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the value was contained before.
+	 *
+	 */
+	public boolean remove( int value ) {
+		if ( value < 0 ) {
+			return false;
+		}
+		int index = find( (char) ( value >>> 16 ) );
+		if ( index < 0 ) {
+			return false;
+		}
+		Container container = this.containers[ index ];
+		int cardinality = container.getCardinality();
+		container = container.remove( (char) value );
+		if ( container.getCardinality() == 0 ) {
+			System.arraycopy( this.keys, index + 1, this.keys, index, this.size - index - 1 );
+			System.arraycopy( this.containers, index + 1, this.containers, index, this.size - index - 1 );
+			this.containers[ --this.size ] = null;
+			return true;
+		}
+		this.containers[ index ] = container;
+
+		return container.getCardinality() < cardinality;
+	}
+
+
+
+	public boolean contains( int value ) {
+		if ( value < 0 ) {
+			return false;
+		}
+		int index = find( (char) ( value >>> 16 ) );
+
+		return index >= 0 && this.containers[ index ].contains( (char) value );
+	}
+
+
+
+	/**
+	 * @return The first value greater than or equal to <code>from</code>, <code>-1</code> if there is none.
+	 *
+	 */
+	public int nextSetBit( int from ) {
+		if ( from < 0 ) {
+			from = 0;
+		}
+		int index = find( (char) ( from >>> 16 ) );
+		int low = from & 0xFFFF;
+		if ( index < 0 ) {
+			index = -index - 1;
+			low   = 0;
+		}
+		for ( ; index < this.size; index++, low = 0 ) {
+			int next = this.containers[ index ].next( low );
+			if ( next >= 0 ) {
+				return this.keys[ index ] << 16 | next;
+			}
+		}
+
+		return -1;
+	}
+
+
+
+	/**
+	 * @return The number of values.
+	 *
+	 */
+	public int getCardinality() {
+		int cardinality = 0;
+		for ( int i = 0; i < this.size; i++ ) {
+			cardinality += this.containers[ i ].getCardinality();
+		}
+
+		return cardinality;
+	}
+
+
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+
+
+	/**
+	 * @return All values in ascending order.
+	 *
+	 */
+	public int[] toArray() {
+		int[] values = new int[ getCardinality() ];
+		int i = 0;
+		for ( int value = nextSetBit( 0 ); value >= 0; value = nextSetBit( value + 1 ) ) {
+			values[ i++ ] = value;
+		}
+
+		return values;
+	}
+
+
+
+	/**
+	 * @return The approximate number of bytes of the containers.
+	 *
+	 */
+	public long getSizeInBytes() {
+		long bytes = 0;
+		for ( int i = 0; i < this.size; i++ ) {
+			bytes += this.containers[ i ].getSizeInBytes();
+		}
+
+		return bytes;
+	}
+
+
+
+	public RoaringBitmap copy() {
+		RoaringBitmap copy = new RoaringBitmap( this.size );
+		for ( int i = 0; i < this.size; i++ ) {
+			copy.append( this.keys[ i ], this.containers[ i ].copy() );
+		}
+
+		return copy;
+	}
+
+
+
+	/**
+	 * @return A new RoaringBitmap with the values contained in both bitmaps.
+	 *
+	 */
+	public static RoaringBitmap and( RoaringBitmap a, RoaringBitmap b ) {
+		RoaringBitmap result = new RoaringBitmap( Math.min( a.size, b.size ) );
+		int i = 0;
+		int j = 0;
+		while ( i < a.size && j < b.size ) {
+			if ( a.keys[ i ] < b.keys[ j ] ) {
+				i++;
+			} else if ( a.keys[ i ] > b.keys[ j ] ) {
+				j++;
+			} else {
+				result.appendNonEmpty( a.keys[ i ], and( a.containers[ i++ ], b.containers[ j++ ] ) );
+			}
+		}
+
+		return result;
+	}
+
+
+
+	/**
+	 * @return A new RoaringBitmap with the values contained in any of the bitmaps.
+	 *
+	 */
+	public static RoaringBitmap or( RoaringBitmap a, RoaringBitmap b ) {
+		RoaringBitmap result = new RoaringBitmap( a.size + b.size );
+		int i = 0;
+		int j = 0;
+		while ( i < a.size || j < b.size ) {
+			if ( j == b.size || i < a.size && a.keys[ i ] < b.keys[ j ] ) {
+				result.append( a.keys[ i ], a.containers[ i++ ].copy() );
+			} else if ( i == a.size || a.keys[ i ] > b.keys[ j ] ) {
+				result.append( b.keys[ j ], b.containers[ j++ ].copy() );
+			} else {
+				result.append( a.keys[ i ], or( a.containers[ i++ ], b.containers[ j++ ] ) );
+			}
+		}
+
+		return result;
+	}
+
+
+
+	/**
+	 * @return A new RoaringBitmap with the values of the first bitmap, that are not contained in the second bitmap.
+	 *
+	 */
+	public static RoaringBitmap andNot( RoaringBitmap a, RoaringBitmap b ) {
+		RoaringBitmap result = new RoaringBitmap( a.size );
+		int j = 0;
+		for ( int i = 0; i < a.size; i++ ) {
+			while ( j < b.size && b.keys[ j ] < a.keys[ i ] ) {
+				j++;
+			}
+			if ( j < b.size && b.keys[ j ] == a.keys[ i ] ) {
+				result.appendNonEmpty( a.keys[ i ], andNot( a.containers[ i ], b.containers[ j ] ) );
+			} else {
+				result.append( a.keys[ i ], a.containers[ i ].copy() );
+			}
+		}
+
+		return result;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[RoaringBitmap" );
+		out.append( " | cardinality=" + getCardinality() );
+		out.append( " | containers=" + this.size );
+		out.append( " | bytes=" + getSizeInBytes() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// RoaringBitmap internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The index of the container of the key, or <code>-(insertion point) - 1</code>.
+	 *
+	 */
+	private int find( char key ) {
+		if ( this.size > 0 && this.keys[ this.size - 1 ] == key ) {
+			return this.size - 1; // ids are mostly added in ascending order
+		}
+
+		return Arrays.binarySearch( this.keys, 0, this.size, key );
+	}
+
+
+
+	private void insert( int index, char key, Container container ) {
+		if ( this.size == this.keys.length ) {
+			this.keys       = Arrays.copyOf( this.keys, this.size * 2 );
+			this.containers = Arrays.copyOf( this.containers, this.size * 2 );
+		}
+		System.arraycopy( this.keys, index, this.keys, index + 1, this.size - index );
+		System.arraycopy( this.containers, index, this.containers, index + 1, this.size - index );
+		this.keys[ index ]       = key;
+		this.containers[ index ] = container;
+		this.size++;
+	}
+
+
+
+	private void append( char key, Container container ) {
+		insert( this.size, key, container );
+	}
+
+
+
+	private void appendNonEmpty( char key, Container container ) {
+		if ( container.getCardinality() > 0 ) {
+			append( key, container );
+		}
+	}
+
+
+
+	private static Container and( Container a, Container b ) {
+		if ( a instanceof ArrayContainer ) {
+			return ( (ArrayContainer) a ).retain( b, true );
+		}
+		if ( b instanceof ArrayContainer ) {
+			return ( (ArrayContainer) b ).retain( a, true );
+		}
+		long[] words = ( (BitmapContainer) a ).words.clone();
+		long[] other = ( (BitmapContainer) b ).words;
+		for ( int i = 0; i < words.length; i++ ) {
+			words[ i ] &= other[ i ];
+		}
+
+		return new BitmapContainer( words ).optimize();
+	}
+
+
+
+	private static Container or( Container a, Container b ) {
+		if ( a instanceof ArrayContainer && b instanceof ArrayContainer ) {
+			ArrayContainer x = (ArrayContainer) a;
+			ArrayContainer y = (ArrayContainer) b;
+			if ( x.size + y.size <= ARRAY_LIMIT ) {
+				return x.merge( y );
+			}
+		}
+		BitmapContainer result = a instanceof BitmapContainer ? (BitmapContainer) a.copy() : ( (ArrayContainer) a ).toBitmap();
+		if ( b instanceof ArrayContainer ) {
+			ArrayContainer y = (ArrayContainer) b;
+			for ( int i = 0; i < y.size; i++ ) {
+				result.add( y.values[ i ] );
+			}
+		} else {
+			long[] other = ( (BitmapContainer) b ).words;
+			for ( int i = 0; i < other.length; i++ ) {
+				result.words[ i ] |= other[ i ];
+			}
+			result.count();
+		}
+
+		return result;
+	}
+
+
+
+	private static Container andNot( Container a, Container b ) {
+		if ( a instanceof ArrayContainer ) {
+			return ( (ArrayContainer) a ).retain( b, false );
+		}
+		BitmapContainer result = (BitmapContainer) a.copy();
+		if ( b instanceof ArrayContainer ) {
+			ArrayContainer y = (ArrayContainer) b;
+			for ( int i = 0; i < y.size; i++ ) {
+				result.remove( y.values[ i ] );
+			}
+		} else {
+			long[] other = ( (BitmapContainer) b ).words;
+			for ( int i = 0; i < other.length; i++ ) {
+				result.words[ i ] &= ~other[ i ];
+			}
+			result.count();
+		}
+
+		return result.optimize();
+	}
+
+
+
+	/**
+	 * The values of one chunk of 65536 values, by their lower 16 bits.
+	 *
+	 */
+	private static abstract class Container {
+
+
+		/**
+		 * @return The container holding the value, this or a new container.
+		 *
+		 */
+		abstract Container add( char value );
+
+
+
+		/**
+		 * @return The container without the value, this or a new container.
+		 *
+		 */
+		abstract Container remove( char value );
+
+
+
+		abstract boolean contains( char value );
+
+
+
+		/**
+		 * @return The first value greater than or equal to <code>from</code>, <code>-1</code> if there is none.
+		 *
+		 */
+		abstract int next( int from );
+
+
+
+		abstract int getCardinality();
+
+
+
+		abstract long getSizeInBytes();
+
+
+
+		abstract Container copy();
+	}
+
+
+
+	/**
+	 * Up to 4096 values, as sorted array.
+	 *
+	 */
+	private static final class ArrayContainer
+	extends
+		Container
+	{
+
+
+		ArrayContainer() {
+			this( new char[ 4 ], 0 );
+		}
+
+
+
+		ArrayContainer( char[] values, int size ) {
+			this.values = values;
+			this.size   = size;
+		}
+
+
+
+		Container add( char value ) {
+			int index = this.size > 0 && this.values[ this.size - 1 ] < value ? -this.size - 1 : Arrays.binarySearch( this.values, 0, this.size, value );
+			if ( index >= 0 ) {
+				return this;
+			}
+			if ( this.size == ARRAY_LIMIT ) {
+				return toBitmap().add( value );
+			}
+			index = -index - 1;
+			if ( this.size == this.values.length ) {
+				this.values = Arrays.copyOf( this.values, Math.min( ARRAY_LIMIT, this.size * 2 ) );
+			}
+			System.arraycopy( this.values, index, this.values, index + 1, this.size - index );
+			this.values[ index ] = value;
+			this.size++;
+
+			return this;
+		}
+
+
+
+		Container remove( char value ) {
+			int index = Arrays.binarySearch( this.values, 0, this.size, value );
+			if ( index >= 0 ) {
+				System.arraycopy( this.values, index + 1, this.values, index, this.size - index - 1 );
+				this.size--;
+			}
+
+			return this;
+		}
+
+
+
+		boolean contains( char value ) {
+			return Arrays.binarySearch( this.values, 0, this.size, value ) >= 0;
+		}
+
+
+
+		int next( int from ) {
+			int index = Arrays.binarySearch( this.values, 0, this.size, (char) from );
+			if ( index < 0 ) {
+				index = -index - 1;
+			}
+
+			return index < this.size ? this.values[ index ] : -1;
+		}
+
+
+
+		int getCardinality() {
+			return this.size;
+		}
+
+
+
+		long getSizeInBytes() {
+			return 16 + 2L * this.values.length;
+		}
+
+
+
+		Container copy() {
+			return new ArrayContainer( Arrays.copyOf( this.values, Math.max( 1, this.size ) ), this.size );
+		}
+
+
+
+		/**
+		 * @param contained <code>true</code> to keep the values contained in the other container, <code>false</code> to keep the others.
+		 *
+		 */
+		ArrayContainer retain( Container other, boolean contained ) {
+			char[] result = new char[ Math.max( 1, this.size ) ];
+			int size = 0;
+			for ( int i = 0; i < this.size; i++ ) {
+				if ( other.contains( this.values[ i ] ) == contained ) {
+					result[ size++ ] = this.values[ i ];
+				}
+			}
+
+			return new ArrayContainer( result, size );
+		}
+
+
+
+		ArrayContainer merge( ArrayContainer other ) {
+			char[] result = new char[ Math.max( 1, this.size + other.size ) ];
+			int size = 0;
+			int i = 0;
+			int j = 0;
+			while ( i < this.size || j < other.size ) {
+				if ( j == other.size || i < this.size && this.values[ i ] < other.values[ j ] ) {
+					result[ size++ ] = this.values[ i++ ];
+				} else if ( i == this.size || this.values[ i ] > other.values[ j ] ) {
+					result[ size++ ] = other.values[ j++ ];
+				} else {
+					result[ size++ ] = this.values[ i++ ];
+					j++;
+				}
+			}
+
+			return new ArrayContainer( result, size );
+		}
+
+
+
+		BitmapContainer toBitmap() {
+			BitmapContainer bitmap = new BitmapContainer( new long[ WORDS ] );
+			for ( int i = 0; i < this.size; i++ ) {
+				bitmap.add( this.values[ i ] );
+			}
+
+			return bitmap;
+		}
+
+
+
+		private char[] values;
+
+
+
+		private int size;
+	}
+
+
+
+	/**
+	 * More than 4096 values, as bitmap of 65536 bits.
+	 *
+	 */
+	private static final class BitmapContainer
+	extends
+		Container
+	{
+
+
+		BitmapContainer( long[] words ) {
+			this.words = words;
+			count();
+		}
+
+
+
+		Container add( char value ) {
+			long bit = 1L << value;
+			if ( ( this.words[ value >>> 6 ] & bit ) == 0 ) {
+				this.words[ value >>> 6 ] |= bit;
+				this.cardinality++;
+			}
+
+			return this;
+		}
+
+
+
+		Container remove( char value ) {
+			long bit = 1L << value;
+			if ( ( this.words[ value >>> 6 ] & bit ) != 0 ) {
+				this.words[ value >>> 6 ] &= ~bit;
+				this.cardinality--;
+			}
+
+			return this.cardinality <= ARRAY_LIMIT / 2 ? optimize() : this; // not at the limit, so alternating changes don't convert each time
+		}
+
+
+
+		boolean contains( char value ) {
+			return ( this.words[ value >>> 6 ] & 1L << value ) != 0;
+		}
+
+
+
+		int next( int from ) {
+			int index = from >>> 6;
+			long word = this.words[ index ] & -1L << from;
+			while ( word == 0 ) {
+				if ( ++index == WORDS ) {
+					return -1;
+				}
+				word = this.words[ index ];
+			}
+
+			return index << 6 | Long.numberOfTrailingZeros( word );
+		}
+
+
+
+		int getCardinality() {
+			return this.cardinality;
+		}
+
+
+
+		long getSizeInBytes() {
+			return 16 + 8L * WORDS;
+		}
+
+
+
+		Container copy() {
+			return new BitmapContainer( this.words.clone() );
+		}
+
+
+
+		void count() {
+			int cardinality = 0;
+			for ( long word : this.words ) {
+				cardinality += Long.bitCount( word );
+			}
+			this.cardinality = cardinality;
+		}
+
+
+
+		/**
+		 * @return An ArrayContainer if the values fit, otherwise this.
+		 *
+		 */
+		Container optimize() {
+			if ( this.cardinality > ARRAY_LIMIT ) {
+				return this;
+			}
+			char[] values = new char[ Math.max( 1, this.cardinality ) ];
+			int size = 0;
+			for ( int next = next( 0 ); next >= 0; next = next < 0xFFFF ? next( next + 1 ) : -1 ) {
+				values[ size++ ] = (char) next;
+			}
+
+			return new ArrayContainer( values, size );
+		}
+
+
+
+		private final long[] words;
+
+
+
+		private int cardinality;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The maximum number of values of an ArrayContainer, where it needs as much memory as a BitmapContainer.
+	 *
+	 */
+	private static final int ARRAY_LIMIT = 4096;
+
+
+
+	/**
+	 * The number of words of a BitmapContainer.
+	 *
+	 */
+	private static final int WORDS = 1024;
+
+
+
+	/**
+	 * The upper 16 bits of the values of each container, in ascending order.
+	 *
+	 */
+	private char[] keys;
+
+
+
+	private Container[] containers;
+
+
+
+	/**
+	 * The number of containers.
+	 *
+	 */
+	private int size = 0;
+}
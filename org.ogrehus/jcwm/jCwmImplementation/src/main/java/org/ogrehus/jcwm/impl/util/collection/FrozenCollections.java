@@ -0,0 +1,263 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.collection;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * FrozenCollections replaces the collections of the associations of an object, like the owned elements of a Namespace or the features of a
+ * UniqueKey, by immutable collections of the exact size, and back, or by mutable copies, see {@link #renew(Object)}.
+ * <p>
+ * The collections are found by reflection: every instance field of the object and its superclasses of this library, declared as a Set,
+ * SortedSet, List or Collection. A SortedSet is frozen to a {@link FrozenSortedSet} with the same Comparator, a List to a {@link FrozenList},
+ * any other collection to a {@link FrozenSet}. The fields of each class are looked up once.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement#compact()
+ *
+ */
+public final class FrozenCollections {
+
+
+	private FrozenCollections() {
+		// only static methods
+	}
+
+
+
+//====================================================================================================================================================
+// FrozenCollections capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Replaces the collections of the object by frozen copies. Frozen collections are kept.
+	 *
+	 * @return The number of replaced collections.
+	 *
+	 */
+	public static int freeze( Object owner ) {
+		int replaced = 0;
+		for ( Field field : getFields( owner.getClass() ) ) {
+			Object collection = get( field, owner );
+			if ( collection != null && !isFrozen( collection ) ) {
+				set( field, owner, freeze( (Collection<?>) collection ) );
+				replaced++;
+			}
+		}
+
+		return replaced;
+	}
+
+
+
+	/**
+	 * Replaces the frozen collections of the object by mutable copies, a FrozenSortedSet by a TreeSet with the same Comparator, a FrozenList by
+	 * an ArrayList, any other FrozenSet by a HashSet, or a LinkedHashSet if it was copied from one.
+	 *
+	 * @return The number of replaced collections.
+	 *
+	 */
+	public static int thaw( Object owner ) {
+		int replaced = 0;
+		for ( Field field : getFields( owner.getClass() ) ) {
+			Object collection = get( field, owner );
+			if ( isFrozen( collection ) ) {
+				set( field, owner, thaw( (Collection<?>) collection ) );
+				replaced++;
+			}
+		}
+
+		return replaced;
+	}
+
+
+
+	/**
+	 * Replaces the mutable collections of the object by copies, so the following changes of the object leave the collections returned before
+	 * as they are: a reader iterating one of them is not disturbed by a writer, like an eviction dropping the parts of an element. Frozen
+	 * collections are kept, they don't change.
+	 *
+	 * @return The number of replaced collections.
+	 *
+	 */
+	public static int renew( Object owner ) {
+		int replaced = 0;
+		for ( Field field : getFields( owner.getClass() ) ) {
+			Object collection = get( field, owner );
+			if ( collection != null && !isFrozen( collection ) ) {
+				set( field, owner, copy( (Collection<?>) collection ) );
+				replaced++;
+			}
+		}
+
+		return replaced;
+	}
+
+
+
+	public static boolean isFrozen( Object collection ) {
+		return collection instanceof FrozenSet<?> || collection instanceof FrozenList<?>;
+	}
+
+
+
+//====================================================================================================================================================
+// FrozenCollections internals
+//====================================================================================================================================================
+
+
+
+	@SuppressWarnings( { "unchecked", "rawtypes" } )
+	private static Collection<?> freeze( Collection<?> collection ) {
+		if ( collection instanceof SortedSet<?> ) {
+			return new FrozenSortedSet( (SortedSet<?>) collection );
+		}
+		if ( collection instanceof List<?> ) {
+			return new FrozenList<Object>( collection );
+		}
+
+		return FrozenSet.of( collection );
+	}
+
+
+
+	@SuppressWarnings( { "unchecked", "rawtypes" } )
+	private static Collection<?> thaw( Collection<?> collection ) {
+		if ( collection instanceof FrozenSortedSet<?> ) {
+			TreeSet thawed = new TreeSet( ( (FrozenSortedSet<?>) collection ).comparator() );
+			thawed.addAll( collection );
+			return thawed;
+		}
+		if ( collection instanceof FrozenList<?> ) {
+			return new ArrayList<Object>( collection );
+		}
+		if ( ( (FrozenSet<?>) collection ).isLinked() ) {
+			return new LinkedHashSet<Object>( collection );
+		}
+
+		return new HashSet<Object>( collection );
+	}
+
+
+
+	/**
+	 * @return A mutable copy of a mutable collection of the same kind: a TreeSet with the same Comparator, an ArrayList, a LinkedHashSet or a
+	 * HashSet.
+	 *
+	 */
+	@SuppressWarnings( { "unchecked", "rawtypes" } )
+	private static Collection<?> copy( Collection<?> collection ) {
+		if ( collection instanceof SortedSet<?> ) {
+			TreeSet copy = new TreeSet( ( (SortedSet<?>) collection ).comparator() );
+			copy.addAll( collection );
+			return copy;
+		}
+		if ( collection instanceof List<?> ) {
+			return new ArrayList<Object>( collection );
+		}
+		if ( collection instanceof LinkedHashSet<?> ) {
+			return new LinkedHashSet<Object>( collection );
+		}
+
+		return new HashSet<Object>( collection );
+	}
+
+
+
+	/**
+	 * @return The instance fields of the class and its superclasses of this library, that are declared as a collection.
+	 *
+	 */
+	private static Field[] getFields( Class<?> type ) {
+		Field[] fields = FIELDS.get( type );
+		if ( fields != null ) {
+			return fields;
+		}
+
+		List<Field> found = new ArrayList<Field>();
+		for ( Class<?> current = type; current != null && current.getName().startsWith( LIBRARY ); current = current.getSuperclass() ) {
+			for ( Field field : current.getDeclaredFields() ) {
+				int modifiers = field.getModifiers();
+				Class<?> declared = field.getType();
+				boolean collection = declared == Set.class || declared == SortedSet.class || declared == List.class || declared == Collection.class;
+				if ( collection && !Modifier.isStatic( modifiers ) && !Modifier.isFinal( modifiers ) ) {
+					field.setAccessible( true );
+					found.add( field );
+				}
+			}
+		}
+		fields = found.toArray( new Field[ found.size() ] );
+		FIELDS.put( type, fields );
+
+		return fields;
+	}
+
+
+
+	private static Object get( Field field, Object owner ) {
+		try {
+			return field.get( owner );
+		} catch ( IllegalAccessException e ) {
+			throw new IllegalStateException( "The field: " + field + " can't be read.", e );
+		}
+	}
+
+
+
+	private static void set( Field field, Object owner, Object value ) {
+		try {
+			field.set( owner, value );
+		} catch ( IllegalAccessException e ) {
+			throw new IllegalStateException( "The field: " + field + " can't be written.", e );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final String LIBRARY = "org.ogrehus.jcwm.impl.";
+
+
+
+	private static final Map<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<Class<?>, Field[]>();
+}
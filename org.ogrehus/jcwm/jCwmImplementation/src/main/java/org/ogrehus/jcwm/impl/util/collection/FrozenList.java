@@ -0,0 +1,145 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.collection;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+
+/**
+ * A FrozenList is an immutable List, that holds its elements in an array of the exact size, see {@link FrozenCollections}.
+ * <p>
+ * Every mutation throws an UnsupportedOperationException, that names the frozen model as the cause.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class FrozenList<E>
+extends
+	AbstractList<E>
+implements
+	RandomAccess
+{
+
+
+	/**
+	 * Creates a new instance of FrozenList with the elements of a collection.
+	 *
+	 * @param elements The elements in their order. Must not be <code>null</code>.
+	 *
+	 */
+	public FrozenList( Collection<? extends E> elements ) {
+		if ( elements == null ) {
+			throw new NullPointerException( "Parameter: elements must not be null." );
+		}
+		this.elements = elements.toArray();
+	}
+
+
+
+//====================================================================================================================================================
+// List capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	@SuppressWarnings( "unchecked" )
+	public E get( int index ) {
+		return (E) this.elements[ index ];
+	}
+
+
+
+	@Override
+	public int size() {
+		return this.elements.length;
+	}
+
+
+
+	@Override
+	public Object[] toArray() {
+		return this.elements.clone();
+	}
+
+
+
+	@Override
+	public E set( int index, E element ) {
+		throw FrozenSet.rejected();
+	}
+
+
+
+	@Override
+	public void add( int index, E element ) {
+		throw FrozenSet.rejected();
+	}
+
+
+
+	@Override
+	public E remove( int index ) {
+		throw FrozenSet.rejected();
+	}
+
+
+
+	@Override
+	public boolean remove( Object object ) {
+		throw FrozenSet.rejected();
+	}
+
+
+
+	@Override
+	public boolean removeAll( Collection<?> collection ) {
+		throw FrozenSet.rejected();
+	}
+
+
+
+	@Override
+	public boolean retainAll( Collection<?> collection ) {
+		throw FrozenSet.rejected();
+	}
+
+
+
+	@Override
+	public void clear() {
+		throw FrozenSet.rejected();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final Object[] elements;
+}
@@ -0,0 +1,333 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.collection;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+
+
+/**
+ * A FrozenSet is an immutable Set, that holds its elements in an array of the exact size, see {@link FrozenCollections}.
+ * <p>
+ * The elements are iterated in the order of the Set they were copied from. Small sets are searched linearly, larger sets by a binary search
+ * over a permutation of the elements sorted by their hash codes, which are the dense ids of ModelElements. So a FrozenSet of n elements costs
+ * an array of n references and, above eight elements, an array of n ints, instead of a HashMap entry per element.
+ * </p>
+ * <p>
+ * Every mutation throws an UnsupportedOperationException, that names the frozen model as the cause.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class FrozenSet<E>
+extends
+	AbstractSet<E>
+{
+
+
+	/**
+	 * Creates a new instance of FrozenSet with the elements of a collection.
+	 *
+	 * @param elements The elements in their order of iteration, without duplicates. Must not be <code>null</code>.
+	 *
+	 * @param linked <code>true</code> if the order of iteration matters, so a thawed copy must keep it.
+	 *
+	 * @param hashed <code>false</code> if the subclass looks up the elements on its own, so the permutation is not needed.
+	 *
+	 */
+	FrozenSet( Collection<? extends E> elements, boolean linked, boolean hashed ) {
+		if ( elements == null ) {
+			throw new NullPointerException( "Parameter: elements must not be null." );
+		}
+		this.elements = elements.isEmpty() ? NONE : elements.toArray();
+		this.linked   = linked;
+		this.byHash   = hashed && this.elements.length > LINEAR ? sortByHash( this.elements ) : null;
+	}
+
+
+
+	/**
+	 * @return A FrozenSet with the elements of the collection. All empty unordered sets share a single instance.
+	 *
+	 */
+	@SuppressWarnings( "unchecked" )
+	public static <E> FrozenSet<E> of( Collection<? extends E> elements ) {
+		boolean linked = elements instanceof LinkedHashSet<?>;
+		if ( elements.isEmpty() && !linked ) {
+			return (FrozenSet<E>) EMPTY;
+		}
+
+		return new FrozenSet<E>( elements, linked, true );
+	}
+
+
+
+//====================================================================================================================================================
+// FrozenSet capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return <code>true</code> if the order of iteration of the copied Set mattered, like of a LinkedHashSet.
+	 *
+	 */
+	public boolean isLinked() {
+		return this.linked;
+	}
+
+
+
+//====================================================================================================================================================
+// Set capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public int size() {
+		return this.elements.length;
+	}
+
+
+
+	@Override
+	public boolean contains( Object object ) {
+		if ( object == null ) {
+			return false;
+		}
+		if ( this.byHash == null ) {
+			for ( Object element : this.elements ) {
+				if ( element.equals( object ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		int hash = object.hashCode();
+		int low  = 0;
+		int high = this.byHash.length - 1;
+		while ( low <= high ) {
+			int middle = low + high >>> 1;
+			int other  = this.elements[ this.byHash[ middle ] ].hashCode();
+			if ( other < hash ) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		for ( int i = low; i < this.byHash.length; i++ ) { // the run of equal hash codes
+			Object element = this.elements[ this.byHash[i] ];
+			if ( element.hashCode() != hash ) {
+				break;
+			}
+			if ( element.equals( object ) ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			public boolean hasNext() {
+				return this.next < FrozenSet.this.elements.length;
+			}
+
+			@SuppressWarnings( "unchecked" )
+			public E next() {
+				if ( this.next >= FrozenSet.this.elements.length ) {
+					throw new NoSuchElementException();
+				}
+				return (E) FrozenSet.this.elements[ this.next++ ];
+			}
+
+			public void remove() {
+				throw rejected();
+			}
+
+			private int next = 0;
+		};
+	}
+
+
+
+	@Override
+	public Object[] toArray() {
+		return this.elements.clone();
+	}
+
+
+
+	@Override
+	public boolean add( E element ) {
+		throw rejected();
+	}
+
+
+
+	@Override
+	public boolean remove( Object object ) {
+		throw rejected();
+	}
+
+
+
+	@Override
+	public boolean addAll( Collection<? extends E> collection ) {
+		throw rejected();
+	}
+
+
+
+	@Override
+	public boolean removeAll( Collection<?> collection ) {
+		throw rejected();
+	}
+
+
+
+	@Override
+	public boolean retainAll( Collection<?> collection ) {
+		throw rejected();
+	}
+
+
+
+	@Override
+	public void clear() {
+		throw rejected();
+	}
+
+
+
+//====================================================================================================================================================
+// FrozenSet internals
+//====================================================================================================================================================
+
+
+
+	static UnsupportedOperationException rejected() {
+		return new UnsupportedOperationException( "The model is compacted and can't be changed, it must be thawed first." );
+	}
+
+
+
+	/**
+	 * @return The positions of the elements sorted by their hash codes. Elements are mostly created in the order they are added, so most runs
+	 * of ids are in order already and merged in linear time.
+	 *
+	 */
+	private static int[] sortByHash( Object[] elements ) {
+		int[] positions = new int[ elements.length ];
+		int[] hashes    = new int[ elements.length ];
+		for ( int i = 0; i < elements.length; i++ ) {
+			positions[i] = i;
+			hashes[i]    = elements[i].hashCode();
+		}
+		mergeSort( positions, new int[ positions.length ], hashes, 0, positions.length );
+
+		return positions;
+	}
+
+
+
+	private static void mergeSort( int[] positions, int[] buffer, int[] hashes, int from, int to ) {
+		if ( to - from <= LINEAR ) {
+			for ( int i = from + 1; i < to; i++ ) {
+				int position = positions[i];
+				int j = i - 1;
+				for ( ; j >= from && hashes[ positions[j] ] > hashes[ position ]; j-- ) {
+					positions[ j + 1 ] = positions[j];
+				}
+				positions[ j + 1 ] = position;
+			}
+			return;
+		}
+		int middle = from + to >>> 1;
+		mergeSort( positions, buffer, hashes, from, middle );
+		mergeSort( positions, buffer, hashes, middle, to );
+		if ( hashes[ positions[ middle - 1 ] ] <= hashes[ positions[ middle ] ] ) {
+			return; // already in order
+		}
+		System.arraycopy( positions, from, buffer, from, to - from );
+		for ( int i = from, left = from, right = middle; i < to; i++ ) {
+			if ( right >= to || left < middle && hashes[ buffer[ left ] ] <= hashes[ buffer[ right ] ] ) {
+				positions[i] = buffer[ left++ ];
+			} else {
+				positions[i] = buffer[ right++ ];
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Sets up to this size are searched linearly, cause comparing a few elements is cheaper than the binary search.
+	 *
+	 */
+	private static final int LINEAR = 8;
+
+
+
+	private static final Object[] NONE = new Object[0];
+
+
+
+	private static final FrozenSet<Object> EMPTY = new FrozenSet<Object>( new LinkedHashSet<Object>(), false, true );
+
+
+
+	/**
+	 * The elements in their order of iteration.
+	 *
+	 */
+	final Object[] elements;
+
+
+
+	/**
+	 * The positions of the elements sorted by their hash codes, <code>null</code> for small sets.
+	 *
+	 */
+	private final int[] byHash;
+
+
+
+	private final boolean linked;
+}
@@ -0,0 +1,185 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.collection;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+
+/**
+ * A FrozenSortedSet is an immutable SortedSet, that holds its elements in an array of the exact size, sorted like the SortedSet they were
+ * copied from, see {@link FrozenCollections}.
+ * <p>
+ * The elements are looked up by a binary search with the Comparator of the copied SortedSet, or by their natural order, so a FrozenSortedSet
+ * finds the same elements as the TreeSet it replaces. Views like {@link #headSet(Object)} are frozen copies, not views.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class FrozenSortedSet<E>
+extends
+	FrozenSet<E>
+implements
+	SortedSet<E>
+{
+
+
+	/**
+	 * Creates a new instance of FrozenSortedSet with the elements of a SortedSet.
+	 *
+	 * @param elements The sorted elements. Must not be <code>null</code>.
+	 *
+	 */
+	public FrozenSortedSet( SortedSet<E> elements ) {
+		super( elements, false, false ); // throws NullPointerException
+		this.comparator = elements.comparator();
+	}
+
+
+
+	@SuppressWarnings( "unchecked" )
+	private FrozenSortedSet( Object[] elements, int from, int to, Comparator<? super E> comparator ) {
+		super( (List<E>) Arrays.asList( elements ).subList( from, to ), false, false );
+		this.comparator = comparator;
+	}
+
+
+
+//====================================================================================================================================================
+// SortedSet capabilities
+//====================================================================================================================================================
+
+
+
+	public Comparator<? super E> comparator() {
+		return this.comparator;
+	}
+
+
+
+	@SuppressWarnings( "unchecked" )
+	public E first() {
+		if ( this.elements.length == 0 ) {
+			throw new NoSuchElementException();
+		}
+
+		return (E) this.elements[0];
+	}
+
+
+
+	@SuppressWarnings( "unchecked" )
+	public E last() {
+		if ( this.elements.length == 0 ) {
+			throw new NoSuchElementException();
+		}
+
+		return (E) this.elements[ this.elements.length - 1 ];
+	}
+
+
+
+	public SortedSet<E> subSet( E fromElement, E toElement ) {
+		return new FrozenSortedSet<E>( this.elements, lowerBound( fromElement ), lowerBound( toElement ), this.comparator );
+	}
+
+
+
+	public SortedSet<E> headSet( E toElement ) {
+		return new FrozenSortedSet<E>( this.elements, 0, lowerBound( toElement ), this.comparator );
+	}
+
+
+
+	public SortedSet<E> tailSet( E fromElement ) {
+		return new FrozenSortedSet<E>( this.elements, lowerBound( fromElement ), this.elements.length, this.comparator );
+	}
+
+
+
+	@Override
+	public boolean contains( Object object ) {
+		if ( object == null ) {
+			return false;
+		}
+		int position;
+		try {
+			position = lowerBound( object );
+		} catch ( ClassCastException e ) {
+			return false; // not comparable with the elements, so not contained
+		}
+
+		return position < this.elements.length && compare( this.elements[ position ], object ) == 0;
+	}
+
+
+
+//====================================================================================================================================================
+// FrozenSortedSet internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The position of the first element not less than the object.
+	 *
+	 */
+	private int lowerBound( Object object ) {
+		int low  = 0;
+		int high = this.elements.length - 1;
+		while ( low <= high ) {
+			int middle = low + high >>> 1;
+			if ( compare( this.elements[ middle ], object ) < 0 ) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+
+
+	@SuppressWarnings( "unchecked" )
+	private int compare( Object element, Object object ) {
+		if ( this.comparator != null ) {
+			return this.comparator.compare( (E) element, (E) object );
+		}
+
+		return ( (Comparable<Object>) element ).compareTo( object );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final Comparator<? super E> comparator;
+}
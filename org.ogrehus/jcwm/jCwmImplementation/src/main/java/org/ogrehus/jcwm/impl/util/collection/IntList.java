@@ -0,0 +1,161 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.collection;
+
+import java.util.Arrays;
+
+
+/**
+ * A growable list of primitive int values.
+ * <p>
+ * Used by indexes and graph algorithms that handle millions of ids, where a <code>List&lt;Integer&gt;</code> would cost an object per value.
+ * The list is not synchronized.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class IntList {
+
+
+	/**
+	 * Creates a new, empty instance of IntList with a default capacity.
+	 *
+	 */
+	public IntList() {
+		this( 16 );
+	}
+
+
+
+	/**
+	 * Creates a new, empty instance of IntList.
+	 *
+	 * @param capacity The initial capacity. Must not be negative.
+	 *
+	 */
+	public IntList( int capacity ) {
+		if ( capacity < 0 ) {
+			throw new IllegalArgumentException( "Parameter: capacity must not be negative." );
+		}
+		this.values = new int[ capacity ];
+	}
+
+
+
+	public void add( int value ) {
+		if ( this.size == this.values.length ) {
+			this.values = Arrays.copyOf( this.values, Math.max( 16, this.size + ( this.size >> 1 ) ) );
+		}
+		this.values[ this.size++ ] = value;
+	}
+
+
+
+	public int get( int index ) {
+		if ( index >= this.size ) {
+			throw new IndexOutOfBoundsException( "Index: " + index + ", size: " + this.size );
+		}
+		return this.values[ index ];
+	}
+
+
+
+	public void set( int index, int value ) {
+		if ( index >= this.size ) {
+			throw new IndexOutOfBoundsException( "Index: " + index + ", size: " + this.size );
+		}
+		this.values[ index ] = value;
+	}
+
+
+
+	/**
+	 * Removes and returns the last value.
+	 *
+	 */
+	public int removeLast() {
+		if ( this.size == 0 ) {
+			throw new IndexOutOfBoundsException( "The list is empty." );
+		}
+		return this.values[ --this.size ];
+	}
+
+
+
+	public int size() {
+		return this.size;
+	}
+
+
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+
+
+	public void clear() {
+		this.size = 0;
+	}
+
+
+
+	/**
+	 * @return A copy of all values, trimmed to the size of the list.
+	 *
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf( this.values, this.size );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[IntList" );
+		out.append( " | size=" + this.size );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private int[] values;
+
+
+
+	private int size = 0;
+}
@@ -0,0 +1,125 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.collection;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.classifierfeature.Classifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.Namespace;
+
+
+/**
+ * A ModelTraversal iterates over a ModelElement and everything it owns: the owned elements of namespaces and the features of classifiers,
+ * transitively.
+ * <p>
+ * The traversal is lazy. The next element is looked up when it is requested, so a search that stops at the first match does not touch the rest
+ * of the model. Each element is returned once, even if it is reachable on more than one path.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelTraversal
+implements
+	Iterable<ModelElement>
+{
+
+
+	/**
+	 * Creates a new instance of ModelTraversal.
+	 *
+	 * @param root The first element of the traversal. Must not be <code>null</code>.
+	 *
+	 */
+	public ModelTraversal( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		this.root = root;
+	}
+
+
+
+//====================================================================================================================================================
+// Iterable capabilities
+//====================================================================================================================================================
+
+
+
+	public Iterator<ModelElement> iterator() {
+		final Deque<ModelElement> open = new ArrayDeque<ModelElement>();
+		final Set<ModelElement> visited = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+		open.push( this.root );
+
+		return new Iterator<ModelElement>() {
+
+			public boolean hasNext() {
+				while ( !open.isEmpty() && visited.contains( open.peek() ) ) {
+					open.pop(); // imported elements may be reachable more than once
+				}
+				return !open.isEmpty();
+			}
+
+			public ModelElement next() {
+				if ( !hasNext() ) {
+					throw new NoSuchElementException();
+				}
+				ModelElement element = open.pop();
+				visited.add( element );
+				if ( element instanceof Namespace<?> ) {
+					open.addAll( ( (Namespace<?>) element ).getOwnedElements() );
+				}
+				if ( element instanceof Classifier<?> ) {
+					open.addAll( ( (Classifier<?>) element ).getFeatures() );
+				}
+				return element;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException( "A ModelTraversal is read only." );
+			}
+		};
+	}
+
+
+
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement root;
+}
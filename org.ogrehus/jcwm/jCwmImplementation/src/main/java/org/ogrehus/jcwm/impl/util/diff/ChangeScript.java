@@ -0,0 +1,238 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A ChangeScript lists the Differences that turn a before model into an after model.
+ * <p>
+ * The Differences are listed top down: the Differences of an element precede the Differences of its children, and a renamed element precedes
+ * the changes of its properties. The order of siblings is the order of the children in the models.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ModelDiff#compare(ModelElement, ModelElement)
+ *
+ */
+public final class ChangeScript
+implements
+	Iterable<Difference>
+{
+
+
+	/**
+	 * Creates a new instance of ChangeScript by specific parameters.
+	 *
+	 * @param before The compared root of the before model. Must not be <code>null</code>.
+	 *
+	 * @param after The compared root of the after model. Must not be <code>null</code>.
+	 *
+	 * @param differences The Differences in the order of the script, copied. Must not be <code>null</code>.
+	 *
+	 */
+	public ChangeScript( ModelElement before, ModelElement after, List<Difference> differences ) {
+		this( before, after, differences, Collections.<ModelElement, ModelElement>emptyMap() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ChangeScript by specific parameters.
+	 *
+	 * @param matches The elements of the before model mapped to their matches in the after model, at least the elements that differ or have
+	 * differing descendants. Copied, must not be <code>null</code>.
+	 *
+	 */
+	ChangeScript( ModelElement before, ModelElement after, List<Difference> differences, Map<ModelElement, ModelElement> matches ) {
+		if ( before == null ) {
+			throw new NullPointerException( "Parameter: before must not be null." );
+		}
+		if ( after == null ) {
+			throw new NullPointerException( "Parameter: after must not be null." );
+		}
+		if ( differences == null ) {
+			throw new NullPointerException( "Parameter: differences must not be null." );
+		}
+		this.before      = before;
+		this.after       = after;
+		this.differences = Collections.unmodifiableList( new ArrayList<Difference>( differences ) );
+		this.matches     = new IdentityHashMap<ModelElement, ModelElement>( matches.size() * 2 );
+		for ( Map.Entry<ModelElement, ModelElement> match : matches.entrySet() ) {
+			this.matches.put( match.getKey(), match.getValue() );
+			this.matches.put( match.getValue(), match.getKey() );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Iterable capabilities
+//====================================================================================================================================================
+
+
+
+	public Iterator<Difference> iterator() {
+		return this.differences.iterator();
+	}
+
+
+
+//====================================================================================================================================================
+// ChangeScript capabilities
+//====================================================================================================================================================
+
+
+
+	public ModelElement getBefore() {
+		return this.before;
+	}
+
+
+
+	public ModelElement getAfter() {
+		return this.after;
+	}
+
+
+
+	public List<Difference> getDifferences() {
+		return this.differences;
+	}
+
+
+
+	/**
+	 * @return The Differences of a kind, in the order of the script.
+	 *
+	 */
+	public List<Difference> getDifferences( DifferenceKind kind ) {
+		List<Difference> result = new ArrayList<Difference>();
+		for ( Difference difference : this.differences ) {
+			if ( difference.getKind() == kind ) {
+				result.add( difference );
+			}
+		}
+
+		return result;
+	}
+
+
+
+	/**
+	 * @return The Differences of the elements of a type, like <code>ForeignKey.class</code>, in the order of the script.
+	 *
+	 */
+	public List<Difference> getDifferences( Class<? extends ModelElement> type ) {
+		List<Difference> result = new ArrayList<Difference>();
+		for ( Difference difference : this.differences ) {
+			if ( type.isInstance( difference.getElement() ) ) {
+				result.add( difference );
+			}
+		}
+
+		return result;
+	}
+
+
+
+	/**
+	 * Finds the element of the other model, that an element was matched with: the after element of a before element and vice versa. Known are
+	 * the matches of the elements, that differ or have differing descendants, like the table of a changed column.
+	 *
+	 * @return The matched element, <code>null</code> if the element was added, removed or not compared cause its subtree is equal.
+	 *
+	 */
+	public ModelElement getMatch( ModelElement element ) {
+		return this.matches.get( element );
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the models are equal.
+	 *
+	 */
+	public Boolean isEmpty() {
+		return this.differences.isEmpty();
+	}
+
+
+
+	public int size() {
+		return this.differences.size();
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ChangeScript" );
+		out.append( " | before=" + this.before.getSimpleName() );
+		out.append( " | after=" + this.after.getSimpleName() );
+		out.append( " | differences=" + this.differences.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement before;
+
+
+
+	private final ModelElement after;
+
+
+
+	private final List<Difference> differences;
+
+
+
+	/**
+	 * The matched elements of both models, in both directions.
+	 *
+	 */
+	private final Map<ModelElement, ModelElement> matches;
+}
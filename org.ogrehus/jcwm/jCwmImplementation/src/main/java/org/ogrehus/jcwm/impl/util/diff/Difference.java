@@ -0,0 +1,218 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A Difference is a single entry of a ChangeScript: an element that was added, removed or renamed, or a property of an element that
+ * changed.
+ * <p>
+ * The path of a Difference is the qualified name of the element below the compared root in the before model, like
+ * <code>SALES.ORDERS.AMOUNT</code>. The path of an added element is the path of its parent in the before model and its new name. The
+ * values of a property are the values described by the elements, see {@link Fingerprinter}: referenced elements belong to their model, the
+ * old value to the before model and the new value to the after model.
+ * </p>
+ * <p>
+ * Instances are immutable.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class Difference {
+
+
+	/**
+	 * Creates a new instance of Difference by specific parameters.
+	 *
+	 * @param kind The kind of the Difference. Must not be <code>null</code>.
+	 *
+	 * @param path The qualified name of the element below the compared root. Must not be <code>null</code>.
+	 *
+	 * @param before The element in the before model, <code>null</code> for an added element.
+	 *
+	 * @param after The element in the after model, <code>null</code> for a removed element.
+	 *
+	 * @param property The name of the changed property, <code>name</code> for a renamed element, <code>null</code> for an added or removed
+	 * element.
+	 *
+	 * @param oldValue The value in the before model.
+	 *
+	 * @param newValue The value in the after model.
+	 *
+	 */
+	public Difference(
+		  DifferenceKind kind
+		, String         path
+		, ModelElement   before
+		, ModelElement   after
+		, String         property
+		, Object         oldValue
+		, Object         newValue
+	) {
+		if ( kind == null ) {
+			throw new NullPointerException( "Parameter: kind must not be null." );
+		}
+		if ( path == null ) {
+			throw new NullPointerException( "Parameter: path must not be null." );
+		}
+		if ( before == null && after == null ) {
+			throw new NullPointerException( "Parameters: before and after must not both be null." );
+		}
+		this.kind     = kind;
+		this.path     = path;
+		this.before   = before;
+		this.after    = after;
+		this.property = property;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+
+
+//====================================================================================================================================================
+// Difference capabilities
+//====================================================================================================================================================
+
+
+
+	public DifferenceKind getKind() {
+		return this.kind;
+	}
+
+
+
+	public String getPath() {
+		return this.path;
+	}
+
+
+
+	public ModelElement getBefore() {
+		return this.before;
+	}
+
+
+
+	public ModelElement getAfter() {
+		return this.after;
+	}
+
+
+
+	/**
+	 * @return The element in the after model, or in the before model if it was removed.
+	 *
+	 */
+	public ModelElement getElement() {
+		return this.after != null ? this.after : this.before;
+	}
+
+
+
+	public String getProperty() {
+		return this.property;
+	}
+
+
+
+	public Object getOldValue() {
+		return this.oldValue;
+	}
+
+
+
+	public Object getNewValue() {
+		return this.newValue;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[Difference" );
+		out.append( " | kind=" + this.kind );
+		out.append( " | path=" + this.path + "<" + getElement().getClass().getSimpleName() + ">" );
+		if ( this.property != null ) {
+			out.append( " | property=" + this.property );
+			out.append( " | oldValue=" + toString( this.oldValue ) );
+			out.append( " | newValue=" + toString( this.newValue ) );
+		}
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// Difference internals
+//====================================================================================================================================================
+
+
+
+	private static String toString( Object value ) {
+		return value instanceof ModelElement ? ( (ModelElement) value ).getQualifiedName() : String.valueOf( value );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final DifferenceKind kind;
+
+
+
+	private final String path;
+
+
+
+	private final ModelElement before;
+
+
+
+	private final ModelElement after;
+
+
+
+	private final String property;
+
+
+
+	private final Object oldValue;
+
+
+
+	private final Object newValue;
+}
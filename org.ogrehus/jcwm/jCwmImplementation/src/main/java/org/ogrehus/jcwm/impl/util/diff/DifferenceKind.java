@@ -0,0 +1,53 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+
+/**
+ * Classifies a Difference between two models.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>added</code> - The element exists in the after model only. Its children are added with it and are not listed.</li>
+ * <li><code>removed</code> - The element exists in the before model only. Its children are removed with it and are not listed.</li>
+ * <li><code>renamed</code> - The element has another name in the after model. Other differences of the element and its children are listed
+ * separately.</li>
+ * <li><code>changed</code> - A property of the element has another value in the after model.</li>
+ * <li><code>widened</code> - The data type, length, precision or scale of the element has a greater range in the after model, like
+ * <code>INTEGER</code> to <code>BIGINT</code> or <code>VARCHAR(40)</code> to <code>VARCHAR(80)</code>.</li>
+ * <li><code>narrowed</code> - The data type, length, precision or scale of the element has a smaller range in the after model, values may
+ * be lost by a migration.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum DifferenceKind {
+	  added
+	, removed
+	, renamed
+	, changed
+	, widened
+	, narrowed
+	;
+}
@@ -0,0 +1,134 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+
+/**
+ * A Fingerprint is a 128 bit hash of the content of a ModelElement or of a whole subtree of the model.
+ * <p>
+ * Equal content has an equal Fingerprint, independent of the model or the location in the model the content belongs to. Different content
+ * has a different Fingerprint with a probability of about 1 - 2<sup>-128</sup>, so equal Fingerprints of two subtrees are taken as equal
+ * subtrees, without comparing them. The hash is not cryptographic: it detects changes, not tampering.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see Fingerprinter
+ *
+ */
+public final class Fingerprint {
+
+
+	public Fingerprint( long high, long low ) {
+		this.high = high;
+		this.low  = low;
+	}
+
+
+
+//====================================================================================================================================================
+// Fingerprint capabilities
+//====================================================================================================================================================
+
+
+
+	public long getHigh() {
+		return this.high;
+	}
+
+
+
+	public long getLow() {
+		return this.low;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public boolean equals( Object other ) {
+		if ( this == other ) {
+			return true;
+		}
+		if ( !( other instanceof Fingerprint ) ) {
+			return false;
+		}
+		Fingerprint fingerprint = (Fingerprint) other;
+
+		return this.high == fingerprint.high && this.low == fingerprint.low;
+	}
+
+
+
+	@Override
+	public int hashCode() {
+		return (int) this.low; // the bits are mixed already
+	}
+
+
+
+	/**
+	 * @return The 32 hexadecimal digits of the Fingerprint.
+	 *
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder( 32 );
+		appendHex( out, this.high );
+		appendHex( out, this.low );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// Fingerprint internals
+//====================================================================================================================================================
+
+
+
+	private static void appendHex( StringBuilder out, long value ) {
+		for ( int shift = 60; shift >= 0; shift -= 4 ) {
+			out.append( Character.forDigit( (int) ( value >>> shift ) & 0xF, 16 ) );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final long high;
+
+
+
+	private final long low;
+}
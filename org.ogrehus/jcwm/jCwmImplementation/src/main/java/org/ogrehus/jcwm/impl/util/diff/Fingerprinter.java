@@ -0,0 +1,433 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.Name;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+import org.ogrehus.jcwm.impl.util.render.PropertyVisitor;
+
+
+/**
+ * A Fingerprinter computes the Merkle style Fingerprints of ModelElements: the Fingerprint of a subtree is computed from the content of its
+ * root and the Fingerprints of the subtrees of its children, so two subtrees with equal Fingerprints are equal, and comparing them costs
+ * O(1).
+ * <p>
+ * The content of an element are the properties it describes, see {@link GFunModelElement#describe(ModelDescription)}, without its name, its
+ * children and the inverse ends of associations. Attributes are hashed by value, references by the path from the referencing element to the
+ * referenced element, like "two levels up, then <code>ORDERS.PK_ORDERS</code>". So a Fingerprint does not depend on the location of a subtree:
+ * a Schema copied into another Catalog has the same Fingerprint. SQLSimpleTypes are hashed by value, cause each Schema pools its own
+ * instances. The children of an element are a set: their order does not change the Fingerprint.
+ * </p>
+ * <p>
+ * The Fingerprints of shapes are stored by the elements themselves, see {@link GFunModelElement#getStoredShape()}: a change of an element
+ * drops the stored shapes of the element and its ancestors only, so the next Fingerprint of a Catalog recomputes the path of the changed
+ * element and reuses the stored shapes of all other subtrees. The Fingerprints of other elements are kept until the Fingerprinter is dropped.
+ * The model must not change while a Fingerprint is computed. A Fingerprinter is not thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class Fingerprinter {
+
+
+	public Fingerprinter() {
+		this.shapes    = new IdentityHashMap<ModelElement, Fingerprint>();
+		this.ancestors = new ModelElement[ 16 ];
+		this.visitor   = new PropertyVisitor() {
+			public void visit( String name, Object value ) {
+				if ( !ModelStructure.isIgnored( Fingerprinter.this.element, name, value ) ) {
+					addString( name );
+					addValue( value );
+				}
+			}
+		};
+	}
+
+
+
+//====================================================================================================================================================
+// Fingerprinter capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The Fingerprint of an element and everything it owns, including the name of the element.
+	 *
+	 */
+	public Fingerprint getSubtree( ModelElement element ) {
+		Fingerprint shape = getShape( element );
+		reset();
+		add( shape.getHigh() );
+		add( shape.getLow() );
+		addString( element.getSimpleName() );
+
+		return finish();
+	}
+
+
+
+	/**
+	 * @return The Fingerprint of an element and everything it owns, without the name of the element: equal shapes of two elements with
+	 * different names denote a renamed element.
+	 *
+	 */
+	public Fingerprint getShape( ModelElement element ) {
+		GFunModelElement<?, ?, ?, ?> stored = element instanceof GFunModelElement<?, ?, ?, ?> ? (GFunModelElement<?, ?, ?, ?>) element : null;
+		Fingerprint shape = stored != null ? stored.getStoredShape() : this.shapes.get( element );
+		if ( shape != null ) {
+			return shape;
+		}
+		int epoch = GFunModelElement.getShapeEpoch();
+
+		long high  = 0; // the children are summed up, so their order does not matter
+		long low   = 0;
+		int  count = 0;
+		List<ModelElement> children = new ArrayList<ModelElement>();
+		ModelStructure.addChildren( element, children );
+		for ( ModelElement child : children ) {
+			Fingerprint subtree = getSubtree( child );
+			high += subtree.getHigh();
+			low  += subtree.getLow();
+			count++;
+		}
+
+		hashContent( element );
+		add( count );
+		add( high );
+		add( low );
+		shape = finish();
+		if ( stored != null ) {
+			stored.storeShape( shape, epoch );
+		} else {
+			this.shapes.put( element, shape );
+		}
+
+		return shape;
+	}
+
+
+
+	/**
+	 * @return The Fingerprint of the properties of an element only, without its name and its children.
+	 *
+	 */
+	public Fingerprint getContent( ModelElement element ) {
+		hashContent( element );
+
+		return finish();
+	}
+
+
+
+	/**
+	 * @return The Fingerprint of a value described by an element, to compare the value with the value of another element.
+	 *
+	 */
+	Fingerprint getValue( ModelElement element, Object value ) {
+		ModelElement outer = this.element;
+		this.element = element;
+		try {
+			reset();
+			addValue( value );
+		} finally {
+			this.element = outer;
+		}
+
+		return finish();
+	}
+
+
+
+//====================================================================================================================================================
+// Fingerprinter internals
+//====================================================================================================================================================
+
+
+
+	private void hashContent( ModelElement element ) {
+		reset();
+		addString( element.getClass().getName() );
+		if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+			ModelElement outer = this.element;
+			this.element = element;
+			try {
+				( (GFunModelElement<?, ?, ?, ?>) element ).describe( new ModelDescription( this.visitor ) );
+			} finally {
+				this.element = outer;
+			}
+		}
+	}
+
+
+
+	private void addValue( Object value ) {
+		if ( value == null ) {
+			add( 0 );
+		} else if ( value instanceof CharSequence || value instanceof Name ) {
+			add( 1 );
+			addString( value.toString() );
+		} else if ( value instanceof SQLSimpleType ) {
+			add( 2 );
+			addType( (SQLSimpleType) value );
+		} else if ( value instanceof ModelElement ) {
+			add( 3 );
+			addReference( (ModelElement) value );
+		} else if ( value instanceof Boolean ) {
+			add( ( (Boolean) value ).booleanValue() ? 4 : 5 );
+		} else if ( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ) {
+			add( 6 );
+			add( ( (Number) value ).longValue() );
+		} else if ( value instanceof Number ) {
+			add( 6 );
+			add( Double.doubleToLongBits( ( (Number) value ).doubleValue() ) );
+		} else if ( value instanceof Enum<?> ) {
+			add( 7 );
+			addString( ( (Enum<?>) value ).name() );
+		} else if ( value instanceof List<?> ) {
+			add( 8 );
+			add( ( (List<?>) value ).size() );
+			for ( Object member : (List<?>) value ) {
+				addValue( member );
+			}
+		} else if ( value instanceof Collection<?> ) {
+			addSet( (Collection<?>) value );
+		} else {
+			add( 10 );
+			addString( value.toString() );
+		}
+	}
+
+
+
+	/**
+	 * Adds the members of a set by the sum of their hashes, cause the order of a set is not defined.
+	 *
+	 */
+	private void addSet( Collection<?> set ) {
+		long a = this.a;
+		long b = this.b;
+		long high = 0;
+		long low  = 0;
+		for ( Object member : set ) {
+			reset();
+			addValue( member );
+			high += mix( this.a );
+			low  += mix( this.b );
+		}
+		this.a = a;
+		this.b = b;
+		add( 9 );
+		add( set.size() );
+		add( high );
+		add( low );
+	}
+
+
+
+	private void addType( SQLSimpleType type ) {
+		if ( type instanceof GFunModelElement<?, ?, ?, ?> ) {
+			( (GFunModelElement<?, ?, ?, ?>) type ).markShapeReferenced( true );
+		}
+		add( type.getTypeNumber() == null ? Integer.MIN_VALUE : type.getTypeNumber() );
+		addString( type.getSimpleName() );
+		addInteger( type.getNumericPrecision() );
+		addInteger( type.getCharacterMaximumLength() );
+		addInteger( type.getNumericScale() );
+	}
+
+
+
+	/**
+	 * Adds the path from the described element to a referenced element: the names from the referenced element up to the first common
+	 * ancestor, and the number of levels from the described element up to that ancestor.
+	 *
+	 */
+	private void addReference( ModelElement referenced ) {
+		int size = 0;
+		for ( ModelElement current = this.element; current != null; current = ModelStructure.getParent( current ) ) {
+			if ( size == this.ancestors.length ) {
+				ModelElement[] grown = new ModelElement[ size * 2 ];
+				System.arraycopy( this.ancestors, 0, grown, 0, size );
+				this.ancestors = grown;
+			}
+			this.ancestors[ size++ ] = current;
+		}
+
+		int levels = -1; // no common ancestor, the whole qualified name is added
+		for ( ModelElement current = referenced; current != null && levels < 0; current = ModelStructure.getParent( current ) ) {
+			for ( int i = 0; i < size; i++ ) {
+				if ( this.ancestors[i] == current ) {
+					levels = i;
+					break;
+				}
+			}
+			if ( levels < 0 ) {
+				addString( current.getSimpleName() );
+				if ( current instanceof GFunModelElement<?, ?, ?, ?> ) {
+					( (GFunModelElement<?, ?, ?, ?>) current ).markShapeReferenced( false );
+				}
+			}
+		}
+		for ( int i = 0; i < size; i++ ) {
+			this.ancestors[i] = null;
+		}
+		add( levels );
+	}
+
+
+
+	private void addInteger( Number number ) {
+		add( number == null ? Long.MIN_VALUE : number.longValue() );
+	}
+
+
+
+	private void addString( String text ) {
+		if ( text == null ) {
+			add( -1 );
+			return;
+		}
+		int length = text.length();
+		add( length );
+		for ( int i = 0; i < length; i += 4 ) {
+			long packed = 0;
+			for ( int j = i; j < i + 4 && j < length; j++ ) {
+				packed = packed << 16 | text.charAt( j );
+			}
+			add( packed );
+		}
+	}
+
+
+
+	private void reset() {
+		this.a = SEED_A;
+		this.b = SEED_B;
+	}
+
+
+
+	/**
+	 * Adds 64 bits to both lanes of the hash, each lane is multiplied and rotated by other constants.
+	 *
+	 */
+	private void add( long value ) {
+		this.a = Long.rotateLeft( this.a ^ value * K1, 31 ) * K2 + K3;
+		this.b = Long.rotateLeft( this.b ^ value * K3, 27 ) * K1 + K2;
+	}
+
+
+
+	private Fingerprint finish() {
+		long high = mix( this.a ^ Long.rotateLeft( this.b, 17 ) );
+		long low  = mix( this.b + this.a * K2 );
+		reset();
+
+		return new Fingerprint( high, low );
+	}
+
+
+
+	/**
+	 * The finalizer of MurmurHash3, every bit of the result depends on every bit of the value.
+	 *
+	 */
+	private static long mix( long value ) {
+		value ^= value >>> 33;
+		value *= 0xFF51AFD7ED558CCDL;
+		value ^= value >>> 33;
+		value *= 0xC4CEB9FE1A85EC53L;
+		value ^= value >>> 33;
+
+		return value;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final long K1 = 0x87C37B91114253D5L;
+
+
+
+	private static final long K2 = 0x4CF5AD432745937FL;
+
+
+
+	private static final long K3 = 0x52DCE729L;
+
+
+
+	private static final long SEED_A = 0x9E3779B97F4A7C15L;
+
+
+
+	private static final long SEED_B = 0xC2B2AE3D27D4EB4FL;
+
+
+
+	private final Map<ModelElement, Fingerprint> shapes;
+
+
+
+	private final PropertyVisitor visitor;
+
+
+
+	/**
+	 * The ancestors of the described element, reused for each reference.
+	 *
+	 */
+	private ModelElement[] ancestors;
+
+
+
+	/**
+	 * The element described at the moment.
+	 *
+	 */
+	private ModelElement element;
+
+
+
+	private long a = SEED_A;
+
+
+
+	private long b = SEED_B;
+}
@@ -0,0 +1,124 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+
+/**
+ * A MergeConflict is a Difference of theirs model, that contradicts a Difference of ours model, like a column that was widened in one
+ * model and removed in the other one.
+ * <p>
+ * Instances are immutable.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ModelMerge
+ *
+ */
+public final class MergeConflict {
+
+
+	/**
+	 * Creates a new instance of MergeConflict by specific parameters.
+	 *
+	 * @param ours The Difference of the base model to ours model, <code>null</code> if theirs Difference can't be applied for another reason.
+	 *
+	 * @param theirs The Difference of the base model to theirs model. Must not be <code>null</code>.
+	 *
+	 * @param reason Why the Differences contradict. Must not be <code>null</code>.
+	 *
+	 */
+	public MergeConflict( Difference ours, Difference theirs, String reason ) {
+		if ( theirs == null ) {
+			throw new NullPointerException( "Parameter: theirs must not be null." );
+		}
+		if ( reason == null ) {
+			throw new NullPointerException( "Parameter: reason must not be null." );
+		}
+		this.ours   = ours;
+		this.theirs = theirs;
+		this.reason = reason;
+	}
+
+
+
+//====================================================================================================================================================
+// MergeConflict capabilities
+//====================================================================================================================================================
+
+
+
+	public Difference getOurs() {
+		return this.ours;
+	}
+
+
+
+	public Difference getTheirs() {
+		return this.theirs;
+	}
+
+
+
+	public String getReason() {
+		return this.reason;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[MergeConflict" );
+		out.append( " | reason=" + this.reason );
+		out.append( " | theirs=" + this.theirs );
+		if ( this.ours != null ) {
+			out.append( " | ours=" + this.ours );
+		}
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final Difference ours;
+
+
+
+	private final Difference theirs;
+
+
+
+	private final String reason;
+}
@@ -0,0 +1,429 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.classifierfeature.Classifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.classifierfeature.Featured;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.Namespace;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.OwnedElement;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.json.ImportResult;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonExporter;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonImporter;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+import org.ogrehus.jcwm.impl.util.render.PropertyVisitor;
+
+
+/**
+ * A MergeResult holds the Differences of theirs model, that can be merged into ours model, and the conflicts, that can't.
+ * <p>
+ * Applying the changes finds the changed elements in ours model by their names in the base model, respecting elements renamed in ours model.
+ * Properties are set by their setters, referenced elements are replaced by the elements with the same path in ours model. Added elements are
+ * copied with their subtrees by a JSON round trip, see {@link ModelJsonImporter#read(java.io.Reader, ModelElement, Map)}, theirs model is not
+ * changed. An added element, that references an element missing in ours model, is a conflict.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ModelMerge#merge(ModelElement, ModelElement, ModelElement)
+ *
+ */
+public final class MergeResult {
+
+
+	MergeResult(
+		  ModelElement        base
+		, ModelElement        ours
+		, ModelElement        theirs
+		, ChangeScript        oursScript
+		, List<Difference>    changes
+		, List<MergeConflict> conflicts
+	) {
+		this.base      = base;
+		this.ours      = ours;
+		this.theirs    = theirs;
+		this.changes   = Collections.unmodifiableList( changes );
+		this.conflicts = Collections.unmodifiableList( conflicts );
+		this.renamed   = new IdentityHashMap<ModelElement, String>();
+		for ( Difference difference : oursScript.getDifferences( DifferenceKind.renamed ) ) {
+			this.renamed.put( difference.getBefore(), (String) difference.getNewValue() );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// MergeResult capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The Differences of theirs model, that can be applied to ours model, in the order of theirs ChangeScript.
+	 *
+	 */
+	public List<Difference> getChanges() {
+		return this.changes;
+	}
+
+
+
+	public List<MergeConflict> getConflicts() {
+		return this.conflicts;
+	}
+
+
+
+	public Boolean hasConflicts() {
+		return !this.conflicts.isEmpty();
+	}
+
+
+
+	/**
+	 * Applies the changes to ours model. The conflicts are not touched, they must be resolved by hand.
+	 *
+	 * @return The changes that could not be applied, like a changed property without setter, each with the reason. Empty if all changes were
+	 * applied.
+	 *
+	 * @throws IllegalStateException If the changes were applied before.
+	 *
+	 */
+	public List<MergeConflict> apply() {
+		if ( this.applied ) {
+			throw new IllegalStateException( "The changes of the merge are applied already." );
+		}
+		this.applied = true;
+
+		List<MergeConflict> failed = new ArrayList<MergeConflict>();
+		for ( Difference change : this.changes ) {
+			String reason = apply( change );
+			if ( reason != null ) {
+				failed.add( new MergeConflict( null, change, reason ) );
+			}
+		}
+
+		return failed;
+	}
+
+
+
+	public ModelElement getBase() {
+		return this.base;
+	}
+
+
+
+	public ModelElement getOurs() {
+		return this.ours;
+	}
+
+
+
+	public ModelElement getTheirs() {
+		return this.theirs;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[MergeResult" );
+		out.append( " | ours=" + this.ours.getSimpleName() );
+		out.append( " | theirs=" + this.theirs.getSimpleName() );
+		out.append( " | changes=" + this.changes.size() );
+		out.append( " | conflicts=" + this.conflicts.size() );
+		out.append( " | applied=" + this.applied );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// MergeResult internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return Why the change could not be applied, <code>null</code> if it was applied.
+	 *
+	 */
+	private String apply( Difference change ) {
+		if ( change.getKind() == DifferenceKind.added ) {
+			ModelElement parent = locate( this.theirs, ModelStructure.getParent( change.getAfter() ), false );
+			if ( parent == null ) {
+				return "parent not found in ours model";
+			}
+			return copy( change.getAfter(), parent );
+		}
+
+		ModelElement target = locate( this.base, change.getBefore(), true );
+		if ( target == null ) {
+			return "not found in ours model";
+		}
+		switch ( change.getKind() ) {
+		case removed:
+			ModelElement parent = ModelStructure.getParent( target );
+			if ( parent instanceof Classifier<?> && target instanceof Featured<?> && ( (Featured<?>) target ).getOwner() == parent ) {
+				( (Classifier<?>) parent ).removeFeature( (Featured<?>) target );
+			} else if ( parent instanceof Namespace<?> && target instanceof OwnedElement<?> ) {
+				( (Namespace<?>) parent ).removeOwnedElement( (OwnedElement<?>) target );
+			}
+			return null;
+		case renamed:
+			if ( !( target instanceof GFunModelElement<?, ?, ?, ?> ) ) {
+				return "the element can't be renamed";
+			}
+			( (GFunModelElement<?, ?, ?, ?>) target ).setName( (String) change.getNewValue() );
+			this.renamed.put( change.getBefore(), (String) change.getNewValue() );
+			return null;
+		default:
+			Object value = change.getNewValue();
+			if ( value instanceof ModelElement && !( value instanceof SQLSimpleType ) ) { // simple types are shared values
+				value = locate( this.theirs, (ModelElement) value, false );
+				if ( value == null ) {
+					return "the referenced element was not found in ours model";
+				}
+			}
+			String property = change.getProperty();
+			String name = Character.toUpperCase( property.charAt( 0 ) ) + property.substring( 1 );
+			if ( invoke( target, "set" + name, value ) ) {
+				return null;
+			}
+			if ( property.startsWith( "is" ) && property.length() > 2 && invoke( target, "set" + property.substring( 2 ), value ) ) {
+				return null;
+			}
+			return "no setter of the property: " + property;
+		}
+	}
+
+
+
+	/**
+	 * Copies an added element of theirs model with its subtree into a parent of ours model, by exporting it and importing the document into the
+	 * parent. The elements outside the subtree it references are replaced by the elements with the same path in ours model.
+	 *
+	 * @return Why the element could not be copied, <code>null</code> if it was copied.
+	 *
+	 */
+	private String copy( ModelElement added, ModelElement parent ) {
+		Map<Integer, ModelElement> external = new HashMap<Integer, ModelElement>();
+		for ( ModelElement referenced : getExternalReferences( added ) ) {
+			ModelElement located = locate( this.theirs, referenced, false );
+			if ( located == null ) {
+				return "the referenced element: " + ModelStructure.getPath( this.theirs, referenced ) + " was not found in ours model";
+			}
+			external.put( ModelJsonWriter.getId( referenced ), located );
+		}
+
+		try {
+			StringWriter document = new StringWriter();
+			new ModelJsonExporter().export( added, document );
+			ImportResult result = new ModelJsonImporter().read( new StringReader( document.toString() ), parent, external );
+			if ( result.getUnresolved() > 0 ) {
+				return result.getUnresolved() + " references of the copy were not resolved";
+			}
+		} catch ( IOException e ) {
+			return "the element can't be copied: " + e.getMessage();
+		}
+
+		return null;
+	}
+
+
+
+	/**
+	 * @return The elements outside the subtree of an element, its subtree references. Shared simple types are left out, elements without a
+	 * parent, like SQLIndexColumns, are copied with the subtree and their references are collected instead.
+	 *
+	 */
+	private static Set<ModelElement> getExternalReferences( ModelElement root ) {
+		final Set<ModelElement> subtree = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+		final List<ModelElement> pending = new ArrayList<ModelElement>();
+		pending.add( root );
+		while ( !pending.isEmpty() ) { // the subtree first, a reference may point into a later branch
+			ModelElement element = pending.remove( pending.size() - 1 );
+			subtree.add( element );
+			ModelStructure.addChildren( element, pending );
+		}
+
+		final Set<ModelElement> external = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+		final Set<ModelElement> visited = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+		pending.addAll( subtree );
+		while ( !pending.isEmpty() ) {
+			final ModelElement element = pending.remove( pending.size() - 1 );
+			if ( !visited.add( element ) || !( element instanceof GFunModelElement<?, ?, ?, ?> ) ) {
+				continue;
+			}
+			( (GFunModelElement<?, ?, ?, ?>) element ).describe( new ModelDescription( new PropertyVisitor() {
+				public void visit( String name, Object value ) {
+					if ( ModelStructure.isIgnored( element, name, value ) ) {
+						return;
+					}
+					for ( Object member : value instanceof Collection<?> ? (Collection<?>) value : Collections.singleton( value ) ) {
+						if ( !( member instanceof ModelElement ) || member instanceof SQLSimpleType || subtree.contains( member ) ) {
+							continue;
+						}
+						if ( ModelStructure.getParent( (ModelElement) member ) == null ) {
+							pending.add( (ModelElement) member );
+						} else {
+							external.add( (ModelElement) member );
+						}
+					}
+				}
+			} ) );
+		}
+
+		return external;
+	}
+
+
+
+	/**
+	 * Finds the element of ours model with the same path as an element of the base model or theirs model. The names of elements of the base
+	 * model are replaced by their names in ours model, if they were renamed.
+	 *
+	 * @return The element of ours model, <code>null</code> if ours model has no such element.
+	 *
+	 */
+	private ModelElement locate( ModelElement root, ModelElement element, boolean inBase ) {
+		List<ModelElement> chain = new ArrayList<ModelElement>();
+		for ( ModelElement current = element; current != root; current = ModelStructure.getParent( current ) ) {
+			if ( current == null ) {
+				return null; // not below the root
+			}
+			chain.add( current );
+		}
+
+		ModelElement located = this.ours;
+		List<ModelElement> children = new ArrayList<ModelElement>();
+		for ( int i = chain.size() - 1; i >= 0 && located != null; i-- ) {
+			ModelElement step = chain.get(i);
+			String name = inBase && this.renamed.containsKey( step ) ? this.renamed.get( step ) : step.getSimpleName();
+			children.clear();
+			ModelStructure.addChildren( located, children );
+			located = null;
+			for ( ModelElement child : children ) {
+				if ( child.getClass() == step.getClass() && child.getSimpleName().equals( name ) ) {
+					located = child;
+					break;
+				}
+			}
+		}
+
+		return located;
+	}
+
+
+
+	/**
+	 * Invokes a method with a single parameter, that accepts the value. The name <code>add</code> stands for any method named
+	 * <code>add</code>...
+	 *
+	 * @return <code>false</code> if the object has no such method.
+	 *
+	 */
+	private static boolean invoke( Object object, String name, Object value ) {
+		for ( Method method : object.getClass().getMethods() ) {
+			boolean named = name.equals( "add" ) ? method.getName().startsWith( name ) : method.getName().equals( name );
+			if ( !named || method.getParameterTypes().length != 1 ) {
+				continue;
+			}
+			Class<?> type = method.getParameterTypes()[0];
+			if ( value == null ? type.isPrimitive() : !type.isInstance( value ) ) {
+				continue;
+			}
+			try {
+				method.invoke( object, value );
+				return true;
+			} catch ( Exception e ) {
+				throw new IllegalStateException( "The method: " + name + " of " + object.getClass().getName() + " failed.", e );
+			}
+		}
+
+		return false;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement base;
+
+
+
+	private final ModelElement ours;
+
+
+
+	private final ModelElement theirs;
+
+
+
+	private final List<Difference> changes;
+
+
+
+	private final List<MergeConflict> conflicts;
+
+
+
+	/**
+	 * The names in ours model of the elements of the base model renamed in ours model or by an applied change.
+	 *
+	 */
+	private final Map<ModelElement, String> renamed;
+
+
+
+	private boolean applied = false;
+}
@@ -0,0 +1,616 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+import org.ogrehus.jcwm.impl.util.render.PropertyVisitor;
+
+
+/**
+ * A ModelDiff compares two models, like the Catalogs of two environments, and lists their Differences in a ChangeScript.
+ * <p>
+ * The comparison is driven by Fingerprints: subtrees with equal Fingerprints are skipped without looking into them, so comparing two large
+ * models that differ in a few tables costs little more than computing their Fingerprints once. Elements are matched by their class and their
+ * name among the children of their matched parents. Unmatched elements of the same class are taken as renamed if they have the same shape,
+ * see {@link Fingerprinter#getShape(ModelElement)}, or if they share most of the names of their children, like a table that was renamed and
+ * got a new column.
+ * </p>
+ * <p>
+ * The compared roots are matched regardless of their names, so a Catalog <code>PROD</code> can be compared with a Catalog <code>TEST</code>.
+ * A reference to a renamed element, like the UniqueKey of a ForeignKey in a renamed table, is not a Difference of its own.
+ * A ModelDiff is immutable and can be shared by threads, the models must not change while they are compared.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * ChangeScript script = new ModelDiff().compare( production, test );
+ * for ( Difference difference : script.getDifferences( ForeignKey.class ) ) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelDiff {
+
+
+	/**
+	 * Creates a new instance of ModelDiff that takes elements as renamed if they share at least half of the names of their children.
+	 *
+	 */
+	public ModelDiff() {
+		this( 0.5 );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelDiff by specific parameters.
+	 *
+	 * @param similarity The minimal share of equal names of children, from 0 exclusive to 1 inclusive, of two elements with different shapes to
+	 * be taken as renamed.
+	 *
+	 */
+	public ModelDiff( double similarity ) {
+		if ( !( similarity > 0 && similarity <= 1 ) ) {
+			throw new IllegalArgumentException( "The parameter: similarity (=" + similarity + ") must be greater than 0 and at most 1." );
+		}
+		this.similarity = similarity;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelDiff capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Compares two models.
+	 *
+	 * @param before The root of the before model, like a Catalog. Must not be <code>null</code>.
+	 *
+	 * @param after The root of the after model. Must not be <code>null</code>.
+	 *
+	 * @return The Differences that turn the before model into the after model, an empty script if the models are equal.
+	 *
+	 */
+	public ChangeScript compare( ModelElement before, ModelElement after ) {
+		if ( before == null ) {
+			throw new NullPointerException( "Parameter: before must not be null." );
+		}
+		if ( after == null ) {
+			throw new NullPointerException( "Parameter: after must not be null." );
+		}
+		Comparison comparison = new Comparison();
+		comparison.compareElements( before, after, "" );
+
+		return new ChangeScript( before, after, comparison.getDifferences(), comparison.matches );
+	}
+
+
+
+	public double getSimilarity() {
+		return this.similarity;
+	}
+
+
+
+	/**
+	 * Classifies the change of a property. A greater length, precision or scale, and a data type of the same family with a greater range,
+	 * like <code>SMALLINT</code> to <code>INTEGER</code>, are <code>widened</code>, the opposite is <code>narrowed</code>, anything else is
+	 * <code>changed</code>.
+	 *
+	 */
+	protected DifferenceKind classify( ModelElement before, ModelElement after, String property, Object oldValue, Object newValue ) {
+		int comparison = 0;
+		if ( oldValue instanceof SQLSimpleType && newValue instanceof SQLSimpleType ) {
+			comparison = compareTypes( (SQLSimpleType) oldValue, (SQLSimpleType) newValue );
+		} else if ( RANGES.contains( property ) && oldValue instanceof Number && newValue instanceof Number ) {
+			comparison = Long.compare( ( (Number) oldValue ).longValue(), ( (Number) newValue ).longValue() );
+		}
+
+		return comparison < 0 ? DifferenceKind.widened : comparison > 0 ? DifferenceKind.narrowed : DifferenceKind.changed;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelDiff internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return A negative number if the range of the new type is greater, a positive number if it is smaller, 0 if the types are not
+	 * comparable.
+	 *
+	 */
+	private static int compareTypes( SQLSimpleType oldType, SQLSimpleType newType ) {
+		Integer oldNumber = oldType.getTypeNumber();
+		Integer newNumber = newType.getTypeNumber();
+		if ( oldNumber == null || newNumber == null ) {
+			return 0;
+		}
+		oldNumber = oldNumber == Types.NUMERIC ? Types.DECIMAL : oldNumber; // equal ranges
+		newNumber = newNumber == Types.NUMERIC ? Types.DECIMAL : newNumber;
+		if ( oldNumber.equals( newNumber ) ) {
+			int comparison = compareRanges( oldType.getCharacterMaximumLength(), newType.getCharacterMaximumLength() );
+			if ( comparison == 0 ) {
+				comparison = compareRanges( oldType.getNumericPrecision(), newType.getNumericPrecision() );
+			}
+			return comparison;
+		}
+		for ( int[] family : TYPE_FAMILIES ) {
+			int oldRank = indexOf( family, oldNumber );
+			int newRank = indexOf( family, newNumber );
+			if ( oldRank >= 0 && newRank >= 0 ) {
+				return oldRank - newRank;
+			}
+		}
+
+		return 0;
+	}
+
+
+
+	private static int compareRanges( Integer oldRange, Integer newRange ) {
+		return oldRange == null || newRange == null ? 0 : oldRange.compareTo( newRange );
+	}
+
+
+
+	private static int indexOf( int[] family, int typeNumber ) {
+		for ( int i = 0; i < family.length; i++ ) {
+			if ( family[i] == typeNumber ) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+
+
+	private static String getChildPath( String path, ModelElement child ) {
+		return path.isEmpty() ? child.getSimpleName() : path + '.' + child.getSimpleName();
+	}
+
+
+
+	private static List<ModelElement> getSortedChildren( ModelElement element ) {
+		List<ModelElement> children = new ArrayList<ModelElement>();
+		ModelStructure.addChildren( element, children );
+		Collections.sort( children, BY_NAME );
+
+		return children;
+	}
+
+
+
+	/**
+	 * The state of a single comparison.
+	 *
+	 */
+	private final class Comparison {
+
+
+		void compareElements( ModelElement before, ModelElement after, String path ) {
+			if ( this.fingerprinter.getShape( before ).equals( this.fingerprinter.getShape( after ) ) ) {
+				return; // equal subtrees
+			}
+			this.matches.put( before, after );
+			if ( !this.fingerprinter.getContent( before ).equals( this.fingerprinter.getContent( after ) ) ) {
+				compareProperties( before, after, path );
+			}
+			compareChildren( before, after, path );
+		}
+
+
+
+		/**
+		 * @return The Differences found, without the changed references to renamed elements.
+		 *
+		 */
+		List<Difference> getDifferences() {
+			if ( this.references.isEmpty() || this.renames.isEmpty() ) {
+				return this.differences;
+			}
+			Set<Difference> followed = Collections.newSetFromMap( new IdentityHashMap<Difference, Boolean>() );
+			for ( Difference difference : this.references ) {
+				if ( isRenamed( (ModelElement) difference.getOldValue(), (ModelElement) difference.getNewValue() ) ) {
+					followed.add( difference );
+				}
+			}
+			List<Difference> differences = new ArrayList<Difference>( this.differences.size() - followed.size() );
+			for ( Difference difference : this.differences ) {
+				if ( !followed.contains( difference ) ) {
+					differences.add( difference );
+				}
+			}
+
+			return differences;
+		}
+
+
+
+		private void compareProperties( ModelElement before, ModelElement after, String path ) {
+			Map<String, Object> oldValues = getProperties( before );
+			Map<String, Object> newValues = getProperties( after );
+			for ( Map.Entry<String, Object> entry : oldValues.entrySet() ) {
+				String property = entry.getKey();
+				Object oldValue = entry.getValue();
+				Object newValue = newValues.remove( property );
+				if ( !this.fingerprinter.getValue( before, oldValue ).equals( this.fingerprinter.getValue( after, newValue ) ) ) {
+					DifferenceKind kind = classify( before, after, property, oldValue, newValue );
+					Difference difference = new Difference( kind, path, before, after, property, oldValue, newValue );
+					this.differences.add( difference );
+					if ( isReference( oldValue ) && isReference( newValue ) ) {
+						this.references.add( difference ); // decided when all renames are known
+					}
+				}
+			}
+			for ( Map.Entry<String, Object> entry : newValues.entrySet() ) { // described by the after element only
+				String property = entry.getKey();
+				DifferenceKind kind = classify( before, after, property, null, entry.getValue() );
+				this.differences.add( new Difference( kind, path, before, after, property, null, entry.getValue() ) );
+			}
+		}
+
+
+
+		private Map<String, Object> getProperties( final ModelElement element ) {
+			final Map<String, Object> properties = new LinkedHashMap<String, Object>();
+			if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+				( (GFunModelElement<?, ?, ?, ?>) element ).describe( new ModelDescription( new PropertyVisitor() {
+					public void visit( String name, Object value ) {
+						if ( !ModelStructure.isIgnored( element, name, value ) && !properties.containsKey( name ) ) {
+							properties.put( name, value ); // the most specific class describes a property first
+						}
+					}
+				} ) );
+			}
+
+			return properties;
+		}
+
+
+
+		private void compareChildren( ModelElement before, ModelElement after, String path ) {
+			List<ModelElement> oldChildren = getSortedChildren( before );
+			List<ModelElement> newChildren = getSortedChildren( after );
+			Map<String, List<ModelElement>> byKey = new HashMap<String, List<ModelElement>>( newChildren.size() * 2 );
+			for ( ModelElement child : newChildren ) {
+				String key = ModelStructure.getKey( child );
+				List<ModelElement> list = byKey.get( key );
+				if ( list == null ) {
+					list = new ArrayList<ModelElement>( 1 );
+					byKey.put( key, list );
+				}
+				list.add( child );
+			}
+
+			Map<ModelElement, ModelElement> matches = new IdentityHashMap<ModelElement, ModelElement>();
+			List<ModelElement> removed = new ArrayList<ModelElement>();
+			for ( ModelElement child : oldChildren ) {
+				ModelElement match = take( byKey.get( ModelStructure.getKey( child ) ), child );
+				if ( match != null ) {
+					matches.put( child, match );
+				} else {
+					removed.add( child );
+				}
+			}
+			List<ModelElement> added = new ArrayList<ModelElement>();
+			for ( ModelElement child : newChildren ) {
+				List<ModelElement> list = byKey.get( ModelStructure.getKey( child ) );
+				if ( list != null && containsIdentical( list, child ) ) {
+					added.add( child );
+				}
+			}
+			Set<ModelElement> renamed = Collections.emptySet();
+			if ( !removed.isEmpty() && !added.isEmpty() ) {
+				renamed = matchRenamed( removed, added, matches );
+			}
+
+			for ( ModelElement child : oldChildren ) {
+				ModelElement match = matches.get( child );
+				if ( match == null ) {
+					this.differences.add( new Difference( DifferenceKind.removed, getChildPath( path, child ), child, null, null, null, null ) );
+					continue;
+				}
+				String childPath = getChildPath( path, child );
+				if ( !child.getSimpleName().equals( match.getSimpleName() ) ) {
+					this.renames.put( child, match );
+					this.differences.add( new Difference(
+						DifferenceKind.renamed, childPath, child, match, "name", child.getSimpleName(), match.getSimpleName()
+					) );
+				}
+				compareElements( child, match, childPath );
+			}
+			for ( ModelElement child : added ) {
+				if ( !renamed.contains( child ) ) {
+					this.differences.add( new Difference( DifferenceKind.added, getChildPath( path, child ), null, child, null, null, null ) );
+				}
+			}
+		}
+
+
+
+		/**
+		 * Takes the element of a list with the same subtree as an element, or the first one.
+		 *
+		 */
+		private ModelElement take( List<ModelElement> list, ModelElement child ) {
+			if ( list == null || list.isEmpty() ) {
+				return null;
+			}
+			int index = 0;
+			if ( list.size() > 1 ) { // several children of the same class with the same name
+				Fingerprint subtree = this.fingerprinter.getSubtree( child );
+				for ( int i = 0; i < list.size(); i++ ) {
+					if ( this.fingerprinter.getSubtree( list.get(i) ).equals( subtree ) ) {
+						index = i;
+						break;
+					}
+				}
+			}
+
+			return list.remove( index );
+		}
+
+
+
+		/**
+		 * Matches removed and added elements of the same class: first by equal shapes, then by the share of equal names of their children.
+		 *
+		 * @return The matched added elements.
+		 *
+		 */
+		private Set<ModelElement> matchRenamed( List<ModelElement> removed, List<ModelElement> added, Map<ModelElement, ModelElement> matches ) {
+			Map<Fingerprint, List<ModelElement>> byShape = new HashMap<Fingerprint, List<ModelElement>>();
+			for ( ModelElement child : added ) {
+				Fingerprint shape = this.fingerprinter.getShape( child );
+				List<ModelElement> list = byShape.get( shape );
+				if ( list == null ) {
+					list = new ArrayList<ModelElement>( 1 );
+					byShape.put( shape, list );
+				}
+				list.add( child );
+			}
+			Set<ModelElement> renamed = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+			List<ModelElement> unmatched = new ArrayList<ModelElement>();
+			for ( ModelElement child : removed ) {
+				ModelElement match = null;
+				List<ModelElement> list = byShape.get( this.fingerprinter.getShape( child ) );
+				if ( list != null ) {
+					for ( int i = 0; i < list.size() && match == null; i++ ) {
+						if ( list.get(i).getClass() == child.getClass() ) {
+							match = list.remove( i );
+						}
+					}
+				}
+				if ( match != null ) {
+					matches.put( child, match );
+					renamed.add( match );
+				} else {
+					unmatched.add( child );
+				}
+			}
+
+			List<ModelElement> candidates = new ArrayList<ModelElement>();
+			for ( ModelElement child : added ) {
+				if ( !renamed.contains( child ) ) {
+					candidates.add( child );
+				}
+			}
+			if ( (long) unmatched.size() * candidates.size() > MAX_SIMILARITY_PAIRS ) {
+				return renamed; // too many pairs to rate, reported as removed and added
+			}
+			for ( ModelElement child : unmatched ) {
+				Set<String> names = getChildKeys( child );
+				if ( names.isEmpty() ) {
+					continue;
+				}
+				ModelElement best  = null;
+				double       share = ModelDiff.this.similarity;
+				for ( ModelElement candidate : candidates ) {
+					if ( candidate.getClass() != child.getClass() || renamed.contains( candidate ) ) {
+						continue;
+					}
+					Set<String> candidateNames = getChildKeys( candidate );
+					int common = 0;
+					for ( String name : candidateNames ) {
+						if ( names.contains( name ) ) {
+							common++;
+						}
+					}
+					double candidateShare = (double) common / ( names.size() + candidateNames.size() - common );
+					if ( candidateShare >= share ) {
+						best  = candidate;
+						share = candidateShare;
+					}
+				}
+				if ( best != null ) {
+					matches.put( child, best );
+					renamed.add( best );
+				}
+			}
+
+			return renamed;
+		}
+
+
+
+		private Set<String> getChildKeys( ModelElement element ) {
+			List<ModelElement> children = new ArrayList<ModelElement>();
+			ModelStructure.addChildren( element, children );
+			Set<String> keys = new HashSet<String>();
+			for ( ModelElement child : children ) {
+				keys.add( ModelStructure.getKey( child ) );
+			}
+
+			return keys;
+		}
+
+
+
+		/**
+		 * @return <code>true</code> if both elements have the same path, but for the names of renamed elements.
+		 *
+		 */
+		private boolean isRenamed( ModelElement oldElement, ModelElement newElement ) {
+			boolean renamed = false;
+			while ( oldElement != null && newElement != null ) {
+				if ( this.renames.get( oldElement ) == newElement ) {
+					renamed = true;
+				} else if ( oldElement.getClass() != newElement.getClass() || !oldElement.getSimpleName().equals( newElement.getSimpleName() ) ) {
+					return false;
+				}
+				oldElement = ModelStructure.getParent( oldElement );
+				newElement = ModelStructure.getParent( newElement );
+			}
+
+			return renamed && oldElement == null && newElement == null;
+		}
+
+
+
+		private boolean isReference( Object value ) {
+			return value instanceof ModelElement && !( value instanceof SQLSimpleType );
+		}
+
+
+
+		private boolean containsIdentical( List<ModelElement> list, ModelElement element ) {
+			for ( ModelElement member : list ) {
+				if ( member == element ) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+
+
+		private final Fingerprinter fingerprinter = new Fingerprinter();
+
+
+
+		private final List<Difference> differences = new ArrayList<Difference>();
+
+
+
+		/**
+		 * The compared elements of the before model, that differ or have differing descendants, mapped to their matches.
+		 *
+		 */
+		private final Map<ModelElement, ModelElement> matches = new IdentityHashMap<ModelElement, ModelElement>();
+
+
+
+		/**
+		 * The changed properties, that reference an element in both models.
+		 *
+		 */
+		private final List<Difference> references = new ArrayList<Difference>();
+
+
+
+		/**
+		 * The renamed elements of the before model, mapped to their matches.
+		 *
+		 */
+		private final Map<ModelElement, ModelElement> renames = new IdentityHashMap<ModelElement, ModelElement>();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The properties of a range, that are widened or narrowed.
+	 *
+	 */
+	private static final Set<String> RANGES = new HashSet<String>( Arrays.asList( "length", "precision", "scale" ) );
+
+
+
+	/**
+	 * The families of data types, each ordered by its range.
+	 *
+	 */
+	private static final int[][] TYPE_FAMILIES = {
+		  { Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.DECIMAL }
+		, { Types.REAL, Types.FLOAT, Types.DOUBLE }
+		, { Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.CLOB }
+		, { Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR, Types.NCLOB }
+		, { Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB }
+		, { Types.DATE, Types.TIMESTAMP }
+	};
+
+
+
+	/**
+	 * The maximum number of pairs of removed and added children rated by the names of their children, the rating costs the product of both.
+	 *
+	 */
+	private static final long MAX_SIMILARITY_PAIRS = 1 << 16;
+
+
+
+	private static final Comparator<ModelElement> BY_NAME = new Comparator<ModelElement>() {
+		public int compare( ModelElement one, ModelElement other ) {
+			int comparison = one.getSimpleName().compareTo( other.getSimpleName() );
+
+			return comparison != 0 ? comparison : one.getClass().getName().compareTo( other.getClass().getName() );
+		}
+	};
+
+
+
+	private final double similarity;
+}
@@ -0,0 +1,235 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A ModelMerge merges the changes of two models derived from a common base model, like the Catalogs of two environments derived from the
+ * last release (three-way merge).
+ * <p>
+ * Both models are compared with the base model by a ModelDiff. The Differences of theirs model, that do not contradict a Difference of ours
+ * model, can be applied to ours model by {@link MergeResult#apply()}. Differences made in both models alike are applied already. Two
+ * Differences contradict if they change the same property of the same element to different values, if one model changes an element the other
+ * model removed, or if both models add different elements with the same name.
+ * </p>
+ * <p>
+ * A ModelMerge is immutable and can be shared by threads.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * MergeResult result = new ModelMerge().merge( release, production, development );
+ * if ( !result.hasConflicts() ) {
+ *     result.apply(); // production gets the changes of development
+ * }
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelMerge {
+
+
+	public ModelMerge() {
+		this( new ModelDiff() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelMerge by specific parameters.
+	 *
+	 * @param diff Compares both models with the base model. Must not be <code>null</code>.
+	 *
+	 */
+	public ModelMerge( ModelDiff diff ) {
+		if ( diff == null ) {
+			throw new NullPointerException( "Parameter: diff must not be null." );
+		}
+		this.diff = diff;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelMerge capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Merges theirs model into ours model. Nothing is changed before {@link MergeResult#apply()} is called.
+	 *
+	 * @param base The root of the common base model. Must not be <code>null</code>.
+	 *
+	 * @param ours The root of the model the changes are merged into. Must not be <code>null</code>.
+	 *
+	 * @param theirs The root of the model the changes are taken from. Must not be <code>null</code>.
+	 *
+	 */
+	public MergeResult merge( ModelElement base, ModelElement ours, ModelElement theirs ) {
+		if ( base == null ) {
+			throw new NullPointerException( "Parameter: base must not be null." );
+		}
+		if ( ours == null ) {
+			throw new NullPointerException( "Parameter: ours must not be null." );
+		}
+		if ( theirs == null ) {
+			throw new NullPointerException( "Parameter: theirs must not be null." );
+		}
+		ChangeScript oursScript   = this.diff.compare( base, ours );
+		ChangeScript theirsScript = this.diff.compare( base, theirs );
+
+		Map<String, List<Difference>> byPath = new HashMap<String, List<Difference>>();
+		TreeSet<String> paths = new TreeSet<String>();
+		for ( Difference difference : oursScript ) {
+			List<Difference> list = byPath.get( difference.getPath() );
+			if ( list == null ) {
+				list = new ArrayList<Difference>( 1 );
+				byPath.put( difference.getPath(), list );
+			}
+			list.add( difference );
+			paths.add( difference.getPath() );
+		}
+
+		Fingerprinter fingerprinter = new Fingerprinter();
+		List<Difference>    changes   = new ArrayList<Difference>();
+		List<MergeConflict> conflicts = new ArrayList<MergeConflict>();
+		for ( Difference theirsDifference : theirsScript ) {
+			Difference same        = null;
+			Difference contradicts = null;
+			List<Difference> list = byPath.get( theirsDifference.getPath() );
+			if ( list != null ) {
+				for ( Difference oursDifference : list ) {
+					if ( isSame( fingerprinter, oursDifference, theirsDifference ) ) {
+						same = oursDifference;
+					} else if ( isContradicting( oursDifference, theirsDifference ) ) {
+						contradicts = oursDifference;
+					}
+				}
+			}
+			if ( same != null ) {
+				continue; // made in both models
+			}
+			if ( contradicts != null ) {
+				conflicts.add( new MergeConflict( contradicts, theirsDifference, "changed in both models" ) );
+				continue;
+			}
+			Difference removed = getRemovedAncestor( byPath, theirsDifference.getPath() );
+			if ( removed != null ) {
+				conflicts.add( new MergeConflict( removed, theirsDifference, "removed in ours model" ) );
+				continue;
+			}
+			if ( theirsDifference.getKind() == DifferenceKind.removed ) {
+				String descendant = paths.ceiling( theirsDifference.getPath() + '.' );
+				if ( descendant != null && descendant.startsWith( theirsDifference.getPath() + '.' ) ) {
+					conflicts.add( new MergeConflict( byPath.get( descendant ).get( 0 ), theirsDifference, "changed in ours model" ) );
+					continue;
+				}
+			}
+			changes.add( theirsDifference );
+		}
+
+		return new MergeResult( base, ours, theirs, oursScript, changes, conflicts );
+	}
+
+
+
+	public ModelDiff getDiff() {
+		return this.diff;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelMerge internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return <code>true</code> if both Differences have the same result.
+	 *
+	 */
+	private static boolean isSame( Fingerprinter fingerprinter, Difference ours, Difference theirs ) {
+		if ( ours.getKind() == DifferenceKind.added || theirs.getKind() == DifferenceKind.added ) {
+			return ours.getKind() == theirs.getKind()
+				&& fingerprinter.getSubtree( ours.getAfter() ).equals( fingerprinter.getSubtree( theirs.getAfter() ) );
+		}
+		if ( ours.getKind() == DifferenceKind.removed || theirs.getKind() == DifferenceKind.removed ) {
+			return ours.getKind() == theirs.getKind();
+		}
+
+		return ours.getProperty().equals( theirs.getProperty() )
+			&& fingerprinter.getValue( ours.getAfter(), ours.getNewValue() ).equals( fingerprinter.getValue( theirs.getAfter(), theirs.getNewValue() ) );
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the Differences at the same path change the same property, or one of them adds or removes the element.
+	 *
+	 */
+	private static boolean isContradicting( Difference ours, Difference theirs ) {
+		if ( ours.getProperty() == null || theirs.getProperty() == null ) {
+			return true;
+		}
+
+		return ours.getProperty().equals( theirs.getProperty() );
+	}
+
+
+
+	private static Difference getRemovedAncestor( Map<String, List<Difference>> byPath, String path ) {
+		for ( int dot = path.indexOf( '.' ); dot >= 0; dot = path.indexOf( '.', dot + 1 ) ) {
+			List<Difference> list = byPath.get( path.substring( 0, dot ) );
+			if ( list != null ) {
+				for ( Difference difference : list ) {
+					if ( difference.getKind() == DifferenceKind.removed ) {
+						return difference;
+					}
+				}
+			}
+		}
+
+		return null;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelDiff diff;
+}
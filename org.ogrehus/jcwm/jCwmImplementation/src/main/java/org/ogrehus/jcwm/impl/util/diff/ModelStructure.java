@@ -0,0 +1,166 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+
+
+/**
+ * ModelStructure knows the tree of the model, that diffs and fingerprints walk along: the owned elements of namespaces and the features of
+ * classifiers are the children of an element, the namespace respectively the owner is its parent.
+ * <p>
+ * It also knows the properties of a description, that are no content of an element: the name, the parent, the children and the inverse
+ * ends of associations, like the foreign keys referencing a unique key. An inverse end changes with the element at the other end, so it is
+ * compared there.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelStructure {
+
+
+	private ModelStructure() {
+		// only static access
+	}
+
+
+
+//====================================================================================================================================================
+// ModelStructure capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The namespace of an element, or the owner of a feature, <code>null</code> for a root.
+	 *
+	 */
+	public static ModelElement getParent( ModelElement element ) {
+		if ( element instanceof GModelElement<?, ?, ?, ?> ) {
+			ModelElement namespace = ( (GModelElement<?, ?, ?, ?>) element ).getNamespace();
+			if ( namespace != null ) {
+				return namespace;
+			}
+		}
+		if ( element instanceof GFeature<?, ?, ?, ?, ?> ) {
+			return ( (GFeature<?, ?, ?, ?, ?>) element ).getOwner();
+		}
+
+		return null;
+	}
+
+
+
+	/**
+	 * Adds the owned elements and features of an element to a list.
+	 *
+	 */
+	public static void addChildren( ModelElement element, List<ModelElement> children ) {
+		if ( element instanceof GNamespace<?, ?, ?, ?, ?> ) {
+			children.addAll( ( (GNamespace<?, ?, ?, ?, ?>) element ).getOwnedElements() );
+		}
+		if ( element instanceof GClassifier<?, ?, ?, ?, ?, ?> ) {
+			children.addAll( ( (GClassifier<?, ?, ?, ?, ?, ?>) element ).getFeatures() );
+		}
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if a described property is no content of the element, see the class comment.
+	 *
+	 */
+	public static boolean isIgnored( ModelElement element, String property, Object value ) {
+		if ( IGNORED.contains( property ) ) {
+			return true;
+		}
+		if ( value instanceof Collection<?> ) { // the children are described as a collection too, but features of a key are references
+			for ( Object member : (Collection<?>) value ) {
+				return member instanceof ModelElement && getParent( (ModelElement) member ) == element;
+			}
+		}
+
+		return false;
+	}
+
+
+
+	/**
+	 * @return The key of an element among the children of its parent: the name of its class and its simple name.
+	 *
+	 */
+	static String getKey( ModelElement element ) {
+		return element.getClass().getName() + '\u0000' + element.getSimpleName();
+	}
+
+
+
+	/**
+	 * @return The qualified name of an element below a root, like <code>SALES.ORDERS.ID</code>, an empty String for the root itself.
+	 *
+	 */
+	static String getPath( ModelElement root, ModelElement element ) {
+		if ( element == root || element == null ) {
+			return "";
+		}
+		String parent = getPath( root, getParent( element ) );
+
+		return parent.isEmpty() ? element.getSimpleName() : parent + '.' + element.getSimpleName();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final Set<String> IGNORED = Collections.unmodifiableSet( new HashSet<String>( Arrays.asList(
+		  "name"
+		, "namespace"
+		, "owner"
+		, "ownedElements"
+		, "packages"            // the packages importing an element
+		, "constraints"         // the constraints constraining an element
+		, "specializations"
+		, "keyRelationships"    // the foreign keys referencing a unique key
+		, "referencingColumns"
+		, "indexes"             // the indexes of a feature
+		, "triggers"            // the triggers of a table
+		, "usingTriggers"
+		, "optionScopeColumns"
+		, "columnSets"
+	) ) );
+}
@@ -0,0 +1,148 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.event;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A ModelChange describes a single mutation of a ModelElement.
+ * <p>
+ * The name of the changed feature follows the names of the attributes and references used in the CWM Specification, for example
+ * <code>name</code>, <code>ownedElement</code>, <code>feature</code> or <code>specification</code>. For <code>linked</code> and
+ * <code>unlinked</code> changes the affected element is reported as <code>newValue</code> respectively <code>oldValue</code>.
+ * </p>
+ * <p>
+ * Instances are immutable and only valid as a notification, they do not keep the model alive beyond the call of the listener.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelChange {
+
+
+	/**
+	 * Creates a new instance of ModelChange by specific parameters.
+	 *
+	 * @param element The ModelElement that was changed. Must not be <code>null</code>.
+	 *
+	 * @param kind The kind of the change. Must not be <code>null</code>.
+	 *
+	 * @param feature The name of the changed attribute or reference. May be <code>null</code> for <code>created</code> changes.
+	 *
+	 * @param oldValue The value before the change, or the unlinked element.
+	 *
+	 * @param newValue The value after the change, or the linked element.
+	 *
+	 */
+	public ModelChange( ModelElement element, ModelChangeKind kind, String feature, Object oldValue, Object newValue ) {
+		if ( element == null ) {
+			throw new NullPointerException( "Parameter: element must not be null." );
+		}
+		if ( kind == null ) {
+			throw new NullPointerException( "Parameter: kind must not be null." );
+		}
+		this.element  = element;
+		this.kind     = kind;
+		this.feature  = feature;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+
+
+	public ModelElement getElement() {
+		return this.element;
+	}
+
+
+
+	public ModelChangeKind getKind() {
+		return this.kind;
+	}
+
+
+
+	public String getFeature() {
+		return this.feature;
+	}
+
+
+
+	public Object getOldValue() {
+		return this.oldValue;
+	}
+
+
+
+	public Object getNewValue() {
+		return this.newValue;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ModelChange" );
+		out.append( " | kind=" + this.kind );
+		out.append( " | element=" + this.element.getSimpleName() + "<" + this.element.getClass().getSimpleName() + ">" );
+		if ( this.feature != null ) {
+			out.append( " | feature=" + this.feature );
+		}
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement element;
+
+
+
+	private final ModelChangeKind kind;
+
+
+
+	private final String feature;
+
+
+
+	private final Object oldValue;
+
+
+
+	private final Object newValue;
+}
@@ -0,0 +1,46 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.event;
+
+/**
+ * Classifies a ModelChange that was reported by a mutation point of the model.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>created</code> - A new ModelElement was constructed. The element is reported at the end of the constructor of GFunModelElement,
+ * so listeners must not rely on properties set by constructors of subclasses.</li>
+ * <li><code>propertyChanged</code> - A single valued attribute or reference of the element was set to a new value.</li>
+ * <li><code>linked</code> - An element was added to a multi valued reference of the element.</li>
+ * <li><code>unlinked</code> - An element was removed from a multi valued reference of the element.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum ModelChangeKind {
+	  created
+	, propertyChanged
+	, linked
+	, unlinked
+	;
+}
@@ -0,0 +1,46 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.event;
+
+
+/**
+ * A ModelChangeListener is notified about every mutation of the model, after the mutation was performed.
+ * <p>
+ * Listeners are called synchronously by the thread that performs the mutation, so they must be fast and must not modify the model themselves.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ModelChangeSupport#addListener(ModelChangeListener) to register a listener.
+ *
+ */
+public interface ModelChangeListener {
+
+
+	/**
+	 * Called after a ModelElement was changed.
+	 *
+	 * @param change Describes the change. Can't be <code>null</code>.
+	 *
+	 */
+	void modelChanged( ModelChange change );
+}
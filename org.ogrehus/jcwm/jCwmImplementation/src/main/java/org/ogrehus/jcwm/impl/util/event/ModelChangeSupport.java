@@ -0,0 +1,128 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.event;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+
+
+/**
+ * ModelChangeSupport distributes ModelChanges reported by the mutation points of the model to all registered listeners.
+ * <p>
+ * As long as no listener is registered, reporting a change costs a single volatile read, so the model does not pay for notifications nobody
+ * listens to.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelChangeSupport {
+
+
+
+	private ModelChangeSupport() {
+		// only static access
+	}
+
+
+
+	/**
+	 * Registers a listener for all further changes of the model.
+	 *
+	 * @param listener The listener to be notified. Must not be <code>null</code>.
+	 *
+	 * @return <code>true</code> if the listener was not registered before, <code>false</code> otherwise.
+	 *
+	 */
+	public static Boolean addListener( ModelChangeListener listener ) {
+		if ( listener == null ) {
+			throw new NullPointerException( "Parameter: listener must not be null." );
+		}
+		Boolean added = listeners.addIfAbsent( listener );
+		active = !listeners.isEmpty();
+
+		return added;
+	}
+
+
+
+	public static Boolean removeListener( ModelChangeListener listener ) {
+		Boolean removed = listeners.remove( listener );
+		active = !listeners.isEmpty();
+
+		return removed;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if at least one listener is registered.
+	 *
+	 */
+	public static boolean isActive() {
+		return active;
+	}
+
+
+
+	/**
+	 * Reports a change to all registered listeners.
+	 *
+	 * @param element The changed ModelElement.
+	 *
+	 * @param kind The kind of the change.
+	 *
+	 * @param feature The name of the changed attribute or reference.
+	 *
+	 * @param oldValue The value before the change, or the unlinked element.
+	 *
+	 * @param newValue The value after the change, or the linked element.
+	 *
+	 */
+	public static void fire( ModelElement element, ModelChangeKind kind, String feature, Object oldValue, Object newValue ) {
+		ModelMetrics.changed( element, kind ); // counted also if nobody listens
+		if ( !active ) {
+			return; // nobody listens
+		}
+		ModelChange change = new ModelChange( element, kind, feature, oldValue, newValue );
+		for ( ModelChangeListener listener : listeners ) {
+			listener.modelChanged( change );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final CopyOnWriteArrayList<ModelChangeListener> listeners = new CopyOnWriteArrayList<ModelChangeListener>();
+
+
+
+	private static volatile boolean active = false;
+}
@@ -0,0 +1,77 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.graph;
+
+import java.util.Set;
+
+
+/**
+ * Classifies the edges of an ElementGraph.
+ * <p>
+ * Values and meanings, each edge is directed from the dependent element to the element it depends on:
+ * </p>
+ * <ul>
+ * <li><code>dependency</code> - From a client of a Dependency to each of its suppliers.</li>
+ * <li><code>generalization</code> - From a child Classifier to its parent.</li>
+ * <li><code>foreignKey</code> - From a KeyRelationship, like a ForeignKey, to the UniqueKey it references, like a UniqueConstraint or
+ * PrimaryKey.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum EdgeKind {
+	  dependency
+	, generalization
+	, foreignKey
+	;
+
+
+
+	/**
+	 * @return The bit of this kind within a mask of kinds.
+	 *
+	 */
+	public int getMask() {
+		return 1 << ordinal();
+	}
+
+
+
+	/**
+	 * @param kinds The kinds to be combined. <code>null</code> stands for all kinds.
+	 *
+	 * @return The mask of all kinds of the parameter <code>kinds</code>.
+	 *
+	 */
+	public static int maskOf( Set<EdgeKind> kinds ) {
+		if ( kinds == null ) {
+			return ( 1 << values().length ) - 1;
+		}
+		int mask = 0;
+		for ( EdgeKind kind : kinds ) {
+			mask |= kind.getMask();
+		}
+
+		return mask;
+	}
+}
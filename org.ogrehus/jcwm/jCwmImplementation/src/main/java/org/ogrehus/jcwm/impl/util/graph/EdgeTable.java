@@ -0,0 +1,494 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.foundation.keyindexes.util.generic.GKeyRelationship;
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.classifierfeature.Classifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.dependencyclient.ClientDependency;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.dependencyclient.Clientable;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.Namespace;
+import org.ogrehus.jcwm.api.objectmodel.relationships.Generalization;
+
+import org.ogrehus.jcwm.impl.util.collection.IntList;
+
+
+/**
+ * An EdgeTable is the mutable state an ElementGraph is made of: the elements owned by a root, how they are owned, and the outgoing edges of
+ * each owned element.
+ * <p>
+ * Each element has a slot. The table is changed by linking or unlinking an owned element together with everything it owns, and by refreshing
+ * the edges of an element, so a change of the model costs a walk of the changed elements only instead of the whole model. The ownership is
+ * recorded when an element is linked, so unlinking drops exactly the elements linked before, even if the model was changed meanwhile. An
+ * EdgeTable is not thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ElementGraphIndex
+ *
+ */
+final class EdgeTable {
+
+
+	EdgeTable() {
+		// empty
+	}
+
+
+
+//====================================================================================================================================================
+// EdgeTable capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Links an element and everything it owns, directly or indirectly, including the features of Classifiers, and computes their edges. An
+	 * element linked already is moved to the new owner.
+	 *
+	 * @param owner The owner of the element, <code>null</code> for the root. The element is ignored, if the owner is not linked.
+	 *
+	 * @param element The linked element.
+	 *
+	 */
+	void link( ModelElement owner, ModelElement element ) {
+		int parent = -1;
+		if ( owner != null ) {
+			Integer slot = this.slots.get( owner );
+			if ( slot == null || !this.owned.get( slot.intValue() ) ) {
+				return; // not of the model
+			}
+			parent = slot.intValue();
+		}
+		Integer known = this.slots.get( element );
+		if ( known != null && this.owned.get( known.intValue() ) ) {
+			move( known.intValue(), parent );
+			return;
+		}
+
+		Deque<ModelElement> open    = new ArrayDeque<ModelElement>();
+		IntList             parents = new IntList();
+		open.push( element );
+		parents.add( parent );
+		while ( !open.isEmpty() ) {
+			ModelElement current = open.pop();
+			int owning = parents.removeLast();
+			int slot = slotOf( current );
+			if ( this.owned.get( slot ) ) {
+				continue; // imported elements may be reachable more than once
+			}
+			this.owned.set( slot );
+			this.parents.set( slot, owning );
+			if ( owning >= 0 ) {
+				childrenOf( owning ).add( slot );
+			}
+			computeEdges( slot, current );
+			if ( current instanceof Namespace<?> ) {
+				for ( ModelElement child : ( (Namespace<?>) current ).getOwnedElements() ) {
+					open.push( child );
+					parents.add( slot );
+				}
+			}
+			if ( current instanceof Classifier<?> ) {
+				for ( ModelElement feature : ( (Classifier<?>) current ).getFeatures() ) {
+					open.push( feature );
+					parents.add( slot );
+				}
+			}
+		}
+	}
+
+
+
+	/**
+	 * Unlinks an element and everything linked below it and drops their edges, if the element is linked to the owner.
+	 *
+	 * @param owner The owner the element is unlinked from.
+	 *
+	 * @param element The unlinked element.
+	 *
+	 */
+	void unlink( ModelElement owner, ModelElement element ) {
+		Integer slot   = this.slots.get( element );
+		Integer owning = this.slots.get( owner );
+		if (   slot == null || owning == null || !this.owned.get( slot.intValue() )
+			|| this.parents.get( slot.intValue() ) != owning.intValue()
+		) {
+			return; // not linked or moved to another owner already
+		}
+		detach( slot.intValue() );
+
+		IntList open = new IntList();
+		open.add( slot.intValue() );
+		while ( !open.isEmpty() ) {
+			int current = open.removeLast();
+			this.owned.clear( current );
+			this.parents.set( current, -1 );
+			this.edges.set( current, null );
+			IntList children = this.children.get( current );
+			if ( children != null ) {
+				for ( int i = 0; i < children.size(); i++ ) {
+					int child = children.get( i );
+					if ( this.parents.get( child ) == current ) {
+						open.add( child );
+					}
+				}
+				this.children.set( current, null );
+			}
+		}
+	}
+
+
+
+	/**
+	 * Computes the edges of an element again, if it is linked. For a Dependency the edges of its clients are computed, for a Generalization
+	 * the ones of its child.
+	 *
+	 */
+	void refresh( ModelElement element ) {
+		if ( element instanceof Clientable<?> ) {
+			for ( Object client : ( (Clientable<?>) element ).getClients() ) {
+				if ( client instanceof ModelElement ) {
+					refreshEdges( (ModelElement) client );
+				}
+			}
+		}
+		if ( element instanceof Generalization ) {
+			refreshEdges( ( (Generalization) element ).getChild() );
+		}
+		refreshEdges( element );
+	}
+
+
+
+	/**
+	 * @return The number of slots, the linked elements and the elements they reference, as well as slots freed by unlinking.
+	 *
+	 */
+	int size() {
+		return this.elements.size();
+	}
+
+
+
+	/**
+	 * Creates the ElementGraph of the current state: the linked elements and the elements their edges reference. Frees the slots of other
+	 * elements, if they are the majority.
+	 *
+	 */
+	ElementGraph toGraph() {
+		int size = this.elements.size();
+		BitSet live = (BitSet) this.owned.clone();
+		for ( int slot = this.owned.nextSetBit( 0 ); slot >= 0; slot = this.owned.nextSetBit( slot + 1 ) ) {
+			IntList edges = this.edges.get( slot );
+			for ( int e = 0; edges != null && e < edges.size(); e += 2 ) {
+				live.set( edges.get( e ) );
+			}
+		}
+		int[] ids = new int[ size ];
+		Map<ModelElement, Integer> byElement = new IdentityHashMap<ModelElement, Integer>();
+		List<ModelElement>         elements  = new ArrayList<ModelElement>( live.cardinality() );
+		for ( int slot = live.nextSetBit( 0 ); slot >= 0; slot = live.nextSetBit( slot + 1 ) ) {
+			ids[ slot ] = elements.size();
+			byElement.put( this.elements.get( slot ), Integer.valueOf( elements.size() ) );
+			elements.add( this.elements.get( slot ) );
+		}
+		IntList sources = new IntList();
+		IntList targets = new IntList();
+		IntList kinds   = new IntList();
+		for ( int slot = this.owned.nextSetBit( 0 ); slot >= 0; slot = this.owned.nextSetBit( slot + 1 ) ) {
+			IntList edges = this.edges.get( slot );
+			for ( int e = 0; edges != null && e < edges.size(); e += 2 ) {
+				sources.add( ids[ slot ] );
+				targets.add( ids[ edges.get( e ) ] );
+				kinds.add( edges.get( e + 1 ) );
+			}
+		}
+		if ( size > MIN_COMPACT && elements.size() < size / 2 ) {
+			compact( live, ids );
+		}
+
+		return new ElementGraph( byElement, elements.toArray( new ModelElement[ elements.size() ] ), sources, targets, kinds );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[EdgeTable" );
+		out.append( " | slots=" + this.elements.size() );
+		out.append( " | linked=" + this.owned.cardinality() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// EdgeTable internals
+//====================================================================================================================================================
+
+
+
+	private int slotOf( ModelElement element ) {
+		Integer slot = this.slots.get( element );
+		if ( slot == null ) {
+			slot = Integer.valueOf( this.elements.size() );
+			this.slots.put( element, slot );
+			this.elements.add( element );
+			this.parents.add( -1 );
+			this.edges.add( null );
+			this.children.add( null );
+		}
+
+		return slot.intValue();
+	}
+
+
+
+	private IntList childrenOf( int slot ) {
+		IntList children = this.children.get( slot );
+		if ( children == null ) {
+			children = new IntList( 4 );
+			this.children.set( slot, children );
+		}
+
+		return children;
+	}
+
+
+
+	/**
+	 * Moves a linked element to another owner, together with everything linked below it.
+	 *
+	 */
+	private void move( int slot, int parent ) {
+		if ( this.parents.get( slot ) == parent ) {
+			return;
+		}
+		detach( slot );
+		this.parents.set( slot, parent );
+		if ( parent >= 0 ) {
+			childrenOf( parent ).add( slot );
+		}
+	}
+
+
+
+	/**
+	 * Removes a slot from the children of its owner.
+	 *
+	 */
+	private void detach( int slot ) {
+		int parent = this.parents.get( slot );
+		IntList siblings = parent < 0 ? null : this.children.get( parent );
+		for ( int i = 0; siblings != null && i < siblings.size(); i++ ) {
+			if ( siblings.get( i ) == slot ) {
+				siblings.set( i, siblings.get( siblings.size() - 1 ) );
+				siblings.removeLast();
+				return;
+			}
+		}
+	}
+
+
+
+	private void refreshEdges( ModelElement element ) {
+		Integer slot = element == null ? null : this.slots.get( element );
+		if ( slot != null && this.owned.get( slot.intValue() ) ) {
+			computeEdges( slot.intValue(), element );
+		}
+	}
+
+
+
+	/**
+	 * Computes the outgoing edges of an element: to the suppliers of its Dependencies, to its parents and to the UniqueKey of a KeyRelationship.
+	 *
+	 */
+	private void computeEdges( int slot, ModelElement element ) {
+		IntList edges = new IntList( 0 );
+		if ( element instanceof ClientDependency<?> ) {
+			for ( Clientable<?> dependency : ( (ClientDependency<?>) element ).getDependencies() ) {
+				for ( ModelElement supplier : dependency.getSuppliers() ) {
+					addEdge( edges, supplier, EdgeKind.dependency );
+				}
+			}
+		}
+		if ( element instanceof GClassifier<?, ?, ?, ?, ?, ?> ) {
+			for ( GClassifier<?, ?, ?, ?, ?, ?> parent : ( (GClassifier<?, ?, ?, ?, ?, ?>) element ).getParents() ) {
+				if ( parent != null ) {
+					addEdge( edges, parent, EdgeKind.generalization );
+				}
+			}
+		}
+		if ( element instanceof GKeyRelationship<?, ?, ?, ?> ) {
+			ModelElement uniqueKey = ( (GKeyRelationship<?, ?, ?, ?>) element ).getUniqueKey();
+			if ( uniqueKey != null ) {
+				addEdge( edges, uniqueKey, EdgeKind.foreignKey );
+			}
+		}
+		this.edges.set( slot, edges.isEmpty() ? null : edges );
+	}
+
+
+
+	private void addEdge( IntList edges, ModelElement target, EdgeKind kind ) {
+		edges.add( slotOf( target ) );
+		edges.add( kind.getMask() );
+	}
+
+
+
+	/**
+	 * Keeps the live slots only, renumbered by the ids of the graph.
+	 *
+	 */
+	private void compact( BitSet live, int[] ids ) {
+		int size = live.cardinality();
+		List<ModelElement> elements = new ArrayList<ModelElement>( size );
+		IntList            parents  = new IntList( size );
+		List<IntList>      edges    = new ArrayList<IntList>( size );
+		List<IntList>      children = new ArrayList<IntList>( size );
+		BitSet             owned    = new BitSet( size );
+		this.slots.clear();
+		for ( int slot = live.nextSetBit( 0 ); slot >= 0; slot = live.nextSetBit( slot + 1 ) ) {
+			this.slots.put( this.elements.get( slot ), Integer.valueOf( elements.size() ) );
+			elements.add( this.elements.get( slot ) );
+			int parent = this.parents.get( slot );
+			parents.add( parent < 0 ? -1 : ids[ parent ] );
+			edges.add( renumber( this.edges.get( slot ), ids, null ) );
+			children.add( renumber( this.children.get( slot ), ids, live ) );
+			if ( this.owned.get( slot ) ) {
+				owned.set( ids[ slot ] );
+			}
+		}
+		this.elements = elements;
+		this.parents  = parents;
+		this.edges    = edges;
+		this.children = children;
+		this.owned    = owned;
+	}
+
+
+
+	/**
+	 * @return A copy of a list of slots renumbered by the ids of the graph. Without live slots it is a list of edges, whose targets alternate
+	 * with kinds, otherwise a list of children, whose slots not alive are dropped.
+	 *
+	 */
+	private static IntList renumber( IntList slots, int[] ids, BitSet live ) {
+		if ( slots == null ) {
+			return null;
+		}
+		IntList renumbered = new IntList( slots.size() );
+		for ( int i = 0; i < slots.size(); i++ ) {
+			if ( live == null ) {
+				renumbered.add( i % 2 == 0 ? ids[ slots.get( i ) ] : slots.get( i ) );
+			} else if ( live.get( slots.get( i ) ) ) {
+				renumbered.add( ids[ slots.get( i ) ] );
+			}
+		}
+
+		return renumbered;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The number of slots a table must exceed, before its freed slots are dropped.
+	 *
+	 */
+	private static final int MIN_COMPACT = 1024;
+
+
+
+	/**
+	 * The slot of each element, identified by identity.
+	 *
+	 */
+	private final Map<ModelElement, Integer> slots = new IdentityHashMap<ModelElement, Integer>();
+
+
+
+	/**
+	 * The elements, indexed by their slot.
+	 *
+	 */
+	private List<ModelElement> elements = new ArrayList<ModelElement>();
+
+
+
+	/**
+	 * The slot of the owner of each linked element, <code>-1</code> for the root and elements not linked.
+	 *
+	 */
+	private IntList parents = new IntList();
+
+
+
+	/**
+	 * The outgoing edges of each linked element as pairs of the slot of the target and the mask of the EdgeKind, <code>null</code> if it has
+	 * none.
+	 *
+	 */
+	private List<IntList> edges = new ArrayList<IntList>();
+
+
+
+	/**
+	 * The slots linked below each element, <code>null</code> if none. An entry is stale, if the parent of its slot is another one.
+	 *
+	 */
+	private List<IntList> children = new ArrayList<IntList>();
+
+
+
+	/**
+	 * The slots of the linked elements.
+	 *
+	 */
+	private BitSet owned = new BitSet();
+}
@@ -0,0 +1,555 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.collection.IntList;
+
+
+/**
+ * An ElementGraph is a compact, read only snapshot of the links between ModelElements that express a dependency, like the client/supplier links
+ * of Dependencies, the Generalizations of Classifiers and the references of ForeignKeys to UniqueConstraints.
+ * <p>
+ * Each element of the graph is identified by a dense int id. The edges are stored in compressed adjacency arrays in both directions, so all
+ * traversals are iterative, work on primitive arrays and terminate on cycles. The direction of an edge is always from the dependent element to
+ * the element it depends on:
+ * </p>
+ * <ul>
+ * <li><b>upstream</b> - The elements an element depends on, directly or indirectly (lineage).</li>
+ * <li><b>downstream</b> - The elements depending on an element, directly or indirectly (impact).</li>
+ * </ul>
+ * <p>
+ * Transitive closures are cached per element, direction and kinds of edges within a memory budget. The snapshot does not follow later changes of
+ * the model, use an ElementGraphIndex to get a graph that is rebuilt when necessary.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ElementGraph {
+
+
+	/**
+	 * Builds the graph of all elements owned by the parameter <code>root</code>, directly or indirectly, including the features of Classifiers.
+	 * <p>
+	 * Elements outside of the root, which are referenced as supplier, parent or unique key, are part of the graph as well.
+	 * </p>
+	 *
+	 * @param root The root of the model. Must not be <code>null</code>.
+	 *
+	 * @return A new ElementGraph. Can't be <code>null</code>.
+	 *
+	 */
+	public static ElementGraph build( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		EdgeTable table = new EdgeTable();
+		table.link( null, root );
+
+		return table.toGraph();
+	}
+
+
+
+	/**
+	 * Creates the compressed adjacency arrays of both directions by a counting sort of the edges.
+	 *
+	 */
+	ElementGraph( Map<ModelElement, Integer> ids, ModelElement[] elements, IntList sources, IntList targets, IntList kinds ) {
+		this.ids      = ids;
+		this.elements = elements;
+		int size  = elements.length;
+		int edges = sources.size();
+
+		this.outOffsets = new int[ size + 1 ];
+		this.inOffsets  = new int[ size + 1 ];
+		for ( int e = 0; e < edges; e++ ) {
+			this.outOffsets[ sources.get( e ) + 1 ]++;
+			this.inOffsets[ targets.get( e ) + 1 ]++;
+		}
+		for ( int i = 0; i < size; i++ ) {
+			this.outOffsets[ i + 1 ] += this.outOffsets[ i ];
+			this.inOffsets[ i + 1 ]  += this.inOffsets[ i ];
+		}
+		this.outTargets = new int[ edges ];
+		this.outKinds   = new byte[ edges ];
+		this.inTargets  = new int[ edges ];
+		this.inKinds    = new byte[ edges ];
+		int[] outFill = new int[ size ];
+		int[] inFill  = new int[ size ];
+		for ( int e = 0; e < edges; e++ ) {
+			int source = sources.get( e );
+			int target = targets.get( e );
+			int out = this.outOffsets[ source ] + outFill[ source ]++;
+			this.outTargets[ out ] = target;
+			this.outKinds[ out ]   = (byte) kinds.get( e );
+			int in = this.inOffsets[ target ] + inFill[ target ]++;
+			this.inTargets[ in ] = source;
+			this.inKinds[ in ]   = (byte) kinds.get( e );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ElementGraph capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The number of elements of the graph.
+	 *
+	 */
+	public int size() {
+		return this.elements.length;
+	}
+
+
+
+	/**
+	 * @return The number of edges of the graph.
+	 *
+	 */
+	public int getEdgeCount() {
+		return this.outTargets.length;
+	}
+
+
+
+	/**
+	 * @param element The element whose id is requested.
+	 *
+	 * @return The id of the element or <code>-1</code>, if the element is not part of the graph.
+	 *
+	 */
+	public int getId( ModelElement element ) {
+		Integer id = this.ids.get( element );
+
+		return id == null ? -1 : id.intValue();
+	}
+
+
+
+	/**
+	 * @param id The id of the requested element.
+	 *
+	 * @return The element identified by the parameter <code>id</code>.
+	 *
+	 */
+	public ModelElement getElement( int id ) {
+		return this.elements[ id ];
+	}
+
+
+
+	/**
+	 * Returns all elements the parameter <code>element</code> depends on, directly or indirectly.
+	 *
+	 * @param element The element whose lineage is requested.
+	 *
+	 * @param kinds The kinds of edges to be followed, <code>null</code> for all kinds.
+	 *
+	 * @return The transitive closure in upstream direction, without the element itself unless it is part of a cycle. Can't be <code>null</code>.
+	 *
+	 */
+	public ElementSet getUpstream( ModelElement element, Set<EdgeKind> kinds ) {
+		return new ElementSet( this, closure( getId( element ), false, EdgeKind.maskOf( kinds ) ) );
+	}
+
+
+
+	/**
+	 * Returns all elements depending on the parameter <code>element</code>, directly or indirectly, so all elements impacted by a change of it.
+	 *
+	 * @param element The element whose impact is requested.
+	 *
+	 * @param kinds The kinds of edges to be followed, <code>null</code> for all kinds.
+	 *
+	 * @return The transitive closure in downstream direction, without the element itself unless it is part of a cycle. Can't be
+	 * <code>null</code>.
+	 *
+	 */
+	public ElementSet getDownstream( ModelElement element, Set<EdgeKind> kinds ) {
+		return new ElementSet( this, closure( getId( element ), true, EdgeKind.maskOf( kinds ) ) );
+	}
+
+
+
+	/**
+	 * @param from The dependent element.
+	 *
+	 * @param to The element that may be depended on.
+	 *
+	 * @param kinds The kinds of edges to be followed, <code>null</code> for all kinds.
+	 *
+	 * @return <code>true</code> if the parameter <code>from</code> depends on the parameter <code>to</code>, directly or indirectly.
+	 *
+	 */
+	public Boolean isReachable( ModelElement from, ModelElement to, Set<EdgeKind> kinds ) {
+		int source = getId( from );
+		int target = getId( to );
+		if ( source < 0 || target < 0 ) {
+			return Boolean.FALSE;
+		}
+
+		return closure( source, false, EdgeKind.maskOf( kinds ) ).get( target );
+	}
+
+
+
+	/**
+	 * Searches a shortest chain of dependencies by a breadth first search in upstream direction.
+	 *
+	 * @param from The dependent element.
+	 *
+	 * @param to The element that may be depended on.
+	 *
+	 * @param kinds The kinds of edges to be followed, <code>null</code> for all kinds.
+	 *
+	 * @return The elements of the path, starting with <code>from</code> and ending with <code>to</code>, or an empty list if no path exists.
+	 *
+	 */
+	public List<ModelElement> getShortestPath( ModelElement from, ModelElement to, Set<EdgeKind> kinds ) {
+		int source = getId( from );
+		int target = getId( to );
+		if ( source < 0 || target < 0 ) {
+			return Collections.emptyList();
+		}
+		if ( source == target ) {
+			return Collections.singletonList( from );
+		}
+		int mask = EdgeKind.maskOf( kinds );
+
+		// the queue keeps the position of the predecessor, so the path is available without an array over all elements
+		IntList queue        = new IntList();
+		IntList predecessors = new IntList();
+		BitSet  visited      = new BitSet( this.elements.length );
+		queue.add( source );
+		predecessors.add( -1 );
+		visited.set( source );
+		for ( int head = 0; head < queue.size(); head++ ) {
+			int current = queue.get( head );
+			for ( int e = this.outOffsets[ current ], end = this.outOffsets[ current + 1 ]; e < end; e++ ) {
+				int next = this.outTargets[ e ];
+				if ( ( this.outKinds[ e ] & mask ) == 0 || visited.get( next ) ) {
+					continue;
+				}
+				visited.set( next );
+				queue.add( next );
+				predecessors.add( head );
+				if ( next == target ) {
+					List<ModelElement> path = new ArrayList<ModelElement>();
+					for ( int position = queue.size() - 1; position >= 0; position = predecessors.get( position ) ) {
+						path.add( this.elements[ queue.get( position ) ] );
+					}
+					Collections.reverse( path );
+					return path;
+				}
+			}
+		}
+
+		return Collections.emptyList();
+	}
+
+
+
+	/**
+	 * Detects all cycles by the strongly connected components of the graph, computed by an iterative variant of the algorithm of Tarjan.
+	 *
+	 * @param kinds The kinds of edges to be followed, <code>null</code> for all kinds.
+	 *
+	 * @return All strongly connected components with more than one element or with an element depending on itself. Can't be <code>null</code>.
+	 *
+	 */
+	public List<ElementSet> getCycles( Set<EdgeKind> kinds ) {
+		int mask = EdgeKind.maskOf( kinds );
+		int size = this.elements.length;
+		int[] index = new int[ size ];
+		int[] low   = new int[ size ];
+		Arrays.fill( index, -1 );
+		BitSet  onStack   = new BitSet( size );
+		IntList stack     = new IntList();
+		IntList callNodes = new IntList();
+		IntList callEdges = new IntList();
+		List<ElementSet> cycles = new ArrayList<ElementSet>();
+		int counter = 0;
+
+		for ( int root = 0; root < size; root++ ) {
+			if ( index[ root ] >= 0 ) {
+				continue;
+			}
+			index[ root ] = low[ root ] = counter++;
+			stack.add( root );
+			onStack.set( root );
+			callNodes.add( root );
+			callEdges.add( this.outOffsets[ root ] );
+			while ( !callNodes.isEmpty() ) {
+				int top  = callNodes.size() - 1;
+				int node = callNodes.get( top );
+				int edge = callEdges.get( top );
+				if ( edge < this.outOffsets[ node + 1 ] ) {
+					callEdges.set( top, edge + 1 );
+					if ( ( this.outKinds[ edge ] & mask ) == 0 ) {
+						continue;
+					}
+					int next = this.outTargets[ edge ];
+					if ( index[ next ] < 0 ) {
+						index[ next ] = low[ next ] = counter++;
+						stack.add( next );
+						onStack.set( next );
+						callNodes.add( next );
+						callEdges.add( this.outOffsets[ next ] );
+					} else if ( onStack.get( next ) ) {
+						low[ node ] = Math.min( low[ node ], index[ next ] );
+					}
+					continue;
+				}
+				// all edges of node are done
+				callNodes.removeLast();
+				callEdges.removeLast();
+				if ( !callNodes.isEmpty() ) {
+					int parent = callNodes.get( callNodes.size() - 1 );
+					low[ parent ] = Math.min( low[ parent ], low[ node ] );
+				}
+				if ( low[ node ] == index[ node ] ) {
+					BitSet component = new BitSet( size );
+					int member;
+					do {
+						member = stack.removeLast();
+						onStack.clear( member );
+						component.set( member );
+					} while ( member != node );
+					if ( component.cardinality() > 1 || hasSelfLoop( node, mask ) ) {
+						cycles.add( new ElementSet( this, component ) );
+					}
+				}
+			}
+		}
+
+		return cycles;
+	}
+
+
+
+	/**
+	 * Discards all cached closures.
+	 *
+	 */
+	public void clearCache() {
+		synchronized ( this.closures ) {
+			this.closures.clear();
+			this.cachedBits = 0;
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Internal capabilities
+//====================================================================================================================================================
+
+
+
+	private boolean hasSelfLoop( int node, int mask ) {
+		for ( int e = this.outOffsets[ node ], end = this.outOffsets[ node + 1 ]; e < end; e++ ) {
+			if ( this.outTargets[ e ] == node && ( this.outKinds[ e ] & mask ) != 0 ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+
+	/**
+	 * Returns the cached closure of an element or computes and caches it.
+	 *
+	 * @param start The id of the element, a negative id results in an empty closure.
+	 *
+	 * @param downstream <code>true</code> to follow the edges backwards.
+	 *
+	 * @param mask The kinds of edges to be followed.
+	 *
+	 * @return The ids of the closure. The returned BitSet is shared and must not be modified.
+	 *
+	 */
+	BitSet closure( int start, boolean downstream, int mask ) {
+		if ( start < 0 ) {
+			return new BitSet( 0 );
+		}
+		Long key = Long.valueOf( ( (long) start << 8 ) | ( downstream ? 0x80 : 0 ) | mask );
+		synchronized ( this.closures ) {
+			BitSet cached = this.closures.get( key );
+			if ( cached != null ) {
+				return cached;
+			}
+		}
+
+		BitSet result = traverse( start, downstream, mask );
+		synchronized ( this.closures ) {
+			if ( this.closures.put( key, result ) == null ) {
+				this.cachedBits += result.size();
+			}
+			Iterator<BitSet> eldest = this.closures.values().iterator();
+			while ( this.cachedBits > CACHE_BUDGET_BITS && eldest.hasNext() ) {
+				BitSet evicted = eldest.next();
+				if ( evicted == result ) {
+					break; // keep at least the latest result
+				}
+				this.cachedBits -= evicted.size();
+				eldest.remove();
+			}
+		}
+
+		return result;
+	}
+
+
+
+	private BitSet traverse( int start, boolean downstream, int mask ) {
+		int[]  offsets = downstream ? this.inOffsets : this.outOffsets;
+		int[]  targets = downstream ? this.inTargets : this.outTargets;
+		byte[] kinds   = downstream ? this.inKinds   : this.outKinds;
+
+		BitSet  visited = new BitSet( this.elements.length );
+		IntList queue   = new IntList();
+		queue.add( start );
+		for ( int head = 0; head < queue.size(); head++ ) {
+			int current = queue.get( head );
+			for ( int e = offsets[ current ], end = offsets[ current + 1 ]; e < end; e++ ) {
+				int next = targets[ e ];
+				if ( ( kinds[ e ] & mask ) != 0 && !visited.get( next ) ) {
+					visited.set( next );
+					queue.add( next );
+				}
+			}
+		}
+
+		return visited;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ElementGraph" );
+		out.append( " | elements=" + this.elements.length );
+		out.append( " | edges=" + this.outTargets.length );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The maximum number of bits held by cached closures, 64 MBit are 8 MB.
+	 *
+	 */
+	private static final long CACHE_BUDGET_BITS = 64L * 1024 * 1024;
+
+
+
+	/**
+	 * The id of each element, identified by identity.
+	 *
+	 */
+	private final Map<ModelElement, Integer> ids;
+
+
+
+	/**
+	 * The elements, indexed by their id.
+	 *
+	 */
+	private final ModelElement[] elements;
+
+
+
+	/**
+	 * The outgoing edges of the element with the id <code>i</code> are stored at the positions <code>outOffsets[i]</code> to
+	 * <code>outOffsets[i + 1] - 1</code> of <code>outTargets</code> and <code>outKinds</code>.
+	 *
+	 */
+	private final int[] outOffsets;
+
+
+
+	private final int[] outTargets;
+
+
+
+	private final byte[] outKinds;
+
+
+
+	/**
+	 * The incoming edges, stored like the outgoing edges.
+	 *
+	 */
+	private final int[] inOffsets;
+
+
+
+	private final int[] inTargets;
+
+
+
+	private final byte[] inKinds;
+
+
+
+	/**
+	 * The cached closures in access order, so the least recently used closure is evicted first.
+	 *
+	 */
+	private final LinkedHashMap<Long, BitSet> closures = new LinkedHashMap<Long, BitSet>( 64, 0.75f, true );
+
+
+
+	private long cachedBits = 0;
+}
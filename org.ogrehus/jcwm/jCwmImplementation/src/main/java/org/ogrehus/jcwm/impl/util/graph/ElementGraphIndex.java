@@ -0,0 +1,322 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.diff.ModelStructure;
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+
+
+/**
+ * An ElementGraphIndex provides an ElementGraph of a model that follows the changes of the model.
+ * <p>
+ * The index listens to all changes of links that are part of the graph and keeps the edges of the model in an EdgeTable. A change is not
+ * applied at once, it is queued: the linked or unlinked owned elements and the elements whose edges changed. The next request applies the
+ * queue, walking the changed elements only, and publishes a new graph, so a series of changes costs a single update. If the queue grows beyond
+ * a quarter of the table, the table is built again from the root instead. The queue and the generation, that counts the changes, are guarded
+ * by the lock of the index, so a published graph is tagged with the generation it reflects exactly and a change is never lost. Changes of
+ * names, documentation and other attributes keep the graph, including all cached closures.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ElementGraphIndex
+implements
+	ModelChangeListener
+{
+
+
+	private ElementGraphIndex( ModelElement root ) {
+		this.root = root;
+	}
+
+
+
+//====================================================================================================================================================
+// ElementGraphIndex capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Creates a new instance of ElementGraphIndex, registers it for changes of the model and then builds the EdgeTable and the first graph under
+	 * the lock of the index. A change reported before the build only counts the generation, the build sees its result; a change reported during
+	 * the build waits for the lock and is queued for the next request.
+	 *
+	 * @param root The root of the indexed model. Must not be <code>null</code>.
+	 *
+	 */
+	public static ElementGraphIndex open( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		ElementGraphIndex index = new ElementGraphIndex( root );
+		ModelChangeSupport.addListener( index );
+		index.getGraph();
+
+		return index;
+	}
+
+
+
+	/**
+	 * @return The graph of the current state of the model. Can't be <code>null</code>.
+	 *
+	 */
+	public ElementGraph getGraph() {
+		Built current = this.built;
+		if ( current != null && current.generation == this.generation.get() ) {
+			return current.graph;
+		}
+		synchronized ( this ) {
+			current = this.built;
+			long generation = this.generation.get();
+			if ( current == null || current.generation != generation ) {
+				apply();
+				current = new Built( this.table.toGraph(), generation );
+				this.built = current;
+			}
+		}
+
+		return current.graph;
+	}
+
+
+
+	/**
+	 * Cancels the registration for changes of the model. The last graph stays available, but is not rebuilt anymore.
+	 *
+	 */
+	public void close() {
+		ModelChangeSupport.removeListener( this );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	public void modelChanged( ModelChange change ) {
+		String feature = change.getFeature();
+		boolean owning = "ownedElement".equals( feature ) || "feature".equals( feature );
+		if (   !owning
+			&& !"clientDependency".equals( feature )
+			&& !"supplier".equals( feature )
+			&& !"client".equals( feature )
+			&& !"generalization".equals( feature )
+			&& !"specialization".equals( feature )
+			&& !"uniqueKey".equals( feature )
+		) {
+			return;
+		}
+		ModelElement element  = change.getElement();
+		Object       oldValue = change.getOldValue();
+		Object       newValue = change.getNewValue();
+		if (   !isBelowRoot( element )
+			&& !( oldValue instanceof ModelElement && isBelowRoot( (ModelElement) oldValue ) )
+			&& !( newValue instanceof ModelElement && isBelowRoot( (ModelElement) newValue ) )
+		) {
+			return;
+		}
+
+		synchronized ( this ) {
+			if ( this.table != null ) {
+				if ( owning ) {
+					queue( element, oldValue, Boolean.FALSE );
+					queue( element, newValue, Boolean.TRUE );
+				} else {
+					this.changed.add( element );
+					if ( oldValue instanceof ModelElement ) {
+						this.changed.add( (ModelElement) oldValue );
+					}
+					if ( newValue instanceof ModelElement ) {
+						this.changed.add( (ModelElement) newValue );
+					}
+				}
+				if ( this.links.size() / 3 + this.changed.size() > Math.max( MIN_QUEUED, this.table.size() / 4 ) ) {
+					this.table = null; // built again, that is cheaper than applying the queue
+					this.links.clear();
+					this.changed.clear();
+				}
+			}
+			this.generation.incrementAndGet();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ElementGraphIndex internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Queues the link or unlink of an owned element, if the value of the change is an element.
+	 *
+	 */
+	private void queue( ModelElement owner, Object value, Boolean linked ) {
+		if ( value instanceof ModelElement ) {
+			this.links.add( owner );
+			this.links.add( value );
+			this.links.add( linked );
+		}
+	}
+
+
+
+	/**
+	 * Applies the queued changes to the EdgeTable, or builds it again, if it was dropped. Called holding the lock of the index.
+	 *
+	 */
+	private void apply() {
+		if ( this.table == null ) {
+			this.table = new EdgeTable();
+			this.table.link( null, this.root );
+			return;
+		}
+		for ( int i = 0; i < this.links.size(); i += 3 ) {
+			ModelElement owner   = (ModelElement) this.links.get( i );
+			ModelElement element = (ModelElement) this.links.get( i + 1 );
+			if ( Boolean.TRUE.equals( this.links.get( i + 2 ) ) ) {
+				this.table.link( owner, element );
+			} else {
+				this.table.unlink( owner, element );
+			}
+		}
+		for ( ModelElement element : this.changed ) {
+			this.table.refresh( element );
+		}
+		this.links.clear();
+		this.changed.clear();
+	}
+
+
+
+	private boolean isBelowRoot( ModelElement element ) {
+		for ( ModelElement current = element; current != null; current = ModelStructure.getParent( current ) ) {
+			if ( current == this.root ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
+
+	/**
+	 * A graph together with the generation of the model it was built of.
+	 *
+	 */
+	private static final class Built {
+
+
+		Built( ElementGraph graph, long generation ) {
+			this.graph      = graph;
+			this.generation = generation;
+		}
+
+
+
+		final ElementGraph graph;
+
+
+
+		final long generation;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The number of queued changes, that is always applied, before the EdgeTable is rather built again.
+	 *
+	 */
+	private static final int MIN_QUEUED = 256;
+
+
+
+	private final ModelElement root;
+
+
+
+	/**
+	 * The number of changes of the model below the root, that are part of the graph.
+	 *
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+
+
+	/**
+	 * The last built graph, <code>null</code> till open() built the first one. It is outdated, if its generation differs from the current generation.
+	 *
+	 */
+	private volatile Built built = null;
+
+
+
+	/**
+	 * The edges of the model as of the last published graph, <code>null</code> if it is built again by the next request. Guarded by the lock
+	 * of the index.
+	 *
+	 */
+	private EdgeTable table = null;
+
+
+
+	/**
+	 * The queued links and unlinks of owned elements, each as the owner, the element and <code>Boolean.TRUE</code> for a link. Guarded by the
+	 * lock of the index.
+	 *
+	 */
+	private final List<Object> links = new ArrayList<Object>();
+
+
+
+	/**
+	 * The elements whose edges changed since the last published graph, like a Dependency, its client or a KeyRelationship. Guarded by the lock
+	 * of the index.
+	 *
+	 */
+	private final Set<ModelElement> changed = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+}
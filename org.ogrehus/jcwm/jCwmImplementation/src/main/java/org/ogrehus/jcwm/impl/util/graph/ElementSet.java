@@ -0,0 +1,133 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.graph;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * An unmodifiable Set of ModelElements, backed by a BitSet of the ids of an ElementGraph.
+ * <p>
+ * Results of closure queries can contain millions of elements. Instead of copying them into a HashSet, the result is returned as a view on the
+ * ids, so <code>contains</code> costs a single id lookup and the size is counted without touching any element.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ElementSet
+extends
+	AbstractSet<ModelElement>
+{
+
+
+	ElementSet( ElementGraph graph, BitSet ids ) {
+		this.graph = graph;
+		this.ids   = ids;
+		this.size  = ids.cardinality();
+	}
+
+
+
+//====================================================================================================================================================
+// Set capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public Iterator<ModelElement> iterator() {
+		return new Iterator<ModelElement>() {
+
+			public boolean hasNext() {
+				return this.next >= 0;
+			}
+
+			public ModelElement next() {
+				if ( this.next < 0 ) {
+					throw new NoSuchElementException();
+				}
+				ModelElement element = ElementSet.this.graph.getElement( this.next );
+				this.next = ElementSet.this.ids.nextSetBit( this.next + 1 );
+				return element;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException( "An ElementSet is read only." );
+			}
+
+			private int next = ElementSet.this.ids.nextSetBit( 0 );
+		};
+	}
+
+
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+
+
+	@Override
+	public boolean contains( Object element ) {
+		if ( !( element instanceof ModelElement ) ) {
+			return false;
+		}
+		int id = this.graph.getId( (ModelElement) element );
+
+		return id >= 0 && this.ids.get( id );
+	}
+
+
+
+	/**
+	 * @return The ids of the contained elements. The returned BitSet must not be modified.
+	 *
+	 */
+	public BitSet getIds() {
+		return this.ids;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ElementGraph graph;
+
+
+
+	private final BitSet ids;
+
+
+
+	private final int size;
+}
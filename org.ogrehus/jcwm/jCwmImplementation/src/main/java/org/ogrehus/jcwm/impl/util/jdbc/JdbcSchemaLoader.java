@@ -0,0 +1,1267 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.jdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.NamedColumnSet;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndexColumn;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+import org.ogrehus.jcwm.api.resource.relational.util.Nullable;
+import org.ogrehus.jcwm.api.resource.relational.util.ReferentialRule;
+import org.ogrehus.jcwm.api.resource.relational.util.generic.GColumn;
+
+import org.ogrehus.jcwm.impl.foundation.keyindexes.util.generic.GFunKeyRelationship;
+import org.ogrehus.jcwm.impl.foundation.keyindexes.util.generic.GFunUniqueKey;
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSQLSimpleTypePool;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.resource.relational.FunTable;
+import org.ogrehus.jcwm.impl.resource.relational.FunView;
+import org.ogrehus.jcwm.impl.resource.relational.util.ColumnSetLoader;
+import org.ogrehus.jcwm.impl.resource.relational.util.ColumnSetPart;
+import org.ogrehus.jcwm.impl.resource.relational.util.generic.GFunNamedColumnSet;
+import org.ogrehus.jcwm.impl.util.collection.FrozenCollections;
+import org.ogrehus.jcwm.impl.util.diff.Fingerprint;
+import org.ogrehus.jcwm.impl.util.diff.Fingerprinter;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * A JdbcSchemaLoader fills a Schema from the DatabaseMetaData of a live database on demand, so a Schema of a huge database is usable in
+ * seconds instead of after harvesting every Table.
+ * <p>
+ * {@link #list()} adds a stub for each Table and View of the database, from a single listing of their names. The parts of a stub are loaded on
+ * their first access, see {@link ColumnSetPart}: the columns and the PrimaryKey by {@link FunTable#getColumns()},
+ * {@link FunTable#getColumn(String)} or {@link FunTable#getPrimaryKey()}, the ForeignKeys and SQLIndexes by
+ * {@link FunTable#getForeignKeys()} or {@link FunTable#getIndexes()}. Loading the ForeignKeys of a Table loads the PrimaryKeys of the Tables
+ * they reference, ForeignKeys into other Schemas are skipped.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * JdbcSchemaLoader loader = new JdbcSchemaLoader( dataSource, schema, 10000 );
+ * loader.list();                                   // stubs of all Tables and Views
+ * Table orders = (Table) loader.getNamedColumnSet( "ORDERS" );
+ * orders.getColumns();                             // loads the columns of ORDERS
+ * </pre>
+ * <p>
+ * Concurrent first accesses of a part are coalesced: one thread reads the DatabaseMetaData, the others wait for it. If the load fails, the
+ * access throws an IllegalStateException and the next access tries again. The metadata is read without locks, the model is changed holding
+ * {@link #getLock()}: a reader iterating elements shared by the Tables while other threads load, like the owned elements of the Schema, the
+ * SQLIndexes or the KeyRelationships of a PrimaryKey, holds the lock too.
+ * </p>
+ * <p>
+ * At most <code>maxLoaded</code> Tables and Views stay loaded: beyond, the loader evicts cold ones by the CLOCK algorithm, an access marks a
+ * loaded stub hot until the next sweep of the clock passes it. An evicted stub drops its columns, keys and SQLIndexes and is loaded again on
+ * its next access. Only unchanged stubs are evicted, compared by their Fingerprints, and no Tables whose PrimaryKey is referenced by
+ * ForeignKeys of other loaded Tables; a stub changed by the application stays loaded. The loads of any thread may evict a stub: the eviction
+ * swaps fresh collections into the stub instead of clearing its collections, so a reader iterating the parts of a stub, like the Collection
+ * of {@link FunTable#getColumns()} or {@link FunTable#getForeignKeys()}, reads them safely till its end, even if the stub is evicted meanwhile.
+ * A reader that reads the parts of a stub several times and wants to see the same instances pins it for the time it reads:
+ * </p>
+ * <pre>
+ * loader.pin( orders );
+ * try {
+ *     for ( TableColumn column : orders.getColumns() ) {
+ *         ...
+ *     }
+ * } finally {
+ *     loader.unpin( orders );
+ * }
+ * </pre>
+ * <p>
+ * A pinned stub is never evicted, it is loaded on its first access as usual.
+ * </p>
+ * <p>
+ * Loads and evictions are ordinary changes of the model, so listeners like a ModelJournal record them. Generic traversals, like the
+ * Fingerprinter or the ModelJsonWriter, see the stubs as they are and do not load them. Triggers are not loaded, cause the DatabaseMetaData
+ * does not describe them. A JdbcSchemaLoader is thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class JdbcSchemaLoader {
+
+
+	/**
+	 * Creates a new instance of JdbcSchemaLoader keeping at most {@value #DEFAULT_MAX_LOADED} Tables and Views loaded.
+	 *
+	 * @see #JdbcSchemaLoader(DataSource, FunSchema, int)
+	 *
+	 */
+	public JdbcSchemaLoader( DataSource dataSource, FunSchema schema ) {
+		this( dataSource, schema, DEFAULT_MAX_LOADED );
+	}
+
+
+
+	/**
+	 * Creates a new instance of JdbcSchemaLoader.
+	 *
+	 * @param dataSource The connections to the database. Must not be <code>null</code>.
+	 *
+	 * @param schema The Schema to fill. The DatabaseMetaData is queried by the name of the Schema and the name of its Catalog, if it has
+	 * one. Must not be <code>null</code>.
+	 *
+	 * @param maxLoaded The maximal number of Tables and Views kept loaded, must be positive.
+	 *
+	 * @throws NullPointerException Is thrown if one of the parameters: <code>dataSource</code> or <code>schema</code> is <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException Is thrown if <code>maxLoaded</code> is not positive.
+	 *
+	 */
+	public JdbcSchemaLoader( DataSource dataSource, FunSchema schema, int maxLoaded ) {
+		if ( dataSource == null ) {
+			throw new NullPointerException( "Parameter: dataSource must not be null." );
+		}
+		if ( schema == null ) {
+			throw new NullPointerException( "Parameter: schema must not be null." );
+		}
+		if ( maxLoaded < 1 ) {
+			throw new IllegalArgumentException( "Parameter: maxLoaded (=" + maxLoaded + ") must be positive." );
+		}
+		this.dataSource  = dataSource;
+		this.schema      = schema;
+		this.factory     = new FunRelationalPackage( schema.getRegistry() == null ? ElementRegistry.getDefault() : schema.getRegistry() );
+		this.catalogName = schema.getCatalog() == null ? null : schema.getCatalog().getSimpleName();
+		this.maxLoaded   = maxLoaded;
+		this.entries     = new ConcurrentHashMap<String, Entry>();
+		this.ring        = new ArrayList<Entry>();
+		this.model       = new ReentrantLock();
+		this.flights     = new ReentrantLock();
+		this.landed      = this.flights.newCondition();
+	}
+
+
+
+//====================================================================================================================================================
+// JdbcSchemaLoader capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Adds a stub to the Schema for each Table and View of the database, that is not in the Schema yet. Can be called again to add the Tables
+	 * and Views created since.
+	 *
+	 * @return The number of stubs added.
+	 *
+	 * @throws SQLException If the names could not be listed.
+	 *
+	 */
+	public int list() throws SQLException {
+		List<String> tables = new ArrayList<String>();
+		List<String> views  = new ArrayList<String>();
+		Connection connection = this.dataSource.getConnection();
+		try {
+			ResultSet names = connection.getMetaData().getTables( this.catalogName, this.schema.getSimpleName(), "%", TYPES );
+			try {
+				while ( names.next() ) {
+					( "VIEW".equals( names.getString( "TABLE_TYPE" ) ) ? views : tables ).add( names.getString( "TABLE_NAME" ) );
+				}
+			} finally {
+				names.close();
+			}
+		} finally {
+			connection.close();
+		}
+
+		int added = 0;
+		this.model.lock();
+		try {
+			Set<String> known = new HashSet<String>(); // a single pass, cause getNamedColumnSet(String) scans the Schema
+			for ( ModelElement owned : this.schema.getOwnedElements() ) {
+				if ( owned instanceof NamedColumnSet<?> ) {
+					known.add( owned.getSimpleName() );
+				}
+			}
+			for ( String name : tables ) {
+				if ( known.add( name ) ) {
+					FunTable table = (FunTable) this.factory.createTable( name );
+					table.setLoader( newEntry( table ) );
+					this.schema.addOwnedElement( table );
+					added++;
+				}
+			}
+			for ( String name : views ) {
+				if ( known.add( name ) ) {
+					FunView view = (FunView) this.factory.createView( name );
+					view.setLoader( newEntry( view ) );
+					this.schema.addOwnedElement( view );
+					added++;
+				}
+			}
+		} finally {
+			this.model.unlock();
+		}
+
+		return added;
+	}
+
+
+
+	/**
+	 * Finds a stub by its name without scanning the Schema, so it does not need the lock, unlike {@link FunSchema#getNamedColumnSet(String)}.
+	 *
+	 * @return The Table or View named by <code>simpleName</code>, <code>null</code> if the loader did not list it.
+	 *
+	 */
+	public NamedColumnSet<?> getNamedColumnSet( String simpleName ) {
+		Entry entry = simpleName == null ? null : this.entries.get( simpleName );
+
+		return entry == null ? null : (NamedColumnSet<?>) entry.columnSet;
+	}
+
+
+
+	/**
+	 * Pins a stub, so it is not evicted till it is unpinned as often as it was pinned. Waits for an eviction of the stub in progress, so
+	 * its parts are read from the model afterwards, loaded again if needed.
+	 *
+	 * @param columnSet A Table or View listed by this loader. Must not be <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException If the loader did not list the Table or View.
+	 *
+	 */
+	public void pin( NamedColumnSet<?> columnSet ) {
+		Entry entry = getEntry( columnSet );
+		Thread current = Thread.currentThread();
+		this.flights.lock();
+		try {
+			while ( entry.loading != null && entry.loading != current && !this.model.isHeldByCurrentThread() ) {
+				this.landed.awaitUninterruptibly(); // an eviction holding the model lock checks the pins, so only other threads must wait
+			}
+			entry.pins++;
+		} finally {
+			this.flights.unlock();
+		}
+	}
+
+
+
+	/**
+	 * Releases a pin of a stub, see {@link #pin(NamedColumnSet)}.
+	 *
+	 * @param columnSet A Table or View listed by this loader. Must not be <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException If the loader did not list the Table or View.
+	 *
+	 * @throws IllegalStateException If the stub is not pinned.
+	 *
+	 */
+	public void unpin( NamedColumnSet<?> columnSet ) {
+		Entry entry = getEntry( columnSet );
+		this.flights.lock();
+		try {
+			if ( entry.pins == 0 ) {
+				throw new IllegalStateException( "The stub: " + columnSet.getSimpleName() + " is not pinned." );
+			}
+			entry.pins--;
+		} finally {
+			this.flights.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The lock held while the loader changes the model. Can't be <code>null</code>.
+	 *
+	 */
+	public Lock getLock() {
+		return this.model;
+	}
+
+
+
+	public FunSchema getSchema() {
+		return this.schema;
+	}
+
+
+
+	/**
+	 * @return The number of stubs, loaded or not.
+	 *
+	 */
+	public int getStubs() {
+		return this.entries.size();
+	}
+
+
+
+	/**
+	 * @return The number of stubs loaded now, at most <code>maxLoaded</code> plus the stubs that can't be evicted.
+	 *
+	 */
+	public int getLoaded() {
+		this.flights.lock();
+		try {
+			return this.ring.size() + this.pinned;
+		} finally {
+			this.flights.unlock();
+		}
+	}
+
+
+
+	public int getMaxLoaded() {
+		return this.maxLoaded;
+	}
+
+
+
+	/**
+	 * @return The number of parts loaded from the DatabaseMetaData.
+	 *
+	 */
+	public long getLoads() {
+		return this.loads;
+	}
+
+
+
+	/**
+	 * @return The number of accesses that waited for the load of another thread instead of loading the part again.
+	 *
+	 */
+	public long getCoalesced() {
+		return this.coalesced;
+	}
+
+
+
+	public long getEvictions() {
+		return this.evictions;
+	}
+
+
+
+	public long getFailures() {
+		return this.failures;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[JdbcSchemaLoader" );
+		out.append( " | schema=" + this.schema.getSimpleName() );
+		out.append( " | stubs=" + getStubs() );
+		out.append( " | loaded=" + getLoaded() );
+		out.append( " | maxLoaded=" + this.maxLoaded );
+		out.append( " | loads=" + this.loads );
+		out.append( " | coalesced=" + this.coalesced );
+		out.append( " | evictions=" + this.evictions );
+		out.append( " | failures=" + this.failures );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// JdbcSchemaLoader internals
+//====================================================================================================================================================
+
+
+
+	private Entry getEntry( NamedColumnSet<?> columnSet ) {
+		if ( columnSet == null ) {
+			throw new NullPointerException( "Parameter: columnSet must not be null." );
+		}
+		Entry entry = this.entries.get( columnSet.getSimpleName() );
+		if ( entry == null || entry.columnSet != columnSet ) {
+			throw new IllegalArgumentException( "The loader did not list: " + columnSet.getSimpleName() );
+		}
+
+		return entry;
+	}
+
+
+
+	private Entry newEntry( GFunNamedColumnSet<?, ?> columnSet ) {
+		Entry entry = new Entry( columnSet );
+		this.entries.put( columnSet.getSimpleName(), entry );
+
+		return entry;
+	}
+
+
+
+	/**
+	 * Loads the parts of a stub up to a part, unless they are loaded already or the calling thread is changing the stub.
+	 *
+	 */
+	private void ensure( Entry entry, ColumnSetPart part ) {
+		Thread current = Thread.currentThread();
+		if ( entry.changing == current ) {
+			return; // called by the changes of the load or the eviction itself
+		}
+		int target = part == ColumnSetPart.keys && entry.columnSet instanceof FunTable ? KEYS : COLUMNS;
+		if ( entry.state >= target ) {
+			entry.referenced = true;
+			return;
+		}
+
+		boolean owner  = false;
+		boolean waited = false;
+		this.flights.lock();
+		try {
+			while ( entry.state < target && !owner ) {
+				if ( entry.loading == null ) {
+					entry.loading = current;
+					owner = true;
+				} else if ( this.model.isHeldByCurrentThread() ) {
+					break; // the loading thread waits for the lock to change the model, so load the part again instead of waiting
+				} else {
+					if ( !waited ) {
+						waited = true;
+						this.coalesced++;
+					}
+					this.landed.awaitUninterruptibly();
+				}
+			}
+		} finally {
+			this.flights.unlock();
+		}
+
+		try {
+			while ( entry.state < target ) {
+				loadNext( entry );
+			}
+			entry.referenced = true;
+		} finally {
+			if ( owner ) {
+				this.flights.lock();
+				try {
+					entry.loading = null;
+					this.landed.signalAll();
+				} finally {
+					this.flights.unlock();
+				}
+			}
+		}
+		evict();
+	}
+
+
+
+	/**
+	 * Reads the next part of a stub from the DatabaseMetaData, then adds it to the model, unless another thread added it meanwhile.
+	 *
+	 * @throws IllegalStateException If the DatabaseMetaData could not be read.
+	 *
+	 */
+	private void loadNext( Entry entry ) {
+		int part = entry.state + 1;
+		String name = entry.columnSet.getSimpleName();
+		List<Row> columns = null;
+		List<Row> primaryKey = null;
+		List<Row> foreignKeys = null;
+		List<Row> indexes = null;
+		try {
+			Connection connection = this.dataSource.getConnection();
+			try {
+				DatabaseMetaData metaData = connection.getMetaData();
+				String schemaName = this.schema.getSimpleName();
+				if ( part == COLUMNS ) {
+					String pattern = escape( name, metaData.getSearchStringEscape() );
+					columns = read( metaData.getColumns( this.catalogName, schemaName, pattern, "%" ), COLUMN_FIELDS, name );
+					if ( entry.columnSet instanceof FunTable ) {
+						primaryKey = read( metaData.getPrimaryKeys( this.catalogName, schemaName, name ), PRIMARY_KEY_FIELDS, null );
+					}
+				} else {
+					foreignKeys = read( metaData.getImportedKeys( this.catalogName, schemaName, name ), FOREIGN_KEY_FIELDS, null );
+					indexes = read( metaData.getIndexInfo( this.catalogName, schemaName, name, false, true ), INDEX_FIELDS, null );
+				}
+			} finally {
+				connection.close();
+			}
+		} catch ( SQLException e ) {
+			this.flights.lock();
+			try {
+				this.failures++;
+			} finally {
+				this.flights.unlock();
+			}
+			throw new IllegalStateException( "The metadata of: " + name + " could not be loaded from the database.", e );
+		}
+
+		if ( foreignKeys != null ) { // the referenced Tables are loaded before taking the lock, cause their loads may run in other threads
+			Set<String> referenced = new HashSet<String>();
+			for ( Row row : foreignKeys ) {
+				FunTable target = getTable( row );
+				if ( target != null && referenced.add( target.getSimpleName() ) ) {
+					target.getPrimaryKey();
+				}
+			}
+		}
+
+		this.model.lock();
+		try {
+			if ( entry.state >= part ) {
+				return; // added by a thread holding the lock meanwhile
+			}
+			entry.changing = Thread.currentThread();
+			try {
+				if ( part == COLUMNS ) {
+					addColumns( entry, columns, primaryKey );
+				} else {
+					addKeys( (FunTable) entry.columnSet, foreignKeys, indexes );
+				}
+				entry.shapes = getShapes( entry );
+			} finally {
+				entry.changing = null;
+			}
+			this.flights.lock();
+			try {
+				entry.state = part;
+				if ( part == COLUMNS ) {
+					entry.slot = this.ring.size();
+					this.ring.add( entry );
+				}
+				this.loads++;
+			} finally {
+				this.flights.unlock();
+			}
+		} finally {
+			this.model.unlock();
+		}
+	}
+
+
+
+	private void addColumns( Entry entry, List<Row> columns, List<Row> primaryKey ) {
+		FunSQLSimpleTypePool pool = this.schema.getSQLSimpleTypePool();
+		for ( Row row : columns ) {
+			SQLSimpleType type;
+			try {
+				type = pool.get(
+					  row.getInteger( "DATA_TYPE" )
+					, row.getString( "TYPE_NAME" )
+					, row.getInteger( "COLUMN_SIZE" )
+					, row.getInteger( "COLUMN_SIZE" )
+					, row.getShort( "DECIMAL_DIGITS" )
+					, row.getShort( "NUM_PREC_RADIX" )
+					, row.getInteger( "CHAR_OCTET_LENGTH" )
+				);
+			} catch ( IllegalArgumentException e ) {
+				continue; // no simple type, like a STRUCT
+			}
+			String columnName = row.getString( "COLUMN_NAME" );
+			GColumn<?, ?> column;
+			if ( entry.columnSet instanceof FunTable ) {
+				FunTable table = (FunTable) entry.columnSet;
+				table.addColumn( columnName, type );
+				column = table.getColumn( columnName );
+			} else {
+				FunView view = (FunView) entry.columnSet;
+				view.addColumn( columnName, type );
+				column = view.getColumn( columnName );
+			}
+			if ( column == null ) {
+				continue;
+			}
+			if ( row.getShort( "NULLABLE" ) != null ) {
+				column.setNullable( Nullable.byJDBC( row.getShort( "NULLABLE" ) ) );
+			}
+			if ( row.getString( "COLUMN_DEF" ) != null ) {
+				column.setDefaultValue( row.getString( "COLUMN_DEF" ) );
+			}
+			if ( row.getString( "IS_AUTOINCREMENT" ) != null && row.getString( "IS_AUTOINCREMENT" ).length() > 0 ) {
+				column.setAutoIncrement( row.getString( "IS_AUTOINCREMENT" ) );
+			}
+		}
+
+		if ( primaryKey == null || primaryKey.isEmpty() ) {
+			return;
+		}
+		FunTable table = (FunTable) entry.columnSet;
+		String keyName = primaryKey.get( 0 ).getString( "PK_NAME" );
+		PrimaryKey key = this.factory.createPrimaryKey( keyName == null ? "PK_" + table.getSimpleName() : keyName, Deferability.getDefault() );
+		for ( Row row : sortBy( primaryKey, "KEY_SEQ" ) ) {
+			TableColumn column = table.getColumn( row.getString( "COLUMN_NAME" ) );
+			if ( column != null ) {
+				key.addFeature( column );
+			}
+		}
+		table.setPrimaryKey( key );
+	}
+
+
+
+	private void addKeys( FunTable table, List<Row> foreignKeys, List<Row> indexes ) {
+		List<List<Row>> keys = new ArrayList<List<Row>>(); // ordered by the referenced Table and KEY_SEQ, a key starts with KEY_SEQ 1
+		for ( Row row : foreignKeys ) {
+			Integer sequence = row.getInteger( "KEY_SEQ" );
+			if ( keys.isEmpty() || sequence == null || sequence.intValue() <= 1 ) {
+				keys.add( new ArrayList<Row>() );
+			}
+			keys.get( keys.size() - 1 ).add( row );
+		}
+		for ( List<Row> key : keys ) {
+			Row first = key.get( 0 );
+			FunTable target = getTable( first );
+			PrimaryKey primaryKey = target == null ? null : target.getPrimaryKey(); // loaded already, unless it was evicted meanwhile
+			if ( primaryKey == null ) {
+				continue; // references another Schema, or a UniqueConstraint that is no PrimaryKey
+			}
+			String keyName = first.getString( "FK_NAME" );
+			ForeignKey foreignKey = this.factory.createForeignKey(
+				  keyName == null ? "FK_" + table.getSimpleName() + "_" + ( keys.indexOf( key ) + 1 ) : keyName
+				, primaryKey
+				, first.getShort( "DELETE_RULE" ) == null ? ReferentialRule.getDefault() : ReferentialRule.byJDBC( first.getShort( "DELETE_RULE" ) )
+				, first.getShort( "UPDATE_RULE" ) == null ? ReferentialRule.getDefault() : ReferentialRule.byJDBC( first.getShort( "UPDATE_RULE" ) )
+				, first.getShort( "DEFERRABILITY" ) == null ? Deferability.getDefault() : Deferability.byJDBC( first.getShort( "DEFERRABILITY" ) )
+			);
+			for ( Row row : key ) {
+				TableColumn column = table.getColumn( row.getString( "FKCOLUMN_NAME" ) );
+				if ( column != null ) {
+					foreignKey.addFeature( column );
+				}
+			}
+			table.addForeignKey( foreignKey );
+		}
+
+		Map<String, List<Row>> byName = new LinkedHashMap<String, List<Row>>();
+		for ( Row row : indexes ) {
+			String indexName = row.getString( "INDEX_NAME" );
+			Short type = row.getShort( "TYPE" );
+			if ( indexName == null || type == null || type.shortValue() == DatabaseMetaData.tableIndexStatistic ) {
+				continue;
+			}
+			List<Row> columns = byName.get( indexName );
+			if ( columns == null ) {
+				columns = new ArrayList<Row>();
+				byName.put( indexName, columns );
+			}
+			columns.add( row );
+		}
+		for ( Map.Entry<String, List<Row>> index : byName.entrySet() ) {
+			List<Row> columns = sortBy( index.getValue(), "ORDINAL_POSITION" );
+			Row first = columns.get( 0 );
+			boolean sorted = first.getString( "ASC_OR_DESC" ) != null;
+			SQLIndex sqlIndex = this.factory.createSQLIndex(
+				  index.getKey()
+				, Boolean.valueOf( !first.getBoolean( "NON_UNIQUE" ) )
+				, Boolean.valueOf( sorted )
+				, Boolean.FALSE
+				, table
+				, first.getString( "FILTER_CONDITION" ) == null ? "" : first.getString( "FILTER_CONDITION" )
+				, Boolean.TRUE
+				, Boolean.TRUE
+			);
+			for ( Row row : columns ) {
+				TableColumn column = table.getColumn( row.getString( "COLUMN_NAME" ) );
+				if ( column == null ) {
+					continue; // an expression
+				}
+				sqlIndex.addIndexedFeature( column );
+				SQLIndexColumn indexed = sqlIndex.getIndexedFeature( column.getSimpleName() );
+				if ( sorted && indexed != null && row.getString( "ASC_OR_DESC" ) != null ) {
+					indexed.setAscending( Boolean.valueOf( "A".equals( row.getString( "ASC_OR_DESC" ) ) ) );
+				}
+			}
+			this.schema.addSQLIndex( sqlIndex );
+		}
+	}
+
+
+
+	/**
+	 * Evicts cold stubs until at most <code>maxLoaded</code> are loaded, or no stub can be evicted.
+	 *
+	 */
+	private void evict() {
+		Thread current = Thread.currentThread();
+		int attempts = -1;
+		while ( true ) {
+			Entry victim = null;
+			this.flights.lock();
+			try {
+				if ( attempts < 0 ) {
+					attempts = this.ring.size(); // each stub gets a chance, hot ones get a second
+				}
+				if ( this.ring.size() <= this.maxLoaded || attempts-- == 0 ) {
+					return;
+				}
+				for ( int step = 0; step < 2 * this.ring.size() && victim == null; step++ ) {
+					if ( this.hand >= this.ring.size() ) {
+						this.hand = 0;
+					}
+					Entry candidate = this.ring.get( this.hand++ );
+					if ( candidate.pins > 0 ) {
+						continue; // read by the application
+					} else if ( candidate.referenced ) {
+						candidate.referenced = false;
+					} else if ( candidate.loading == null ) {
+						candidate.loading = current;
+						victim = candidate;
+					}
+				}
+			} finally {
+				this.flights.unlock();
+			}
+			if ( victim == null ) {
+				return; // all stubs are hot or loading
+			}
+
+			Boolean evicted = null;
+			try {
+				this.model.lock();
+				try {
+					if ( isPinned( victim ) ) {
+						evicted = Boolean.FALSE; // pinned by a thread holding the model lock meanwhile
+					} else {
+						victim.changing = current;
+						try {
+							evicted = release( victim );
+						} finally {
+							victim.changing = null;
+						}
+					}
+				} finally {
+					this.model.unlock();
+				}
+			} finally {
+				this.flights.lock();
+				try {
+					victim.loading = null;
+					if ( evicted == null || Boolean.TRUE.equals( evicted ) ) {
+						unlink( victim );
+						if ( evicted == null ) {
+							this.pinned++; // changed by the application, it stays loaded
+						} else {
+							victim.state = STUB;
+							this.evictions++;
+						}
+					} else {
+						victim.referenced = true; // pinned or referenced by other Tables, try later
+					}
+					this.landed.signalAll();
+				} finally {
+					this.flights.unlock();
+				}
+			}
+		}
+	}
+
+
+
+	private boolean isPinned( Entry entry ) {
+		this.flights.lock();
+		try {
+			return entry.pins > 0;
+		} finally {
+			this.flights.unlock();
+		}
+	}
+
+
+
+	/**
+	 * Drops the loaded parts of a stub.
+	 *
+	 * @return <code>true</code> if the stub was evicted, <code>false</code> if its PrimaryKey is referenced by other Tables, <code>null</code> if
+	 * it was changed since its load.
+	 *
+	 */
+	private Boolean release( Entry entry ) {
+		Fingerprint[] shapes = getShapes( entry );
+		if ( entry.shapes == null || shapes.length != entry.shapes.length ) {
+			return null;
+		}
+		for ( int i = 0; i < shapes.length; i++ ) {
+			if ( !shapes[ i ].equals( entry.shapes[ i ] ) ) {
+				return null;
+			}
+		}
+		FrozenCollections.renew( entry.columnSet ); // readers keep the collections they got, the parts are dropped from fresh ones
+		if ( !( entry.columnSet instanceof FunTable ) ) {
+			for ( Object column : new ArrayList<Object>( entry.columnSet.getFeatures() ) ) {
+				entry.columnSet.removeFeature( (GColumn<?, ?>) column );
+			}
+			entry.shapes = null;
+			return Boolean.TRUE;
+		}
+
+		FunTable table = (FunTable) entry.columnSet;
+		PrimaryKey primaryKey = table.getPrimaryKey();
+		if ( primaryKey instanceof GFunUniqueKey<?, ?, ?, ?> ) {
+			for ( Object relationship : ( (GFunUniqueKey<?, ?, ?, ?>) primaryKey ).getKeyRelationships() ) {
+				if ( !table.equals( ( (ForeignKey) relationship ).getNamespace() ) ) {
+					return Boolean.FALSE;
+				}
+			}
+		}
+		for ( ForeignKey foreignKey : new ArrayList<ForeignKey>( table.getForeignKeys() ) ) {
+			if ( foreignKey.getUniqueKey() != null ) {
+				FrozenCollections.renew( foreignKey.getUniqueKey() ); // its KeyRelationships, read by the Table of the key
+			}
+			table.removeForeignKey( foreignKey );
+			( (GFunKeyRelationship<?, ?, ?, ?>) foreignKey ).releaseUniqueKey(); // so the referenced Table can be evicted
+		}
+		for ( SQLIndex index : new ArrayList<SQLIndex>( table.getIndexes() ) ) {
+			this.schema.removeOwnedElement( index );
+			table.removeIndex( index );
+		}
+		table.removePrimaryKey();
+		for ( TableColumn column : new ArrayList<TableColumn>( table.getColumns() ) ) {
+			table.removeFeature( column );
+		}
+		entry.shapes = null;
+
+		return Boolean.TRUE;
+	}
+
+
+
+	/**
+	 * @return The Fingerprints of the shapes of a stub and its SQLIndexes, which are owned by the Schema.
+	 *
+	 */
+	private Fingerprint[] getShapes( Entry entry ) {
+		Fingerprinter fingerprinter = new Fingerprinter();
+		List<Fingerprint> shapes = new ArrayList<Fingerprint>();
+		shapes.add( fingerprinter.getShape( entry.columnSet ) );
+		for ( SQLIndex index : entry.columnSet.getIndexes() ) {
+			shapes.add( fingerprinter.getShape( index ) );
+		}
+
+		return shapes.toArray( new Fingerprint[ shapes.size() ] );
+	}
+
+
+
+	private void unlink( Entry entry ) {
+		Entry last = this.ring.remove( this.ring.size() - 1 );
+		if ( last != entry ) {
+			this.ring.set( entry.slot, last );
+			last.slot = entry.slot;
+		}
+	}
+
+
+
+	/**
+	 * @return The Table referenced by a row of the imported keys, <code>null</code> if it is in another Schema or no stub.
+	 *
+	 */
+	private FunTable getTable( Row row ) {
+		String schemaName = row.getString( "PKTABLE_SCHEM" );
+		if ( schemaName != null && !schemaName.equals( this.schema.getSimpleName() ) ) {
+			return null;
+		}
+		Entry target = this.entries.get( row.getString( "PKTABLE_NAME" ) );
+
+		return target != null && target.columnSet instanceof FunTable ? (FunTable) target.columnSet : null;
+	}
+
+
+
+	/**
+	 * Reads the rows of a DatabaseMetaData ResultSet and closes it.
+	 *
+	 * @param tableName The table the rows must belong to, <code>null</code> for all rows. A name pattern might match other tables, if the
+	 * driver ignores the escape.
+	 *
+	 */
+	private static List<Row> read( ResultSet result, String[] fields, String tableName ) throws SQLException {
+		List<Row> rows = new ArrayList<Row>();
+		try {
+			while ( result.next() ) {
+				if ( tableName != null && !tableName.equals( result.getString( "TABLE_NAME" ) ) ) {
+					continue;
+				}
+				Row row = new Row();
+				for ( String field : fields ) {
+					Object value = result.getObject( field );
+					row.put( field, result.wasNull() ? null : value );
+				}
+				rows.add( row );
+			}
+		} finally {
+			result.close();
+		}
+
+		return rows;
+	}
+
+
+
+	private static List<Row> sortBy( List<Row> rows, final String field ) {
+		List<Row> sorted = new ArrayList<Row>( rows );
+		sorted.sort( new Comparator<Row>() {
+			public int compare( Row one, Row other ) {
+				Integer first  = one.getInteger( field );
+				Integer second = other.getInteger( field );
+				return Integer.compare( first == null ? 0 : first.intValue(), second == null ? 0 : second.intValue() );
+			}
+		} );
+
+		return sorted;
+	}
+
+
+
+	/**
+	 * Escapes the wildcards of a name used as a pattern of the DatabaseMetaData.
+	 *
+	 */
+	private static String escape( String name, String escape ) {
+		if ( escape == null || escape.length() == 0 ) {
+			return name;
+		}
+		StringBuilder escaped = new StringBuilder( name.length() + 8 );
+		for ( int i = 0; i < name.length(); i++ ) {
+			char c = name.charAt( i );
+			if ( c == '_' || c == '%' || escape.indexOf( c ) >= 0 ) {
+				escaped.append( escape );
+			}
+			escaped.append( c );
+		}
+
+		return escaped.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// JdbcSchemaLoader internal classes
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The load state of a stub, and the loader of the stub.
+	 *
+	 */
+	private final class Entry
+	implements
+		ColumnSetLoader
+	{
+
+
+		Entry( GFunNamedColumnSet<?, ?> columnSet ) {
+			this.columnSet = columnSet;
+		}
+
+
+
+		public void load( GFunNamedColumnSet<?, ?> stub, ColumnSetPart part ) {
+			ensure( this, part );
+		}
+
+
+
+		@Override
+		public String toString() {
+			StringBuffer out = new StringBuffer( "[JdbcSchemaLoader.Entry" );
+			out.append( " | columnSet=" + this.columnSet.getSimpleName() );
+			out.append( " | state=" + this.state );
+			out.append( "]" );
+
+			return out.toString();
+		}
+
+
+
+		final GFunNamedColumnSet<?, ?> columnSet;
+
+
+
+		/**
+		 * {@link JdbcSchemaLoader#STUB}, {@link JdbcSchemaLoader#COLUMNS} or {@link JdbcSchemaLoader#KEYS}, written holding the flights lock.
+		 *
+		 */
+		volatile int state = STUB;
+
+
+
+		/**
+		 * The thread loading the stub or evicting it, <code>null</code> if none. Guarded by the flights lock.
+		 *
+		 */
+		Thread loading = null;
+
+
+
+		/**
+		 * The thread changing the stub holding the model lock, its accesses of the stub must not load it.
+		 *
+		 */
+		volatile Thread changing = null;
+
+
+
+		/**
+		 * Set by each access, cleared by the clock.
+		 *
+		 */
+		volatile boolean referenced = false;
+
+
+
+		/**
+		 * The shapes after the last load, see {@link JdbcSchemaLoader#getShapes(Entry)}. Guarded by the model lock.
+		 *
+		 */
+		Fingerprint[] shapes = null;
+
+
+
+		/**
+		 * The position in the ring of the clock. Guarded by the flights lock.
+		 *
+		 */
+		int slot = -1;
+
+
+
+		/**
+		 * The number of pins of the application, a pinned stub is not evicted. Guarded by the flights lock.
+		 *
+		 */
+		int pins = 0;
+	}
+
+
+
+	/**
+	 * A row of a DatabaseMetaData ResultSet, by the names of its fields.
+	 *
+	 */
+	@SuppressWarnings( "serial" )
+	private static final class Row
+	extends
+		LinkedHashMap<String, Object>
+	{
+
+
+		String getString( String field ) {
+			Object value = get( field );
+			return value == null ? null : value.toString();
+		}
+
+
+
+		Integer getInteger( String field ) {
+			Object value = get( field );
+			return value instanceof Number ? Integer.valueOf( ( (Number) value ).intValue() ) : null;
+		}
+
+
+
+		boolean getBoolean( String field ) {
+			Object value = get( field );
+			if ( value instanceof Number ) {
+				return ( (Number) value ).intValue() != 0;
+			}
+			return Boolean.TRUE.equals( value ) || "true".equalsIgnoreCase( getString( field ) );
+		}
+
+
+
+		Short getShort( String field ) {
+			Object value = get( field );
+			return value instanceof Number ? Short.valueOf( ( (Number) value ).shortValue() ) : null;
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	public static final int DEFAULT_MAX_LOADED = 10000;
+
+
+
+	private static final int STUB    = 0;
+
+
+
+	private static final int COLUMNS = 1;
+
+
+
+	private static final int KEYS    = 2;
+
+
+
+	private static final String[] TYPES = { "TABLE", "VIEW" };
+
+
+
+	private static final String[] COLUMN_FIELDS = {
+		  "COLUMN_NAME", "DATA_TYPE", "TYPE_NAME", "COLUMN_SIZE", "DECIMAL_DIGITS", "NUM_PREC_RADIX", "NULLABLE", "COLUMN_DEF"
+		, "CHAR_OCTET_LENGTH", "IS_AUTOINCREMENT"
+	};
+
+
+
+	private static final String[] PRIMARY_KEY_FIELDS = { "COLUMN_NAME", "KEY_SEQ", "PK_NAME" };
+
+
+
+	private static final String[] FOREIGN_KEY_FIELDS = {
+		  "PKTABLE_SCHEM", "PKTABLE_NAME", "FKCOLUMN_NAME", "KEY_SEQ", "UPDATE_RULE", "DELETE_RULE", "FK_NAME", "DEFERRABILITY"
+	};
+
+
+
+	private static final String[] INDEX_FIELDS = {
+		  "NON_UNIQUE", "INDEX_NAME", "TYPE", "ORDINAL_POSITION", "COLUMN_NAME", "ASC_OR_DESC", "FILTER_CONDITION"
+	};
+
+
+
+	private final DataSource dataSource;
+
+
+
+	private final FunSchema schema;
+
+
+
+	/**
+	 * Creates the loaded elements in the ElementRegistry of the Schema.
+	 *
+	 */
+	private final FunRelationalPackage factory;
+
+
+
+	/**
+	 * The name of the Catalog of the Schema, <code>null</code> if it has none.
+	 *
+	 */
+	private final String catalogName;
+
+
+
+	private final int maxLoaded;
+
+
+
+	/**
+	 * The stubs by the names of their Tables and Views.
+	 *
+	 */
+	private final Map<String, Entry> entries;
+
+
+
+	/**
+	 * The loaded stubs, that can be evicted, the clock passes them by {@link #hand}. Guarded by {@link #flights}.
+	 *
+	 */
+	private final List<Entry> ring;
+
+
+
+	private int hand = 0;
+
+
+
+	/**
+	 * The number of loaded stubs that were changed by the application and are not evicted. Guarded by {@link #flights}.
+	 *
+	 */
+	private int pinned = 0;
+
+
+
+	/**
+	 * Held while the model is changed.
+	 *
+	 */
+	private final ReentrantLock model;
+
+
+
+	/**
+	 * Guards the load states of the stubs and the clock, never held while the model is changed or the database is queried.
+	 *
+	 */
+	private final ReentrantLock flights;
+
+
+
+	/**
+	 * Signalled when a thread stops loading a stub.
+	 *
+	 */
+	private final Condition landed;
+
+
+
+	private volatile long loads = 0;
+
+
+
+	private volatile long coalesced = 0;
+
+
+
+	private volatile long evictions = 0;
+
+
+
+	private volatile long failures = 0;
+}
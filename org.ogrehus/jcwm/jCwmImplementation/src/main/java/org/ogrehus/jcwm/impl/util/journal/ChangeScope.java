@@ -0,0 +1,275 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.diff.ModelStructure;
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+
+
+/**
+ * A ChangeScope selects the changes of a ModelJournal or a ReplicationLeader that belong to its model: the ModelChangeSupport reports the
+ * changes of all models of the process.
+ * <p>
+ * A change of an element whose ownership chain reaches the root is encoded. Membership is decided by this location only, not by the
+ * ElementRegistry of an element. An element is created before it is linked to its owner, so the records of a created element are held back,
+ * together with the records of the elements linked to it or referenced by it, till a change below the root links or references one of them.
+ * Then the held records are put first, in the order of their changes, so the elements are known when the linking record is replayed. Once
+ * put, the changes of these elements are encoded, also if the element is unlinked again. The changes of other elements are dropped, like
+ * those of another model or of an element created before and never linked below the root.
+ * </p>
+ * <p>
+ * Held records are kept as long as their element lives, an element that is never linked takes its records with it. A ChangeScope is not
+ * thread safe, it is guarded by the lock of its owner.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class ChangeScope {
+
+
+	ChangeScope( ModelElement root ) {
+		this.root = root;
+	}
+
+
+
+//====================================================================================================================================================
+// ChangeScope capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Puts the records of a change into a batch, numbered from the sequence number following the given one: the held records it releases and
+	 * its own record, if the change belongs to the model.
+	 *
+	 * @return The sequence number of the last record put, the given one if the change was held back or dropped.
+	 *
+	 */
+	long put( long sequence, ModelChange change, RecordBuffer batch ) {
+		ModelElement element = change.getElement();
+		if ( change.getKind() == ModelChangeKind.created ) {
+			Group group = new Group();
+			if ( hold( change, group ) ) {
+				this.groups.put( element, group ); // of the model, if it is linked below the root later, whatever its registry
+			}
+			return sequence;
+		}
+
+		long last = sequence;
+		Group group = getGroup( element );
+		if ( group != RELEASED && isBelowRoot( element ) ) {
+			if ( group != null ) {
+				last = merge( group, RELEASED, last, batch ); // linked by a change of its own, like its namespace
+			}
+			group = RELEASED;
+		} else if ( group == null ) {
+			return sequence; // not of the model
+		}
+		Object value = change.getKind() == ModelChangeKind.unlinked ? change.getOldValue() : change.getNewValue();
+		Group referenced = value instanceof ModelElement ? getGroup( (ModelElement) value ) : null;
+		if ( referenced != null && referenced != RELEASED && referenced != group ) {
+			last = merge( referenced, group, last, batch );
+		}
+		if ( group != RELEASED ) {
+			hold( change, group );
+			return last;
+		}
+		this.record.clear();
+		if ( !JournalRecord.encode( last + 1, change, this.record ) ) {
+			return last; // no element of the model
+		}
+		batch.putRecord( this.record );
+
+		return last + 1;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ChangeScope" );
+		out.append( " | root=" + this.root.getSimpleName() );
+		out.append( " | held=" + this.groups.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ChangeScope internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return <code>true</code> if the element is the root or is owned by it, directly or indirectly.
+	 *
+	 */
+	private boolean isBelowRoot( ModelElement element ) {
+		for ( ModelElement current = element; current != null; current = ModelStructure.getParent( current ) ) {
+			if ( current == this.root ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
+
+	/**
+	 * @return The group of an element, <code>RELEASED</code> if its records were put, <code>null</code> if it was not created since the scope
+	 * exists.
+	 *
+	 */
+	private Group getGroup( ModelElement element ) {
+		Group group = this.groups.get( element );
+		if ( group == null ) {
+			return null;
+		}
+		while ( group.merged != null ) {
+			group = group.merged;
+		}
+
+		return group;
+	}
+
+
+
+	/**
+	 * Encodes a change with a placeholder for its sequence number and adds it to the records of a group.
+	 *
+	 */
+	private boolean hold( ModelChange change, Group group ) {
+		this.record.clear();
+		if ( !JournalRecord.encode( 0, change, this.record ) ) {
+			return false;
+		}
+		group.records.add( this.record.toByteArray() );
+
+		return true;
+	}
+
+
+
+	/**
+	 * Merges a group into another one: its records are put into the batch if the other one is released, otherwise appended to the records of
+	 * the other one.
+	 *
+	 * @return The sequence number of the last record put.
+	 *
+	 */
+	private long merge( Group group, Group into, long sequence, RecordBuffer batch ) {
+		long last = sequence;
+		if ( into == RELEASED ) {
+			for ( byte[] held : group.records ) {
+				this.record.clear();
+				this.record.putLong( ++last );
+				this.record.putBytes( held, SEQUENCE_SIZE, held.length - SEQUENCE_SIZE );
+				batch.putRecord( this.record );
+			}
+		} else {
+			into.records.addAll( group.records );
+		}
+		group.records = null;
+		group.merged  = into;
+
+		return last;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The records of created elements that are linked to each other, but not yet below the root. The group of an element that was merged
+	 * into another one points to it.
+	 *
+	 */
+	private static final class Group {
+
+
+		private List<byte[]> records = new ArrayList<byte[]>();
+
+
+
+		private Group merged = null;
+	}
+
+
+
+	/**
+	 * The group of the elements whose records were put.
+	 *
+	 */
+	private static final Group RELEASED = new Group();
+
+
+
+	/**
+	 * The size of the sequence number a record starts with.
+	 *
+	 */
+	private static final int SEQUENCE_SIZE = 8;
+
+
+
+	private final ModelElement root;
+
+
+
+	/**
+	 * The groups of the created elements, by the elements. An element that is not referenced anymore drops out with its group.
+	 *
+	 */
+	private final Map<ModelElement, Group> groups = new WeakHashMap<ModelElement, Group>();
+
+
+
+	/**
+	 * The payload of the record being encoded.
+	 *
+	 */
+	private final RecordBuffer record = new RecordBuffer( 256 );
+}
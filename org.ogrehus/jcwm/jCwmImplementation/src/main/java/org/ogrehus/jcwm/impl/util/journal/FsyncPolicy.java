@@ -0,0 +1,50 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+
+/**
+ * Tells a ModelJournal when the journaled changes are forced to the disk, so they survive a crash of the operating system or a power loss.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>always</code> - A change is forced before its mutation returns. The thread that changed the model waits for the disk; changes of
+ * concurrent threads are forced together, but a single thread pays a force per change.</li>
+ * <li><code>interval</code> - The changes are forced a few times a second, the threads changing the model never wait. A crash loses the
+ * changes of the last interval at most.</li>
+ * <li><code>never</code> - The changes are written to the file, forcing them is left to the operating system. They survive a crash of the
+ * process, but not of the operating system.</li>
+ * </ul>
+ * <p>
+ * With each policy {@link ModelJournal#sync()}, a checkpoint and closing the journal force all changes journaled so far.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum FsyncPolicy {
+	  always
+	, interval
+	, never
+	;
+}
@@ -0,0 +1,463 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.ogrehus.jcwm.api.objectmodel.core.Expression;
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.Name;
+
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+
+
+/**
+ * A JournalRecord is a ModelChange as it is journaled: the elements are kept by their ids, the values by their classes and contents.
+ * <p>
+ * The payload of a record is its sequence number, the kind of the change and the id of the changed element, followed by
+ * </p>
+ * <ul>
+ * <li>for a <code>created</code> change: the class, the name and the Visibility of the element,</li>
+ * <li>otherwise: the name of the feature and the new value, or the unlinked element of an <code>unlinked</code> change.</li>
+ * </ul>
+ * <p>
+ * A value is a tag followed by its content. Strings, numbers, Booleans, enums, Names, Expressions and references to elements are kept; a value
+ * of another class is kept by its class only and can't be replayed.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class JournalRecord {
+
+
+	private JournalRecord( long sequence, ModelChangeKind kind, int element ) {
+		this.sequence = sequence;
+		this.kind     = kind;
+		this.element  = element;
+	}
+
+
+
+//====================================================================================================================================================
+// JournalRecord capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Encodes a change as the payload of a record.
+	 *
+	 * @return <code>false</code> if the changed element has no id, like a Name, so the change is not journaled.
+	 *
+	 */
+	static boolean encode( long sequence, ModelChange change, RecordBuffer out ) {
+		ModelElement element = change.getElement();
+		int id = ModelJsonWriter.getId( element );
+		if ( id == 0 ) {
+			return false;
+		}
+		out.putLong( sequence );
+		out.putByte( change.getKind().ordinal() );
+		out.putInt( id );
+		if ( change.getKind() == ModelChangeKind.created ) {
+			out.putString( element.getClass().getName() );
+			out.putString( element.getSimpleName() );
+			putValue( out, element.getVisibility() );
+		} else {
+			out.putString( change.getFeature() );
+			putValue( out, change.getKind() == ModelChangeKind.unlinked ? change.getOldValue() : change.getNewValue() );
+		}
+
+		return true;
+	}
+
+
+
+	/**
+	 * Decodes the payload of a record. The classes of enums and Expressions are loaded, a value of an unknown class is decoded as an
+	 * unsupported value.
+	 *
+	 */
+	static JournalRecord decode( ByteBuffer in ) {
+		long sequence = in.getLong();
+		ModelChangeKind kind = ModelChangeKind.values()[ in.get() ];
+		JournalRecord record = new JournalRecord( sequence, kind, in.getInt() );
+		if ( kind == ModelChangeKind.created ) {
+			record.type = getString( in );
+			record.name = getString( in );
+		} else {
+			record.feature = getString( in );
+		}
+		record.getValue( in );
+
+		return record;
+	}
+
+
+
+	long getSequence() {
+		return this.sequence;
+	}
+
+
+
+	ModelChangeKind getKind() {
+		return this.kind;
+	}
+
+
+
+	/**
+	 * @return The id of the changed element.
+	 *
+	 */
+	int getElement() {
+		return this.element;
+	}
+
+
+
+	/**
+	 * @return The class of a created element, <code>null</code> for other changes.
+	 *
+	 */
+	String getType() {
+		return this.type;
+	}
+
+
+
+	/**
+	 * @return The name of a created element, <code>null</code> for other changes.
+	 *
+	 */
+	String getName() {
+		return this.name;
+	}
+
+
+
+	/**
+	 * @return The name of the changed feature, <code>null</code> for a <code>created</code> change.
+	 *
+	 */
+	String getFeature() {
+		return this.feature;
+	}
+
+
+
+	/**
+	 * @return The value, the Visibility of a created element, <code>null</code> for a reference or an unsupported value.
+	 *
+	 */
+	Object getValue() {
+		return this.value;
+	}
+
+
+
+	/**
+	 * @return The id of the referenced element, <code>0</code> if the value is no reference.
+	 *
+	 */
+	int getReference() {
+		return this.reference;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the value was of a class the journal does not know, so the record can't be replayed.
+	 *
+	 */
+	boolean isUnsupported() {
+		return this.unsupported;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[JournalRecord" );
+		out.append( " | sequence=" + this.sequence );
+		out.append( " | kind=" + this.kind );
+		out.append( " | element=" + this.element );
+		if ( this.type != null ) {
+			out.append( " | type=" + this.type );
+			out.append( " | name=" + this.name );
+		} else {
+			out.append( " | feature=" + this.feature );
+		}
+		if ( this.reference != 0 ) {
+			out.append( " | reference=" + this.reference );
+		} else if ( this.unsupported ) {
+			out.append( " | value=unsupported" );
+		}
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// JournalRecord internals
+//====================================================================================================================================================
+
+
+
+	private static void putValue( RecordBuffer out, Object value ) {
+		if ( value == null ) {
+			out.putByte( NULL );
+		} else if ( value instanceof String ) {
+			out.putByte( STRING );
+			out.putString( (String) value );
+		} else if ( value instanceof Boolean ) {
+			out.putByte( BOOLEAN );
+			out.putByte( ( (Boolean) value ).booleanValue() ? 1 : 0 );
+		} else if ( value instanceof Integer ) {
+			out.putByte( INTEGER );
+			out.putInt( ( (Integer) value ).intValue() );
+		} else if ( value instanceof Short ) {
+			out.putByte( SHORT );
+			out.putInt( ( (Short) value ).intValue() );
+		} else if ( value instanceof Long ) {
+			out.putByte( LONG );
+			out.putLong( ( (Long) value ).longValue() );
+		} else if ( value instanceof Double ) {
+			out.putByte( DOUBLE );
+			out.putLong( Double.doubleToLongBits( ( (Double) value ).doubleValue() ) );
+		} else if ( value instanceof Enum<?> ) {
+			out.putByte( ENUM );
+			out.putString( ( (Enum<?>) value ).getDeclaringClass().getName() );
+			out.putString( ( (Enum<?>) value ).name() );
+		} else if ( value instanceof Name ) {
+			out.putByte( NAME ); // a value, though a ModelElement
+			out.putString( value.toString() );
+		} else if ( value instanceof ModelElement && ModelJsonWriter.getId( (ModelElement) value ) != 0 ) {
+			out.putByte( REFERENCE );
+			out.putInt( ModelJsonWriter.getId( (ModelElement) value ) );
+		} else if ( value instanceof Expression ) {
+			out.putByte( EXPRESSION );
+			out.putString( value.getClass().getName() );
+			out.putString( ( (Expression) value ).getBody() );
+			out.putString( ( (Expression) value ).getLanguage() );
+		} else {
+			out.putByte( UNSUPPORTED );
+			out.putString( value.getClass().getName() );
+		}
+	}
+
+
+
+	private void getValue( ByteBuffer in ) {
+		byte tag = in.get();
+		switch ( tag ) {
+			case NULL:
+				break;
+			case STRING:
+			case NAME:
+				this.value = getString( in );
+				break;
+			case BOOLEAN:
+				this.value = Boolean.valueOf( in.get() != 0 );
+				break;
+			case INTEGER:
+				this.value = Integer.valueOf( in.getInt() );
+				break;
+			case SHORT:
+				this.value = Short.valueOf( (short) in.getInt() );
+				break;
+			case LONG:
+				this.value = Long.valueOf( in.getLong() );
+				break;
+			case DOUBLE:
+				this.value = Double.valueOf( Double.longBitsToDouble( in.getLong() ) );
+				break;
+			case ENUM:
+				this.value = getEnum( getString( in ), getString( in ) );
+				this.unsupported = this.value == null;
+				break;
+			case REFERENCE:
+				this.reference = in.getInt();
+				break;
+			case EXPRESSION:
+				this.value = getExpression( getString( in ), getString( in ), getString( in ) );
+				this.unsupported = this.value == null;
+				break;
+			default:
+				getString( in ); // the class of the value
+				this.unsupported = true;
+		}
+	}
+
+
+
+	private static String getString( ByteBuffer in ) {
+		int length = in.getInt();
+		if ( length < 0 ) {
+			return null;
+		}
+		String value = new String( in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8 );
+		in.position( in.position() + length );
+
+		return value;
+	}
+
+
+
+	/**
+	 * @return The constant, <code>null</code> if its class or the constant is not known anymore.
+	 *
+	 */
+	@SuppressWarnings( { "unchecked", "rawtypes" } )
+	private static Object getEnum( String type, String constant ) {
+		try {
+			return Enum.valueOf( (Class<? extends Enum>) Class.forName( type ), constant );
+		} catch ( ClassNotFoundException e ) {
+			return null;
+		} catch ( IllegalArgumentException e ) {
+			return null;
+		}
+	}
+
+
+
+	/**
+	 * @return The Expression created by its constructor of the body, <code>null</code> if the class has none.
+	 *
+	 */
+	private static Object getExpression( String type, String body, String language ) {
+		try {
+			Expression expression = (Expression) Class.forName( type ).getConstructor( String.class ).newInstance( body );
+			if ( language != null ) {
+				expression.setLanguage( language );
+			}
+			return expression;
+		} catch ( ReflectiveOperationException e ) {
+			return null;
+		} catch ( RuntimeException e ) {
+			return null;
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final byte NULL        = 0;
+
+
+
+	private static final byte STRING      = 1;
+
+
+
+	private static final byte BOOLEAN     = 2;
+
+
+
+	private static final byte INTEGER     = 3;
+
+
+
+	private static final byte SHORT       = 4;
+
+
+
+	private static final byte LONG        = 5;
+
+
+
+	private static final byte DOUBLE      = 6;
+
+
+
+	private static final byte ENUM        = 7;
+
+
+
+	private static final byte NAME        = 8;
+
+
+
+	private static final byte REFERENCE   = 9;
+
+
+
+	private static final byte EXPRESSION  = 10;
+
+
+
+	private static final byte UNSUPPORTED = 11;
+
+
+
+	private final long sequence;
+
+
+
+	private final ModelChangeKind kind;
+
+
+
+	private final int element;
+
+
+
+	private String type = null;
+
+
+
+	private String name = null;
+
+
+
+	private String feature = null;
+
+
+
+	private Object value = null;
+
+
+
+	private int reference = 0;
+
+
+
+	private boolean unsupported = false;
+}
@@ -0,0 +1,574 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.json.ImportResult;
+
+
+/**
+ * A JournalReplay applies JournalRecords to a model loaded from a snapshot, in the order they were journaled.
+ * <p>
+ * A change is applied by the method of the changed element its feature is named after, the way the mutation points report their changes:
+ * </p>
+ * <ul>
+ * <li><code>propertyChanged</code> of <code>type</code> to a value by <code>setType( value )</code>, of <code>isNullable</code> by
+ * <code>setIsNullable</code> or <code>setNullable</code>, and to <code>null</code> by <code>removeType()</code> if there is one.</li>
+ * <li><code>linked</code> of <code>ownedElement</code> by <code>addOwnedElement( value )</code>.</li>
+ * <li><code>unlinked</code> of <code>ownedElement</code> by <code>removeOwnedElement( value )</code>.</li>
+ * </ul>
+ * <p>
+ * Both ends of a bidirectional reference report their changes, so each change is applied twice; the second time it changes nothing, like
+ * adding an owned element a second time.
+ * </p>
+ * <p>
+ * A created element is constructed when it is referenced first, by another record or its own record of another kind than
+ * <code>propertyChanged</code>. Till then the properties set by its constructor, when it was journaled, are collected: they are the arguments
+ * of its constructor, matched by their classes in the order they were set, like the type of a column. The name and Visibility are those of
+ * the created record, other parameters get neutral values like <code>false</code> or <code>null</code>. The collected properties are set
+ * once the element is constructed, so the values of parameters matched wrong are corrected.
+ * </p>
+ * <p>
+ * The ids of the records are the ids the elements had when they were journaled. An id of the snapshot is resolved by the ImportResult of the
+ * snapshot, an id of a created record is bound to the constructed element, also if the id was reused by the registry for a new element.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class JournalReplay {
+
+
+	JournalReplay( ImportResult snapshot ) {
+		this.snapshot = snapshot;
+	}
+
+
+
+//====================================================================================================================================================
+// JournalReplay capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Applies a record, counted as applied or skipped if it can't be applied, cause an element is unknown, the value is unsupported or the
+	 * element has no suitable method. The records of a created element are counted when it is constructed.
+	 *
+	 */
+	void apply( JournalRecord record ) {
+		Integer id = Integer.valueOf( record.getElement() );
+		if ( record.getKind() == ModelChangeKind.created ) {
+			if ( this.pending.containsKey( id ) ) {
+				construct( id ); // never referenced before its id was reused
+			}
+			this.pending.put( id, new Creation( record ) );
+			return;
+		}
+		if ( record.isUnsupported() ) {
+			this.skipped++;
+			return;
+		}
+
+		Object value = record.getValue();
+		if ( record.getReference() != 0 ) {
+			value = resolve( record.getReference() );
+			if ( value == null ) {
+				this.skipped++;
+				return;
+			}
+		}
+		if ( record.getKind() == ModelChangeKind.propertyChanged && this.pending.containsKey( id ) ) {
+			this.pending.get( id ).set( record.getFeature(), value );
+			return;
+		}
+
+		ModelElement element = resolve( record.getElement() );
+		boolean applied = false;
+		if ( element != null ) {
+			String stem = getStem( record.getFeature() );
+			if ( record.getKind() == ModelChangeKind.linked ) {
+				applied = invoke( element, "add" + stem, value );
+			} else if ( record.getKind() == ModelChangeKind.unlinked ) {
+				applied = invoke( element, "remove" + stem, value );
+			} else {
+				applied = set( element, stem, value );
+			}
+		}
+		if ( applied ) {
+			this.applied++;
+		} else {
+			this.skipped++;
+		}
+	}
+
+
+
+	/**
+	 * Constructs the created elements that were not referenced yet.
+	 *
+	 */
+	void finish() {
+		for ( Integer id : new ArrayList<Integer>( this.pending.keySet() ) ) {
+			construct( id );
+		}
+	}
+
+
+
+	/**
+	 * @return The element of a journaled id, <code>null</code> if it is neither in the snapshot nor was it created by a record.
+	 *
+	 */
+	ModelElement resolve( int id ) {
+		Integer key = Integer.valueOf( id );
+		if ( this.pending.containsKey( key ) ) {
+			construct( key );
+		}
+		if ( this.created.containsKey( key ) ) {
+			return this.created.get( key );
+		}
+
+		return this.snapshot.getElement( id );
+	}
+
+
+
+	long getApplied() {
+		return this.applied;
+	}
+
+
+
+	long getSkipped() {
+		return this.skipped;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[JournalReplay" );
+		out.append( " | root=" + this.snapshot.getRoot().getSimpleName() );
+		out.append( " | created=" + this.created.size() );
+		out.append( " | pending=" + this.pending.size() );
+		out.append( " | applied=" + this.applied );
+		out.append( " | skipped=" + this.skipped );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// JournalReplay internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Constructs a created element and sets its collected properties.
+	 *
+	 */
+	private void construct( Integer id ) {
+		Creation creation = this.pending.remove( id );
+		ModelElement element = construct( creation );
+		this.created.put( id, element ); // null hides the element the snapshot had under this id
+		if ( element == null ) {
+			this.skipped += 1 + creation.features.size();
+			return;
+		}
+		this.applied++;
+		for ( int i = 0; i < creation.features.size(); i++ ) {
+			if ( set( element, getStem( creation.features.get( i ) ), creation.values.get( i ) ) ) {
+				this.applied++;
+			} else {
+				this.skipped++;
+			}
+		}
+	}
+
+
+
+	/**
+	 * Sets a property by <code>setStem( value )</code>, <code>removeStem()</code> for <code>null</code> if there is one, or
+	 * <code>setNullable( value )</code> for the stem <code>IsNullable</code>.
+	 *
+	 */
+	private boolean set( ModelElement element, String stem, Object value ) {
+		if ( value == null && invoke( element, "remove" + stem, null ) ) {
+			return true;
+		} else if ( invoke( element, "set" + stem, value ) ) {
+			return true;
+		} else if ( stem.startsWith( "Is" ) && stem.length() > 2 ) {
+			return invoke( element, "set" + stem.substring( 2 ), value );
+		}
+
+		return false;
+	}
+
+
+
+	private static String getStem( String feature ) {
+		String stem = STEMS.get( feature );
+		if ( stem != null ) {
+			return stem;
+		}
+
+		return Character.toUpperCase( feature.charAt( 0 ) ) + feature.substring( 1 );
+	}
+
+
+
+	/**
+	 * Invokes the public method of an element by its name, with no parameter for a <code>null</code> value, otherwise with a single parameter
+	 * the value fits. Without such a method the generic mutation point of the name is invoked, like <code>addFeatureGeneric</code> for the
+	 * columns of a table.
+	 *
+	 * @return <code>false</code> if the element has no such method or the method failed.
+	 *
+	 */
+	private boolean invoke( ModelElement element, String name, Object value ) {
+		Method method = find( element.getClass(), name, value );
+		if ( method == null ) {
+			return false;
+		}
+		try {
+			if ( method.getParameterTypes().length == 0 ) {
+				method.invoke( element );
+			} else {
+				method.invoke( element, value );
+			}
+			return true;
+		} catch ( InvocationTargetException e ) {
+			return false; // refused by the element, like a compacted one
+		} catch ( IllegalAccessException e ) {
+			return false;
+		}
+	}
+
+
+
+	private Method find( Class<?> type, String name, Object value ) {
+		String key = type.getName() + '#' + name + '#' + ( value == null ? "" : value.getClass().getName() );
+		if ( this.methods.containsKey( key ) ) {
+			return this.methods.get( key );
+		}
+
+		Method found = null;
+		for ( Method method : type.getMethods() ) {
+			if ( !method.getName().equals( name ) || method.isBridge() ) {
+				continue;
+			}
+			Class<?>[] parameters = method.getParameterTypes();
+			if ( value == null ? parameters.length == 0 : parameters.length == 1 && box( parameters[ 0 ] ).isInstance( value ) ) {
+				found = method;
+				break;
+			}
+		}
+		if ( found == null && value == null && !name.startsWith( "remove" ) ) {
+			for ( Method method : type.getMethods() ) {
+				if ( method.getName().equals( name ) && method.getParameterTypes().length == 1 && !method.getParameterTypes()[ 0 ].isPrimitive() ) {
+					found = method; // set to null
+					break;
+				}
+			}
+		}
+		for ( Class<?> declaring = type; found == null && declaring != null && value != null; declaring = declaring.getSuperclass() ) {
+			for ( Method method : declaring.getDeclaredMethods() ) {
+				Class<?>[] parameters = method.getParameterTypes();
+				if (   method.getName().equals( name + "Generic" ) && !method.isBridge()
+					&& parameters.length == 1 && box( parameters[ 0 ] ).isInstance( value )
+				) {
+					method.setAccessible( true ); // the mutation point of a feature named otherwise, like addFeatureGeneric of addColumn
+					found = method;
+					break;
+				}
+			}
+		}
+		this.methods.put( key, found );
+
+		return found;
+	}
+
+
+
+	/**
+	 * Constructs an element by the constructor with the fewest parameters that accepts the arguments of a creation.
+	 *
+	 * @return The constructed element, <code>null</code> if its class is unknown or has no such constructor.
+	 *
+	 */
+	private ModelElement construct( Creation creation ) {
+		for ( Constructor<?> constructor : getConstructors( creation.type ) ) {
+			for ( int attempt = 0; attempt < 2; attempt++ ) {
+				try {
+					return (ModelElement) constructor.newInstance( getArguments( constructor, creation, attempt > 0 ) );
+				} catch ( InvocationTargetException e ) {
+					continue; // refused, like a null value
+				} catch ( ReflectiveOperationException e ) {
+					break;
+				} catch ( IllegalArgumentException e ) {
+					break;
+				}
+			}
+		}
+
+		return null;
+	}
+
+
+
+	/**
+	 * @return The arguments of a constructor: the name for the first String, the Visibility, the collected values of the creation by their
+	 * classes, and neutral values for the other parameters.
+	 *
+	 */
+	private static Object[] getArguments( Constructor<?> constructor, Creation creation, boolean nonNull ) {
+		Class<?>[] parameters = constructor.getParameterTypes();
+		Object[] arguments = new Object[ parameters.length ];
+		boolean[] used = new boolean[ creation.values.size() ];
+		boolean named = false;
+		for ( int i = 0; i < parameters.length; i++ ) {
+			if ( parameters[ i ] == String.class && !named ) {
+				arguments[ i ] = creation.name;
+				named = true;
+				continue;
+			} else if ( parameters[ i ] == Visibility.class && creation.visibility instanceof Visibility ) {
+				arguments[ i ] = creation.visibility;
+				continue;
+			}
+			arguments[ i ] = getNeutral( parameters[ i ], nonNull );
+			for ( int v = 0; v < used.length; v++ ) {
+				Object value = creation.values.get( v );
+				if ( !used[ v ] && value != null && box( parameters[ i ] ).isInstance( value ) ) {
+					arguments[ i ] = value;
+					used[ v ] = true;
+					break;
+				}
+			}
+		}
+
+		return arguments;
+	}
+
+
+
+	private List<Constructor<?>> getConstructors( String type ) {
+		List<Constructor<?>> constructors = this.constructors.get( type );
+		if ( constructors != null ) {
+			return constructors;
+		}
+
+		constructors = new ArrayList<Constructor<?>>();
+		try {
+			Class<?> loaded = Class.forName( type );
+			if ( ModelElement.class.isAssignableFrom( loaded ) && !Modifier.isAbstract( loaded.getModifiers() ) ) {
+				for ( Constructor<?> constructor : loaded.getDeclaredConstructors() ) {
+					constructor.setAccessible( true ); // like the protected constructors of columns, used by their tables
+					constructors.add( constructor );
+				}
+				Collections.sort( constructors, new Comparator<Constructor<?>>() {
+					public int compare( Constructor<?> one, Constructor<?> other ) {
+						return one.getParameterTypes().length - other.getParameterTypes().length;
+					}
+				} );
+			}
+		} catch ( ClassNotFoundException e ) {
+			// replayed by another version, the records of the element are skipped
+		} catch ( RuntimeException e ) {
+			constructors.clear(); // not accessible
+		}
+		this.constructors.put( type, constructors );
+
+		return constructors;
+	}
+
+
+
+	/**
+	 * @return A neutral value of a parameter: <code>false</code>, <code>0</code>, the first constant of an enum, and for other classes
+	 * <code>null</code>, or an empty String if it is not the first attempt.
+	 *
+	 */
+	private static Object getNeutral( Class<?> type, boolean nonNull ) {
+		Class<?> boxed = box( type );
+		if ( boxed == Boolean.class ) {
+			return Boolean.FALSE;
+		} else if ( boxed == Integer.class ) {
+			return Integer.valueOf( 0 );
+		} else if ( boxed == Short.class ) {
+			return Short.valueOf( (short) 0 );
+		} else if ( boxed == Long.class ) {
+			return Long.valueOf( 0 );
+		} else if ( boxed == Double.class ) {
+			return Double.valueOf( 0 );
+		} else if ( type.isEnum() && type.getEnumConstants().length > 0 ) {
+			return type.getEnumConstants()[ 0 ];
+		} else if ( type == String.class && nonNull ) {
+			return "";
+		}
+
+		return null;
+	}
+
+
+
+	private static Class<?> box( Class<?> type ) {
+		if ( !type.isPrimitive() ) {
+			return type;
+		} else if ( type == boolean.class ) {
+			return Boolean.class;
+		} else if ( type == int.class ) {
+			return Integer.class;
+		} else if ( type == short.class ) {
+			return Short.class;
+		} else if ( type == long.class ) {
+			return Long.class;
+		} else if ( type == double.class ) {
+			return Double.class;
+		}
+
+		return type;
+	}
+
+
+
+	/**
+	 * A created element not constructed yet: its class, name and Visibility, and the properties set since it was created.
+	 *
+	 */
+	private static final class Creation {
+
+
+		Creation( JournalRecord record ) {
+			this.type       = record.getType();
+			this.name       = record.getName();
+			this.visibility = record.getValue();
+		}
+
+
+
+		void set( String feature, Object value ) {
+			this.features.add( feature );
+			this.values.add( value );
+		}
+
+
+
+		final String type;
+
+
+
+		final String name;
+
+
+
+		final Object visibility;
+
+
+
+		final List<String> features = new ArrayList<String>();
+
+
+
+		final List<Object> values = new ArrayList<Object>();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The stems of the methods of features not named like their methods.
+	 *
+	 */
+	private static final Map<String, String> STEMS = new HashMap<String, String>();
+	static {
+		STEMS.put( "clientDependency", "Dependency" );
+	}
+
+
+
+	private final ImportResult snapshot;
+
+
+
+	/**
+	 * The created elements not constructed yet, by their journaled ids.
+	 *
+	 */
+	private final Map<Integer, Creation> pending = new HashMap<Integer, Creation>();
+
+
+
+	/**
+	 * The constructed elements by their journaled ids, <code>null</code> if an element could not be constructed.
+	 *
+	 */
+	private final Map<Integer, ModelElement> created = new HashMap<Integer, ModelElement>();
+
+
+
+	/**
+	 * The found methods by class, name and class of the value; <code>null</code> if there is none.
+	 *
+	 */
+	private final Map<String, Method> methods = new HashMap<String, Method>();
+
+
+
+	private final Map<String, List<Constructor<?>>> constructors = new HashMap<String, List<Constructor<?>>>();
+
+
+
+	private long applied = 0;
+
+
+
+	private long skipped = 0;
+}
@@ -0,0 +1,1016 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+import org.ogrehus.jcwm.impl.util.json.ImportResult;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonExporter;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonImporter;
+
+
+/**
+ * A ModelJournal makes the changes of a model survive a crash: it appends every ModelChange to a journal on the disk, and recovers the model
+ * from its last snapshot and the changes journaled behind it.
+ * <p>
+ * The journal is a directory of files:
+ * </p>
+ * <ul>
+ * <li><code>snapshot-&lt;sequence&gt;.json</code> - The model as written by a {@link ModelJsonExporter} at a checkpoint, containing the changes
+ * up to the sequence number.</li>
+ * <li><code>journal-&lt;sequence&gt;.log</code> - A segment of records, starting with the change of the sequence number. Each record is a
+ * change as reported by a mutation point of the model: a created element, a set property, a linked or unlinked element, see
+ * {@link JournalRecord}. An element is deleted by unlinking it from its owner.</li>
+ * </ul>
+ * <p>
+ * The changes are encoded by the threads changing the model and written by a thread of the journal: while it writes and forces a batch of
+ * records, the next batch is collected, so concurrent changes share a single write and force of the FileChannel. When the changes are forced
+ * is told by the FsyncPolicy. Each record carries its length and checksum, so a record torn by a crash is detected and discarded on recovery.
+ * </p>
+ * <p>
+ * A checkpoint writes a snapshot of the model and starts a new segment; the segments and snapshots before it are deleted. So recovering
+ * costs loading the snapshot and replaying the changes since the last checkpoint, whatever the age of the model. {@link #isCheckpointDue()}
+ * tells when the segments since the last checkpoint exceed their limit; the model must not be changed during a checkpoint, so it is up to the
+ * application to check and take it where the model rests.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * ModelJournal journal = new ModelJournal( directory, FsyncPolicy.interval, 64 * 1024 * 1024 );
+ * Catalog catalog = (Catalog) journal.recover().getRoot();
+ * if ( catalog == null ) {
+ *     catalog = factory.createCatalog( "DWH", "UTF8", "UTF8_BIN" );
+ * }
+ * journal.open( catalog );
+ * ...                                // change the model, each change is journaled
+ * if ( journal.isCheckpointDue() ) {
+ *     journal.checkpoint();
+ * }
+ * ...
+ * journal.close();
+ * </pre>
+ * <p>
+ * The root must be a Catalog or a Schema, the model is recovered as far as a ModelJsonImporter imports it. The journal records the changes of
+ * the elements below the root, and of the elements created for the model once they are linked below it; the changes of other models of the
+ * process are dropped. The elements recovered get new ids, so {@link #open(ModelElement)} starts with a checkpoint of the recovered model.
+ * </p>
+ * <p>
+ * A ModelJournal is thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelJournal
+implements
+	  ModelChangeListener
+	, AutoCloseable
+{
+
+
+	/**
+	 * Creates a new instance of ModelJournal that forces the changes by the policy <code>interval</code> and is due to a checkpoint after 64MB
+	 * of changes.
+	 *
+	 * @param directory The directory of the journal, created if it does not exist. Must not be <code>null</code>.
+	 *
+	 * @throws IOException If the directory can't be created.
+	 *
+	 */
+	public ModelJournal( Path directory ) throws IOException {
+		this( directory, FsyncPolicy.interval, DEFAULT_CHECKPOINT_BYTES );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelJournal by specific parameters.
+	 *
+	 * @param directory The directory of the journal, created if it does not exist. Must not be <code>null</code>.
+	 *
+	 * @param policy Tells when the changes are forced to the disk. Must not be <code>null</code>.
+	 *
+	 * @param checkpointBytes The size of the changes since the last checkpoint, a checkpoint is due beyond. Must be positive.
+	 *
+	 * @throws IOException If the directory can't be created.
+	 *
+	 */
+	public ModelJournal( Path directory, FsyncPolicy policy, long checkpointBytes ) throws IOException {
+		if ( directory == null ) {
+			throw new NullPointerException( "Parameter: directory must not be null." );
+		}
+		if ( policy == null ) {
+			throw new NullPointerException( "Parameter: policy must not be null." );
+		}
+		if ( checkpointBytes < 1 ) {
+			throw new IllegalArgumentException( "The parameter: checkpointBytes must be positive, but is: " + checkpointBytes );
+		}
+		Files.createDirectories( directory );
+		this.directory       = directory;
+		this.policy          = policy;
+		this.checkpointBytes = checkpointBytes;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJournal capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Recovers the model: loads the last snapshot and replays the changes journaled behind it. Must be called before the journal is opened, if
+	 * the directory holds a journal.
+	 *
+	 * @return The recovered root, <code>null</code> as root if the journal has no snapshot yet. Can't be <code>null</code>.
+	 *
+	 * @throws IOException If a file of the journal can't be read, or is no file of a journal.
+	 *
+	 * @throws IllegalStateException If the journal was opened already.
+	 *
+	 */
+	public synchronized RecoveryResult recover() throws IOException {
+		if ( this.writer != null || this.closed ) {
+			throw new IllegalStateException( "The journal: " + this.directory + " was opened already." );
+		}
+		Path snapshot = getLatestSnapshot();
+		if ( snapshot == null ) {
+			this.recovered = true;
+			return new RecoveryResult( null, 0, 0, 0, 0, 0 );
+		}
+
+		long snapshotSequence = getSequence( snapshot );
+		ImportResult imported;
+		try ( Reader in = Files.newBufferedReader( snapshot, StandardCharsets.UTF_8 ) ) {
+			imported = new ModelJsonImporter().read( in );
+		}
+		JournalReplay replay = new JournalReplay( imported );
+		long sequence  = snapshotSequence;
+		long discarded = 0;
+		boolean torn = false;
+		for ( Path segment : getSegments() ) {
+			long size = Files.size( segment );
+			if ( torn ) {
+				discarded += size; // behind a torn record, never forced
+				continue;
+			}
+			try ( DataInputStream in = new DataInputStream( new BufferedInputStream( Files.newInputStream( segment ), BUFFER_SIZE ) ) ) {
+				readHeader( in, segment );
+				long position = HEADER_SIZE;
+				while ( position < size ) {
+					byte[] payload = readRecord( in, size - position );
+					if ( payload == null ) {
+						torn = true;
+						discarded += size - position;
+						break;
+					}
+					position += RECORD_HEADER_SIZE + payload.length;
+					JournalRecord record = JournalRecord.decode( ByteBuffer.wrap( payload ) );
+					if ( record.getSequence() <= sequence ) {
+						continue; // contained by the snapshot
+					}
+					sequence = record.getSequence();
+					replay.apply( record );
+				}
+			}
+		}
+		replay.finish();
+		this.sequence  = sequence;
+		this.durable   = sequence;
+		this.recovered = true;
+
+		return new RecoveryResult( imported.getRoot(), snapshotSequence, sequence, replay.getApplied(), replay.getSkipped(), discarded );
+	}
+
+
+
+	/**
+	 * Starts journaling the changes of a model: takes a checkpoint of the model and registers the journal for its changes.
+	 *
+	 * @param root The root of the journaled model, a Catalog or a Schema, like the root of a {@link #recover()}. Must not be <code>null</code>.
+	 *
+	 * @throws IOException If the checkpoint can't be written.
+	 *
+	 * @throws IllegalStateException If the journal was opened already, or it holds a journal that was not recovered.
+	 *
+	 */
+	public synchronized void open( ModelElement root ) throws IOException {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		if ( !( root instanceof Catalog ) && !( root instanceof Schema ) ) {
+			throw new IllegalArgumentException( "The root of a journal must be a Catalog or a Schema, but is: " + root.getClass().getName() );
+		}
+		if ( this.writer != null || this.closed ) {
+			throw new IllegalStateException( "The journal: " + this.directory + " was opened already." );
+		}
+		if ( !this.recovered && getLatestSnapshot() != null ) {
+			throw new IllegalStateException( "The journal: " + this.directory + " must be recovered before it is opened." );
+		}
+		this.root    = root;
+		this.scope   = new ChangeScope( root );
+		this.channel = openSegment( this.sequence + 1 );
+		this.writer  = new Thread( new Runnable() {
+			public void run() {
+				write();
+			}
+		}, "jcwm-journal" );
+		this.writer.setDaemon( true );
+		this.writer.start();
+		try {
+			writeSnapshot( this.sequence );
+		} catch ( IOException e ) {
+			close();
+			throw e;
+		}
+		ModelChangeSupport.addListener( this );
+	}
+
+
+
+	/**
+	 * Waits until all changes journaled so far are forced to the disk, whatever the FsyncPolicy.
+	 *
+	 * @throws IOException If the journal failed to write or force the changes.
+	 *
+	 */
+	public void sync() throws IOException {
+		this.lock.lock();
+		try {
+			checkOpen();
+			long target = this.sequence;
+			if ( this.durable < target ) {
+				this.forceRequested = true;
+				this.appended.signal();
+				await( target );
+			}
+			if ( this.failure != null ) {
+				throw new IOException( "The journal: " + this.directory + " failed.", this.failure );
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the changes since the last checkpoint exceed the size the journal was created with.
+	 *
+	 */
+	public boolean isCheckpointDue() {
+		this.lock.lock();
+		try {
+			return this.size >= this.checkpointBytes;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * Takes a checkpoint: starts a new segment, writes a snapshot of the model, and deletes the segments and snapshots before. The model must not
+	 * be changed during a checkpoint.
+	 *
+	 * @throws IOException If the segment or the snapshot can't be written.
+	 *
+	 */
+	public synchronized void checkpoint() throws IOException {
+		long covered;
+		this.lock.lock();
+		try {
+			checkOpen();
+			this.rotation = true;
+			this.appended.signal();
+			while ( this.rotation && this.failure == null ) {
+				this.flushed.awaitUninterruptibly();
+			}
+			if ( this.failure != null ) {
+				throw new IOException( "The journal: " + this.directory + " failed.", this.failure );
+			}
+			covered = this.rotated;
+			this.size = 0;
+		} finally {
+			this.lock.unlock();
+		}
+		writeSnapshot( covered );
+	}
+
+
+
+	/**
+	 * Stops journaling: cancels the registration for changes of the model, and forces and closes the current segment.
+	 *
+	 * @throws IOException If the journal failed to write or force the changes.
+	 *
+	 */
+	public synchronized void close() throws IOException {
+		if ( this.closed ) {
+			return;
+		}
+		this.closed = true;
+		if ( this.writer == null ) {
+			return;
+		}
+		ModelChangeSupport.removeListener( this );
+		this.lock.lock();
+		try {
+			this.closing = true;
+			this.appended.signal();
+		} finally {
+			this.lock.unlock();
+		}
+		boolean interrupted = false;
+		while ( this.writer.isAlive() ) {
+			try {
+				this.writer.join();
+			} catch ( InterruptedException e ) {
+				interrupted = true;
+			}
+		}
+		if ( interrupted ) {
+			Thread.currentThread().interrupt();
+		}
+		if ( this.failure != null ) {
+			throw new IOException( "The journal: " + this.directory + " failed.", this.failure );
+		}
+	}
+
+
+
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+
+
+	public FsyncPolicy getPolicy() {
+		return this.policy;
+	}
+
+
+
+	public long getCheckpointBytes() {
+		return this.checkpointBytes;
+	}
+
+
+
+	/**
+	 * @return The root of the journaled model, <code>null</code> if the journal was not opened yet.
+	 *
+	 */
+	public synchronized ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	/**
+	 * @return The sequence number of the last journaled change.
+	 *
+	 */
+	public long getSequence() {
+		this.lock.lock();
+		try {
+			return this.sequence;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The sequence number of the last change forced to the disk.
+	 *
+	 */
+	public long getDurableSequence() {
+		this.lock.lock();
+		try {
+			return this.durable;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The size in bytes of the changes since the last checkpoint.
+	 *
+	 */
+	public long getSize() {
+		this.lock.lock();
+		try {
+			return this.size;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Journals a change, if it belongs to the model below the root. Under the policy <code>always</code> the calling thread waits until the
+	 * change is forced.
+	 *
+	 * @throws IllegalStateException If the journal failed, so the change is made, but not journaled.
+	 *
+	 */
+	public void modelChanged( ModelChange change ) {
+		this.lock.lock();
+		try {
+			if ( this.failure != null ) {
+				throw new IllegalStateException( "The journal: " + this.directory + " failed, the change is not journaled: " + change, this.failure );
+			}
+			if ( this.closing ) {
+				return;
+			}
+			int before = this.pending.size();
+			long sequence = this.scope.put( this.sequence, change, this.pending );
+			if ( sequence == this.sequence ) {
+				return; // held back or not of the model
+			}
+			this.sequence = sequence;
+			this.size += this.pending.size() - before;
+			this.appended.signal();
+			if ( this.policy == FsyncPolicy.always ) {
+				await( sequence );
+				if ( this.failure != null ) {
+					throw new IllegalStateException( "The journal: " + this.directory + " failed, the change is not durable: " + change, this.failure );
+				}
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ModelJournal" );
+		out.append( " | directory=" + this.directory );
+		out.append( " | policy=" + this.policy );
+		out.append( " | sequence=" + getSequence() );
+		out.append( " | durable=" + getDurableSequence() );
+		out.append( " | size=" + getSize() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJournal internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The loop of the writing thread: takes the collected records, writes them, forces them as the policy tells, and starts a new segment or
+	 * stops if requested.
+	 *
+	 */
+	private void write() {
+		RecordBuffer writing = new RecordBuffer( BUFFER_SIZE );
+		long forced = System.nanoTime();
+		boolean unforced = false;
+		while ( true ) {
+			long target;
+			boolean rotation;
+			boolean closing;
+			boolean force;
+			this.lock.lock();
+			try {
+				while ( this.pending.size() == 0 && !this.forceRequested && !this.rotation && !this.closing ) {
+					if ( unforced && this.policy == FsyncPolicy.interval ) {
+						long remaining = forced + INTERVAL - System.nanoTime();
+						if ( remaining <= 0 ) {
+							break;
+						}
+						try {
+							this.appended.awaitNanos( remaining );
+						} catch ( InterruptedException e ) {
+							// the journal thread is stopped by close only
+						}
+					} else {
+						this.appended.awaitUninterruptibly();
+					}
+				}
+				RecordBuffer collected = this.pending;
+				this.pending = writing;
+				writing = collected;
+				target   = this.sequence;
+				rotation = this.rotation;
+				closing  = this.closing;
+				force    = this.forceRequested || rotation || closing || this.policy == FsyncPolicy.always;
+				this.forceRequested = false;
+			} finally {
+				this.lock.unlock();
+			}
+
+			try {
+				if ( writing.size() > 0 ) {
+					writing.writeTo( this.channel );
+					writing.clear();
+					unforced = true;
+				}
+				if ( unforced && ( force || this.policy == FsyncPolicy.interval && System.nanoTime() - forced >= INTERVAL ) ) {
+					this.channel.force( false );
+					forced = System.nanoTime();
+					unforced = false;
+				}
+				if ( rotation ) {
+					this.channel.close();
+					this.channel = openSegment( target + 1 ); // starts behind the written records
+				}
+				if ( closing ) {
+					this.channel.close();
+				}
+			} catch ( IOException e ) {
+				this.lock.lock();
+				try {
+					this.failure = e;
+					this.flushed.signalAll();
+				} finally {
+					this.lock.unlock();
+				}
+				return;
+			}
+
+			this.lock.lock();
+			try {
+				if ( !unforced ) {
+					this.durable = target;
+				}
+				if ( rotation ) {
+					this.rotated  = target;
+					this.rotation = false;
+				}
+				this.flushed.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+			if ( closing ) {
+				return;
+			}
+		}
+	}
+
+
+
+	/**
+	 * Waits until a change is forced or the journal failed. The lock must be held.
+	 *
+	 */
+	private void await( long sequence ) {
+		while ( this.durable < sequence && this.failure == null ) {
+			this.flushed.awaitUninterruptibly();
+		}
+	}
+
+
+
+	/**
+	 * The lock must be held.
+	 *
+	 */
+	private void checkOpen() {
+		if ( this.writer == null || this.closing ) {
+			throw new IllegalStateException( "The journal: " + this.directory + " is not open." );
+		}
+	}
+
+
+
+	/**
+	 * Creates a segment, replacing a segment of the same first sequence number left behind by a crash.
+	 *
+	 */
+	private FileChannel openSegment( long first ) throws IOException {
+		Path segment = this.directory.resolve( getName( SEGMENT, first ) );
+		FileChannel created = FileChannel.open(
+			segment, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+		);
+		ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+		header.putInt( MAGIC ).putInt( VERSION ).putLong( first ).flip();
+		while ( header.hasRemaining() ) {
+			created.write( header );
+		}
+		created.force( true );
+		forceDirectory();
+
+		return created;
+	}
+
+
+
+	/**
+	 * Writes a snapshot of the model, and deletes the segments and snapshots it makes obsolete. The snapshot is written to a temporary file
+	 * and renamed, so a crash leaves either the former or the new snapshot.
+	 *
+	 */
+	private void writeSnapshot( long covered ) throws IOException {
+		Path snapshot = this.directory.resolve( getName( SNAPSHOT, covered ) );
+		Path temporary = this.directory.resolve( snapshot.getFileName() + ".tmp" );
+		try ( Writer out = Files.newBufferedWriter( temporary, StandardCharsets.UTF_8 ) ) {
+			new ModelJsonExporter().export( this.root, out );
+		}
+		try ( FileChannel written = FileChannel.open( temporary, StandardOpenOption.WRITE ) ) {
+			written.force( true );
+		}
+		Files.move( temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+		forceDirectory();
+
+		for ( Path segment : getSegments() ) {
+			if ( getSequence( segment ) <= covered ) {
+				Files.deleteIfExists( segment );
+			}
+		}
+		for ( Path older : list( SNAPSHOT + "*" ) ) {
+			if ( !older.equals( snapshot ) ) {
+				Files.deleteIfExists( older ); // older, or a temporary file left behind by a crash
+			}
+		}
+	}
+
+
+
+	/**
+	 * Forces the entries of the directory, so created and renamed files survive a crash.
+	 *
+	 */
+	private void forceDirectory() {
+		try ( FileChannel entries = FileChannel.open( this.directory, StandardOpenOption.READ ) ) {
+			entries.force( true );
+		} catch ( IOException e ) {
+			// directories can't be forced on every platform
+		}
+	}
+
+
+
+	/**
+	 * @return The snapshot with the highest sequence number, <code>null</code> if there is none.
+	 *
+	 */
+	private Path getLatestSnapshot() throws IOException {
+		List<Path> snapshots = list( SNAPSHOT + "*" + SNAPSHOT_SUFFIX );
+
+		return snapshots.isEmpty() ? null : snapshots.get( snapshots.size() - 1 );
+	}
+
+
+
+	/**
+	 * @return The segments, ordered by their first sequence numbers.
+	 *
+	 */
+	private List<Path> getSegments() throws IOException {
+		return list( SEGMENT + "*" + SEGMENT_SUFFIX );
+	}
+
+
+
+	/**
+	 * @return The files of the journal matching a glob, ordered by name, so by their sequence numbers.
+	 *
+	 */
+	private List<Path> list( String glob ) throws IOException {
+		List<Path> files = new ArrayList<Path>();
+		try ( DirectoryStream<Path> entries = Files.newDirectoryStream( this.directory, glob ) ) {
+			for ( Path entry : entries ) {
+				files.add( entry );
+			}
+		}
+		Collections.sort( files );
+
+		return files;
+	}
+
+
+
+	private static String getName( String prefix, long sequence ) {
+		return prefix + String.format( "%020d", Long.valueOf( sequence ) ) + ( SNAPSHOT.equals( prefix ) ? SNAPSHOT_SUFFIX : SEGMENT_SUFFIX );
+	}
+
+
+
+	/**
+	 * @return The sequence number in the name of a snapshot or segment.
+	 *
+	 */
+	private static long getSequence( Path file ) throws IOException {
+		String name = file.getFileName().toString();
+		int start = name.indexOf( '-' ) + 1;
+		try {
+			return Long.parseLong( name.substring( start, start + 20 ) );
+		} catch ( RuntimeException e ) {
+			throw new IOException( "The file: " + file + " is no file of a journal." );
+		}
+	}
+
+
+
+	private static void readHeader( DataInputStream in, Path segment ) throws IOException {
+		try {
+			if ( in.readInt() != MAGIC ) {
+				throw new IOException( "The file: " + segment + " is no segment of a journal." );
+			}
+			int version = in.readInt();
+			if ( version != VERSION ) {
+				throw new IOException( "The segment: " + segment + " has the unsupported version: " + version );
+			}
+			in.readLong(); // the first sequence number, as in the name
+		} catch ( EOFException e ) {
+			throw new IOException( "The file: " + segment + " is no segment of a journal." );
+		}
+	}
+
+
+
+	/**
+	 * @return The payload of the next record, <code>null</code> if the record is torn: incomplete or not matching its checksum.
+	 *
+	 */
+	private static byte[] readRecord( DataInputStream in, long remaining ) throws IOException {
+		if ( remaining < RECORD_HEADER_SIZE ) {
+			return null;
+		}
+		int length = in.readInt();
+		int checksum = in.readInt();
+		if ( length < 0 || length > remaining - RECORD_HEADER_SIZE ) {
+			return null;
+		}
+		byte[] payload = new byte[ length ];
+		readFully( in, payload );
+		CRC32C crc = new CRC32C();
+		crc.update( payload, 0, length );
+
+		return (int) crc.getValue() == checksum ? payload : null;
+	}
+
+
+
+	private static void readFully( InputStream in, byte[] bytes ) throws IOException {
+		int read = 0;
+		while ( read < bytes.length ) {
+			int count = in.read( bytes, read, bytes.length - read );
+			if ( count < 0 ) {
+				throw new EOFException();
+			}
+			read += count;
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final long DEFAULT_CHECKPOINT_BYTES = 64L * 1024 * 1024;
+
+
+
+	/**
+	 * The interval of forcing under the policy <code>interval</code>, in nanoseconds.
+	 *
+	 */
+	private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos( 100 );
+
+
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+
+
+	/**
+	 * "JCJL", the first bytes of a segment.
+	 *
+	 */
+	private static final int MAGIC = 0x4A434A4C;
+
+
+
+	private static final int VERSION = 1;
+
+
+
+	/**
+	 * The magic number, the version and the first sequence number of a segment.
+	 *
+	 */
+	private static final int HEADER_SIZE = 16;
+
+
+
+	/**
+	 * The length and the checksum of a record.
+	 *
+	 */
+	private static final int RECORD_HEADER_SIZE = 8;
+
+
+
+	private static final String SNAPSHOT = "snapshot-";
+
+
+
+	private static final String SNAPSHOT_SUFFIX = ".json";
+
+
+
+	private static final String SEGMENT = "journal-";
+
+
+
+	private static final String SEGMENT_SUFFIX = ".log";
+
+
+
+	private final Path directory;
+
+
+
+	private final FsyncPolicy policy;
+
+
+
+	private final long checkpointBytes;
+
+
+
+	private ModelElement root = null;
+
+
+
+	private boolean recovered = false;
+
+
+
+	private boolean closed = false;
+
+
+
+	/**
+	 * The thread writing the records, <code>null</code> until the journal is opened.
+	 *
+	 */
+	private Thread writer = null;
+
+
+
+	/**
+	 * The current segment, used by the writing thread only once the journal is opened.
+	 *
+	 */
+	private FileChannel channel = null;
+
+
+
+	/**
+	 * Guards the following fields, shared by the threads changing the model and the writing thread.
+	 *
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+
+
+	/**
+	 * Signals the writing thread a new record or request.
+	 *
+	 */
+	private final Condition appended = this.lock.newCondition();
+
+
+
+	/**
+	 * Signals the waiting threads a written batch, a new segment or a failure.
+	 *
+	 */
+	private final Condition flushed = this.lock.newCondition();
+
+
+
+	/**
+	 * Selects the changes of the model below the root.
+	 *
+	 */
+	private ChangeScope scope = null;
+
+
+
+	/**
+	 * The records collected while the writing thread writes the former batch.
+	 *
+	 */
+	private RecordBuffer pending = new RecordBuffer( BUFFER_SIZE );
+
+
+
+	private long sequence = 0;
+
+
+
+	private long durable = 0;
+
+
+
+	private long size = 0;
+
+
+
+	private boolean forceRequested = false;
+
+
+
+	/**
+	 * Requests a new segment from the writing thread.
+	 *
+	 */
+	private boolean rotation = false;
+
+
+
+	/**
+	 * The sequence number of the last record before the last new segment.
+	 *
+	 */
+	private long rotated = 0;
+
+
+
+	private boolean closing = false;
+
+
+
+	private IOException failure = null;
+}
@@ -0,0 +1,216 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+
+/**
+ * A growable array of bytes the records of a ModelJournal are encoded into, big endian like a ByteBuffer.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class RecordBuffer {
+
+
+	RecordBuffer( int capacity ) {
+		this.bytes = new byte[ capacity ];
+	}
+
+
+
+//====================================================================================================================================================
+// RecordBuffer capabilities
+//====================================================================================================================================================
+
+
+
+	void putByte( int value ) {
+		ensure( 1 );
+		this.bytes[ this.size++ ] = (byte) value;
+	}
+
+
+
+	void putInt( int value ) {
+		ensure( 4 );
+		this.bytes[ this.size++ ] = (byte) ( value >>> 24 );
+		this.bytes[ this.size++ ] = (byte) ( value >>> 16 );
+		this.bytes[ this.size++ ] = (byte) ( value >>> 8 );
+		this.bytes[ this.size++ ] = (byte) value;
+	}
+
+
+
+	void putLong( long value ) {
+		putInt( (int) ( value >>> 32 ) );
+		putInt( (int) value );
+	}
+
+
+
+	/**
+	 * Puts a String as its length in bytes followed by its UTF-8 bytes, <code>-1</code> for <code>null</code>.
+	 *
+	 */
+	void putString( String value ) {
+		if ( value == null ) {
+			putInt( -1 );
+			return;
+		}
+		byte[] encoded = value.getBytes( StandardCharsets.UTF_8 );
+		putInt( encoded.length );
+		ensure( encoded.length );
+		System.arraycopy( encoded, 0, this.bytes, this.size, encoded.length );
+		this.size += encoded.length;
+	}
+
+
+
+	/**
+	 * Puts a range of bytes as they are.
+	 *
+	 */
+	void putBytes( byte[] bytes, int offset, int length ) {
+		ensure( length );
+		System.arraycopy( bytes, offset, this.bytes, this.size, length );
+		this.size += length;
+	}
+
+
+
+	/**
+	 * Puts a record: the length of its payload, the CRC32C of its payload and the payload, so a torn record at the end of a file is detected.
+	 *
+	 */
+	void putRecord( RecordBuffer payload ) {
+		CRC32C crc = new CRC32C();
+		crc.update( payload.bytes, 0, payload.size );
+		putInt( payload.size );
+		putInt( (int) crc.getValue() );
+		ensure( payload.size );
+		System.arraycopy( payload.bytes, 0, this.bytes, this.size, payload.size );
+		this.size += payload.size;
+	}
+
+
+
+	/**
+	 * Writes all bytes to a channel at its current position.
+	 *
+	 */
+	void writeTo( FileChannel channel ) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap( this.bytes, 0, this.size );
+		while ( buffer.hasRemaining() ) {
+			channel.write( buffer );
+		}
+	}
+
+
+
+	/**
+	 * @return A copy of the bytes put so far.
+	 *
+	 */
+	byte[] toByteArray() {
+		return Arrays.copyOf( this.bytes, this.size );
+	}
+
+
+
+	int size() {
+		return this.size;
+	}
+
+
+
+	/**
+	 * Empties the buffer, and shrinks it if a burst of changes made it grow beyond its capacity.
+	 *
+	 */
+	void clear() {
+		this.size = 0;
+		if ( this.bytes.length > MAX_RETAINED ) {
+			this.bytes = new byte[ MAX_RETAINED ];
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[RecordBuffer" );
+		out.append( " | size=" + this.size );
+		out.append( " | capacity=" + this.bytes.length );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// RecordBuffer internals
+//====================================================================================================================================================
+
+
+
+	private void ensure( int more ) {
+		if ( this.size + more > this.bytes.length ) {
+			this.bytes = Arrays.copyOf( this.bytes, Math.max( this.bytes.length * 2, this.size + more ) );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The capacity kept by {@link #clear()}.
+	 *
+	 */
+	private static final int MAX_RETAINED = 4 * 1024 * 1024;
+
+
+
+	private byte[] bytes;
+
+
+
+	private int size = 0;
+}
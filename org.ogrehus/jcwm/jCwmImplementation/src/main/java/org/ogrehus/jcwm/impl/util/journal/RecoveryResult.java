@@ -0,0 +1,167 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A RecoveryResult is the outcome of {@link ModelJournal#recover()}: the recovered root and what was replayed.
+ * <p>
+ * Records that can't be replayed are skipped, like a change of an element the snapshot does not contain, see
+ * {@link org.ogrehus.jcwm.impl.util.json.ModelJsonImporter}. A record torn by a crash while it was written, and all records behind it, are
+ * discarded; they were never forced, so no mutation that returned under the policy <code>always</code> is lost.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class RecoveryResult {
+
+
+	RecoveryResult( ModelElement root, long snapshotSequence, long sequence, long replayed, long skipped, long discarded ) {
+		this.root             = root;
+		this.snapshotSequence = snapshotSequence;
+		this.sequence         = sequence;
+		this.replayed         = replayed;
+		this.skipped          = skipped;
+		this.discarded        = discarded;
+	}
+
+
+
+//====================================================================================================================================================
+// RecoveryResult capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The recovered root, <code>null</code> if the journal has no snapshot yet.
+	 *
+	 */
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	/**
+	 * @return The sequence number of the last change contained by the snapshot.
+	 *
+	 */
+	public long getSnapshotSequence() {
+		return this.snapshotSequence;
+	}
+
+
+
+	/**
+	 * @return The sequence number of the last recovered change.
+	 *
+	 */
+	public long getSequence() {
+		return this.sequence;
+	}
+
+
+
+	/**
+	 * @return The number of applied records of the journal behind the snapshot.
+	 *
+	 */
+	public long getReplayed() {
+		return this.replayed;
+	}
+
+
+
+	/**
+	 * @return The number of records that could not be applied.
+	 *
+	 */
+	public long getSkipped() {
+		return this.skipped;
+	}
+
+
+
+	/**
+	 * @return The number of bytes behind a torn record, that were discarded.
+	 *
+	 */
+	public long getDiscarded() {
+		return this.discarded;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[RecoveryResult" );
+		out.append( " | root=" + ( this.root == null ? "none" : this.root.getSimpleName() ) );
+		out.append( " | snapshotSequence=" + this.snapshotSequence );
+		out.append( " | sequence=" + this.sequence );
+		out.append( " | replayed=" + this.replayed );
+		out.append( " | skipped=" + this.skipped );
+		out.append( " | discarded=" + this.discarded );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement root;
+
+
+
+	private final long snapshotSequence;
+
+
+
+	private final long sequence;
+
+
+
+	private final long replayed;
+
+
+
+	private final long skipped;
+
+
+
+	private final long discarded;
+}
@@ -0,0 +1,829 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.json.ImportResult;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonImporter;
+
+
+/**
+ * A ReplicationFollower keeps a read replica of the model of a ReplicationLeader: it bootstraps the model from a snapshot of the leader and
+ * applies the changes streamed behind it, in order, by a JournalReplay.
+ * <p>
+ * The follower connects from a thread of its own. If the connection breaks, or the leader is not reachable yet, it reconnects every second:
+ * to the same leader it resumes behind its last applied change as long as the leader still holds the changes since, otherwise it is
+ * bootstrapped again and {@link #getRoot()} returns the new model.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * ReplicationFollower follower = new ReplicationFollower( new InetSocketAddress( "leader", 7400 ) );
+ * follower.start();
+ * follower.await( 0, 30000 );        // bootstrapped
+ * follower.getLock().readLock().lock();
+ * try {
+ *     ... follower.getRoot() ...     // read the replica
+ * } finally {
+ *     follower.getLock().readLock().unlock();
+ * }
+ * </pre>
+ * <p>
+ * The changes are applied holding the write lock of {@link #getLock()}, so readers holding the read lock never see a batch half applied.
+ * The replication lag is the number of changes of the leader not applied yet, {@link #getLag()}, and the time since the follower last was
+ * caught up with the leader, {@link #getLagMillis()}, growing while it is disconnected.
+ * </p>
+ * <p>
+ * A ReplicationFollower is thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ReplicationFollower
+implements
+	AutoCloseable
+{
+
+
+	/**
+	 * Creates a new instance of ReplicationFollower.
+	 *
+	 * @param leader The address of the leader. Must not be <code>null</code>.
+	 *
+	 */
+	public ReplicationFollower( InetSocketAddress leader ) {
+		if ( leader == null ) {
+			throw new NullPointerException( "Parameter: leader must not be null." );
+		}
+		this.leader = leader;
+	}
+
+
+
+//====================================================================================================================================================
+// ReplicationFollower capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Starts following the leader.
+	 *
+	 * @throws IllegalStateException If the follower was started already.
+	 *
+	 */
+	public synchronized void start() {
+		if ( this.follower != null || this.closed ) {
+			throw new IllegalStateException( "The follower of: " + this.leader + " was started already." );
+		}
+		this.follower = new Thread( new Runnable() {
+			public void run() {
+				follow();
+			}
+		}, "jcwm-replication-follower" );
+		this.follower.setDaemon( true );
+		this.follower.start();
+	}
+
+
+
+	/**
+	 * Waits until the follower applied a change of the leader.
+	 *
+	 * @param sequence The sequence number of the change, like the sequence number of a leader after a change.
+	 *
+	 * @param millis The maximal time to wait.
+	 *
+	 * @return <code>true</code> if the change was applied, <code>false</code> if the time elapsed.
+	 *
+	 * @throws InterruptedException If the waiting thread was interrupted.
+	 *
+	 */
+	public boolean await( long sequence, long millis ) throws InterruptedException {
+		long remaining = TimeUnit.MILLISECONDS.toNanos( millis );
+		this.lock.lock();
+		try {
+			while ( this.root == null || this.sequence < sequence ) {
+				if ( remaining <= 0 ) {
+					return false;
+				}
+				remaining = this.progressed.awaitNanos( remaining );
+			}
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * Stops following the leader. The replica is kept.
+	 *
+	 */
+	public synchronized void close() {
+		if ( this.closed ) {
+			return;
+		}
+		this.closed = true;
+		if ( this.follower == null ) {
+			return;
+		}
+		Socket socket;
+		this.lock.lock();
+		try {
+			socket = this.socket;
+			this.progressed.signalAll(); // wakes a follower waiting to reconnect
+		} finally {
+			this.lock.unlock();
+		}
+		if ( socket != null ) {
+			closeQuietly( socket );
+		}
+		boolean interrupted = false;
+		while ( this.follower.isAlive() ) {
+			try {
+				this.follower.join();
+			} catch ( InterruptedException e ) {
+				interrupted = true;
+			}
+		}
+		if ( interrupted ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+
+	public InetSocketAddress getLeader() {
+		return this.leader;
+	}
+
+
+
+	/**
+	 * @return The lock of the replica: the changes are applied holding the write lock, readers hold the read lock.
+	 *
+	 */
+	public ReadWriteLock getLock() {
+		return this.model;
+	}
+
+
+
+	/**
+	 * @return The root of the replica, <code>null</code> if the follower was not bootstrapped yet.
+	 *
+	 */
+	public ModelElement getRoot() {
+		this.lock.lock();
+		try {
+			return this.root;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The sequence number of the last applied change of the leader.
+	 *
+	 */
+	public long getSequence() {
+		this.lock.lock();
+		try {
+			return this.sequence;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The sequence number of the last change of the leader, as far as the follower knows it.
+	 *
+	 */
+	public long getLeaderSequence() {
+		this.lock.lock();
+		try {
+			return this.leaderSequence;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The number of changes of the leader not applied yet.
+	 *
+	 */
+	public long getLag() {
+		this.lock.lock();
+		try {
+			return Math.max( 0, this.leaderSequence - this.sequence );
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The milliseconds since the follower last was caught up with the leader, <code>0</code> if it is caught up.
+	 *
+	 */
+	public long getLagMillis() {
+		this.lock.lock();
+		try {
+			return this.behindSince == NOT_BEHIND ? 0 : TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - this.behindSince );
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	public boolean isConnected() {
+		this.lock.lock();
+		try {
+			return this.connected;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The number of times the follower was bootstrapped by a snapshot.
+	 *
+	 */
+	public int getBootstraps() {
+		this.lock.lock();
+		try {
+			return this.bootstraps;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The reason of the last broken connection, <code>null</code> if there was none.
+	 *
+	 */
+	public IOException getFailure() {
+		this.lock.lock();
+		try {
+			return this.failure;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * Follows a leader in a process of its own: prints a line of the sequence number of the last applied change and the Fingerprint of the
+	 * replica each time the follower was bootstrapped or applied changes, until the process is stopped.
+	 * <p>
+	 * Usage: <code>ReplicationFollower host port</code>
+	 * </p>
+	 *
+	 */
+	public static void main( String[] args ) throws InterruptedException {
+		if ( args.length != 2 ) {
+			System.err.println( "Usage: ReplicationFollower host port" );
+			System.exit( 2 );
+		}
+		ReplicationFollower follower = new ReplicationFollower( new InetSocketAddress( args[0], Integer.parseInt( args[1] ) ) );
+		follower.start();
+		long printed = -1;
+		while ( true ) {
+			follower.await( printed + 1, TimeUnit.NANOSECONDS.toMillis( ReplicationLeader.HEARTBEAT ) );
+			follower.getLock().readLock().lock();
+			try {
+				ModelElement root = follower.getRoot();
+				long sequence = follower.getSequence();
+				if ( root != null && sequence != printed ) {
+					System.out.println( sequence + " " + ( (GFunModelElement<?, ?, ?, ?>) root ).getFingerprint() );
+					System.out.flush();
+					printed = sequence;
+				}
+			} finally {
+				follower.getLock().readLock().unlock();
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ReplicationFollower" );
+		out.append( " | leader=" + this.leader );
+		out.append( " | connected=" + isConnected() );
+		out.append( " | sequence=" + getSequence() );
+		out.append( " | lag=" + getLag() );
+		out.append( " | lagMillis=" + getLagMillis() );
+		out.append( " | bootstraps=" + getBootstraps() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ReplicationFollower internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The loop of the following thread: connects, follows the leader until the connection breaks, and reconnects.
+	 *
+	 */
+	private void follow() {
+		while ( true ) {
+			Socket socket = new Socket();
+			this.lock.lock();
+			try {
+				if ( this.closed ) {
+					return;
+				}
+				this.socket = socket;
+			} finally {
+				this.lock.unlock();
+			}
+			try {
+				follow( socket );
+			} catch ( IOException e ) {
+				this.lock.lock();
+				try {
+					this.failure = e;
+				} finally {
+					this.lock.unlock();
+				}
+			} finally {
+				closeQuietly( socket );
+			}
+
+			this.lock.lock();
+			try {
+				this.connected = false;
+				this.socket = null;
+				if ( this.behindSince == NOT_BEHIND ) {
+					this.behindSince = System.nanoTime(); // the changes since are unknown
+				}
+				long remaining = RETRY;
+				while ( !this.closed && remaining > 0 ) {
+					try {
+						remaining = this.progressed.awaitNanos( remaining );
+					} catch ( InterruptedException e ) {
+						return;
+					}
+				}
+			} finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+
+
+	/**
+	 * Opens a connection, is bootstrapped or resumes, and applies the frames of the leader.
+	 *
+	 */
+	private void follow( Socket socket ) throws IOException {
+		socket.connect( this.leader, CONNECT_TIMEOUT );
+		socket.setSoTimeout( READ_TIMEOUT );
+		socket.setTcpNoDelay( true );
+		DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream(), BUFFER_SIZE ) );
+		DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+		out.writeInt( ReplicationLeader.MAGIC );
+		out.writeInt( ReplicationLeader.VERSION );
+		out.writeLong( this.epoch );
+		out.writeLong( getSequence() );
+		out.flush();
+
+		if ( in.readInt() != ReplicationLeader.MAGIC ) {
+			throw new IOException( "The peer: " + this.leader + " is no leader." );
+		}
+		int version = in.readInt();
+		if ( version != ReplicationLeader.VERSION ) {
+			throw new IOException( "The leader: " + this.leader + " has the unsupported version: " + version );
+		}
+		byte frame = in.readByte();
+		long epoch = in.readLong();
+		long sequence = in.readLong();
+		if ( frame == ReplicationLeader.SNAPSHOT ) {
+			bootstrap( epoch, sequence, new SnapshotStream( in, in.readLong() ) );
+		} else if ( frame != ReplicationLeader.RESUME ) {
+			throw new IOException( "The leader: " + this.leader + " sent the unknown frame: " + frame );
+		}
+		this.lock.lock();
+		try {
+			this.connected = true;
+		} finally {
+			this.lock.unlock();
+		}
+
+		while ( true ) {
+			frame = in.readByte();
+			long leaderSequence = in.readLong();
+			if ( frame == ReplicationLeader.BATCH ) {
+				byte[] batch = new byte[ in.readInt() ];
+				in.readFully( batch );
+				apply( batch );
+			} else if ( frame != ReplicationLeader.HEARTBEAT_FRAME ) {
+				throw new IOException( "The leader: " + this.leader + " sent the unknown frame: " + frame );
+			}
+			progress( leaderSequence );
+		}
+	}
+
+
+
+	/**
+	 * Imports a snapshot, as it is read from the connection, and replaces the replica by it.
+	 *
+	 */
+	private void bootstrap( long epoch, long sequence, InputStream snapshot ) throws IOException {
+		ImportResult imported;
+		try ( Reader in = new InputStreamReader( snapshot, StandardCharsets.UTF_8 ) ) {
+			imported = new ModelJsonImporter().read( in );
+		}
+		this.model.writeLock().lock();
+		try {
+			this.replay = new JournalReplay( imported );
+			this.epoch  = epoch;
+			this.lock.lock();
+			try {
+				this.root     = imported.getRoot();
+				this.sequence = sequence;
+				this.bootstraps++;
+			} finally {
+				this.lock.unlock();
+			}
+		} finally {
+			this.model.writeLock().unlock();
+		}
+		progress( sequence );
+	}
+
+
+
+	/**
+	 * Applies the records of a batch behind the last applied change. A created element is constructed once it is referenced, so by the time
+	 * it is linked into the replica.
+	 *
+	 */
+	private void apply( byte[] batch ) throws IOException {
+		ByteBuffer in = ByteBuffer.wrap( batch );
+		long applied = getSequence();
+		this.model.writeLock().lock();
+		try {
+			while ( in.hasRemaining() ) {
+				if ( in.remaining() < RECORD_HEADER_SIZE ) {
+					throw new IOException( "The leader: " + this.leader + " sent a torn batch." );
+				}
+				int length = in.getInt();
+				int checksum = in.getInt();
+				if ( length < 0 || length > in.remaining() ) {
+					throw new IOException( "The leader: " + this.leader + " sent a torn batch." );
+				}
+				CRC32C crc = new CRC32C();
+				crc.update( batch, in.position(), length );
+				if ( (int) crc.getValue() != checksum ) {
+					throw new IOException( "The leader: " + this.leader + " sent a corrupt record." );
+				}
+				JournalRecord record = JournalRecord.decode( ByteBuffer.wrap( batch, in.position(), length ) );
+				in.position( in.position() + length );
+				if ( record.getSequence() <= applied ) {
+					continue; // a batch overlapping the snapshot or the last applied change
+				}
+				this.replay.apply( record );
+				applied = record.getSequence();
+			}
+		} finally {
+			this.model.writeLock().unlock();
+		}
+		this.lock.lock();
+		try {
+			this.sequence = applied;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * Notes the last change of the leader, and wakes the threads waiting for changes.
+	 *
+	 */
+	private void progress( long leaderSequence ) {
+		this.lock.lock();
+		try {
+			this.leaderSequence = leaderSequence;
+			if ( this.sequence >= leaderSequence ) {
+				this.behindSince = NOT_BEHIND;
+			} else if ( this.behindSince == NOT_BEHIND ) {
+				this.behindSince = System.nanoTime();
+			}
+			this.progressed.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	private static void closeQuietly( Socket socket ) {
+		try {
+			socket.close();
+		} catch ( IOException e ) {
+			// closed anyway
+		}
+	}
+
+
+
+	/**
+	 * The snapshot within the stream of a connection: ends after the length of the snapshot, and closing it skips the rest of the snapshot,
+	 * not the connection.
+	 *
+	 */
+	private static final class SnapshotStream
+	extends
+		FilterInputStream
+	{
+
+
+		SnapshotStream( InputStream in, long length ) {
+			super( in );
+			this.remaining = length;
+		}
+
+
+
+		@Override
+		public int read() throws IOException {
+			if ( this.remaining <= 0 ) {
+				return -1;
+			}
+			int b = this.in.read();
+			if ( b < 0 ) {
+				throw new EOFException( "The snapshot ended before its length." );
+			}
+			this.remaining--;
+
+			return b;
+		}
+
+
+
+		@Override
+		public int read( byte[] b, int off, int len ) throws IOException {
+			if ( this.remaining <= 0 ) {
+				return -1;
+			}
+			int read = this.in.read( b, off, (int) Math.min( len, this.remaining ) );
+			if ( read < 0 ) {
+				throw new EOFException( "The snapshot ended before its length." );
+			}
+			this.remaining -= read;
+
+			return read;
+		}
+
+
+
+		@Override
+		public long skip( long n ) throws IOException {
+			long skipped = this.in.skip( Math.min( n, this.remaining ) );
+			this.remaining -= skipped;
+
+			return skipped;
+		}
+
+
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min( this.in.available(), this.remaining );
+		}
+
+
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+
+
+		@Override
+		public void close() throws IOException {
+			while ( this.remaining > 0 ) {
+				if ( skip( this.remaining ) == 0 && read() < 0 ) {
+					break;
+				}
+			}
+		}
+
+
+
+		/**
+		 * The number of bytes of the snapshot not read yet.
+		 *
+		 */
+		private long remaining;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The pause before reconnecting, in nanoseconds.
+	 *
+	 */
+	private static final long RETRY = TimeUnit.SECONDS.toNanos( 1 );
+
+
+
+	/**
+	 * The time to connect, in milliseconds.
+	 *
+	 */
+	private static final int CONNECT_TIMEOUT = 5000;
+
+
+
+	/**
+	 * The time without a frame the leader is considered lost after, in milliseconds: a few missed heartbeats.
+	 *
+	 */
+	private static final int READ_TIMEOUT = 5 * (int) TimeUnit.NANOSECONDS.toMillis( ReplicationLeader.HEARTBEAT );
+
+
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+
+
+	/**
+	 * The length and the checksum of a record.
+	 *
+	 */
+	private static final int RECORD_HEADER_SIZE = 8;
+
+
+
+	private static final long NOT_BEHIND = -1;
+
+
+
+	private final InetSocketAddress leader;
+
+
+
+	private boolean closed = false;
+
+
+
+	private Thread follower = null;
+
+
+
+	/**
+	 * Guards the replica against its readers while changes are applied.
+	 *
+	 */
+	private final ReentrantReadWriteLock model = new ReentrantReadWriteLock();
+
+
+
+	/**
+	 * Applies the changes to the replica, used by the following thread only.
+	 *
+	 */
+	private JournalReplay replay = null;
+
+
+
+	/**
+	 * The epoch of the leader the replica follows, <code>0</code> before the first bootstrap.
+	 *
+	 */
+	private long epoch = 0;
+
+
+
+	/**
+	 * Guards the following fields, shared by the following thread and the threads asking for the state of the follower.
+	 *
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+
+
+	/**
+	 * Signals applied changes, a heartbeat or closing.
+	 *
+	 */
+	private final Condition progressed = this.lock.newCondition();
+
+
+
+	private Socket socket = null;
+
+
+
+	private ModelElement root = null;
+
+
+
+	private long sequence = 0;
+
+
+
+	private long leaderSequence = 0;
+
+
+
+	private long behindSince = NOT_BEHIND;
+
+
+
+	private boolean connected = false;
+
+
+
+	private int bootstraps = 0;
+
+
+
+	private IOException failure = null;
+}
@@ -0,0 +1,816 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonExporter;
+
+
+/**
+ * A ReplicationLeader streams the changes of a model over sockets to ReplicationFollowers, so read replicas follow the model instead of
+ * harvesting it again.
+ * <p>
+ * The changes are encoded like the records of a ModelJournal, compact binary deltas keyed by the ids of the elements, see
+ * {@link JournalRecord}, and collected in batches. Each follower is served by a thread of its own, which sends the batches in order as fast
+ * as the follower takes them. The recent batches are kept in a backlog of limited size:
+ * </p>
+ * <ul>
+ * <li>A new follower is bootstrapped by a snapshot of the model, written by a ModelJsonExporter, and tails the changes behind it.</li>
+ * <li>A follower reconnecting to the same leader continues behind its last applied change, if the backlog still holds the changes since.
+ * Otherwise, or if the leader was restarted, it is bootstrapped again.</li>
+ * <li>A follower falling behind the backlog is disconnected, so a slow follower never holds the memory of the leader.</li>
+ * </ul>
+ * <p>
+ * The protocol: the follower opens with the magic number, the version, the epoch of the leader it followed and the sequence number of its
+ * last applied change, <code>0</code> for none. The leader answers with the magic number, the version and a snapshot or the confirmation to
+ * resume, followed by frames of batches and heartbeats. Each frame carries the sequence number of the last change of the leader, so a
+ * follower knows its lag.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * ReplicationLeader leader = new ReplicationLeader( catalog, new InetSocketAddress( 7400 ) );
+ * leader.start();
+ * ...                                // change the model, each change is streamed to the followers
+ * leader.close();
+ * </pre>
+ * <p>
+ * The snapshot of a new follower is exported holding the lock of the leader, so a thread changing the model waits at its next change. The
+ * export is streamed into a temporary file, which is sent to the follower after the lock is released. A
+ * change made of several steps must not be exported half done: a thread of the application holds the lock, see {@link #getLock()}, while it
+ * changes the model concurrently to connecting followers. The root must be a Catalog or a Schema, the model is replicated as far as a
+ * ModelJsonImporter imports it. The leader streams the changes of the elements below the root, and of the elements created for the model
+ * once they are linked below it; the changes of other models of the process are dropped.
+ * </p>
+ * <p>
+ * A ReplicationLeader is thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ReplicationLeader
+implements
+	  ModelChangeListener
+	, AutoCloseable
+{
+
+
+	/**
+	 * Creates a new instance of ReplicationLeader with a backlog of 16MB of changes.
+	 *
+	 * @param root The root of the replicated model, a Catalog or a Schema. Must not be <code>null</code>.
+	 *
+	 * @param address The address the followers connect to, with the port <code>0</code> for any free port. Must not be <code>null</code>.
+	 *
+	 */
+	public ReplicationLeader( ModelElement root, InetSocketAddress address ) {
+		this( root, address, DEFAULT_BACKLOG_BYTES );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ReplicationLeader by specific parameters.
+	 *
+	 * @param root The root of the replicated model, a Catalog or a Schema. Must not be <code>null</code>.
+	 *
+	 * @param address The address the followers connect to, with the port <code>0</code> for any free port. Must not be <code>null</code>.
+	 *
+	 * @param backlogBytes The size of the recent changes kept for reconnecting and slow followers. Must be positive.
+	 *
+	 */
+	public ReplicationLeader( ModelElement root, InetSocketAddress address, long backlogBytes ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		if ( address == null ) {
+			throw new NullPointerException( "Parameter: address must not be null." );
+		}
+		if ( !( root instanceof Catalog ) && !( root instanceof Schema ) ) {
+			throw new IllegalArgumentException( "The root of a replication must be a Catalog or a Schema, but is: " + root.getClass().getName() );
+		}
+		if ( backlogBytes < 1 ) {
+			throw new IllegalArgumentException( "The parameter: backlogBytes must be positive, but is: " + backlogBytes );
+		}
+		this.root         = root;
+		this.scope        = new ChangeScope( root );
+		this.address      = address;
+		this.backlogBytes = backlogBytes;
+		this.epoch        = new SecureRandom().nextLong();
+	}
+
+
+
+//====================================================================================================================================================
+// ReplicationLeader capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Starts the replication: binds the address, accepts followers and registers the leader for the changes of the model.
+	 *
+	 * @throws IOException If the address can't be bound.
+	 *
+	 * @throws IllegalStateException If the leader was started already.
+	 *
+	 */
+	public synchronized void start() throws IOException {
+		if ( this.acceptor != null || this.closed ) {
+			throw new IllegalStateException( "The leader of: " + this.address + " was started already." );
+		}
+		this.server = new ServerSocket();
+		this.server.bind( this.address );
+		ModelChangeSupport.addListener( this );
+		this.acceptor = new Thread( new Runnable() {
+			public void run() {
+				accept();
+			}
+		}, "jcwm-replication-leader" );
+		this.acceptor.setDaemon( true );
+		this.acceptor.start();
+	}
+
+
+
+	/**
+	 * Stops the replication: cancels the registration for changes of the model and disconnects the followers.
+	 *
+	 */
+	public synchronized void close() {
+		if ( this.closed ) {
+			return;
+		}
+		this.closed = true;
+		if ( this.acceptor == null ) {
+			return;
+		}
+		ModelChangeSupport.removeListener( this );
+		closeQuietly( this.server );
+		List<Session> sessions;
+		this.lock.lock();
+		try {
+			this.closing = true;
+			this.appended.signalAll();
+			sessions = new ArrayList<Session>( this.sessions );
+		} finally {
+			this.lock.unlock();
+		}
+		for ( Session session : sessions ) {
+			closeQuietly( session.socket ); // unblocks a write to a follower that does not read
+		}
+		boolean interrupted = join( this.acceptor );
+		for ( Session session : sessions ) {
+			interrupted |= join( session.thread );
+		}
+		if ( interrupted ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	/**
+	 * @return The port the followers connect to, <code>-1</code> if the leader was not started yet.
+	 *
+	 */
+	public synchronized int getPort() {
+		return this.server == null ? -1 : this.server.getLocalPort();
+	}
+
+
+
+	/**
+	 * @return The random number identifying this leader, so a follower does not resume the changes of another leader.
+	 *
+	 */
+	public long getEpoch() {
+		return this.epoch;
+	}
+
+
+
+	public long getBacklogBytes() {
+		return this.backlogBytes;
+	}
+
+
+
+	/**
+	 * @return The lock held while a snapshot is exported and a change is encoded. A thread of the application holds it for a change made of
+	 * several steps, so no follower is bootstrapped by a snapshot of a change half done.
+	 *
+	 */
+	public Lock getLock() {
+		return this.lock;
+	}
+
+
+
+	/**
+	 * @return The sequence number of the last streamed change.
+	 *
+	 */
+	public long getSequence() {
+		this.lock.lock();
+		try {
+			return this.sequence;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The number of connected followers.
+	 *
+	 */
+	public int getFollowers() {
+		this.lock.lock();
+		try {
+			return this.sessions.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Encodes a change into the current batch, if it belongs to the model below the root, and wakes the threads of the followers.
+	 *
+	 */
+	public void modelChanged( ModelChange change ) {
+		this.lock.lock();
+		try {
+			if ( this.closing ) {
+				return;
+			}
+			long sequence = this.scope.put( this.sequence, change, this.pending );
+			if ( sequence == this.sequence ) {
+				return; // held back or not of the model
+			}
+			this.sequence = sequence;
+			if ( this.pending.size() >= BUFFER_SIZE ) {
+				cut(); // bounds the batch, also without followers
+			}
+			this.appended.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ReplicationLeader" );
+		out.append( " | address=" + this.address );
+		out.append( " | port=" + getPort() );
+		out.append( " | sequence=" + getSequence() );
+		out.append( " | followers=" + getFollowers() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ReplicationLeader internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The loop of the accepting thread: starts a thread for each connecting follower.
+	 *
+	 */
+	private void accept() {
+		while ( true ) {
+			Socket socket;
+			try {
+				socket = this.server.accept();
+			} catch ( IOException e ) {
+				return; // closed
+			}
+			Session session = new Session( socket );
+			this.lock.lock();
+			try {
+				if ( this.closing ) {
+					closeQuietly( socket );
+					return;
+				}
+				this.sessions.add( session );
+			} finally {
+				this.lock.unlock();
+			}
+			session.thread.start();
+		}
+	}
+
+
+
+	/**
+	 * Serves a follower: reads its opening, bootstraps it or confirms to resume, and sends the changes till it disconnects, falls behind the
+	 * backlog, or the leader is closed.
+	 *
+	 */
+	private void serve( Session session ) {
+		try {
+			Socket socket = session.socket;
+			socket.setSoTimeout( HANDSHAKE_TIMEOUT );
+			socket.setTcpNoDelay( true );
+			DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+			DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream(), BUFFER_SIZE ) );
+			if ( in.readInt() != MAGIC ) {
+				throw new IOException( "The peer: " + socket.getRemoteSocketAddress() + " is no follower." );
+			}
+			int version = in.readInt();
+			if ( version != VERSION ) {
+				throw new IOException( "The follower: " + socket.getRemoteSocketAddress() + " has the unsupported version: " + version );
+			}
+			long epoch = in.readLong();
+			long applied = in.readLong();
+			out.writeInt( MAGIC );
+			out.writeInt( VERSION );
+			long next = begin( out, epoch, applied );
+			out.flush();
+			tail( out, next );
+		} catch ( IOException e ) {
+			// disconnected, it reconnects
+		} finally {
+			this.lock.lock();
+			try {
+				this.sessions.remove( session );
+			} finally {
+				this.lock.unlock();
+			}
+			closeQuietly( session.socket );
+		}
+	}
+
+
+
+	/**
+	 * Writes the snapshot of the model, or the confirmation to resume behind the last change a follower applied.
+	 *
+	 * @return The sequence number of the next change to send.
+	 *
+	 */
+	private long begin( DataOutputStream out, long epoch, long applied ) throws IOException {
+		Path snapshot = null;
+		try {
+			long sequence;
+			this.lock.lock();
+			try {
+				if ( epoch == this.epoch && applied <= this.sequence && applied + 1 >= this.first ) {
+					sequence = applied;
+				} else {
+					sequence = this.sequence;
+					snapshot = export();
+				}
+			} finally {
+				this.lock.unlock();
+			}
+			out.writeByte( snapshot == null ? RESUME : SNAPSHOT );
+			out.writeLong( this.epoch );
+			out.writeLong( sequence );
+			if ( snapshot != null ) {
+				out.writeLong( Files.size( snapshot ) );
+				Files.copy( snapshot, out ); // outside the lock, a slow follower does not hold the model
+			}
+
+			return sequence + 1;
+		} finally {
+			if ( snapshot != null ) {
+				Files.deleteIfExists( snapshot );
+			}
+		}
+	}
+
+
+
+	/**
+	 * Sends the batches from a sequence number on as they are collected, and a heartbeat if there is no change for a while.
+	 *
+	 */
+	private void tail( DataOutputStream out, long next ) throws IOException {
+		List<Batch> batches = new ArrayList<Batch>();
+		while ( true ) {
+			long sequence;
+			this.lock.lock();
+			try {
+				long deadline = System.nanoTime() + HEARTBEAT;
+				while ( !this.closing && this.sequence < next ) {
+					long remaining = deadline - System.nanoTime();
+					if ( remaining <= 0 ) {
+						break;
+					}
+					try {
+						this.appended.awaitNanos( remaining );
+					} catch ( InterruptedException e ) {
+						return;
+					}
+				}
+				if ( this.closing ) {
+					return;
+				}
+				if ( next < this.first ) {
+					throw new IOException( "The follower fell behind the backlog." );
+				}
+				if ( this.pending.size() > 0 ) {
+					cut();
+				}
+				for ( Iterator<Batch> newest = this.backlog.descendingIterator(); newest.hasNext(); ) {
+					Batch batch = newest.next();
+					if ( batch.last < next ) {
+						break;
+					}
+					batches.add( 0, batch );
+				}
+				sequence = this.sequence;
+			} finally {
+				this.lock.unlock();
+			}
+
+			if ( batches.isEmpty() ) {
+				out.writeByte( HEARTBEAT_FRAME );
+				out.writeLong( sequence );
+			}
+			for ( Batch batch : batches ) {
+				out.writeByte( BATCH );
+				out.writeLong( sequence );
+				out.writeInt( batch.bytes.length );
+				out.write( batch.bytes );
+				next = batch.last + 1;
+			}
+			out.flush();
+			batches.clear();
+		}
+	}
+
+
+
+	/**
+	 * Closes the current batch and adds it to the backlog, dropping the oldest batches beyond the size of the backlog. The lock must be held.
+	 *
+	 */
+	private void cut() {
+		Batch batch = new Batch( this.pending.toByteArray(), this.sequence );
+		this.pending.clear();
+		this.backlog.addLast( batch );
+		this.size += batch.bytes.length;
+		while ( this.size > this.backlogBytes && this.backlog.size() > 1 ) {
+			Batch oldest = this.backlog.removeFirst();
+			this.size -= oldest.bytes.length;
+			this.first = oldest.last + 1;
+		}
+	}
+
+
+
+	/**
+	 * Streams the snapshot of the model into a temporary file, that is sent after the lock is released. So the heap holds no copy of the
+	 * whole model and the lock is held for the export only, not as long as the follower needs to read the snapshot. The lock must be held,
+	 * so no change is encoded while the model is exported.
+	 *
+	 * @return The file of the snapshot, the caller deletes it.
+	 *
+	 */
+	private Path export() throws IOException {
+		Path file = Files.createTempFile( "jcwm-snapshot-", ".json" );
+		try {
+			try (
+				Writer out = new OutputStreamWriter( new BufferedOutputStream( Files.newOutputStream( file ), BUFFER_SIZE ), StandardCharsets.UTF_8 )
+			) {
+				new ModelJsonExporter().export( this.root, out );
+			}
+		} catch ( IOException | RuntimeException e ) {
+			Files.deleteIfExists( file );
+			throw e;
+		}
+
+		return file;
+	}
+
+
+
+	private static boolean join( Thread thread ) {
+		boolean interrupted = false;
+		while ( thread.isAlive() ) {
+			try {
+				thread.join();
+			} catch ( InterruptedException e ) {
+				interrupted = true;
+			}
+		}
+
+		return interrupted;
+	}
+
+
+
+	private static void closeQuietly( AutoCloseable closeable ) {
+		try {
+			closeable.close();
+		} catch ( Exception e ) {
+			// closed anyway
+		}
+	}
+
+
+
+	/**
+	 * A connected follower and the thread serving it.
+	 *
+	 */
+	private final class Session {
+
+
+		Session( Socket socket ) {
+			this.socket = socket;
+			this.thread = new Thread( new Runnable() {
+				public void run() {
+					serve( Session.this );
+				}
+			}, "jcwm-replication-" + socket.getRemoteSocketAddress() );
+			this.thread.setDaemon( true );
+		}
+
+
+
+		final Socket socket;
+
+
+
+		final Thread thread;
+	}
+
+
+
+	/**
+	 * The records of a batch, as they are sent, and the sequence number of its last change.
+	 *
+	 */
+	private static final class Batch {
+
+
+		Batch( byte[] bytes, long last ) {
+			this.bytes = bytes;
+			this.last  = last;
+		}
+
+
+
+		final byte[] bytes;
+
+
+
+		final long last;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * "JCRP", the first bytes of both peers.
+	 *
+	 */
+	static final int MAGIC = 0x4A435250;
+
+
+
+	/**
+	 * The version of the protocol, 2 since the length of a snapshot is a long.
+	 *
+	 */
+	static final int VERSION = 2;
+
+
+
+	/**
+	 * The frame of a snapshot: the epoch, the sequence number of the last change contained, the length as a long and the JSON of the model.
+	 *
+	 */
+	static final byte SNAPSHOT = 1;
+
+
+
+	/**
+	 * The frame confirming to resume: the epoch and the sequence number of the last change applied by the follower.
+	 *
+	 */
+	static final byte RESUME = 2;
+
+
+
+	/**
+	 * The frame of a batch: the sequence number of the last change of the leader, the length and the records.
+	 *
+	 */
+	static final byte BATCH = 3;
+
+
+
+	/**
+	 * The frame of a heartbeat: the sequence number of the last change of the leader.
+	 *
+	 */
+	static final byte HEARTBEAT_FRAME = 4;
+
+
+
+	/**
+	 * The interval of heartbeats, in nanoseconds.
+	 *
+	 */
+	static final long HEARTBEAT = TimeUnit.SECONDS.toNanos( 1 );
+
+
+
+	private static final long DEFAULT_BACKLOG_BYTES = 16L * 1024 * 1024;
+
+
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+
+
+	/**
+	 * The time a follower has to open, in milliseconds.
+	 *
+	 */
+	private static final int HANDSHAKE_TIMEOUT = 10000;
+
+
+
+	private final ModelElement root;
+
+
+
+	private final InetSocketAddress address;
+
+
+
+	private final long backlogBytes;
+
+
+
+	private final long epoch;
+
+
+
+	private ServerSocket server = null;
+
+
+
+	private Thread acceptor = null;
+
+
+
+	private boolean closed = false;
+
+
+
+	/**
+	 * Guards the following fields, shared by the threads changing the model and the threads of the followers.
+	 *
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+
+
+	/**
+	 * Signals the threads of the followers a new change or closing.
+	 *
+	 */
+	private final Condition appended = this.lock.newCondition();
+
+
+
+	private final List<Session> sessions = new LinkedList<Session>();
+
+
+
+	/**
+	 * Selects the changes of the model below the root.
+	 *
+	 */
+	private final ChangeScope scope;
+
+
+
+	/**
+	 * The records of the current batch.
+	 *
+	 */
+	private final RecordBuffer pending = new RecordBuffer( BUFFER_SIZE );
+
+
+
+	/**
+	 * The recent batches, the oldest first.
+	 *
+	 */
+	private final ArrayDeque<Batch> backlog = new ArrayDeque<Batch>();
+
+
+
+	/**
+	 * The size of the backlog in bytes.
+	 *
+	 */
+	private long size = 0;
+
+
+
+	/**
+	 * The sequence number of the first change still held by the backlog or the current batch.
+	 *
+	 */
+	private long first = 1;
+
+
+
+	private long sequence = 0;
+
+
+
+	private boolean closing = false;
+}
@@ -0,0 +1,161 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * An ImportResult is the outcome of a ModelJsonImporter: the imported root and what could not be imported.
+ * <p>
+ * Elements of kinds the importer does not know are skipped with their subtrees. References to elements outside of the document, like a
+ * ForeignKey referencing a PrimaryKey of a Schema that was not exported, are unresolved; the referencing element is kept if the model allows
+ * it without the reference, like an SQLIndex without one of its columns, and dropped otherwise, like the ForeignKey.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ImportResult {
+
+
+	ImportResult( ModelElement root, long imported, long skipped, long unresolved, Map<Integer, ModelElement> elements ) {
+		this.root       = root;
+		this.imported   = imported;
+		this.skipped    = skipped;
+		this.unresolved = unresolved;
+		this.elements   = elements;
+	}
+
+
+
+//====================================================================================================================================================
+// ImportResult capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The imported root, like a Catalog. Can't be <code>null</code>.
+	 *
+	 */
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	/**
+	 * @return The number of created elements.
+	 *
+	 */
+	public long getImported() {
+		return this.imported;
+	}
+
+
+
+	/**
+	 * @return The number of elements in the document, that were not imported cause of their kind or an unresolved reference.
+	 *
+	 */
+	public long getSkipped() {
+		return this.skipped;
+	}
+
+
+
+	/**
+	 * @return The number of references to elements, that are not in the document.
+	 *
+	 */
+	public long getUnresolved() {
+		return this.unresolved;
+	}
+
+
+
+	/**
+	 * Resolves an id of the document to the imported element, like an id of a ModelChange journaled before the document was exported, which
+	 * differs from the id of the imported element. The ids are kept as long as this result is referenced.
+	 *
+	 * @param id The id of an element in the document.
+	 *
+	 * @return The imported element, <code>null</code> if the element was skipped or the id is not in the document.
+	 *
+	 */
+	public ModelElement getElement( int id ) {
+		return this.elements.get( Integer.valueOf( id ) );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ImportResult" );
+		out.append( " | root=" + this.root.getSimpleName() );
+		out.append( " | imported=" + this.imported );
+		out.append( " | skipped=" + this.skipped );
+		out.append( " | unresolved=" + this.unresolved );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement root;
+
+
+
+	private final long imported;
+
+
+
+	private final long skipped;
+
+
+
+	private final long unresolved;
+
+
+
+	/**
+	 * The imported elements by their ids in the document.
+	 *
+	 */
+	private final Map<Integer, ModelElement> elements;
+}
@@ -0,0 +1,754 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A JsonReader reads the tokens of a JSON document from a Reader, one by one, as they are pulled.
+ * <p>
+ * The counterpart of a JsonWriter: the document is read through a buffer of fixed size, so a document of any size is read with the heap of
+ * its nesting depth, and of the values the caller keeps. {@link #peek()} tells the next token, the methods <code>begin...</code>,
+ * <code>end...</code> and <code>next...</code> consume it. A subtree the caller is not interested in is passed by {@link #skipValue()}, a
+ * small one can be read as a whole by {@link #readValue()}.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * JsonReader in = new JsonReader( reader );
+ * in.beginObject();
+ * while ( in.hasNext() ) {
+ *     String name = in.nextName();
+ *     if ( name.equals( "name" ) ) {
+ *         tableName = in.nextString();
+ *     } else {
+ *         in.skipValue();
+ *     }
+ * }
+ * in.endObject();
+ * </pre>
+ * <p>
+ * A malformed document is rejected by an IOException naming the line and column. A JsonReader is created for a single document and is not
+ * thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class JsonReader {
+
+
+	/**
+	 * Creates a new instance of JsonReader by specific parameters.
+	 *
+	 * @param in The Reader the document is read from. Must not be <code>null</code>.
+	 *
+	 */
+	public JsonReader( Reader in ) {
+		if ( in == null ) {
+			throw new NullPointerException( "Parameter: in must not be null." );
+		}
+		this.in = in;
+		push( DOCUMENT );
+	}
+
+
+
+//====================================================================================================================================================
+// JsonReader capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The next token, without consuming it. Can't be <code>null</code>.
+	 *
+	 * @throws IOException If the document can't be read or is malformed.
+	 *
+	 */
+	public JsonToken peek() throws IOException {
+		if ( this.peeked == null ) {
+			this.peeked = readToken();
+		}
+
+		return this.peeked;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the current object or array has another member.
+	 *
+	 */
+	public boolean hasNext() throws IOException {
+		JsonToken token = peek();
+
+		return token != JsonToken.endObject && token != JsonToken.endArray && token != JsonToken.endDocument;
+	}
+
+
+
+	public void beginObject() throws IOException {
+		consume( JsonToken.beginObject );
+		push( EMPTY_OBJECT );
+	}
+
+
+
+	public void endObject() throws IOException {
+		consume( JsonToken.endObject );
+		this.depth--;
+	}
+
+
+
+	public void beginArray() throws IOException {
+		consume( JsonToken.beginArray );
+		push( EMPTY_ARRAY );
+	}
+
+
+
+	public void endArray() throws IOException {
+		consume( JsonToken.endArray );
+		this.depth--;
+	}
+
+
+
+	public String nextName() throws IOException {
+		consume( JsonToken.name );
+
+		return this.text;
+	}
+
+
+
+	/**
+	 * @return The next String value, or the text of the next number.
+	 *
+	 */
+	public String nextString() throws IOException {
+		if ( peek() == JsonToken.numberValue ) {
+			this.peeked = null;
+			return this.text;
+		}
+		consume( JsonToken.stringValue );
+
+		return this.text;
+	}
+
+
+
+	/**
+	 * @throws NumberFormatException If the next number is no long.
+	 *
+	 */
+	public long nextLong() throws IOException {
+		consume( JsonToken.numberValue );
+
+		return Long.parseLong( this.text );
+	}
+
+
+
+	/**
+	 * @throws NumberFormatException If the next number is no int.
+	 *
+	 */
+	public int nextInt() throws IOException {
+		consume( JsonToken.numberValue );
+
+		return Integer.parseInt( this.text );
+	}
+
+
+
+	public double nextDouble() throws IOException {
+		consume( JsonToken.numberValue );
+
+		return Double.parseDouble( this.text );
+	}
+
+
+
+	public boolean nextBoolean() throws IOException {
+		consume( JsonToken.booleanValue );
+
+		return this.text == TRUE;
+	}
+
+
+
+	public void nextNull() throws IOException {
+		consume( JsonToken.nullValue );
+	}
+
+
+
+	/**
+	 * Skips the next value, an object or array with all its members.
+	 *
+	 */
+	public void skipValue() throws IOException {
+		int level = 0;
+		do {
+			switch ( peek() ) {
+			case beginObject:
+				beginObject();
+				level++;
+				break;
+			case beginArray:
+				beginArray();
+				level++;
+				break;
+			case endObject:
+				endObject();
+				level--;
+				break;
+			case endArray:
+				endArray();
+				level--;
+				break;
+			case endDocument:
+				throw malformed( "The document ends within a value." );
+			default:
+				this.peeked = null; // a name or a scalar value
+			}
+		} while ( level > 0 );
+	}
+
+
+
+	/**
+	 * Reads the next value as a whole: objects as Maps in the order of their members, arrays as Lists, numbers as Long or Double, Strings,
+	 * Booleans and <code>null</code>.
+	 *
+	 */
+	public Object readValue() throws IOException {
+		switch ( peek() ) {
+		case beginObject:
+			Map<String, Object> object = new LinkedHashMap<String, Object>();
+			beginObject();
+			while ( hasNext() ) {
+				String name = nextName();
+				object.put( name, readValue() );
+			}
+			endObject();
+			return object;
+		case beginArray:
+			List<Object> array = new ArrayList<Object>();
+			beginArray();
+			while ( hasNext() ) {
+				array.add( readValue() );
+			}
+			endArray();
+			return array;
+		case stringValue:
+			return nextString();
+		case numberValue:
+			String number = nextString();
+			if ( number.indexOf( '.' ) < 0 && number.indexOf( 'e' ) < 0 && number.indexOf( 'E' ) < 0 ) {
+				return Long.valueOf( number );
+			}
+			return Double.valueOf( number );
+		case booleanValue:
+			return Boolean.valueOf( nextBoolean() );
+		case nullValue:
+			nextNull();
+			return null;
+		default:
+			throw new IllegalStateException( "Expected a value, but was: " + peek() + getPosition() );
+		}
+	}
+
+
+
+	/**
+	 * @return The number of open objects and arrays.
+	 *
+	 */
+	public int getDepth() {
+		return this.depth - 1;
+	}
+
+
+
+	/**
+	 * @return The line of the next character, counted from <code>1</code>.
+	 *
+	 */
+	public int getLine() {
+		return this.line;
+	}
+
+
+
+	public void close() throws IOException {
+		this.in.close();
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[JsonReader" );
+		out.append( " | depth=" + getDepth() );
+		out.append( " | line=" + this.line );
+		out.append( " | column=" + getColumn() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// JsonReader internals
+//====================================================================================================================================================
+
+
+
+	private void consume( JsonToken expected ) throws IOException {
+		JsonToken token = peek();
+		if ( token != expected ) {
+			throw new IllegalStateException( "Expected: " + expected + ", but was: " + token + getPosition() );
+		}
+		this.peeked = null;
+	}
+
+
+
+	/**
+	 * Reads the next token by the context of the current object or array, after the separators, and passes to the next context.
+	 *
+	 */
+	private JsonToken readToken() throws IOException {
+		int context = this.stack[ this.depth - 1 ];
+		int c;
+		switch ( context ) {
+		case EMPTY_OBJECT:
+		case OBJECT:
+			c = nextNonWhitespace();
+			if ( c == '}' ) {
+				return JsonToken.endObject;
+			}
+			if ( context == OBJECT ) {
+				if ( c != ',' ) {
+					throw malformed( "Expected ',' or '}'." );
+				}
+				c = nextNonWhitespace();
+			}
+			if ( c != '"' ) {
+				throw malformed( "Expected the name of a member." );
+			}
+			this.text = readString();
+			this.stack[ this.depth - 1 ] = NAMED;
+			return JsonToken.name;
+		case NAMED:
+			if ( nextNonWhitespace() != ':' ) {
+				throw malformed( "Expected ':'." );
+			}
+			this.stack[ this.depth - 1 ] = OBJECT;
+			return readValueToken( nextNonWhitespace() );
+		case EMPTY_ARRAY:
+		case ARRAY:
+			c = nextNonWhitespace();
+			if ( c == ']' ) {
+				return JsonToken.endArray;
+			}
+			if ( context == ARRAY ) {
+				if ( c != ',' ) {
+					throw malformed( "Expected ',' or ']'." );
+				}
+				c = nextNonWhitespace();
+			}
+			this.stack[ this.depth - 1 ] = ARRAY;
+			return readValueToken( c );
+		case DOCUMENT:
+			this.stack[ this.depth - 1 ] = COMPLETE;
+			return readValueToken( nextNonWhitespace() );
+		default:
+			if ( nextNonWhitespace() != -1 ) {
+				throw malformed( "The document has a single root value, but more follows." );
+			}
+			return JsonToken.endDocument;
+		}
+	}
+
+
+
+	private JsonToken readValueToken( int c ) throws IOException {
+		switch ( c ) {
+		case '{':
+			return JsonToken.beginObject;
+		case '[':
+			return JsonToken.beginArray;
+		case '"':
+			this.text = readString();
+			return JsonToken.stringValue;
+		case 't':
+			readLiteral( "rue" );
+			this.text = TRUE;
+			return JsonToken.booleanValue;
+		case 'f':
+			readLiteral( "alse" );
+			this.text = FALSE;
+			return JsonToken.booleanValue;
+		case 'n':
+			readLiteral( "ull" );
+			this.text = null;
+			return JsonToken.nullValue;
+		case -1:
+			throw malformed( "The document ends, but a value is expected." );
+		default:
+			if ( c == '-' || ( c >= '0' && c <= '9' ) ) {
+				this.text = readNumber( (char) c );
+				return JsonToken.numberValue;
+			}
+			throw malformed( "Unexpected character: '" + (char) c + "'." );
+		}
+	}
+
+
+
+	/**
+	 * Reads a String after its opening quote, up to its closing quote. Runs without escapes are copied at once.
+	 *
+	 */
+	private String readString() throws IOException {
+		StringBuilder builder = this.builder;
+		builder.setLength( 0 );
+		while ( true ) {
+			int start = this.position;
+			while ( this.position < this.limit ) {
+				char c = this.buffer[ this.position ];
+				if ( c == '"' || c == '\\' || c == '\n' ) {
+					break;
+				}
+				this.position++;
+			}
+			builder.append( this.buffer, start, this.position - start );
+			int c = next();
+			if ( c == '"' ) {
+				return builder.toString();
+			} else if ( c == '\\' ) {
+				builder.append( readEscape() );
+			} else if ( c == '\n' ) {
+				throw malformed( "A String must not span lines." );
+			} else if ( c == -1 ) {
+				throw malformed( "The document ends within a String." );
+			} else {
+				builder.append( (char) c ); // the first character of a refilled buffer
+			}
+		}
+	}
+
+
+
+	private char readEscape() throws IOException {
+		int c = next();
+		switch ( c ) {
+		case '"':
+		case '\\':
+		case '/':
+			return (char) c;
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		case 'u':
+			int code = 0;
+			for ( int i = 0; i < 4; i++ ) {
+				int digit = Character.digit( next(), 16 );
+				if ( digit < 0 ) {
+					throw malformed( "Expected four hexadecimal digits after \\u." );
+				}
+				code = code * 16 + digit;
+			}
+			return (char) code;
+		default:
+			throw malformed( "Unknown escape: \\" + (char) c );
+		}
+	}
+
+
+
+	private String readNumber( char first ) throws IOException {
+		StringBuilder builder = this.builder;
+		builder.setLength( 0 );
+		builder.append( first );
+		while ( true ) {
+			if ( this.position == this.limit && !fill() ) {
+				break;
+			}
+			char c = this.buffer[ this.position ];
+			if ( ( c >= '0' && c <= '9' ) || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-' ) {
+				builder.append( c );
+				this.position++;
+			} else {
+				break;
+			}
+		}
+		String number = builder.toString();
+		if ( number.equals( "-" ) ) {
+			throw malformed( "A number needs a digit." );
+		}
+
+		return number;
+	}
+
+
+
+	private void readLiteral( String rest ) throws IOException {
+		for ( int i = 0; i < rest.length(); i++ ) {
+			if ( next() != rest.charAt( i ) ) {
+				throw malformed( "Unknown literal, expected true, false or null." );
+			}
+		}
+	}
+
+
+
+	private int nextNonWhitespace() throws IOException {
+		while ( true ) {
+			int c = next();
+			if ( c == '\n' ) {
+				this.line++;
+				this.lineStart = this.offset + this.position;
+			} else if ( c != ' ' && c != '\t' && c != '\r' ) {
+				return c;
+			}
+		}
+	}
+
+
+
+	/**
+	 * @return The next character, <code>-1</code> at the end of the document.
+	 *
+	 */
+	private int next() throws IOException {
+		if ( this.position == this.limit && !fill() ) {
+			return -1;
+		}
+
+		return this.buffer[ this.position++ ];
+	}
+
+
+
+	/**
+	 * @return <code>false</code> at the end of the document.
+	 *
+	 */
+	private boolean fill() throws IOException {
+		this.offset  += this.limit;
+		this.position = 0;
+		this.limit    = 0;
+		int read = this.in.read( this.buffer, 0, this.buffer.length );
+		if ( read <= 0 ) {
+			return false;
+		}
+		this.limit = read;
+
+		return true;
+	}
+
+
+
+	private void push( int context ) {
+		if ( this.depth == this.stack.length ) {
+			int[] grown = new int[ this.depth * 2 ];
+			System.arraycopy( this.stack, 0, grown, 0, this.depth );
+			this.stack = grown;
+		}
+		this.stack[ this.depth++ ] = context;
+	}
+
+
+
+	private int getColumn() {
+		return (int) ( this.offset + this.position - this.lineStart ) + 1;
+	}
+
+
+
+	private String getPosition() {
+		return " at line " + this.line + ", column " + getColumn();
+	}
+
+
+
+	private IOException malformed( String message ) {
+		return new IOException( "Malformed JSON" + getPosition() + ": " + message );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Before the root value.
+	 *
+	 */
+	private static final int DOCUMENT     = 0;
+
+
+
+	/**
+	 * After the root value.
+	 *
+	 */
+	private static final int COMPLETE     = 1;
+
+
+
+	private static final int EMPTY_OBJECT = 2;
+
+
+
+	/**
+	 * Within an object with at least one complete member.
+	 *
+	 */
+	private static final int OBJECT       = 3;
+
+
+
+	/**
+	 * Within an object, after the name of a member.
+	 *
+	 */
+	private static final int NAMED        = 4;
+
+
+
+	private static final int EMPTY_ARRAY  = 5;
+
+
+
+	private static final int ARRAY        = 6;
+
+
+
+	private static final String TRUE  = "true";
+
+
+
+	private static final String FALSE = "false";
+
+
+
+	private final Reader in;
+
+
+
+	private final char[] buffer = new char[ 8192 ];
+
+
+
+	private final StringBuilder builder = new StringBuilder();
+
+
+
+	/**
+	 * The position of the next character within the buffer.
+	 *
+	 */
+	private int position = 0;
+
+
+
+	private int limit = 0;
+
+
+
+	/**
+	 * The number of characters read before the buffer.
+	 *
+	 */
+	private long offset = 0;
+
+
+
+	private int line = 1;
+
+
+
+	/**
+	 * The offset of the first character of the current line.
+	 *
+	 */
+	private long lineStart = 0;
+
+
+
+	/**
+	 * The contexts of the document and the open objects and arrays.
+	 *
+	 */
+	private int[] stack = new int[ 16 ];
+
+
+
+	private int depth = 0;
+
+
+
+	/**
+	 * The peeked token, <code>null</code> if the next token is not read yet.
+	 *
+	 */
+	private JsonToken peeked = null;
+
+
+
+	/**
+	 * The text of the peeked name or value.
+	 *
+	 */
+	private String text = null;
+}
@@ -0,0 +1,53 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+
+/**
+ * Classifies the tokens of a JSON document, as they are peeked by a JsonReader.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>beginObject</code>, <code>endObject</code> - The braces of an object.</li>
+ * <li><code>beginArray</code>, <code>endArray</code> - The brackets of an array.</li>
+ * <li><code>name</code> - The name of a member of an object.</li>
+ * <li><code>stringValue</code>, <code>numberValue</code>, <code>booleanValue</code>, <code>nullValue</code> - A value.</li>
+ * <li><code>endDocument</code> - The end of the document, no more tokens follow.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum JsonToken {
+	  beginObject
+	, endObject
+	, beginArray
+	, endArray
+	, name
+	, stringValue
+	, numberValue
+	, booleanValue
+	, nullValue
+	, endDocument
+	;
+}
@@ -0,0 +1,379 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * A JsonWriter writes the tokens of a JSON document to a Writer, as they are passed.
+ * <p>
+ * Nothing is buffered or built in memory: a document of any size is written with the heap of its nesting depth. Commas and colons are
+ * written by the JsonWriter, misplaced tokens, like a value without a name within an object, are rejected. The Writer should be buffered,
+ * like a <code>BufferedWriter</code>.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * new JsonWriter( out ).beginObject().name( "name" ).value( "ORDERS" ).name( "columns" ).value( 12 ).endObject();
+ * </pre>
+ * <p>
+ * A JsonWriter is created for a single document and is not thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class JsonWriter {
+
+
+	/**
+	 * Creates a new instance of JsonWriter by specific parameters.
+	 *
+	 * @param out The Writer the document is written to. Must not be <code>null</code>.
+	 *
+	 */
+	public JsonWriter( Writer out ) {
+		if ( out == null ) {
+			throw new NullPointerException( "Parameter: out must not be null." );
+		}
+		this.out = out;
+	}
+
+
+
+//====================================================================================================================================================
+// JsonWriter capabilities
+//====================================================================================================================================================
+
+
+
+	public JsonWriter beginObject() throws IOException {
+		beforeValue();
+		push( EMPTY_OBJECT );
+		this.out.write( '{' );
+
+		return this;
+	}
+
+
+
+	public JsonWriter endObject() throws IOException {
+		pop( EMPTY_OBJECT, OBJECT );
+		this.out.write( '}' );
+		afterValue();
+
+		return this;
+	}
+
+
+
+	public JsonWriter beginArray() throws IOException {
+		beforeValue();
+		push( EMPTY_ARRAY );
+		this.out.write( '[' );
+
+		return this;
+	}
+
+
+
+	public JsonWriter endArray() throws IOException {
+		pop( EMPTY_ARRAY, ARRAY );
+		this.out.write( ']' );
+		afterValue();
+
+		return this;
+	}
+
+
+
+	/**
+	 * Writes the name of the next member of an object.
+	 *
+	 * @throws IllegalStateException If the writer is not within an object, or the name of the last member has no value yet.
+	 *
+	 */
+	public JsonWriter name( String name ) throws IOException {
+		if ( name == null ) {
+			throw new NullPointerException( "Parameter: name must not be null." );
+		}
+		int context = peek();
+		if ( context != EMPTY_OBJECT && context != OBJECT ) {
+			throw new IllegalStateException( "A name is written within an object only, not before: " + name );
+		}
+		if ( context == OBJECT ) {
+			this.out.write( ',' );
+		}
+		this.stack[ this.depth - 1 ] = NAMED;
+		string( name );
+		this.out.write( ':' );
+
+		return this;
+	}
+
+
+
+	/**
+	 * Writes a String value, <code>null</code> as the JSON literal.
+	 *
+	 */
+	public JsonWriter value( String value ) throws IOException {
+		if ( value == null ) {
+			return nullValue();
+		}
+		beforeValue();
+		string( value );
+		afterValue();
+
+		return this;
+	}
+
+
+
+	public JsonWriter value( long value ) throws IOException {
+		beforeValue();
+		this.out.write( Long.toString( value ) );
+		afterValue();
+
+		return this;
+	}
+
+
+
+	/**
+	 * Writes a number. Values without a JSON representation, like NaN, are written as <code>null</code>.
+	 *
+	 */
+	public JsonWriter value( double value ) throws IOException {
+		if ( Double.isNaN( value ) || Double.isInfinite( value ) ) {
+			return nullValue();
+		}
+		beforeValue();
+		this.out.write( value == Math.rint( value ) && Math.abs( value ) < 1e15 ? Long.toString( (long) value ) : Double.toString( value ) );
+		afterValue();
+
+		return this;
+	}
+
+
+
+	public JsonWriter value( boolean value ) throws IOException {
+		beforeValue();
+		this.out.write( value ? "true" : "false" );
+		afterValue();
+
+		return this;
+	}
+
+
+
+	public JsonWriter nullValue() throws IOException {
+		beforeValue();
+		this.out.write( "null" );
+		afterValue();
+
+		return this;
+	}
+
+
+
+	/**
+	 * @return The number of open objects and arrays.
+	 *
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+
+
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+
+
+
+//====================================================================================================================================================
+// JsonWriter internals
+//====================================================================================================================================================
+
+
+
+	private void beforeValue() throws IOException {
+		if ( this.depth == 0 ) {
+			if ( this.complete ) {
+				throw new IllegalStateException( "The document has a single root value, which is written already." );
+			}
+			return;
+		}
+		switch ( this.stack[ this.depth - 1 ] ) {
+		case NAMED:
+			return;
+		case ARRAY:
+			this.out.write( ',' );
+			return;
+		case EMPTY_ARRAY:
+			this.stack[ this.depth - 1 ] = ARRAY;
+			return;
+		default:
+			throw new IllegalStateException( "A value within an object needs a name." );
+		}
+	}
+
+
+
+	/**
+	 * Marks the member of the current object as complete, or the document if the value was the root.
+	 *
+	 */
+	private void afterValue() {
+		if ( this.depth == 0 ) {
+			this.complete = true;
+		} else if ( this.stack[ this.depth - 1 ] == NAMED ) {
+			this.stack[ this.depth - 1 ] = OBJECT;
+		}
+	}
+
+
+
+	private void push( int context ) {
+		if ( this.depth == this.stack.length ) {
+			int[] grown = new int[ this.depth * 2 ];
+			System.arraycopy( this.stack, 0, grown, 0, this.depth );
+			this.stack = grown;
+		}
+		this.stack[ this.depth++ ] = context;
+	}
+
+
+
+	private int peek() {
+		return this.depth == 0 ? NONE : this.stack[ this.depth - 1 ];
+	}
+
+
+
+	private void pop( int empty, int filled ) {
+		int context = peek();
+		if ( context != empty && context != filled ) {
+			throw new IllegalStateException( "The writer is not within an " + ( empty == EMPTY_OBJECT ? "object." : "array." ) );
+		}
+		this.depth--;
+	}
+
+
+
+	/**
+	 * Writes a quoted String, escaping quotes, backslashes and control characters. Runs of plain characters are written at once.
+	 *
+	 */
+	private void string( String value ) throws IOException {
+		this.out.write( '"' );
+		int start  = 0;
+		int length = value.length();
+		for ( int i = 0; i < length; i++ ) {
+			char c = value.charAt( i );
+			String escape;
+			if ( c == '"' ) {
+				escape = "\\\"";
+			} else if ( c == '\\' ) {
+				escape = "\\\\";
+			} else if ( c == '\n' ) {
+				escape = "\\n";
+			} else if ( c == '\r' ) {
+				escape = "\\r";
+			} else if ( c == '\t' ) {
+				escape = "\\t";
+			} else if ( c < 0x20 || c == '\u2028' || c == '\u2029' ) {
+				escape = String.format( "\\u%04x", Integer.valueOf( c ) );
+			} else {
+				continue;
+			}
+			this.out.write( value, start, i - start );
+			this.out.write( escape );
+			start = i + 1;
+		}
+		this.out.write( value, start, length - start );
+		this.out.write( '"' );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final int NONE         = 0;
+
+
+
+	private static final int EMPTY_OBJECT = 1;
+
+
+
+	/**
+	 * Within an object with at least one complete member.
+	 *
+	 */
+	private static final int OBJECT       = 2;
+
+
+
+	/**
+	 * Within an object, after the name of a member.
+	 *
+	 */
+	private static final int NAMED        = 3;
+
+
+
+	private static final int EMPTY_ARRAY  = 4;
+
+
+
+	private static final int ARRAY        = 5;
+
+
+
+	private final Writer out;
+
+
+
+	/**
+	 * The contexts of the open objects and arrays.
+	 *
+	 */
+	private int[] stack = new int[ 16 ];
+
+
+
+	private int depth = 0;
+
+
+
+	private boolean complete = false;
+}
@@ -0,0 +1,335 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+
+
+/**
+ * A ModelJsonExporter writes a subtree of a model as a JSON document.
+ * <p>
+ * The document holds the root of the subtree, each element with its children nested in the member <code>elements</code>, its owned elements
+ * first, then its features. Elements are written by a {@link ModelJsonWriter}, so references between the elements are written by their ids,
+ * which a ModelJsonImporter resolves on import:
+ * </p>
+ * <pre>
+ * {"format":"jcwm-json","version":1,"root":{"id":1,"type":"FunCatalog","name":"DWH",...,"elements":[{"id":2,"type":"FunSchema",...}]}}
+ * </pre>
+ * <p>
+ * The document is written element by element, as the subtree is traversed: the heap of an export is that of the nesting depth, regardless of
+ * the size of the subtree. The elements below the maximum depth are left out, an element at the maximum depth tells the number of its
+ * children only. The fields of the elements can be restricted by a projection, see {@link ModelJsonWriter#ModelJsonWriter(Set)}; a document
+ * to be imported again needs all fields.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * try ( Writer out = Files.newBufferedWriter( path ) ) {
+ *     new ModelJsonExporter().export( catalog, out );
+ * }
+ * </pre>
+ * <p>
+ * A ModelJsonExporter is immutable and can be shared by threads. The model must not be changed while it is exported.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ModelJsonImporter
+ *
+ */
+public final class ModelJsonExporter {
+
+
+	/**
+	 * Creates a new instance of ModelJsonExporter that writes all fields of the whole subtree.
+	 *
+	 */
+	public ModelJsonExporter() {
+		this( null, Integer.MAX_VALUE );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelJsonExporter by specific parameters.
+	 *
+	 * @param fields The names of the fields to be written, <code>null</code> for all fields.
+	 *
+	 * @param maxDepth The depth of the deepest written elements, <code>0</code> for the root only, <code>1</code> for the root and its
+	 * children and so on.
+	 *
+	 * @throws IllegalArgumentException If the maximum depth is negative.
+	 *
+	 */
+	public ModelJsonExporter( Set<String> fields, int maxDepth ) {
+		if ( maxDepth < 0 ) {
+			throw new IllegalArgumentException( "The parameter: maxDepth must not be negative, but is: " + maxDepth );
+		}
+		this.writer   = new ModelJsonWriter( fields );
+		this.maxDepth = maxDepth;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJsonExporter capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Writes the subtree of an element as a document. The Writer is flushed, but not closed.
+	 *
+	 * @param root The root of the subtree. Must not be <code>null</code>.
+	 *
+	 * @param out The Writer of the document, written in chunks of 64K. Must not be <code>null</code>.
+	 *
+	 * @return The number of written elements.
+	 *
+	 * @throws IOException If the document can't be written.
+	 *
+	 */
+	public long export( ModelElement root, Writer out ) throws IOException {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		if ( out == null ) {
+			throw new NullPointerException( "Parameter: out must not be null." );
+		}
+		Buffer buffered = new Buffer( out );
+		JsonWriter json = new JsonWriter( buffered );
+		json.beginObject();
+		json.name( "format" ).value( FORMAT );
+		json.name( "version" ).value( VERSION );
+		json.name( "root" );
+		long count = write( json, root, 0 );
+		json.endObject();
+		buffered.flush();
+
+		return count;
+	}
+
+
+
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+
+
+	public Set<String> getFields() {
+		return this.writer.getFields();
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ModelJsonExporter" );
+		out.append( " | fields=" + ( getFields() == null ? "all" : getFields() ) );
+		out.append( " | maxDepth=" + this.maxDepth );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJsonExporter internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The number of written elements of the subtree.
+	 *
+	 */
+	private long write( JsonWriter out, ModelElement element, int depth ) throws IOException {
+		long count = 1;
+		out.beginObject();
+		this.writer.writeMembers( out, element, true );
+		if ( depth < this.maxDepth && ModelJsonWriter.getChildCount( element ) > 0 ) {
+			out.name( "elements" ).beginArray();
+			if ( element instanceof GNamespace<?, ?, ?, ?, ?> ) {
+				count += write( out, ( (GNamespace<?, ?, ?, ?, ?>) element ).getOwnedElements(), depth + 1 );
+			}
+			if ( element instanceof GClassifier<?, ?, ?, ?, ?, ?> ) {
+				count += write( out, ( (GClassifier<?, ?, ?, ?, ?, ?>) element ).getFeatures(), depth + 1 );
+			}
+			out.endArray();
+		}
+		out.endObject();
+
+		return count;
+	}
+
+
+
+	private long write( JsonWriter out, Collection<? extends ModelElement> children, int depth ) throws IOException {
+		long count = 0;
+		for ( ModelElement child : children ) {
+			count += write( out, child, depth );
+		}
+
+		return count;
+	}
+
+
+
+	/**
+	 * Collects the small writes of a JsonWriter, a few characters each, and passes them as chunks. Unlike a BufferedWriter it does not lock per
+	 * write, which took the most time of an export. Flushing passes the collected characters, closing is left to the caller of the export.
+	 *
+	 */
+	private static final class Buffer extends Writer {
+
+
+		Buffer( Writer out ) {
+			this.out = out;
+		}
+
+
+
+		@Override
+		public void write( int c ) throws IOException {
+			if ( this.size == this.chars.length ) {
+				drain();
+			}
+			this.chars[ this.size++ ] = (char) c;
+		}
+
+
+
+		@Override
+		public void write( char[] source, int offset, int length ) throws IOException {
+			if ( length > this.chars.length - this.size ) {
+				drain();
+				if ( length > this.chars.length ) {
+					this.out.write( source, offset, length );
+					return;
+				}
+			}
+			System.arraycopy( source, offset, this.chars, this.size, length );
+			this.size += length;
+		}
+
+
+
+		@Override
+		public void write( String source, int offset, int length ) throws IOException {
+			if ( length > this.chars.length - this.size ) {
+				drain();
+				if ( length > this.chars.length ) {
+					this.out.write( source, offset, length );
+					return;
+				}
+			}
+			source.getChars( offset, offset + length, this.chars, this.size );
+			this.size += length;
+		}
+
+
+
+		@Override
+		public void flush() throws IOException {
+			drain();
+			this.out.flush();
+		}
+
+
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+
+
+		private void drain() throws IOException {
+			if ( this.size > 0 ) {
+				this.out.write( this.chars, 0, this.size );
+				this.size = 0;
+			}
+		}
+
+
+
+		private final Writer out;
+
+
+
+		private final char[] chars = new char[ BUFFER_SIZE ];
+
+
+
+		private int size = 0;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The name of the format, the member <code>format</code> of a document.
+	 *
+	 */
+	public static final String FORMAT = "jcwm-json";
+
+
+
+	/**
+	 * The version of the format, raised on incompatible changes.
+	 *
+	 */
+	public static final int VERSION = 1;
+
+
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+
+
+	private final ModelJsonWriter writer;
+
+
+
+	private final int maxDepth;
+}
@@ -0,0 +1,1184 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Column;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+import org.ogrehus.jcwm.api.resource.relational.UniqueConstraint;
+import org.ogrehus.jcwm.api.resource.relational.View;
+import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+import org.ogrehus.jcwm.api.resource.relational.util.Nullable;
+import org.ogrehus.jcwm.api.resource.relational.util.ReferentialRule;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.resource.relational.FunCatalog;
+import org.ogrehus.jcwm.impl.resource.relational.FunForeignKey;
+import org.ogrehus.jcwm.impl.resource.relational.FunPrimaryKey;
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSQLIndex;
+import org.ogrehus.jcwm.impl.resource.relational.FunSQLSimpleTypePool;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.resource.relational.FunTable;
+import org.ogrehus.jcwm.impl.resource.relational.FunTableColumn;
+import org.ogrehus.jcwm.impl.resource.relational.FunUniqueConstraint;
+import org.ogrehus.jcwm.impl.resource.relational.FunView;
+import org.ogrehus.jcwm.impl.resource.relational.FunViewColumn;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * A ModelJsonImporter reads a relational model from a document of a {@link ModelJsonExporter}.
+ * <p>
+ * The root of the document must be a Catalog or a Schema. The Schemas of a Catalog are imported in parallel: the document is read by the
+ * calling thread, one Schema at a time, and each Schema is built on a thread of its own while the next one is read. A few Schemas are held
+ * at once, so the heap of an import is that of the built model and a few Schemas, not of the document. References within a Schema are
+ * resolved as it is built; references between Schemas, like a ForeignKey to a PrimaryKey of another Schema, are resolved after all Schemas are
+ * built, cause a Schema is changed by a single thread only.
+ * </p>
+ * <p>
+ * The importer knows the relational elements: Catalogs, Schemas, Tables, Views, their Columns, PrimaryKeys, UniqueConstraints, ForeignKeys
+ * and SQLIndexes; the types of the Columns are shared by the FunSQLSimpleTypePool of their Schema. Other elements are skipped, see
+ * {@link ImportResult}.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * try ( Reader in = Files.newBufferedReader( path ) ) {
+ *     Catalog catalog = (Catalog) new ModelJsonImporter().read( in ).getRoot();
+ * }
+ * </pre>
+ * <p>
+ * A ModelJsonImporter is immutable and can be shared by threads.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ModelJsonExporter
+ *
+ */
+public final class ModelJsonImporter {
+
+
+	/**
+	 * Creates a new instance of ModelJsonImporter that builds as many Schemas in parallel as there are processors, and registers the imported
+	 * elements in the default ElementRegistry.
+	 *
+	 */
+	public ModelJsonImporter() {
+		this( Runtime.getRuntime().availableProcessors() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelJsonImporter by specific parameters.
+	 *
+	 * @param threads The number of Schemas built in parallel, <code>1</code> to build them by the calling thread.
+	 *
+	 * @throws IllegalArgumentException If the number of threads is less than <code>1</code>.
+	 *
+	 */
+	public ModelJsonImporter( int threads ) {
+		this( threads, ElementRegistry.getDefault() );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelJsonImporter by specific parameters.
+	 *
+	 * @param threads The number of Schemas built in parallel, <code>1</code> to build them by the calling thread.
+	 *
+	 * @param registry The registry of the elements of an imported root, like the registry of a repository. The elements imported into an
+	 * existing model are registered in the registry of their parent. Must not be <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException If the number of threads is less than <code>1</code>.
+	 *
+	 */
+	public ModelJsonImporter( int threads, ElementRegistry registry ) {
+		if ( threads < 1 ) {
+			throw new IllegalArgumentException( "The parameter: threads must be at least 1, but is: " + threads );
+		}
+		if ( registry == null ) {
+			throw new NullPointerException( "Parameter: registry must not be null." );
+		}
+		this.threads  = threads;
+		this.registry = registry;
+		this.factory  = new FunRelationalPackage( registry );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJsonImporter capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Reads a document and builds its model. The Reader is not closed.
+	 *
+	 * @param in The Reader of the document. Must not be <code>null</code>.
+	 *
+	 * @return The imported root with the numbers of imported and skipped elements. Can't be <code>null</code>.
+	 *
+	 * @throws IOException If the document can't be read, is malformed or no document of a ModelJsonExporter.
+	 *
+	 */
+	public ImportResult read( Reader in ) throws IOException {
+		if ( in == null ) {
+			throw new NullPointerException( "Parameter: in must not be null." );
+		}
+
+		return readDocument( in, null, null );
+	}
+
+
+
+	/**
+	 * Reads a document and builds its subtree into an element of an existing model, like a Table into a Schema. A subtree of another model
+	 * is copied by exporting it and reading the document into the new parent. The Reader is not closed.
+	 *
+	 * @param in The Reader of the document. Must not be <code>null</code>.
+	 *
+	 * @param parent The parent of the root of the document: a Catalog for a Schema, a Schema for a Table, View or SQLIndex, a Table for its
+	 * columns and keys, or a View for its columns. Must not be <code>null</code>.
+	 *
+	 * @param external The elements of the existing model referenced by the document by their ids in the document, like the PrimaryKey a
+	 * ForeignKey of the subtree references. Must not be <code>null</code>.
+	 *
+	 * @return The built root of the document with the numbers of imported and skipped elements, and the number of references found neither in
+	 * the document nor in <code>external</code>. Can't be <code>null</code>.
+	 *
+	 * @throws IOException If the document can't be read, is malformed, no document of a ModelJsonExporter, or its root can't be built into
+	 * the parent.
+	 *
+	 */
+	public ImportResult read( Reader in, ModelElement parent, Map<Integer, ? extends ModelElement> external ) throws IOException {
+		if ( in == null ) {
+			throw new NullPointerException( "Parameter: in must not be null." );
+		}
+		if ( parent == null ) {
+			throw new NullPointerException( "Parameter: parent must not be null." );
+		}
+		if ( external == null ) {
+			throw new NullPointerException( "Parameter: external must not be null." );
+		}
+
+		return readDocument( in, parent, external );
+	}
+
+
+
+	public int getThreads() {
+		return this.threads;
+	}
+
+
+
+	public ElementRegistry getRegistry() {
+		return this.registry;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ModelJsonImporter" );
+		out.append( " | threads=" + this.threads );
+		out.append( " | registry=" + this.registry );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJsonImporter internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Reads the header and the root of a document.
+	 *
+	 * @param parent The parent the root is built into, <code>null</code> if the root is a new Catalog or Schema.
+	 *
+	 */
+	private ImportResult readDocument( Reader in, ModelElement parent, Map<Integer, ? extends ModelElement> external ) throws IOException {
+		JsonReader json = new JsonReader( in );
+		ImportResult result = null;
+		if ( json.peek() != JsonToken.beginObject ) {
+			throw new IOException( "The document is no " + ModelJsonExporter.FORMAT + " document, its root is no object, but: " + json.peek() );
+		}
+		json.beginObject();
+		while ( json.hasNext() ) {
+			String name = json.nextName();
+			if ( name.equals( "format" ) ) {
+				String format = json.nextString();
+				if ( !ModelJsonExporter.FORMAT.equals( format ) ) {
+					throw new IOException( "The document is no " + ModelJsonExporter.FORMAT + " document, but: " + format );
+				}
+			} else if ( name.equals( "version" ) ) {
+				int version = json.nextInt();
+				if ( version > ModelJsonExporter.VERSION ) {
+					throw new IOException( "The version: " + version + " of the document is not supported, up to: " + ModelJsonExporter.VERSION );
+				}
+			} else if ( name.equals( "root" ) ) {
+				result = parent == null ? readRoot( json ) : readInto( json, parent, external );
+			} else {
+				json.skipValue();
+			}
+		}
+		json.endObject();
+		if ( result == null ) {
+			throw new IOException( "The document has no root." );
+		}
+
+		return result;
+	}
+
+
+
+	/**
+	 * Reads the root. The Schemas of a Catalog are built while they are read, a Schema as root is read as a whole and built then.
+	 *
+	 */
+	private ImportResult readRoot( JsonReader in ) throws IOException {
+		Node root = new Node();
+		List<FutureTask<SchemaImport>> schemas = new ArrayList<FutureTask<SchemaImport>>();
+		ExecutorService executor = this.threads > 1 ? Executors.newFixedThreadPool( this.threads ) : null;
+		Semaphore building = new Semaphore( this.threads * 2 ); // the parsed Schemas held at once
+		Map<Integer, ModelElement> elements = new ConcurrentHashMap<Integer, ModelElement>();
+		long skipped = 0;
+		try {
+			in.beginObject();
+			while ( in.hasNext() ) {
+				String name = in.nextName();
+				if ( name.equals( "elements" ) && CATALOG.equals( root.type ) ) {
+					in.beginArray();
+					while ( in.hasNext() ) {
+						Node child = readNode( in );
+						if ( SCHEMA.equals( child.type ) ) {
+							schemas.add( submit( executor, building, new SchemaImport( this.factory, child, elements ) ) );
+						} else {
+							skipped += child.count();
+						}
+					}
+					in.endArray();
+				} else {
+					readMember( in, root, name );
+				}
+			}
+			in.endObject();
+
+			ModelElement element;
+			if ( CATALOG.equals( root.type ) ) {
+				Catalog catalog = this.factory.createCatalog(
+					root.name, root.getString( "defaultCharacterSetName" ), root.getString( "defaultCollationName" )
+				);
+				setCommon( catalog, root );
+				element = catalog;
+				if ( root.id != 0 ) {
+					elements.put( Integer.valueOf( root.id ), catalog );
+				}
+				List<SchemaImport> built = join( schemas );
+				for ( SchemaImport schema : built ) {
+					catalog.addOwnedElement( schema.schema );
+				}
+				return resolve( element, built, 1, skipped, elements, Collections.<Integer, ModelElement>emptyMap() );
+			} else if ( SCHEMA.equals( root.type ) ) {
+				SchemaImport schema = new SchemaImport( this.factory, root, elements );
+				schema.call();
+				return resolve(
+					schema.schema, Collections.singletonList( schema ), 0, skipped, elements, Collections.<Integer, ModelElement>emptyMap()
+				);
+			}
+			throw new IOException( "The root of the document must be a Catalog or a Schema, but is: " + root.type );
+		} finally {
+			if ( executor != null ) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+
+
+	/**
+	 * Reads the root with its subtree and builds it into a parent of an existing model, by the calling thread.
+	 *
+	 */
+	private ImportResult readInto( JsonReader in, ModelElement parent, Map<Integer, ? extends ModelElement> external ) throws IOException {
+		Node root = readNode( in );
+		Map<Integer, ModelElement> elements = new ConcurrentHashMap<Integer, ModelElement>( external ); // to resolve columns by their names
+		Node wrapper = new Node(); // the children of the parent built by a SchemaImport
+		wrapper.children = Collections.singletonList( root );
+		ElementRegistry registry = parent instanceof GFunModelElement<?, ?, ?, ?> ? ( (GFunModelElement<?, ?, ?, ?>) parent ).getRegistry() : null;
+		FunRelationalPackage factory = registry == null ? this.factory : new FunRelationalPackage( registry );
+
+		SchemaImport schema;
+		if ( parent instanceof Catalog && SCHEMA.equals( root.type ) ) {
+			schema = new SchemaImport( factory, root, elements );
+			schema.call();
+			( (Catalog) parent ).addOwnedElement( schema.schema );
+		} else if ( parent instanceof FunSchema && ( TABLE.equals( root.type ) || VIEW.equals( root.type ) || INDEX.equals( root.type ) ) ) {
+			schema = new SchemaImport( factory, wrapper, elements, (FunSchema) parent, null );
+			schema.call();
+		} else if ( parent instanceof FunTable && ( (FunTable) parent ).getSchema() instanceof FunSchema && (
+			   TABLE_COLUMN.equals( root.type ) || PRIMARY_KEY.equals( root.type )
+			|| UNIQUE_CONSTRAINT.equals( root.type ) || FOREIGN_KEY.equals( root.type )
+		) ) {
+			schema = new SchemaImport( factory, wrapper, elements, (FunSchema) ( (FunTable) parent ).getSchema(), (FunTable) parent );
+			schema.call();
+		} else if ( parent instanceof FunView && ( (FunView) parent ).getSchema() instanceof FunSchema && VIEW_COLUMN.equals( root.type ) ) {
+			schema = new SchemaImport( factory, wrapper, elements, (FunSchema) ( (FunView) parent ).getSchema(), (FunView) parent );
+			schema.call();
+		} else {
+			throw new IOException( "A " + root.type + " can't be imported into a " + parent.getClass().getSimpleName() );
+		}
+
+		ImportResult result = resolve( parent, Collections.singletonList( schema ), 0, 0, elements, external );
+		ModelElement built = root.id == 0 ? null : result.getElement( root.id );
+		if ( built == null ) {
+			throw new IOException( "The " + root.type + ": " + root.name + " was skipped, see the ImportResult." );
+		}
+
+		return new ImportResult( built, result.getImported(), result.getSkipped(), result.getUnresolved(), elements );
+	}
+
+
+
+	private static FutureTask<SchemaImport> submit( ExecutorService executor, final Semaphore building, final SchemaImport schema )
+	throws IOException {
+		try {
+			building.acquire();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException( "The import was interrupted." );
+		}
+		FutureTask<SchemaImport> task = new FutureTask<SchemaImport>( new Callable<SchemaImport>() {
+			public SchemaImport call() {
+				try {
+					return schema.call();
+				} finally {
+					building.release();
+				}
+			}
+		} );
+		if ( executor == null ) {
+			task.run();
+		} else {
+			executor.execute( task );
+		}
+
+		return task;
+	}
+
+
+
+	private static List<SchemaImport> join( List<FutureTask<SchemaImport>> tasks ) throws IOException {
+		List<SchemaImport> built = new ArrayList<SchemaImport>( tasks.size() );
+		for ( FutureTask<SchemaImport> task : tasks ) {
+			try {
+				built.add( task.get() );
+			} catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException( "The import was interrupted." );
+			} catch ( ExecutionException e ) {
+				if ( e.getCause() instanceof RuntimeException ) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IOException( "A Schema can't be imported.", e.getCause() );
+			}
+		}
+
+		return built;
+	}
+
+
+
+	/**
+	 * Resolves the references between the Schemas, after all are built, by the calling thread.
+	 *
+	 */
+	private static ImportResult resolve(
+		  ModelElement                           root
+		, List<SchemaImport>                     schemas
+		, long                                   imported
+		, long                                   skipped
+		, Map<Integer, ModelElement>             elements
+		, Map<Integer, ? extends ModelElement>   external
+	) {
+		Map<Integer, ModelElement> shared = new HashMap<Integer, ModelElement>( external );
+		for ( SchemaImport schema : schemas ) {
+			shared.putAll( schema.shared );
+		}
+		long unresolved = 0;
+		for ( SchemaImport schema : schemas ) {
+			schema.resolve( shared );
+			imported   += schema.imported;
+			skipped    += schema.skipped;
+			unresolved += schema.unresolved;
+		}
+
+		return new ImportResult( root, imported, skipped, unresolved, elements );
+	}
+
+
+
+	/**
+	 * Reads an element with its subtree.
+	 *
+	 */
+	private static Node readNode( JsonReader in ) throws IOException {
+		Node node = new Node();
+		in.beginObject();
+		while ( in.hasNext() ) {
+			readMember( in, node, in.nextName() );
+		}
+		in.endObject();
+
+		return node;
+	}
+
+
+
+	private static void readMember( JsonReader in, Node node, String name ) throws IOException {
+		if ( name.equals( "id" ) ) {
+			node.id = in.nextInt();
+		} else if ( name.equals( "type" ) ) {
+			node.type = in.nextString();
+		} else if ( name.equals( "name" ) ) {
+			node.name = in.nextString();
+		} else if ( name.equals( "elements" ) ) {
+			node.children = new ArrayList<Node>();
+			in.beginArray();
+			while ( in.hasNext() ) {
+				node.children.add( readNode( in ) );
+			}
+			in.endArray();
+		} else if ( ModelJsonWriter.FIELDS.contains( name ) ) {
+			in.skipValue(); // derived, like the qualified name
+		} else {
+			node.properties.put( name.startsWith( "_" ) ? name.substring( 1 ) : name, in.readValue() );
+		}
+	}
+
+
+
+	private static void setCommon( ModelElement element, Node node ) {
+		String visibility = node.getString( "visibility" );
+		if ( visibility != null ) {
+			element.setVisibility( Visibility.valueOf( visibility ) );
+		}
+		String remarks = node.getString( "remarks" );
+		if ( remarks != null ) {
+			element.setRemarks( remarks );
+		}
+	}
+
+
+
+	/**
+	 * An element as read from the document: its id, type, name, the values of its properties and its children.
+	 *
+	 */
+	private static final class Node {
+
+
+		Node() {
+			// members are read one by one
+		}
+
+
+
+		long count() {
+			long count = 1;
+			for ( Node child : getChildren() ) {
+				count += child.count();
+			}
+
+			return count;
+		}
+
+
+
+		List<Node> getChildren() {
+			return this.children == null ? Collections.<Node>emptyList() : this.children;
+		}
+
+
+
+		String getString( String property ) {
+			Object value = this.properties.get( property );
+
+			return value == null ? null : value.toString();
+		}
+
+
+
+		Boolean getBoolean( String property, Boolean defaultValue ) {
+			Object value = this.properties.get( property );
+
+			return value instanceof Boolean ? (Boolean) value : defaultValue;
+		}
+
+
+
+		Integer getInteger( String property ) {
+			return getInteger( this.properties, property );
+		}
+
+
+
+		/**
+		 * @return The id of a referenced element, <code>0</code> if the property references no element.
+		 *
+		 */
+		int getReference( String property ) {
+			return getId( this.properties.get( property ) );
+		}
+
+
+
+		/**
+		 * @return The referenced elements of a collection property, each a Map of the fields of the reference.
+		 *
+		 */
+		List<?> getReferences( String property ) {
+			Object value = this.properties.get( property );
+
+			return value instanceof List<?> ? (List<?>) value : Collections.emptyList();
+		}
+
+
+
+		static Integer getInteger( Map<?, ?> values, String property ) {
+			Object value = values.get( property );
+
+			return value instanceof Number ? Integer.valueOf( ( (Number) value ).intValue() ) : null;
+		}
+
+
+
+		static Short getShort( Map<?, ?> values, String property ) {
+			Object value = values.get( property );
+
+			return value instanceof Number ? Short.valueOf( ( (Number) value ).shortValue() ) : null;
+		}
+
+
+
+		static int getId( Object reference ) {
+			if ( reference instanceof Map<?, ?> ) {
+				Integer id = getInteger( (Map<?, ?>) reference, "id" );
+				return id == null ? 0 : id.intValue();
+			}
+
+			return 0;
+		}
+
+
+
+		int id = 0;
+
+
+
+		String type = null;
+
+
+
+		String name = null;
+
+
+
+		final Map<String, Object> properties = new HashMap<String, Object>();
+
+
+
+		List<Node> children = null;
+	}
+
+
+
+	/**
+	 * The import of a Schema. The Schema and its subtree are built by a single thread, its references to other Schemas are resolved after all
+	 * Schemas are built.
+	 *
+	 */
+	private static final class SchemaImport {
+
+
+		SchemaImport( FunRelationalPackage factory, Node node, Map<Integer, ModelElement> elements ) {
+			this( factory, node, elements, null, null );
+		}
+
+
+
+		/**
+		 * @param factory The factory of the built elements, of the registry they are registered in.
+		 *
+		 * @param target The existing Schema the children of the node are built into, <code>null</code> to build a new Schema.
+		 *
+		 * @param columnSet The existing Table or View of the Schema the children of the node are built into, <code>null</code> to build
+		 * the children into the Schema.
+		 *
+		 */
+		SchemaImport( FunRelationalPackage factory, Node node, Map<Integer, ModelElement> elements, FunSchema target, Object columnSet ) {
+			this.factory   = factory;
+			this.node      = node;
+			this.elements  = elements;
+			this.target    = target;
+			this.columnSet = columnSet;
+		}
+
+
+
+		/**
+		 * Builds the Schema, its Tables and Views with their columns and keys, then its SQLIndexes and ForeignKeys, which reference the
+		 * Tables and keys.
+		 *
+		 */
+		SchemaImport call() {
+			FunSchema schema = this.target;
+			if ( schema == null ) {
+				schema = (FunSchema) this.factory.createSchema( this.node.name );
+				setCommon( schema, this.node );
+				this.imported++;
+				register( this.node, schema, true );
+			}
+			this.schema = schema;
+			List<Node> indexes = new ArrayList<Node>();
+			if ( this.columnSet instanceof Table ) {
+				buildTableChildren( schema, (Table) this.columnSet, this.node );
+			} else if ( this.columnSet instanceof View ) {
+				buildViewColumns( schema, (View) this.columnSet, this.node );
+			}
+			for ( Node child : this.columnSet == null ? this.node.getChildren() : Collections.<Node>emptyList() ) {
+				if ( TABLE.equals( child.type ) ) {
+					buildTable( schema, child );
+				} else if ( VIEW.equals( child.type ) ) {
+					buildView( schema, child );
+				} else if ( INDEX.equals( child.type ) ) {
+					indexes.add( child );
+				} else {
+					this.skipped += child.count();
+				}
+			}
+			for ( Node index : indexes ) {
+				if ( !buildIndex( index, this.shared ) ) {
+					this.pending.add( index );
+				}
+			}
+			for ( Node foreignKey : new ArrayList<Node>( this.foreignKeys.keySet() ) ) {
+				if ( buildForeignKey( foreignKey, this.shared ) ) {
+					this.foreignKeys.remove( foreignKey );
+				} else {
+					this.pending.add( foreignKey );
+				}
+			}
+			this.node = null; // the parsed subtree is built
+
+			return this;
+		}
+
+
+
+		/**
+		 * Builds the SQLIndexes and ForeignKeys referencing elements of other Schemas.
+		 *
+		 */
+		void resolve( Map<Integer, ModelElement> shared ) {
+			for ( Node pending : this.pending ) {
+				boolean built = INDEX.equals( pending.type ) ? buildIndex( pending, shared ) : buildForeignKey( pending, shared );
+				if ( !built ) {
+					this.skipped++;
+					this.unresolved++;
+				}
+			}
+			this.pending.clear();
+			this.foreignKeys.clear();
+		}
+
+
+
+		private void buildTable( FunSchema schema, Node node ) {
+			Table table = this.factory.createTable(
+				node.name, node.getBoolean( "isSystem", Boolean.FALSE ), node.getBoolean( "isTemporary", Boolean.FALSE )
+			);
+			String temporaryScope = node.getString( "temporaryScope" );
+			if ( temporaryScope != null ) {
+				table.setTemporaryScope( temporaryScope );
+			}
+			setCommon( table, node );
+			schema.addOwnedElement( table );
+			this.imported++;
+			register( node, table, true );
+			buildTableChildren( schema, table, node );
+		}
+
+
+
+		/**
+		 * Builds the columns and keys of a Table, the ForeignKeys are built after the keys of all Tables.
+		 *
+		 */
+		private void buildTableChildren( FunSchema schema, Table table, Node node ) {
+			List<Node> keys = new ArrayList<Node>();
+			for ( Node child : node.getChildren() ) {
+				if ( TABLE_COLUMN.equals( child.type ) ) {
+					SQLSimpleType type = getType( schema, child );
+					if ( type == null || !table.addColumn( child.name, type ).booleanValue() ) {
+						this.skipped++;
+						continue;
+					}
+					TableColumn column = table.getColumn( child.name );
+					setColumn( column, child );
+					this.imported++;
+					register( child, column, false );
+				} else if ( PRIMARY_KEY.equals( child.type ) || UNIQUE_CONSTRAINT.equals( child.type ) || FOREIGN_KEY.equals( child.type ) ) {
+					keys.add( child ); // after the columns they span
+				} else {
+					this.skipped += child.count();
+				}
+			}
+			for ( Node key : keys ) {
+				if ( FOREIGN_KEY.equals( key.type ) ) {
+					this.foreignKeys.put( key, table ); // after the keys of all Tables
+					continue;
+				}
+				Deferability deferability = getEnum( Deferability.class, key.getString( "deferability" ), Deferability.getDefault() );
+				UniqueConstraint unique;
+				if ( PRIMARY_KEY.equals( key.type ) ) {
+					PrimaryKey primaryKey = this.factory.createPrimaryKey( key.name, deferability );
+					table.setPrimaryKey( primaryKey );
+					unique = primaryKey;
+				} else {
+					unique = this.factory.createUniqueConstraint( key.name, deferability );
+					table.addUniqueConstraint( unique );
+				}
+				setCommon( unique, key );
+				for ( Object feature : key.getReferences( "features" ) ) {
+					String name = getColumnName( feature );
+					TableColumn column = name == null ? null : table.getColumn( name );
+					if ( column == null ) {
+						this.unresolved++;
+					} else {
+						unique.addFeature( column );
+					}
+				}
+				this.imported++;
+				register( key, unique, true );
+			}
+		}
+
+
+
+		private void buildView( FunSchema schema, Node node ) {
+			View view = this.factory.createView( node.name );
+			Boolean readOnly = node.getBoolean( "readOnly", null );
+			if ( readOnly != null ) {
+				view.setReadOnly( readOnly );
+			}
+			Boolean checkOption = node.getBoolean( "checkOption", null );
+			if ( checkOption != null ) {
+				view.setCheckOption( checkOption );
+			}
+			setCommon( view, node );
+			schema.addOwnedElement( view );
+			this.imported++;
+			register( node, view, true );
+			buildViewColumns( schema, view, node );
+		}
+
+
+
+		private void buildViewColumns( FunSchema schema, View view, Node node ) {
+			for ( Node child : node.getChildren() ) {
+				SQLSimpleType type = VIEW_COLUMN.equals( child.type ) ? getType( schema, child ) : null;
+				if ( type == null || !view.addColumn( child.name, type ).booleanValue() ) {
+					this.skipped += child.count();
+					continue;
+				}
+				setColumn( view.getColumn( child.name ), child );
+				this.imported++;
+				register( child, view.getColumn( child.name ), false );
+			}
+		}
+
+
+
+		/**
+		 * @return <code>false</code> if the spanned Table is not known yet.
+		 *
+		 */
+		private boolean buildIndex( Node node, Map<Integer, ModelElement> known ) {
+			ModelElement spanned = known.get( Integer.valueOf( node.getReference( "spannedClass" ) ) );
+			if ( !( spanned instanceof Table ) ) {
+				return false;
+			}
+			Table table = (Table) spanned;
+			SQLIndex index = this.factory.createSQLIndex(
+				  node.name
+				, node.getBoolean( "isUnique", Boolean.FALSE )
+				, node.getBoolean( "isSorted", Boolean.FALSE )
+				, node.getBoolean( "isPartitioning", Boolean.FALSE )
+				, table
+				, node.getString( "filterCondition" ) == null ? "" : node.getString( "filterCondition" )
+				, node.getBoolean( "isNullable", Boolean.TRUE )
+				, node.getBoolean( "autoUpdate", Boolean.TRUE )
+			);
+			setCommon( index, node );
+			for ( Object feature : node.getReferences( "indexedFeatures" ) ) {
+				Object name = feature instanceof Map<?, ?> ? ( (Map<?, ?>) feature ).get( "qualifiedName" ) : null;
+				TableColumn column = name == null ? null : table.getColumn( name.toString() ); // an SQLIndexColumn is named by its column
+				if ( column == null ) {
+					this.unresolved++;
+				} else {
+					index.addIndexedFeature( column );
+					register( Node.getId( feature ), index.getIndexedFeature( column.getSimpleName() ) );
+				}
+			}
+			this.schema.addSQLIndex( index );
+			this.imported++;
+			register( node, index, false );
+
+			return true;
+		}
+
+
+
+		/**
+		 * @return <code>false</code> if the referenced UniqueConstraint is not known yet.
+		 *
+		 */
+		private boolean buildForeignKey( Node node, Map<Integer, ModelElement> known ) {
+			ModelElement unique = known.get( Integer.valueOf( node.getReference( "uniqueKey" ) ) );
+			if ( !( unique instanceof UniqueConstraint ) ) {
+				return false;
+			}
+			Table table = this.foreignKeys.get( node );
+			ForeignKey foreignKey = this.factory.createForeignKey(
+				  node.name
+				, (UniqueConstraint) unique
+				, getEnum( ReferentialRule.class, node.getString( "deleteRule" ), ReferentialRule.getDefault() )
+				, getEnum( ReferentialRule.class, node.getString( "updateRule" ), ReferentialRule.getDefault() )
+				, getEnum( Deferability.class, node.getString( "deferability" ), Deferability.getDefault() )
+			);
+			setCommon( foreignKey, node );
+			for ( Object feature : node.getReferences( "features" ) ) {
+				String name = getColumnName( feature );
+				TableColumn column = name == null ? null : table.getColumn( name );
+				if ( column == null ) {
+					this.unresolved++;
+				} else {
+					foreignKey.addFeature( column );
+				}
+			}
+			table.addForeignKey( foreignKey );
+			this.imported++;
+			register( node, foreignKey, false );
+
+			return true;
+		}
+
+
+
+		/**
+		 * @return The pooled type of a column, <code>null</code> if it is no SQLSimpleType.
+		 *
+		 */
+		private SQLSimpleType getType( FunSchema schema, Node column ) {
+			Object type = column.properties.get( "type" );
+			if ( !( type instanceof Map<?, ?> ) ) {
+				return null;
+			}
+			Map<?, ?> descriptor = (Map<?, ?>) type;
+			Integer typeNumber = Node.getInteger( descriptor, "typeNumber" );
+			Object name = descriptor.get( "name" );
+			if ( typeNumber == null || name == null ) {
+				return null; // a distinct or structured type
+			}
+			Integer precision = Node.getInteger( descriptor, "numericPrecision" );
+			Integer length    = Node.getInteger( descriptor, "characterMaximumLength" );
+			FunSQLSimpleTypePool pool = schema.getSQLSimpleTypePool();
+			try {
+				SQLSimpleType pooled = pool.get(
+					  typeNumber
+					, name.toString()
+					, precision
+					, length == null ? precision : length // some types keep their length as precision, like VARCHAR
+					, Node.getShort( descriptor, "numericScale" )
+					, Node.getShort( descriptor, "numericPrecisionRadix" )
+					, Node.getInteger( descriptor, "characterOctetLength" )
+				);
+				register( Node.getId( descriptor ), pooled );
+				return pooled;
+			} catch ( IllegalArgumentException e ) {
+				return null; // no simple type
+			}
+		}
+
+
+
+		private static void setColumn( Column column, Node node ) {
+			String nullable = node.getString( "isNullable" );
+			if ( nullable != null ) {
+				column.setNullable( getEnum( Nullable.class, nullable, Nullable.getDefault() ) );
+			}
+			if ( node.getInteger( "length" ) != null ) {
+				column.setLength( node.getInteger( "length" ) );
+			}
+			if ( node.getInteger( "precision" ) != null ) {
+				column.setPrecision( node.getInteger( "precision" ) );
+			}
+			if ( node.getInteger( "scale" ) != null ) {
+				column.setScale( node.getInteger( "scale" ) );
+			}
+			if ( node.getString( "defaultValue" ) != null ) {
+				column.setDefaultValue( node.getString( "defaultValue" ) );
+			}
+			if ( node.getBoolean( "autoIncrement", null ) != null ) {
+				column.setAutoIncrement( node.getBoolean( "autoIncrement", null ) );
+			}
+			if ( node.getString( "characterSetName" ) != null ) {
+				column.setCharacterSetName( node.getString( "characterSetName" ) );
+			}
+			if ( node.getString( "collationName" ) != null ) {
+				column.setCollationName( node.getString( "collationName" ) );
+			}
+			setCommon( column, node );
+		}
+
+
+
+		/**
+		 * Remembers an element by its id, and shares it if it may be referenced by other Schemas, like a Table or a key.
+		 *
+		 */
+		private void register( Node node, ModelElement element, boolean shared ) {
+			register( node.id, element );
+			if ( shared ) {
+				this.shared.put( Integer.valueOf( node.id ), element );
+			}
+		}
+
+
+
+		private void register( int id, ModelElement element ) {
+			if ( id != 0 ) {
+				this.elements.put( Integer.valueOf( id ), element );
+			}
+		}
+
+
+
+		/**
+		 * @return The name of a referenced column of the Schema, <code>null</code> if it is unknown.
+		 *
+		 */
+		private String getColumnName( Object reference ) {
+			ModelElement column = this.elements.get( Integer.valueOf( Node.getId( reference ) ) );
+			return column == null ? null : column.getSimpleName();
+		}
+
+
+
+		private static <E extends Enum<E>> E getEnum( Class<E> type, String name, E defaultValue ) {
+			if ( name == null ) {
+				return defaultValue;
+			}
+			try {
+				return Enum.valueOf( type, name );
+			} catch ( IllegalArgumentException e ) {
+				return defaultValue;
+			}
+		}
+
+
+
+		private final FunRelationalPackage factory;
+
+
+
+		private Node node;
+
+
+
+		private FunSchema schema = null;
+
+
+
+		/**
+		 * The existing Schema the children are built into, <code>null</code> if the Schema is built.
+		 *
+		 */
+		private final FunSchema target;
+
+
+
+		/**
+		 * The existing Table or View the children are built into, <code>null</code> if they are built into the Schema.
+		 *
+		 */
+		private final Object columnSet;
+
+
+
+		/**
+		 * The built Tables and keys by their ids in the document, which may be referenced by SQLIndexes, ForeignKeys and other Schemas.
+		 *
+		 */
+		private final Map<Integer, ModelElement> shared = new HashMap<Integer, ModelElement>();
+
+
+
+		/**
+		 * The built elements of all Schemas by their ids in the document, to resolve the columns of keys by their names within their Tables,
+		 * and the elements by the ImportResult.
+		 *
+		 */
+		private final Map<Integer, ModelElement> elements;
+
+
+
+		/**
+		 * The ForeignKeys to be built, with their Tables.
+		 *
+		 */
+		private final Map<Node, Table> foreignKeys = new HashMap<Node, Table>();
+
+
+
+		/**
+		 * The SQLIndexes and ForeignKeys referencing elements of other Schemas.
+		 *
+		 */
+		private final List<Node> pending = new ArrayList<Node>();
+
+
+
+		private long imported = 0;
+
+
+
+		private long skipped = 0;
+
+
+
+		private long unresolved = 0;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final String CATALOG           = FunCatalog.class.getSimpleName();
+
+
+
+	private static final String SCHEMA            = FunSchema.class.getSimpleName();
+
+
+
+	private static final String TABLE             = FunTable.class.getSimpleName();
+
+
+
+	private static final String VIEW              = FunView.class.getSimpleName();
+
+
+
+	private static final String TABLE_COLUMN      = FunTableColumn.class.getSimpleName();
+
+
+
+	private static final String VIEW_COLUMN       = FunViewColumn.class.getSimpleName();
+
+
+
+	private static final String PRIMARY_KEY       = FunPrimaryKey.class.getSimpleName();
+
+
+
+	private static final String UNIQUE_CONSTRAINT = FunUniqueConstraint.class.getSimpleName();
+
+
+
+	private static final String FOREIGN_KEY       = FunForeignKey.class.getSimpleName();
+
+
+
+	private static final String INDEX             = FunSQLIndex.class.getSimpleName();
+
+
+
+	private final int threads;
+
+
+
+	private final ElementRegistry registry;
+
+
+
+	/**
+	 * The factory of the imported roots, of the registry.
+	 *
+	 */
+	private final FunRelationalPackage factory;
+}
@@ -0,0 +1,328 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.diff.ModelStructure;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+import org.ogrehus.jcwm.impl.util.render.PropertyVisitor;
+
+
+/**
+ * A ModelJsonWriter writes ModelElements as JSON objects to a JsonWriter.
+ * <p>
+ * An element is written with its id in its ElementRegistry, the simple name of its class as <code>type</code>, its name, its
+ * qualified name, the id of its parent, the number of its children and the properties it describes, see
+ * {@link GFunModelElement#describe(ModelDescription)}. A property named like one of these fields, like the type of a Column, is written with
+ * a leading underscore, <code>_type</code>. Referenced elements are written as references, objects with their id, type and qualified name, so
+ * a client can follow them without the referenced element being written. A referenced element without a parent, like a shared type of a
+ * FunSQLSimpleTypePool, is found nowhere else and is written in full instead. The children, the owned elements and features, are not written
+ * with the element, they are written by the caller one by one, which keeps the document streamed.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * {"id":42,"type":"FunTable","name":"ORDERS","qualifiedName":"SALES.ORDERS","parent":7,"children":14,"isSystem":false,...}
+ * </pre>
+ * <p>
+ * The written fields can be restricted by a projection, like <code>name</code> and <code>isNullable</code> only. A ModelJsonWriter is immutable
+ * and can be shared by threads, as long as each thread writes to its own JsonWriter.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelJsonWriter {
+
+
+	/**
+	 * Creates a new instance of ModelJsonWriter that writes all fields.
+	 *
+	 */
+	public ModelJsonWriter() {
+		this( null );
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelJsonWriter by specific parameters.
+	 *
+	 * @param fields The names of the fields to be written, like <code>id</code>, <code>name</code> or a property like <code>isNullable</code>.
+	 * <code>null</code> writes all fields.
+	 *
+	 */
+	public ModelJsonWriter( Set<String> fields ) {
+		this.fields = fields == null ? null : Collections.unmodifiableSet( fields );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJsonWriter capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Writes an element as an object with the projected fields.
+	 *
+	 */
+	public void writeElement( JsonWriter out, ModelElement element ) throws IOException {
+		writeElement( out, element, true );
+	}
+
+
+
+	/**
+	 * Writes a reference to an element: an object with its id, type and qualified name, regardless of the projection.
+	 *
+	 */
+	public void writeReference( JsonWriter out, ModelElement element ) throws IOException {
+		out.beginObject();
+		out.name( "id" ).value( getId( element ) );
+		out.name( "type" ).value( element.getClass().getSimpleName() );
+		out.name( "qualifiedName" ).value( element.getQualifiedName() );
+		out.endObject();
+	}
+
+
+
+	/**
+	 * Writes the value of a property: references by {@link #writeReference(JsonWriter, ModelElement)}, collections as arrays, numbers and
+	 * Booleans as JSON literals, enumerations by their name and anything else by its String.
+	 *
+	 */
+	public void writeValue( JsonWriter out, Object value ) throws IOException {
+		writeValue( out, value, true );
+	}
+
+
+
+	/**
+	 * @return The number of owned elements and features of an element.
+	 *
+	 */
+	public static int getChildCount( ModelElement element ) {
+		int count = 0;
+		if ( element instanceof GNamespace<?, ?, ?, ?, ?> ) {
+			count += ( (GNamespace<?, ?, ?, ?, ?>) element ).getOwnedElements().size();
+		}
+		if ( element instanceof GClassifier<?, ?, ?, ?, ?, ?> ) {
+			count += ( (GClassifier<?, ?, ?, ?, ?, ?>) element ).getFeatures().size();
+		}
+
+		return count;
+	}
+
+
+
+	/**
+	 * @return The id of an element in its ElementRegistry, <code>0</code> for values like Names.
+	 *
+	 */
+	public static int getId( ModelElement element ) {
+		return element instanceof GFunModelElement<?, ?, ?, ?> ? ( (GFunModelElement<?, ?, ?, ?>) element ).getId()
+			: ElementRegistry.getDefault().getId( element );
+	}
+
+
+
+	/**
+	 * @return The names of the written fields, <code>null</code> for all fields.
+	 *
+	 */
+	public Set<String> getFields() {
+		return this.fields;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJsonWriter internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Writes the projected fields of an element as members of the current object, so an exporter can append members of its own, like the
+	 * children.
+	 *
+	 * @param inline <code>true</code> if referenced elements without a parent are written in full, <code>false</code> if they are written as
+	 * references, within an element written in full as a value.
+	 *
+	 */
+	void writeMembers( JsonWriter out, ModelElement element, boolean inline ) throws IOException {
+		if ( isProjected( "id" ) ) {
+			out.name( "id" ).value( getId( element ) );
+		}
+		if ( isProjected( "type" ) ) {
+			out.name( "type" ).value( element.getClass().getSimpleName() );
+		}
+		if ( isProjected( "name" ) ) {
+			out.name( "name" ).value( element.getSimpleName() );
+		}
+		if ( isProjected( "qualifiedName" ) ) {
+			out.name( "qualifiedName" ).value( element.getQualifiedName() );
+		}
+		if ( isProjected( "parent" ) ) {
+			ModelElement parent = ModelStructure.getParent( element );
+			out.name( "parent" );
+			if ( parent == null ) {
+				out.nullValue();
+			} else {
+				out.value( getId( parent ) );
+			}
+		}
+		if ( isProjected( "children" ) ) {
+			out.name( "children" ).value( getChildCount( element ) );
+		}
+		for ( Map.Entry<String, Object> property : getProperties( element ).entrySet() ) {
+			out.name( FIELDS.contains( property.getKey() ) ? '_' + property.getKey() : property.getKey() );
+			writeValue( out, property.getValue(), inline );
+		}
+	}
+
+
+
+	private void writeElement( JsonWriter out, ModelElement element, boolean inline ) throws IOException {
+		out.beginObject();
+		writeMembers( out, element, inline );
+		out.endObject();
+	}
+
+
+
+	private void writeValue( JsonWriter out, Object value, boolean inline ) throws IOException {
+		if ( value == null ) {
+			out.nullValue();
+		} else if ( value instanceof ModelElement && getId( (ModelElement) value ) != 0 ) {
+			if ( inline && ModelStructure.getParent( (ModelElement) value ) == null ) {
+				writeElement( out, (ModelElement) value, false ); // a shared type, found nowhere else
+			} else {
+				writeReference( out, (ModelElement) value );
+			}
+		} else if ( value instanceof ModelElement ) {
+			out.value( ( (ModelElement) value ).getSimpleName() ); // a value like a Name
+		} else if ( value instanceof Collection<?> ) {
+			out.beginArray();
+			for ( Object member : (Collection<?>) value ) {
+				writeValue( out, member, inline );
+			}
+			out.endArray();
+		} else if ( value instanceof Boolean ) {
+			out.value( ( (Boolean) value ).booleanValue() );
+		} else if ( value instanceof Double || value instanceof Float ) {
+			out.value( ( (Number) value ).doubleValue() );
+		} else if ( value instanceof Number ) {
+			out.value( ( (Number) value ).longValue() );
+		} else if ( value instanceof Enum<?> ) {
+			out.value( ( (Enum<?>) value ).name() );
+		} else {
+			out.value( value.toString() );
+		}
+	}
+
+
+
+	private boolean isProjected( String field ) {
+		return this.fields == null || this.fields.contains( field );
+	}
+
+
+
+	/**
+	 * @return The projected properties an element describes, without the name, the parent and the children, which are written as fields of
+	 * their own. The most specific class describes a property first.
+	 *
+	 */
+	private Map<String, Object> getProperties( final ModelElement element ) {
+		final Map<String, Object> properties = new LinkedHashMap<String, Object>();
+		if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+			( (GFunModelElement<?, ?, ?, ?>) element ).describe( new ModelDescription( new PropertyVisitor() {
+				public void visit( String name, Object value ) {
+					if ( isProjected( name ) && !STRUCTURE.contains( name ) && !properties.containsKey( name ) && !isChildren( element, value ) ) {
+						properties.put( name, value );
+					}
+				}
+			} ) );
+		}
+
+		return properties;
+	}
+
+
+
+	private static boolean isChildren( ModelElement element, Object value ) {
+		if ( value instanceof Collection<?> ) {
+			for ( Object member : (Collection<?>) value ) {
+				return member instanceof ModelElement && ModelStructure.getParent( (ModelElement) member ) == element;
+			}
+		}
+
+		return false;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The names of the fields written for each element, besides its properties. <code>elements</code> holds the children in an export, see
+	 * ModelJsonExporter.
+	 *
+	 */
+	static final Set<String> FIELDS = Collections.unmodifiableSet( new HashSet<String>( Arrays.asList(
+		"id", "type", "name", "qualifiedName", "parent", "children", "elements"
+	) ) );
+
+
+
+	/**
+	 * The described properties written as fields of their own.
+	 *
+	 */
+	private static final Set<String> STRUCTURE = Collections.unmodifiableSet( new HashSet<String>( Arrays.asList( "name", "namespace", "owner" ) ) );
+
+
+
+	private final Set<String> fields;
+}
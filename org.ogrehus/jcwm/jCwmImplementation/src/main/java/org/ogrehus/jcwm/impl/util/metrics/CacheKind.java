@@ -0,0 +1,49 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.metrics;
+
+/**
+ * Classifies the caches of the model, whose hits and misses are counted by ModelMetrics.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>classifierClosure</code> - The inheritance closure of a Classifier, valid until a hierarchy or feature changes.</li>
+ * <li><code>typeMappingIndex</code> - The index of the TypeMappings of a TypeSystem by source type.</li>
+ * <li><code>typeMappingChain</code> - The memoized chains of a TypeMappingResolver.</li>
+ * <li><code>typeSystemRegistry</code> - The TypeSystems of a SoftwareSystem by name and version.</li>
+ * <li><code>sqlSimpleTypePool</code> - The shared SQLSimpleTypes of a FunSQLSimpleTypePool.</li>
+ * <li><code>queryGetter</code> - The getters resolved by reflection for properties of OCL queries.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum CacheKind {
+	  classifierClosure
+	, typeMappingIndex
+	, typeMappingChain
+	, typeSystemRegistry
+	, sqlSimpleTypePool
+	, queryGetter
+	;
+}
@@ -0,0 +1,547 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+
+
+/**
+ * ModelMetrics counts what the model does at runtime: created elements per class, reported changes, cache hits and misses, traversals,
+ * evaluations of CwmConstraints and bidirectional links completed via reflection.
+ * <p>
+ * Metrics are enabled by the system property <code>org.ogrehus.jcwm.metrics=true</code> at startup. While disabled, each instrumented point
+ * reads a static final field, which the JIT folds away, so the model does not pay for metrics nobody reads. While enabled, counters are
+ * LongAdders, which scale with concurrent harvesters, and the counters are registered as MXBean <code>org.ogrehus.jcwm:type=ModelMetrics</code>.
+ * Traversals, evaluations and reflective links are also reported as flight recorder events <code>org.ogrehus.jcwm.Traversal</code>,
+ * <code>org.ogrehus.jcwm.Validation</code> and <code>org.ogrehus.jcwm.ReflectiveLink</code>, if a recording has enabled them.
+ * </p>
+ * <p>
+ * Only outermost traversals are measured, cause <code>getAllContentsGeneric</code> recurses into every owned Namespace.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelMetrics
+implements
+	ModelMetricsMXBean
+{
+
+
+	private ModelMetrics() {
+		// only the singleton
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if metrics are collected.
+	 *
+	 */
+	public static boolean isActive() {
+		return enabled;
+	}
+
+
+
+	/**
+	 * @return The counters of this JVM. Can't be <code>null</code>.
+	 *
+	 */
+	public static ModelMetricsMXBean getInstance() {
+		return instance;
+	}
+
+
+
+//====================================================================================================================================================
+// Instrumentation capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Counts a change reported by a mutation point of the model, and a created element by its class.
+	 *
+	 */
+	public static void changed( ModelElement element, ModelChangeKind kind ) {
+		if ( !enabled ) {
+			return;
+		}
+		instance.changes[kind.ordinal()].increment();
+		if ( kind == ModelChangeKind.created ) {
+			getCounter( instance.created, element.getClass() ).increment();
+		}
+	}
+
+
+
+	public static void hit( CacheKind cache ) {
+		if ( enabled ) {
+			instance.cacheHits[cache.ordinal()].increment();
+		}
+	}
+
+
+
+	public static void miss( CacheKind cache ) {
+		if ( enabled ) {
+			instance.cacheMisses[cache.ordinal()].increment();
+		}
+	}
+
+
+
+	/**
+	 * Starts a measurement. Each call must be followed by a call of {@link #endTraversal(TraversalKind, ModelElement, long)}, best in a
+	 * <code>finally</code> block.
+	 *
+	 * @return The start time, or <code>0</code> if metrics are disabled or the traversal is nested in another one.
+	 *
+	 */
+	public static long beginTraversal() {
+		if ( !enabled ) {
+			return 0L;
+		}
+		int[] depth = traversalDepth.get();
+
+		return depth[0]++ == 0 ? System.nanoTime() : 0L;
+	}
+
+
+
+	/**
+	 * Ends a measurement started by {@link #beginTraversal()}.
+	 *
+	 * @param kind The kind of the traversal.
+	 *
+	 * @param root The element the traversal started at.
+	 *
+	 * @param start The result of {@link #beginTraversal()}.
+	 *
+	 */
+	public static void endTraversal( TraversalKind kind, ModelElement root, long start ) {
+		if ( !enabled ) {
+			return;
+		}
+		int[] depth = traversalDepth.get();
+		depth[0]--;
+		if ( start == 0L ) {
+			return; // nested
+		}
+		long elapsed = System.nanoTime() - start;
+		instance.traversals[kind.ordinal()].increment();
+		instance.traversalNanos[kind.ordinal()].add( elapsed );
+
+		TraversalEvent event = new TraversalEvent();
+		if ( event.isEnabled() ) {
+			event.kind     = kind.name();
+			event.rootType = root.getClass();
+			event.rootName = root.getSimpleName();
+			event.elapsed  = elapsed;
+			event.commit();
+		}
+	}
+
+
+
+	/**
+	 * @return The start time of an evaluation, or <code>0</code> if metrics are disabled.
+	 *
+	 */
+	public static long beginValidation() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+
+
+	/**
+	 * Ends a measurement started by {@link #beginValidation()}.
+	 *
+	 * @param constraint The evaluated constraint.
+	 *
+	 * @param element The element the constraint was evaluated for.
+	 *
+	 * @param satisfied The result of the evaluation.
+	 *
+	 * @param start The result of {@link #beginValidation()}.
+	 *
+	 */
+	public static void endValidation( CwmConstraint constraint, ModelElement element, Boolean satisfied, long start ) {
+		if ( !enabled ) {
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		int index = constraint.ordinal();
+		instance.validations[index].increment();
+		instance.validationNanos[index].add( elapsed );
+		if ( !Boolean.TRUE.equals( satisfied ) ) {
+			instance.violations[index].increment();
+		}
+
+		ValidationEvent event = new ValidationEvent();
+		if ( event.isEnabled() ) {
+			event.constraint  = constraint.name();
+			event.elementType = element.getClass();
+			event.satisfied   = Boolean.TRUE.equals( satisfied );
+			event.elapsed     = elapsed;
+			event.commit();
+		}
+	}
+
+
+
+	/**
+	 * @return The start time of a reflective link, or <code>0</code> if metrics are disabled.
+	 *
+	 */
+	public static long beginReflectiveLink() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+
+
+	/**
+	 * Ends a measurement started by {@link #beginReflectiveLink()}.
+	 *
+	 * @param invoker The element whose method was invoked to complete the link.
+	 *
+	 * @param methodName The name of the invoked method, like <code>addOwnedElement</code>.
+	 *
+	 * @param start The result of {@link #beginReflectiveLink()}.
+	 *
+	 */
+	public static void endReflectiveLink( Object invoker, String methodName, long start ) {
+		if ( !enabled ) {
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		getCounter( instance.reflectiveLinks, invoker.getClass().getSimpleName() + "." + methodName ).increment();
+		instance.reflectiveLinkNanos.add( elapsed );
+
+		ReflectiveLinkEvent event = new ReflectiveLinkEvent();
+		if ( event.isEnabled() ) {
+			event.invokerType = invoker.getClass();
+			event.method      = methodName;
+			event.elapsed     = elapsed;
+			event.commit();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelMetricsMXBean capabilities
+//====================================================================================================================================================
+
+
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+
+
+	public Map<String, Long> getCreatedElements() {
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for ( Map.Entry<Class<?>, LongAdder> entry : this.created.entrySet() ) {
+			result.put( entry.getKey().getSimpleName(), entry.getValue().sum() );
+		}
+
+		return result;
+	}
+
+
+
+	public Map<String, Long> getChanges() {
+		return toMap( ModelChangeKind.values(), this.changes );
+	}
+
+
+
+	public Map<String, Long> getCacheHits() {
+		return toMap( CacheKind.values(), this.cacheHits );
+	}
+
+
+
+	public Map<String, Long> getCacheMisses() {
+		return toMap( CacheKind.values(), this.cacheMisses );
+	}
+
+
+
+	public Map<String, Long> getTraversals() {
+		return toMap( TraversalKind.values(), this.traversals );
+	}
+
+
+
+	public Map<String, Long> getTraversalNanos() {
+		return toMap( TraversalKind.values(), this.traversalNanos );
+	}
+
+
+
+	public Map<String, Long> getValidations() {
+		return toMap( CwmConstraint.values(), this.validations );
+	}
+
+
+
+	public Map<String, Long> getValidationNanos() {
+		return toMap( CwmConstraint.values(), this.validationNanos );
+	}
+
+
+
+	public Map<String, Long> getViolations() {
+		return toMap( CwmConstraint.values(), this.violations );
+	}
+
+
+
+	public Map<String, Long> getReflectiveLinks() {
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for ( Map.Entry<String, LongAdder> entry : this.reflectiveLinks.entrySet() ) {
+			result.put( entry.getKey(), entry.getValue().sum() );
+		}
+
+		return result;
+	}
+
+
+
+	public long getReflectiveLinkNanos() {
+		return this.reflectiveLinkNanos.sum();
+	}
+
+
+
+	public void reset() {
+		this.created.clear();
+		this.reflectiveLinks.clear();
+		this.reflectiveLinkNanos.reset();
+		for ( LongAdder[] counters : new LongAdder[][] {
+			  this.changes, this.cacheHits, this.cacheMisses, this.traversals, this.traversalNanos
+			, this.validations, this.validationNanos, this.violations
+		} ) {
+			for ( LongAdder counter : counters ) {
+				counter.reset();
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelMetrics internals
+//====================================================================================================================================================
+
+
+
+	private static <K> LongAdder getCounter( ConcurrentMap<K, LongAdder> counters, K key ) {
+		LongAdder counter = counters.get( key );
+		if ( counter == null ) {
+			LongAdder created = new LongAdder();
+			counter = counters.putIfAbsent( key, created );
+			if ( counter == null ) {
+				counter = created; // no other thread was faster
+			}
+		}
+
+		return counter;
+	}
+
+
+
+	/**
+	 * @return The counters of all constants counted at least once, by name of the constant.
+	 *
+	 */
+	private static Map<String, Long> toMap( Enum<?>[] constants, LongAdder[] counters ) {
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for ( int i = 0; i < constants.length; i++ ) {
+			long sum = counters[i].sum();
+			if ( sum != 0 ) {
+				result.put( constants[i].name(), sum );
+			}
+		}
+
+		return result;
+	}
+
+
+
+	private static LongAdder[] newCounters( int size ) {
+		LongAdder[] counters = new LongAdder[size];
+		for ( int i = 0; i < size; i++ ) {
+			counters[i] = new LongAdder();
+		}
+
+		return counters;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ModelMetrics" );
+		out.append( " | enabled=" + enabled );
+		out.append( " | created=" + getCreatedElements() );
+		out.append( " | changes=" + getChanges() );
+		out.append( " | cacheHits=" + getCacheHits() );
+		out.append( " | cacheMisses=" + getCacheMisses() );
+		out.append( " | traversals=" + getTraversals() );
+		out.append( " | validations=" + getValidations() );
+		out.append( " | reflectiveLinks=" + getReflectiveLinks() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The system property enabling metrics.
+	 *
+	 */
+	public static final String PROPERTY = "org.ogrehus.jcwm.metrics";
+
+
+
+	/**
+	 * The name of the registered MXBean.
+	 *
+	 */
+	public static final String OBJECT_NAME = "org.ogrehus.jcwm:type=ModelMetrics";
+
+
+
+	/**
+	 * Final, so the JIT removes all instrumentation if metrics are disabled.
+	 *
+	 */
+	private static final boolean enabled = Boolean.getBoolean( PROPERTY );
+
+
+
+	private static final ModelMetrics instance = new ModelMetrics();
+
+
+
+	/**
+	 * The nesting depth of traversals of the current thread.
+	 *
+	 */
+	private static final ThreadLocal<int[]> traversalDepth = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
+
+
+
+	private final ConcurrentMap<Class<?>, LongAdder> created = new ConcurrentHashMap<Class<?>, LongAdder>();
+
+
+
+	private final LongAdder[] changes = newCounters( ModelChangeKind.values().length );
+
+
+
+	private final LongAdder[] cacheHits = newCounters( CacheKind.values().length );
+
+
+
+	private final LongAdder[] cacheMisses = newCounters( CacheKind.values().length );
+
+
+
+	private final LongAdder[] traversals = newCounters( TraversalKind.values().length );
+
+
+
+	private final LongAdder[] traversalNanos = newCounters( TraversalKind.values().length );
+
+
+
+	private final LongAdder[] validations = newCounters( CwmConstraint.values().length );
+
+
+
+	private final LongAdder[] validationNanos = newCounters( CwmConstraint.values().length );
+
+
+
+	private final LongAdder[] violations = newCounters( CwmConstraint.values().length );
+
+
+
+	/**
+	 * The reflective links by the simple class name of the invoker and the name of the invoked method.
+	 *
+	 */
+	private final ConcurrentMap<String, LongAdder> reflectiveLinks = new ConcurrentHashMap<String, LongAdder>();
+
+
+
+	private final LongAdder reflectiveLinkNanos = new LongAdder();
+
+
+
+	static {
+		if ( enabled ) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean( instance, new ObjectName( OBJECT_NAME ) );
+			} catch ( JMException e ) {
+				// already registered by another class loader, the counters are still available by getInstance()
+			}
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.metrics;
+
+import java.util.Map;
+
+
+/**
+ * The management interface of ModelMetrics, registered as <code>org.ogrehus.jcwm:type=ModelMetrics</code> if metrics are enabled.
+ * <p>
+ * All counters are totals since the start of the JVM or the last {@link #reset()}. Durations are in nanoseconds.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public interface ModelMetricsMXBean {
+
+
+	boolean isEnabled();
+
+
+
+	/**
+	 * @return The number of created elements by simple class name, like <code>FunTable</code>.
+	 *
+	 */
+	Map<String, Long> getCreatedElements();
+
+
+
+	/**
+	 * @return The number of reported changes by ModelChangeKind, like <code>linked</code>.
+	 *
+	 */
+	Map<String, Long> getChanges();
+
+
+
+	Map<String, Long> getCacheHits();
+
+
+
+	Map<String, Long> getCacheMisses();
+
+
+
+	Map<String, Long> getTraversals();
+
+
+
+	Map<String, Long> getTraversalNanos();
+
+
+
+	/**
+	 * @return The number of evaluations by CwmConstraint, only constraints evaluated at least once.
+	 *
+	 */
+	Map<String, Long> getValidations();
+
+
+
+	Map<String, Long> getValidationNanos();
+
+
+
+	Map<String, Long> getViolations();
+
+
+
+	/**
+	 * @return The number of bidirectional links completed via reflection, by invoker and method, like <code>FunSchema.addOwnedElement</code>.
+	 *
+	 */
+	Map<String, Long> getReflectiveLinks();
+
+
+
+	long getReflectiveLinkNanos();
+
+
+
+	/**
+	 * Sets all counters to zero.
+	 *
+	 */
+	void reset();
+}
@@ -0,0 +1,68 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * A flight recorder event of an outermost traversal of the model.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@Name( "org.ogrehus.jcwm.Traversal" )
+@Label( "Model Traversal" )
+@Category( { "JCwm" } )
+@Description( "An outermost traversal of the model, like all contents of a Namespace" )
+@StackTrace( false )
+final class TraversalEvent
+extends
+	Event
+{
+
+
+	@Label( "Kind" )
+	String kind;
+
+
+
+	@Label( "Root Type" )
+	Class<?> rootType;
+
+
+
+	@Label( "Root Name" )
+	String rootName;
+
+
+
+	@Label( "Elapsed" )
+	@Timespan( Timespan.NANOSECONDS )
+	long elapsed;
+}
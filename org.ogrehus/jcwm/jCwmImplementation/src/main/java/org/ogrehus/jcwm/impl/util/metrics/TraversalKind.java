@@ -0,0 +1,43 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.metrics;
+
+/**
+ * Classifies the traversals of the model, whose durations are measured by ModelMetrics.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>allContents</code> - All contents of a Namespace by type, see <code>getAllContentsGeneric</code>.</li>
+ * <li><code>ownedElementDeep</code> - The lookup of an owned element by its qualified name, see <code>getOwnedElementDeep</code>.</li>
+ * <li><code>validation</code> - The collection of the elements of a model to be validated.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum TraversalKind {
+	  allContents
+	, ownedElementDeep
+	, validation
+	;
+}
@@ -0,0 +1,283 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+
+
+/**
+ * A ModelIndex is a QueryIndex of all elements owned by a root element, maintained by the changes of the model.
+ * <p>
+ * The elements are indexed by their concrete class and by their simple name. A lookup by type collects the elements of all concrete classes
+ * assignable to the type, so the cost depends on the number of matching elements and not on the size of the model. Elements linked to or
+ * unlinked from an indexed namespace or classifier are added or removed together with everything they own.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelIndex
+implements
+	  QueryIndex
+	, ModelChangeListener
+{
+
+
+	private ModelIndex( ModelElement root ) {
+		this.root = root;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelIndex capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Creates a new instance of ModelIndex, registers it for changes of the model and then indexes the model under the lock of the index. So a
+	 * rename or a link reported while the model is indexed is applied afterwards, instead of falling into the gap before the registration.
+	 *
+	 * @param root The root of the indexed model. Must not be <code>null</code>.
+	 *
+	 */
+	public static ModelIndex open( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		ModelIndex index = new ModelIndex( root );
+		ModelChangeSupport.addListener( index );
+		synchronized ( index ) {
+			index.add( root );
+		}
+
+		return index;
+	}
+
+
+
+//====================================================================================================================================================
+// QueryIndex capabilities
+//====================================================================================================================================================
+
+
+
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	public synchronized Iterable<? extends ModelElement> getByType( Class<?> type ) {
+		List<ModelElement> result = new ArrayList<ModelElement>();
+		for ( Map.Entry<Class<?>, Set<ModelElement>> byClass : this.byClass.entrySet() ) {
+			if ( type.isAssignableFrom( byClass.getKey() ) ) {
+				result.addAll( byClass.getValue() );
+			}
+		}
+
+		return result;
+	}
+
+
+
+	public synchronized Iterable<? extends ModelElement> getBySimpleName( String simpleName ) {
+		Set<ModelElement> named = this.byName.get( simpleName );
+		if ( named == null ) {
+			return Collections.emptyList();
+		}
+
+		return new ArrayList<ModelElement>( named );
+	}
+
+
+
+	/**
+	 * @return The number of indexed elements.
+	 *
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+
+
+
+	/**
+	 * Cancels the registration for changes of the model. The index stays available, but is not maintained anymore.
+	 *
+	 */
+	public void close() {
+		ModelChangeSupport.removeListener( this );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	public synchronized void modelChanged( ModelChange change ) {
+		String feature = change.getFeature();
+		ModelElement element = change.getElement();
+		if ( "name".equals( feature ) ) {
+			if ( contains( element ) ) {
+				removeName( String.valueOf( change.getOldValue() ), element );
+				addName( String.valueOf( change.getNewValue() ), element );
+			}
+		} else if ( ( "ownedElement".equals( feature ) || "feature".equals( feature ) ) && contains( element ) ) {
+			if ( change.getKind() == ModelChangeKind.linked && change.getNewValue() instanceof ModelElement ) {
+				add( (ModelElement) change.getNewValue() );
+			} else if ( change.getKind() == ModelChangeKind.unlinked && change.getOldValue() instanceof ModelElement ) {
+				remove( (ModelElement) change.getOldValue() );
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelIndex internals
+//====================================================================================================================================================
+
+
+
+	private Boolean contains( ModelElement element ) {
+		Set<ModelElement> byClass = this.byClass.get( element.getClass() );
+
+		return byClass != null && byClass.contains( element );
+	}
+
+
+
+	private void add( ModelElement owner ) {
+		for ( ModelElement element : new ModelTraversal( owner ) ) {
+			Set<ModelElement> byClass = this.byClass.get( element.getClass() );
+			if ( byClass == null ) {
+				byClass = new LinkedHashSet<ModelElement>();
+				this.byClass.put( element.getClass(), byClass );
+			}
+			if ( byClass.add( element ) ) {
+				addName( element.getSimpleName(), element );
+				this.size++;
+			}
+		}
+	}
+
+
+
+	private void remove( ModelElement owner ) {
+		for ( ModelElement element : new ModelTraversal( owner ) ) {
+			Set<ModelElement> byClass = this.byClass.get( element.getClass() );
+			if ( byClass != null && byClass.remove( element ) ) {
+				removeName( element.getSimpleName(), element );
+				this.size--;
+			}
+		}
+	}
+
+
+
+	private void addName( String simpleName, ModelElement element ) {
+		Set<ModelElement> named = this.byName.get( simpleName );
+		if ( named == null ) {
+			named = new LinkedHashSet<ModelElement>( 2 );
+			this.byName.put( simpleName, named );
+		}
+		named.add( element );
+	}
+
+
+
+	private void removeName( String simpleName, ModelElement element ) {
+		Set<ModelElement> named = this.byName.get( simpleName );
+		if ( named != null && named.remove( element ) && named.isEmpty() ) {
+			this.byName.remove( simpleName );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public synchronized String toString() {
+		StringBuffer out = new StringBuffer( "[ModelIndex" );
+		out.append( " | root=" + this.root.getQualifiedName() );
+		out.append( " | size=" + this.size );
+		out.append( " | classes=" + this.byClass.size() );
+		out.append( " | names=" + this.byName.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement root;
+
+
+
+	/**
+	 * The indexed elements by their concrete class.
+	 *
+	 */
+	private final Map<Class<?>, Set<ModelElement>> byClass = new LinkedHashMap<Class<?>, Set<ModelElement>>();
+
+
+
+	/**
+	 * The indexed elements by their simple name.
+	 *
+	 */
+	private final Map<String, Set<ModelElement>> byName = new LinkedHashMap<String, Set<ModelElement>>();
+
+
+
+	private int size = 0;
+}
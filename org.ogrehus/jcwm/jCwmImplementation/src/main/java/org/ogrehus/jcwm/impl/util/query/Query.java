@@ -0,0 +1,210 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A Query is a compiled expression of a subset of OCL, evaluated against a context element.
+ * <p>
+ * The subset covers navigation of properties (<code>t.columns</code>), calls of operations (<code>c.allFeatures()</code>), the type operations
+ * <code>oclIsKindOf</code>, <code>oclIsTypeOf</code> and <code>oclAsType</code>, the iterations <code>select</code>, <code>reject</code>,
+ * <code>collect</code>, <code>exists</code>, <code>forAll</code>, <code>any</code>, <code>one</code> and <code>sortedBy</code>, the collection
+ * operations <code>size</code>, <code>isEmpty</code>, <code>notEmpty</code>, <code>includes</code>, <code>excludes</code>, <code>first</code>,
+ * <code>asSet</code>, <code>sum</code>, <code>max</code> and <code>min</code>, and the usual logical, relational and arithmetic operators. The
+ * name of a CWM type stands for all elements of the type below the context element, for example:
+ * </p>
+ * <pre>
+ * Schema.allContents-&gt;select(t | t.oclIsKindOf(Table) and t.columns-&gt;size() &gt; 200)
+ * </pre>
+ * <p>
+ * The compiled plan of a query is immutable and can be evaluated by many threads at once. Compiled queries are cached by their text, so
+ * dashboards running the same queries repeatedly pay the parsing only once.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class Query {
+
+
+
+	private Query( String expression, QueryNode plan ) {
+		this.expression = expression;
+		this.plan       = plan;
+	}
+
+
+
+	/**
+	 * Compiles a query or returns the cached compilation of the same text.
+	 *
+	 * @param expression The text of the query. Must not be <code>null</code>.
+	 *
+	 * @return The compiled query. Can't be <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException If the text is not a valid query.
+	 *
+	 */
+	public static Query compile( String expression ) {
+		if ( expression == null ) {
+			throw new NullPointerException( "Parameter: expression must not be null." );
+		}
+		synchronized ( cache ) {
+			Query cached = cache.get( expression );
+			if ( cached != null ) {
+				return cached;
+			}
+		}
+		Query compiled = new Query( expression, new QueryParser( expression ).parse() );
+		synchronized ( cache ) {
+			cache.put( expression, compiled );
+		}
+
+		return compiled;
+	}
+
+
+
+//====================================================================================================================================================
+// Query capabilities
+//====================================================================================================================================================
+
+
+
+	public String getExpression() {
+		return this.expression;
+	}
+
+
+
+	/**
+	 * @return A readable description of the plan, showing which parts use an index.
+	 *
+	 */
+	public String getPlan() {
+		return this.plan.toString();
+	}
+
+
+
+	/**
+	 * Evaluates the query by traversing the model below the context element.
+	 *
+	 * @param self The context element. Must not be <code>null</code>.
+	 *
+	 * @return The result of the query. Collections are returned as List.
+	 *
+	 */
+	public Object evaluate( ModelElement self ) {
+		return evaluate( self, null );
+	}
+
+
+
+	/**
+	 * Evaluates the query using an index of the model.
+	 *
+	 * @param self The context element. Must not be <code>null</code>.
+	 *
+	 * @param index An index of the model. The index is used only if its root is the context element. Can be <code>null</code>.
+	 *
+	 * @return The result of the query. Collections are returned as List.
+	 *
+	 */
+	public Object evaluate( ModelElement self, QueryIndex index ) {
+		if ( self == null ) {
+			throw new NullPointerException( "Parameter: self must not be null." );
+		}
+		Object result = this.plan.evaluate( new QueryScope( self, index != null && index.getRoot() == self ? index : null ) );
+		if ( result instanceof Iterable<?> && !( result instanceof Collection<?> ) ) {
+			List<Object> materialized = new ArrayList<Object>();
+			QueryNode.addFlat( materialized, result );
+			return materialized;
+		}
+
+		return result;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[Query" );
+		out.append( " | expression=" + this.expression );
+		out.append( " | plan=" + getPlan() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The maximum number of cached compilations.
+	 *
+	 */
+	private static final int CACHE_SIZE = 512;
+
+
+
+	/**
+	 * The compiled queries by their text, least recently used first.
+	 *
+	 */
+	private static final Map<String, Query> cache = new LinkedHashMap<String, Query>( 64, 0.75f, true ) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<String, Query> eldest ) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+
+
+	private final String expression;
+
+
+
+	private final QueryNode plan;
+}
@@ -0,0 +1,65 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A QueryIndex provides fast access to the ModelElements of a model for the planner of a Query.
+ * <p>
+ * Every lookup may return <code>null</code> to state that the index does not support it. The Query then falls back to a traversal of the model,
+ * so an index can support any subset of the lookups.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public interface QueryIndex {
+
+
+	/**
+	 * @return The root element of the indexed model. Can't be <code>null</code>.
+	 *
+	 */
+	ModelElement getRoot();
+
+
+
+	/**
+	 * @param type The requested type.
+	 *
+	 * @return All indexed elements that are instances of the type, or <code>null</code> if the lookup is not supported.
+	 *
+	 */
+	Iterable<? extends ModelElement> getByType( Class<?> type );
+
+
+
+	/**
+	 * @param simpleName The requested simple name.
+	 *
+	 * @return All indexed elements with the simple name, or <code>null</code> if the lookup is not supported.
+	 *
+	 */
+	Iterable<? extends ModelElement> getBySimpleName( String simpleName );
+}
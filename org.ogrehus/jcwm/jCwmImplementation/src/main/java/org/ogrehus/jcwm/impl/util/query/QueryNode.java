@@ -0,0 +1,966 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+import org.ogrehus.jcwm.impl.util.metrics.CacheKind;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+
+
+/**
+ * A QueryNode is a single step of the plan of a compiled Query.
+ * <p>
+ * The nodes form a tree that is evaluated bottom up. Collections are passed between the nodes as <code>Iterable</code>s, so a traversal of the
+ * model is consumed lazily: <code>exists</code> and <code>any</code> stop at the first match without visiting the rest of the model.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+abstract class QueryNode {
+
+
+	/**
+	 * Evaluates this node.
+	 *
+	 * @param scope The variables visible to this node.
+	 *
+	 * @return The value of this node. Collections are returned as <code>Iterable</code>.
+	 *
+	 */
+	abstract Object evaluate( QueryScope scope );
+
+
+
+	/**
+	 * Appends a readable description of this node and its children.
+	 *
+	 */
+	abstract void explain( StringBuffer out );
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer();
+		explain( out );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// Values
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Treats a single value as a collection of one element, like OCL does for the arrow operator.
+	 *
+	 */
+	static Iterable<?> asIterable( Object value ) {
+		if ( value instanceof Iterable<?> ) {
+			return (Iterable<?>) value;
+		}
+		if ( value == null ) {
+			return Collections.emptyList();
+		}
+
+		return Collections.singletonList( value );
+	}
+
+
+
+	static Boolean isTrue( Object value ) {
+		return Boolean.TRUE.equals( value );
+	}
+
+
+
+	/**
+	 * Compares two values for the equality operator. Numbers are compared by value, ModelElements by identity and all other values by their
+	 * text, so a Name or an enumeration constant equals the literal of its text.
+	 *
+	 */
+	static Boolean isEqual( Object left, Object right ) {
+		if ( left == right ) {
+			return Boolean.TRUE;
+		}
+		if ( left == null || right == null ) {
+			return Boolean.FALSE;
+		}
+		if ( left instanceof Number && right instanceof Number ) {
+			return compare( left, right ) == 0;
+		}
+		if ( left instanceof ModelElement || right instanceof ModelElement || left instanceof Boolean || right instanceof Boolean ) {
+			return left.equals( right );
+		}
+
+		return textOf( left ).equals( textOf( right ) );
+	}
+
+
+
+	static int compare( Object left, Object right ) {
+		if ( left instanceof Number && right instanceof Number ) {
+			if ( isIntegral( left ) && isIntegral( right ) ) {
+				return Long.compare( ( (Number) left ).longValue(), ( (Number) right ).longValue() );
+			}
+			return Double.compare( ( (Number) left ).doubleValue(), ( (Number) right ).doubleValue() );
+		}
+		if ( left == null || right == null ) {
+			throw new IllegalArgumentException( "The value null can't be ordered." );
+		}
+
+		return textOf( left ).compareTo( textOf( right ) );
+	}
+
+
+
+	static String textOf( Object value ) {
+		return value instanceof Enum<?> ? ( (Enum<?>) value ).name() : value.toString();
+	}
+
+
+
+	static Boolean isIntegral( Object value ) {
+		return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+	}
+
+
+
+	/**
+	 * Reads a property of a value by its getter. The getter <code>getX</code> is preferred to <code>isX</code> and to a method named <code>x</code>.
+	 * The property <code>name</code> of a ModelElement is its simple name. Navigating a collection collects the property of all its elements.
+	 *
+	 */
+	static Object navigate( Object target, String property ) {
+		if ( target == null ) {
+			return null;
+		}
+		if ( target instanceof Iterable<?> ) {
+			List<Object> collected = new ArrayList<Object>();
+			for ( Object element : (Iterable<?>) target ) {
+				addFlat( collected, navigate( element, property ) );
+			}
+			return collected;
+		}
+		if ( target instanceof ModelElement && "name".equals( property ) ) {
+			return ( (ModelElement) target ).getSimpleName();
+		}
+
+		Method getter = findGetter( target.getClass(), property );
+		if ( getter == null ) {
+			throw new IllegalArgumentException( "The class " + target.getClass().getName() + " does not provide the property: " + property );
+		}
+
+		return call( getter, target, NO_ARGUMENTS );
+	}
+
+
+
+	/**
+	 * Calls a public method of a value by its name and number of parameters.
+	 *
+	 */
+	static Object invoke( Object target, String name, Object[] arguments ) {
+		if ( target == null ) {
+			return null;
+		}
+		if ( target instanceof String ) {
+			String text = (String) target;
+			if ( "size".equals( name ) && arguments.length == 0 ) {
+				return Long.valueOf( text.length() );
+			} else if ( "toUpper".equals( name ) && arguments.length == 0 ) {
+				return text.toUpperCase();
+			} else if ( "toLower".equals( name ) && arguments.length == 0 ) {
+				return text.toLowerCase();
+			}
+		}
+		for ( Method method : target.getClass().getMethods() ) {
+			if ( method.getName().equals( name ) && method.getParameterTypes().length == arguments.length ) {
+				return call( method, target, arguments );
+			}
+		}
+		throw new IllegalArgumentException( "The class " + target.getClass().getName() + " does not provide the operation: " + name );
+	}
+
+
+
+	private static Method findGetter( Class<?> type, String property ) {
+		String key = type.getName() + '#' + property;
+		Method getter = getters.get( key );
+		if ( getter == null ) {
+			ModelMetrics.miss( CacheKind.queryGetter );
+			String suffix = Character.toUpperCase( property.charAt( 0 ) ) + property.substring( 1 );
+			for ( String name : new String[] { "get" + suffix, "is" + suffix, property } ) {
+				try {
+					getter = type.getMethod( name );
+					break;
+				} catch ( NoSuchMethodException e ) {
+					// try next name
+				}
+			}
+			if ( getter == null ) {
+				return null;
+			}
+			getters.putIfAbsent( key, getter );
+		} else {
+			ModelMetrics.hit( CacheKind.queryGetter );
+		}
+
+		return getter;
+	}
+
+
+
+	private static Object call( Method method, Object target, Object[] arguments ) {
+		try {
+			if ( !method.canAccess( target ) ) {
+				method.setAccessible( true ); // public method of a non public class
+			}
+			return normalize( method.invoke( target, arguments ) );
+		} catch ( InvocationTargetException e ) {
+			if ( e.getCause() instanceof RuntimeException ) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException( "The call of " + method + " failed.", e.getCause() );
+		} catch ( IllegalAccessException e ) {
+			throw new IllegalStateException( "The call of " + method + " is not accessible.", e );
+		}
+	}
+
+
+
+	/**
+	 * Widens all integral numbers to Long and all other numbers to Double, so arithmetic needs two cases only.
+	 *
+	 */
+	static Object normalize( Object value ) {
+		if ( value instanceof Number && !( value instanceof Long ) && !( value instanceof Double ) ) {
+			return isIntegral( value ) ? (Object) Long.valueOf( ( (Number) value ).longValue() ) : Double.valueOf( ( (Number) value ).doubleValue() );
+		}
+
+		return value;
+	}
+
+
+
+	static void addFlat( Collection<Object> target, Object value ) {
+		if ( value instanceof Iterable<?> ) {
+			for ( Object element : (Iterable<?>) value ) {
+				target.add( element );
+			}
+		} else if ( value != null ) {
+			target.add( value );
+		}
+	}
+
+
+
+	private static final Object[] NO_ARGUMENTS = new Object[ 0 ];
+
+
+
+	private static final ConcurrentMap<String, Method> getters = new ConcurrentHashMap<String, Method>();
+
+
+
+//====================================================================================================================================================
+// Nodes
+//====================================================================================================================================================
+
+
+
+	static final class Literal
+	extends
+		QueryNode
+	{
+
+		Literal( Object value ) {
+			this.value = value;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			return this.value;
+		}
+
+		void explain( StringBuffer out ) {
+			out.append( this.value instanceof String ? "'" + this.value + "'" : String.valueOf( this.value ) );
+		}
+
+		Object getValue() {
+			return this.value;
+		}
+
+		private final Object value;
+	}
+
+
+
+	static final class Variable
+	extends
+		QueryNode
+	{
+
+		Variable( String name ) {
+			this.name = name;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			return scope.lookup( this.name );
+		}
+
+		void explain( StringBuffer out ) {
+			out.append( this.name );
+		}
+
+		String getName() {
+			return this.name;
+		}
+
+		private final String name;
+	}
+
+
+
+	/**
+	 * All elements of a type below <code>self</code>. Uses the type index if available, the model is traversed otherwise.
+	 *
+	 */
+	static final class TypeExtent
+	extends
+		QueryNode
+	{
+
+		TypeExtent( Class<?> type ) {
+			this.type = type;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			if ( scope.getIndex() != null ) {
+				Iterable<? extends ModelElement> indexed = scope.getIndex().getByType( this.type );
+				if ( indexed != null ) {
+					return indexed;
+				}
+			}
+			return new Filtered( new ModelTraversal( scope.getSelf() ), this.type, null, false );
+		}
+
+		void explain( StringBuffer out ) {
+			out.append( "extent(" + this.type.getSimpleName() + ")" );
+		}
+
+		Class<?> getType() {
+			return this.type;
+		}
+
+		private final Class<?> type;
+	}
+
+
+
+	/**
+	 * All elements of a type below <code>self</code> with a given simple or qualified name. Uses the name index if available, the model is
+	 * traversed otherwise.
+	 *
+	 */
+	static final class NameLookup
+	extends
+		QueryNode
+	{
+
+		NameLookup( Class<?> type, String name, Boolean qualified ) {
+			this.type      = type;
+			this.name      = name;
+			this.qualified = qualified;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			if ( scope.getIndex() != null ) {
+				String simpleName = this.qualified ? this.name.substring( this.name.lastIndexOf( '.' ) + 1 ) : this.name;
+				Iterable<? extends ModelElement> indexed = scope.getIndex().getBySimpleName( simpleName );
+				if ( indexed != null ) {
+					return new Filtered( indexed, this.type, this.name, this.qualified );
+				}
+			}
+			return new Filtered( new ModelTraversal( scope.getSelf() ), this.type, this.name, this.qualified );
+		}
+
+		void explain( StringBuffer out ) {
+			out.append( ( this.qualified ? "qualifiedNameIndex('" : "nameIndex('" ) + this.name + "')" );
+			out.append( "[" + this.type.getSimpleName() + "]" );
+		}
+
+		private final Class<?> type;
+
+		private final String name;
+
+		private final Boolean qualified;
+	}
+
+
+
+	static final class Navigate
+	extends
+		QueryNode
+	{
+
+		Navigate( QueryNode source, String property ) {
+			this.source   = source;
+			this.property = property;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			return navigate( this.source.evaluate( scope ), this.property );
+		}
+
+		void explain( StringBuffer out ) {
+			this.source.explain( out );
+			out.append( "." + this.property );
+		}
+
+		QueryNode getSource() {
+			return this.source;
+		}
+
+		String getProperty() {
+			return this.property;
+		}
+
+		private final QueryNode source;
+
+		private final String property;
+	}
+
+
+
+	static final class Invoke
+	extends
+		QueryNode
+	{
+
+		Invoke( QueryNode source, String name, List<QueryNode> arguments ) {
+			this.source    = source;
+			this.name      = name;
+			this.arguments = arguments.toArray( new QueryNode[ arguments.size() ] );
+		}
+
+		Object evaluate( QueryScope scope ) {
+			Object target = this.source.evaluate( scope );
+			Object[] values = new Object[ this.arguments.length ];
+			for ( int i = 0; i < values.length; i++ ) {
+				values[ i ] = this.arguments[ i ].evaluate( scope );
+			}
+			if ( target instanceof Iterable<?> ) {
+				List<Object> collected = new ArrayList<Object>();
+				for ( Object element : (Iterable<?>) target ) {
+					addFlat( collected, invoke( element, this.name, values ) );
+				}
+				return collected;
+			}
+			return invoke( target, this.name, values );
+		}
+
+		void explain( StringBuffer out ) {
+			this.source.explain( out );
+			out.append( "." + this.name + "(" );
+			for ( int i = 0; i < this.arguments.length; i++ ) {
+				out.append( i == 0 ? "" : ", " );
+				this.arguments[ i ].explain( out );
+			}
+			out.append( ")" );
+		}
+
+		private final QueryNode source;
+
+		private final String name;
+
+		private final QueryNode[] arguments;
+	}
+
+
+
+	/**
+	 * The operations <code>oclIsKindOf</code>, <code>oclIsTypeOf</code> and <code>oclAsType</code>.
+	 *
+	 */
+	static final class TypeOperation
+	extends
+		QueryNode
+	{
+
+		TypeOperation( QueryNode source, String operation, Class<?> type ) {
+			this.source    = source;
+			this.operation = operation;
+			this.type      = type;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			Object value = this.source.evaluate( scope );
+			if ( "oclIsKindOf".equals( this.operation ) ) {
+				return this.type.isInstance( value );
+			} else if ( "oclIsTypeOf".equals( this.operation ) ) {
+				return isTypeOf( value );
+			}
+			return this.type.isInstance( value ) ? value : null; // oclAsType
+		}
+
+		/**
+		 * An element is of a type if the type is the most specific interface of the API it implements.
+		 *
+		 */
+		private Boolean isTypeOf( Object value ) {
+			if ( !this.type.isInstance( value ) ) {
+				return Boolean.FALSE;
+			}
+			for ( Class<?> implemented : value.getClass().getInterfaces() ) {
+				if ( this.type != implemented && this.type.isAssignableFrom( implemented ) ) {
+					return Boolean.FALSE;
+				}
+			}
+			return Boolean.TRUE;
+		}
+
+		void explain( StringBuffer out ) {
+			this.source.explain( out );
+			out.append( "." + this.operation + "(" + this.type.getSimpleName() + ")" );
+		}
+
+		QueryNode getSource() {
+			return this.source;
+		}
+
+		String getOperation() {
+			return this.operation;
+		}
+
+		Class<?> getType() {
+			return this.type;
+		}
+
+		private final QueryNode source;
+
+		private final String operation;
+
+		private final Class<?> type;
+	}
+
+
+
+	/**
+	 * The iterating collection operations like <code>select</code>, <code>exists</code> or <code>collect</code>. The planner can add a type
+	 * filter, which is checked before the body, because it costs no reflection.
+	 *
+	 */
+	static final class Iterate
+	extends
+		QueryNode
+	{
+
+		Iterate( QueryNode source, String operation, String variable, QueryNode body, Class<?> filter ) {
+			this.source    = source;
+			this.operation = operation;
+			this.variable  = variable;
+			this.body      = body;
+			this.filter    = filter;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			Iterable<?> elements = asIterable( this.source.evaluate( scope ) );
+			if ( "select".equals( this.operation ) || "reject".equals( this.operation ) ) {
+				Boolean keep = "select".equals( this.operation );
+				List<Object> selected = new ArrayList<Object>();
+				for ( Object element : elements ) {
+					if ( accepts( element ) && isTrue( this.body.evaluate( scope.bind( this.variable, element ) ) ) == keep ) {
+						selected.add( element );
+					}
+				}
+				return selected;
+			} else if ( "collect".equals( this.operation ) ) {
+				List<Object> collected = new ArrayList<Object>();
+				for ( Object element : elements ) {
+					addFlat( collected, this.body.evaluate( scope.bind( this.variable, element ) ) );
+				}
+				return collected;
+			} else if ( "exists".equals( this.operation ) || "any".equals( this.operation ) ) {
+				for ( Object element : elements ) {
+					if ( accepts( element ) && isTrue( this.body.evaluate( scope.bind( this.variable, element ) ) ) ) {
+						return "exists".equals( this.operation ) ? Boolean.TRUE : element;
+					}
+				}
+				return "exists".equals( this.operation ) ? Boolean.FALSE : null;
+			} else if ( "forAll".equals( this.operation ) ) {
+				for ( Object element : elements ) {
+					if ( !isTrue( this.body.evaluate( scope.bind( this.variable, element ) ) ) ) {
+						return Boolean.FALSE;
+					}
+				}
+				return Boolean.TRUE;
+			} else if ( "one".equals( this.operation ) ) {
+				int matches = 0;
+				for ( Object element : elements ) {
+					if ( accepts( element ) && isTrue( this.body.evaluate( scope.bind( this.variable, element ) ) ) && ++matches > 1 ) {
+						return Boolean.FALSE;
+					}
+				}
+				return matches == 1;
+			} else if ( "sortedBy".equals( this.operation ) ) {
+				final List<Object[]> keyed = new ArrayList<Object[]>();
+				for ( Object element : elements ) {
+					keyed.add( new Object[] { this.body.evaluate( scope.bind( this.variable, element ) ), element } );
+				}
+				Collections.sort( keyed, new Comparator<Object[]>() {
+					public int compare( Object[] left, Object[] right ) {
+						return QueryNode.compare( left[ 0 ], right[ 0 ] );
+					}
+				} );
+				List<Object> sorted = new ArrayList<Object>( keyed.size() );
+				for ( Object[] element : keyed ) {
+					sorted.add( element[ 1 ] );
+				}
+				return sorted;
+			}
+			throw new IllegalStateException( "Unknown iteration: " + this.operation );
+		}
+
+		private Boolean accepts( Object element ) {
+			return this.filter == null || this.filter.isInstance( element );
+		}
+
+		void explain( StringBuffer out ) {
+			this.source.explain( out );
+			out.append( "->" + this.operation + "(" + this.variable );
+			if ( this.filter != null ) {
+				out.append( " : " + this.filter.getSimpleName() );
+			}
+			out.append( " | " );
+			this.body.explain( out );
+			out.append( ")" );
+		}
+
+		QueryNode getSource() {
+			return this.source;
+		}
+
+		String getOperation() {
+			return this.operation;
+		}
+
+		String getVariable() {
+			return this.variable;
+		}
+
+		QueryNode getBody() {
+			return this.body;
+		}
+
+		private final QueryNode source;
+
+		private final String operation;
+
+		private final String variable;
+
+		private final QueryNode body;
+
+		private final Class<?> filter;
+	}
+
+
+
+	/**
+	 * The non iterating collection operations like <code>size</code> or <code>includes</code>.
+	 *
+	 */
+	static final class CollectionOperation
+	extends
+		QueryNode
+	{
+
+		CollectionOperation( QueryNode source, String operation, QueryNode argument ) {
+			this.source    = source;
+			this.operation = operation;
+			this.argument  = argument;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			Iterable<?> elements = asIterable( this.source.evaluate( scope ) );
+			if ( "size".equals( this.operation ) ) {
+				if ( elements instanceof Collection<?> ) {
+					return Long.valueOf( ( (Collection<?>) elements ).size() );
+				}
+				long size = 0;
+				for ( Iterator<?> it = elements.iterator(); it.hasNext(); it.next() ) {
+					size++;
+				}
+				return size;
+			} else if ( "isEmpty".equals( this.operation ) || "notEmpty".equals( this.operation ) ) {
+				return elements.iterator().hasNext() != "isEmpty".equals( this.operation );
+			} else if ( "includes".equals( this.operation ) || "excludes".equals( this.operation ) ) {
+				Object value = this.argument.evaluate( scope );
+				for ( Object element : elements ) {
+					if ( isEqual( element, value ) ) {
+						return "includes".equals( this.operation );
+					}
+				}
+				return "excludes".equals( this.operation );
+			} else if ( "first".equals( this.operation ) ) {
+				Iterator<?> it = elements.iterator();
+				return it.hasNext() ? it.next() : null;
+			} else if ( "asSet".equals( this.operation ) ) {
+				List<Object> distinct = new ArrayList<Object>();
+				addFlat( distinct, elements );
+				return new ArrayList<Object>( new LinkedHashSet<Object>( distinct ) );
+			} else if ( "sum".equals( this.operation ) ) {
+				Object sum = Long.valueOf( 0 );
+				for ( Object element : elements ) {
+					sum = Binary.arithmetic( "+", sum, element );
+				}
+				return sum;
+			} else if ( "max".equals( this.operation ) || "min".equals( this.operation ) ) {
+				Object best = null;
+				for ( Object element : elements ) {
+					int order = best == null ? 0 : compare( element, best );
+					if ( best == null || ( "max".equals( this.operation ) ? order > 0 : order < 0 ) ) {
+						best = element;
+					}
+				}
+				return best;
+			}
+			throw new IllegalStateException( "Unknown collection operation: " + this.operation );
+		}
+
+		void explain( StringBuffer out ) {
+			this.source.explain( out );
+			out.append( "->" + this.operation + "(" );
+			if ( this.argument != null ) {
+				this.argument.explain( out );
+			}
+			out.append( ")" );
+		}
+
+		private final QueryNode source;
+
+		private final String operation;
+
+		private final QueryNode argument;
+	}
+
+
+
+	static final class Binary
+	extends
+		QueryNode
+	{
+
+		Binary( String operator, QueryNode left, QueryNode right ) {
+			this.operator = operator;
+			this.left     = left;
+			this.right    = right;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			Object left = this.left.evaluate( scope );
+			if ( "and".equals( this.operator ) ) {
+				return isTrue( left ) && isTrue( this.right.evaluate( scope ) );
+			} else if ( "or".equals( this.operator ) ) {
+				return isTrue( left ) || isTrue( this.right.evaluate( scope ) );
+			} else if ( "implies".equals( this.operator ) ) {
+				return !isTrue( left ) || isTrue( this.right.evaluate( scope ) );
+			}
+
+			Object right = this.right.evaluate( scope );
+			if ( "=".equals( this.operator ) ) {
+				return isEqual( left, right );
+			} else if ( "<>".equals( this.operator ) ) {
+				return !isEqual( left, right );
+			} else if ( "<".equals( this.operator ) ) {
+				return compare( left, right ) < 0;
+			} else if ( "<=".equals( this.operator ) ) {
+				return compare( left, right ) <= 0;
+			} else if ( ">".equals( this.operator ) ) {
+				return compare( left, right ) > 0;
+			} else if ( ">=".equals( this.operator ) ) {
+				return compare( left, right ) >= 0;
+			}
+			return arithmetic( this.operator, left, right );
+		}
+
+		static Object arithmetic( String operator, Object left, Object right ) {
+			if ( "+".equals( operator ) && ( left instanceof String || right instanceof String ) ) {
+				return String.valueOf( left ) + String.valueOf( right );
+			}
+			if ( !( left instanceof Number ) || !( right instanceof Number ) ) {
+				throw new IllegalArgumentException( "The operator " + operator + " needs numbers, but got: " + left + " and " + right );
+			}
+			if ( isIntegral( left ) && isIntegral( right ) && !"/".equals( operator ) ) {
+				long l = ( (Number) left ).longValue();
+				long r = ( (Number) right ).longValue();
+				return "+".equals( operator ) ? l + r : "-".equals( operator ) ? l - r : l * r;
+			}
+			double l = ( (Number) left ).doubleValue();
+			double r = ( (Number) right ).doubleValue();
+			return "+".equals( operator ) ? l + r : "-".equals( operator ) ? l - r : "*".equals( operator ) ? l * r : l / r;
+		}
+
+		void explain( StringBuffer out ) {
+			out.append( "(" );
+			this.left.explain( out );
+			out.append( " " + this.operator + " " );
+			this.right.explain( out );
+			out.append( ")" );
+		}
+
+		String getOperator() {
+			return this.operator;
+		}
+
+		QueryNode getLeft() {
+			return this.left;
+		}
+
+		QueryNode getRight() {
+			return this.right;
+		}
+
+		private final String operator;
+
+		private final QueryNode left;
+
+		private final QueryNode right;
+	}
+
+
+
+	static final class Not
+	extends
+		QueryNode
+	{
+
+		Not( QueryNode operand ) {
+			this.operand = operand;
+		}
+
+		Object evaluate( QueryScope scope ) {
+			return !isTrue( this.operand.evaluate( scope ) );
+		}
+
+		void explain( StringBuffer out ) {
+			out.append( "not " );
+			this.operand.explain( out );
+		}
+
+		private final QueryNode operand;
+	}
+
+
+
+	/**
+	 * A lazy view of the elements of a type, optionally with a given simple or qualified name.
+	 *
+	 */
+	static final class Filtered
+	implements
+		Iterable<ModelElement>
+	{
+
+		Filtered( Iterable<? extends ModelElement> elements, Class<?> type, String name, Boolean qualified ) {
+			this.elements  = elements;
+			this.type      = type;
+			this.name      = name;
+			this.qualified = qualified;
+		}
+
+		public Iterator<ModelElement> iterator() {
+			final Iterator<? extends ModelElement> it = this.elements.iterator();
+
+			return new Iterator<ModelElement>() {
+
+				public boolean hasNext() {
+					while ( this.next == null && it.hasNext() ) {
+						ModelElement candidate = it.next();
+						if ( accepts( candidate ) ) {
+							this.next = candidate;
+						}
+					}
+					return this.next != null;
+				}
+
+				public ModelElement next() {
+					if ( !hasNext() ) {
+						throw new NoSuchElementException();
+					}
+					ModelElement current = this.next;
+					this.next = null;
+					return current;
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException( "The result of a query is read only." );
+				}
+
+				private ModelElement next = null;
+			};
+		}
+
+		private Boolean accepts( ModelElement candidate ) {
+			if ( !this.type.isInstance( candidate ) ) {
+				return Boolean.FALSE;
+			}
+			if ( this.name == null ) {
+				return Boolean.TRUE;
+			}
+			return this.name.equals( this.qualified ? candidate.getQualifiedName() : candidate.getSimpleName() );
+		}
+
+		private final Iterable<? extends ModelElement> elements;
+
+		private final Class<?> type;
+
+		private final String name;
+
+		private final Boolean qualified;
+	}
+}
@@ -0,0 +1,521 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * A QueryParser compiles the text of a query into a tree of QueryNodes.
+ * <p>
+ * The parser is a recursive descent parser for a subset of OCL:
+ * </p>
+ * <pre>
+ * expression := implies
+ * implies    := or ( 'implies' or )*
+ * or         := and ( 'or' and )*
+ * and        := comparison ( 'and' comparison )*
+ * comparison := additive ( ( '=' | '&lt;&gt;' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=' ) additive )?
+ * additive   := term ( ( '+' | '-' ) term )*
+ * term       := unary ( ( '*' | '/' ) unary )*
+ * unary      := 'not' unary | '-' unary | postfix
+ * postfix    := primary ( '.' name ( '(' arguments ')' )? | '-&gt;' name '(' ( variable ( ':' type )? '|' )? arguments ')' )*
+ * primary    := number | 'string' | 'true' | 'false' | 'null' | 'self' | variable | type | name | '(' expression ')'
+ * </pre>
+ * <p>
+ * A type name like <code>Table</code> stands for all Tables below <code>self</code>. A name that is neither a variable nor a type is a property
+ * of <code>self</code>. An iteration without a declared variable binds the iterated element as <code>self</code>, like OCL does.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class QueryParser {
+
+
+	QueryParser( String query ) {
+		this.query  = query;
+		this.tokens = tokenize( query );
+		this.variables.push( "self" );
+	}
+
+
+
+//====================================================================================================================================================
+// QueryParser capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The root of the compiled tree.
+	 *
+	 * @throws IllegalArgumentException If the query is not valid.
+	 *
+	 */
+	QueryNode parse() {
+		QueryNode root = expression();
+		if ( peek().kind != END ) {
+			throw unexpected( peek() );
+		}
+
+		return root;
+	}
+
+
+
+//====================================================================================================================================================
+// Grammar
+//====================================================================================================================================================
+
+
+
+	private QueryNode expression() {
+		QueryNode left = or();
+		while ( accept( "implies" ) ) {
+			left = new QueryNode.Binary( "implies", left, or() );
+		}
+
+		return left;
+	}
+
+
+
+	private QueryNode or() {
+		QueryNode left = and();
+		while ( accept( "or" ) ) {
+			left = new QueryNode.Binary( "or", left, and() );
+		}
+
+		return left;
+	}
+
+
+
+	private QueryNode and() {
+		QueryNode left = comparison();
+		while ( accept( "and" ) ) {
+			left = new QueryNode.Binary( "and", left, comparison() );
+		}
+
+		return left;
+	}
+
+
+
+	private QueryNode comparison() {
+		QueryNode left = additive();
+		for ( String operator : COMPARISONS ) {
+			if ( accept( operator ) ) {
+				return new QueryNode.Binary( operator, left, additive() );
+			}
+		}
+
+		return left;
+	}
+
+
+
+	private QueryNode additive() {
+		QueryNode left = term();
+		while ( peek().is( "+" ) || peek().is( "-" ) ) {
+			left = new QueryNode.Binary( next().text, left, term() );
+		}
+
+		return left;
+	}
+
+
+
+	private QueryNode term() {
+		QueryNode left = unary();
+		while ( peek().is( "*" ) || peek().is( "/" ) ) {
+			left = new QueryNode.Binary( next().text, left, unary() );
+		}
+
+		return left;
+	}
+
+
+
+	private QueryNode unary() {
+		if ( accept( "not" ) ) {
+			return new QueryNode.Not( unary() );
+		}
+		if ( accept( "-" ) ) {
+			return new QueryNode.Binary( "-", new QueryNode.Literal( Long.valueOf( 0 ) ), unary() );
+		}
+
+		return postfix();
+	}
+
+
+
+	private QueryNode postfix() {
+		QueryNode node = primary();
+		while ( true ) {
+			if ( accept( "." ) ) {
+				String name = expectName();
+				if ( !accept( "(" ) ) {
+					node = new QueryNode.Navigate( node, name );
+				} else if ( TYPE_OPERATIONS.contains( name ) ) {
+					node = new QueryNode.TypeOperation( node, name, expectType() );
+					expect( ")" );
+				} else if ( "allInstances".equals( name ) && node instanceof QueryNode.TypeExtent ) {
+					expect( ")" ); // a type already stands for all its instances
+				} else {
+					node = new QueryNode.Invoke( node, name, arguments() );
+				}
+			} else if ( accept( "->" ) ) {
+				Token operation = next();
+				expect( "(" );
+				if ( ITERATIONS.contains( operation.text ) ) {
+					node = iteration( node, operation.text );
+				} else if ( COLLECTION_OPERATIONS.contains( operation.text ) ) {
+					List<QueryNode> arguments = arguments();
+					if ( arguments.size() != ( ARGUMENT_OPERATIONS.contains( operation.text ) ? 1 : 0 ) ) {
+						throw new IllegalArgumentException( "Wrong number of arguments for " + operation.text + " at position " + operation.position
+								+ " of the query: " + this.query );
+					}
+					node = new QueryNode.CollectionOperation( node, operation.text, arguments.isEmpty() ? null : arguments.get( 0 ) );
+				} else {
+					throw unexpected( operation );
+				}
+			} else {
+				return node;
+			}
+		}
+	}
+
+
+
+	private QueryNode iteration( QueryNode source, String operation ) {
+		String variable = "self"; // implicit iterator
+		if ( peek().kind == NAME && ( peek( 1 ).is( "|" ) || peek( 1 ).is( ":" ) ) ) {
+			variable = next().text;
+			if ( accept( ":" ) ) {
+				expectType(); // the declared type is informal only
+			}
+			expect( "|" );
+		}
+		this.variables.push( variable );
+		QueryNode body = expression();
+		this.variables.pop();
+		expect( ")" );
+
+		return QueryPlanner.iterate( source, operation, variable, body );
+	}
+
+
+
+	private List<QueryNode> arguments() {
+		List<QueryNode> arguments = new ArrayList<QueryNode>();
+		if ( !accept( ")" ) ) {
+			do {
+				arguments.add( expression() );
+			} while ( accept( "," ) );
+			expect( ")" );
+		}
+
+		return arguments;
+	}
+
+
+
+	private QueryNode primary() {
+		Token token = next();
+		switch ( token.kind ) {
+		case NUMBER:
+			return new QueryNode.Literal( token.text.indexOf( '.' ) < 0 ? (Object) Long.valueOf( token.text ) : Double.valueOf( token.text ) );
+		case STRING:
+			return new QueryNode.Literal( token.text );
+		case NAME:
+			if ( "true".equals( token.text ) || "false".equals( token.text ) ) {
+				return new QueryNode.Literal( Boolean.valueOf( token.text ) );
+			} else if ( "null".equals( token.text ) ) {
+				return new QueryNode.Literal( null );
+			} else if ( this.variables.contains( token.text ) ) {
+				return new QueryNode.Variable( token.text );
+			}
+			Class<?> type = QueryTypes.resolve( token.text );
+			if ( type != null ) {
+				return new QueryNode.TypeExtent( type );
+			}
+			return new QueryNode.Navigate( new QueryNode.Variable( "self" ), token.text );
+		default:
+			if ( token.is( "(" ) ) {
+				QueryNode nested = expression();
+				expect( ")" );
+				return nested;
+			}
+			throw unexpected( token );
+		}
+	}
+
+
+
+	private Class<?> expectType() {
+		Token token = next();
+		Class<?> type = token.kind == NAME ? QueryTypes.resolve( token.text ) : null;
+		if ( type == null ) {
+			throw new IllegalArgumentException( "Unknown type '" + token.text + "' at position " + token.position + " of the query: " + this.query );
+		}
+
+		return type;
+	}
+
+
+
+	private String expectName() {
+		Token token = next();
+		if ( token.kind != NAME ) {
+			throw unexpected( token );
+		}
+
+		return token.text;
+	}
+
+
+
+	private void expect( String symbol ) {
+		Token token = next();
+		if ( !token.is( symbol ) ) {
+			throw new IllegalArgumentException( "Expected '" + symbol + "' but found '" + token.text + "' at position " + token.position
+					+ " of the query: " + this.query );
+		}
+	}
+
+
+
+	private Boolean accept( String text ) {
+		if ( peek().is( text ) ) {
+			this.next++;
+			return Boolean.TRUE;
+		}
+
+		return Boolean.FALSE;
+	}
+
+
+
+	private Token peek() {
+		return peek( 0 );
+	}
+
+
+
+	private Token peek( int ahead ) {
+		return this.tokens.get( Math.min( this.next + ahead, this.tokens.size() - 1 ) );
+	}
+
+
+
+	private Token next() {
+		Token token = peek();
+		if ( token.kind != END ) {
+			this.next++;
+		}
+
+		return token;
+	}
+
+
+
+	private IllegalArgumentException unexpected( Token token ) {
+		return new IllegalArgumentException( "Unexpected '" + token.text + "' at position " + token.position + " of the query: " + this.query );
+	}
+
+
+
+//====================================================================================================================================================
+// Tokenizer
+//====================================================================================================================================================
+
+
+
+	private static List<Token> tokenize( String query ) {
+		List<Token> tokens = new ArrayList<Token>();
+		int at = 0;
+		while ( at < query.length() ) {
+			char c = query.charAt( at );
+			if ( Character.isWhitespace( c ) ) {
+				at++;
+			} else if ( Character.isJavaIdentifierStart( c ) ) {
+				int start = at;
+				while ( at < query.length() && Character.isJavaIdentifierPart( query.charAt( at ) ) ) {
+					at++;
+				}
+				tokens.add( new Token( NAME, query.substring( start, at ), start ) );
+			} else if ( Character.isDigit( c ) ) {
+				int start = at;
+				while ( at < query.length() && ( Character.isDigit( query.charAt( at ) )
+						|| ( query.charAt( at ) == '.' && at + 1 < query.length() && Character.isDigit( query.charAt( at + 1 ) ) ) ) ) {
+					at++;
+				}
+				tokens.add( new Token( NUMBER, query.substring( start, at ), start ) );
+			} else if ( c == '\'' ) {
+				int start = at++;
+				StringBuffer text = new StringBuffer();
+				while ( true ) {
+					if ( at >= query.length() ) {
+						throw new IllegalArgumentException( "Unterminated string at position " + start + " of the query: " + query );
+					}
+					char s = query.charAt( at++ );
+					if ( s == '\'' ) {
+						if ( at < query.length() && query.charAt( at ) == '\'' ) {
+							at++; // escaped quote
+						} else {
+							break;
+						}
+					}
+					text.append( s );
+				}
+				tokens.add( new Token( STRING, text.toString(), start ) );
+			} else {
+				String symbol = null;
+				for ( String candidate : SYMBOLS ) {
+					if ( query.startsWith( candidate, at ) ) {
+						symbol = candidate;
+						break;
+					}
+				}
+				if ( symbol == null ) {
+					throw new IllegalArgumentException( "Unexpected '" + c + "' at position " + at + " of the query: " + query );
+				}
+				tokens.add( new Token( SYMBOL, symbol, at ) );
+				at += symbol.length();
+			}
+		}
+		tokens.add( new Token( END, "end of query", query.length() ) );
+
+		return tokens;
+	}
+
+
+
+	private static final class Token {
+
+		Token( int kind, String text, int position ) {
+			this.kind     = kind;
+			this.text     = text;
+			this.position = position;
+		}
+
+		Boolean is( String text ) {
+			return this.kind != STRING && this.kind != END && this.text.equals( text );
+		}
+
+		private final int kind;
+
+		private final String text;
+
+		private final int position;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final int NAME   = 0;
+
+
+
+	private static final int NUMBER = 1;
+
+
+
+	private static final int STRING = 2;
+
+
+
+	private static final int SYMBOL = 3;
+
+
+
+	private static final int END    = 4;
+
+
+
+	/**
+	 * The symbols, longer ones first, so <code>&lt;=</code> is not read as <code>&lt;</code>.
+	 *
+	 */
+	private static final String[] SYMBOLS = { "->", "<>", "<=", ">=", "=", "<", ">", "+", "-", "*", "/", ".", ",", "(", ")", "|", ":" };
+
+
+
+	private static final String[] COMPARISONS = { "=", "<>", "<=", ">=", "<", ">" };
+
+
+
+	private static final Set<String> TYPE_OPERATIONS = new HashSet<String>( Arrays.asList( "oclIsKindOf", "oclIsTypeOf", "oclAsType" ) );
+
+
+
+	private static final Set<String> ITERATIONS = new HashSet<String>( Arrays.asList(
+		"select", "reject", "collect", "exists", "forAll", "any", "one", "sortedBy"
+	) );
+
+
+
+	private static final Set<String> COLLECTION_OPERATIONS = new HashSet<String>( Arrays.asList(
+		"size", "isEmpty", "notEmpty", "includes", "excludes", "first", "asSet", "sum", "max", "min"
+	) );
+
+
+
+	private static final Set<String> ARGUMENT_OPERATIONS = new HashSet<String>( Arrays.asList( "includes", "excludes" ) );
+
+
+
+	private final String query;
+
+
+
+	private final List<Token> tokens;
+
+
+
+	/**
+	 * The variables bound at the current position, innermost first.
+	 *
+	 */
+	private final Deque<String> variables = new ArrayDeque<String>();
+
+
+
+	/**
+	 * The index of the next token.
+	 *
+	 */
+	private int next = 0;
+}
@@ -0,0 +1,175 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * The QueryPlanner rewrites iterations of a compiled query, so they can use an index.
+ * <p>
+ * The body of a <code>select</code>, <code>exists</code>, <code>any</code> or <code>one</code> is split into its conjuncts. Two kinds of
+ * conjuncts are taken out of the body:
+ * </p>
+ * <ul>
+ * <li><code>v.oclIsKindOf(T)</code> becomes a type filter, checked before the rest of the body. If the iteration runs over the extent of a
+ * super type of <code>T</code>, the extent is narrowed to <code>T</code>, so a type index only returns the matching elements.</li>
+ * <li><code>v.name = 'x'</code> and <code>v.qualifiedName = 'x'</code> on the extent of a type become a lookup of the name index.</li>
+ * </ul>
+ * <p>
+ * Without an index every plan falls back to a traversal of the model, so the rewrite never changes the result of a query.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class QueryPlanner {
+
+
+
+	private QueryPlanner() {
+		// only static access
+	}
+
+
+
+	/**
+	 * Creates the node of an iteration.
+	 *
+	 * @param source The iterated collection.
+	 *
+	 * @param operation The name of the iteration, like <code>select</code>.
+	 *
+	 * @param variable The name of the iterator variable.
+	 *
+	 * @param body The body of the iteration.
+	 *
+	 * @return The planned node of the iteration.
+	 *
+	 */
+	static QueryNode iterate( QueryNode source, String operation, String variable, QueryNode body ) {
+		if ( !"select".equals( operation ) && !"exists".equals( operation ) && !"any".equals( operation ) && !"one".equals( operation ) ) {
+			return new QueryNode.Iterate( source, operation, variable, body, null );
+		}
+
+		List<QueryNode> conjuncts = new ArrayList<QueryNode>();
+		split( body, conjuncts );
+
+		Class<?> filter = null;
+		for ( Iterator<QueryNode> it = conjuncts.iterator(); it.hasNext(); ) {
+			QueryNode conjunct = it.next();
+			if ( conjunct instanceof QueryNode.TypeOperation ) {
+				QueryNode.TypeOperation test = (QueryNode.TypeOperation) conjunct;
+				if (   "oclIsKindOf".equals( test.getOperation() )
+					&& isVariable( test.getSource(), variable )
+					&& ( filter == null || filter.isAssignableFrom( test.getType() ) )
+				) {
+					filter = test.getType();
+					it.remove();
+				}
+			}
+		}
+		if ( filter != null && source instanceof QueryNode.TypeExtent && ( (QueryNode.TypeExtent) source ).getType().isAssignableFrom( filter ) ) {
+			source = new QueryNode.TypeExtent( filter );
+			filter = null;
+		}
+
+		if ( source instanceof QueryNode.TypeExtent ) {
+			for ( Iterator<QueryNode> it = conjuncts.iterator(); it.hasNext(); ) {
+				QueryNode conjunct = it.next();
+				String name = getNameLiteral( conjunct, variable, "name" );
+				String qualifiedName = getNameLiteral( conjunct, variable, "qualifiedName" );
+				if ( name != null || qualifiedName != null ) {
+					Class<?> type = ( (QueryNode.TypeExtent) source ).getType();
+					source = new QueryNode.NameLookup( type, name != null ? name : qualifiedName, name == null );
+					it.remove();
+					break;
+				}
+			}
+		}
+
+		return new QueryNode.Iterate( source, operation, variable, join( conjuncts ), filter );
+	}
+
+
+
+	private static void split( QueryNode node, List<QueryNode> conjuncts ) {
+		if ( node instanceof QueryNode.Binary && "and".equals( ( (QueryNode.Binary) node ).getOperator() ) ) {
+			split( ( (QueryNode.Binary) node ).getLeft(), conjuncts );
+			split( ( (QueryNode.Binary) node ).getRight(), conjuncts );
+		} else {
+			conjuncts.add( node );
+		}
+	}
+
+
+
+	private static QueryNode join( List<QueryNode> conjuncts ) {
+		if ( conjuncts.isEmpty() ) {
+			return new QueryNode.Literal( Boolean.TRUE );
+		}
+		QueryNode joined = conjuncts.get( 0 );
+		for ( int i = 1; i < conjuncts.size(); i++ ) {
+			joined = new QueryNode.Binary( "and", joined, conjuncts.get( i ) );
+		}
+
+		return joined;
+	}
+
+
+
+	private static Boolean isVariable( QueryNode node, String variable ) {
+		return node instanceof QueryNode.Variable && variable.equals( ( (QueryNode.Variable) node ).getName() );
+	}
+
+
+
+	/**
+	 * @return The string literal of a conjunct <code>variable.property = 'literal'</code> in either order, or <code>null</code> if the
+	 * conjunct does not have this form.
+	 *
+	 */
+	private static String getNameLiteral( QueryNode conjunct, String variable, String property ) {
+		if ( !( conjunct instanceof QueryNode.Binary ) || !"=".equals( ( (QueryNode.Binary) conjunct ).getOperator() ) ) {
+			return null;
+		}
+		QueryNode left  = ( (QueryNode.Binary) conjunct ).getLeft();
+		QueryNode right = ( (QueryNode.Binary) conjunct ).getRight();
+		if ( left instanceof QueryNode.Literal ) {
+			QueryNode swap = left;
+			left  = right;
+			right = swap;
+		}
+		if (   left instanceof QueryNode.Navigate
+			&& property.equals( ( (QueryNode.Navigate) left ).getProperty() )
+			&& isVariable( ( (QueryNode.Navigate) left ).getSource(), variable )
+			&& right instanceof QueryNode.Literal
+			&& ( (QueryNode.Literal) right ).getValue() instanceof String
+		) {
+			return (String) ( (QueryNode.Literal) right ).getValue();
+		}
+
+		return null;
+	}
+}
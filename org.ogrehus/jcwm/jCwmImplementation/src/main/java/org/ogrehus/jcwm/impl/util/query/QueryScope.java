@@ -0,0 +1,134 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A QueryScope holds the variables visible during the evaluation of a part of a Query.
+ * <p>
+ * Scopes are immutable and chained: binding the iterator variable of a collection operation creates a new scope on top of the enclosing one,
+ * so nested iterations need no copying and no cleanup.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class QueryScope {
+
+
+	/**
+	 * Creates the outermost scope of an evaluation, binding <code>self</code>.
+	 *
+	 * @param self The context element of the Query.
+	 *
+	 * @param index An index of the model below <code>self</code>, or <code>null</code> if none is available.
+	 *
+	 */
+	QueryScope( ModelElement self, QueryIndex index ) {
+		this( self, index, "self", self, null );
+	}
+
+
+
+	private QueryScope( ModelElement self, QueryIndex index, String name, Object value, QueryScope parent ) {
+		this.self   = self;
+		this.index  = index;
+		this.name   = name;
+		this.value  = value;
+		this.parent = parent;
+	}
+
+
+
+//====================================================================================================================================================
+// QueryScope capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return A new scope binding the variable on top of this scope.
+	 *
+	 */
+	QueryScope bind( String name, Object value ) {
+		return new QueryScope( this.self, this.index, name, value, this );
+	}
+
+
+
+	/**
+	 * @return The value of the innermost variable with the name.
+	 *
+	 */
+	Object lookup( String name ) {
+		for ( QueryScope scope = this; scope != null; scope = scope.parent ) {
+			if ( scope.name.equals( name ) ) {
+				return scope.value;
+			}
+		}
+		throw new IllegalStateException( "The variable " + name + " is not bound." );
+	}
+
+
+
+	ModelElement getSelf() {
+		return this.self;
+	}
+
+
+
+	/**
+	 * @return The index of the model below <code>self</code>, or <code>null</code> if the model has to be traversed.
+	 *
+	 */
+	QueryIndex getIndex() {
+		return this.index;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement self;
+
+
+
+	private final QueryIndex index;
+
+
+
+	private final String name;
+
+
+
+	private final Object value;
+
+
+
+	private final QueryScope parent;
+}
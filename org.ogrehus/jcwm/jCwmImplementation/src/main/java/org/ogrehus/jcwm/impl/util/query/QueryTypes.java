@@ -0,0 +1,122 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * QueryTypes resolves the simple names of the CWM interfaces used in queries, like <code>Table</code> in <code>oclIsKindOf(Table)</code>.
+ * <p>
+ * The names are looked up in the packages of the API. The result of each lookup is cached, including failed lookups.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class QueryTypes {
+
+
+
+	private QueryTypes() {
+		// only static access
+	}
+
+
+
+	/**
+	 * @param simpleName The simple name of an interface of the API.
+	 *
+	 * @return The interface, or <code>null</code> if no interface of the API has the name.
+	 *
+	 */
+	static Class<?> resolve( String simpleName ) {
+		Class<?> type = types.get( simpleName );
+		if ( type == null ) {
+			type = NOT_FOUND;
+			if ( !simpleName.isEmpty() && Character.isUpperCase( simpleName.charAt( 0 ) ) ) {
+				for ( String name : PACKAGES ) {
+					try {
+						type = Class.forName( API + name + "." + simpleName );
+						break;
+					} catch ( ClassNotFoundException e ) {
+						// try next package
+					}
+				}
+			}
+			types.putIfAbsent( simpleName, type );
+		}
+
+		return type == NOT_FOUND ? null : type;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final String API = "org.ogrehus.jcwm.api.";
+
+
+
+	/**
+	 * The packages of the API that define types, in the order of their lookup.
+	 *
+	 */
+	private static final String[] PACKAGES = {
+		  "objectmodel.core"
+		, "objectmodel.behavioral"
+		, "objectmodel.relationships"
+		, "objectmodel.instance"
+		, "foundation.businessinformation"
+		, "foundation.datatypes"
+		, "foundation.keyindexes"
+		, "foundation.softwaredeployment"
+		, "foundation.typemapping"
+		, "resource.relational"
+		, "objectmodel.core.util.generic"
+		, "objectmodel.behavioral.util.generic"
+		, "objectmodel.relationships.util.generic"
+		, "objectmodel.instance.util.generic"
+		, "foundation.datatypes.util.generic"
+		, "foundation.keyindexes.util.generic"
+		, "foundation.softwaredeployment.util.generic"
+		, "foundation.typemapping.util.generic"
+		, "resource.relational.util.generic"
+	};
+
+
+
+	/**
+	 * Marks a name that is not the name of a type.
+	 *
+	 */
+	private static final Class<?> NOT_FOUND = Void.class;
+
+
+
+	private static final ConcurrentMap<String, Class<?>> types = new ConcurrentHashMap<String, Class<?>>();
+}
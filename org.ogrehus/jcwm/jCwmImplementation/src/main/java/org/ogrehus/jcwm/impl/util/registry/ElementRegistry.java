@@ -0,0 +1,361 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.registry;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+
+
+/**
+ * An ElementRegistry assigns dense int ids to ModelElements and resolves an id to its element in O(1).
+ * <p>
+ * Ids start at 1, so <code>0</code> can stand for "no element" in arrays of ids. The registry holds the elements weakly: an element that is not
+ * referenced anymore is garbage collected as usual, and its id is handed out again by one of the next registrations. So the ids stay dense
+ * while models are built and dropped, and indexes, bitmaps or serialization formats can use the ids as positions in arrays. An id is valid as
+ * long as its element is reachable; an id kept beyond the life of its element may resolve to another element later.
+ * </p>
+ * <p>
+ * A {@link GFunModelElement} is registered once it is constructed, see {@link GFunModelElement#register(ElementRegistry)}. The package
+ * factories, like {@link org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage} or
+ * {@link org.ogrehus.jcwm.impl.objectmodel.core.FunCorePackage}, are created for a registry and register the elements they create in it, so
+ * each repository can build its models in a registry of its own. An element constructed otherwise is registered in the registry of the
+ * element it is linked to first, like a column in the registry of its Table.
+ * </p>
+ * <p>
+ * An ElementRegistry is thread safe and takes no lock. Ids are allocated by an atomic counter, the entries are kept in chunks, that are
+ * published with release semantics and read with acquire semantics, so resolving an id sees the completely registered element.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ElementRegistry {
+
+
+	public ElementRegistry() {
+		this.chunks   = new AtomicReference<Chunk[]>( new Chunk[] { new Chunk() } );
+		this.highest  = new AtomicInteger();
+		this.size     = new AtomicInteger();
+		this.free     = new ConcurrentLinkedQueue<Integer>();
+		this.released = new ReferenceQueue<ModelElement>();
+	}
+
+
+
+//====================================================================================================================================================
+// ElementRegistry capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The registry of the factories created without a registry of their own.
+	 *
+	 */
+	public static ElementRegistry getDefault() {
+		return DEFAULT;
+	}
+
+
+
+	/**
+	 * Registers an element created by a factory of this registry, once it is constructed. A factory returns the element it creates by:
+	 * <pre>
+	 * return this.registry.adopt( new FunTable( name, isSystem, isTemporary ) );
+	 * </pre>
+	 *
+	 * @param element A GFunModelElement. Must not be <code>null</code>.
+	 *
+	 * @return The element.
+	 *
+	 * @throws IllegalArgumentException If the element is no GFunModelElement.
+	 *
+	 */
+	public <ELEMENT extends ModelElement> ELEMENT adopt( ELEMENT element ) {
+		if ( element == null ) {
+			throw new NullPointerException( "Parameter: element must not be null." );
+		}
+		if ( !( element instanceof GFunModelElement<?, ?, ?, ?> ) ) {
+			throw new IllegalArgumentException( "The element: " + element.getClass().getName() + " is no GFunModelElement." );
+		}
+		( (GFunModelElement<?, ?, ?, ?>) element ).register( this );
+
+		return element;
+	}
+
+
+
+	/**
+	 * Reserves the next free id for an element, that is bound to it by {@link #bind(int, ModelElement)}. So an element can store its id
+	 * before other threads can resolve it.
+	 *
+	 * @return An id, greater than <code>0</code>.
+	 *
+	 */
+	public int allocate() {
+		recycle();
+		Integer free = this.free.poll();
+
+		return free == null ? this.highest.incrementAndGet() : free.intValue();
+	}
+
+
+
+	/**
+	 * Binds an element to an id reserved by {@link #allocate()}, from now on the id resolves to the element.
+	 *
+	 * @param element Must not be <code>null</code>.
+	 *
+	 */
+	public void bind( int id, ModelElement element ) {
+		if ( element == null ) {
+			throw new NullPointerException( "Parameter: element must not be null." );
+		}
+		getChunk( id >>> CHUNK_BITS ).setRelease( id & CHUNK_MASK, new Entry( element, id, this.released ) );
+		this.size.incrementAndGet();
+	}
+
+
+
+	/**
+	 * @return The element with the id, <code>null</code> if no reachable element has the id.
+	 *
+	 */
+	public ModelElement resolve( int id ) {
+		if ( id <= 0 ) {
+			return null;
+		}
+		Chunk[] chunks = this.chunks.get();
+		int index = id >>> CHUNK_BITS;
+		Chunk chunk = index < chunks.length ? chunks[ index ] : null;
+		if ( chunk == null ) {
+			return null;
+		}
+		Entry entry = chunk.getAcquire( id & CHUNK_MASK );
+
+		return entry == null ? null : entry.get();
+	}
+
+
+
+	/**
+	 * @return The id of an element in this registry, <code>0</code> if the element is not registered here.
+	 *
+	 */
+	public int getId( ModelElement element ) {
+		if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+			int id = ( (GFunModelElement<?, ?, ?, ?>) element ).getId();
+			if ( resolve( id ) == element ) {
+				return id;
+			}
+		}
+
+		return 0;
+	}
+
+
+
+	/**
+	 * @return The number of registered elements, that were not garbage collected so far.
+	 *
+	 */
+	public int size() {
+		recycle();
+
+		return this.size.get();
+	}
+
+
+
+	/**
+	 * @return The highest id assigned so far: arrays indexed by id need a length of one more.
+	 *
+	 */
+	public int getHighestId() {
+		return this.highest.get();
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ElementRegistry" );
+		out.append( " | size=" + this.size.get() );
+		out.append( " | highestId=" + this.highest.get() );
+		out.append( " | free=" + this.free.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ElementRegistry internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Frees the ids of the garbage collected elements. An entry is removed only, if its slot still holds it.
+	 *
+	 */
+	private void recycle() {
+		for ( Object released = this.released.poll(); released != null; released = this.released.poll() ) {
+			int id = ( (Entry) released ).id;
+			if ( getChunk( id >>> CHUNK_BITS ).compareAndSet( id & CHUNK_MASK, (Entry) released, null ) ) {
+				this.size.decrementAndGet();
+				this.free.add( Integer.valueOf( id ) );
+			}
+		}
+	}
+
+
+
+	/**
+	 * @return The chunk with the index, created if missing. The directory of chunks is replaced by a grown copy, a chunk once published is
+	 * never replaced.
+	 *
+	 */
+	private Chunk getChunk( int index ) {
+		for ( ;; ) {
+			Chunk[] chunks = this.chunks.get();
+			if ( index < chunks.length && chunks[ index ] != null ) {
+				return chunks[ index ];
+			}
+			Chunk[] grown = index < chunks.length ? chunks.clone() : Arrays.copyOf( chunks, Math.max( index + 1, chunks.length << 1 ) );
+			grown[ index ] = new Chunk();
+			if ( this.chunks.compareAndSet( chunks, grown ) ) {
+				return grown[ index ];
+			}
+		}
+	}
+
+
+
+	/**
+	 * The weak reference to an element, that remembers the id of the element after it was garbage collected.
+	 *
+	 */
+	private static final class Entry
+	extends
+		WeakReference<ModelElement>
+	{
+
+
+		Entry( ModelElement element, int id, ReferenceQueue<ModelElement> queue ) {
+			super( element, queue );
+			this.id = id;
+		}
+
+
+
+		private final int id;
+	}
+
+
+
+	/**
+	 * The entries of <code>CHUNK_SIZE</code> consecutive ids.
+	 *
+	 */
+	private static final class Chunk
+	extends
+		AtomicReferenceArray<Entry>
+	{
+
+
+		Chunk() {
+			super( CHUNK_SIZE );
+		}
+
+
+
+		private static final long serialVersionUID = 1L;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final ElementRegistry DEFAULT = new ElementRegistry();
+
+
+
+	private static final int CHUNK_BITS = 10;
+
+
+
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+
+
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+
+
+	/**
+	 * The chunks of entries by the high bits of the ids. The directory grows by copy on write, so resolving needs no lock.
+	 *
+	 */
+	private final AtomicReference<Chunk[]> chunks;
+
+
+
+	private final AtomicInteger highest;
+
+
+
+	private final AtomicInteger size;
+
+
+
+	/**
+	 * The ids of garbage collected elements, handed out again before new ids.
+	 *
+	 */
+	private final Queue<Integer> free;
+
+
+
+	private final ReferenceQueue<ModelElement> released;
+}
@@ -0,0 +1,484 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.render;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.Name;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
+
+
+/**
+ * A ModelDescription is the bounded target a ModelElement describes itself to.
+ * <p>
+ * The description writes straight to an Appendable. Qualified names are written name by name from the root namespace, numbers digit by digit,
+ * so describing an element allocates no intermediate Strings. Collections are cut after the maximum number of items, like
+ * <code>features(120)={A , B , C , ...+117}</code>, and the whole description is cut at the maximum number of characters, so even a Schema
+ * with a million tables is described in a bounded time.
+ * </p>
+ * <p>
+ * A ModelDescription created for a PropertyVisitor writes nothing. It passes each property, reference and collection to the visitor instead, so
+ * the properties an element describes can be read without parsing a rendering.
+ * </p>
+ * <p>
+ * A ModelDescription is created for a single rendering and is not thread safe.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelDescription {
+
+
+	ModelDescription( Appendable out, int maxItems, int maxChars ) {
+		this.out      = out;
+		this.visitor  = null;
+		this.maxItems = maxItems;
+		this.maxChars = maxChars;
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelDescription that passes the described properties to a visitor.
+	 *
+	 * @param visitor Receives the properties, references and collections in the order they are described. Must not be <code>null</code>.
+	 *
+	 */
+	public ModelDescription( PropertyVisitor visitor ) {
+		if ( visitor == null ) {
+			throw new NullPointerException( "Parameter: visitor must not be null." );
+		}
+		this.out      = null;
+		this.visitor  = visitor;
+		this.maxItems = Integer.MAX_VALUE;
+		this.maxChars = Integer.MAX_VALUE;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelDescription capabilities
+//====================================================================================================================================================
+
+
+
+	public ModelDescription append( CharSequence text ) {
+		if ( this.visitor != null ) {
+			return this; // visited, not written
+		}
+		if ( text == null ) {
+			text = "null";
+		}
+		int length = text.length();
+		int room = this.maxChars - this.length;
+		if ( length > room ) {
+			write( text, 0, room );
+			truncate();
+		}
+		write( text, 0, length );
+
+		return this;
+	}
+
+
+
+	public ModelDescription append( char c ) {
+		if ( this.visitor != null ) {
+			return this;
+		}
+		if ( this.length >= this.maxChars ) {
+			truncate();
+		}
+		try {
+			this.out.append( c );
+		} catch ( IOException e ) {
+			throw new Failure( e );
+		}
+		this.length++;
+
+		return this;
+	}
+
+
+
+	/**
+	 * Appends the decimal digits of a number, without creating a String.
+	 *
+	 */
+	public ModelDescription append( long number ) {
+		if ( this.visitor != null ) {
+			return this;
+		}
+		if ( number == Long.MIN_VALUE ) {
+			return append( "-9223372036854775808" );
+		}
+		if ( number < 0 ) {
+			append( '-' );
+			number = -number;
+		}
+		long divisor = 1;
+		while ( number / divisor >= 10 ) {
+			divisor *= 10;
+		}
+		for ( ; divisor > 0; divisor /= 10 ) {
+			append( (char) ( '0' + ( number / divisor ) % 10 ) );
+		}
+
+		return this;
+	}
+
+
+
+	/**
+	 * Appends a value: a Name by its value, a ModelElement by its qualified name, a number by its digits, an Enum by its name, anything else by its String value.
+	 *
+	 */
+	public ModelDescription value( Object value ) {
+		if ( value instanceof CharSequence ) {
+			return append( (CharSequence) value );
+		}
+		if ( value instanceof Name ) {
+			return append( value.toString() ); // the value of the name, not the name of the data type
+		}
+		if ( value instanceof ModelElement ) {
+			return qualifiedName( (ModelElement) value );
+		}
+		if ( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ) {
+			return append( ( (Number) value ).longValue() );
+		}
+		if ( value instanceof Boolean ) {
+			return append( ( (Boolean) value ).booleanValue() ? "true" : "false" );
+		}
+		if ( value instanceof Enum<?> ) {
+			return append( ( (Enum<?>) value ).name() );
+		}
+
+		return append( String.valueOf( value ) );
+	}
+
+
+
+	/**
+	 * Appends a property like <code> | name=value</code>, see {@link #value(Object)}.
+	 *
+	 */
+	public ModelDescription property( String name, Object value ) {
+		if ( this.visitor != null ) {
+			this.visitor.visit( name, value );
+			return this;
+		}
+		append( " | " );
+		append( name );
+		append( '=' );
+
+		return value( value );
+	}
+
+
+
+	/**
+	 * Appends a referenced element like <code> | name=SCHEMA.TABLE&lt;FunTable&gt;</code>.
+	 *
+	 */
+	public ModelDescription reference( String name, ModelElement element ) {
+		if ( this.visitor != null ) {
+			this.visitor.visit( name, element );
+			return this;
+		}
+		property( name, element );
+
+		return type( element );
+	}
+
+
+
+	/**
+	 * Appends the simple class name of an object like <code>&lt;FunTable&gt;</code>.
+	 *
+	 */
+	public ModelDescription type( Object object ) {
+		if ( object == null ) {
+			return this;
+		}
+		append( '<' );
+		append( object.getClass().getSimpleName() );
+
+		return append( '>' );
+	}
+
+
+
+	/**
+	 * Appends the qualified name of an element, name by name from the root namespace, like <code>getQualifiedName()</code>.
+	 *
+	 */
+	public ModelDescription qualifiedName( ModelElement element ) {
+		if ( this.visitor != null ) {
+			return this;
+		}
+		int size = 0;
+		for ( ModelElement current = element; current != null; current = getNamespace( current ) ) {
+			if ( size == this.chain.length ) {
+				ModelElement[] grown = new ModelElement[ size * 2 ];
+				System.arraycopy( this.chain, 0, grown, 0, size );
+				this.chain = grown;
+			}
+			this.chain[size++] = current;
+		}
+
+		boolean written = false; // an empty qualified name of the namespace is not separated
+		for ( int i = size - 1; i >= 0; i-- ) {
+			String name = this.chain[i].getSimpleName();
+			this.chain[i] = null;
+			if ( written ) {
+				append( '.' );
+			} else {
+				written = name.length() > 0;
+			}
+			append( name );
+		}
+
+		return this;
+	}
+
+
+
+	/**
+	 * Appends the qualified names of a collection, like <code> | name(3)={A.X , A.Y , A.Z}</code>. Nothing is appended for an empty
+	 * collection.
+	 *
+	 * @param typed <code>true</code> to append the class name of each element.
+	 *
+	 */
+	public ModelDescription elements( String name, Collection<? extends ModelElement> elements, boolean typed ) {
+		return elements( name, elements, typed, true );
+	}
+
+
+
+	/**
+	 * Appends the simple names of a collection, like <code> | name(3)={X , Y , Z}</code>. Nothing is appended for an empty collection.
+	 *
+	 * @param typed <code>true</code> to append the class name of each element.
+	 *
+	 */
+	public ModelDescription simpleNames( String name, Collection<? extends ModelElement> elements, boolean typed ) {
+		return elements( name, elements, typed, false );
+	}
+
+
+
+	/**
+	 * @return The number of characters appended so far.
+	 *
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+
+
+	public int getMaxItems() {
+		return this.maxItems;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelDescription internals
+//====================================================================================================================================================
+
+
+
+	private ModelDescription elements( String name, Collection<? extends ModelElement> elements, boolean typed, boolean qualified ) {
+		if ( elements == null || elements.isEmpty() ) {
+			return this;
+		}
+		if ( this.visitor != null ) {
+			this.visitor.visit( name, elements );
+			return this;
+		}
+		append( " | " );
+		append( name );
+		append( '(' );
+		append( elements.size() );
+		append( ")={" );
+		int count = 0;
+		for ( ModelElement element : elements ) {
+			if ( element == null ) {
+				continue;
+			}
+			if ( count > 0 ) {
+				append( " , " );
+			}
+			if ( count == this.maxItems ) {
+				append( "...+" );
+				append( elements.size() - count );
+				break;
+			}
+			if ( qualified ) {
+				qualifiedName( element );
+			} else {
+				append( element.getSimpleName() );
+			}
+			if ( typed ) {
+				type( element );
+			}
+			count++;
+		}
+
+		return append( '}' );
+	}
+
+
+
+	private static ModelElement getNamespace( ModelElement element ) {
+		return element instanceof GModelElement<?, ?, ?, ?> ? ( (GModelElement<?, ?, ?, ?>) element ).getNamespace() : null;
+	}
+
+
+
+	private void write( CharSequence text, int start, int end ) {
+		try {
+			this.out.append( text, start, end );
+		} catch ( IOException e ) {
+			throw new Failure( e );
+		}
+		this.length += end - start;
+	}
+
+
+
+	/**
+	 * Marks the cut and ends the rendering.
+	 *
+	 */
+	private void truncate() {
+		try {
+			this.out.append( "..." );
+		} catch ( IOException e ) {
+			throw new Failure( e );
+		}
+		this.truncated = true;
+		throw TRUNCATED;
+	}
+
+
+
+	Boolean isTruncated() {
+		return this.truncated;
+	}
+
+
+
+	/**
+	 * Ends a rendering at the maximum number of characters. Thrown without stack trace, cause it is no error.
+	 *
+	 */
+	static final class Truncation
+	extends
+		RuntimeException
+	{
+
+
+		private Truncation() {
+			super( "truncated", null, false, false );
+		}
+
+
+
+		private static final long serialVersionUID = 1L;
+	}
+
+
+
+	/**
+	 * Carries an IOException of the Appendable out of a describing ModelElement.
+	 *
+	 */
+	static final class Failure
+	extends
+		RuntimeException
+	{
+
+
+		Failure( IOException cause ) {
+			super( cause );
+		}
+
+
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+
+
+
+		private static final long serialVersionUID = 1L;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	static final Truncation TRUNCATED = new Truncation();
+
+
+
+	private final Appendable out;
+
+
+
+	private final PropertyVisitor visitor;
+
+
+
+	private final int maxItems;
+
+
+
+	private final int maxChars;
+
+
+
+	private int length = 0;
+
+
+
+	private boolean truncated = false;
+
+
+
+	/**
+	 * The reused path of the last qualified name, from the element up to its root namespace.
+	 *
+	 */
+	private ModelElement[] chain = new ModelElement[ 8 ];
+}
@@ -0,0 +1,322 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.render;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+
+
+/**
+ * A ModelRenderer writes ModelElements to an Appendable, bounded in depth, in the number of listed items and in length.
+ * <p>
+ * The renderer is immutable and can be shared by threads. Rendering to a String reuses a StringBuilder per thread, so logging an element in a
+ * hot path allocates only the resulting String.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * ModelRenderer renderer = new ModelRenderer( RenderMode.summary, 1, 5, 4096 );
+ * renderer.render( schema, System.out );
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelRenderer {
+
+
+	/**
+	 * @param mode     How much of each element is rendered.
+	 * @param maxDepth The number of levels of owned elements rendered below the element, 0 renders the element only.
+	 * @param maxItems The number of items listed of a collection, the remaining items are counted only.
+	 * @param maxChars The maximum length of a rendering, longer renderings are cut and marked by "...".
+	 *
+	 */
+	public ModelRenderer( RenderMode mode, int maxDepth, int maxItems, int maxChars ) {
+		if ( mode == null ) {
+			throw new NullPointerException( "Parameter: mode must not be null." );
+		}
+		if ( maxDepth < 0 || maxItems < 0 || maxChars < 0 ) {
+			throw new IllegalArgumentException( "Parameters: maxDepth, maxItems and maxChars must not be negative." );
+		}
+		this.mode     = mode;
+		this.maxDepth = maxDepth;
+		this.maxItems = maxItems;
+		this.maxChars = maxChars;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelRenderer capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Renders an element to an Appendable.
+	 *
+	 * @return <code>true</code> if the rendering is complete, <code>false</code> if it was cut at the maximum length.
+	 *
+	 * @throws IOException If the Appendable fails.
+	 *
+	 */
+	public Boolean render( ModelElement element, Appendable out )
+	throws
+		IOException
+	{
+		if ( out == null ) {
+			throw new NullPointerException( "Parameter: out must not be null." );
+		}
+		ModelDescription description = new ModelDescription( out, this.maxItems, this.maxChars );
+		try {
+			render( element, description, 0 );
+		} catch ( ModelDescription.Truncation e ) {
+			return false;
+		} catch ( ModelDescription.Failure e ) {
+			throw e.getCause();
+		}
+
+		return !description.isTruncated();
+	}
+
+
+
+	/**
+	 * Renders an element to a String, using a StringBuilder reused by the current thread.
+	 *
+	 */
+	public String render( ModelElement element ) {
+		Buffer buffer = BUFFER.get();
+		if ( buffer.busy ) { // an element rendered while rendering, by a describe
+			StringBuilder out = new StringBuilder();
+			append( element, out );
+			return out.toString();
+		}
+		buffer.busy = true;
+		try {
+			StringBuilder out = buffer.builder;
+			out.setLength( 0 );
+			append( element, out );
+			String result = out.toString();
+			if ( out.capacity() > MAX_RETAINED_CAPACITY ) {
+				buffer.builder = new StringBuilder();
+			}
+			return result;
+		} finally {
+			buffer.busy = false;
+		}
+	}
+
+
+
+	public RenderMode getMode() {
+		return this.mode;
+	}
+
+
+
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+
+
+	public int getMaxItems() {
+		return this.maxItems;
+	}
+
+
+
+	public int getMaxChars() {
+		return this.maxChars;
+	}
+
+
+
+	/**
+	 * @return The renderer of <code>toString()</code>: a summary of the element only, at most 10 items and 1024 characters.
+	 *
+	 */
+	public static ModelRenderer getSummary() {
+		return SUMMARY;
+	}
+
+
+
+	/**
+	 * @return A renderer of all properties of the element only, at most 100 items and 64k characters.
+	 *
+	 */
+	public static ModelRenderer getFull() {
+		return FULL;
+	}
+
+
+
+//====================================================================================================================================================
+// ModelRenderer internals
+//====================================================================================================================================================
+
+
+
+	private void render( ModelElement element, ModelDescription out, int depth ) {
+		if ( element == null ) {
+			out.append( "null" );
+			return;
+		}
+		if ( this.mode == RenderMode.full && element instanceof GFunModelElement<?, ?, ?, ?> ) {
+			( (GFunModelElement<?, ?, ?, ?>) element ).describe( out );
+		} else {
+			out.append( '[' );
+			out.append( element.getClass().getSimpleName() );
+			out.property( "name", element );
+			count( out, "ownedElements", getOwnedElements( element ) );
+			count( out, "features", getFeatures( element ) );
+			out.append( ']' );
+		}
+
+		Collection<? extends ModelElement> children = getOwnedElements( element );
+		if ( depth >= this.maxDepth || children == null || children.isEmpty() ) {
+			return;
+		}
+		int count = 0;
+		for ( ModelElement child : children ) {
+			out.append( '\n' );
+			for ( int i = 0; i <= depth; i++ ) {
+				out.append( '\t' );
+			}
+			if ( count == this.maxItems ) {
+				out.append( "...+" );
+				out.append( children.size() - count );
+				break;
+			}
+			render( child, out, depth + 1 );
+			count++;
+		}
+	}
+
+
+
+	private void append( ModelElement element, StringBuilder out ) {
+		try {
+			render( element, out );
+		} catch ( IOException e ) {
+			throw new IllegalStateException( "A StringBuilder must not fail.", e );
+		}
+	}
+
+
+
+	private static void count( ModelDescription out, String name, Collection<?> elements ) {
+		if ( elements == null || elements.isEmpty() ) {
+			return;
+		}
+		out.append( " | " );
+		out.append( name );
+		out.append( '(' );
+		out.append( elements.size() );
+		out.append( ')' );
+	}
+
+
+
+	private static Collection<? extends ModelElement> getOwnedElements( ModelElement element ) {
+		return element instanceof GNamespace<?, ?, ?, ?, ?> ? ( (GNamespace<?, ?, ?, ?, ?>) element ).getOwnedElements() : null;
+	}
+
+
+
+	private static Collection<? extends ModelElement> getFeatures( ModelElement element ) {
+		return element instanceof GClassifier<?, ?, ?, ?, ?, ?> ? ( (GClassifier<?, ?, ?, ?, ?, ?>) element ).getFeatures() : null;
+	}
+
+
+
+	/**
+	 * The reused StringBuilder of a thread, and whether it is in use by a rendering.
+	 *
+	 */
+	private static final class Buffer {
+
+
+		StringBuilder builder = new StringBuilder();
+
+
+
+		boolean busy = false;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Reused StringBuilders larger than this are dropped after the rendering, cause they would hold the memory of a single large rendering.
+	 *
+	 */
+	private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+
+
+	private static final ModelRenderer SUMMARY = new ModelRenderer( RenderMode.summary, 0, 10, 1024 );
+
+
+
+	private static final ModelRenderer FULL = new ModelRenderer( RenderMode.full, 0, 100, 1 << 16 );
+
+
+
+	private static final ThreadLocal<Buffer> BUFFER = new ThreadLocal<Buffer>() {
+		@Override
+		protected Buffer initialValue() {
+			return new Buffer();
+		}
+	};
+
+
+
+	private final RenderMode mode;
+
+
+
+	private final int maxDepth;
+
+
+
+	private final int maxItems;
+
+
+
+	private final int maxChars;
+}
@@ -0,0 +1,49 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.render;
+
+
+/**
+ * A PropertyVisitor receives the properties a ModelElement describes, instead of their rendering.
+ * <p>
+ * The values are passed as they are described: attributes by their value, references by the referenced ModelElement and multi valued
+ * references by their Collection. Empty collections are not passed.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see ModelDescription#ModelDescription(PropertyVisitor)
+ *
+ */
+public interface PropertyVisitor {
+
+
+	/**
+	 * Called for each described property.
+	 *
+	 * @param name The name of the attribute or reference, like <code>isNullable</code> or <code>features</code>.
+	 *
+	 * @param value The value, a ModelElement or a Collection of ModelElements for references. May be <code>null</code>.
+	 *
+	 */
+	void visit( String name, Object value );
+}
@@ -0,0 +1,42 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.render;
+
+/**
+ * Classifies how much a ModelRenderer writes of a ModelElement.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>summary</code> - The class, the qualified name and the sizes of the owned elements and features, like
+ * <code>[FunTable | name=SALES.ORDERS | ownedElements(2) | features(12)]</code>.</li>
+ * <li><code>full</code> - All properties and references of the element, see <code>GFunModelElement.describe(ModelDescription)</code>.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum RenderMode {
+	  summary
+	, full
+	;
+}
@@ -0,0 +1,112 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+
+/**
+ * The IdentifierTokenizer splits identifiers and free text into lower case terms.
+ * <p>
+ * Terms are separated by every character that is neither a letter nor a digit, so <code>customer_id</code> and <code>"order date"</code> are
+ * split at the underscore and the blank. Inside a word a term ends at a change from lower to upper case (<code>customerId</code>), at the last
+ * upper case letter in front of a lower case letter (<code>XMLFile</code> gives <code>xml</code> and <code>file</code>) and at a change
+ * between letters and digits (<code>address2</code> gives <code>address</code> and <code>2</code>).
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class IdentifierTokenizer {
+
+
+
+	private IdentifierTokenizer() {
+		// only static access
+	}
+
+
+
+	/**
+	 * @param text The text to be split. May be <code>null</code>.
+	 *
+	 * @return The distinct terms of the text in order of their first occurrence. Can't be <code>null</code>.
+	 *
+	 */
+	public static Set<String> tokenize( CharSequence text ) {
+		Set<String> terms = new LinkedHashSet<String>();
+		if ( text == null ) {
+			return terms;
+		}
+
+		int length = text.length();
+		int start = -1;
+		for ( int i = 0; i < length; i++ ) {
+			char c = text.charAt( i );
+			if ( !Character.isLetterOrDigit( c ) ) {
+				if ( start >= 0 ) {
+					add( text, start, i, terms );
+					start = -1;
+				}
+				continue;
+			}
+			if ( start < 0 ) {
+				start = i;
+				continue;
+			}
+			if ( isBoundary( text.charAt( i - 1 ), c, i + 1 < length ? text.charAt( i + 1 ) : ' ' ) ) {
+				add( text, start, i, terms );
+				start = i;
+			}
+		}
+		if ( start >= 0 ) {
+			add( text, start, length, terms );
+		}
+
+		return terms;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if a new term starts at the character <code>current</code>.
+	 *
+	 */
+	private static Boolean isBoundary( char previous, char current, char next ) {
+		if ( Character.isDigit( previous ) != Character.isDigit( current ) ) {
+			return Boolean.TRUE;
+		}
+		if ( Character.isLowerCase( previous ) && Character.isUpperCase( current ) ) {
+			return Boolean.TRUE;
+		}
+
+		return Character.isUpperCase( previous ) && Character.isUpperCase( current ) && Character.isLowerCase( next );
+	}
+
+
+
+	private static void add( CharSequence text, int start, int end, Set<String> terms ) {
+		terms.add( text.subSequence( start, end ).toString().toLowerCase( Locale.ROOT ) );
+	}
+}
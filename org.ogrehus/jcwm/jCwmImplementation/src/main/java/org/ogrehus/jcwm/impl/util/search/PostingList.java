@@ -0,0 +1,395 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+import java.util.Arrays;
+
+
+/**
+ * A PostingList holds the ids of all elements that contain a term, together with the fields that contain it.
+ * <p>
+ * The ids are stored in ascending order as byte arrays of variable length deltas, each followed by a byte with the field mask of the posting.
+ * Most deltas fit into a single byte, so a posting usually costs two bytes instead of the 16 or more of an Integer in a collection.
+ * </p>
+ * <p>
+ * The postings are split into blocks of up to {@link #MAX_BLOCK} postings, each encoded on its own. The first ids of the blocks form a skip
+ * table, so a posting is found by a binary search over the blocks and a scan of a single block. Ids are assigned in ascending order, so
+ * indexing a new element appends to the last block. A change of an element indexed before re-encodes the block of the element only; a block
+ * that grew too large is split, an empty one is dropped.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class PostingList {
+
+
+	PostingList() {
+		this.blocks = new Block[ 1 ];
+	}
+
+
+
+	/**
+	 * Adds the fields of a mask to the posting of an element, the posting is created if the list does not contain the element yet.
+	 *
+	 */
+	void add( int id, int mask ) {
+		if ( id > this.lastId ) {
+			Block last = this.blockCount == 0 ? null : this.blocks[ this.blockCount - 1 ];
+			if ( last == null || last.count >= MAX_BLOCK / 2 ) {
+				last = new Block( id );
+				insert( this.blockCount, last );
+			}
+			this.length -= last.length;
+			last.append( id, mask );
+			this.length += last.length;
+			this.lastId = id;
+			this.count++;
+		} else if ( id == this.lastId ) {
+			Block last = this.blocks[ this.blockCount - 1 ];
+			last.data[ last.length - 1 ] |= (byte) mask;
+		} else {
+			int index = find( id );
+			Block block = this.blocks[ index ];
+			int[] ids   = new int[ block.count + 1 ];
+			int[] masks = new int[ block.count + 1 ];
+			int n = block.decode( ids, masks, 0 );
+			int pos = Arrays.binarySearch( ids, 0, n, id );
+			if ( pos >= 0 ) {
+				masks[ pos ] |= mask;
+			} else {
+				pos = -pos - 1;
+				System.arraycopy( ids,   pos, ids,   pos + 1, n - pos );
+				System.arraycopy( masks, pos, masks, pos + 1, n - pos );
+				ids[ pos ]   = id;
+				masks[ pos ] = mask;
+				n++;
+				this.count++;
+			}
+			replace( index, ids, masks, n );
+		}
+	}
+
+
+
+	/**
+	 * Removes the fields of a mask from the posting of an element, the posting is dropped if no field is left.
+	 *
+	 */
+	void remove( int id, int mask ) {
+		if ( id > this.lastId || this.blockCount == 0 ) {
+			return;
+		}
+		int index = find( id );
+		Block block = this.blocks[ index ];
+		int[] ids   = new int[ block.count ];
+		int[] masks = new int[ block.count ];
+		int n = block.decode( ids, masks, 0 );
+		int pos = Arrays.binarySearch( ids, 0, n, id );
+		if ( pos < 0 || ( masks[ pos ] & mask ) == 0 ) {
+			return;
+		}
+		masks[ pos ] &= ~mask;
+		if ( masks[ pos ] == 0 ) {
+			System.arraycopy( ids,   pos + 1, ids,   pos, n - pos - 1 );
+			System.arraycopy( masks, pos + 1, masks, pos, n - pos - 1 );
+			n--;
+			this.count--;
+		}
+		replace( index, ids, masks, n );
+		this.lastId = this.blockCount == 0 ? -1 : this.blocks[ this.blockCount - 1 ].lastId;
+	}
+
+
+
+	/**
+	 * Decodes the list.
+	 *
+	 * @param ids Receives the ids in ascending order. Must provide room for {@link #size()} values.
+	 *
+	 * @param masks Receives the field mask of each id. Must provide room for {@link #size()} values.
+	 *
+	 * @return The number of decoded postings.
+	 *
+	 */
+	int decode( int[] ids, int[] masks ) {
+		int n = 0;
+		for ( int i = 0; i < this.blockCount; i++ ) {
+			n = this.blocks[ i ].decode( ids, masks, n );
+		}
+
+		return n;
+	}
+
+
+
+	/**
+	 * @return The number of postings.
+	 *
+	 */
+	int size() {
+		return this.count;
+	}
+
+
+
+	/**
+	 * @return The number of bytes used by the encoded postings.
+	 *
+	 */
+	int getEncodedSize() {
+		return this.length;
+	}
+
+
+
+	/**
+	 * @return The number of blocks the postings are split into.
+	 *
+	 */
+	int getBlockCount() {
+		return this.blockCount;
+	}
+
+
+
+//====================================================================================================================================================
+// PostingList internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The index of the block that contains the id or would have to contain it: the last block whose first id is not greater than the
+	 * id, or the first block.
+	 *
+	 */
+	private int find( int id ) {
+		int low  = 0;
+		int high = this.blockCount - 1;
+		while ( low < high ) {
+			int middle = ( low + high + 1 ) >>> 1;
+			if ( this.blocks[ middle ].firstId <= id ) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+
+
+	/**
+	 * Replaces a block by the encoding of the postings, split in two if there are more than {@link #MAX_BLOCK}, dropped if there are none.
+	 *
+	 */
+	private void replace( int index, int[] ids, int[] masks, int n ) {
+		this.length -= this.blocks[ index ].length;
+		if ( n == 0 ) {
+			System.arraycopy( this.blocks, index + 1, this.blocks, index, this.blockCount - index - 1 );
+			this.blocks[ --this.blockCount ] = null;
+			return;
+		}
+		int split = n > MAX_BLOCK ? n / 2 : n;
+		this.blocks[ index ] = Block.encode( ids, masks, 0, split );
+		this.length += this.blocks[ index ].length;
+		if ( split < n ) {
+			Block second = Block.encode( ids, masks, split, n );
+			insert( index + 1, second );
+			this.length += second.length;
+		}
+	}
+
+
+
+	private void insert( int index, Block block ) {
+		if ( this.blockCount == this.blocks.length ) {
+			this.blocks = Arrays.copyOf( this.blocks, this.blockCount + ( this.blockCount >> 1 ) + 1 );
+		}
+		System.arraycopy( this.blocks, index, this.blocks, index + 1, this.blockCount - index );
+		this.blocks[ index ] = block;
+		this.blockCount++;
+	}
+
+
+
+	/**
+	 * A run of postings, encoded as deltas from the first id of the block.
+	 *
+	 */
+	private static final class Block {
+
+
+		Block( int firstId ) {
+			this.firstId = firstId;
+			this.lastId  = firstId;
+			this.data    = new byte[ 4 ];
+		}
+
+
+
+		static Block encode( int[] ids, int[] masks, int from, int to ) {
+			Block block = new Block( ids[ from ] );
+			block.data = new byte[ ( to - from ) * 2 + 4 ];
+			for ( int i = from; i < to; i++ ) {
+				block.append( ids[ i ], masks[ i ] );
+			}
+
+			return block;
+		}
+
+
+
+		void append( int id, int mask ) {
+			writeVarInt( id - this.lastId );
+			write( mask );
+			this.lastId = id;
+			this.count++;
+		}
+
+
+
+		/**
+		 * Decodes the postings of the block into the arrays, starting at an offset.
+		 *
+		 * @return The offset behind the last decoded posting.
+		 *
+		 */
+		int decode( int[] ids, int[] masks, int offset ) {
+			byte[] data = this.data;
+			int pos = 0;
+			int id = this.firstId;
+			for ( int i = 0; i < this.count; i++ ) {
+				int delta = 0;
+				int shift = 0;
+				byte b;
+				do {
+					b = data[ pos++ ];
+					delta |= ( b & 0x7F ) << shift;
+					shift += 7;
+				} while ( b < 0 );
+				id += delta;
+				ids[ offset ]     = id;
+				masks[ offset++ ] = data[ pos++ ];
+			}
+
+			return offset;
+		}
+
+
+
+		private void writeVarInt( int value ) {
+			while ( ( value & ~0x7F ) != 0 ) {
+				write( ( value & 0x7F ) | 0x80 );
+				value >>>= 7;
+			}
+			write( value );
+		}
+
+
+
+		private void write( int value ) {
+			if ( this.length == this.data.length ) {
+				this.data = Arrays.copyOf( this.data, this.length + ( this.length >> 1 ) + 4 );
+			}
+			this.data[ this.length++ ] = (byte) value;
+		}
+
+
+
+		/**
+		 * The id of the first posting, the base of the first delta.
+		 *
+		 */
+		final int firstId;
+
+
+
+		int lastId;
+
+
+
+		byte[] data;
+
+
+
+		/**
+		 * The number of used bytes of data.
+		 *
+		 */
+		int length = 0;
+
+
+
+		int count = 0;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The maximum number of postings of a block. Appends fill a block to the half only, so the following inserts of ids indexed before
+	 * rarely split it.
+	 *
+	 */
+	static final int MAX_BLOCK = 256;
+
+
+
+	/**
+	 * The blocks in ascending order of their ids, the first <code>blockCount</code> entries are used.
+	 *
+	 */
+	private Block[] blocks;
+
+
+
+	private int blockCount = 0;
+
+
+
+	/**
+	 * The number of used bytes of all blocks.
+	 *
+	 */
+	private int length = 0;
+
+
+
+	private int count = 0;
+
+
+
+	/**
+	 * The id of the last posting, or <code>-1</code> if the list is empty.
+	 *
+	 */
+	private int lastId = -1;
+}
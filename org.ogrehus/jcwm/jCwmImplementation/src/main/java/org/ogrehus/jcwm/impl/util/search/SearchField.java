@@ -0,0 +1,117 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+/**
+ * The text fields of a ModelElement indexed by a SearchIndex, with the weight of a match in the field for the ranking of the results.
+ * <p>
+ * Values and meanings:
+ * </p>
+ * <ul>
+ * <li><code>name</code> - The simple name of the element.</li>
+ * <li><code>taggedValue</code> - The values of the TaggedValues that extend the element.</li>
+ * <li><code>remarks</code> - The remarks of the element.</li>
+ * <li><code>description</code> - The bodies of the Descriptions of the element.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public enum SearchField {
+	  name        ( 1.0f )
+	, taggedValue ( 0.5f )
+	, remarks     ( 0.4f )
+	, description ( 0.3f )
+	;
+
+
+
+	private SearchField( float weight ) {
+		this.weight = weight;
+		this.mask = 1 << ordinal();
+	}
+
+
+
+	/**
+	 * @return The weight of a match in this field, between 0 and 1.
+	 *
+	 */
+	public float getWeight() {
+		return this.weight;
+	}
+
+
+
+	/**
+	 * @return The bit of this field in the field mask of a posting.
+	 *
+	 */
+	int getMask() {
+		return this.mask;
+	}
+
+
+
+	/**
+	 * @return The highest weight of all fields in a field mask.
+	 *
+	 */
+	static float getWeight( int mask ) {
+		return WEIGHTS[ mask ];
+	}
+
+
+
+	private static float[] createWeights() {
+		float[] weights = new float[ 1 << values().length ];
+		for ( int mask = 1; mask < weights.length; mask++ ) {
+			for ( SearchField field : values() ) {
+				weights[ mask ] = Math.max( weights[ mask ], ( mask & field.mask ) != 0 ? field.weight : 0.0f );
+			}
+		}
+
+		return weights;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final float weight;
+
+
+
+	private final int mask;
+
+
+
+	/**
+	 * The highest weight of the fields in each field mask, so the ranking of a posting is a single array access.
+	 *
+	 */
+	private static final float[] WEIGHTS = createWeights();
+}
@@ -0,0 +1,92 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A SearchHit is a ModelElement found by a SearchIndex, together with the score used for the ranking of the results.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class SearchHit {
+
+
+	SearchHit( ModelElement element, float score ) {
+		this.element = element;
+		this.score   = score;
+	}
+
+
+
+	/**
+	 * @return The found element. Can't be <code>null</code>.
+	 *
+	 */
+	public ModelElement getElement() {
+		return this.element;
+	}
+
+
+
+	/**
+	 * @return The score of the element. A higher score is a better match.
+	 *
+	 */
+	public float getScore() {
+		return this.score;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[SearchHit" );
+		out.append( " | element=" + this.element.getQualifiedName() );
+		out.append( " | score=" + this.score );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement element;
+
+
+
+	private final float score;
+}
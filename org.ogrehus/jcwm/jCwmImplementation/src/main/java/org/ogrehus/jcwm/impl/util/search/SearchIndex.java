@@ -0,0 +1,735 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.ogrehus.jcwm.api.foundation.businessinformation.Description;
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.TaggedValue;
+
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+
+
+/**
+ * A SearchIndex is an inverted index over the texts of all elements owned by a root element, maintained by the changes of the model.
+ * <p>
+ * The names, remarks, values of TaggedValues and bodies of Descriptions of the elements are split into terms by the IdentifierTokenizer, so a
+ * search for <code>customer</code> finds <code>CUSTOMER_ID</code> as well as <code>customerName</code>. Each element gets a dense id when it is
+ * indexed and each term refers to a delta encoded PostingList of ids. The terms are kept in a sorted dictionary, so a prefix search only
+ * visits the terms that start with the prefix.
+ * </p>
+ * <p>
+ * A query is a sequence of words, all of them must match:
+ * </p>
+ * <ul>
+ * <li><code>order</code> matches the term <code>order</code> only.</li>
+ * <li><code>cust*</code> matches every term that starts with <code>cust</code>.</li>
+ * <li><code>custmer~</code> matches every term within an edit distance of one (up to five characters) or two (longer words).</li>
+ * </ul>
+ * <p>
+ * A word that consists of several terms, like <code>order_date*</code>, matches all of them; the operator applies to the last term only, or to
+ * all of them for a fuzzy word. The score of an element is the sum over the words of the best match of each word. A match scores the weight of
+ * the best SearchField containing the term, multiplied by 1 for an exact term, by 0.5 to 0.9 for a prefix (the longer the prefix compared to the
+ * term, the higher) and by 0.4 or 0.2 for an edit distance of one or two.
+ * </p>
+ * <p>
+ * Changes of names, remarks, owned elements, features, Descriptions and TaggedValues are reported by the model and applied at once. A changed
+ * value of a TaggedValue or body of a Description is reported as a <code>propertyChanged</code> of the feature <code>taggedValue</code> or
+ * <code>description</code> of the extended element, with the old and the new text.
+ * </p>
+ * <p>
+ * Searches share a read lock and run in parallel, a change of the model takes the write lock and waits for the running searches.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class SearchIndex
+implements
+	ModelChangeListener
+{
+
+
+	private SearchIndex( ModelElement root ) {
+		this.root = root;
+	}
+
+
+
+//====================================================================================================================================================
+// SearchIndex capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Creates a new instance of SearchIndex, registers it for changes of the model and indexes the model under the write lock. A change
+	 * of an element, that is not indexed yet, is ignored, cause the traversal finds its new state; a change reported while the model is
+	 * traversed waits and is applied to the terms found by the traversal.
+	 *
+	 * @param root The root of the indexed model. Must not be <code>null</code>.
+	 *
+	 */
+	public static SearchIndex open( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		SearchIndex index = new SearchIndex( root );
+		ModelChangeSupport.addListener( index );
+		index.lock.writeLock().lock();
+		try {
+			index.add( root );
+		} finally {
+			index.lock.writeLock().unlock();
+		}
+
+		return index;
+	}
+
+
+
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	/**
+	 * Searches the indexed elements.
+	 *
+	 * @param query The words to search for. Must not be <code>null</code>.
+	 *
+	 * @param limit The maximum number of results. Must be positive.
+	 *
+	 * @return The best matching elements, ordered by descending score. Elements with the same score are ordered by the time they were indexed.
+	 *
+	 */
+	public List<SearchHit> search( String query, int limit ) {
+		if ( query == null ) {
+			throw new NullPointerException( "Parameter: query must not be null." );
+		}
+		if ( limit <= 0 ) {
+			throw new IllegalArgumentException( "Parameter: limit must be positive." );
+		}
+
+		this.lock.readLock().lock();
+		try {
+			return search( query.trim().split( "\\s+" ), limit );
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The number of indexed elements.
+	 *
+	 */
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.ids.size();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+
+
+	/**
+	 * @return The number of distinct terms.
+	 *
+	 */
+	public int getTermCount() {
+		this.lock.readLock().lock();
+		try {
+			return this.terms.size();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+
+
+	/**
+	 * Cancels the registration for changes of the model. The index stays available, but is not maintained anymore.
+	 *
+	 */
+	public void close() {
+		ModelChangeSupport.removeListener( this );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	public void modelChanged( ModelChange change ) {
+		this.lock.writeLock().lock();
+		try {
+			apply( change );
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// SearchIndex internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Searches the indexed elements, called holding the read lock.
+	 *
+	 */
+	private List<SearchHit> search( String[] words, int limit ) {
+		List<Scored> clauses = new ArrayList<Scored>();
+		for ( String word : words ) {
+			char operator = word.isEmpty() ? ' ' : word.charAt( word.length() - 1 );
+			if ( operator == '*' || operator == '~' ) {
+				word = word.substring( 0, word.length() - 1 );
+			}
+			Set<String> terms = IdentifierTokenizer.tokenize( word );
+			int i = 0;
+			for ( String term : terms ) {
+				i++;
+				if ( operator == '~' ) {
+					clauses.add( matchFuzzy( term ) );
+				} else if ( operator == '*' && i == terms.size() ) {
+					clauses.add( matchPrefix( term ) );
+				} else {
+					clauses.add( matchExact( term ) );
+				}
+			}
+		}
+		if ( clauses.isEmpty() ) {
+			return Collections.emptyList();
+		}
+
+		Collections.sort( clauses, new Comparator<Scored>() {
+			public int compare( Scored a, Scored b ) {
+				return Integer.compare( a.size, b.size );
+			}
+		} );
+		Scored result = clauses.get( 0 );
+		for ( int i = 1; i < clauses.size() && result.size > 0; i++ ) {
+			result = intersect( result, clauses.get( i ) );
+		}
+
+		return getBest( result, limit );
+	}
+
+
+
+	/**
+	 * Applies a change of the model to the index, called holding the write lock.
+	 *
+	 */
+	private void apply( ModelChange change ) {
+		ModelElement element = change.getElement();
+		Integer id = this.ids.get( element );
+		if ( id == null ) {
+			return;
+		}
+
+		String feature = change.getFeature();
+		Object oldValue = change.getOldValue();
+		Object newValue = change.getNewValue();
+		if ( "name".equals( feature ) ) {
+			update( id, SearchField.name, getTerms( oldValue ), getTerms( newValue ) );
+		} else if ( "remarks".equals( feature ) ) {
+			update( id, SearchField.remarks, getTerms( oldValue ), getTerms( newValue ) );
+		} else if ( "ownedElement".equals( feature ) || "feature".equals( feature ) ) {
+			if ( change.getKind() == ModelChangeKind.linked && newValue instanceof ModelElement ) {
+				add( (ModelElement) newValue );
+			} else if ( change.getKind() == ModelChangeKind.unlinked && oldValue instanceof ModelElement ) {
+				remove( (ModelElement) oldValue );
+			}
+		} else if ( "description".equals( feature ) || "taggedValue".equals( feature ) ) {
+			SearchField field = "description".equals( feature ) ? SearchField.description : SearchField.taggedValue;
+			if ( change.getKind() == ModelChangeKind.linked ) {
+				addTerms( id, field, getTerms( getText( newValue ) ) );
+			} else if ( change.getKind() == ModelChangeKind.unlinked ) {
+				Set<String> removed = getTerms( getText( oldValue ) );
+				removed.removeAll( getTerms( element, field, oldValue ) );
+				removeTerms( id, field, removed );
+			} else {
+				Set<String> removed = getTerms( oldValue );
+				removed.removeAll( getTerms( element, field, null ) );
+				removeTerms( id, field, removed );
+				addTerms( id, field, getTerms( newValue ) );
+			}
+		}
+	}
+
+
+
+	private void add( ModelElement owner ) {
+		for ( ModelElement element : new ModelTraversal( owner ) ) {
+			if ( this.ids.containsKey( element ) ) {
+				continue;
+			}
+			int id = this.nextId++;
+			if ( id == this.elements.length ) {
+				this.elements = Arrays.copyOf( this.elements, id + ( id >> 1 ) + 16 );
+			}
+			this.elements[ id ] = element;
+			this.ids.put( element, id );
+			addTexts( id, element );
+		}
+	}
+
+
+
+	private void remove( ModelElement owner ) {
+		for ( ModelElement element : new ModelTraversal( owner ) ) {
+			Integer id = this.ids.remove( element );
+			if ( id != null ) {
+				removeTexts( id, element );
+				this.elements[ id ] = null; // ids are not reused, so new elements are always appended to the posting lists
+			}
+		}
+	}
+
+
+
+	private void addTexts( int id, ModelElement element ) {
+		for ( SearchField field : SearchField.values() ) {
+			addTerms( id, field, getTerms( element, field, null ) );
+		}
+	}
+
+
+
+	private void removeTexts( int id, ModelElement element ) {
+		for ( SearchField field : SearchField.values() ) {
+			removeTerms( id, field, getTerms( element, field, null ) );
+		}
+	}
+
+
+
+	private void update( int id, SearchField field, Set<String> oldTerms, Set<String> newTerms ) {
+		Set<String> removed = new LinkedHashSet<String>( oldTerms );
+		removed.removeAll( newTerms );
+		removeTerms( id, field, removed );
+		addTerms( id, field, newTerms );
+	}
+
+
+
+	private void addTerms( int id, SearchField field, Set<String> terms ) {
+		for ( String term : terms ) {
+			PostingList postings = this.terms.get( term );
+			if ( postings == null ) {
+				postings = new PostingList();
+				this.terms.put( term, postings );
+			}
+			postings.add( id, field.getMask() );
+		}
+	}
+
+
+
+	private void removeTerms( int id, SearchField field, Set<String> terms ) {
+		for ( String term : terms ) {
+			PostingList postings = this.terms.get( term );
+			if ( postings != null ) {
+				postings.remove( id, field.getMask() );
+				if ( postings.size() == 0 ) {
+					this.terms.remove( term );
+				}
+			}
+		}
+	}
+
+
+
+	/**
+	 * @param exclude A TaggedValue or Description whose text is left out, or <code>null</code>.
+	 *
+	 * @return The terms of a field of an element.
+	 *
+	 */
+	private static Set<String> getTerms( ModelElement element, SearchField field, Object exclude ) {
+		switch ( field ) {
+			case name:
+				return IdentifierTokenizer.tokenize( element.getName() == null ? null : element.getSimpleName() );
+			case remarks:
+				return IdentifierTokenizer.tokenize( element.getRemarks() );
+			default:
+				Set<String> terms = new LinkedHashSet<String>();
+				Iterable<?> values = field == SearchField.taggedValue ? element.getTaggedValues() : element.getDescriptions();
+				for ( Object value : values ) {
+					if ( value != exclude ) {
+						terms.addAll( IdentifierTokenizer.tokenize( getText( value ) ) );
+					}
+				}
+				return terms;
+		}
+	}
+
+
+
+	private static Set<String> getTerms( Object text ) {
+		return IdentifierTokenizer.tokenize( text == null ? null : text.toString() );
+	}
+
+
+
+	private static String getText( Object value ) {
+		if ( value instanceof TaggedValue ) {
+			return ( (TaggedValue) value ).getValue();
+		}
+		if ( value instanceof Description ) {
+			return ( (Description) value ).getBody();
+		}
+
+		return null;
+	}
+
+
+
+	private Scored matchExact( String term ) {
+		PostingList postings = this.terms.get( term );
+
+		return postings == null ? new Scored( 0 ) : decode( postings, 1.0f );
+	}
+
+
+
+	private Scored matchPrefix( String prefix ) {
+		SortedMap<String, PostingList> range = this.terms.subMap( prefix, prefix + Character.MAX_VALUE );
+		Deque<Scored> matches = new ArrayDeque<Scored>();
+		for ( Map.Entry<String, PostingList> entry : range.entrySet() ) {
+			float weight = 0.5f + 0.4f * prefix.length() / entry.getKey().length();
+			if ( entry.getKey().length() == prefix.length() ) {
+				weight = 1.0f;
+			}
+			matches.add( decode( entry.getValue(), weight ) );
+		}
+
+		return union( matches );
+	}
+
+
+
+	private Scored matchFuzzy( String term ) {
+		int max = term.length() <= 2 ? 0 : term.length() <= 5 ? 1 : 2;
+		Deque<Scored> matches = new ArrayDeque<Scored>();
+		int[][] rows = new int[ 2 ][ term.length() + max + 1 ];
+		BitSet chars = new BitSet();
+		for ( int i = 0; i < term.length(); i++ ) {
+			chars.set( term.charAt( i ) );
+		}
+		for ( Map.Entry<String, PostingList> entry : this.terms.entrySet() ) {
+			if ( getForeignChars( entry.getKey(), chars, max ) > max ) {
+				continue; // each character missing in the searched term costs an edit, so the distance can't be smaller
+			}
+			int distance = getDistance( term, entry.getKey(), max, rows );
+			if ( distance <= max ) {
+				matches.add( decode( entry.getValue(), distance == 0 ? 1.0f : 0.6f - 0.2f * distance ) );
+			}
+		}
+
+		return union( matches );
+	}
+
+
+
+	/**
+	 * @return The number of characters of a term that are not contained in a set, counted up to <code>max + 1</code>.
+	 *
+	 */
+	private static int getForeignChars( String term, BitSet chars, int max ) {
+		int foreign = 0;
+		for ( int i = 0; i < term.length() && foreign <= max; i++ ) {
+			if ( !chars.get( term.charAt( i ) ) ) {
+				foreign++;
+			}
+		}
+
+		return foreign;
+	}
+
+
+
+	/**
+	 * @param rows Two rows of at least <code>b.length() + 1</code> values, reused for all terms of a search.
+	 *
+	 * @return The edit distance of two terms, or <code>max + 1</code> if it exceeds <code>max</code>.
+	 *
+	 */
+	private static int getDistance( String a, String b, int max, int[][] rows ) {
+		if ( Math.abs( a.length() - b.length() ) > max ) {
+			return max + 1;
+		}
+		int[] previous = rows[ 0 ];
+		int[] current  = rows[ 1 ];
+		for ( int j = 0; j <= b.length(); j++ ) {
+			previous[ j ] = j;
+		}
+		for ( int i = 1; i <= a.length(); i++ ) {
+			current[ 0 ] = i;
+			int best = i;
+			for ( int j = 1; j <= b.length(); j++ ) {
+				int cost = a.charAt( i - 1 ) == b.charAt( j - 1 ) ? 0 : 1;
+				current[ j ] = Math.min( Math.min( current[ j - 1 ] + 1, previous[ j ] + 1 ), previous[ j - 1 ] + cost );
+				best = Math.min( best, current[ j ] );
+			}
+			if ( best > max ) {
+				return max + 1;
+			}
+			int[] swap = previous;
+			previous = current;
+			current  = swap;
+		}
+
+		return Math.min( previous[ b.length() ], max + 1 );
+	}
+
+
+
+	private static Scored decode( PostingList postings, float weight ) {
+		Scored scored = new Scored( postings.size() );
+		int[] masks = new int[ postings.size() ];
+		scored.size = postings.decode( scored.ids, masks );
+		for ( int i = 0; i < scored.size; i++ ) {
+			scored.scores[ i ] = weight * SearchField.getWeight( masks[ i ] );
+		}
+
+		return scored;
+	}
+
+
+
+	/**
+	 * Merges the matches of several terms pairwise, so each id is copied only logarithmic often in the number of terms.
+	 *
+	 * @return The ids of all matches with their best score.
+	 *
+	 */
+	private static Scored union( Deque<Scored> matches ) {
+		if ( matches.isEmpty() ) {
+			return new Scored( 0 );
+		}
+		while ( matches.size() > 1 ) {
+			Scored a = matches.poll();
+			Scored b = matches.poll();
+			Scored merged = new Scored( a.size + b.size );
+			int i = 0;
+			int j = 0;
+			while ( i < a.size || j < b.size ) {
+				if ( j == b.size || ( i < a.size && a.ids[ i ] < b.ids[ j ] ) ) {
+					merged.append( a.ids[ i ], a.scores[ i++ ] );
+				} else if ( i == a.size || b.ids[ j ] < a.ids[ i ] ) {
+					merged.append( b.ids[ j ], b.scores[ j++ ] );
+				} else {
+					merged.append( a.ids[ i ], Math.max( a.scores[ i++ ], b.scores[ j++ ] ) );
+				}
+			}
+			matches.add( merged );
+		}
+
+		return matches.poll();
+	}
+
+
+
+	/**
+	 * @return The ids contained in both matches with the sum of their scores.
+	 *
+	 */
+	private static Scored intersect( Scored a, Scored b ) {
+		Scored result = new Scored( Math.min( a.size, b.size ) );
+		int i = 0;
+		int j = 0;
+		while ( i < a.size && j < b.size ) {
+			if ( a.ids[ i ] < b.ids[ j ] ) {
+				i++;
+			} else if ( b.ids[ j ] < a.ids[ i ] ) {
+				j++;
+			} else {
+				result.append( a.ids[ i ], a.scores[ i++ ] + b.scores[ j++ ] );
+			}
+		}
+
+		return result;
+	}
+
+
+
+	private List<SearchHit> getBest( final Scored result, int limit ) {
+		PriorityQueue<Integer> best = new PriorityQueue<Integer>( Math.min( limit, result.size ) + 1, new Comparator<Integer>() {
+			public int compare( Integer a, Integer b ) { // worst first
+				int byScore = Float.compare( result.scores[ a ], result.scores[ b ] );
+				return byScore != 0 ? byScore : Integer.compare( result.ids[ b ], result.ids[ a ] );
+			}
+		} );
+		for ( int i = 0; i < result.size; i++ ) {
+			if ( this.elements[ result.ids[ i ] ] == null ) {
+				continue;
+			}
+			if ( best.size() < limit ) {
+				best.add( i );
+			} else if ( result.scores[ i ] > result.scores[ best.peek() ] ) {
+				best.poll();
+				best.add( i );
+			}
+		}
+
+		SearchHit[] hits = new SearchHit[ best.size() ];
+		for ( int i = hits.length - 1; i >= 0; i-- ) {
+			int pos = best.poll();
+			hits[ i ] = new SearchHit( this.elements[ result.ids[ pos ] ], result.scores[ pos ] );
+		}
+
+		return Arrays.asList( hits );
+	}
+
+
+
+	/**
+	 * The ids of the matches of a query in ascending order, with their scores.
+	 *
+	 */
+	private static final class Scored {
+
+
+		Scored( int capacity ) {
+			this.ids    = new int[ capacity ];
+			this.scores = new float[ capacity ];
+		}
+
+
+
+		void append( int id, float score ) {
+			this.ids[ this.size ]    = id;
+			this.scores[ this.size ] = score;
+			this.size++;
+		}
+
+
+
+		final int[] ids;
+
+
+
+		final float[] scores;
+
+
+
+		int size = 0;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[SearchIndex" );
+		out.append( " | root=" + this.root.getQualifiedName() );
+		out.append( " | size=" + size() );
+		out.append( " | terms=" + getTermCount() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement root;
+
+
+
+	/**
+	 * Guards the terms, ids and elements. Searches share the read lock, the indexing of the model and its changes take the write lock.
+	 *
+	 */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+
+
+	/**
+	 * The posting lists by their term, sorted for prefix searches.
+	 *
+	 */
+	private final TreeMap<String, PostingList> terms = new TreeMap<String, PostingList>();
+
+
+
+	/**
+	 * The ids of the indexed elements.
+	 *
+	 */
+	private final Map<ModelElement, Integer> ids = new IdentityHashMap<ModelElement, Integer>();
+
+
+
+	/**
+	 * The indexed elements by their id. Removed elements leave a <code>null</code> entry.
+	 *
+	 */
+	private ModelElement[] elements = new ModelElement[ 16 ];
+
+
+
+	private int nextId = 0;
+}
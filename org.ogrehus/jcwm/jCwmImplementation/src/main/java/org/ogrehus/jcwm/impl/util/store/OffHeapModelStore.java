@@ -0,0 +1,653 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.store;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.Name;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.collection.IntList;
+import org.ogrehus.jcwm.impl.util.diff.ModelStructure;
+import org.ogrehus.jcwm.impl.util.render.ModelDescription;
+import org.ogrehus.jcwm.impl.util.render.PropertyVisitor;
+
+
+/**
+ * An OffHeapModelStore keeps a snapshot of a model outside of the Java heap, in a single MemorySegment of a shared Arena.
+ * <p>
+ * Each element is a record of fixed size: its class, name, parent, the size of its subtree and its properties. The records are stored in pre
+ * order, so the children of an element follow it. Each property is a record of fixed size too, its value is a number, a reference to another
+ * record or an offset into a pool of distinct Strings. A reference to an element outside of the stored model is kept by its qualified name.
+ * The properties are the properties an element describes, see {@link GFunModelElement#describe(ModelDescription)}, without its name, its
+ * children and the inverse ends of associations.
+ * </p>
+ * <p>
+ * A model of millions of elements costs a few objects on the heap, so it adds nothing to the work of the garbage collector. The elements are
+ * read by {@link StoredElement}s, thin handles of a record number, created on demand. The layout of the segment is the layout of the file
+ * written by {@link #save(Path)}, so {@link #map(Path)} reloads a stored model at once by mapping the file, without parsing it.
+ * </p>
+ * <p>
+ * A store is immutable and can be read by threads. It must be closed to free its memory; any access afterwards throws an
+ * IllegalStateException.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * try ( OffHeapModelStore store = OffHeapModelStore.write( catalog ) ) {
+ *     store.save( file );
+ * }
+ * try ( OffHeapModelStore store = OffHeapModelStore.map( file ) ) {
+ *     for ( StoredElement schema : store.getRoot().getChildren() ) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class OffHeapModelStore
+implements
+	AutoCloseable
+{
+
+
+	private OffHeapModelStore( Arena arena, MemorySegment segment ) throws IOException {
+		if ( segment.byteSize() < HEADER_SIZE || segment.get( ValueLayout.JAVA_INT, 0 ) != MAGIC ) {
+			arena.close();
+			throw new IOException( "The data is no model store." );
+		}
+		if ( segment.get( ValueLayout.JAVA_INT, 4 ) != VERSION ) {
+			arena.close();
+			throw new IOException( "The model store has the unsupported version: " + segment.get( ValueLayout.JAVA_INT, 4 ) );
+		}
+		this.arena         = arena;
+		this.segment       = segment;
+		this.records       = segment.get( ValueLayout.JAVA_INT, 8 );
+		this.properties    = segment.get( ValueLayout.JAVA_INT, 12 );
+		this.recordBase    = segment.get( ValueLayout.JAVA_LONG, 16 );
+		this.propertyBase  = segment.get( ValueLayout.JAVA_LONG, 24 );
+		this.stringBase    = segment.get( ValueLayout.JAVA_LONG, 32 );
+		this.strings       = new HashMap<Integer, String>();
+	}
+
+
+
+//====================================================================================================================================================
+// OffHeapModelStore capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Stores a snapshot of an element and everything it owns.
+	 *
+	 * @param root The root of the stored model. Must not be <code>null</code>.
+	 *
+	 */
+	public static OffHeapModelStore write( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		Writer writer = new Writer();
+		writer.add( root, -1 );
+		writer.describe();
+
+		Arena arena = Arena.ofShared();
+		try {
+			return new OffHeapModelStore( arena, writer.toSegment( arena ) );
+		} catch ( IOException e ) {
+			throw new IllegalStateException( "The written store is not readable.", e ); // can't occur, cause the header was just written
+		}
+	}
+
+
+
+	/**
+	 * Maps a file written by {@link #save(Path)} into memory. Only the pages read are loaded from the file.
+	 *
+	 * @param file Must not be <code>null</code>.
+	 *
+	 * @throws IOException If the file can't be read or is no model store.
+	 *
+	 */
+	public static OffHeapModelStore map( Path file ) throws IOException {
+		if ( file == null ) {
+			throw new NullPointerException( "Parameter: file must not be null." );
+		}
+		Arena arena = Arena.ofShared();
+		try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+			return new OffHeapModelStore( arena, channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena ) );
+		} catch ( IOException | RuntimeException e ) {
+			if ( arena.scope().isAlive() ) {
+				arena.close();
+			}
+			throw e;
+		}
+	}
+
+
+
+	/**
+	 * Writes the store to a file, that can be mapped by {@link #map(Path)}.
+	 *
+	 * @param file Must not be <code>null</code>. An existing file is replaced.
+	 *
+	 */
+	public void save( Path file ) throws IOException {
+		if ( file == null ) {
+			throw new NullPointerException( "Parameter: file must not be null." );
+		}
+		try ( FileChannel channel = FileChannel.open(
+			file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+		) ) {
+			ByteBuffer buffer = this.segment.asByteBuffer();
+			while ( buffer.hasRemaining() ) {
+				channel.write( buffer );
+			}
+		}
+	}
+
+
+
+	/**
+	 * @return The stored root element.
+	 *
+	 */
+	public StoredElement getRoot() {
+		return get( 0 );
+	}
+
+
+
+	/**
+	 * @param index The number of the record, in pre order of the stored model.
+	 *
+	 */
+	public StoredElement get( int index ) {
+		if ( index < 0 || index >= this.records ) {
+			throw new IndexOutOfBoundsException( "Index: " + index + ", size: " + this.records );
+		}
+
+		return new StoredElement( this, index );
+	}
+
+
+
+	/**
+	 * @return The number of stored elements.
+	 *
+	 */
+	public int size() {
+		return this.records;
+	}
+
+
+
+	/**
+	 * @return The number of bytes of the store, on the heap nothing but the handles in use.
+	 *
+	 */
+	public long getByteSize() {
+		return this.segment.byteSize();
+	}
+
+
+
+	/**
+	 * Frees the memory of the store, or unmaps the file.
+	 *
+	 */
+	public void close() {
+		if ( this.arena.scope().isAlive() ) {
+			this.arena.close();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[OffHeapModelStore" );
+		out.append( " | elements=" + this.records );
+		out.append( " | properties=" + this.properties );
+		out.append( " | bytes=" + this.segment.byteSize() );
+		out.append( " | open=" + this.arena.scope().isAlive() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// OffHeapModelStore internals
+//====================================================================================================================================================
+
+
+
+	int getInt( int index, int field ) {
+		return this.segment.get( ValueLayout.JAVA_INT, this.recordBase + (long) index * RECORD_SIZE + field );
+	}
+
+
+
+	int getPropertyName( int property ) {
+		return this.segment.get( ValueLayout.JAVA_INT, this.propertyBase + (long) property * PROPERTY_SIZE );
+	}
+
+
+
+	byte getPropertyType( int property ) {
+		return this.segment.get( ValueLayout.JAVA_BYTE, this.propertyBase + (long) property * PROPERTY_SIZE + 4 );
+	}
+
+
+
+	long getPropertyValue( int property ) {
+		return this.segment.get( ValueLayout.JAVA_LONG, this.propertyBase + (long) property * PROPERTY_SIZE + 8 );
+	}
+
+
+
+	/**
+	 * @return The String at an offset of the pool. The Strings read are cached, cause the pool holds few distinct Strings, like names of
+	 * classes and properties, compared to the number of their uses.
+	 *
+	 */
+	String getString( int offset ) {
+		if ( offset < 0 ) {
+			return null;
+		}
+		synchronized ( this.strings ) {
+			String string = this.strings.get( offset );
+			if ( string == null ) {
+				long position = this.stringBase + offset;
+				byte[] bytes = new byte[ this.segment.get( ValueLayout.JAVA_INT_UNALIGNED, position ) ];
+				MemorySegment.copy( this.segment, ValueLayout.JAVA_BYTE, position + 4, bytes, 0, bytes.length );
+				string = new String( bytes, StandardCharsets.UTF_8 );
+				if ( this.strings.size() < STRING_CACHE ) {
+					this.strings.put( offset, string );
+				}
+			}
+
+			return string;
+		}
+	}
+
+
+
+	/**
+	 * Collects the records of a model and writes them to a segment.
+	 *
+	 */
+	private static final class Writer {
+
+
+		/**
+		 * Adds an element and its subtree in pre order.
+		 *
+		 * @return The size of the subtree.
+		 *
+		 */
+		int add( ModelElement element, int parent ) {
+			int index = this.elements.size();
+			this.elements.add( element );
+			this.indexes.put( element, index );
+			this.parents.add( parent );
+			this.sizes.add( 0 );
+			List<ModelElement> children = new ArrayList<ModelElement>();
+			ModelStructure.addChildren( element, children );
+			int size = 1;
+			for ( ModelElement child : children ) {
+				if ( !this.indexes.containsKey( child ) ) {
+					size += add( child, index );
+				}
+			}
+			this.sizes.set( index, size );
+
+			return size;
+		}
+
+
+
+		/**
+		 * Collects the properties of all elements, after all elements have their record number.
+		 *
+		 */
+		void describe() {
+			for ( int i = 0; i < this.elements.size(); i++ ) {
+				final ModelElement element = this.elements.get( i );
+				this.firstProperties.add( this.names.size() );
+				if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+					( (GFunModelElement<?, ?, ?, ?>) element ).describe( new ModelDescription( new PropertyVisitor() {
+						public void visit( String name, Object value ) {
+							if ( !ModelStructure.isIgnored( element, name, value ) ) {
+								addProperty( name, value );
+							}
+						}
+					} ) );
+				}
+			}
+		}
+
+
+
+		void addProperty( String name, Object value ) {
+			if ( value instanceof Collection<?> ) {
+				for ( Object member : (Collection<?>) value ) {
+					addValue( name, member, MULTIPLE );
+				}
+			} else {
+				addValue( name, value, 0 );
+			}
+		}
+
+
+
+		void addValue( String name, Object value, int flags ) {
+			int type;
+			long bits;
+			if ( value == null ) {
+				type = NULL;
+				bits = 0;
+			} else if ( value instanceof Boolean ) {
+				type = BOOLEAN;
+				bits = ( (Boolean) value ).booleanValue() ? 1 : 0;
+			} else if ( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ) {
+				type = INTEGER;
+				bits = ( (Number) value ).longValue();
+			} else if ( value instanceof Number ) {
+				type = DECIMAL;
+				bits = Double.doubleToLongBits( ( (Number) value ).doubleValue() );
+			} else if ( value instanceof Enum<?> ) {
+				type = ENUM;
+				bits = intern( ( (Enum<?>) value ).name() );
+			} else if ( value instanceof ModelElement && this.indexes.containsKey( value ) ) {
+				type = REFERENCE;
+				bits = this.indexes.get( value );
+			} else if ( value instanceof ModelElement ) {
+				type = EXTERNAL;
+				bits = intern( ( (ModelElement) value ).getQualifiedName() );
+			} else {
+				type = STRING;
+				bits = intern( value instanceof Name ? value.toString() : String.valueOf( value ) );
+			}
+			this.names.add( intern( name ) );
+			this.types.add( type | flags );
+			if ( this.values.length == this.names.size() - 1 ) {
+				this.values = Arrays.copyOf( this.values, this.values.length * 2 );
+			}
+			this.values[ this.names.size() - 1 ] = bits;
+		}
+
+
+
+		int intern( String string ) {
+			if ( string == null ) {
+				return -1;
+			}
+			Integer offset = this.pool.get( string );
+			if ( offset == null ) {
+				byte[] bytes = string.getBytes( StandardCharsets.UTF_8 );
+				offset = this.poolSize;
+				this.pool.put( string, offset );
+				this.poolBytes.add( bytes );
+				this.poolSize += 4 + bytes.length;
+			}
+
+			return offset;
+		}
+
+
+
+		MemorySegment toSegment( Arena arena ) {
+			int records = this.elements.size();
+			int properties = this.names.size();
+			long recordBase = HEADER_SIZE;
+			long propertyBase = recordBase + (long) records * RECORD_SIZE;
+			long stringBase = propertyBase + (long) properties * PROPERTY_SIZE;
+			for ( ModelElement element : this.elements ) { // the Strings of the records, before the size of the pool is known
+				intern( element.getClass().getName() );
+				intern( element.getSimpleName() );
+			}
+			MemorySegment segment = arena.allocate( stringBase + this.poolSize, 8 );
+
+			segment.set( ValueLayout.JAVA_INT, 0, MAGIC );
+			segment.set( ValueLayout.JAVA_INT, 4, VERSION );
+			segment.set( ValueLayout.JAVA_INT, 8, records );
+			segment.set( ValueLayout.JAVA_INT, 12, properties );
+			segment.set( ValueLayout.JAVA_LONG, 16, recordBase );
+			segment.set( ValueLayout.JAVA_LONG, 24, propertyBase );
+			segment.set( ValueLayout.JAVA_LONG, 32, stringBase );
+			for ( int i = 0; i < records; i++ ) {
+				ModelElement element = this.elements.get( i );
+				long position = recordBase + (long) i * RECORD_SIZE;
+				int first = this.firstProperties.get( i );
+				int last = i + 1 < records ? this.firstProperties.get( i + 1 ) : properties;
+				segment.set( ValueLayout.JAVA_INT, position + KIND, intern( element.getClass().getName() ) );
+				segment.set( ValueLayout.JAVA_INT, position + NAME, intern( element.getSimpleName() ) );
+				segment.set( ValueLayout.JAVA_INT, position + PARENT, this.parents.get( i ) );
+				segment.set( ValueLayout.JAVA_INT, position + SIZE, this.sizes.get( i ) );
+				segment.set( ValueLayout.JAVA_INT, position + FIRST_PROPERTY, first );
+				segment.set( ValueLayout.JAVA_INT, position + PROPERTY_COUNT, last - first );
+				segment.set( ValueLayout.JAVA_INT, position + ID, element instanceof GFunModelElement<?, ?, ?, ?> ? ( (GFunModelElement<?, ?, ?, ?>) element ).getId() : 0 );
+			}
+			for ( int i = 0; i < properties; i++ ) {
+				long position = propertyBase + (long) i * PROPERTY_SIZE;
+				segment.set( ValueLayout.JAVA_INT, position, this.names.get( i ) );
+				segment.set( ValueLayout.JAVA_BYTE, position + 4, (byte) this.types.get( i ) );
+				segment.set( ValueLayout.JAVA_LONG, position + 8, this.values[ i ] );
+			}
+			long position = stringBase;
+			for ( byte[] bytes : this.poolBytes ) {
+				segment.set( ValueLayout.JAVA_INT_UNALIGNED, position, bytes.length );
+				MemorySegment.copy( bytes, 0, segment, ValueLayout.JAVA_BYTE, position + 4, bytes.length );
+				position += 4 + bytes.length;
+			}
+
+			return segment;
+		}
+
+
+
+		private final List<ModelElement> elements = new ArrayList<ModelElement>();
+
+
+
+		private final Map<ModelElement, Integer> indexes = new IdentityHashMap<ModelElement, Integer>();
+
+
+
+		private final IntList parents = new IntList();
+
+
+
+		private final IntList sizes = new IntList();
+
+
+
+		private final IntList firstProperties = new IntList();
+
+
+
+		private final IntList names = new IntList();
+
+
+
+		private final IntList types = new IntList();
+
+
+
+		private long[] values = new long[ 16 ];
+
+
+
+		private final Map<String, Integer> pool = new HashMap<String, Integer>();
+
+
+
+		private final List<byte[]> poolBytes = new ArrayList<byte[]>();
+
+
+
+		private int poolSize = 0;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * "JCWM", the first four bytes of a store.
+	 *
+	 */
+	private static final int MAGIC = 0x4A43574D;
+
+
+
+	private static final int VERSION = 1;
+
+
+
+	private static final int HEADER_SIZE = 64;
+
+
+
+	private static final int RECORD_SIZE = 32;
+
+
+
+	private static final int PROPERTY_SIZE = 16;
+
+
+
+	/**
+	 * The maximum number of cached Strings of the pool.
+	 *
+	 */
+	private static final int STRING_CACHE = 65536;
+
+
+
+	// the fields of an element record, by their offset
+
+	static final int KIND           = 0;
+
+	static final int NAME           = 4;
+
+	static final int PARENT         = 8;
+
+	static final int SIZE           = 12;
+
+	static final int FIRST_PROPERTY = 16;
+
+	static final int PROPERTY_COUNT = 20;
+
+	static final int ID             = 24;
+
+
+
+	// the types of a property value, the flag MULTIPLE marks a member of a collection
+
+	static final int NULL      = 0;
+
+	static final int STRING    = 1;
+
+	static final int BOOLEAN   = 2;
+
+	static final int INTEGER   = 3;
+
+	static final int DECIMAL   = 4;
+
+	static final int ENUM      = 5;
+
+	static final int REFERENCE = 6;
+
+	static final int EXTERNAL  = 7;
+
+	static final int MULTIPLE  = 0x40;
+
+
+
+	private final Arena arena;
+
+
+
+	private final MemorySegment segment;
+
+
+
+	private final int records;
+
+
+
+	private final int properties;
+
+
+
+	private final long recordBase;
+
+
+
+	private final long propertyBase;
+
+
+
+	private final long stringBase;
+
+
+
+	/**
+	 * The Strings of the pool read so far, by their offset.
+	 *
+	 */
+	private final Map<Integer, String> strings;
+}
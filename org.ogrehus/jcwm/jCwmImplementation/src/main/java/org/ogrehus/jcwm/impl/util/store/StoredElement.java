@@ -0,0 +1,291 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * A StoredElement is the handle of an element record of an OffHeapModelStore: it holds the number of the record only and reads everything
+ * else from the store on each call.
+ * <p>
+ * The values of properties are returned as String, Boolean, Long, Double or StoredElement. An enumerated value is returned by the name of its
+ * constant, a reference to an element outside of the store by its qualified name.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class StoredElement {
+
+
+	StoredElement( OffHeapModelStore store, int index ) {
+		this.store = store;
+		this.index = index;
+	}
+
+
+
+//====================================================================================================================================================
+// StoredElement capabilities
+//====================================================================================================================================================
+
+
+
+	public OffHeapModelStore getStore() {
+		return this.store;
+	}
+
+
+
+	/**
+	 * @return The number of the record, in pre order of the stored model.
+	 *
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+
+
+	/**
+	 * @return The name of the class of the element, like <code>org.ogrehus.jcwm.impl.resource.relational.FunTable</code>.
+	 *
+	 */
+	public String getKind() {
+		return this.store.getString( this.store.getInt( this.index, OffHeapModelStore.KIND ) );
+	}
+
+
+
+	public String getSimpleName() {
+		return this.store.getString( this.store.getInt( this.index, OffHeapModelStore.NAME ) );
+	}
+
+
+
+	/**
+	 * @return The qualified name of the element within the store, like <code>SALES.ORDERS.ID</code>, the root included.
+	 *
+	 */
+	public String getQualifiedName() {
+		StoredElement parent = getParent();
+
+		return parent == null ? getSimpleName() : parent.getQualifiedName() + '.' + getSimpleName();
+	}
+
+
+
+	/**
+	 * @return The id the element had in the ElementRegistry when it was stored, <code>0</code> if it had none.
+	 *
+	 */
+	public int getElementId() {
+		return this.store.getInt( this.index, OffHeapModelStore.ID );
+	}
+
+
+
+	/**
+	 * @return The stored namespace or owner of the element, <code>null</code> for the root.
+	 *
+	 */
+	public StoredElement getParent() {
+		int parent = this.store.getInt( this.index, OffHeapModelStore.PARENT );
+
+		return parent < 0 ? null : new StoredElement( this.store, parent );
+	}
+
+
+
+	/**
+	 * @return The owned elements and features of the element.
+	 *
+	 */
+	public List<StoredElement> getChildren() {
+		List<StoredElement> children = new ArrayList<StoredElement>();
+		int end = this.index + this.store.getInt( this.index, OffHeapModelStore.SIZE );
+		for ( int child = this.index + 1; child < end; child += this.store.getInt( child, OffHeapModelStore.SIZE ) ) {
+			children.add( new StoredElement( this.store, child ) );
+		}
+
+		return children;
+	}
+
+
+
+	/**
+	 * @return The child with the simple name, <code>null</code> if there is none.
+	 *
+	 */
+	public StoredElement getChild( String simpleName ) {
+		int end = this.index + this.store.getInt( this.index, OffHeapModelStore.SIZE );
+		for ( int child = this.index + 1; child < end; child += this.store.getInt( child, OffHeapModelStore.SIZE ) ) {
+			if ( simpleName.equals( this.store.getString( this.store.getInt( child, OffHeapModelStore.NAME ) ) ) ) {
+				return new StoredElement( this.store, child );
+			}
+		}
+
+		return null;
+	}
+
+
+
+	/**
+	 * @return The number of elements of the subtree of the element, the element included.
+	 *
+	 */
+	public int getSubtreeSize() {
+		return this.store.getInt( this.index, OffHeapModelStore.SIZE );
+	}
+
+
+
+	/**
+	 * @return The names of the stored properties, in the order they were described.
+	 *
+	 */
+	public Set<String> getPropertyNames() {
+		Set<String> names = new LinkedHashSet<String>();
+		int first = this.store.getInt( this.index, OffHeapModelStore.FIRST_PROPERTY );
+		int count = this.store.getInt( this.index, OffHeapModelStore.PROPERTY_COUNT );
+		for ( int property = first; property < first + count; property++ ) {
+			names.add( this.store.getString( this.store.getPropertyName( property ) ) );
+		}
+
+		return names;
+	}
+
+
+
+	/**
+	 * @return The value of a property, the first member of a collection, <code>null</code> if the property has no value or is not stored.
+	 *
+	 */
+	public Object getProperty( String name ) {
+		List<Object> values = getValues( name );
+
+		return values.isEmpty() ? null : values.get( 0 );
+	}
+
+
+
+	/**
+	 * @return The values of a property: a single value, or the members of a collection.
+	 *
+	 */
+	public List<Object> getValues( String name ) {
+		List<Object> values = null;
+		int first = this.store.getInt( this.index, OffHeapModelStore.FIRST_PROPERTY );
+		int count = this.store.getInt( this.index, OffHeapModelStore.PROPERTY_COUNT );
+		for ( int property = first; property < first + count; property++ ) {
+			if ( name.equals( this.store.getString( this.store.getPropertyName( property ) ) ) ) {
+				if ( values == null ) {
+					values = new ArrayList<Object>( 1 );
+				}
+				values.add( getValue( property ) );
+			}
+		}
+
+		return values == null ? Collections.emptyList() : values;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public boolean equals( Object other ) {
+		return other instanceof StoredElement && ( (StoredElement) other ).store == this.store && ( (StoredElement) other ).index == this.index;
+	}
+
+
+
+	@Override
+	public int hashCode() {
+		return this.index;
+	}
+
+
+
+	@Override
+	public String toString() {
+		String kind = getKind();
+		StringBuffer out = new StringBuffer( "[StoredElement" );
+		out.append( " | kind=" + kind.substring( kind.lastIndexOf( '.' ) + 1 ) );
+		out.append( " | name=" + getSimpleName() );
+		out.append( " | index=" + this.index );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// StoredElement internals
+//====================================================================================================================================================
+
+
+
+	private Object getValue( int property ) {
+		long bits = this.store.getPropertyValue( property );
+		switch ( this.store.getPropertyType( property ) & ~OffHeapModelStore.MULTIPLE ) {
+			case OffHeapModelStore.BOOLEAN:
+				return bits != 0;
+			case OffHeapModelStore.INTEGER:
+				return bits;
+			case OffHeapModelStore.DECIMAL:
+				return Double.longBitsToDouble( bits );
+			case OffHeapModelStore.REFERENCE:
+				return new StoredElement( this.store, (int) bits );
+			case OffHeapModelStore.STRING:
+			case OffHeapModelStore.ENUM:
+			case OffHeapModelStore.EXTERNAL:
+				return this.store.getString( (int) bits );
+			default:
+				return null;
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final OffHeapModelStore store;
+
+
+
+	private final int index;
+}
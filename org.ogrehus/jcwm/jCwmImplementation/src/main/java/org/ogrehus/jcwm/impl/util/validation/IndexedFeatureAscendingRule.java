@@ -0,0 +1,64 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import org.ogrehus.jcwm.api.foundation.keyindexes.util.generic.GIndex;
+import org.ogrehus.jcwm.api.foundation.keyindexes.util.generic.GIndexedFeature;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+
+
+/**
+ * Checks the constraint <b>[Foundation_C_6_1]</b>: The isAscending attribute is valid only if the isSorted attribute of the Index is
+ * <code>true</code>.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@SuppressWarnings( "rawtypes" )
+public class IndexedFeatureAscendingRule
+implements
+	ValidationRule<GIndexedFeature>
+{
+
+
+
+	public CwmConstraint getConstraint() {
+		return CwmConstraint.Foundation_C_6_1;
+	}
+
+
+
+	public Class<GIndexedFeature> getContext() {
+		return GIndexedFeature.class;
+	}
+
+
+
+	public Boolean check( GIndexedFeature element, ValidationContext context ) {
+		if ( context.read( element ).isAscending() == null ) {
+			return Boolean.TRUE;
+		}
+		GIndex<?, ?, ?, ?> index = context.read( (GIndex<?, ?, ?, ?>) element.getIndex() );
+
+		return index != null && Boolean.TRUE.equals( index.isSorted() );
+	}
+}
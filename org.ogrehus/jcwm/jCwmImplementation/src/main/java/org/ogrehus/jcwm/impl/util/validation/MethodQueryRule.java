@@ -0,0 +1,67 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import org.ogrehus.jcwm.api.objectmodel.behavioral.Operation;
+import org.ogrehus.jcwm.api.objectmodel.behavioral.util.generic.GCwmMethod;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+
+
+/**
+ * Checks the constraint <b>[C-4-7]</b>: If the realized Operation is a query, then so is the Method.
+ * <pre>
+ * <b>context</b> Method <b>inv</b>:
+ * self.specification->isQuery implies self.isQuery
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@SuppressWarnings( "rawtypes" )
+public class MethodQueryRule
+implements
+	ValidationRule<GCwmMethod>
+{
+
+
+
+	public CwmConstraint getConstraint() {
+		return CwmConstraint.C_4_7;
+	}
+
+
+
+	public Class<GCwmMethod> getContext() {
+		return GCwmMethod.class;
+	}
+
+
+
+	public Boolean check( GCwmMethod element, ValidationContext context ) {
+		Operation specification = context.read( context.read( element ).getSpecification() );
+		if ( specification == null || !Boolean.TRUE.equals( specification.isQuery() ) ) {
+			return Boolean.TRUE;
+		}
+
+		return Boolean.TRUE.equals( element.isQuery() );
+	}
+}
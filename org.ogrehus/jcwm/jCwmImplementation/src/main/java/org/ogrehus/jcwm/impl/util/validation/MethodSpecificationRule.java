@@ -0,0 +1,98 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.behavioral.Operation;
+import org.ogrehus.jcwm.api.objectmodel.behavioral.util.generic.GCwmMethod;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+
+
+/**
+ * Checks the constraint <b>[C-4-10]</b>: The realized Operation must be a feature (possibly inherited) of the same Classifier as the Method.
+ * <pre>
+ * <b>context</b> Method <b>inv</b>:
+ * self.owner.allOperations->includes( self.specification )
+ * </pre>
+ * <p>
+ * Instead of collecting all Operations of the owner, the rule walks up from the owner of the Method until it reaches the owner of the
+ * Operation. Every visited Classifier is recorded as read, so adding or removing a Generalization anywhere on that path marks the rule dirty.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@SuppressWarnings( "rawtypes" )
+public class MethodSpecificationRule
+implements
+	ValidationRule<GCwmMethod>
+{
+
+
+
+	public CwmConstraint getConstraint() {
+		return CwmConstraint.C_4_10;
+	}
+
+
+
+	public Class<GCwmMethod> getContext() {
+		return GCwmMethod.class;
+	}
+
+
+
+	public Boolean check( GCwmMethod element, ValidationContext context ) {
+		Operation specification = context.read( context.read( element ).getSpecification() );
+		if ( specification == null ) {
+			return Boolean.TRUE;
+		}
+		GClassifier<?, ?, ?, ?, ?, ?> realizing = context.read( (GClassifier<?, ?, ?, ?, ?, ?>) element.getOwner() );
+		GClassifier<?, ?, ?, ?, ?, ?> realized  = context.read( specification.getOwner() );
+		if ( realizing == null || realized == null ) {
+			return Boolean.FALSE;
+		}
+
+		Set<GClassifier<?, ?, ?, ?, ?, ?>> visited = Collections.newSetFromMap( new IdentityHashMap<GClassifier<?, ?, ?, ?, ?, ?>, Boolean>() );
+		Deque<GClassifier<?, ?, ?, ?, ?, ?>> open = new ArrayDeque<GClassifier<?, ?, ?, ?, ?, ?>>();
+		open.push( realizing );
+		while ( !open.isEmpty() ) {
+			GClassifier<?, ?, ?, ?, ?, ?> classifier = context.read( open.pop() );
+			if ( classifier == realized ) {
+				return Boolean.TRUE;
+			}
+			if ( visited.add( classifier ) ) {
+				for ( GClassifier<?, ?, ?, ?, ?, ?> parent : classifier.getParents() ) {
+					open.push( parent );
+				}
+			}
+		}
+
+		return Boolean.FALSE;
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import org.ogrehus.jcwm.api.objectmodel.behavioral.Operation;
+import org.ogrehus.jcwm.api.objectmodel.behavioral.util.generic.GCwmMethod;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+
+
+/**
+ * Checks the constraint <b>[C-4-9]</b>: The visibility of the Method should be the same as for the realized Operation.
+ * <pre>
+ * <b>context</b> Method <b>inv</b>:
+ * self.visibility = self.specification.visibility
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@SuppressWarnings( "rawtypes" )
+public class MethodVisibilityRule
+implements
+	ValidationRule<GCwmMethod>
+{
+
+
+
+	public CwmConstraint getConstraint() {
+		return CwmConstraint.C_4_9;
+	}
+
+
+
+	public Class<GCwmMethod> getContext() {
+		return GCwmMethod.class;
+	}
+
+
+
+	public Boolean check( GCwmMethod element, ValidationContext context ) {
+		Operation specification = context.read( context.read( element ).getSpecification() );
+		if ( specification == null ) {
+			return Boolean.TRUE;
+		}
+
+		return element.getVisibility() == specification.getVisibility();
+	}
+}
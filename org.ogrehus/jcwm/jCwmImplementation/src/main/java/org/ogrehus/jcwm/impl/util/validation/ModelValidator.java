@@ -0,0 +1,505 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.foundation.keyindexes.util.generic.GIndex;
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.classifierfeature.Classifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.references.elementownership.Namespace;
+
+import org.ogrehus.jcwm.impl.util.diff.ModelStructure;
+import org.ogrehus.jcwm.impl.util.event.ModelChange;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeKind;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeListener;
+import org.ogrehus.jcwm.impl.util.event.ModelChangeSupport;
+import org.ogrehus.jcwm.impl.util.metrics.ModelMetrics;
+import org.ogrehus.jcwm.impl.util.metrics.TraversalKind;
+
+
+/**
+ * The ModelValidator checks the deferred CwmConstraints of a model and keeps the result up to date with a minimum of work.
+ * <p>
+ * After a full pass by {@link #validate(Namespace)} the validator knows for every evaluation of a ValidationRule which ModelElements it has read.
+ * While attached, every reported ModelChange marks only those evaluations dirty, which have read the changed element. A following call of
+ * {@link #revalidate()} re-evaluates the dirty evaluations and the rules of elements linked below the root since then, so the costs of a re-validation depend on the
+ * size of the change and not on the size of the model.
+ * </p>
+ * <p>
+ * Example: The rule for <b>[C-4-10]</b> reads the Method, its owner, the realized Operation and all Classifiers between the owner and the
+ * owner of the Operation. Adding a Generalization to one of these Classifiers re-evaluates the rule, adding an Attribute to an unrelated Table
+ * re-evaluates nothing.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelValidator
+implements
+	ModelChangeListener
+{
+
+
+	/**
+	 * Creates a new instance of ModelValidator with all rules supported by this implementation.
+	 *
+	 */
+	public ModelValidator() {
+		this.rules.add( new MethodQueryRule() ); // not by addRule, which a subclass may override before it is initialized
+		this.rules.add( new MethodVisibilityRule() );
+		this.rules.add( new MethodSpecificationRule() );
+		this.rules.add( new IndexedFeatureAscendingRule() );
+		this.rules.add( new TypeMappingTypesRule() );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelValidator capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Adds a rule to be checked by further validations.
+	 *
+	 * @param rule The rule to be added. Must not be <code>null</code>.
+	 *
+	 * @return <code>true</code> if the rule was not added before.
+	 *
+	 */
+	public synchronized Boolean addRule( ValidationRule<?> rule ) {
+		if ( rule == null ) {
+			throw new NullPointerException( "Parameter: rule must not be null." );
+		}
+		if ( this.rules.contains( rule ) ) {
+			return Boolean.FALSE;
+		}
+
+		return this.rules.add( rule );
+	}
+
+
+
+	/**
+	 * Registers this validator for changes of the model, so changed elements are known by the next {@link #revalidate()}.
+	 *
+	 * @return <code>true</code> if the validator was not attached before.
+	 *
+	 */
+	public Boolean attach() {
+		return ModelChangeSupport.addListener( this );
+	}
+
+
+
+	/**
+	 * Cancels the registration for changes of the model.
+	 *
+	 * @return <code>true</code> if the validator was attached before.
+	 *
+	 */
+	public Boolean detach() {
+		return ModelChangeSupport.removeListener( this );
+	}
+
+
+
+	/**
+	 * Performs a full validation of the elements owned by the parameter <code>root</code>, directly or indirectly, including the root itself.
+	 * <p>
+	 * All results of former validations are discarded.
+	 * </p>
+	 *
+	 * @param root The root of the validated model. Must not be <code>null</code>.
+	 *
+	 * @return All violations found. Can't be <code>null</code> but an empty list.
+	 *
+	 */
+	public synchronized List<Violation> validate( Namespace<?> root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		this.evaluations.clear();
+		this.dependents.clear();
+		this.dirty.clear();
+		this.violated.clear();
+		this.root = root;
+
+		for ( ModelElement element : collect( root ) ) {
+			addEvaluations( element );
+		}
+		evaluateDirty();
+
+		return getViolations();
+	}
+
+
+
+	/**
+	 * Re-evaluates all rules which have read an element changed since the last validation and all rules of elements linked below the root
+	 * since then.
+	 *
+	 * @return All violations known after the re-validation. Can't be <code>null</code> but an empty list.
+	 *
+	 */
+	public synchronized List<Violation> revalidate() {
+		evaluateDirty();
+
+		return getViolations();
+	}
+
+
+
+	/**
+	 * @return All violations known by the last validation. Can't be <code>null</code> but an empty list.
+	 *
+	 */
+	public synchronized List<Violation> getViolations() {
+		List<Violation> result = new ArrayList<Violation>( this.violated.size() );
+		for ( Evaluation evaluation : this.violated ) {
+			result.add( new Violation( evaluation.element, evaluation.rule.getConstraint() ) );
+		}
+
+		return result;
+	}
+
+
+
+	/**
+	 * @return The number of evaluations that have to be re-evaluated by the next {@link #revalidate()}.
+	 *
+	 */
+	public synchronized int getDirtyCount() {
+		return this.dirty.size();
+	}
+
+
+
+//====================================================================================================================================================
+// ModelChangeListener capabilities
+//====================================================================================================================================================
+
+
+
+	public synchronized void modelChanged( ModelChange change ) {
+		if ( change.getKind() == ModelChangeKind.created ) {
+			return; // the element is evaluated once it is linked below the root
+		}
+		if ( isChildren( change ) ) {
+			if ( change.getKind() == ModelChangeKind.linked && change.getNewValue() instanceof ModelElement && isBelowRoot( change.getElement() ) ) {
+				for ( ModelElement element : collect( (ModelElement) change.getNewValue() ) ) {
+					if ( !this.evaluations.containsKey( element ) ) {
+						addEvaluations( element );
+					}
+				}
+			} else if ( change.getKind() == ModelChangeKind.unlinked && change.getOldValue() instanceof ModelElement ) {
+				for ( ModelElement element : collect( (ModelElement) change.getOldValue() ) ) {
+					removeEvaluations( element );
+				}
+			}
+		}
+		markDirty( change.getElement() );
+		if ( change.getOldValue() instanceof ModelElement ) {
+			markDirty( (ModelElement) change.getOldValue() );
+		}
+		if ( change.getNewValue() instanceof ModelElement ) {
+			markDirty( (ModelElement) change.getNewValue() );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Internal capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Collects the root and all elements reachable by ownership, features and indexed features, each element exactly once.
+	 *
+	 */
+	protected Set<ModelElement> collect( ModelElement root ) {
+		long start = ModelMetrics.beginTraversal();
+		try {
+			Set<ModelElement> visited = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+			Deque<ModelElement> open = new ArrayDeque<ModelElement>();
+			open.push( root );
+			while ( !open.isEmpty() ) {
+				ModelElement element = open.pop();
+				if ( !visited.add( element ) ) {
+					continue; // imported elements may be reachable more than once
+				}
+				if ( element instanceof Namespace<?> ) {
+					open.addAll( ( (Namespace<?>) element ).getOwnedElements() );
+				}
+				if ( element instanceof Classifier<?> ) {
+					open.addAll( ( (Classifier<?>) element ).getFeatures() );
+				}
+				if ( element instanceof GIndex<?, ?, ?, ?> ) {
+					open.addAll( ( (GIndex<?, ?, ?, ?>) element ).getIndexedFeatures() );
+				}
+			}
+
+			return visited;
+		} finally {
+			ModelMetrics.endTraversal( TraversalKind.validation, root, start );
+		}
+	}
+
+
+
+	protected void addEvaluations( ModelElement element ) {
+		List<Evaluation> list = null;
+		for ( ValidationRule<?> rule : this.rules ) {
+			if ( rule.getContext().isInstance( element ) ) {
+				if ( list == null ) {
+					list = new ArrayList<Evaluation>( 2 );
+					this.evaluations.put( element, list );
+				}
+				Evaluation evaluation = new Evaluation( rule, element );
+				list.add( evaluation );
+				this.dirty.add( evaluation );
+			}
+		}
+	}
+
+
+
+	/**
+	 * Drops the evaluations of an element removed from the model and marks the evaluations dirty, which have read it.
+	 *
+	 */
+	protected void removeEvaluations( ModelElement element ) {
+		List<Evaluation> list = this.evaluations.remove( element );
+		if ( list != null ) {
+			for ( Evaluation evaluation : list ) {
+				for ( ModelElement read : evaluation.reads ) {
+					Set<Evaluation> reading = this.dependents.get( read );
+					if ( reading != null ) {
+						reading.remove( evaluation );
+						if ( reading.isEmpty() ) {
+							this.dependents.remove( read );
+						}
+					}
+				}
+				this.dirty.remove( evaluation );
+				this.violated.remove( evaluation );
+			}
+		}
+		Set<Evaluation> reading = this.dependents.remove( element );
+		if ( reading != null ) {
+			this.dirty.addAll( reading );
+		}
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the change links or unlinks a child, the features of keys are references only.
+	 *
+	 */
+	private static boolean isChildren( ModelChange change ) {
+		if ( "feature".equals( change.getFeature() ) ) {
+			return change.getElement() instanceof Classifier<?>;
+		}
+
+		return "ownedElement".equals( change.getFeature() ) || "indexedFeature".equals( change.getFeature() );
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the element is the root of the last validation or is owned by it, directly or indirectly.
+	 *
+	 */
+	protected boolean isBelowRoot( ModelElement element ) {
+		for ( ModelElement current = element; current != null; current = ModelStructure.getParent( current ) ) {
+			if ( current == this.root ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
+
+	protected void markDirty( ModelElement element ) {
+		Set<Evaluation> reading = this.dependents.get( element );
+		if ( reading != null ) {
+			this.dirty.addAll( reading );
+		}
+	}
+
+
+
+	protected void evaluateDirty() {
+		if ( this.dirty.isEmpty() ) {
+			return;
+		}
+		// a rule must not change the model, but the listener could be called by another thread while evaluating
+		List<Evaluation> pending = new ArrayList<Evaluation>( this.dirty );
+		this.dirty.clear();
+		for ( Evaluation evaluation : pending ) {
+			evaluate( evaluation );
+		}
+	}
+
+
+
+	@SuppressWarnings( { "unchecked", "rawtypes" } )
+	protected void evaluate( Evaluation evaluation ) {
+		for ( ModelElement read : evaluation.reads ) {
+			Set<Evaluation> reading = this.dependents.get( read );
+			if ( reading != null ) {
+				reading.remove( evaluation );
+				if ( reading.isEmpty() ) {
+					this.dependents.remove( read );
+				}
+			}
+		}
+
+		ValidationContext context = new ValidationContext();
+		context.read( evaluation.element );
+		long start = ModelMetrics.beginValidation();
+		Boolean satisfied = ( (ValidationRule) evaluation.rule ).check( evaluation.element, context );
+		ModelMetrics.endValidation( evaluation.rule.getConstraint(), evaluation.element, satisfied, start );
+
+		evaluation.reads = context.getReads().toArray( new ModelElement[ context.getReads().size() ] );
+		for ( ModelElement read : evaluation.reads ) {
+			Set<Evaluation> reading = this.dependents.get( read );
+			if ( reading == null ) {
+				reading = new HashSet<Evaluation>( 4 );
+				this.dependents.put( read, reading );
+			}
+			reading.add( evaluation );
+		}
+
+		if ( Boolean.TRUE.equals( satisfied ) ) {
+			this.violated.remove( evaluation );
+		} else {
+			this.violated.add( evaluation );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// Evaluation
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The evaluation of a single rule for a single element, together with the elements read by the last check.
+	 * <p>
+	 * Evaluations are identified by identity.
+	 * </p>
+	 *
+	 */
+	protected static final class Evaluation {
+
+
+		Evaluation( ValidationRule<?> rule, ModelElement element ) {
+			this.rule    = rule;
+			this.element = element;
+		}
+
+
+
+		final ValidationRule<?> rule;
+
+
+
+		final ModelElement element;
+
+
+
+		ModelElement[] reads = new ModelElement[ 0 ];
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * All rules checked by this validator.
+	 *
+	 */
+	private final List<ValidationRule<?>> rules = new ArrayList<ValidationRule<?>>();
+
+
+
+	/**
+	 * The evaluations of each validated element, identified by identity.
+	 *
+	 */
+	private final Map<ModelElement, List<Evaluation>> evaluations = new IdentityHashMap<ModelElement, List<Evaluation>>();
+
+
+
+	/**
+	 * The evaluations that have read an element during their last check, identified by the element.
+	 *
+	 */
+	private final Map<ModelElement, Set<Evaluation>> dependents = new IdentityHashMap<ModelElement, Set<Evaluation>>();
+
+
+
+	/**
+	 * The evaluations to be checked by the next re-validation.
+	 *
+	 */
+	private final Set<Evaluation> dirty = new LinkedHashSet<Evaluation>();
+
+
+
+	/**
+	 * The root of the last validation, <code>null</code> before the first validation.
+	 *
+	 */
+	private ModelElement root = null;
+
+
+
+	/**
+	 * The evaluations whose last check failed, in the order of their detection.
+	 *
+	 */
+	private final Set<Evaluation> violated = new LinkedHashSet<Evaluation>();
+}
@@ -0,0 +1,65 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.util.generic.GTypeMapping;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+
+
+/**
+ * Checks the constraint <b>[Foundation_C_8_1]</b>: The sourceType and targetType references may not refer to the same Classifier instance.
+ * <pre>
+ * <b>context</b> TypeMapping <b>inv</b>:
+ * self.sourceType <> self.targetType
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+@SuppressWarnings( "rawtypes" )
+public class TypeMappingTypesRule
+implements
+	ValidationRule<GTypeMapping>
+{
+
+
+
+	public CwmConstraint getConstraint() {
+		return CwmConstraint.Foundation_C_8_1;
+	}
+
+
+
+	public Class<GTypeMapping> getContext() {
+		return GTypeMapping.class;
+	}
+
+
+
+	public Boolean check( GTypeMapping element, ValidationContext context ) {
+		context.read( element );
+		Object source = context.read( element.getSourceType() );
+		Object target = context.read( element.getTargetType() );
+
+		return source == null || !source.equals( target );
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A ValidationContext records the ModelElements a ValidationRule has read during a single check.
+ * <p>
+ * The elements are recorded by identity, because the equality of ModelElements is based on their names, which may change between two checks.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ValidationContext {
+
+
+	/**
+	 * Creates a new, empty instance of ValidationContext.
+	 *
+	 */
+	ValidationContext() {
+		this.reads = Collections.newSetFromMap( new IdentityHashMap<ModelElement, Boolean>() );
+	}
+
+
+
+	/**
+	 * Records the read of an element.
+	 *
+	 * @param element The element read by the rule. <code>null</code> is ignored.
+	 *
+	 * @return The parameter <code>element</code>, so reads can be recorded inline.
+	 *
+	 */
+	public <E extends ModelElement> E read( E element ) {
+		if ( element != null ) {
+			this.reads.add( element );
+		}
+		return element;
+	}
+
+
+
+	/**
+	 * @return All elements recorded so far. Can't be <code>null</code>.
+	 *
+	 */
+	Set<ModelElement> getReads() {
+		return this.reads;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * All elements read by the rule, identified by identity.
+	 *
+	 */
+	private final Set<ModelElement> reads;
+}
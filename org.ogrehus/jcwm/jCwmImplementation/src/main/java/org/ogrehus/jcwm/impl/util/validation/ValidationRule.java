@@ -0,0 +1,72 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+
+
+/**
+ * A ValidationRule checks a single CwmConstraint for a single ModelElement in deferred mode.
+ * <p>
+ * Unless otherwise stated for a particular OCL constraint, the evaluation policy for all CWM constraints is deferred, meaning that constraint
+ * checking should occur at the end of bulk operations or as part of a model validation operation. A rule must announce every ModelElement it reads
+ * to the passed ValidationContext, because the ModelValidator uses the recorded reads to decide which rules have to be re-evaluated after a change
+ * of the model. A rule that reads an element without announcing it will not be re-evaluated if that element changes.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @param <CONTEXT> The type of the ModelElements the rule is defined for, like the <code>context</code> of the OCL statement.
+ *
+ */
+public interface ValidationRule<CONTEXT extends ModelElement> {
+
+
+	/**
+	 * @return The CwmConstraint that is checked by this rule. Can't be <code>null</code>.
+	 *
+	 */
+	CwmConstraint getConstraint();
+
+
+
+	/**
+	 * @return The type of the ModelElements this rule is defined for. Can't be <code>null</code>.
+	 *
+	 */
+	Class<CONTEXT> getContext();
+
+
+
+	/**
+	 * Checks the constraint for a single element.
+	 *
+	 * @param element The element to be checked. Can't be <code>null</code>.
+	 *
+	 * @param context Records all elements read during the check. Can't be <code>null</code>.
+	 *
+	 * @return <code>true</code> if the constraint is satisfied, <code>false</code> if it is violated.
+	 *
+	 */
+	Boolean check( CONTEXT element, ValidationContext context );
+}
@@ -0,0 +1,147 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import java.util.Locale;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+
+
+/**
+ * A Violation reports a CwmConstraint that is not satisfied by a ModelElement.
+ * <p>
+ * In difference to the ConstraintViolation a Violation is not thrown, it is the result of a deferred validation by the ModelValidator.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class Violation {
+
+
+	/**
+	 * Creates a new instance of Violation by specific parameters.
+	 *
+	 * @param element The element that violates the constraint. Must not be <code>null</code>.
+	 *
+	 * @param constraint The violated constraint. Must not be <code>null</code>.
+	 *
+	 */
+	public Violation( ModelElement element, CwmConstraint constraint ) {
+		if ( element == null ) {
+			throw new NullPointerException( "Parameter: element must not be null." );
+		}
+		if ( constraint == null ) {
+			throw new NullPointerException( "Parameter: constraint must not be null." );
+		}
+		this.element    = element;
+		this.constraint = constraint;
+	}
+
+
+
+	public ModelElement getElement() {
+		return this.element;
+	}
+
+
+
+	public CwmConstraint getConstraint() {
+		return this.constraint;
+	}
+
+
+
+	/**
+	 * @return The message of the violated constraint, localized by the default Locale.
+	 *
+	 */
+	public String getLocalizedMessage() {
+		return getLocalizedMessage( Locale.getDefault() );
+	}
+
+
+
+	/**
+	 * Formats the message of the violated constraint.
+	 * <p>
+	 * The message is not formatted before it is requested, so collecting violations costs no formatting at all.
+	 * </p>
+	 *
+	 * @param locale The Locale to be used for the message.
+	 *
+	 * @return The message of the violated constraint, localized by the parameter <code>locale</code>.
+	 *
+	 */
+	public String getLocalizedMessage( Locale locale ) {
+		return CwmConstraint.getMessage( this.constraint, locale, this.element.getQualifiedName() );
+	}
+
+
+
+	/**
+	 * Appends the message of the violated constraint to a buffer.
+	 *
+	 * @param out The buffer the message is appended to. Must not be <code>null</code>.
+	 *
+	 * @param locale The Locale to be used for the message.
+	 *
+	 * @return <code>true</code> if a message was appended, <code>false</code> if no message is defined for the violated constraint.
+	 *
+	 */
+	public Boolean formatTo( StringBuffer out, Locale locale ) {
+		return CwmConstraint.format( this.constraint, locale, out, this.element.getQualifiedName() );
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[Violation" );
+		out.append( " | constraint=" + this.constraint );
+		out.append( " | element=" + this.element.getQualifiedName() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final ModelElement element;
+
+
+
+	private final CwmConstraint constraint;
+}
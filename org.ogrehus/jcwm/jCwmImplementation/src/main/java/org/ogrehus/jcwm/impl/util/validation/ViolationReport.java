@@ -0,0 +1,217 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.ConstraintViolation;
+
+
+/**
+ * A ViolationReport writes a large number of violations as plain text to a Writer.
+ * <p>
+ * Each violation is written as a single line: the violated constraint, the qualified name of the affected element and the localized message.
+ * The lines are formatted into a single reused buffer, which is flushed to the Writer whenever it exceeds a threshold, so the report never holds
+ * more than a few kilobytes in memory, independent of the number of violations.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ViolationReport {
+
+
+	/**
+	 * Creates a new instance of ViolationReport by specific parameters.
+	 *
+	 * @param out The Writer the report is written to. Must not be <code>null</code>.
+	 *
+	 * @param locale The Locale of the messages. If <code>null</code>, the default Locale is used.
+	 *
+	 */
+	public ViolationReport( Writer out, Locale locale ) {
+		if ( out == null ) {
+			throw new NullPointerException( "Parameter: out must not be null." );
+		}
+		this.out    = out;
+		this.locale = locale == null ? Locale.getDefault() : locale;
+	}
+
+
+
+//====================================================================================================================================================
+// ViolationReport capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Writes all violations to the report.
+	 *
+	 * @param violations The violations to be written. Must not be <code>null</code>.
+	 *
+	 * @return The number of violations written.
+	 *
+	 * @throws IOException If the Writer fails.
+	 *
+	 */
+	public int writeAll( Iterable<Violation> violations ) throws IOException {
+		if ( violations == null ) {
+			throw new NullPointerException( "Parameter: violations must not be null." );
+		}
+		int count = 0;
+		for ( Violation violation : violations ) {
+			write( violation );
+			count++;
+		}
+		flush();
+
+		return count;
+	}
+
+
+
+	/**
+	 * Writes a single violation to the report.
+	 *
+	 * @param violation The violation to be written. Must not be <code>null</code>.
+	 *
+	 * @throws IOException If the Writer fails.
+	 *
+	 */
+	public void write( Violation violation ) throws IOException {
+		this.buffer.append( violation.getConstraint().name() );
+		this.buffer.append( '\t' );
+		this.buffer.append( violation.getElement().getQualifiedName() );
+		this.buffer.append( '\t' );
+		violation.formatTo( this.buffer, this.locale );
+		this.buffer.append( '\n' );
+		this.written++;
+		if ( this.buffer.length() >= THRESHOLD ) {
+			drain();
+		}
+	}
+
+
+
+	/**
+	 * Writes a single ConstraintViolation to the report, as thrown by the mutation methods of the model.
+	 *
+	 * @param violation The violation to be written. Must not be <code>null</code>.
+	 *
+	 * @throws IOException If the Writer fails.
+	 *
+	 */
+	public void write( ConstraintViolation violation ) throws IOException {
+		this.buffer.append( violation.getViolated() );
+		this.buffer.append( '\t' );
+		this.buffer.append( '\t' );
+		this.buffer.append( violation.getLocalizedMessage( this.locale ) );
+		this.buffer.append( '\n' );
+		this.written++;
+		if ( this.buffer.length() >= THRESHOLD ) {
+			drain();
+		}
+	}
+
+
+
+	/**
+	 * Writes all buffered lines and flushes the Writer.
+	 *
+	 * @throws IOException If the Writer fails.
+	 *
+	 */
+	public void flush() throws IOException {
+		drain();
+		this.out.flush();
+	}
+
+
+
+	/**
+	 * @return The number of violations written so far.
+	 *
+	 */
+	public long getWritten() {
+		return this.written;
+	}
+
+
+
+	protected void drain() throws IOException {
+		int length = this.buffer.length();
+		if ( length == 0 ) {
+			return;
+		}
+		if ( this.chars.length < length ) {
+			this.chars = new char[ Math.max( length, this.chars.length * 2 ) ];
+		}
+		this.buffer.getChars( 0, length, this.chars, 0 );
+		this.out.write( this.chars, 0, length );
+		this.buffer.setLength( 0 );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The number of buffered characters that triggers writing to the Writer.
+	 *
+	 */
+	private static final int THRESHOLD = 8192;
+
+
+
+	private final Writer out;
+
+
+
+	private final Locale locale;
+
+
+
+	/**
+	 * The reused buffer the lines are formatted into.
+	 *
+	 */
+	private final StringBuffer buffer = new StringBuffer( THRESHOLD + 512 );
+
+
+
+	/**
+	 * The reused array to transfer the buffer to the Writer.
+	 *
+	 */
+	private char[] chars = new char[ THRESHOLD + 512 ];
+
+
+
+	private long written = 0;
+}
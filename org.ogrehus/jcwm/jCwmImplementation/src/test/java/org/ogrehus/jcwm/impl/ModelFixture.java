@@ -0,0 +1,199 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl;
+
+import java.sql.Types;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+import org.ogrehus.jcwm.api.resource.relational.util.ReferentialRule;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+
+
+/**
+ * ModelFixture builds the small models the tests work on: a Catalog SHOP of a Schema SALES with the Tables CUSTOMER and ORDERS, ORDERS
+ * referencing CUSTOMER by a ForeignKey. Each Table has INTEGER columns and a PrimaryKey of its first one.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelFixture {
+
+
+	private ModelFixture() {
+		// only static methods
+	}
+
+
+
+//====================================================================================================================================================
+// ModelFixture capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return A new Catalog of the default ElementRegistry.
+	 *
+	 */
+	public static Catalog createCatalog() {
+		return createCatalog( FACTORY );
+	}
+
+
+
+	/**
+	 * @return A new Catalog with the Tables CUSTOMER and ORDERS, ORDERS referencing CUSTOMER by a ForeignKey, created by a factory.
+	 *
+	 */
+	public static Catalog createCatalog( FunRelationalPackage factory ) {
+		Catalog catalog = factory.createCatalog( "SHOP", "UTF8", "UTF8_BIN" );
+		FunSchema schema = (FunSchema) factory.createSchema( "SALES" );
+		catalog.addOwnedElement( schema );
+		Table customer = addTable( factory, schema, "CUSTOMER", "ID", "NAME" );
+		Table orders = addTable( factory, schema, "ORDERS", "ID", "CUSTOMER_ID" );
+		addForeignKey( orders, "FK_ORDERS_CUSTOMER", "CUSTOMER_ID", customer.getPrimaryKey() );
+
+		return catalog;
+	}
+
+
+
+	/**
+	 * @return A new Table of INTEGER columns, with a PrimaryKey of the first one, not yet linked to the Schema.
+	 *
+	 */
+	public static Table createTable( FunSchema schema, String name, String... columns ) {
+		return createTable( FACTORY, schema, name, columns );
+	}
+
+
+
+	/**
+	 * @return A new Table of INTEGER columns, with a PrimaryKey of the first one, created by a factory and not yet linked to the Schema.
+	 *
+	 */
+	public static Table createTable( FunRelationalPackage factory, FunSchema schema, String name, String... columns ) {
+		Table table = factory.createTable( name, Boolean.FALSE, Boolean.FALSE );
+		for ( String column : columns ) {
+			table.addColumn( column, getInteger( schema ) );
+		}
+		PrimaryKey primaryKey = factory.createPrimaryKey( "PK_" + name, Deferability.getDefault() );
+		table.setPrimaryKey( primaryKey );
+		primaryKey.addFeature( table.getColumn( columns[ 0 ] ) );
+
+		return table;
+	}
+
+
+
+	/**
+	 * @return A new Table of INTEGER columns, with a PrimaryKey of the first one, linked to the Schema before its columns are added.
+	 *
+	 */
+	public static Table addTable( FunSchema schema, String name, String... columns ) {
+		return addTable( FACTORY, schema, name, columns );
+	}
+
+
+
+	/**
+	 * @return A new Table like {@link #addTable(FunSchema, String, String...)}, created by a factory.
+	 *
+	 */
+	public static Table addTable( FunRelationalPackage factory, FunSchema schema, String name, String... columns ) {
+		Table table = factory.createTable( name, Boolean.FALSE, Boolean.FALSE );
+		schema.addOwnedElement( table );
+		for ( String column : columns ) {
+			table.addColumn( column, getInteger( schema ) );
+		}
+		PrimaryKey primaryKey = factory.createPrimaryKey( "PK_" + name, Deferability.getDefault() );
+		table.setPrimaryKey( primaryKey );
+		primaryKey.addFeature( table.getColumn( columns[ 0 ] ) );
+
+		return table;
+	}
+
+
+
+	/**
+	 * Adds a ForeignKey of a column to a Table.
+	 *
+	 * @return The new ForeignKey.
+	 *
+	 */
+	public static ForeignKey addForeignKey( Table table, String name, String column, PrimaryKey target ) {
+		ForeignKey foreignKey = FACTORY.createForeignKey(
+			  name
+			, target
+			, ReferentialRule.getDefault()
+			, ReferentialRule.getDefault()
+			, Deferability.getDefault()
+		);
+		foreignKey.addFeature( table.getColumn( column ) );
+		table.addForeignKey( foreignKey );
+
+		return foreignKey;
+	}
+
+
+
+	/**
+	 * @return The shared INTEGER type of the pool of a Schema.
+	 *
+	 */
+	public static SQLSimpleType getInteger( FunSchema schema ) {
+		return schema.getSQLSimpleTypePool().get( Types.INTEGER, "INTEGER", 10, null, (short) 0, (short) 10, null );
+	}
+
+
+
+	public static FunSchema getSchema( Catalog catalog ) {
+		return (FunSchema) catalog.getSchemas().iterator().next();
+	}
+
+
+
+	public static Table getTable( Catalog catalog, String name ) {
+		return (Table) getSchema( catalog ).getNamedColumnSet( name );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The factory of the default ElementRegistry.
+	 *
+	 */
+	public static final FunRelationalPackage FACTORY = new FunRelationalPackage();
+}
@@ -0,0 +1,146 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.foundation.typemapping.util.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Types;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeMapping;
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeSystem;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+
+import org.ogrehus.jcwm.impl.foundation.typemapping.FunTypeMappingPackage;
+import org.ogrehus.jcwm.impl.foundation.typemapping.FunTypeSystem;
+import org.ogrehus.jcwm.impl.resource.relational.FunSQLSimpleTypePool;
+
+
+/**
+ * Tests the index of the mappings of a TypeSystem, which has to follow every change of the mappings.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class GFunTypeSystemTest {
+
+
+	/**
+	 * Adding a best match and removing it again changes the resolution of the source type at once.
+	 *
+	 */
+	@Test
+	public void testResolutionFollowsTheMappings() {
+		FunTypeSystem typeSystem = (FunTypeSystem) FACTORY.createTypeSystem( "JDBC", Visibility._public, "1" );
+		SQLSimpleType integer = type( Types.INTEGER, "INTEGER" );
+		SQLSimpleType bigint  = type( Types.BIGINT, "BIGINT" );
+		SQLSimpleType numeric = type( Types.NUMERIC, "NUMERIC" );
+		assertNull( typeSystem.getResolution( integer ) );
+
+		typeSystem.addOwnedElement( map( integer, numeric, false ) );
+		assertSame( numeric, typeSystem.getTarget( integer ) );
+
+		TypeMapping best = map( integer, bigint, true );
+		typeSystem.addOwnedElement( best );
+		assertSame( bigint, typeSystem.getTarget( integer ) );
+		assertEquals( 2, typeSystem.getResolution( integer ).getMappings().size() );
+		assertTrue( typeSystem.getTargetTypes().contains( bigint ) );
+
+		typeSystem.removeOwnedElement( best );
+		assertSame( numeric, typeSystem.getTarget( integer ) );
+		assertEquals( 1, typeSystem.getTargetTypes().size() );
+	}
+
+
+
+	/**
+	 * Readers rebuilding the index while mappings are added never leave an index behind, that misses one of the mappings.
+	 *
+	 */
+	@Test
+	public void testConcurrentReadersDoNotKeepAnOutdatedIndex() throws InterruptedException {
+		final FunTypeSystem typeSystem = (FunTypeSystem) FACTORY.createTypeSystem( "JDBC", Visibility._public, "1" );
+		final CountDownLatch done = new CountDownLatch( 1 );
+		Thread[] readers = new Thread[ 4 ];
+		for ( int i = 0; i < readers.length; i++ ) {
+			readers[ i ] = new Thread() {
+				@Override
+				public void run() {
+					while ( done.getCount() > 0 ) {
+						typeSystem.getSourceTypes();
+					}
+				}
+			};
+			readers[ i ].start();
+		}
+		int count = 500;
+		for ( int i = 0; i < count; i++ ) {
+			typeSystem.addOwnedElement( map( type( Types.VARCHAR, "VARCHAR" + i ), type( Types.CLOB, "CLOB" ), true ) );
+		}
+		done.countDown();
+		for ( Thread reader : readers ) {
+			reader.join();
+		}
+
+		assertEquals( count, typeSystem.getSourceTypes().size() );
+	}
+
+
+
+//====================================================================================================================================================
+// GFunTypeSystemTest internals
+//====================================================================================================================================================
+
+
+
+	private SQLSimpleType type( int jdbcType, String name ) {
+		return this.pool.get( jdbcType, name, 10, null, (short) 0, (short) 10, null );
+	}
+
+
+
+	private static TypeMapping map( SQLSimpleType source, SQLSimpleType target, boolean bestMatch ) {
+		String name = source.getSimpleName() + "_" + target.getSimpleName();
+
+		return FACTORY.createTypeMapping( name, Visibility._public, bestMatch, Boolean.FALSE, source, target );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final FunTypeMappingPackage FACTORY = new FunTypeMappingPackage();
+
+
+
+	private final FunSQLSimpleTypePool pool = new FunSQLSimpleTypePool();
+}
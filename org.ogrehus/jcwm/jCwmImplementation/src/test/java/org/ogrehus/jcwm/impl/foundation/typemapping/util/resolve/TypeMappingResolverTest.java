@@ -0,0 +1,218 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeMapping;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+
+import org.ogrehus.jcwm.impl.foundation.typemapping.FunTypeMappingPackage;
+import org.ogrehus.jcwm.impl.foundation.typemapping.FunTypeSystem;
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+
+
+/**
+ * Tests the chains of mappings found by a TypeMappingResolver across the TypeSystems ORACLE, SQL99 and POSTGRES, and their memo.
+ * <p>
+ * ORACLE maps NUMBER and VARCHAR2 to SQL99, SQL99 maps NUMERIC and VARCHAR to POSTGRES. ORACLE maps VARCHAR2 to TEXT of POSTGRES directly as
+ * well, but lossy and not as best match.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class TypeMappingResolverTest {
+
+
+	@Before
+	public void setUp() {
+		this.oracle   = (FunTypeSystem) FACTORY.createTypeSystem( "ORACLE", Visibility._public, "19" );
+		this.sql99    = (FunTypeSystem) FACTORY.createTypeSystem( "SQL99", Visibility._public, "1999" );
+		this.postgres = (FunTypeSystem) FACTORY.createTypeSystem( "POSTGRES", Visibility._public, "16" );
+		this.number   = type( this.oracle, Types.NUMERIC, "NUMBER" );
+		this.varchar2 = type( this.oracle, Types.VARCHAR, "VARCHAR2" );
+		this.numeric  = type( this.sql99, Types.NUMERIC, "NUMERIC" );
+		this.varchar  = type( this.sql99, Types.VARCHAR, "VARCHAR" );
+		this.decimal  = type( this.postgres, Types.DECIMAL, "DECIMAL" );
+		this.text     = type( this.postgres, Types.LONGVARCHAR, "TEXT" );
+		map( this.oracle, this.number, this.numeric, true, false );
+		map( this.oracle, this.varchar2, this.varchar, true, false );
+		map( this.oracle, this.varchar2, this.text, false, true );
+		map( this.sql99, this.numeric, this.decimal, true, false );
+		map( this.sql99, this.varchar, this.text, true, false );
+		this.resolver = new TypeMappingResolver( Arrays.asList( this.oracle, this.sql99, this.postgres ) );
+	}
+
+
+
+	/**
+	 * A type without a direct mapping to the target is translated by a chain over the intermediate TypeSystem, a type of the target needs no
+	 * mapping, an unreachable target gives no chain.
+	 *
+	 */
+	@Test
+	public void testChainsSpanSeveralTypeSystems() {
+		TypeMappingChain chain = this.resolver.getChain( this.number, this.postgres );
+		assertEquals( 2, chain.getLength() );
+		assertSame( this.number, chain.getSourceType() );
+		assertSame( this.decimal, chain.getTargetType() );
+		assertSame( this.numeric, chain.getMappings().get( 0 ).getTargetType() );
+		assertTrue( chain.isExact().booleanValue() );
+		assertFalse( chain.isLossy().booleanValue() );
+		assertEquals( chain.getMappings(), this.resolver.getChain( this.number, this.decimal ).getMappings() );
+
+		assertEquals( 0, this.resolver.getChain( this.number, this.oracle ).getLength() );
+		assertNull( this.resolver.getChain( this.decimal, this.oracle ) );
+		assertNull( this.resolver.getChain( this.number, this.text ) );
+	}
+
+
+
+	/**
+	 * The chain with the fewest mappings wins, even if a longer chain follows best matches only.
+	 *
+	 */
+	@Test
+	public void testShortestChainWins() {
+		TypeMappingChain chain = this.resolver.getChain( this.varchar2, this.postgres );
+		assertEquals( 1, chain.getLength() );
+		assertSame( this.text, chain.getTargetType() );
+		assertFalse( chain.isExact().booleanValue() );
+		assertTrue( chain.isLossy().booleanValue() );
+
+		assertSame( this.varchar, this.resolver.getChain( this.varchar2, this.sql99 ).getTargetType() );
+	}
+
+
+
+	/**
+	 * Found chains and failures are memoized, a new mapping drops the memo, so the next chain uses it.
+	 *
+	 */
+	@Test
+	public void testMemoIsDroppedByNewMappings() {
+		TypeMappingChain chain = this.resolver.getChain( this.number, this.postgres );
+		assertNull( this.resolver.getChain( this.decimal, this.oracle ) );
+		assertEquals( 2, this.resolver.getMemoSize() );
+		assertSame( chain, this.resolver.getChain( this.number, this.postgres ) );
+		assertEquals( 2, this.resolver.getMemoSize() );
+
+		TypeMapping direct = map( this.oracle, this.number, this.decimal, false, false );
+		TypeMappingChain shorter = this.resolver.getChain( this.number, this.postgres );
+		assertEquals( 1, this.resolver.getMemoSize() );
+		assertEquals( Arrays.asList( direct ), shorter.getMappings() );
+
+		this.oracle.removeOwnedElement( direct );
+		assertEquals( chain.getMappings(), this.resolver.getChain( this.number, this.postgres ).getMappings() );
+	}
+
+
+
+//====================================================================================================================================================
+// TypeMappingResolverTest internals
+//====================================================================================================================================================
+
+
+
+	private static SQLSimpleType type( FunTypeSystem typeSystem, int jdbcType, String name ) {
+		SQLSimpleType type = TYPES.createSQLSimpleType( jdbcType, name, 10, null, (short) 0, (short) 10, null );
+		typeSystem.addOwnedElement( type );
+
+		return type;
+	}
+
+
+
+	private static TypeMapping map( FunTypeSystem typeSystem, SQLSimpleType source, SQLSimpleType target, boolean bestMatch, boolean lossy ) {
+		String name = source.getSimpleName() + "_" + target.getSimpleName();
+		TypeMapping mapping = FACTORY.createTypeMapping( name, Visibility._public, bestMatch, lossy, source, target );
+		typeSystem.addOwnedElement( mapping );
+
+		return mapping;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final FunTypeMappingPackage FACTORY = new FunTypeMappingPackage();
+
+
+
+	private static final FunRelationalPackage TYPES = new FunRelationalPackage();
+
+
+
+	private FunTypeSystem oracle;
+
+
+
+	private FunTypeSystem sql99;
+
+
+
+	private FunTypeSystem postgres;
+
+
+
+	private SQLSimpleType number;
+
+
+
+	private SQLSimpleType varchar2;
+
+
+
+	private SQLSimpleType numeric;
+
+
+
+	private SQLSimpleType varchar;
+
+
+
+	private SQLSimpleType decimal;
+
+
+
+	private SQLSimpleType text;
+
+
+
+	private TypeMappingResolver resolver;
+}
@@ -0,0 +1,119 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.foundation.typemapping.util.resolve;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.foundation.typemapping.TypeSystem;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+
+import org.ogrehus.jcwm.impl.foundation.typemapping.FunTypeMappingPackage;
+
+
+/**
+ * Tests the lookup of TypeSystems by name and version in a TypeSystemRegistry, which has to follow its live Collection.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class TypeSystemRegistryTest {
+
+
+	/**
+	 * A TypeSystem is found by its name and version, or by its name alone, the first registered one wins.
+	 *
+	 */
+	@Test
+	public void testTypeSystemsAreFoundByNameAndVersion() {
+		List<TypeSystem> typeSystems = new ArrayList<TypeSystem>();
+		TypeSystem oracle18 = add( typeSystems, "ORACLE", "18" );
+		TypeSystem oracle19 = add( typeSystems, "ORACLE", "19" );
+		TypeSystemRegistry registry = new TypeSystemRegistry( typeSystems );
+
+		assertSame( oracle18, registry.get( "ORACLE", "18" ) );
+		assertSame( oracle19, registry.get( "ORACLE", "19" ) );
+		assertSame( oracle18, registry.get( "ORACLE", null ) );
+		assertNull( registry.get( "ORACLE", "21" ) );
+		assertNull( registry.get( "DB2", null ) );
+		assertNull( registry.get( null, "18" ) );
+	}
+
+
+
+	/**
+	 * TypeSystems added, renamed, versioned or removed after the first lookup are found by their current name and version only.
+	 *
+	 */
+	@Test
+	public void testRegistryFollowsTheCollection() {
+		List<TypeSystem> typeSystems = new ArrayList<TypeSystem>();
+		TypeSystem oracle = add( typeSystems, "ORACLE", "19" );
+		TypeSystemRegistry registry = new TypeSystemRegistry( typeSystems );
+		assertSame( oracle, registry.get( "ORACLE", "19" ) );
+
+		TypeSystem postgres = add( typeSystems, "POSTGRES", "16" );
+		assertSame( postgres, registry.get( "POSTGRES", "16" ) );
+
+		oracle.setVersion( "21" );
+		assertNull( registry.get( "ORACLE", "19" ) );
+		assertSame( oracle, registry.get( "ORACLE", "21" ) );
+
+		postgres.setName( "PG" );
+		assertNull( registry.get( "POSTGRES", null ) );
+		assertSame( postgres, registry.get( "PG", "16" ) );
+
+		typeSystems.remove( oracle );
+		assertNull( registry.get( "ORACLE", "21" ) );
+		assertNull( registry.get( "ORACLE", null ) );
+	}
+
+
+
+//====================================================================================================================================================
+// TypeSystemRegistryTest internals
+//====================================================================================================================================================
+
+
+
+	private static TypeSystem add( List<TypeSystem> typeSystems, String name, String version ) {
+		TypeSystem typeSystem = FACTORY.createTypeSystem( name, Visibility._public, version );
+		typeSystems.add( typeSystem );
+
+		return typeSystem;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final FunTypeMappingPackage FACTORY = new FunTypeMappingPackage();
+}
@@ -0,0 +1,373 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.objectmodel.core.util.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.Constraint;
+import org.ogrehus.jcwm.api.objectmodel.core.DataType;
+import org.ogrehus.jcwm.api.objectmodel.core.Dependency;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Changeable;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GCwmPackage;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GFeature;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+import org.ogrehus.jcwm.api.objectmodel.relationships.Generalization;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.FunCorePackage;
+import org.ogrehus.jcwm.impl.objectmodel.core.FunCwmClass;
+
+
+/**
+ * Tests the cached inheritance closure of a GFunClassifier: its ancestors, its linearized features, the reverse index of its specializations
+ * and the invalidation of the closure by changes above the classifier.
+ * <p>
+ * The hierarchy is a diamond: B and C inherit from A, D inherits from B and C, E inherits from D. Every class owns one Attribute named after
+ * the class.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class GFunClassifierTest {
+
+
+	@Before
+	public void setUp() {
+		this.a = createClass( "A" );
+		this.b = createClass( "B" );
+		this.c = createClass( "C" );
+		this.d = createClass( "D" );
+		this.e = createClass( "E" );
+		inherit( this.b, this.a );
+		inherit( this.c, this.a );
+		inherit( this.d, this.b );
+		inherit( this.d, this.c );
+		inherit( this.e, this.d );
+	}
+
+
+
+	/**
+	 * The ancestors are the transitive closure of the parents, nearest first and each once, a classifier is a subtype of itself and of its
+	 * ancestors only.
+	 *
+	 */
+	@Test
+	public void testAncestorsAreTheClosureOfTheParents() {
+		List<GClassifier<?, ?, ?, ?, ?, ?>> ancestors = Arrays.<GClassifier<?, ?, ?, ?, ?, ?>>asList(
+			this.e.getAllParents().toArray( new GClassifier<?, ?, ?, ?, ?, ?>[ 0 ] )
+		);
+		assertEquals( 4, ancestors.size() );
+		assertSame( this.d, ancestors.get( 0 ) );
+		assertEquals( asSet( this.b, this.c ), new HashSet<GClassifier<?, ?, ?, ?, ?, ?>>( ancestors.subList( 1, 3 ) ) );
+		assertSame( this.a, ancestors.get( 3 ) );
+		assertTrue( this.a.getAllParents().isEmpty() );
+
+		assertTrue( this.e.isSubtypeOf( this.e ).booleanValue() );
+		assertTrue( this.e.isSubtypeOf( this.a ).booleanValue() );
+		assertTrue( this.d.isSubtypeOf( this.c ).booleanValue() );
+		assertFalse( this.a.isSubtypeOf( this.e ).booleanValue() );
+		assertFalse( this.b.isSubtypeOf( this.c ).booleanValue() );
+		assertFalse( this.b.isSubtypeOf( null ).booleanValue() );
+	}
+
+
+
+	/**
+	 * The specializations of a classifier are the Generalizations it is the parent of, its children and descendants are the reverse of the
+	 * parents and ancestors.
+	 *
+	 */
+	@Test
+	public void testSpecializationsAreTheReverseOfTheGeneralizations() {
+		assertEquals( 2, this.a.getSpecializations().size() );
+		for ( Generalization specialization : this.a.getSpecializations() ) {
+			assertSame( this.a, specialization.getParent() );
+			assertTrue( specialization.getChild().getGeneralizations().contains( specialization ) );
+		}
+		assertTrue( this.e.getSpecializations().isEmpty() );
+
+		assertEquals( asSet( this.b, this.c ), this.a.getChildren() );
+		assertEquals( asSet( this.b, this.c, this.d, this.e ), this.a.getAllChildren() );
+		assertEquals( asSet( this.d, this.e ), this.c.getAllChildren() );
+		assertTrue( this.e.getAllChildren().isEmpty() );
+	}
+
+
+
+	/**
+	 * The features are linearized in the order of their lookup: own features first, the features of nearer ancestors before those of farther
+	 * ones, the feature of A inherited on two paths is listed once.
+	 *
+	 */
+	@Test
+	public void testFeaturesAreLinearizedNearestFirst() {
+		List<GFeature<?, ?, ?, ?, ?>> features = this.e.getLinearizedFeatures();
+		assertEquals( 5, features.size() );
+		assertEquals( "E_ID", features.get( 0 ).getSimpleName() );
+		assertEquals( "D_ID", features.get( 1 ).getSimpleName() );
+		assertEquals( "A_ID", features.get( 4 ).getSimpleName() );
+		assertEquals( new HashSet<GFeature<?, ?, ?, ?, ?>>( features ), this.e.getAllFeatures() );
+		assertEquals( 5, this.e.getAllAttributes().size() );
+		assertEquals( 2, this.b.getAllFeatures().size() );
+	}
+
+
+
+	/**
+	 * The closure is kept as long as nothing above the classifier changes: a new parent or feature of an ancestor is seen by the descendants,
+	 * a change below or beside the classifier keeps its closure.
+	 *
+	 */
+	@Test
+	public void testClosureIsInvalidatedByChangesAboveOnly() {
+		assertSame( this.e.getAllParents(), this.e.getAllParents() );
+		assertSame( this.b.getLinearizedFeatures(), this.b.getLinearizedFeatures() );
+
+		FunCwmClass root = createClass( "ROOT" );
+		Generalization toRoot = inherit( this.a, root );
+		assertTrue( this.e.getAllParents().contains( root ) );
+		assertTrue( this.e.isSubtypeOf( root ).booleanValue() );
+		assertEquals( 6, this.e.getLinearizedFeatures().size() );
+
+		Object parents = this.a.getAllParents();
+		FunCwmClass leaf = createClass( "LEAF" );
+		inherit( leaf, this.e );
+		this.c.addFeature( FACTORY.createAttribute( "C_NAME", Visibility._public, Changeable.getDefault(), this.type ) );
+		assertSame( parents, this.a.getAllParents() );
+		assertSame( this.b.getAllFeatures(), this.b.getAllFeatures() );
+		assertEquals( 7, this.e.getLinearizedFeatures().size() );
+		assertEquals( 8, leaf.getLinearizedFeatures().size() );
+
+		Object features = this.e.getLinearizedFeatures();
+		root.removeSpecialization( toRoot );
+		assertNotSame( features, this.e.getLinearizedFeatures() );
+		assertFalse( this.e.isSubtypeOf( root ).booleanValue() );
+		assertFalse( leaf.getAllParents().contains( root ) );
+		assertTrue( leaf.isSubtypeOf( this.a ).booleanValue() );
+	}
+
+
+
+//====================================================================================================================================================
+// GFunClassifierTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Creates a class owning one Attribute named after the class.
+	 *
+	 */
+	private FunCwmClass createClass( String name ) {
+		FunCwmClass cwmClass = (FunCwmClass) FACTORY.createClass( name, Visibility._public, Boolean.FALSE );
+		cwmClass.addFeature( FACTORY.createAttribute( name + "_ID", Visibility._public, Changeable.getDefault(), this.type ) );
+
+		return cwmClass;
+	}
+
+
+
+	/**
+	 * Links a child to a parent by a new Generalization, registered at both ends.
+	 *
+	 * @return The new Generalization.
+	 *
+	 */
+	private static Generalization inherit( GClassifier<?, ?, ?, ?, ?, ?> child, GClassifier<?, ?, ?, ?, ?, ?> parent ) {
+		Generalization generalization = new Inheritance( child.getSimpleName() + "_" + parent.getSimpleName() );
+		child.addGeneralization( generalization );
+		parent.addSpecialization( generalization );
+
+		return generalization;
+	}
+
+
+
+	private static HashSet<GClassifier<?, ?, ?, ?, ?, ?>> asSet( GClassifier<?, ?, ?, ?, ?, ?>... classifiers ) {
+		return new HashSet<GClassifier<?, ?, ?, ?, ?, ?>>( Arrays.asList( classifiers ) );
+	}
+
+
+
+	/**
+	 * A Generalization for the tests, the implementation lacks one. It keeps the references to its child and parent consistent with the
+	 * Generalizations and specializations of the classifiers.
+	 *
+	 */
+	private static final class Inheritance
+	extends
+		GFunModelElement<
+			  GNamespace<?, ?, ?, ?, ?>
+			, GCwmPackage<?, ?, ?, ?, ?, ?, ?>
+			, Dependency
+			, Constraint
+		>
+	implements
+		Generalization
+	{
+
+
+		Inheritance( String name ) {
+			super( name, Visibility._public );
+		}
+
+
+
+		public GNamespace<?, ?, ?, ?, ?> setNamespace( GNamespace<?, ?, ?, ?, ?> namespace ) {
+			return super.setNamespaceGeneric( namespace );
+		}
+
+
+
+		public Boolean addDependency( Dependency dependency ) {
+			return super.addDependencyGeneric( dependency );
+		}
+
+
+
+		public Boolean addConstraint( Constraint constraint ) {
+			return super.addConstraintGeneric( constraint );
+		}
+
+
+
+		public Boolean addImporter( GCwmPackage<?, ?, ?, ?, ?, ?, ?> importer ) {
+			return super.addImporterGeneric( importer );
+		}
+
+
+
+		public GClassifier<?, ?, ?, ?, ?, ?> getChild() {
+			return this.child;
+		}
+
+
+
+		public GClassifier<?, ?, ?, ?, ?, ?> setChild( GClassifier<?, ?, ?, ?, ?, ?> child ) {
+			GClassifier<?, ?, ?, ?, ?, ?> old = this.child;
+			if ( old != child ) {
+				this.child = child;
+				child.addGeneralization( this );
+			}
+
+			return old;
+		}
+
+
+
+		public Boolean removeChild() {
+			GClassifier<?, ?, ?, ?, ?, ?> old = this.child;
+			if ( old != null ) {
+				this.child = null;
+				old.removeGeneralization( this );
+			}
+
+			return Boolean.TRUE;
+		}
+
+
+
+		public GClassifier<?, ?, ?, ?, ?, ?> getParent() {
+			return this.parent;
+		}
+
+
+
+		public GClassifier<?, ?, ?, ?, ?, ?> setParent( GClassifier<?, ?, ?, ?, ?, ?> parent ) {
+			GClassifier<?, ?, ?, ?, ?, ?> old = this.parent;
+			if ( old != parent ) {
+				this.parent = parent;
+				parent.addSpecialization( this );
+			}
+
+			return old;
+		}
+
+
+
+		public Boolean removeParent() {
+			GClassifier<?, ?, ?, ?, ?, ?> old = this.parent;
+			if ( old != null ) {
+				this.parent = null;
+				old.removeSpecialization( this );
+			}
+
+			return Boolean.TRUE;
+		}
+
+
+
+		private GClassifier<?, ?, ?, ?, ?, ?> child;
+
+
+
+		private GClassifier<?, ?, ?, ?, ?, ?> parent;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final FunCorePackage FACTORY = new FunCorePackage();
+
+
+
+	private final DataType type = FACTORY.createDataType( "INTEGER", Visibility._public, Boolean.FALSE );
+
+
+
+	private FunCwmClass a;
+
+
+
+	private FunCwmClass b;
+
+
+
+	private FunCwmClass c;
+
+
+
+	private FunCwmClass d;
+
+
+
+	private FunCwmClass e;
+}
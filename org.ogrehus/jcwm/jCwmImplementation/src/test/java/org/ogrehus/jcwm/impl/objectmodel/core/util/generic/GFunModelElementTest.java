@@ -0,0 +1,350 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.objectmodel.core.util.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Column;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.SQLIndex;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.util.Nullable;
+
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+import org.ogrehus.jcwm.impl.util.diff.Fingerprint;
+
+
+/**
+ * Tests the compaction of a model by {@link GFunModelElement#compact()} and its thawing by {@link GFunModelElement#thaw()}, and the Boolean,
+ * enumerated and int properties packed into primitive fields.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class GFunModelElementTest {
+
+
+	/**
+	 * Compacting a Catalog compacts everything it owns, once, and leaves its content and its Fingerprint as they are.
+	 *
+	 */
+	@Test
+	public void testCompactKeepsTheModel() {
+		GFunModelElement<?, ?, ?, ?> catalog = (GFunModelElement<?, ?, ?, ?>) createCatalog();
+		Fingerprint fingerprint = catalog.getFingerprint();
+		Table customer = getTable( (Catalog) catalog, "CUSTOMER" );
+
+		assertEquals( count( catalog ), catalog.compact() );
+		assertEquals( 0, catalog.compact() );
+		assertTrue( catalog.isCompacted().booleanValue() );
+		assertTrue( ( (GFunModelElement<?, ?, ?, ?>) customer ).isCompacted().booleanValue() );
+		assertEquals( fingerprint, catalog.getFingerprint() );
+		assertTrue( getSchema( (Catalog) catalog ).getOwnedElements().contains( customer ) );
+		assertEquals( 2, customer.getColumns().size() );
+		assertSame( customer.getColumn( "ID" ), customer.getPrimaryKey().getFeatures().iterator().next() );
+	}
+
+
+
+	/**
+	 * A compacted element rejects the change of a property as well as of a collection.
+	 *
+	 */
+	@Test
+	public void testCompactedElementRejectsChanges() {
+		GFunModelElement<?, ?, ?, ?> catalog = (GFunModelElement<?, ?, ?, ?>) createCatalog();
+		catalog.compact();
+		GFunModelElement<?, ?, ?, ?> customer = (GFunModelElement<?, ?, ?, ?>) getTable( (Catalog) catalog, "CUSTOMER" );
+
+		try {
+			customer.setName( "CLIENT" );
+			fail( "The compacted Table was renamed." );
+		} catch ( UnsupportedOperationException expected ) {
+			assertEquals( "CUSTOMER", customer.getSimpleName() );
+		}
+		try {
+			getSchema( (Catalog) catalog ).getOwnedElements().clear();
+			fail( "The owned elements of the compacted Schema were cleared." );
+		} catch ( UnsupportedOperationException expected ) {
+			assertEquals( 2, getSchema( (Catalog) catalog ).getOwnedElements().size() );
+		}
+	}
+
+
+
+	/**
+	 * The PrimaryKey of a compacted Table rejects the change of its features.
+	 *
+	 */
+	@Test
+	public void testCompactedKeyRejectsChangesOfItsFeatures() {
+		GFunModelElement<?, ?, ?, ?> catalog = (GFunModelElement<?, ?, ?, ?>) createCatalog();
+		catalog.compact();
+		Table customer = getTable( (Catalog) catalog, "CUSTOMER" );
+		PrimaryKey primaryKey = customer.getPrimaryKey();
+
+		try {
+			primaryKey.addFeature( customer.getColumn( "NAME" ) );
+			fail( "A feature was added to the compacted PrimaryKey." );
+		} catch ( UnsupportedOperationException expected ) {
+			assertEquals( 1, primaryKey.getFeatures().size() );
+		}
+		try {
+			primaryKey.removeFeature( customer.getColumn( "ID" ) );
+			fail( "A feature was removed from the compacted PrimaryKey." );
+		} catch ( UnsupportedOperationException expected ) {
+			assertSame( customer.getColumn( "ID" ), primaryKey.getFeatures().iterator().next() );
+		}
+	}
+
+
+
+	/**
+	 * Thawing a Table of a compacted Catalog allows to change the Table, its ancestors stay compacted, till the Catalog is thawed.
+	 *
+	 */
+	@Test
+	public void testThawOfATableLeavesItsAncestorsCompacted() {
+		GFunModelElement<?, ?, ?, ?> catalog = (GFunModelElement<?, ?, ?, ?>) createCatalog();
+		int compacted = catalog.compact();
+		Table customer = getTable( (Catalog) catalog, "CUSTOMER" );
+		GFunModelElement<?, ?, ?, ?> table = (GFunModelElement<?, ?, ?, ?>) customer;
+
+		int thawed = table.thaw();
+		assertEquals( count( table ), thawed );
+		assertFalse( table.isCompacted().booleanValue() );
+		table.setName( "CLIENT" );
+		assertEquals( "CLIENT", table.getSimpleName() );
+		assertTrue( catalog.isCompacted().booleanValue() );
+		try {
+			getSchema( (Catalog) catalog ).removeOwnedElement( customer );
+			fail( "The Table was removed from the compacted Schema." );
+		} catch ( UnsupportedOperationException expected ) {
+			assertTrue( getSchema( (Catalog) catalog ).getOwnedElements().contains( customer ) );
+		}
+
+		assertEquals( compacted - thawed, catalog.thaw() );
+		assertFalse( catalog.isCompacted().booleanValue() );
+		getSchema( (Catalog) catalog ).removeOwnedElement( customer );
+		assertFalse( getSchema( (Catalog) catalog ).getOwnedElements().contains( customer ) );
+	}
+
+
+
+	/**
+	 * Threads compacting the same Catalog at once count every element once.
+	 *
+	 */
+	@Test
+	public void testConcurrentCompactCountsEveryElementOnce() throws InterruptedException {
+		final GFunModelElement<?, ?, ?, ?> catalog = (GFunModelElement<?, ?, ?, ?>) createCatalog();
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final AtomicInteger compacted = new AtomicInteger();
+		Thread[] threads = new Thread[ 4 ];
+		for ( int i = 0; i < threads.length; i++ ) {
+			threads[ i ] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch ( InterruptedException e ) {
+						return;
+					}
+					compacted.addAndGet( catalog.compact() );
+				}
+			};
+			threads[ i ].start();
+		}
+		start.countDown();
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertEquals( count( catalog ), compacted.get() );
+		assertTrue( catalog.isCompacted().booleanValue() );
+	}
+
+
+
+	/**
+	 * Each combination of the Boolean properties packed into the flags of a SQLIndex is read as it was set, so is each combination of the
+	 * enumerated and the Boolean property of a Column, <code>null</code> included.
+	 *
+	 */
+	@Test
+	public void testPackedPropertiesKeepEachCombination() {
+		SQLIndex index = createIndex();
+		for ( int combination = 0; combination < 32; combination++ ) {
+			Boolean[] set = new Boolean[ 5 ];
+			for ( int i = 0; i < set.length; i++ ) {
+				set[ i ] = Boolean.valueOf( ( combination >>> i & 1 ) != 0 );
+			}
+			index.setUnique( set[0] );
+			index.setSorted( set[1] );
+			index.setPartitioning( set[2] );
+			index.setNullable( set[3] );
+			index.setAutoUpdate( set[4] );
+			assertEquals( set[0], index.isUnique() );
+			assertEquals( set[1], index.isSorted() );
+			assertEquals( set[2], index.isPartitioning() );
+			assertEquals( set[3], index.isNullable() );
+			assertEquals( set[4], index.isAutoUpdate() );
+		}
+
+		Column column = getTable( createCatalog(), "ORDERS" ).getColumn( "ID" );
+		Nullable[] nullables = { null, Nullable.columnNoNulls, Nullable.columnNullable, Nullable.columnNullableUnknown };
+		for ( Nullable nullable : nullables ) {
+			for ( Boolean autoIncrement : new Boolean[] { null, Boolean.TRUE, Boolean.FALSE } ) {
+				column.setNullable( nullable );
+				column.setAutoIncrement( autoIncrement );
+				assertSame( nullable, column.getNullable() );
+				assertEquals( autoIncrement, column.isAutoIncrement() );
+			}
+		}
+	}
+
+
+
+	/**
+	 * Threads setting different properties of the same element at once lose none of their updates.
+	 *
+	 */
+	@Test
+	public void testConcurrentSettersLoseNoUpdate() throws InterruptedException {
+		final SQLIndex index = createIndex();
+		final CountDownLatch start = new CountDownLatch( 1 );
+		Thread[] threads = new Thread[ 5 ];
+		for ( int i = 0; i < threads.length; i++ ) {
+			final int property = i;
+			threads[ i ] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch ( InterruptedException e ) {
+						return;
+					}
+					for ( int j = 0; j <= 20000; j++ ) {
+						Boolean value = Boolean.valueOf( ( j + property ) % 2 == 0 );
+						switch ( property ) {
+						case 0:
+							index.setUnique( value );
+							break;
+						case 1:
+							index.setSorted( value );
+							break;
+						case 2:
+							index.setPartitioning( value );
+							break;
+						case 3:
+							index.setNullable( value );
+							break;
+						default:
+							index.setAutoUpdate( value );
+						}
+					}
+				}
+			};
+			threads[ i ].start();
+		}
+		start.countDown();
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertEquals( Boolean.TRUE, index.isUnique() ); // the last value of an even property is true
+		assertEquals( Boolean.FALSE, index.isSorted() );
+		assertEquals( Boolean.TRUE, index.isPartitioning() );
+		assertEquals( Boolean.FALSE, index.isNullable() );
+		assertEquals( Boolean.TRUE, index.isAutoUpdate() );
+	}
+
+
+
+	/**
+	 * An int property stored primitively is <code>null</code> till it is set, and can be unset again. The value denoting an unset property is
+	 * rejected.
+	 *
+	 */
+	@Test
+	public void testPrimitiveIntPropertyCanBeUnset() {
+		Column column = getTable( createCatalog(), "ORDERS" ).getColumn( "ID" );
+		assertNull( column.getLength() );
+		column.setLength( Integer.valueOf( 12 ) );
+		assertEquals( Integer.valueOf( 12 ), column.getLength() );
+		column.setLength( Integer.valueOf( 0 ) );
+		assertEquals( Integer.valueOf( 0 ), column.getLength() );
+		try {
+			column.setLength( Integer.valueOf( Integer.MIN_VALUE ) );
+			fail( "The value of an unset property was stored." );
+		} catch ( IllegalArgumentException expected ) {
+			assertEquals( Integer.valueOf( 0 ), column.getLength() );
+		}
+		assertEquals( Integer.valueOf( 0 ), column.setLength( null ) );
+		assertNull( column.getLength() );
+	}
+
+
+
+//====================================================================================================================================================
+// GFunModelElementTest internals
+//====================================================================================================================================================
+
+
+
+	private static SQLIndex createIndex() {
+		Table table = getTable( createCatalog(), "ORDERS" );
+
+		return FACTORY.createSQLIndex( "IX_ORDERS", Boolean.TRUE, Boolean.FALSE, Boolean.TRUE, table, "", Boolean.FALSE, Boolean.TRUE );
+	}
+
+
+
+	/**
+	 * @return The number of elements of the subtree of an element, the element included.
+	 *
+	 */
+	private static int count( ModelElement root ) {
+		int count = 0;
+		for ( @SuppressWarnings( "unused" ) ModelElement element : new ModelTraversal( root ) ) {
+			count++;
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getInteger;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+
+import java.sql.Types;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.ConstraintViolation;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * Tests the sharing of canonical SQLSimpleTypes by a FunSQLSimpleTypePool.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class FunSQLSimpleTypePoolTest {
+
+
+	/**
+	 * Equal descriptors give the same instance, a descriptor differing in any value gives another one, the values are kept in their places.
+	 *
+	 */
+	@Test
+	public void testEqualDescriptorsShareOneType() {
+		FunSQLSimpleTypePool pool = new FunSQLSimpleTypePool();
+		SQLSimpleType numeric = numeric( pool, 10, 2 );
+		assertSame( numeric, numeric( pool, 10, 2 ) );
+		assertNotSame( numeric, numeric( pool, 10, 3 ) );
+		assertNotSame( numeric, numeric( pool, 12, 2 ) );
+		assertNotSame( numeric, pool.get( Types.NUMERIC, "DECIMAL", 10, null, (short) 2, (short) 10, null ) );
+		assertEquals( 4, pool.size() );
+
+		assertEquals( Integer.valueOf( 10 ), numeric.getNumericPrecision() );
+		assertEquals( Short.valueOf( (short) 2 ), numeric.getNumericScale() );
+		assertEquals( Short.valueOf( (short) 10 ), numeric.getNumericPrecisionRadix() );
+
+		pool.clear();
+		assertEquals( 0, pool.size() );
+		assertNotSame( numeric, numeric( pool, 10, 2 ) );
+	}
+
+
+
+	/**
+	 * The descriptor of a pooled type is read only, a type created without a pool stays mutable.
+	 *
+	 */
+	@Test
+	public void testPooledTypesAreReadOnly() {
+		SQLSimpleType pooled = numeric( new FunSQLSimpleTypePool(), 10, 2 );
+		assertTrue( ( (FunSQLSimpleType) pooled ).isShared().booleanValue() );
+		try {
+			pooled.setNumericScale( Short.valueOf( (short) 4 ) );
+			fail( "The scale of a pooled type was changed." );
+		} catch ( ConstraintViolation expected ) {
+			assertEquals( CwmConstraint.readOnly, expected.getViolated() );
+			assertEquals( Short.valueOf( (short) 2 ), pooled.getNumericScale() );
+		}
+
+		SQLSimpleType own = new FunRelationalPackage().createSQLSimpleType( Types.NUMERIC, "NUMERIC", 10, null, (short) 2, (short) 10, null );
+		own.setNumericScale( Short.valueOf( (short) 4 ) );
+		assertEquals( Short.valueOf( (short) 4 ), own.getNumericScale() );
+	}
+
+
+
+	/**
+	 * Each Schema has a pool of its own, the columns of a Schema share its types, which are created in the ElementRegistry of the Schema.
+	 *
+	 */
+	@Test
+	public void testSchemaPoolsLiveInTheRegistryOfTheSchema() {
+		ElementRegistry registry = new ElementRegistry();
+		FunSchema schema = getSchema( createCatalog( new FunRelationalPackage( registry ) ) );
+		assertSame( schema.getSQLSimpleTypePool(), schema.getSQLSimpleTypePool() );
+		assertNotSame( schema.getSQLSimpleTypePool(), getSchema( createCatalog() ).getSQLSimpleTypePool() );
+
+		SQLSimpleType integer = getInteger( schema );
+		assertSame( integer, getInteger( schema ) );
+		assertNotSame( integer, getInteger( getSchema( createCatalog() ) ) );
+		assertTrue( registry.getId( integer ) != 0 );
+		assertEquals( 0, ElementRegistry.getDefault().getId( integer ) );
+	}
+
+
+
+	/**
+	 * Threads asking for the same descriptor at once get the same instance.
+	 *
+	 */
+	@Test
+	public void testConcurrentRequestsShareOneType() throws InterruptedException {
+		final FunSQLSimpleTypePool pool = new FunSQLSimpleTypePool();
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final SQLSimpleType[] types = new SQLSimpleType[ 8 ];
+		Thread[] threads = new Thread[ types.length ];
+		for ( int i = 0; i < threads.length; i++ ) {
+			final int index = i;
+			threads[ i ] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch ( InterruptedException e ) {
+						return;
+					}
+					types[ index ] = numeric( pool, 10, 2 );
+				}
+			};
+			threads[ i ].start();
+		}
+		start.countDown();
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertEquals( 1, pool.size() );
+		for ( SQLSimpleType type : types ) {
+			assertSame( types[ 0 ], type );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// FunSQLSimpleTypePoolTest internals
+//====================================================================================================================================================
+
+
+
+	private static SQLSimpleType numeric( FunSQLSimpleTypePool pool, int precision, int scale ) {
+		return pool.get( Types.NUMERIC, "NUMERIC", precision, null, (short) scale, (short) 10, null );
+	}
+}
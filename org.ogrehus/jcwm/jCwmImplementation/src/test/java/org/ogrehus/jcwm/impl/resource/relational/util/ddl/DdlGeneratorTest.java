@@ -0,0 +1,320 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.ddl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.addForeignKey;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+
+
+/**
+ * Tests the order of the statements written by a DdlGenerator and the quoting of identifiers by the SqlDialects.
+ * <p>
+ * The Catalog SHOP of the fixture is extended by ITEMS referencing ORDERS, the Tables A and B referencing each other, the chain T1, T2, T3
+ * each referencing the Table created after it, and the Table INVOICE of the Schema BILLING referencing ORDERS.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class DdlGeneratorTest {
+
+
+	@Before
+	public void setUp() {
+		this.catalog = createCatalog();
+		this.sales = getSchema( this.catalog );
+		Table orders = getTable( this.catalog, "ORDERS" );
+		addForeignKey( addTable( this.sales, "ITEMS", "ID", "ORDER_ID" ), "FK_ITEMS_ORDERS", "ORDER_ID", orders.getPrimaryKey() );
+
+		Table a = addTable( this.sales, "A", "ID", "B_ID" );
+		Table b = addTable( this.sales, "B", "ID", "A_ID" );
+		addForeignKey( a, "FK_A_B", "B_ID", b.getPrimaryKey() );
+		addForeignKey( b, "FK_B_A", "A_ID", a.getPrimaryKey() );
+
+		Table t1 = addTable( this.sales, "T1", "ID", "T2_ID" );
+		Table t2 = addTable( this.sales, "T2", "ID", "T3_ID" );
+		Table t3 = addTable( this.sales, "T3", "ID" );
+		addForeignKey( t1, "FK_T1_T2", "T2_ID", t2.getPrimaryKey() );
+		addForeignKey( t2, "FK_T2_T3", "T3_ID", t3.getPrimaryKey() );
+
+		this.billing = (FunSchema) FACTORY.createSchema( "BILLING" );
+		this.catalog.addOwnedElement( this.billing );
+		addForeignKey( addTable( this.billing, "INVOICE", "ID", "ORDER_ID" ), "FK_INVOICE_ORDERS", "ORDER_ID", orders.getPrimaryKey() );
+
+		this.generator = new DdlGenerator( new AnsiSqlDialect() );
+	}
+
+
+
+	/**
+	 * Each Table is sorted once and after the Tables it references, the Tables of a cycle follow the others.
+	 *
+	 */
+	@Test
+	public void testTablesFollowTheTablesTheyReference() {
+		List<Table> sorted = this.generator.sortTables( this.sales );
+		assertEquals( this.sales.getTables().size(), sorted.size() );
+		assertTrue( sorted.containsAll( this.sales.getTables() ) );
+
+		for ( Table table : sorted ) {
+			for ( ForeignKey foreignKey : table.getForeignKeys() ) {
+				Table referenced = foreignKey.getUniqueKey().getNamespace();
+				if ( !isCycle( table ) ) {
+					String order = referenced.getSimpleName() + " before " + table.getSimpleName();
+					assertTrue( order, sorted.indexOf( referenced ) < sorted.indexOf( table ) );
+				}
+			}
+		}
+		assertTrue( isCycle( sorted.get( sorted.size() - 1 ) ) );
+		assertTrue( isCycle( sorted.get( sorted.size() - 2 ) ) );
+	}
+
+
+
+	/**
+	 * Of the ForeignKeys of a cycle the first is written with its Table, the other one by ALTER TABLE after both Tables are created.
+	 *
+	 */
+	@Test
+	public void testCycleIsClosedByAlterTable() throws IOException {
+		String ddl = generate( this.sales );
+		int alter = ddl.indexOf( "ALTER TABLE " );
+		assertTrue( ddl, alter > ddl.indexOf( "CREATE TABLE \"SALES\".\"A\"" ) );
+		assertTrue( ddl, alter > ddl.indexOf( "CREATE TABLE \"SALES\".\"B\"" ) );
+		assertEquals( ddl, alter, ddl.lastIndexOf( "ALTER TABLE " ) );
+
+		String altered = ddl.substring( alter, ddl.indexOf( ';', alter ) );
+		String inline  = altered.contains( "\"FK_A_B\"" ) ? "\"FK_B_A\"" : "\"FK_A_B\"";
+		assertTrue( altered, altered.contains( "\"FK_A_B\"" ) || altered.contains( "\"FK_B_A\"" ) );
+		assertTrue( ddl, ddl.indexOf( "CONSTRAINT " + inline + " FOREIGN KEY" ) < alter );
+	}
+
+
+
+	/**
+	 * A ForeignKey referencing a Table of another Schema is added after the Tables of all Schemas are created.
+	 *
+	 */
+	@Test
+	public void testForeignKeysBetweenSchemasAreAddedLast() throws IOException {
+		StringWriter out = new StringWriter();
+		long statements = this.generator.generate( this.catalog, out );
+		String ddl = out.toString();
+		assertEquals( countStatements( ddl ), statements );
+		assertEquals( 2 + this.sales.getTables().size() + 1 + 2, statements ); // schemas, tables, INVOICE, ALTER of the cycle and of INVOICE
+
+		int alter = ddl.indexOf( "ALTER TABLE \"BILLING\".\"INVOICE\" ADD CONSTRAINT \"FK_INVOICE_ORDERS\"" );
+		assertTrue( ddl, alter > ddl.lastIndexOf( "CREATE TABLE " ) );
+		String invoice = ddl.substring( ddl.indexOf( "CREATE TABLE \"BILLING\".\"INVOICE\"" ) );
+		assertFalse( ddl, invoice.substring( 0, invoice.indexOf( ';' ) ).contains( "FOREIGN KEY" ) );
+
+		String billing = generate( this.billing );
+		assertTrue( billing, billing.trim().endsWith( "REFERENCES \"SALES\".\"ORDERS\" ( \"ID\" ) ON DELETE SET DEFAULT ON UPDATE SET DEFAULT;" ) );
+	}
+
+
+
+	/**
+	 * Schemas generated in parallel are written each to its own Writer, the ForeignKeys between them to the Writer of ForeignKeys, with as many
+	 * statements as written to a single Writer.
+	 *
+	 */
+	@Test
+	public void testParallelGenerationWritesEachSchemaToItsWriter() throws IOException {
+		final Map<String, StringWriter> writers = new ConcurrentHashMap<String, StringWriter>();
+		DdlTarget target = new DdlTarget() {
+			public Writer open( Schema schema ) {
+				StringWriter out = new StringWriter();
+				writers.put( schema.getSimpleName(), out );
+				return out;
+			}
+			public Writer openForeignKeys( Catalog catalog ) {
+				StringWriter out = new StringWriter();
+				writers.put( "", out );
+				return out;
+			}
+		};
+		long statements = this.generator.generate( this.catalog, target, 2 );
+		assertEquals( this.generator.generate( this.catalog, new StringWriter() ), statements );
+
+		assertEquals( 3, writers.size() );
+		String sales = writers.get( "SALES" ).toString();
+		assertTrue( sales, sales.startsWith( "-- Schema: SALES\nCREATE SCHEMA \"SALES\";" ) );
+		assertFalse( sales, sales.contains( "BILLING" ) );
+		assertFalse( writers.get( "BILLING" ).toString().contains( "FOREIGN KEY" ) );
+		String foreignKeys = writers.get( "" ).toString();
+		assertEquals( 1, countStatements( foreignKeys ) );
+		assertTrue( foreignKeys, foreignKeys.startsWith( "ALTER TABLE \"BILLING\".\"INVOICE\"" ) );
+	}
+
+
+
+	/**
+	 * Identifiers are quoted by the quotes of the dialect, a quote within an identifier is doubled.
+	 *
+	 */
+	@Test
+	public void testIdentifiersAreQuotedByTheDialect() throws IOException {
+		StringWriter out = new StringWriter();
+		new DdlWriter( out, new AnsiSqlDialect() ).identifier( "ORDERS" ).text( ' ' ).identifier( "MY\"TABLE" );
+		new DdlWriter( out, new PostgreSqlDialect() ).text( ' ' ).identifier( "MY\"TABLE" );
+		new DdlWriter( out, new MySqlDialect() ).text( ' ' ).identifier( "ORDERS" ).text( ' ' ).identifier( "MY`TABLE" );
+		assertEquals( "\"ORDERS\" \"MY\"\"TABLE\" \"MY\"\"TABLE\" `ORDERS` `MY``TABLE`", out.toString() );
+
+		out = new StringWriter();
+		new DdlGenerator( new MySqlDialect() ).generate( this.sales, out );
+		assertTrue( out.toString(), out.toString().contains( "CREATE TABLE `SALES`.`ITEMS` (" ) );
+	}
+
+
+
+	/**
+	 * A failing Writer of a Schema is thrown by the parallel generation, a parallelism below one is rejected.
+	 *
+	 */
+	@Test
+	public void testFailuresAreThrown() {
+		final IOException failure = new IOException( "disk full" );
+		try {
+			this.generator.generate( this.catalog, new DdlTarget() {
+				public Writer open( Schema schema ) throws IOException {
+					throw failure;
+				}
+				public Writer openForeignKeys( Catalog catalog ) {
+					return new StringWriter();
+				}
+			}, 2 );
+			fail( "The failure of the target was swallowed." );
+		} catch ( IOException expected ) {
+			assertSame( failure, expected );
+		}
+		try {
+			this.generator.generate( this.catalog, (DdlTarget) null, 0 );
+			fail( "The DDL was generated without target." );
+		} catch ( IOException unexpected ) {
+			throw new AssertionError( unexpected );
+		} catch ( NullPointerException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "target" ) );
+		}
+		try {
+			this.generator.generate( this.catalog, new DdlTarget() {
+				public Writer open( Schema schema ) {
+					return new StringWriter();
+				}
+				public Writer openForeignKeys( Catalog catalog ) {
+					return new StringWriter();
+				}
+			}, 0 );
+			fail( "The DDL was generated by no thread." );
+		} catch ( IOException unexpected ) {
+			throw new AssertionError( unexpected );
+		} catch ( IllegalArgumentException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "parallelism" ) );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// DdlGeneratorTest internals
+//====================================================================================================================================================
+
+
+
+	private String generate( Schema schema ) throws IOException {
+		StringWriter out = new StringWriter();
+		this.generator.generate( schema, out );
+
+		return out.toString();
+	}
+
+
+
+	private static boolean isCycle( Table table ) {
+		return "A".equals( table.getSimpleName() ) || "B".equals( table.getSimpleName() );
+	}
+
+
+
+	/**
+	 * @return The number of lines ending a statement.
+	 *
+	 */
+	private static int countStatements( String ddl ) {
+		int count = 0;
+		for ( String line : ddl.split( "\n" ) ) {
+			if ( line.endsWith( ";" ) && !line.startsWith( "--" ) ) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private Catalog catalog;
+
+
+
+	private FunSchema sales;
+
+
+
+	private FunSchema billing;
+
+
+
+	private DdlGenerator generator;
+}
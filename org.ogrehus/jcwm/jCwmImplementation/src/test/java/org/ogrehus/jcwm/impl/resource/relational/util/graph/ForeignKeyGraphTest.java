@@ -0,0 +1,325 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.resource.relational.util.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.addForeignKey;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunForeignKey;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+
+
+/**
+ * Tests the join paths and components of a ForeignKeyGraph and that the graph follows the changes of its Catalog.
+ * <p>
+ * The Catalog SHOP of the fixture is extended by ITEMS and PAYMENT, both referencing ORDERS, PAYMENT referencing CUSTOMER as well, a second
+ * ForeignKey of ORDERS to CUSTOMER, the Table INVOICE of the Schema BILLING referencing ORDERS and the Table LOG without ForeignKeys.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ForeignKeyGraphTest {
+
+
+	@Before
+	public void setUp() {
+		this.catalog = createCatalog();
+		this.sales = getSchema( this.catalog );
+		this.customer = getTable( this.catalog, "CUSTOMER" );
+		this.orders   = getTable( this.catalog, "ORDERS" );
+		this.items    = addTable( this.sales, "ITEMS", "ID", "ORDER_ID" );
+		this.payment  = addTable( this.sales, "PAYMENT", "ID", "ORDER_ID", "CUSTOMER_ID" );
+		this.log      = addTable( this.sales, "LOG", "ID" );
+		addForeignKey( this.orders, "FK_ORDERS_BILL_TO", "CUSTOMER_ID", this.customer.getPrimaryKey() );
+		addForeignKey( this.items, "FK_ITEMS_ORDERS", "ORDER_ID", this.orders.getPrimaryKey() );
+		addForeignKey( this.payment, "FK_PAYMENT_ORDERS", "ORDER_ID", this.orders.getPrimaryKey() );
+		addForeignKey( this.payment, "FK_PAYMENT_CUSTOMER", "CUSTOMER_ID", this.customer.getPrimaryKey() );
+		FunSchema billing = (FunSchema) FACTORY.createSchema( "BILLING" );
+		this.catalog.addOwnedElement( billing );
+		this.invoice = addTable( billing, "INVOICE", "ID", "ORDER_ID" );
+		addForeignKey( this.invoice, "FK_INVOICE_ORDERS", "ORDER_ID", this.orders.getPrimaryKey() );
+
+		this.graph = ForeignKeyGraph.open( this.catalog );
+	}
+
+
+
+	@After
+	public void tearDown() {
+		this.graph.close();
+	}
+
+
+
+	/**
+	 * The graph indexes the Tables of all Schemas with the ForeignKeys they own and the ForeignKeys referencing them.
+	 *
+	 */
+	@Test
+	public void testForeignKeysAreIndexedBothWays() {
+		assertEquals( asSet( this.customer, this.orders, this.items, this.payment, this.log, this.invoice ), this.graph.getTables() );
+		assertEquals( 2, this.graph.getOutgoing( this.orders ).size() );
+		assertEquals( 3, this.graph.getIncoming( this.orders ).size() );
+		assertEquals( 3, this.graph.getIncoming( this.customer ).size() );
+		assertTrue( this.graph.getOutgoing( this.log ).isEmpty() );
+		assertTrue( this.graph.getIncoming( this.log ).isEmpty() );
+
+		ForeignKey foreignKey = this.invoice.getForeignKey( "FK_INVOICE_ORDERS" );
+		assertTrue( this.graph.getIncoming( this.orders ).contains( foreignKey ) );
+		assertSame( this.orders, this.graph.getReferencedTable( foreignKey ) );
+	}
+
+
+
+	/**
+	 * The k shortest paths are ordered by their number of joins, distinct and loopless, the two ForeignKeys of ORDERS to CUSTOMER make two
+	 * paths of the same Tables.
+	 *
+	 */
+	@Test
+	public void testJoinPathsAreTheShortestFirst() {
+		List<JoinPath> paths = this.graph.getJoinPaths( this.items, this.customer, 10 );
+		assertEquals( 3, paths.size() );
+		assertEquals( 2, paths.get( 0 ).getLength() );
+		assertEquals( 2, paths.get( 1 ).getLength() );
+		assertEquals( 3, paths.get( 2 ).getLength() );
+		assertEquals( paths.size(), new HashSet<JoinPath>( paths ).size() );
+		assertEquals( paths.get( 0 ).getTables(), paths.get( 1 ).getTables() );
+		assertEquals( Arrays.asList( this.items, this.orders, this.payment, this.customer ), paths.get( 2 ).getTables() );
+		for ( JoinPath path : paths ) {
+			assertJoins( path, this.items, this.customer );
+		}
+		assertEquals( paths.get( 0 ).getLength(), this.graph.getJoinPath( this.items, this.customer ).getLength() );
+
+		assertEquals( paths.subList( 0, 2 ), this.graph.getJoinPaths( this.items, this.customer, 2 ) );
+		assertTrue( this.graph.getJoinPaths( this.items, this.customer, 0 ).isEmpty() );
+		try {
+			this.graph.getJoinPaths( this.items, this.customer, -1 );
+			fail( "A negative number of paths was accepted." );
+		} catch ( IllegalArgumentException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "-1" ) );
+		}
+	}
+
+
+
+	/**
+	 * Tables of different components are not joined by any path, a path joins the Schemas SALES and BILLING against the direction of the
+	 * ForeignKeys.
+	 *
+	 */
+	@Test
+	public void testComponentsSeparateTheUnconnectedTables() {
+		List<Set<Table>> components = this.graph.getComponents();
+		assertEquals( 2, components.size() );
+		assertEquals( asSet( this.customer, this.orders, this.items, this.payment, this.invoice ), this.graph.getComponent( this.customer ) );
+		assertEquals( asSet( this.log ), this.graph.getComponent( this.log ) );
+
+		assertNull( this.graph.getJoinPath( this.log, this.customer ) );
+		assertTrue( this.graph.getJoinPaths( this.log, this.customer, 3 ).isEmpty() );
+
+		JoinPath path = this.graph.getJoinPath( this.customer, this.invoice );
+		assertJoins( path, this.customer, this.invoice );
+		assertEquals( 2, path.getLength() );
+		assertFalse( path.isForward( 0 ).booleanValue() );
+		assertFalse( path.isForward( 1 ).booleanValue() );
+	}
+
+
+
+	/**
+	 * Added and removed ForeignKeys, Tables and Schemas are applied to the graph, its components included.
+	 *
+	 */
+	@Test
+	public void testGraphFollowsTheChangesOfTheCatalog() {
+		ForeignKey logged = addForeignKey( this.log, "FK_LOG_CUSTOMER", "ID", this.customer.getPrimaryKey() );
+		assertEquals( 1, this.graph.getComponents().size() );
+		assertSame( this.customer, this.graph.getReferencedTable( logged ) );
+		assertEquals( 1, this.graph.getJoinPath( this.log, this.customer ).getLength() );
+
+		this.log.removeForeignKey( logged );
+		assertNull( this.graph.getReferencedTable( logged ) );
+		assertEquals( 2, this.graph.getComponents().size() );
+		assertNull( this.graph.getJoinPath( this.log, this.customer ) );
+
+		this.sales.removeOwnedElement( this.payment );
+		assertFalse( this.graph.contains( this.payment ).booleanValue() );
+		assertEquals( 2, this.graph.getIncoming( this.customer ).size() );
+		assertEquals( 2, this.graph.getJoinPaths( this.items, this.customer, 10 ).size() );
+
+		FunSchema archive = (FunSchema) FACTORY.createSchema( "ARCHIVE" );
+		Table old = addTable( archive, "OLD_ORDERS", "ID", "CUSTOMER_ID" );
+		addForeignKey( old, "FK_OLD_ORDERS_CUSTOMER", "CUSTOMER_ID", this.customer.getPrimaryKey() );
+		this.catalog.addOwnedElement( archive );
+		assertTrue( this.graph.contains( old ).booleanValue() );
+		assertEquals( 3, this.graph.getJoinPath( this.items, old ).getLength() );
+
+		this.catalog.removeOwnedElement( archive );
+		assertFalse( this.graph.contains( old ).booleanValue() );
+		assertEquals( 2, this.graph.getIncoming( this.customer ).size() );
+	}
+
+
+
+	/**
+	 * Graphs opened while a ForeignKey switches its target again and again end up with the final target, no switch between the index of the
+	 * Schemas and the registration of the graph is lost.
+	 *
+	 */
+	@Test
+	public void testGraphOpenedWhileTheModelChangesKeepsUp() throws InterruptedException {
+		final FunForeignKey foreignKey = (FunForeignKey) this.items.getForeignKey( "FK_ITEMS_ORDERS" );
+		final PrimaryKey customerKey = this.customer.getPrimaryKey();
+		final PrimaryKey ordersKey   = this.orders.getPrimaryKey();
+		final CountDownLatch started = new CountDownLatch( 1 );
+		final CountDownLatch stop = new CountDownLatch( 1 );
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for ( int i = 0; stop.getCount() > 0; i++ ) {
+					foreignKey.setUniqueConstraint( i % 2 == 0 ? customerKey : ordersKey );
+					started.countDown();
+				}
+			}
+		};
+		writer.start();
+		started.await();
+		ForeignKeyGraph[] graphs = new ForeignKeyGraph[ 100 ];
+		for ( int i = 0; i < graphs.length; i++ ) {
+			graphs[ i ] = ForeignKeyGraph.open( this.catalog );
+		}
+		stop.countDown();
+		writer.join();
+
+		Table target = foreignKey.getUniqueKey().getNamespace();
+		for ( ForeignKeyGraph opened : graphs ) {
+			assertSame( target, opened.getReferencedTable( foreignKey ) );
+			assertTrue( opened.getIncoming( target ).contains( foreignKey ) );
+			assertFalse( opened.getIncoming( target == this.customer ? this.orders : this.customer ).contains( foreignKey ) );
+			opened.close();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ForeignKeyGraphTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Asserts that a path leads from one Table to another without a Table twice and that every join is made by a ForeignKey between its two
+	 * Tables, in the direction reported by the path.
+	 *
+	 */
+	private void assertJoins( JoinPath path, Table from, Table to ) {
+		assertSame( from, path.getFrom() );
+		assertSame( to, path.getTo() );
+		assertEquals( path.getLength() + 1, path.getTables().size() );
+		assertEquals( path.getTables().size(), new HashSet<Table>( path.getTables() ).size() );
+		for ( int i = 0; i < path.getLength(); i++ ) {
+			ForeignKey foreignKey = path.getForeignKeys().get( i );
+			Table left  = path.getTables().get( i );
+			Table right = path.getTables().get( i + 1 );
+			boolean forward = this.graph.getOutgoing( left ).contains( foreignKey );
+			assertTrue( path.toString(), this.graph.getOutgoing( forward ? left : right ).contains( foreignKey ) );
+			assertSame( path.toString(), forward ? right : left, this.graph.getReferencedTable( foreignKey ) );
+			assertEquals( path.toString(), Boolean.valueOf( forward ), path.isForward( i ) );
+		}
+	}
+
+
+
+	private static Set<Table> asSet( Table... tables ) {
+		return new HashSet<Table>( Arrays.asList( tables ) );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private Catalog catalog;
+
+
+
+	private FunSchema sales;
+
+
+
+	private Table customer;
+
+
+
+	private Table orders;
+
+
+
+	private Table items;
+
+
+
+	private Table payment;
+
+
+
+	private Table log;
+
+
+
+	private Table invoice;
+
+
+
+	private ForeignKeyGraph graph;
+}
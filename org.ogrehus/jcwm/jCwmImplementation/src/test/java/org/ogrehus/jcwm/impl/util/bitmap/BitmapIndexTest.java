@@ -0,0 +1,117 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.bitmap;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+
+/**
+ * Tests the maintenance of a BitmapIndex by the changes of the indexed model.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class BitmapIndexTest {
+
+
+	/**
+	 * A property changed after the index is opened moves the element to the bitmap of the new value.
+	 *
+	 */
+	@Test
+	public void testChangedPropertyMovesTheElement() {
+		Catalog catalog = createCatalog();
+		Table customer = getTable( catalog, "CUSTOMER" );
+		BitmapIndex index = BitmapIndex.open( catalog );
+		try {
+			assertTrue( contains( index, Visibility._public, customer ) );
+
+			customer.setVisibility( Visibility._private );
+			assertFalse( contains( index, Visibility._public, customer ) );
+			assertTrue( contains( index, Visibility._private, customer ) );
+		} finally {
+			index.close();
+		}
+	}
+
+
+
+	/**
+	 * An index opened while the model changes ends up with the final value of the changed property, no change is lost between the indexing
+	 * of the model and the registration of the index.
+	 *
+	 */
+	@Test
+	public void testIndexOpenedWhileTheModelChangesKeepsUp() throws InterruptedException {
+		Catalog catalog = createCatalog();
+		final Table customer = getTable( catalog, "CUSTOMER" );
+		final CountDownLatch started = new CountDownLatch( 1 );
+		final CountDownLatch stop = new CountDownLatch( 1 );
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for ( int i = 0; stop.getCount() > 0; i++ ) {
+					customer.setVisibility( i % 2 == 0 ? Visibility._private : Visibility._public );
+					started.countDown();
+				}
+			}
+		};
+		writer.start();
+		started.await();
+		BitmapIndex[] indexes = new BitmapIndex[ 200 ];
+		for ( int i = 0; i < indexes.length; i++ ) {
+			indexes[ i ] = BitmapIndex.open( catalog );
+		}
+		stop.countDown();
+		writer.join();
+
+		Visibility visibility = customer.getVisibility();
+		for ( BitmapIndex index : indexes ) {
+			assertTrue( contains( index, visibility, customer ) );
+			assertFalse( contains( index, visibility == Visibility._public ? Visibility._private : Visibility._public, customer ) );
+			index.close();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// BitmapIndexTest internals
+//====================================================================================================================================================
+
+
+
+	private static boolean contains( BitmapIndex index, Visibility visibility, Table table ) {
+		return index.getElements( index.get( BitmapProperty.visibility, visibility ) ).contains( table );
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.bitmap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests a RoaringBitmap against a BitSet with the same values, for sparse and dense chunks and the conversions between their containers.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class RoaringBitmapTest {
+
+
+	/**
+	 * Random additions and removals in sparse and dense chunks give the values of a BitSet.
+	 *
+	 */
+	@Test
+	public void testAddAndRemoveMatchABitSet() {
+		Random random = new Random( 42 );
+		RoaringBitmap bitmap = new RoaringBitmap();
+		BitSet expected = new BitSet();
+		for ( int i = 0; i < 200000; i++ ) {
+			int value = nextValue( random );
+			if ( random.nextInt( 4 ) == 0 ) {
+				assertEquals( "remove " + value, expected.get( value ), bitmap.remove( value ) );
+				expected.clear( value );
+			} else {
+				assertEquals( "add " + value, !expected.get( value ), bitmap.add( value ) );
+				expected.set( value );
+			}
+		}
+		assertMatches( expected, bitmap );
+		assertFalse( bitmap.contains( -1 ) );
+		assertFalse( bitmap.remove( -1 ) );
+
+		for ( int value = expected.nextSetBit( 0 ); value >= 0; value = expected.nextSetBit( value + 1 ) ) {
+			assertTrue( bitmap.remove( value ) );
+		}
+		assertTrue( bitmap.isEmpty() );
+		assertEquals( -1, bitmap.nextSetBit( 0 ) );
+	}
+
+
+
+	/**
+	 * Intersections, unions and differences of bitmaps of mixed density give the ones of BitSets and leave their operands as they are.
+	 *
+	 */
+	@Test
+	public void testSetOperationsMatchBitSets() {
+		Random random = new Random( 7 );
+		for ( int round = 0; round < 20; round++ ) {
+			BitSet x = new BitSet();
+			BitSet y = new BitSet();
+			RoaringBitmap a = fill( random, x, random.nextInt( 20000 ) );
+			RoaringBitmap b = fill( random, y, random.nextInt( 20000 ) );
+
+			BitSet and = (BitSet) x.clone();
+			and.and( y );
+			BitSet or = (BitSet) x.clone();
+			or.or( y );
+			BitSet andNot = (BitSet) x.clone();
+			andNot.andNot( y );
+			assertMatches( and, RoaringBitmap.and( a, b ) );
+			assertMatches( or, RoaringBitmap.or( a, b ) );
+			assertMatches( andNot, RoaringBitmap.andNot( a, b ) );
+			assertMatches( x, a );
+			assertMatches( y, b );
+		}
+	}
+
+
+
+	/**
+	 * A chunk turns into a bitmap container beyond 4096 values and back into an array container once it is sparse again.
+	 *
+	 */
+	@Test
+	public void testChunkChangesItsContainerWithItsDensity() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		for ( int value = 0; value < 4096; value++ ) {
+			bitmap.add( value * 2 );
+		}
+		long sparse = bitmap.getSizeInBytes();
+		assertTrue( "bytes " + sparse, sparse <= 16 + 2 * 4096 );
+
+		bitmap.add( 1 );
+		assertEquals( 4097, bitmap.getCardinality() );
+		assertEquals( 16 + 65536 / 8, bitmap.getSizeInBytes() );
+		assertEquals( 1, bitmap.nextSetBit( 1 ) );
+		assertEquals( 4, bitmap.nextSetBit( 3 ) );
+
+		for ( int value = 0; value < 3000; value++ ) {
+			bitmap.remove( value * 2 );
+		}
+		assertTrue( "bytes " + bitmap.getSizeInBytes(), bitmap.getSizeInBytes() < 16 + 65536 / 8 );
+		assertEquals( 1097, bitmap.getCardinality() );
+		assertEquals( 1, bitmap.nextSetBit( 0 ) );
+		assertEquals( 6000, bitmap.nextSetBit( 2 ) );
+	}
+
+
+
+	/**
+	 * A copy is independent of its original.
+	 *
+	 */
+	@Test
+	public void testCopyIsIndependent() {
+		BitSet expected = new BitSet();
+		RoaringBitmap bitmap = fill( new Random( 3 ), expected, 10000 );
+		RoaringBitmap copy = bitmap.copy();
+		assertMatches( expected, copy );
+
+		copy.add( 1 << 30 );
+		copy.remove( expected.nextSetBit( 0 ) );
+		assertMatches( expected, bitmap );
+		assertEquals( expected.cardinality(), copy.getCardinality() );
+	}
+
+
+
+	/**
+	 * The largest int is a value like any other, a negative value is rejected.
+	 *
+	 */
+	@Test
+	public void testLargestValueIsKeptAndNegativeValueIsRejected() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		assertTrue( bitmap.add( Integer.MAX_VALUE ) );
+		assertTrue( bitmap.add( 5 ) );
+		assertTrue( bitmap.contains( Integer.MAX_VALUE ) );
+		assertEquals( Integer.MAX_VALUE, bitmap.nextSetBit( 6 ) );
+		assertEquals( Integer.MAX_VALUE, bitmap.nextSetBit( Integer.MAX_VALUE ) );
+		assertTrue( bitmap.remove( Integer.MAX_VALUE ) );
+		assertEquals( -1, bitmap.nextSetBit( 6 ) );
+
+		try {
+			new RoaringBitmap().add( -1 );
+			fail( "A negative value was added." );
+		} catch ( IllegalArgumentException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "negative" ) );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// RoaringBitmapTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return A value of a dense chunk, of a sparse chunk or of one of two neighbouring chunks.
+	 *
+	 */
+	private static int nextValue( Random random ) {
+		switch ( random.nextInt( 3 ) ) {
+		case 0:
+			return random.nextInt( 8192 );                       // dense
+		case 1:
+			return 3 << 16 | random.nextInt( 65536 );            // sparse
+		default:
+			return 40 << 16 | random.nextInt( 80000 );           // two chunks at once
+		}
+	}
+
+
+
+	private static RoaringBitmap fill( Random random, BitSet expected, int count ) {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		for ( int i = 0; i < count; i++ ) {
+			int value = nextValue( random );
+			bitmap.add( value );
+			expected.set( value );
+		}
+
+		return bitmap;
+	}
+
+
+
+	private static void assertMatches( BitSet expected, RoaringBitmap bitmap ) {
+		assertEquals( expected.cardinality(), bitmap.getCardinality() );
+		assertEquals( expected.isEmpty(), bitmap.isEmpty() );
+		int[] values = expected.stream().toArray();
+		assertArrayEquals( values, bitmap.toArray() );
+
+		int index = 0;
+		for ( int value = bitmap.nextSetBit( 0 ); value >= 0; value = bitmap.nextSetBit( value + 1 ) ) {
+			assertEquals( values[ index++ ], value );
+			assertTrue( bitmap.contains( value ) );
+		}
+		assertEquals( values.length, index );
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+
+
+/**
+ * Tests the Fingerprints of a Fingerprinter and the shapes stored by the elements: after any change the Fingerprint of a Catalog equals the
+ * Fingerprint of a Catalog built with the change from scratch.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class FingerprinterTest {
+
+
+	/**
+	 * Equal models have equal Fingerprints, whatever the order of their children. A renamed Table keeps its shape, but not its subtree.
+	 *
+	 */
+	@Test
+	public void testEqualModelsHaveEqualFingerprints() {
+		Catalog catalog = createCatalog();
+		assertEquals( fingerprint( catalog ), ( (GFunModelElement<?, ?, ?, ?>) createCatalog() ).getFingerprint() );
+		assertEquals( fingerprint( catalog ), ( (GFunModelElement<?, ?, ?, ?>) catalog ).getFingerprint() );
+
+		Catalog first  = createCatalog();
+		Catalog second = createCatalog();
+		addTable( getSchema( first ), "LOG", "ID" );
+		addTable( getSchema( first ), "AUDIT", "ID" );
+		addTable( getSchema( second ), "AUDIT", "ID" );
+		addTable( getSchema( second ), "LOG", "ID" );
+		assertEquals( fingerprint( first ), fingerprint( second ) );
+
+		Table log = getTable( first, "LOG" );
+		Fingerprint shape   = new Fingerprinter().getShape( log );
+		Fingerprint subtree = new Fingerprinter().getSubtree( log );
+		log.setName( "JOURNAL" );
+		assertEquals( shape, new Fingerprinter().getShape( log ) );
+		assertNotEquals( subtree, new Fingerprinter().getSubtree( log ) );
+	}
+
+
+
+	/**
+	 * A change drops the stored shapes of the changed element and its ancestors only, the next Fingerprint is the one of a model built with the
+	 * change.
+	 *
+	 */
+	@Test
+	public void testChangeDropsTheStoredShapesOfItsPath() {
+		Catalog catalog = createCatalog();
+		Fingerprint before = fingerprint( catalog );
+		Table orders = getTable( catalog, "ORDERS" );
+		assertNotNull( stored( orders ) );
+
+		orders.getColumn( "ID" ).setLength( Integer.valueOf( 12 ) );
+		assertNull( stored( orders.getColumn( "ID" ) ) );
+		assertNull( stored( orders ) );
+		assertNull( stored( getSchema( catalog ) ) );
+		assertNull( stored( catalog ) );
+		assertNotNull( stored( getTable( catalog, "CUSTOMER" ) ) );
+		assertNotNull( stored( orders.getColumn( "CUSTOMER_ID" ) ) );
+
+		Catalog expected = createCatalog();
+		getTable( expected, "ORDERS" ).getColumn( "ID" ).setLength( Integer.valueOf( 12 ) );
+		assertEquals( fingerprint( expected ), fingerprint( catalog ) );
+		assertNotEquals( before, fingerprint( catalog ) );
+	}
+
+
+
+	/**
+	 * Renaming an element referenced by another subtree turns all stored shapes stale, as the reference is hashed by the name.
+	 *
+	 */
+	@Test
+	public void testRenamingAReferencedElementStalesAllShapes() {
+		Catalog catalog = createCatalog();
+		Fingerprint before = fingerprint( catalog );
+		Table orders = getTable( catalog, "ORDERS" );
+		assertNotNull( stored( orders ) );
+		int epoch = GFunModelElement.getShapeEpoch();
+
+		getTable( catalog, "CUSTOMER" ).getPrimaryKey().setName( "PK_CLIENT" );
+		assertTrue( GFunModelElement.getShapeEpoch() > epoch );
+		assertNull( stored( orders ) );
+
+		Catalog expected = createCatalog();
+		getTable( expected, "CUSTOMER" ).getPrimaryKey().setName( "PK_CLIENT" );
+		assertEquals( fingerprint( expected ), fingerprint( catalog ) );
+		assertNotEquals( before, fingerprint( catalog ) );
+	}
+
+
+
+	/**
+	 * A Table moved into another Schema keeps its shape, the Fingerprint of the Catalog is the one of a Catalog built with the Table there.
+	 *
+	 */
+	@Test
+	public void testMovedTableKeepsItsShape() {
+		Catalog catalog = createCatalog();
+		FunSchema sales = getSchema( catalog );
+		Table log = addTable( sales, "LOG", "ID", "TEXT" );
+		FunSchema billing = (FunSchema) FACTORY.createSchema( "BILLING" );
+		catalog.addOwnedElement( billing );
+		Fingerprint before = fingerprint( catalog );
+		Fingerprint shape = new Fingerprinter().getShape( log );
+
+		sales.removeOwnedElement( log );
+		billing.addOwnedElement( log );
+		assertEquals( shape, new Fingerprinter().getShape( log ) );
+
+		Catalog expected = createCatalog();
+		FunSchema other = (FunSchema) FACTORY.createSchema( "BILLING" );
+		expected.addOwnedElement( other );
+		addTable( other, "LOG", "ID", "TEXT" );
+		assertEquals( fingerprint( expected ), fingerprint( catalog ) );
+		assertNotEquals( before, fingerprint( catalog ) );
+	}
+
+
+
+//====================================================================================================================================================
+// FingerprinterTest internals
+//====================================================================================================================================================
+
+
+
+	private static Fingerprint fingerprint( Catalog catalog ) {
+		return new Fingerprinter().getSubtree( catalog );
+	}
+
+
+
+	private static Fingerprint stored( Object element ) {
+		return ( (GFunModelElement<?, ?, ?, ?>) element ).getStoredShape();
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.addForeignKey;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+
+/**
+ * Tests the application of a MergeResult to the model of ours, in particular the copy of an element added by theirs.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class MergeResultTest {
+
+
+	/**
+	 * An added Table is copied with everything it owns, its ForeignKey references the PrimaryKey of ours, not the one of theirs.
+	 *
+	 */
+	@Test
+	public void testAddedTableIsCopiedWithReferencesIntoOurs() {
+		Catalog base   = createCatalog();
+		Catalog ours   = createCatalog();
+		Catalog theirs = createCatalog();
+		Table invoice = addInvoice( theirs );
+
+		MergeResult result = new ModelMerge().merge( base, ours, theirs );
+		assertFalse( result.hasConflicts().booleanValue() );
+		assertTrue( result.apply().isEmpty() );
+
+		Table copy = getTable( ours, "INVOICE" );
+		assertNotNull( copy );
+		assertNotSame( invoice, copy );
+		assertSame( invoice, getTable( theirs, "INVOICE" ) ); // theirs is left as it is
+		assertNotNull( copy.getColumn( "ORDER_ID" ) );
+
+		ForeignKey foreignKey = copy.getForeignKeys().iterator().next();
+		assertSame( getTable( ours, "ORDERS" ).getPrimaryKey(), foreignKey.getUniqueKey() );
+		assertEquals( 1, foreignKey.getFeatures().size() );
+		assertSame( copy.getColumn( "ORDER_ID" ), foreignKey.getFeatures().iterator().next() );
+	}
+
+
+
+	/**
+	 * An added Table referencing an element ours removed is not copied, the change is reported as a MergeConflict.
+	 *
+	 */
+	@Test
+	public void testAddedTableReferencingARemovedElementConflicts() {
+		Catalog base   = createCatalog();
+		Catalog ours   = createCatalog();
+		Catalog theirs = createCatalog();
+		getSchema( ours ).removeOwnedElement( getTable( ours, "ORDERS" ) );
+		addInvoice( theirs );
+
+		List<MergeConflict> conflicts = new ModelMerge().merge( base, ours, theirs ).apply();
+		assertEquals( 1, conflicts.size() );
+		assertTrue( conflicts.get( 0 ).getReason(), conflicts.get( 0 ).getReason().contains( "was not found in ours model" ) );
+		assertNull( getTable( ours, "INVOICE" ) );
+	}
+
+
+
+//====================================================================================================================================================
+// MergeResultTest internals
+//====================================================================================================================================================
+
+
+
+	private static Table addInvoice( Catalog catalog ) {
+		Table invoice = addTable( getSchema( catalog ), "INVOICE", "ID", "ORDER_ID" );
+		addForeignKey( invoice, "FK_INVOICE_ORDERS", "ORDER_ID", getTable( catalog, "ORDERS" ).getPrimaryKey() );
+
+		return invoice;
+	}
+}
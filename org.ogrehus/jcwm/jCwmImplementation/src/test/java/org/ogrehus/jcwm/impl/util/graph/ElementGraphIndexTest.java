@@ -0,0 +1,228 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.addForeignKey;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunForeignKey;
+
+
+/**
+ * Tests that the graph of an ElementGraphIndex follows the changes of its model, compared with a graph built from scratch.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ElementGraphIndexTest {
+
+
+	@Before
+	public void setUp() {
+		this.catalog = createCatalog();
+		this.index   = ElementGraphIndex.open( this.catalog );
+	}
+
+
+
+	@After
+	public void tearDown() {
+		this.index.close();
+	}
+
+
+
+	/**
+	 * The graph is kept, as long as the model does not change, and a change of a name keeps it as well.
+	 *
+	 */
+	@Test
+	public void testGraphIsKeptWithoutChanges() {
+		ElementGraph graph = this.index.getGraph();
+		assertSame( graph, this.index.getGraph() );
+
+		getTable( this.catalog, "ORDERS" ).setRemarks( "no edge" );
+		assertSame( graph, this.index.getGraph() );
+		assertGraphOfModel();
+	}
+
+
+
+	/**
+	 * A linked Table with a ForeignKey adds its edges, an unlinked one drops them.
+	 *
+	 */
+	@Test
+	public void testLinkAndUnlinkOfATable() {
+		ElementGraph before = this.index.getGraph();
+		Table invoice = addTable( getSchema( this.catalog ), "INVOICE", "ID", "ORDER_ID" );
+		ForeignKey foreignKey = addForeignKey( invoice, "FK_INVOICE_ORDERS", "ORDER_ID", getTable( this.catalog, "ORDERS" ).getPrimaryKey() );
+
+		ElementGraph after = this.index.getGraph();
+		assertNotSame( before, after );
+		assertEquals( before.getEdgeCount() + 1, after.getEdgeCount() );
+		assertTrue( after.isReachable( foreignKey, getTable( this.catalog, "ORDERS" ).getPrimaryKey(), null ).booleanValue() );
+		assertGraphOfModel();
+
+		getSchema( this.catalog ).removeOwnedElement( invoice );
+		assertEquals( before.getEdgeCount(), this.index.getGraph().getEdgeCount() );
+		assertFalse( this.index.getGraph().getId( foreignKey ) >= 0 );
+		assertGraphOfModel();
+	}
+
+
+
+	/**
+	 * A ForeignKey of a Table linked before is dropped and linked again, its edge follows.
+	 *
+	 */
+	@Test
+	public void testChangeOfAForeignKey() {
+		Table orders = getTable( this.catalog, "ORDERS" );
+		ForeignKey foreignKey = orders.getForeignKeys().iterator().next();
+		this.index.getGraph();
+
+		orders.removeForeignKey( foreignKey );
+		assertGraphOfModel();
+		orders.addForeignKey( foreignKey );
+		assertGraphOfModel();
+		ModelElement customer = getTable( this.catalog, "CUSTOMER" ).getPrimaryKey();
+		assertTrue( this.index.getGraph().isReachable( foreignKey, customer, null ).booleanValue() );
+	}
+
+
+
+	/**
+	 * More changes than worth applying one by one build the graph again, with the same result.
+	 *
+	 */
+	@Test
+	public void testManyChangesBuildTheGraphAgain() {
+		this.index.getGraph();
+		for ( int i = 0; i < 200; i++ ) {
+			Table table = addTable( getSchema( this.catalog ), "T_" + i, "ID", "CUSTOMER_ID" );
+			addForeignKey( table, "FK_T_" + i, "CUSTOMER_ID", getTable( this.catalog, "CUSTOMER" ).getPrimaryKey() );
+		}
+		assertGraphOfModel();
+		assertEquals( 201, this.index.getGraph().getDownstream( getTable( this.catalog, "CUSTOMER" ).getPrimaryKey(), null ).size() );
+	}
+
+
+
+	/**
+	 * Indexes opened while a ForeignKey switches its target again and again end up with the final target, no switch between the build of the
+	 * graph and the registration of the index is lost.
+	 *
+	 */
+	@Test
+	public void testIndexOpenedWhileTheModelChangesKeepsUp() throws InterruptedException {
+		final FunForeignKey foreignKey = (FunForeignKey) getTable( this.catalog, "ORDERS" ).getForeignKeys().iterator().next();
+		final PrimaryKey customer = getTable( this.catalog, "CUSTOMER" ).getPrimaryKey();
+		final PrimaryKey orders   = getTable( this.catalog, "ORDERS" ).getPrimaryKey();
+		final CountDownLatch started = new CountDownLatch( 1 );
+		final CountDownLatch stop = new CountDownLatch( 1 );
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for ( int i = 0; stop.getCount() > 0; i++ ) {
+					foreignKey.setUniqueConstraint( i % 2 == 0 ? orders : customer );
+					started.countDown();
+				}
+			}
+		};
+		writer.start();
+		started.await();
+		ElementGraphIndex[] indexes = new ElementGraphIndex[ 100 ];
+		for ( int i = 0; i < indexes.length; i++ ) {
+			indexes[ i ] = ElementGraphIndex.open( this.catalog );
+		}
+		stop.countDown();
+		writer.join();
+
+		ModelElement target = foreignKey.getUniqueKey();
+		for ( ElementGraphIndex index : indexes ) {
+			ElementGraph graph = index.getGraph();
+			assertTrue( graph.isReachable( foreignKey, target, null ).booleanValue() );
+			assertFalse( graph.isReachable( foreignKey, target == customer ? orders : customer, null ).booleanValue() );
+			index.close();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ElementGraphIndexTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Compares the graph of the index with a graph built of the model: the same elements with the same direct neighbours.
+	 *
+	 */
+	private void assertGraphOfModel() {
+		ElementGraph expected = ElementGraph.build( this.catalog );
+		ElementGraph actual   = this.index.getGraph();
+		assertEquals( expected.size(), actual.size() );
+		assertEquals( expected.getEdgeCount(), actual.getEdgeCount() );
+		for ( int id = 0; id < expected.size(); id++ ) {
+			ModelElement element = expected.getElement( id );
+			assertTrue( String.valueOf( element ), actual.getId( element ) >= 0 );
+			assertEquals( String.valueOf( element ), expected.getUpstream( element, null ).size(), actual.getUpstream( element, null ).size() );
+			assertEquals( String.valueOf( element ), expected.getDownstream( element, null ).size(), actual.getDownstream( element, null ).size() );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private Catalog catalog;
+
+
+
+	private ElementGraphIndex index;
+}
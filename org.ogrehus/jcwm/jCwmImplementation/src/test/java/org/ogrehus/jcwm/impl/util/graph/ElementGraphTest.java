@@ -0,0 +1,234 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.Visibility;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.FunCorePackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.resource.relational.FunTable;
+
+
+/**
+ * Tests the traversals of an ElementGraph: the cycles found by the algorithm of Tarjan, the cached closures and the shortest paths.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ElementGraphTest {
+
+
+	/**
+	 * Builds the Tables A, B and C depending on each other in a cycle, D depending on A and ORDERS referencing CUSTOMER by a ForeignKey.
+	 *
+	 */
+	@Before
+	public void setUp() {
+		this.catalog = createCatalog();
+		FunSchema schema = getSchema( this.catalog );
+		this.a = addTable( schema, "A", "ID" );
+		this.b = addTable( schema, "B", "ID" );
+		this.c = addTable( schema, "C", "ID" );
+		this.d = addTable( schema, "D", "ID" );
+		depend( this.a, this.b );
+		depend( this.b, this.c );
+		depend( this.c, this.a );
+		depend( this.d, this.a );
+	}
+
+
+
+	/**
+	 * The only cycle is the strongly connected component of A, B and C, a Table depending on itself is a cycle of its own, ForeignKeys form
+	 * no cycle.
+	 *
+	 */
+	@Test
+	public void testCyclesAreTheStronglyConnectedComponents() {
+		ElementGraph graph = ElementGraph.build( this.catalog );
+		List<ElementSet> cycles = graph.getCycles( null );
+		assertEquals( 1, cycles.size() );
+		assertEquals( elements( this.a, this.b, this.c ), new HashSet<ModelElement>( cycles.get( 0 ) ) );
+		assertTrue( graph.getCycles( EnumSet.of( EdgeKind.foreignKey, EdgeKind.generalization ) ).isEmpty() );
+
+		depend( this.d, this.d );
+		graph = ElementGraph.build( this.catalog );
+		cycles = graph.getCycles( EnumSet.of( EdgeKind.dependency ) );
+		assertEquals( 2, cycles.size() );
+		Set<Set<ModelElement>> components = new HashSet<Set<ModelElement>>();
+		for ( ElementSet cycle : cycles ) {
+			components.add( new HashSet<ModelElement>( cycle ) );
+		}
+		assertTrue( components.contains( elements( this.d ) ) );
+		assertTrue( components.contains( elements( this.a, this.b, this.c ) ) );
+	}
+
+
+
+	/**
+	 * A cycle of many thousand elements is found without a deep recursion.
+	 *
+	 */
+	@Test
+	public void testLongCycleIsFoundIteratively() {
+		FunSchema schema = getSchema( this.catalog );
+		Table first = FACTORY.createTable( "T0", Boolean.FALSE, Boolean.FALSE );
+		schema.addOwnedElement( first );
+		Table previous = first;
+		for ( int i = 1; i < LONG_CYCLE; i++ ) {
+			Table table = FACTORY.createTable( "T" + i, Boolean.FALSE, Boolean.FALSE );
+			schema.addOwnedElement( table );
+			depend( previous, table );
+			previous = table;
+		}
+		depend( previous, first );
+
+		List<ElementSet> cycles = ElementGraph.build( this.catalog ).getCycles( null );
+		assertEquals( 2, cycles.size() );
+		assertEquals( LONG_CYCLE + 3, cycles.get( 0 ).size() + cycles.get( 1 ).size() );
+	}
+
+
+
+	/**
+	 * The closures in both directions follow the edges of the requested kinds, an element of a cycle is part of its own closure.
+	 *
+	 */
+	@Test
+	public void testClosures() {
+		ElementGraph graph = ElementGraph.build( this.catalog );
+		assertEquals( elements( this.a, this.b, this.c ), new HashSet<ModelElement>( graph.getUpstream( this.d, null ) ) );
+		assertEquals( elements( this.a, this.b, this.c ), new HashSet<ModelElement>( graph.getUpstream( this.a, null ) ) );
+		assertEquals( elements( this.a, this.b, this.c, this.d ), new HashSet<ModelElement>( graph.getDownstream( this.c, null ) ) );
+		assertTrue( graph.getDownstream( this.d, null ).isEmpty() );
+		assertTrue( graph.isReachable( this.d, this.c, null ).booleanValue() );
+		assertFalse( graph.isReachable( this.c, this.d, null ).booleanValue() );
+		assertFalse( graph.isReachable( this.d, this.c, EnumSet.of( EdgeKind.foreignKey ) ).booleanValue() );
+
+		ModelElement foreignKey = getTable( this.catalog, "ORDERS" ).getForeignKeys().iterator().next();
+		ModelElement primaryKey = getTable( this.catalog, "CUSTOMER" ).getPrimaryKey();
+		assertTrue( graph.getUpstream( foreignKey, EnumSet.of( EdgeKind.foreignKey ) ).contains( primaryKey ) );
+		assertTrue( graph.getUpstream( foreignKey, EnumSet.of( EdgeKind.dependency ) ).isEmpty() );
+		assertTrue( graph.getDownstream( primaryKey, null ).contains( foreignKey ) );
+
+		graph.clearCache();
+		assertEquals( elements( this.a, this.b, this.c ), new HashSet<ModelElement>( graph.getUpstream( this.d, null ) ) );
+	}
+
+
+
+	/**
+	 * The shortest path follows the fewest edges upstream, and is empty without a path.
+	 *
+	 */
+	@Test
+	public void testShortestPath() {
+		ElementGraph graph = ElementGraph.build( this.catalog );
+		assertEquals( Arrays.<ModelElement>asList( this.d, this.a, this.b, this.c ), graph.getShortestPath( this.d, this.c, null ) );
+		assertEquals( Arrays.<ModelElement>asList( this.b, this.c, this.a ), graph.getShortestPath( this.b, this.a, null ) );
+		assertTrue( graph.getShortestPath( this.c, this.d, null ).isEmpty() );
+		assertTrue( graph.getShortestPath( this.d, this.c, EnumSet.of( EdgeKind.generalization ) ).isEmpty() );
+		assertEquals( Arrays.<ModelElement>asList( this.a ), graph.getShortestPath( this.a, this.a, null ) );
+
+		depend( this.d, this.c );
+		graph = ElementGraph.build( this.catalog );
+		assertEquals( Arrays.<ModelElement>asList( this.d, this.c ), graph.getShortestPath( this.d, this.c, null ) );
+	}
+
+
+
+//====================================================================================================================================================
+// ElementGraphTest internals
+//====================================================================================================================================================
+
+
+
+	private static void depend( Table client, Table supplier ) {
+		String name = client.getSimpleName() + "_" + supplier.getSimpleName();
+		( (FunTable) client ).addDependency( CORE.createDependency( name, Visibility._public, (FunTable) client, supplier ) );
+	}
+
+
+
+	private static Set<ModelElement> elements( ModelElement... elements ) {
+		return new HashSet<ModelElement>( Arrays.asList( elements ) );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The number of Tables of the long cycle, sized to overflow the stack of a recursive search.
+	 *
+	 */
+	private static final int LONG_CYCLE = 50000;
+
+
+
+	private static final FunCorePackage CORE = new FunCorePackage();
+
+
+
+	private Catalog catalog;
+
+
+
+	private Table a;
+
+
+
+	private Table b;
+
+
+
+	private Table c;
+
+
+
+	private Table d;
+}
@@ -0,0 +1,353 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.TableColumn;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.resource.relational.FunTable;
+
+
+/**
+ * Tests the loading of a Schema on demand by a JdbcSchemaLoader, from the DatabaseMetaData of a database of the Tables T_0 to T_5, each one
+ * of the columns ID, NAME and P_ID, and T_i referencing T_i-1 by a ForeignKey.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class JdbcSchemaLoaderTest {
+
+
+	@Before
+	public void setUp() {
+		this.schema = (FunSchema) FACTORY.createSchema( SCHEMA );
+		this.columnLoads = new AtomicInteger();
+	}
+
+
+
+	/**
+	 * Listing adds a stub for each Table, nothing of it is loaded before its first access.
+	 *
+	 */
+	@Test
+	public void testListAddsStubs() throws SQLException {
+		JdbcSchemaLoader loader = new JdbcSchemaLoader( createDataSource(), this.schema );
+		assertEquals( TABLES, loader.list() );
+		assertEquals( 0, loader.list() );
+		assertEquals( TABLES, loader.getStubs() );
+		assertEquals( TABLES, this.schema.getOwnedElements().size() );
+		assertEquals( 0, loader.getLoaded() );
+
+		FunTable stub = (FunTable) loader.getNamedColumnSet( "T_3" );
+		assertSame( stub, this.schema.getNamedColumnSet( "T_3" ) );
+		assertTrue( stub.getFeatures().isEmpty() );
+		assertEquals( 0, this.columnLoads.get() );
+		assertNull( loader.getNamedColumnSet( "T_9" ) );
+	}
+
+
+
+	/**
+	 * The columns and the PrimaryKey are loaded once on the first access, the ForeignKeys with the PrimaryKey of the referenced Table.
+	 *
+	 */
+	@Test
+	public void testPartsAreLoadedOnAccess() throws SQLException {
+		JdbcSchemaLoader loader = new JdbcSchemaLoader( createDataSource(), this.schema );
+		loader.list();
+		Table table = (Table) loader.getNamedColumnSet( "T_3" );
+
+		assertEquals( 3, table.getColumns().size() );
+		assertEquals( 3, table.getColumns().size() );
+		assertEquals( 1, this.columnLoads.get() );
+		assertEquals( "PK_T_3", table.getPrimaryKey().getSimpleName() );
+		assertSame( table.getColumn( "ID" ), table.getPrimaryKey().getFeatures().iterator().next() );
+
+		assertEquals( 1, table.getForeignKeys().size() );
+		ForeignKey foreignKey = table.getForeignKeys().iterator().next();
+		assertSame( ( (Table) loader.getNamedColumnSet( "T_2" ) ).getPrimaryKey(), foreignKey.getUniqueKey() );
+		assertSame( table.getColumn( "P_ID" ), foreignKey.getFeatures().iterator().next() );
+	}
+
+
+
+	/**
+	 * Beyond the maximum of loaded stubs a loaded one is evicted, but not while it is pinned.
+	 *
+	 */
+	@Test
+	public void testPinnedStubIsNotEvicted() throws SQLException {
+		JdbcSchemaLoader loader = new JdbcSchemaLoader( createDataSource(), this.schema, 2 );
+		loader.list();
+		FunTable pinned = (FunTable) loader.getNamedColumnSet( "T_0" );
+		loader.pin( pinned );
+		try {
+			assertEquals( 3, pinned.getColumns().size() );
+			for ( int i = 1; i < TABLES; i++ ) {
+				assertEquals( 3, ( (Table) loader.getNamedColumnSet( "T_" + i ) ).getColumns().size() );
+			}
+			assertTrue( loader.toString(), loader.getEvictions() > 0 );
+			assertEquals( 3, pinned.getFeatures().size() );
+		} finally {
+			loader.unpin( pinned );
+		}
+
+		for ( int i = 1; i < TABLES; i++ ) {
+			( (Table) loader.getNamedColumnSet( "T_" + i ) ).getColumns().size();
+		}
+		assertTrue( loader.toString(), pinned.getFeatures().isEmpty() );
+		assertEquals( 3, pinned.getColumns().size() ); // loaded again
+	}
+
+
+
+	/**
+	 * A reader iterating the columns of a stub, that is evicted meanwhile, reads them till the end: the eviction drops the columns from fresh
+	 * collections.
+	 *
+	 */
+	@Test
+	public void testEvictionLeavesTheCollectionOfAReader() throws SQLException {
+		JdbcSchemaLoader loader = new JdbcSchemaLoader( createDataSource(), this.schema, 1 );
+		loader.list();
+		FunTable evicted = (FunTable) loader.getNamedColumnSet( "T_0" );
+		Iterator<TableColumn> columns = evicted.getColumns().iterator();
+		assertEquals( "ID", columns.next().getSimpleName() );
+
+		for ( int i = 1; i < TABLES; i++ ) {
+			( (Table) loader.getNamedColumnSet( "T_" + i ) ).getColumns().size();
+		}
+		assertTrue( loader.toString(), evicted.getFeatures().isEmpty() );
+		int read = 1;
+		while ( columns.hasNext() ) {
+			assertNotNull( columns.next() );
+			read++;
+		}
+		assertEquals( 3, read );
+	}
+
+
+
+	@Test( expected = IllegalStateException.class )
+	public void testUnpinOfAStubNotPinnedFails() throws SQLException {
+		JdbcSchemaLoader loader = new JdbcSchemaLoader( createDataSource(), this.schema );
+		loader.list();
+		loader.unpin( loader.getNamedColumnSet( "T_0" ) );
+	}
+
+
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testPinOfATableNotListedFails() {
+		JdbcSchemaLoader loader = new JdbcSchemaLoader( createDataSource(), this.schema );
+		loader.pin( FACTORY.createTable( "T_0", Boolean.FALSE, Boolean.FALSE ) );
+	}
+
+
+
+//====================================================================================================================================================
+// JdbcSchemaLoaderTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return A DataSource of Connections to the DatabaseMetaData of the test database.
+	 *
+	 */
+	private DataSource createDataSource() {
+		final Connection connection = (Connection) Proxy.newProxyInstance(
+			  getClass().getClassLoader()
+			, new Class<?>[] { Connection.class }
+			, new InvocationHandler() {
+				@Override
+				public Object invoke( Object proxy, Method method, Object[] arguments ) {
+					return "getMetaData".equals( method.getName() ) ? createMetaData() : null;
+				}
+			}
+		);
+
+		return (DataSource) Proxy.newProxyInstance(
+			  getClass().getClassLoader()
+			, new Class<?>[] { DataSource.class }
+			, new InvocationHandler() {
+				@Override
+				public Object invoke( Object proxy, Method method, Object[] arguments ) {
+					if ( "getConnection".equals( method.getName() ) ) {
+						return connection;
+					}
+					throw new UnsupportedOperationException( method.getName() );
+				}
+			}
+		);
+	}
+
+
+
+	private DatabaseMetaData createMetaData() {
+		return (DatabaseMetaData) Proxy.newProxyInstance(
+			  getClass().getClassLoader()
+			, new Class<?>[] { DatabaseMetaData.class }
+			, new InvocationHandler() {
+				@Override
+				public Object invoke( Object proxy, Method method, Object[] arguments ) {
+					String name = method.getName();
+					if ( "getSearchStringEscape".equals( name ) ) {
+						return "\\";
+					}
+					if ( "getTables".equals( name ) ) {
+						List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+						for ( int i = 0; i < TABLES; i++ ) {
+							rows.add( row( "TABLE_NAME", "T_" + i, "TABLE_TYPE", "TABLE" ) );
+						}
+						return createResultSet( rows );
+					}
+					String table = (String) arguments[ 2 ];
+					List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+					if ( "getColumns".equals( name ) ) {
+						JdbcSchemaLoaderTest.this.columnLoads.incrementAndGet();
+						table = table.replace( "\\", "" );
+						rows.add( row( "TABLE_NAME", table, "COLUMN_NAME", "ID", "DATA_TYPE", Integer.valueOf( Types.INTEGER ), "TYPE_NAME", "INTEGER" ) );
+						rows.add( row( "TABLE_NAME", table, "COLUMN_NAME", "NAME", "DATA_TYPE", Integer.valueOf( Types.VARCHAR ), "TYPE_NAME", "VARCHAR" ) );
+						rows.add( row( "TABLE_NAME", table, "COLUMN_NAME", "P_ID", "DATA_TYPE", Integer.valueOf( Types.INTEGER ), "TYPE_NAME", "INTEGER" ) );
+					} else if ( "getPrimaryKeys".equals( name ) ) {
+						rows.add( row( "COLUMN_NAME", "ID", "KEY_SEQ", Short.valueOf( (short) 1 ), "PK_NAME", "PK_" + table ) );
+					} else if ( "getImportedKeys".equals( name ) ) {
+						int index = Integer.parseInt( table.substring( 2 ) );
+						if ( index > 0 ) {
+							rows.add( row(
+								  "PKTABLE_SCHEM", SCHEMA
+								, "PKTABLE_NAME", "T_" + ( index - 1 )
+								, "FKCOLUMN_NAME", "P_ID"
+								, "KEY_SEQ", Short.valueOf( (short) 1 )
+								, "FK_NAME", "FK_" + table
+							) );
+						}
+					} else if ( !"getIndexInfo".equals( name ) ) {
+						throw new UnsupportedOperationException( name );
+					}
+					return createResultSet( rows );
+				}
+			}
+		);
+	}
+
+
+
+	private ResultSet createResultSet( final List<Map<String, Object>> rows ) {
+		return (ResultSet) Proxy.newProxyInstance(
+			  getClass().getClassLoader()
+			, new Class<?>[] { ResultSet.class }
+			, new InvocationHandler() {
+				@Override
+				public Object invoke( Object proxy, Method method, Object[] arguments ) {
+					String name = method.getName();
+					if ( "next".equals( name ) ) {
+						return Boolean.valueOf( ++this.row < rows.size() );
+					}
+					if ( "getObject".equals( name ) || "getString".equals( name ) ) {
+						this.last = rows.get( this.row ).get( arguments[ 0 ] );
+						return this.last == null || "getObject".equals( name ) ? this.last : this.last.toString();
+					}
+					if ( "wasNull".equals( name ) ) {
+						return Boolean.valueOf( this.last == null );
+					}
+					if ( "close".equals( name ) ) {
+						return null;
+					}
+					throw new UnsupportedOperationException( name );
+				}
+
+				private int row = -1;
+
+				private Object last = null;
+			}
+		);
+	}
+
+
+
+	private static Map<String, Object> row( Object... namesAndValues ) {
+		Map<String, Object> row = new HashMap<String, Object>();
+		for ( int i = 0; i < namesAndValues.length; i += 2 ) {
+			row.put( (String) namesAndValues[ i ], namesAndValues[ i + 1 ] );
+		}
+
+		return row;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final String SCHEMA = "S";
+
+
+
+	private static final int TABLES = 6;
+
+
+
+	private FunSchema schema;
+
+
+
+	/**
+	 * The number of reads of the columns of a Table.
+	 *
+	 */
+	private AtomicInteger columnLoads;
+}
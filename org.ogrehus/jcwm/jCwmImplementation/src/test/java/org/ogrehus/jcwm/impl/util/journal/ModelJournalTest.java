@@ -0,0 +1,284 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.createTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.getInteger;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.util.diff.ChangeScript;
+import org.ogrehus.jcwm.impl.util.diff.ModelDiff;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * Tests the recovery of a model journaled by a ModelJournal, and that the journal records the changes of its model only.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelJournalTest {
+
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory( "journal" );
+	}
+
+
+
+	@After
+	public void tearDown() throws IOException {
+		List<Path> paths = new ArrayList<Path>();
+		try ( DirectoryStream<Path> files = Files.newDirectoryStream( this.directory ) ) {
+			for ( Path file : files ) {
+				paths.add( file );
+			}
+		}
+		paths.add( this.directory );
+		for ( Path path : paths ) {
+			Files.deleteIfExists( path );
+		}
+	}
+
+
+
+	/**
+	 * The changes since the checkpoint of the opened model are replayed on its snapshot, including a Table built before it was linked to the
+	 * model.
+	 *
+	 */
+	@Test
+	public void testRecoverReplaysTheChangesSinceTheCheckpoint() throws IOException {
+		Catalog catalog = createCatalog();
+		ModelJournal journal = new ModelJournal( this.directory, FsyncPolicy.always, CHECKPOINT_BYTES );
+		assertNull( journal.recover().getRoot() );
+		journal.open( catalog );
+		long opened = journal.getSequence();
+
+		FunSchema schema = getSchema( catalog );
+		Table invoice = createTable( schema, "INVOICE", "ID", "AMOUNT" );
+		invoice.getColumn( "AMOUNT" ).setRemarks( "built before linking" );
+		schema.addOwnedElement( invoice );
+		getTable( catalog, "ORDERS" ).setName( "ORDERS_2025" );
+		schema.removeOwnedElement( getTable( catalog, "CUSTOMER" ) );
+		catalog.setRemarks( "changed" );
+		journal.sync();
+		assertEquals( journal.getSequence(), journal.getDurableSequence() );
+		assertTrue( journal.getSequence() > opened );
+		journal.close();
+
+		RecoveryResult result = new ModelJournal( this.directory ).recover();
+		assertEquals( journal.getSequence(), result.getSequence() );
+		assertEquals( 0, result.getSkipped() );
+		assertEquals( 0, result.getDiscarded() );
+		assertNoDifferences( catalog, (Catalog) result.getRoot() );
+		Table recovered = getTable( (Catalog) result.getRoot(), "INVOICE" );
+		assertNotNull( recovered );
+		assertEquals( "built before linking", recovered.getColumn( "AMOUNT" ).getRemarks() );
+	}
+
+
+
+	/**
+	 * A record torn by a crash is discarded, the changes forced before it are recovered.
+	 *
+	 */
+	@Test
+	public void testRecoverDiscardsATornRecord() throws IOException {
+		Catalog catalog = createCatalog();
+		ModelJournal journal = new ModelJournal( this.directory, FsyncPolicy.always, CHECKPOINT_BYTES );
+		journal.recover();
+		journal.open( catalog );
+		getTable( catalog, "ORDERS" ).setRemarks( "forced" );
+		journal.close();
+		byte[] torn = new byte[] { 0, 0, 0, 40, 1, 2, 3, 4, 5, 6, 7 };
+		Files.write( getLastSegment(), torn, StandardOpenOption.APPEND );
+
+		RecoveryResult result = new ModelJournal( this.directory ).recover();
+		assertEquals( torn.length, result.getDiscarded() );
+		assertEquals( journal.getSequence(), result.getSequence() );
+		assertNoDifferences( catalog, (Catalog) result.getRoot() );
+	}
+
+
+
+	/**
+	 * The changes of another model, and of an element created but never linked to the model, are not journaled.
+	 *
+	 */
+	@Test
+	public void testChangesOfOtherModelsAreNotJournaled() throws IOException {
+		Catalog catalog = createCatalog();
+		Catalog other = createCatalog();
+		ModelJournal journal = new ModelJournal( this.directory, FsyncPolicy.always, CHECKPOINT_BYTES );
+		journal.recover();
+		journal.open( catalog );
+		long opened = journal.getSequence();
+
+		other.setRemarks( "foreign" );
+		getTable( other, "ORDERS" ).setName( "FOREIGN" );
+		createTable( getSchema( other ), "DETACHED", "ID" ).setRemarks( "never linked" );
+		assertEquals( opened, journal.getSequence() );
+
+		catalog.setRemarks( "own" );
+		assertEquals( opened + 1, journal.getSequence() );
+		journal.close();
+
+		RecoveryResult result = new ModelJournal( this.directory ).recover();
+		assertEquals( 1, result.getReplayed() );
+		assertNoDifferences( catalog, (Catalog) result.getRoot() );
+	}
+
+
+
+	/**
+	 * The changes of a model built by a factory of its own ElementRegistry are journaled, including the Columns added to a Table by the Table,
+	 * that join the registry of the Table.
+	 *
+	 */
+	@Test
+	public void testRecoverOfAModelOfAnotherRegistry() throws IOException {
+		ElementRegistry registry = new ElementRegistry();
+		FunRelationalPackage factory = new FunRelationalPackage( registry );
+		Catalog catalog = factory.createCatalog( "SHOP", "UTF8", "UTF8_BIN" );
+		FunSchema schema = (FunSchema) factory.createSchema( "SALES" );
+		catalog.addOwnedElement( schema );
+		ModelJournal journal = new ModelJournal( this.directory, FsyncPolicy.always, CHECKPOINT_BYTES );
+		journal.recover();
+		journal.open( catalog );
+
+		SQLSimpleType integer = getInteger( schema );
+		assertSame( registry, ( (GFunModelElement<?, ?, ?, ?>) integer ).getRegistry() ); // created in the registry of the Schema
+		Table table = factory.createTable( "ORDERS", Boolean.FALSE, Boolean.FALSE );
+		schema.addOwnedElement( table );
+		table.addColumn( "ID", integer );
+		table.addColumn( "AMOUNT", integer );
+		journal.close();
+		assertSame( registry, ( (GFunModelElement<?, ?, ?, ?>) table.getColumn( "ID" ) ).getRegistry() );
+
+		RecoveryResult result = new ModelJournal( this.directory ).recover();
+		assertEquals( 0, result.getSkipped() );
+		assertEquals( 2, getTable( (Catalog) result.getRoot(), "ORDERS" ).getColumns().size() );
+		assertNoDifferences( catalog, (Catalog) result.getRoot() );
+	}
+
+
+
+	/**
+	 * A Table built by a factory of another ElementRegistry is journaled once it is linked below the root: the membership of an element
+	 * follows its location, not its registry.
+	 *
+	 */
+	@Test
+	public void testTableOfAnotherRegistryIsJournaled() throws IOException {
+		Catalog catalog = createCatalog();
+		ModelJournal journal = new ModelJournal( this.directory, FsyncPolicy.always, CHECKPOINT_BYTES );
+		journal.recover();
+		journal.open( catalog );
+
+		FunSchema schema = getSchema( catalog );
+		SQLSimpleType integer = getInteger( schema );
+		Table foreign = new FunRelationalPackage( new ElementRegistry() ).createTable( "FOREIGN", Boolean.FALSE, Boolean.FALSE );
+		foreign.addColumn( "ID", integer );
+		schema.addOwnedElement( foreign );
+		foreign.getColumn( "ID" ).setRemarks( "linked" );
+		journal.close();
+
+		RecoveryResult result = new ModelJournal( this.directory ).recover();
+		assertEquals( 0, result.getSkipped() );
+		assertEquals( "linked", getTable( (Catalog) result.getRoot(), "FOREIGN" ).getColumn( "ID" ).getRemarks() );
+		assertNoDifferences( catalog, (Catalog) result.getRoot() );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJournalTest internals
+//====================================================================================================================================================
+
+
+
+	private static void assertNoDifferences( Catalog expected, Catalog actual ) {
+		ChangeScript script = new ModelDiff().compare( expected, actual );
+		assertTrue( script.toString(), script.isEmpty().booleanValue() );
+	}
+
+
+
+	/**
+	 * @return The segment of the journal written last.
+	 *
+	 */
+	private Path getLastSegment() throws IOException {
+		List<Path> segments = new ArrayList<Path>();
+		try ( DirectoryStream<Path> files = Files.newDirectoryStream( this.directory, "journal-*.log" ) ) {
+			for ( Path file : files ) {
+				segments.add( file );
+			}
+		}
+		Collections.sort( segments );
+
+		return segments.get( segments.size() - 1 );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final long CHECKPOINT_BYTES = 1024 * 1024;
+
+
+
+	private Path directory;
+}
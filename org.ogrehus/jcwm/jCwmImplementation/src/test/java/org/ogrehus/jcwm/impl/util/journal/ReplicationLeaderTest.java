@@ -0,0 +1,274 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.createTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.getInteger;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.util.diff.ChangeScript;
+import org.ogrehus.jcwm.impl.util.diff.ModelDiff;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * Tests the replication of a model by a ReplicationLeader to a ReplicationFollower over a socket of the loopback interface.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ReplicationLeaderTest {
+
+
+	@Before
+	public void setUp() throws IOException {
+		this.catalog = createCatalog();
+		this.leader  = new ReplicationLeader( this.catalog, new InetSocketAddress( "localhost", 0 ) );
+		this.leader.start();
+	}
+
+
+
+	@After
+	public void tearDown() {
+		if ( this.follower != null ) {
+			this.follower.close();
+		}
+		this.leader.close();
+	}
+
+
+
+	/**
+	 * A new follower is bootstrapped by a snapshot of the model and follows its changes, including a Table built before it was linked to the
+	 * model.
+	 *
+	 */
+	@Test
+	public void testFollowerReplicatesTheModel() throws InterruptedException {
+		startFollower();
+		assertReplicated();
+
+		FunSchema schema = getSchema( this.catalog );
+		Table invoice = createTable( schema, "INVOICE", "ID", "AMOUNT" );
+		invoice.getColumn( "AMOUNT" ).setRemarks( "built before linking" );
+		schema.addOwnedElement( invoice );
+		getTable( this.catalog, "ORDERS" ).setName( "ORDERS_2025" );
+		schema.removeOwnedElement( getTable( this.catalog, "CUSTOMER" ) );
+		this.catalog.setRemarks( "changed" );
+		assertReplicated();
+		assertEquals( 1, this.follower.getBootstraps() );
+	}
+
+
+
+	/**
+	 * The changes of another model, and of an element created but never linked to the model, are not streamed.
+	 *
+	 */
+	@Test
+	public void testChangesOfOtherModelsAreNotStreamed() throws InterruptedException {
+		startFollower();
+		long started = this.leader.getSequence();
+
+		Catalog other = createCatalog();
+		other.setRemarks( "foreign" );
+		getTable( other, "ORDERS" ).setName( "FOREIGN" );
+		createTable( getSchema( other ), "DETACHED", "ID" ).setRemarks( "never linked" );
+		assertEquals( started, this.leader.getSequence() );
+
+		this.catalog.setRemarks( "own" );
+		assertEquals( started + 1, this.leader.getSequence() );
+		assertReplicated();
+	}
+
+
+
+	/**
+	 * A Table built by a factory of another ElementRegistry is streamed once it is linked below the root: the membership of an element
+	 * follows its location, not its registry.
+	 *
+	 */
+	@Test
+	public void testTableOfAnotherRegistryIsStreamed() throws InterruptedException {
+		startFollower();
+		assertReplicated();
+
+		FunSchema schema = getSchema( this.catalog );
+		SQLSimpleType integer = getInteger( schema );
+		Table foreign = new FunRelationalPackage( new ElementRegistry() ).createTable( "FOREIGN", Boolean.FALSE, Boolean.FALSE );
+		foreign.addColumn( "ID", integer );
+		schema.addOwnedElement( foreign );
+		foreign.getColumn( "ID" ).setRemarks( "linked" );
+		assertReplicated();
+	}
+
+
+
+	/**
+	 * A follower started as a process of its own, by the main method of ReplicationFollower, is bootstrapped over the loopback interface and
+	 * follows the changes: the Fingerprints of its replica equal the Fingerprints of the model of the leader.
+	 *
+	 */
+	@Test
+	public void testFollowerInAnotherProcessReplicatesTheModel() throws IOException, InterruptedException {
+		ProcessBuilder builder = new ProcessBuilder(
+			  System.getProperty( "java.home" ) + File.separator + "bin" + File.separator + "java"
+			, "-cp", System.getProperty( "java.class.path" )
+			, ReplicationFollower.class.getName()
+			, "localhost", String.valueOf( this.leader.getPort() )
+		);
+		builder.redirectError( ProcessBuilder.Redirect.INHERIT );
+		final Process process = builder.start();
+		Thread watchdog = new Thread() {
+			@Override
+			public void run() {
+				try {
+					if ( !process.waitFor( TIMEOUT_MILLIS, TimeUnit.MILLISECONDS ) ) {
+						process.destroyForcibly(); // ends the output, so a waiting test fails instead of hanging
+					}
+				} catch ( InterruptedException e ) {
+					// the test is done
+				}
+			}
+		};
+		watchdog.setDaemon( true );
+		watchdog.start();
+		try {
+			BufferedReader lines = new BufferedReader( new InputStreamReader( process.getInputStream(), StandardCharsets.UTF_8 ) );
+			assertEquals( getFingerprint(), awaitLine( lines, this.leader.getSequence() ) );
+
+			FunSchema schema = getSchema( this.catalog );
+			schema.addOwnedElement( createTable( schema, "INVOICE", "ID", "AMOUNT" ) );
+			getTable( this.catalog, "ORDERS" ).setRemarks( "changed in another process" );
+			assertEquals( getFingerprint(), awaitLine( lines, this.leader.getSequence() ) );
+		} finally {
+			process.destroy();
+			process.waitFor();
+			watchdog.interrupt();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ReplicationLeaderTest internals
+//====================================================================================================================================================
+
+
+
+	private void startFollower() {
+		this.follower = new ReplicationFollower( new InetSocketAddress( "localhost", this.leader.getPort() ) );
+		this.follower.start();
+	}
+
+
+
+	/**
+	 * Waits for the follower to apply the last change of the leader, and compares the replica with the model of the leader.
+	 *
+	 */
+	private void assertReplicated() throws InterruptedException {
+		assertTrue( this.follower.toString(), this.follower.await( this.leader.getSequence(), TIMEOUT_MILLIS ) );
+		this.follower.getLock().readLock().lock();
+		try {
+			assertNotNull( this.follower.getRoot() );
+			ChangeScript script = new ModelDiff().compare( this.catalog, this.follower.getRoot() );
+			assertTrue( script.toString(), script.isEmpty().booleanValue() );
+		} finally {
+			this.follower.getLock().readLock().unlock();
+		}
+	}
+
+
+
+	/**
+	 * Reads the lines of a follower process up to the line of a sequence number.
+	 *
+	 * @return The Fingerprint of the replica printed with the sequence number.
+	 *
+	 */
+	private static String awaitLine( BufferedReader lines, long sequence ) throws IOException {
+		String prefix = sequence + " ";
+		for ( String line = lines.readLine(); line != null; line = lines.readLine() ) {
+			if ( line.startsWith( prefix ) ) {
+				return line.substring( prefix.length() );
+			}
+		}
+		fail( "The follower process ended before it applied the change: " + sequence );
+
+		return null;
+	}
+
+
+
+	private String getFingerprint() {
+		return ( (GFunModelElement<?, ?, ?, ?>) this.catalog ).getFingerprint().toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final long TIMEOUT_MILLIS = 30000;
+
+
+
+	private Catalog catalog;
+
+
+
+	private ReplicationLeader leader;
+
+
+
+	private ReplicationFollower follower;
+}
@@ -0,0 +1,240 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the tokens a JsonReader reads, the documents of a JsonWriter read back, and the rejection of malformed documents.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class JsonReaderTest {
+
+
+	/**
+	 * Objects, arrays, Strings with escapes, numbers and literals are read as the values they denote.
+	 *
+	 */
+	@Test
+	public void testReadsEveryKindOfValue() throws IOException {
+		Map<?, ?> object = (Map<?, ?>) read(
+			"{ \"name\" : \"caf\\u00e9 \\\"A\\\"\\n\\t\\\\\\/\",\r\n \"count\": -42, \"ratio\": 1.5e3,"
+			+ " \"flags\": [ true, false, null ], \"nested\": { \"empty\": [], \"none\": {} } }"
+		);
+		assertEquals( Arrays.asList( "name", "count", "ratio", "flags", "nested" ), Arrays.asList( object.keySet().toArray() ) );
+		assertEquals( "caf\u00e9 \"A\"\n\t\\/", object.get( "name" ) );
+		assertEquals( Long.valueOf( -42 ), object.get( "count" ) );
+		assertEquals( Double.valueOf( 1500 ), object.get( "ratio" ) );
+		assertEquals( Arrays.asList( Boolean.TRUE, Boolean.FALSE, null ), object.get( "flags" ) );
+		Map<?, ?> nested = (Map<?, ?>) object.get( "nested" );
+		assertTrue( ( (List<?>) nested.get( "empty" ) ).isEmpty() );
+		assertTrue( ( (Map<?, ?>) nested.get( "none" ) ).isEmpty() );
+	}
+
+
+
+	/**
+	 * Pulling the tokens one by one, skipping a nested value on the way, ends with the end of the document.
+	 *
+	 */
+	@Test
+	public void testPullsTokensAndSkipsValues() throws IOException {
+		JsonReader in = new JsonReader( new StringReader( "{\"skipped\":{\"a\":[1,{\"b\":[]}],\"c\":\"]}\"},\"kept\":[7,8]}" ) );
+		in.beginObject();
+		assertEquals( "skipped", in.nextName() );
+		in.skipValue();
+		assertEquals( "kept", in.nextName() );
+		in.beginArray();
+		assertEquals( 2, in.getDepth() );
+		assertEquals( 7, in.nextInt() );
+		assertEquals( 8L, in.nextLong() );
+		assertFalse( in.hasNext() );
+		in.endArray();
+		in.endObject();
+		assertEquals( JsonToken.endDocument, in.peek() );
+		assertEquals( 0, in.getDepth() );
+	}
+
+
+
+	/**
+	 * Values longer than the buffer, read through a Reader that returns a single character per call, are read as written by a JsonWriter.
+	 *
+	 */
+	@Test
+	public void testRoundTripAcrossTheBoundariesOfTheBuffer() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for ( int i = 0; i < 20000; i++ ) {
+			text.append( i % 97 == 0 ? '\n' : i % 89 == 0 ? '"' : i % 83 == 0 ? '\u0001' : (char) ( 'a' + i % 26 ) );
+		}
+		StringWriter document = new StringWriter();
+		JsonWriter out = new JsonWriter( document );
+		out.beginArray();
+		for ( int i = 0; i < 1000; i++ ) {
+			out.beginObject();
+			out.name( "text" ).value( text.substring( i, i + 20 ) );
+			out.name( "long" ).value( Long.MIN_VALUE + i );
+			out.name( "double" ).value( i / 8.0 );
+			out.name( "null" ).nullValue();
+			out.endObject();
+		}
+		out.value( text.toString() );
+		out.endArray();
+		out.flush();
+
+		List<?> values = (List<?>) new JsonReader( new SingleCharacterReader( document.toString() ) ).readValue();
+		assertEquals( 1001, values.size() );
+		for ( int i = 0; i < 1000; i++ ) {
+			Map<?, ?> object = (Map<?, ?>) values.get( i );
+			assertEquals( text.substring( i, i + 20 ), object.get( "text" ) );
+			assertEquals( Long.valueOf( Long.MIN_VALUE + i ), object.get( "long" ) );
+			assertEquals( i / 8.0, ( (Number) object.get( "double" ) ).doubleValue(), 0 );
+			assertTrue( object.containsKey( "null" ) );
+			assertNull( object.get( "null" ) );
+		}
+		assertEquals( text.toString(), values.get( 1000 ) );
+	}
+
+
+
+	/**
+	 * Each malformed document is rejected by an IOException naming the position, never read as a value.
+	 *
+	 */
+	@Test
+	public void testMalformedDocumentsAreRejected() {
+		String[] documents = {
+			  ""
+			, "{"
+			, "{\"a\" 1}"
+			, "{\"a\":1,}"
+			, "{1:2}"
+			, "{\"a\":1 \"b\":2}"
+			, "[1 2]"
+			, "[1,]"
+			, "\"open"
+			, "\"two\nlines\""
+			, "\"\\x\""
+			, "\"\\u12G4\""
+			, "tru"
+			, "nul"
+			, "-"
+			, "@"
+			, "{} {}"
+			, "[{\"a\":[1,2}]"
+		};
+		for ( String document : documents ) {
+			try {
+				Object value = read( document );
+				fail( "The malformed document: " + document + " was read as: " + value );
+			} catch ( IOException expected ) {
+				assertTrue( expected.getMessage(), expected.getMessage().startsWith( "Malformed JSON at line " ) );
+			}
+		}
+	}
+
+
+
+	/**
+	 * The position of a malformed document is counted by lines and columns.
+	 *
+	 */
+	@Test
+	public void testMalformedDocumentNamesLineAndColumn() {
+		try {
+			read( "{\n  \"a\": 1,\n  \"b\": ?\n}" );
+			fail( "The malformed document was read." );
+		} catch ( IOException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "at line 3, column 9" ) );
+		}
+	}
+
+
+
+	/**
+	 * Pulling a token of another kind than the next one is a programming error, not a malformed document.
+	 *
+	 */
+	@Test( expected = IllegalStateException.class )
+	public void testUnexpectedTokenIsAnIllegalState() throws IOException {
+		JsonReader in = new JsonReader( new StringReader( "[\"text\"]" ) );
+		in.beginArray();
+		in.nextBoolean();
+	}
+
+
+
+//====================================================================================================================================================
+// JsonReaderTest internals
+//====================================================================================================================================================
+
+
+
+	private static Object read( String document ) throws IOException {
+		JsonReader in = new JsonReader( new StringReader( document ) );
+		Object value = in.readValue();
+		if ( in.peek() != JsonToken.endDocument ) {
+			fail( "The document was not read up to its end: " + document );
+		}
+
+		return value;
+	}
+
+
+
+	/**
+	 * A Reader returning at most one character per call, which makes a JsonReader refill its buffer at every character.
+	 *
+	 */
+	private static final class SingleCharacterReader extends FilterReader {
+
+
+		SingleCharacterReader( String text ) {
+			super( new StringReader( text ) );
+		}
+
+
+
+		@Override
+		public int read( char[] buffer, int offset, int length ) throws IOException {
+			return super.read( buffer, offset, Math.min( length, 1 ) );
+		}
+	}
+}
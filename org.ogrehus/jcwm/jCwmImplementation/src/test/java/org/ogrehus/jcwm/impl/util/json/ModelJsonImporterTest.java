@@ -0,0 +1,267 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.addForeignKey;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.ForeignKey;
+import org.ogrehus.jcwm.api.resource.relational.Schema;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.util.diff.ChangeScript;
+import org.ogrehus.jcwm.impl.util.diff.ModelDiff;
+import org.ogrehus.jcwm.impl.util.registry.ElementRegistry;
+
+
+/**
+ * Tests the import of the documents of a ModelJsonExporter: whole models, references between Schemas, subtrees into an existing model and
+ * documents that can't be imported.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelJsonImporterTest {
+
+
+	/**
+	 * An exported Catalog is imported, by the calling thread as well as in parallel, as a model without differences and of the same
+	 * Fingerprint.
+	 *
+	 */
+	@Test
+	public void testRoundTripOfACatalog() throws IOException {
+		Catalog catalog = createLinkedCatalog();
+		String document = export( catalog );
+		for ( int threads = 1; threads <= 4; threads *= 2 ) {
+			ImportResult result = new ModelJsonImporter( threads, new ElementRegistry() ).read( new StringReader( document ) );
+			Catalog imported = (Catalog) result.getRoot();
+			assertNotSame( catalog, imported );
+			assertNoDifferences( catalog, imported );
+			assertEquals( getFingerprint( catalog ), getFingerprint( imported ) );
+			assertEquals( 0, result.getSkipped() );
+			assertEquals( 0, result.getUnresolved() );
+			assertEquals( count( catalog ), count( imported ) );
+		}
+	}
+
+
+
+	/**
+	 * The ForeignKeys referencing a PrimaryKey of another Schema reference the imported PrimaryKey, whichever of the two Schemas is read first.
+	 *
+	 */
+	@Test
+	public void testReferencesBetweenSchemasAreResolved() throws IOException {
+		Catalog catalog = createLinkedCatalog();
+		ImportResult result = new ModelJsonImporter( 2, new ElementRegistry() ).read( new StringReader( export( catalog ) ) );
+		Catalog imported = (Catalog) result.getRoot();
+
+		Table invoice = findTable( findSchema( imported, "BILLING" ), "INVOICE" );
+		Table orders = findTable( findSchema( imported, "SALES" ), "ORDERS" );
+		Table refund = findTable( findSchema( imported, "SALES" ), "REFUND" );
+		assertSame( orders.getPrimaryKey(), getForeignKey( invoice ).getUniqueKey() );
+		assertSame( invoice.getPrimaryKey(), getForeignKey( refund ).getUniqueKey() );
+		assertSame( invoice.getColumn( "ORDER_ID" ), getForeignKey( invoice ).getFeatures().iterator().next() );
+		assertSame( invoice, result.getElement( ModelJsonWriter.getId( findTable( findSchema( catalog, "BILLING" ), "INVOICE" ) ) ) );
+	}
+
+
+
+	/**
+	 * A Table exported from one model is imported into the Schema of another one, its ForeignKey resolved by the external elements, or
+	 * dropped as unresolved without them.
+	 *
+	 */
+	@Test
+	public void testSubtreeImportResolvesExternalReferences() throws IOException {
+		Catalog source = createCatalog();
+		Table orders = getTable( source, "ORDERS" );
+		String document = export( orders );
+		int primaryKey = ModelJsonWriter.getId( getTable( source, "CUSTOMER" ).getPrimaryKey() );
+
+		Catalog target = createCatalog();
+		getSchema( target ).removeOwnedElement( getTable( target, "ORDERS" ) );
+		Map<Integer, ModelElement> external = Collections.<Integer, ModelElement>singletonMap(
+			Integer.valueOf( primaryKey ), getTable( target, "CUSTOMER" ).getPrimaryKey()
+		);
+		ImportResult result = new ModelJsonImporter().read( new StringReader( document ), getSchema( target ), external );
+		Table copy = (Table) result.getRoot();
+		assertSame( copy, getTable( target, "ORDERS" ) );
+		assertEquals( 0, result.getUnresolved() );
+		assertSame( getTable( target, "CUSTOMER" ).getPrimaryKey(), getForeignKey( copy ).getUniqueKey() );
+		assertSame( copy.getColumn( "CUSTOMER_ID" ), getForeignKey( copy ).getFeatures().iterator().next() );
+
+		Catalog other = createCatalog();
+		getSchema( other ).removeOwnedElement( getTable( other, "ORDERS" ) );
+		result = new ModelJsonImporter().read( new StringReader( document ), getSchema( other ), Collections.<Integer, ModelElement>emptyMap() );
+		assertEquals( 1, result.getUnresolved() );
+		assertEquals( 1, result.getSkipped() );
+		assertTrue( ( (Table) result.getRoot() ).getForeignKeys().isEmpty() );
+		assertNotNull( ( (Table) result.getRoot() ).getColumn( "CUSTOMER_ID" ) );
+	}
+
+
+
+	/**
+	 * Documents of another format or a later version, truncated documents, documents without root and roots that can't be imported are
+	 * rejected by an IOException.
+	 *
+	 */
+	@Test
+	public void testInvalidDocumentsAreRejected() throws IOException {
+		String document = export( createLinkedCatalog() );
+		String[] documents = {
+			  document.replace( "\"format\":\"" + ModelJsonExporter.FORMAT + "\"", "\"format\":\"other\"" )
+			, document.replace( "\"version\":" + ModelJsonExporter.VERSION, "\"version\":" + ( ModelJsonExporter.VERSION + 1 ) )
+			, document.substring( 0, document.length() / 2 )
+			, document.substring( 0, document.length() - 1 )
+			, "{\"format\":\"" + ModelJsonExporter.FORMAT + "\",\"version\":" + ModelJsonExporter.VERSION + "}"
+			, export( getTable( createCatalog(), "ORDERS" ) )
+			, "[]"
+		};
+		for ( int threads = 1; threads <= 2; threads++ ) {
+			for ( String invalid : documents ) {
+				try {
+					ImportResult result = new ModelJsonImporter( threads ).read( new StringReader( invalid ) );
+					fail( "The invalid document was imported as: " + result + ": " + invalid );
+				} catch ( IOException expected ) {
+					assertNotNull( expected.getMessage() );
+				}
+			}
+		}
+
+		try {
+			new ModelJsonImporter().read(
+				new StringReader( export( createCatalog() ) ), getSchema( createCatalog() ), Collections.<Integer, ModelElement>emptyMap()
+			);
+			fail( "A Catalog was imported into a Schema." );
+		} catch ( IOException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "can't be imported into" ) );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelJsonImporterTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return A Catalog of the Schemas SALES and BILLING, with a ForeignKey from BILLING to SALES and one from SALES to BILLING.
+	 *
+	 */
+	private static Catalog createLinkedCatalog() {
+		Catalog catalog = createCatalog();
+		FunSchema sales = getSchema( catalog );
+		Table orders = getTable( catalog, "ORDERS" );
+		FunSchema billing = (FunSchema) FACTORY.createSchema( "BILLING" );
+		catalog.addOwnedElement( billing );
+		Table invoice = addTable( billing, "INVOICE", "ID", "ORDER_ID" );
+		addForeignKey( invoice, "FK_INVOICE_ORDERS", "ORDER_ID", orders.getPrimaryKey() );
+		Table refund = addTable( sales, "REFUND", "ID", "INVOICE_ID" );
+		addForeignKey( refund, "FK_REFUND_INVOICE", "INVOICE_ID", invoice.getPrimaryKey() );
+
+		return catalog;
+	}
+
+
+
+	private static String export( ModelElement root ) throws IOException {
+		StringWriter out = new StringWriter();
+		new ModelJsonExporter().export( root, out );
+
+		return out.toString();
+	}
+
+
+
+	private static Schema findSchema( Catalog catalog, String name ) {
+		for ( Schema schema : catalog.getSchemas() ) {
+			if ( name.equals( schema.getSimpleName() ) ) {
+				return schema;
+			}
+		}
+		throw new AssertionError( "The Catalog has no Schema: " + name );
+	}
+
+
+
+	private static Table findTable( Schema schema, String name ) {
+		return (Table) ( (FunSchema) schema ).getNamedColumnSet( name );
+	}
+
+
+
+	private static ForeignKey getForeignKey( Table table ) {
+		assertEquals( 1, table.getForeignKeys().size() );
+
+		return table.getForeignKeys().iterator().next();
+	}
+
+
+
+	/**
+	 * @return The number of elements of a document of the subtree of an element.
+	 *
+	 */
+	private static long count( ModelElement root ) throws IOException {
+		return new ModelJsonExporter().export( root, new StringWriter() );
+	}
+
+
+
+	private static String getFingerprint( ModelElement element ) {
+		return ( (GFunModelElement<?, ?, ?, ?>) element ).getFingerprint().toString();
+	}
+
+
+
+	private static void assertNoDifferences( Catalog expected, Catalog actual ) {
+		ChangeScript script = new ModelDiff().compare( expected, actual );
+		assertTrue( script.toString(), script.isEmpty().booleanValue() );
+	}
+}
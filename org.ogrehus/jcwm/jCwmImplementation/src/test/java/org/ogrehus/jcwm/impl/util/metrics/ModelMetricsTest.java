@@ -0,0 +1,251 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunSQLSimpleTypePool;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.util.validation.ModelValidator;
+import org.ogrehus.jcwm.impl.util.validation.ValidationContext;
+import org.ogrehus.jcwm.impl.util.validation.ValidationRule;
+
+
+/**
+ * Tests the counters of the ModelMetrics. As metrics are switched on and off once, when the class is initialized, each test runs a
+ * {@link Workload} in a class loader of its own, with the system property set as the test needs it.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelMetricsTest {
+
+
+	/**
+	 * Enabled metrics count the created elements, the changes, the cache lookups, the outermost traversals, the evaluated constraints with
+	 * their violations and the reflective links, and are registered as MXBean.
+	 *
+	 */
+	@Test
+	public void testEnabledMetricsCountTheWorkload() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName( ModelMetrics.OBJECT_NAME );
+		boolean registered = server.isRegistered( name );
+		try {
+			Map<String, Object> result = run( "true" );
+			assertEquals( Boolean.TRUE, result.get( "active" ) );
+			assertTrue( server.isRegistered( name ) );
+
+			assertEquals( Long.valueOf( 3 ), get( result, "created" ).get( "FunTable" ) );
+			assertTrue( get( result, "changes" ).get( "created" ).longValue() > 0 );
+
+			assertEquals( Long.valueOf( 1 ), get( result, "cacheMisses" ).get( "sqlSimpleTypePool" ) );
+			assertEquals( Long.valueOf( 1 ), get( result, "cacheHits" ).get( "sqlSimpleTypePool" ) );
+
+			// getOwnedElementDeep traverses all contents, the nested traversal is not counted as allContents
+			assertEquals( Long.valueOf( 1 ), get( result, "traversals" ).get( "ownedElementDeep" ) );
+			assertEquals( Long.valueOf( 1 ), get( result, "traversals" ).get( "allContents" ) );
+			assertEquals( Long.valueOf( 1 ), get( result, "traversals" ).get( "validation" ) );
+			assertTrue( get( result, "traversalNanos" ).containsKey( "validation" ) );
+
+			assertEquals( Long.valueOf( 3 ), get( result, "validations" ).get( CwmConstraint.C_3_1.name() ) );
+			assertEquals( Long.valueOf( 1 ), get( result, "violations" ).get( CwmConstraint.C_3_1.name() ) );
+
+			assertFalse( get( result, "reflectiveLinks" ).isEmpty() );
+			for ( String link : get( result, "reflectiveLinks" ).keySet() ) {
+				assertTrue( link, link.matches( "\\w+\\.\\w+" ) );
+			}
+
+			assertTrue( get( result, "afterReset" ).isEmpty() );
+		} finally {
+			if ( !registered && server.isRegistered( name ) ) {
+				server.unregisterMBean( name ); // registered by the isolated class loader
+			}
+		}
+	}
+
+
+
+	/**
+	 * Disabled metrics count nothing.
+	 *
+	 */
+	@Test
+	public void testDisabledMetricsCountNothing() throws Exception {
+		Map<String, Object> result = run( "false" );
+		assertEquals( Boolean.FALSE, result.get( "active" ) );
+		for ( String counters : new String[] {
+			  "created", "changes", "cacheHits", "cacheMisses", "traversals", "validations", "violations", "reflectiveLinks"
+		} ) {
+			assertTrue( counters, get( result, counters ).isEmpty() );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelMetricsTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Runs the {@link Workload} in a class loader of its own, with the system property of the metrics set to a value.
+	 *
+	 */
+	private static Map<String, Object> run( String enabled ) throws Exception {
+		String previous = System.getProperty( ModelMetrics.PROPERTY );
+		System.setProperty( ModelMetrics.PROPERTY, enabled );
+		List<URL> urls = new ArrayList<URL>();
+		for ( String entry : System.getProperty( "java.class.path" ).split( File.pathSeparator ) ) {
+			urls.add( new File( entry ).toURI().toURL() );
+		}
+		URLClassLoader loader = new URLClassLoader( urls.toArray( new URL[ urls.size() ] ), ClassLoader.getPlatformClassLoader() );
+		try {
+			Class<?> workload = Class.forName( Workload.class.getName(), true, loader );
+			@SuppressWarnings( "unchecked" )
+			Callable<Map<String, Object>> call = (Callable<Map<String, Object>>) workload.getDeclaredConstructor().newInstance();
+
+			return call.call();
+		} finally {
+			loader.close();
+			if ( previous == null ) {
+				System.clearProperty( ModelMetrics.PROPERTY );
+			} else {
+				System.setProperty( ModelMetrics.PROPERTY, previous );
+			}
+		}
+	}
+
+
+
+	@SuppressWarnings( "unchecked" )
+	private static Map<String, Long> get( Map<String, Object> result, String counters ) {
+		return (Map<String, Long>) result.get( counters );
+	}
+
+
+
+	/**
+	 * Creates a Catalog with a third Table lacking a PrimaryKey and reads the counters of the creation. After a reset it gets one type twice
+	 * from a new pool, traverses the Schema twice and validates the Catalog. Returns the counters, which are of bootstrap classes only.
+	 *
+	 */
+	public static final class Workload
+	implements
+		Callable<Map<String, Object>>
+	{
+
+
+		public Map<String, Object> call() {
+			ModelMetricsMXBean metrics = ModelMetrics.getInstance();
+			metrics.reset();
+
+			Catalog catalog = createCatalog();
+			FunSchema schema = getSchema( catalog );
+			schema.addOwnedElement( FACTORY.createTable( "LOG", Boolean.FALSE, Boolean.FALSE ) );
+
+			Map<String, Object> result = new HashMap<String, Object>();
+			result.put( "created"        , metrics.getCreatedElements() );
+			result.put( "changes"        , metrics.getChanges() );
+			result.put( "reflectiveLinks", metrics.getReflectiveLinks() );
+			metrics.reset(); // creating the Catalog has used the pool of its Schema
+
+			FunSQLSimpleTypePool pool = new FunSQLSimpleTypePool();
+			pool.get( Types.VARCHAR, "VARCHAR", null, 40, null, null, null );
+			pool.get( Types.VARCHAR, "VARCHAR", null, 40, null, null, null );
+
+			schema.getOwnedElementDeep( Table.class, "CUSTOMER", ".", "" );
+			schema.getAllContentsGeneric( Table.class );
+
+			ModelValidator validator = new ModelValidator();
+			validator.addRule( new PrimaryKeyRule() );
+			validator.validate( catalog );
+
+			result.put( "active"         , Boolean.valueOf( ModelMetrics.isActive() ) );
+			result.put( "cacheHits"      , metrics.getCacheHits() );
+			result.put( "cacheMisses"    , metrics.getCacheMisses() );
+			result.put( "traversals"     , metrics.getTraversals() );
+			result.put( "traversalNanos" , metrics.getTraversalNanos() );
+			result.put( "validations"    , metrics.getValidations() );
+			result.put( "violations"     , metrics.getViolations() );
+			metrics.reset();
+			result.put( "afterReset"     , metrics.getTraversals() );
+
+			return result;
+		}
+	}
+
+
+
+	/**
+	 * A Table must have a PrimaryKey.
+	 *
+	 */
+	private static final class PrimaryKeyRule
+	implements
+		ValidationRule<Table>
+	{
+
+
+		public CwmConstraint getConstraint() {
+			return CwmConstraint.C_3_1;
+		}
+
+
+
+		public Class<Table> getContext() {
+			return Table.class;
+		}
+
+
+
+		public Boolean check( Table element, ValidationContext context ) {
+			return Boolean.valueOf( context.read( element.getPrimaryKey() ) != null );
+		}
+	}
+}
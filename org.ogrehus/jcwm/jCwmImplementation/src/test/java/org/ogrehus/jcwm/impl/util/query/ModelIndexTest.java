@@ -0,0 +1,133 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+
+/**
+ * Tests the lookups of a ModelIndex and its maintenance by the changes of the indexed model.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelIndexTest {
+
+
+	/**
+	 * A linked Table is found by its type and name, a renamed one by its new name only.
+	 *
+	 */
+	@Test
+	public void testLookupsFollowTheModel() {
+		Catalog catalog = createCatalog();
+		ModelIndex index = ModelIndex.open( catalog );
+		try {
+			int size = index.size();
+			Table invoice = addTable( getSchema( catalog ), "INVOICE", "ID" );
+			assertTrue( contains( index.getByType( Table.class ), invoice ) );
+			assertTrue( contains( index.getBySimpleName( "INVOICE" ), invoice ) );
+			assertTrue( index.size() > size );
+
+			invoice.setName( "BILL" );
+			assertFalse( contains( index.getBySimpleName( "INVOICE" ), invoice ) );
+			assertTrue( contains( index.getBySimpleName( "BILL" ), invoice ) );
+
+			getSchema( catalog ).removeOwnedElement( invoice );
+			assertFalse( contains( index.getByType( Table.class ), invoice ) );
+			assertEquals( size, index.size() );
+		} finally {
+			index.close();
+		}
+	}
+
+
+
+	/**
+	 * An index opened while an element is renamed again and again finds the element by its final name, no rename between the indexing of the
+	 * model and the registration of the index is lost.
+	 *
+	 */
+	@Test
+	public void testIndexOpenedWhileTheModelChangesKeepsUp() throws InterruptedException {
+		Catalog catalog = createCatalog();
+		final Table customer = getTable( catalog, "CUSTOMER" );
+		final CountDownLatch started = new CountDownLatch( 1 );
+		final CountDownLatch stop = new CountDownLatch( 1 );
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for ( int i = 0; stop.getCount() > 0; i++ ) {
+					customer.setName( i % 2 == 0 ? "CLIENT" : "CUSTOMER" );
+					started.countDown();
+				}
+			}
+		};
+		writer.start();
+		started.await();
+		ModelIndex[] indexes = new ModelIndex[ 200 ];
+		for ( int i = 0; i < indexes.length; i++ ) {
+			indexes[ i ] = ModelIndex.open( catalog );
+		}
+		stop.countDown();
+		writer.join();
+
+		String name = customer.getSimpleName();
+		for ( ModelIndex index : indexes ) {
+			assertTrue( contains( index.getBySimpleName( name ), customer ) );
+			assertFalse( contains( index.getBySimpleName( "CLIENT".equals( name ) ? "CUSTOMER" : "CLIENT" ), customer ) );
+			index.close();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// ModelIndexTest internals
+//====================================================================================================================================================
+
+
+
+	private static boolean contains( Iterable<? extends ModelElement> elements, ModelElement element ) {
+		for ( ModelElement candidate : elements ) {
+			if ( candidate == element ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
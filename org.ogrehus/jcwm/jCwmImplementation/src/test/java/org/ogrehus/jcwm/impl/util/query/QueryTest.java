@@ -0,0 +1,201 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+
+
+/**
+ * Tests the compilation, planning and evaluation of a Query, with and without an index.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class QueryTest {
+
+
+	/**
+	 * Navigations, iterations, collection operations and operators give the results of OCL, the example of the documentation included.
+	 *
+	 */
+	@Test
+	public void testQueriesAnswerTheModel() {
+		Catalog catalog = createCatalog();
+		assertEquals(
+			  Arrays.asList( getTable( catalog, "CUSTOMER" ), getTable( catalog, "ORDERS" ) )
+			, evaluate( catalog, "Schema.allContents->select(t | t.oclIsKindOf(Table) and t.columns->size() > 1)->sortedBy(t | t.name)" )
+		);
+		assertEquals( Arrays.asList( "CUSTOMER", "ORDERS" ), evaluate( catalog, "Table->sortedBy(t | t.name)->collect(t | t.name)" ) );
+		assertEquals( Arrays.asList( "ID", "NAME" ), evaluate( catalog, "Table->select(t | t.name = 'CUSTOMER').columns->collect(name)" ) );
+		assertEquals( Long.valueOf( 3 ), evaluate( catalog, "Column->collect(c | c.name)->asSet()->size()" ) );
+		assertEquals( Boolean.TRUE, evaluate( catalog, "Table->forAll(t | t.columns->notEmpty())" ) );
+		assertEquals( Boolean.FALSE, evaluate( catalog, "Table->exists(t | t.columns->isEmpty())" ) );
+		assertNull( evaluate( catalog, "Table->any(t | t.name = 'INVOICE')" ) );
+		assertEquals( Long.valueOf( 7 ), evaluate( catalog, "1 + 2 * 3" ) );
+		assertEquals( Boolean.FALSE, evaluate( catalog, "not true or 3 >= 4" ) );
+	}
+
+
+
+	/**
+	 * Equalities of names become lookups of the name index and type checks become type filters, the index answers like the traversal,
+	 * an index of another root is ignored.
+	 *
+	 */
+	@Test
+	public void testPlanUsesTheIndexes() {
+		Catalog catalog = createCatalog();
+		Query byName = Query.compile( "ModelElement->select(e | e.oclIsKindOf(Column) and e.name = 'ID')->size()" );
+		assertEquals( "nameIndex('ID')[Column]->select(e | true)->size()", byName.getPlan() );
+		Query byQualifiedName = Query.compile( "Table->select(t | t.qualifiedName = 'SHOP.SALES.ORDERS')->first().name" );
+		assertTrue( byQualifiedName.getPlan(), byQualifiedName.getPlan().startsWith( "qualifiedNameIndex('SHOP.SALES.ORDERS')[Table]" ) );
+		Query byType = Query.compile( "Schema.allContents->select(t | t.oclIsKindOf(Table) and t.columns->size() > 1)" );
+		assertTrue( byType.getPlan(), byType.getPlan().contains( "->select(t : Table | " ) );
+
+		ModelIndex index = ModelIndex.open( catalog );
+		try {
+			CountingIndex counting = new CountingIndex( index );
+			assertEquals( byName.evaluate( catalog ), byName.evaluate( catalog, counting ) );
+			assertEquals( Long.valueOf( 2 ), byName.evaluate( catalog, counting ) );
+			assertTrue( counting.lookups.get() > 0 );
+			assertEquals( "ORDERS", byQualifiedName.evaluate( catalog, counting ) );
+
+			ModelIndex otherIndex = ModelIndex.open( createCatalog() );
+			CountingIndex other = new CountingIndex( otherIndex );
+			assertEquals( Long.valueOf( 2 ), byName.evaluate( catalog, other ) );
+			assertEquals( 0, other.lookups.get() );
+			otherIndex.close();
+		} finally {
+			index.close();
+		}
+	}
+
+
+
+	/**
+	 * The same text is compiled once, the compiled Query is shared.
+	 *
+	 */
+	@Test
+	public void testCompiledQueriesAreCached() {
+		Query query = Query.compile( "Table->collect(t | t.name)" );
+		assertSame( query, Query.compile( "Table->collect(t | t.name)" ) );
+		assertEquals( "Table->collect(t | t.name)", query.getExpression() );
+		assertFalse( query == Query.compile( "Table->collect(t | t.qualifiedName)" ) );
+	}
+
+
+
+	/**
+	 * Invalid texts are rejected by the compilation with the position of the error, unknown properties by the evaluation.
+	 *
+	 */
+	@Test
+	public void testInvalidQueriesAreRejected() {
+		for ( String expression : Arrays.asList( "Table->select(", "'CUSTOMER", "1 +", "Table->size(1)", "#", "Table->select(t | t.name) )" ) ) {
+			try {
+				Query.compile( expression );
+				fail( "The invalid query was compiled: " + expression );
+			} catch ( IllegalArgumentException expected ) {
+				assertTrue( expected.getMessage(), expected.getMessage().contains( "position" ) );
+			}
+		}
+		try {
+			Query.compile( "Tabel->size()" ).evaluate( createCatalog() );
+			fail( "The unknown property was navigated." );
+		} catch ( IllegalArgumentException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "Tabel" ) );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// QueryTest internals
+//====================================================================================================================================================
+
+
+
+	private static Object evaluate( ModelElement self, String expression ) {
+		return Query.compile( expression ).evaluate( self );
+	}
+
+
+
+	/**
+	 * A QueryIndex counting the lookups it answers.
+	 *
+	 */
+	private static final class CountingIndex
+	implements
+		QueryIndex
+	{
+
+
+		CountingIndex( QueryIndex delegate ) {
+			this.delegate = delegate;
+		}
+
+
+
+		public ModelElement getRoot() {
+			return this.delegate.getRoot();
+		}
+
+
+
+		public Iterable<? extends ModelElement> getByType( Class<?> type ) {
+			this.lookups.incrementAndGet();
+			return this.delegate.getByType( type );
+		}
+
+
+
+		public Iterable<? extends ModelElement> getBySimpleName( String simpleName ) {
+			this.lookups.incrementAndGet();
+			return this.delegate.getBySimpleName( simpleName );
+		}
+
+
+
+		private final QueryIndex delegate;
+
+
+
+		private final AtomicInteger lookups = new AtomicInteger();
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.getInteger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+
+
+/**
+ * Tests the dense ids of an ElementRegistry: assigned by the factories of the registry, resolved in O(1), unique under concurrent
+ * registration and handed out again once their elements are garbage collected.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ElementRegistryTest {
+
+
+	/**
+	 * The elements created by a factory of a registry get the ids from 1 on and resolve by them, other ids resolve to nothing.
+	 *
+	 */
+	@Test
+	public void testIdsAreDenseAndResolve() {
+		ElementRegistry registry = new ElementRegistry();
+		FunRelationalPackage factory = new FunRelationalPackage( registry );
+		List<Table> tables = new ArrayList<Table>();
+		for ( int i = 0; i < 3; i++ ) {
+			tables.add( factory.createTable( "T" + i, Boolean.FALSE, Boolean.FALSE ) );
+		}
+
+		for ( int i = 0; i < tables.size(); i++ ) {
+			GFunModelElement<?, ?, ?, ?> table = (GFunModelElement<?, ?, ?, ?>) tables.get( i );
+			assertEquals( i + 1, table.getId() );
+			assertSame( registry, table.getRegistry() );
+			assertSame( table, registry.resolve( table.getId() ) );
+			assertEquals( table.getId(), registry.getId( table ) );
+		}
+		assertEquals( 3, registry.size() );
+		assertEquals( 3, registry.getHighestId() );
+		assertNull( registry.resolve( 0 ) );
+		assertNull( registry.resolve( -1 ) );
+		assertNull( registry.resolve( 4 ) );
+		assertNull( registry.resolve( 1 << 20 ) );
+	}
+
+
+
+	/**
+	 * An element is known by the registry it is registered in only. A Column added by its Table joins the registry of the Table.
+	 *
+	 */
+	@Test
+	public void testElementsJoinTheRegistryOfTheirOwner() {
+		ElementRegistry registry = new ElementRegistry();
+		ElementRegistry other = new ElementRegistry();
+		FunRelationalPackage factory = new FunRelationalPackage( registry );
+		Table table = factory.createTable( "ORDERS", Boolean.FALSE, Boolean.FALSE );
+		Table foreign = new FunRelationalPackage( other ).createTable( "ORDERS", Boolean.FALSE, Boolean.FALSE );
+		assertEquals( 0, registry.getId( foreign ) );
+		assertEquals( 0, other.getId( table ) );
+
+		FunSchema schema = (FunSchema) factory.createSchema( "SALES" );
+		schema.addOwnedElement( table );
+		table.addColumn( "ID", getInteger( schema ) );
+		GFunModelElement<?, ?, ?, ?> column = (GFunModelElement<?, ?, ?, ?>) table.getColumn( "ID" );
+		assertSame( registry, column.getRegistry() );
+		assertSame( column, registry.resolve( column.getId() ) );
+	}
+
+
+
+	/**
+	 * The id of a garbage collected element is handed out again, so the ids stay dense.
+	 *
+	 */
+	@Test
+	public void testIdsOfCollectedElementsAreReused() throws InterruptedException {
+		ElementRegistry registry = new ElementRegistry();
+		FunRelationalPackage factory = new FunRelationalPackage( registry );
+		Table kept = factory.createTable( "KEPT", Boolean.FALSE, Boolean.FALSE );
+		for ( int i = 0; i < 100; i++ ) {
+			factory.createTable( "DROPPED" + i, Boolean.FALSE, Boolean.FALSE );
+		}
+		assertEquals( 101, registry.getHighestId() );
+
+		for ( int i = 0; i < 100 && registry.size() > 1; i++ ) {
+			System.gc();
+			Thread.sleep( 20 );
+		}
+		assertEquals( 1, registry.size() );
+		assertSame( kept, registry.resolve( 1 ) );
+
+		Table reused = factory.createTable( "REUSED", Boolean.FALSE, Boolean.FALSE );
+		int id = ( (GFunModelElement<?, ?, ?, ?>) reused ).getId();
+		assertTrue( "id " + id, id > 1 && id <= 101 );
+		assertSame( reused, registry.resolve( id ) );
+		assertEquals( 101, registry.getHighestId() );
+	}
+
+
+
+	/**
+	 * Threads registering at once get unique ids, spread over several chunks of the registry, each resolving to its element.
+	 *
+	 */
+	@Test
+	public void testConcurrentRegistrationAssignsUniqueIds() throws InterruptedException {
+		final ElementRegistry registry = new ElementRegistry();
+		final FunRelationalPackage factory = new FunRelationalPackage( registry );
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final List<List<Table>> created = new ArrayList<List<Table>>();
+		Thread[] threads = new Thread[ 4 ];
+		for ( int i = 0; i < threads.length; i++ ) {
+			final List<Table> tables = new ArrayList<Table>();
+			created.add( tables );
+			threads[ i ] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch ( InterruptedException e ) {
+						return;
+					}
+					for ( int j = 0; j < 2000; j++ ) {
+						tables.add( factory.createTable( "T" + j, Boolean.FALSE, Boolean.FALSE ) );
+					}
+				}
+			};
+			threads[ i ].start();
+		}
+		start.countDown();
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		BitSet ids = new BitSet();
+		for ( List<Table> tables : created ) {
+			assertEquals( 2000, tables.size() );
+			for ( Table table : tables ) {
+				int id = ( (GFunModelElement<?, ?, ?, ?>) table ).getId();
+				assertFalse( "id " + id + " twice", ids.get( id ) );
+				ids.set( id );
+				assertSame( table, registry.resolve( id ) );
+			}
+		}
+		assertEquals( 8000, registry.size() );
+		assertEquals( 8000, registry.getHighestId() );
+		assertEquals( 8000, ids.nextClearBit( 1 ) - 1 );
+	}
+
+
+
+	/**
+	 * Adopting no element is rejected.
+	 *
+	 */
+	@Test
+	public void testAdoptRejectsNull() {
+		try {
+			new ElementRegistry().adopt( null );
+			fail( "null was adopted." );
+		} catch ( NullPointerException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "element" ) );
+		}
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+
+
+/**
+ * Tests the bounded rendering of model elements by a ModelRenderer and the ModelDescription it writes to.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelRendererTest {
+
+
+	/**
+	 * The toString of an element is a summary of one line, the full rendering contains the properties of all its classes.
+	 *
+	 */
+	@Test
+	public void testSummaryAndFullRendering() {
+		Table orders = getTable( createCatalog(), "ORDERS" );
+		assertEquals( "[FunTable | name=SHOP.SALES.ORDERS | ownedElements(2) | features(2)]", orders.toString() );
+
+		String full = ModelRenderer.getFull().render( orders );
+		assertTrue( full, full.startsWith( "[FunTable |" ) );
+		assertTrue( full, full.contains( "features(2)={CUSTOMER_ID<FunTableColumn> , ID<FunTableColumn>}" ) );
+		assertTrue( full, full.contains( "namespace=SHOP.SALES<FunSchema>" ) );
+	}
+
+
+
+	/**
+	 * The owned elements are rendered up to the maximum depth, each collection is cut after the maximum number of items.
+	 *
+	 */
+	@Test
+	public void testTreeIsCutAtMaxDepthAndMaxItems() {
+		Catalog catalog = createCatalog();
+		FunSchema schema = getSchema( catalog );
+		Table first = (Table) schema.getOwnedElements().iterator().next(); // the owned elements are a set
+		assertEquals(
+			  "[FunCatalog | name=SHOP | ownedElements(1)]\n"
+			+ "\t[FunSchema | name=SHOP.SALES | ownedElements(2)]\n"
+			+ "\t\t" + first + "\n"
+			+ "\t\t...+1"
+			, new ModelRenderer( RenderMode.summary, 2, 1, 1000 ).render( catalog )
+		);
+
+		for ( int i = 0; i < 200; i++ ) {
+			addTable( schema, "T" + i, "ID" );
+		}
+		String full = ModelRenderer.getFull().render( schema );
+		assertTrue( full, full.contains( "ownedElements(202)={" ) );
+		assertTrue( full, full.contains( " , ...+102}" ) );
+	}
+
+
+
+	/**
+	 * A rendering is cut at the maximum number of characters and marked by an ellipsis, even the toString of a large Schema.
+	 *
+	 */
+	@Test
+	public void testRenderingIsCutAtMaxChars() throws IOException {
+		Catalog catalog = createCatalog();
+		StringBuilder out = new StringBuilder();
+		assertFalse( new ModelRenderer( RenderMode.full, 3, 100, 30 ).render( catalog, out ).booleanValue() );
+		assertEquals( 33, out.length() );
+		assertTrue( out.toString(), out.toString().endsWith( "..." ) );
+
+		out.setLength( 0 );
+		assertTrue( new ModelRenderer( RenderMode.summary, 0, 100, 1000 ).render( catalog, out ).booleanValue() );
+		assertEquals( catalog.toString(), out.toString() );
+
+		FunSchema schema = getSchema( catalog );
+		for ( int i = 0; i < 2000; i++ ) {
+			addTable( schema, "TABLE_WITH_A_LONG_NAME_" + i, "ID" );
+		}
+		ModelRenderer renderer = new ModelRenderer( RenderMode.summary, 1, 10000, 1024 );
+		String tree = renderer.render( schema );
+		assertEquals( 1024 + 3, tree.length() );
+		assertTrue( ModelRenderer.getFull().render( schema ).length() <= ModelRenderer.getFull().getMaxChars() + 3 );
+	}
+
+
+
+	/**
+	 * A failure of the Appendable is thrown by the rendering.
+	 *
+	 */
+	@Test
+	public void testFailureOfTheAppendableIsThrown() {
+		final IOException failure = new IOException( "disk full" );
+		Appendable broken = new Appendable() {
+			public Appendable append( CharSequence csq ) throws IOException {
+				throw failure;
+			}
+			public Appendable append( CharSequence csq, int start, int end ) throws IOException {
+				throw failure;
+			}
+			public Appendable append( char c ) throws IOException {
+				throw failure;
+			}
+		};
+		try {
+			ModelRenderer.getSummary().render( createCatalog(), broken );
+			fail( "The failure of the Appendable was swallowed." );
+		} catch ( IOException expected ) {
+			assertSame( failure, expected );
+		}
+	}
+
+
+
+	/**
+	 * Numbers are written digit by digit, including zero, negative numbers and the smallest long.
+	 *
+	 */
+	@Test
+	public void testNumbersAreWrittenByDigits() {
+		StringBuilder out = new StringBuilder();
+		ModelDescription description = new ModelDescription( out, 10, 1000 );
+		description.append( 0L ).append( ' ' ).append( 7L ).append( ' ' ).append( -42L ).append( ' ' ).append( 1234567890123L );
+		description.append( ' ' ).append( Long.MIN_VALUE ).append( ' ' ).append( Long.MAX_VALUE );
+		assertEquals( "0 7 -42 1234567890123 " + Long.MIN_VALUE + " " + Long.MAX_VALUE, out.toString() );
+		assertEquals( out.length(), description.getLength() );
+	}
+
+
+
+	/**
+	 * A ModelDescription created for a PropertyVisitor passes the properties of an element to the visitor and writes nothing.
+	 *
+	 */
+	@Test
+	public void testPropertyVisitorReceivesTheProperties() {
+		Table orders = getTable( createCatalog(), "ORDERS" );
+		final Map<String, Object> properties = new LinkedHashMap<String, Object>();
+		ModelDescription description = new ModelDescription( new PropertyVisitor() {
+			public void visit( String name, Object value ) {
+				properties.put( name, value );
+			}
+		} );
+		( (GFunModelElement<?, ?, ?, ?>) orders ).describe( description );
+
+		assertEquals( "ORDERS", String.valueOf( properties.get( "name" ) ) );
+		assertSame( orders.getNamespace(), properties.get( "namespace" ) );
+		assertEquals( 2, ( (Collection<?>) properties.get( "features" ) ).size() );
+		assertEquals( 0, description.getLength() );
+	}
+
+
+
+	/**
+	 * A ModelRenderer rejects a missing mode and negative bounds.
+	 *
+	 */
+	@Test
+	public void testInvalidBoundsAreRejected() {
+		try {
+			new ModelRenderer( null, 0, 1, 1 );
+			fail( "A renderer without mode was created." );
+		} catch ( NullPointerException expected ) {
+			assertTrue( expected.getMessage(), expected.getMessage().contains( "mode" ) );
+		}
+		for ( int[] bounds : new int[][] { { -1, 0, 0 }, { 0, -1, 0 }, { 0, 0, -1 } } ) {
+			try {
+				new ModelRenderer( RenderMode.summary, bounds[0], bounds[1], bounds[2] );
+				fail( "A renderer with a negative bound was created." );
+			} catch ( IllegalArgumentException expected ) {
+				assertTrue( expected.getMessage(), expected.getMessage().endsWith( "must not be negative." ) );
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the split of SQL identifiers and free text into terms by the IdentifierTokenizer.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class IdentifierTokenizerTest {
+
+
+	/**
+	 * Identifiers are split at separators, at changes of the case and at changes between letters and digits, the terms are in lower case.
+	 *
+	 */
+	@Test
+	public void testIdentifiersAreSplitIntoTerms() {
+		assertTerms( "CUSTOMER_ID", "customer", "id" );
+		assertTerms( "customerName", "customer", "name" );
+		assertTerms( "XMLFile", "xml", "file" );
+		assertTerms( "HTTPServer2XML", "http", "server", "2", "xml" );
+		assertTerms( "address2Line", "address", "2", "line" );
+		assertTerms( "ADDRESS_LINE_12", "address", "line", "12" );
+		assertTerms( "iPhone", "i", "phone" );
+		assertTerms( "ID", "id" );
+		assertTerms( "Straße_Größe", "straße", "größe" );
+	}
+
+
+
+	/**
+	 * Free text is split at blanks and punctuation, every term is listed once in order of its first occurrence.
+	 *
+	 */
+	@Test
+	public void testTextGivesDistinctTermsInOrder() {
+		assertTerms( "\"order date\", ORDER-DATE (orderDate)", "order", "date" );
+		assertTerms( "  the date of the order.  ", "the", "date", "of", "order" );
+		assertTerms( "__" );
+		assertTerms( "" );
+		assertTrue( IdentifierTokenizer.tokenize( null ).isEmpty() );
+	}
+
+
+
+//====================================================================================================================================================
+// IdentifierTokenizerTest internals
+//====================================================================================================================================================
+
+
+
+	private static void assertTerms( String text, String... terms ) {
+		assertEquals( text, Arrays.asList( terms ), new ArrayList<String>( IdentifierTokenizer.tokenize( text ) ) );
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the blocks of a PostingList against a sorted map of the same postings.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class PostingListTest {
+
+
+	/**
+	 * Appended ids fill blocks to the half and are decoded in ascending order with their masks.
+	 *
+	 */
+	@Test
+	public void testAppendsAreSplitIntoBlocks() {
+		PostingList postings = new PostingList();
+		for ( int id = 0; id < 1000; id++ ) {
+			postings.add( id * 3, 1 );
+		}
+		postings.add( 2997, 2 );
+
+		assertEquals( 1000, postings.size() );
+		assertEquals( ( 1000 + PostingList.MAX_BLOCK / 2 - 1 ) / ( PostingList.MAX_BLOCK / 2 ), postings.getBlockCount() );
+		int[] ids   = new int[ postings.size() ];
+		int[] masks = new int[ postings.size() ];
+		assertEquals( 1000, postings.decode( ids, masks ) );
+		for ( int i = 0; i < 1000; i++ ) {
+			assertEquals( i * 3, ids[ i ] );
+		}
+		assertEquals( 3, masks[ 999 ] );
+	}
+
+
+
+	/**
+	 * Inserts and removals of ids in the middle of the list keep it equal to a sorted map, blocks are split and dropped on the way.
+	 *
+	 */
+	@Test
+	public void testRandomChangesKeepTheOrder() {
+		PostingList postings = new PostingList();
+		TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+		Random random = new Random( 42 );
+		for ( int i = 0; i < 20000; i++ ) {
+			int id = random.nextInt( 5000 );
+			int mask = 1 << random.nextInt( 4 );
+			if ( random.nextInt( 3 ) == 0 ) {
+				postings.remove( id, mask );
+				Integer old = expected.get( id );
+				if ( old != null && ( old & ~mask ) == 0 ) {
+					expected.remove( id );
+				} else if ( old != null ) {
+					expected.put( id, old & ~mask );
+				}
+			} else {
+				postings.add( id, mask );
+				Integer old = expected.get( id );
+				expected.put( id, old == null ? mask : old | mask );
+			}
+		}
+
+		assertEquals( expected.size(), postings.size() );
+		assertTrue( postings.getBlockCount() > 1 );
+		int[] ids   = new int[ postings.size() ];
+		int[] masks = new int[ postings.size() ];
+		postings.decode( ids, masks );
+		int i = 0;
+		for ( Map.Entry<Integer, Integer> entry : expected.entrySet() ) {
+			assertEquals( entry.getKey().intValue(), ids[ i ] );
+			assertEquals( entry.getValue().intValue(), masks[ i++ ] );
+		}
+	}
+
+
+
+	/**
+	 * Removing every posting drops all blocks, the list accepts new ids afterwards.
+	 *
+	 */
+	@Test
+	public void testRemovingAllPostingsEmptiesTheList() {
+		PostingList postings = new PostingList();
+		for ( int id = 0; id < 500; id++ ) {
+			postings.add( id, 1 );
+		}
+		for ( int id = 499; id >= 0; id-- ) {
+			postings.remove( id, 1 );
+		}
+
+		assertEquals( 0, postings.size() );
+		assertEquals( 0, postings.getBlockCount() );
+		assertEquals( 0, postings.getEncodedSize() );
+		postings.add( 7, 4 );
+		int[] ids   = new int[ 1 ];
+		int[] masks = new int[ 1 ];
+		postings.decode( ids, masks );
+		assertEquals( 7, ids[ 0 ] );
+		assertEquals( 4, masks[ 0 ] );
+	}
+}
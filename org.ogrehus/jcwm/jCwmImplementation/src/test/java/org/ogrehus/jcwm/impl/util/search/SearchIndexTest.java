@@ -0,0 +1,266 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.addTable;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+
+/**
+ * Tests the search in a SearchIndex and its maintenance by the changes of the indexed model.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class SearchIndexTest {
+
+
+	/**
+	 * A renamed element is found by its new name only.
+	 *
+	 */
+	@Test
+	public void testRenamedElementIsFoundByItsNewName() {
+		Catalog catalog = createCatalog();
+		Table customer = getTable( catalog, "CUSTOMER" );
+		SearchIndex index = SearchIndex.open( catalog );
+		try {
+			assertTrue( finds( index, "customer", customer ) );
+
+			customer.setName( "CLIENT" );
+			assertFalse( finds( index, "customer", customer ) );
+			assertTrue( finds( index, "client", customer ) );
+		} finally {
+			index.close();
+		}
+	}
+
+
+
+	/**
+	 * An index opened while an element is renamed again and again finds the element by its final name, no rename between the indexing of the
+	 * model and the registration of the index is lost.
+	 *
+	 */
+	@Test
+	public void testIndexOpenedWhileTheModelChangesKeepsUp() throws InterruptedException {
+		Catalog catalog = createCatalog();
+		final Table customer = getTable( catalog, "CUSTOMER" );
+		final CountDownLatch started = new CountDownLatch( 1 );
+		final CountDownLatch stop = new CountDownLatch( 1 );
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for ( int i = 0; stop.getCount() > 0; i++ ) {
+					customer.setName( i % 2 == 0 ? "CLIENT" : "CUSTOMER" );
+					started.countDown();
+				}
+			}
+		};
+		writer.start();
+		started.await();
+		SearchIndex[] indexes = new SearchIndex[ 200 ];
+		for ( int i = 0; i < indexes.length; i++ ) {
+			indexes[ i ] = SearchIndex.open( catalog );
+		}
+		stop.countDown();
+		writer.join();
+
+		boolean client = "CLIENT".equals( customer.getSimpleName() );
+		for ( SearchIndex index : indexes ) {
+			assertTrue( finds( index, client ? "client" : "customer", customer ) );
+			assertFalse( finds( index, client ? "customer" : "client", customer ) );
+			index.close();
+		}
+	}
+
+
+
+	/**
+	 * Searches running in parallel to renames do not fail, the final name of the renamed element is found afterwards.
+	 *
+	 */
+	@Test
+	public void testSearchesRunWhileTheModelChanges() throws InterruptedException {
+		Catalog catalog = createCatalog();
+		final Table customer = getTable( catalog, "CUSTOMER" );
+		final SearchIndex index = SearchIndex.open( catalog );
+		final AtomicInteger failures = new AtomicInteger();
+		final CountDownLatch stop = new CountDownLatch( 1 );
+		Thread[] readers = new Thread[ 4 ];
+		for ( int i = 0; i < readers.length; i++ ) {
+			readers[ i ] = new Thread() {
+				@Override
+				public void run() {
+					while ( stop.getCount() > 0 ) {
+						try {
+							index.search( "cust* client~", 10 );
+							index.search( "customer", 10 );
+						} catch ( RuntimeException e ) {
+							failures.incrementAndGet();
+						}
+					}
+				}
+			};
+			readers[ i ].start();
+		}
+		try {
+			for ( int i = 0; i < 2000; i++ ) {
+				customer.setName( i % 2 == 0 ? "CLIENT" : "CUSTOMER" );
+			}
+		} finally {
+			stop.countDown();
+			for ( Thread reader : readers ) {
+				reader.join();
+			}
+			index.close();
+		}
+
+		assertEquals( 0, failures.get() );
+		assertTrue( finds( index, "customer", customer ) );
+		assertFalse( finds( index, "client", customer ) );
+	}
+
+
+
+	/**
+	 * A prefix matches every term starting with it, a fuzzy word every term within its edit distance: one for words up to five characters, two
+	 * for longer ones and none for words of up to two characters. A word without an operator matches the whole term only.
+	 *
+	 */
+	@Test
+	public void testPrefixAndFuzzyWordsMatchSimilarTerms() {
+		Catalog catalog = createCatalog();
+		Table customer = getTable( catalog, "CUSTOMER" );
+		Table archive  = addTable( getSchema( catalog ), "CUSTOMERS_ARCHIVE", "ID" );
+		Table purchase = addTable( getSchema( catalog ), "PURCHASE_ORDER", "ID" );
+		Table orders   = getTable( catalog, "ORDERS" );
+		SearchIndex index = SearchIndex.open( catalog );
+		try {
+			assertTrue( finds( index, "cust*", customer ) );
+			assertTrue( finds( index, "cust*", archive ) );
+			assertTrue( index.search( "ord", 10 ).isEmpty() );
+
+			assertTrue( finds( index, "custmer~", customer ) );  // one edit
+			assertTrue( finds( index, "custmer~", archive ) );   // two edits
+			assertTrue( finds( index, "cutsomer~", customer ) ); // a swap costs two edits
+			assertFalse( finds( index, "cstmr~", customer ) );   // three edits
+			assertTrue( finds( index, "ordr~", purchase ) );
+			assertFalse( finds( index, "ordr~", orders ) );      // two edits for a short word
+			assertTrue( index.search( "ix~", 10 ).isEmpty() );
+		} finally {
+			index.close();
+		}
+	}
+
+
+
+	/**
+	 * Hits are ordered by their score: an exact term before a fuzzy one, a longer share of a prefix before a shorter one. All words of a query
+	 * must match, their scores add up.
+	 *
+	 */
+	@Test
+	public void testBestMatchesRankFirst() {
+		Catalog catalog = createCatalog();
+		Table customer = getTable( catalog, "CUSTOMER" );
+		Table archive  = addTable( getSchema( catalog ), "CUSTOMERS_ARCHIVE", "ID" );
+		SearchIndex index = SearchIndex.open( catalog );
+		try {
+			for ( String query : new String[] { "customer~", "cust*" } ) {
+				List<SearchHit> hits = index.search( query, 10 );
+				assertTrue( query, rank( hits, customer ) < rank( hits, archive ) );
+				assertTrue( query, hits.get( rank( hits, customer ) ).getScore() > hits.get( rank( hits, archive ) ).getScore() );
+				for ( int i = 1; i < hits.size(); i++ ) {
+					assertTrue( query, hits.get( i - 1 ).getScore() >= hits.get( i ).getScore() );
+				}
+			}
+
+			List<SearchHit> hits = index.search( "customer id", 10 );
+			assertEquals( 1, hits.size() );
+			assertEquals( "CUSTOMER_ID", hits.get( 0 ).getElement().getSimpleName() );
+			float sum = index.search( "customer", 10 ).get( 0 ).getScore() + index.search( "id", 10 ).get( 0 ).getScore();
+			assertEquals( sum, hits.get( 0 ).getScore(), 0.001f );
+
+			assertEquals( 1, index.search( "cust*", 1 ).size() );
+			assertEquals( index.search( "cust*", 10 ).get( 0 ).getElement(), index.search( "cust*", 1 ).get( 0 ).getElement() );
+			try {
+				index.search( "cust*", 0 );
+				fail( "A search without results was accepted." );
+			} catch ( IllegalArgumentException expected ) {
+				assertTrue( expected.getMessage(), expected.getMessage().contains( "limit" ) );
+			}
+		} finally {
+			index.close();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// SearchIndexTest internals
+//====================================================================================================================================================
+
+
+
+	private static boolean finds( SearchIndex index, String query, ModelElement element ) {
+		for ( SearchHit hit : index.search( query, 10 ) ) {
+			if ( hit.getElement() == element ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+
+
+	/**
+	 * @return The position of an element in a list of hits, or -1 if it is missing.
+	 *
+	 */
+	private static int rank( List<SearchHit> hits, ModelElement element ) {
+		for ( int i = 0; i < hits.size(); i++ ) {
+			if ( hits.get( i ).getElement() == element ) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+}
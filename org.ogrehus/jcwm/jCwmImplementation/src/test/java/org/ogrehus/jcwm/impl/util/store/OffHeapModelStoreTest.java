@@ -0,0 +1,244 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.collection.ModelTraversal;
+import org.ogrehus.jcwm.impl.util.diff.ModelStructure;
+
+
+/**
+ * Tests the snapshot of a model in an OffHeapModelStore: its records, its references, and the file it is saved to and mapped from.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class OffHeapModelStoreTest {
+
+
+	@Before
+	public void setUp() throws IOException {
+		this.catalog = createCatalog();
+		this.file = Files.createTempFile( "store", ".jcwm" );
+	}
+
+
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists( this.file );
+	}
+
+
+
+	/**
+	 * Each element of the model is stored once, in pre order, with its class, name, id, parent and the size of its subtree.
+	 *
+	 */
+	@Test
+	public void testRecordsMirrorTheModel() {
+		Map<Integer, ModelElement> elements = new HashMap<Integer, ModelElement>();
+		for ( ModelElement element : new ModelTraversal( this.catalog ) ) {
+			elements.put( Integer.valueOf( ( (GFunModelElement<?, ?, ?, ?>) element ).getId() ), element );
+		}
+
+		try ( OffHeapModelStore store = OffHeapModelStore.write( this.catalog ) ) {
+			assertEquals( elements.size(), store.size() );
+			assertNull( store.getRoot().getParent() );
+			assertEquals( store.size(), store.getRoot().getSubtreeSize() );
+			for ( int i = 0; i < store.size(); i++ ) {
+				StoredElement stored = store.get( i );
+				ModelElement element = elements.remove( Integer.valueOf( stored.getElementId() ) );
+				assertEquals( element.getClass().getName(), stored.getKind() );
+				assertEquals( element.getSimpleName(), stored.getSimpleName() );
+				assertEquals( count( element ), stored.getSubtreeSize() );
+				if ( i > 0 ) {
+					GFunModelElement<?, ?, ?, ?> parent = (GFunModelElement<?, ?, ?, ?>) ModelStructure.getParent( element );
+					assertEquals( parent.getId(), stored.getParent().getElementId() );
+					assertTrue( stored.getParent().getIndex() < i ); // children follow their parent
+				}
+			}
+			assertTrue( elements.isEmpty() );
+		}
+	}
+
+
+
+	/**
+	 * A reference within the stored model is a stored element, a reference out of it the qualified name of the referenced element.
+	 *
+	 */
+	@Test
+	public void testReferencesResolveWithinTheStore() {
+		try ( OffHeapModelStore store = OffHeapModelStore.write( this.catalog ) ) {
+			StoredElement orders = store.getRoot().getChild( "SALES" ).getChild( "ORDERS" );
+			StoredElement foreignKey = orders.getChild( "FK_ORDERS_CUSTOMER" );
+			StoredElement uniqueKey = (StoredElement) foreignKey.getProperty( "uniqueKey" );
+			assertEquals( "SHOP.SALES.CUSTOMER.PK_CUSTOMER", uniqueKey.getQualifiedName() );
+			assertEquals( orders.getChild( "CUSTOMER_ID" ), foreignKey.getProperty( "features" ) );
+			assertEquals( "importedKeySetDefault", foreignKey.getProperty( "deleteRule" ) );
+			assertEquals( Long.valueOf( 10 ), orders.getChild( "ID" ).getProperty( "precision" ) );
+			assertEquals( Boolean.FALSE, orders.getProperty( "isAbstract" ) );
+			assertNull( orders.getProperty( "unknown" ) );
+			assertTrue( orders.getValues( "unknown" ).isEmpty() );
+		}
+
+		try ( OffHeapModelStore store = OffHeapModelStore.write( getTable( this.catalog, "ORDERS" ) ) ) {
+			StoredElement foreignKey = store.getRoot().getChild( "FK_ORDERS_CUSTOMER" );
+			assertEquals( "SHOP.SALES.CUSTOMER.PK_CUSTOMER", foreignKey.getProperty( "uniqueKey" ) );
+			assertEquals( store.getRoot().getChild( "CUSTOMER_ID" ), foreignKey.getProperty( "features" ) );
+		}
+	}
+
+
+
+	/**
+	 * A saved store is mapped again with the same records, properties and values.
+	 *
+	 */
+	@Test
+	public void testSavedStoreIsMappedAgain() throws IOException {
+		try ( OffHeapModelStore written = OffHeapModelStore.write( this.catalog ) ) {
+			written.save( this.file );
+			assertEquals( written.getByteSize(), Files.size( this.file ) );
+			try ( OffHeapModelStore mapped = OffHeapModelStore.map( this.file ) ) {
+				assertEquals( written.size(), mapped.size() );
+				for ( int i = 0; i < written.size(); i++ ) {
+					StoredElement expected = written.get( i );
+					StoredElement actual = mapped.get( i );
+					assertSame( mapped, actual.getStore() );
+					assertEquals( expected.getQualifiedName(), actual.getQualifiedName() );
+					assertEquals( expected.getKind(), actual.getKind() );
+					assertEquals( expected.getElementId(), actual.getElementId() );
+					assertEquals( expected.getPropertyNames(), actual.getPropertyNames() );
+					for ( String name : expected.getPropertyNames() ) {
+						assertEquals( name, render( expected.getValues( name ) ), render( actual.getValues( name ) ) );
+					}
+				}
+			}
+		}
+	}
+
+
+
+	/**
+	 * A file that is no model store is rejected, so is an index out of the store and any access to a closed store.
+	 *
+	 */
+	@Test
+	public void testInvalidAccessIsRejected() throws IOException {
+		Files.write( this.file, "no store, but long enough for the header of a store".getBytes( "UTF-8" ) );
+		try {
+			OffHeapModelStore.map( this.file ).close();
+			fail( "A text file was mapped as store." );
+		} catch ( IOException expected ) {
+			assertEquals( "The data is no model store.", expected.getMessage() );
+		}
+
+		OffHeapModelStore store = OffHeapModelStore.write( this.catalog );
+		for ( int index : new int[] { -1, store.size() } ) {
+			try {
+				store.get( index );
+				fail( "The record " + index + " was read." );
+			} catch ( IndexOutOfBoundsException expected ) {
+				assertTrue( expected.getMessage(), expected.getMessage().startsWith( "Index: " + index ) );
+			}
+		}
+
+		StoredElement root = store.getRoot();
+		store.close();
+		store.close();
+		try {
+			root.getSimpleName();
+			fail( "A closed store was read." );
+		} catch ( IllegalStateException expected ) {
+			assertTrue( store.toString(), store.toString().contains( "open=false" ) );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// OffHeapModelStoreTest internals
+//====================================================================================================================================================
+
+
+
+	private static int count( ModelElement root ) {
+		int count = 0;
+		for ( @SuppressWarnings( "unused" ) ModelElement element : new ModelTraversal( root ) ) {
+			count++;
+		}
+
+		return count;
+	}
+
+
+
+	/**
+	 * @return The values, stored elements by their qualified names, as they belong to different stores.
+	 *
+	 */
+	private static String render( Iterable<Object> values ) {
+		StringBuilder out = new StringBuilder();
+		for ( Object value : values ) {
+			out.append( value instanceof StoredElement ? ( (StoredElement) value ).getQualifiedName() : value ).append( ';' );
+		}
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private Catalog catalog;
+
+
+
+	private Path file;
+}
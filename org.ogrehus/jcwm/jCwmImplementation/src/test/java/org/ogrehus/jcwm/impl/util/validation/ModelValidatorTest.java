@@ -0,0 +1,190 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.FACTORY;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getInteger;
+import static org.ogrehus.jcwm.impl.ModelFixture.getSchema;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+
+
+/**
+ * Tests the incremental re-validation of a ModelValidator: only the evaluations that have read a changed element are evaluated again.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelValidatorTest {
+
+
+	@Before
+	public void setUp() {
+		this.catalog = createCatalog();
+		this.rule = new PrimaryKeyRule();
+		this.validator = new ModelValidator();
+		this.validator.addRule( this.rule );
+		assertTrue( this.validator.validate( this.catalog ).isEmpty() );
+		assertEquals( 2, this.rule.checks );
+		this.validator.attach();
+		this.rule.checks = 0;
+	}
+
+
+
+	@After
+	public void tearDown() {
+		this.validator.detach();
+	}
+
+
+
+	/**
+	 * A re-validation without changes evaluates nothing, a change of an element no evaluation has read marks nothing dirty.
+	 *
+	 */
+	@Test
+	public void testUnrelatedChangesEvaluateNothing() {
+		assertTrue( this.validator.revalidate().isEmpty() );
+		getTable( this.catalog, "ORDERS" ).getColumn( "CUSTOMER_ID" ).setName( "CLIENT_ID" );
+		assertEquals( 0, this.validator.getDirtyCount() );
+		assertTrue( this.validator.revalidate().isEmpty() );
+		assertEquals( 0, this.rule.checks );
+	}
+
+
+
+	/**
+	 * Removing the PrimaryKey of a Table re-evaluates the rule of that Table only and reports the violation, till a PrimaryKey is set again.
+	 *
+	 */
+	@Test
+	public void testChangedElementIsEvaluatedAgain() {
+		Table customer = getTable( this.catalog, "CUSTOMER" );
+		customer.removePrimaryKey();
+		assertEquals( 1, this.validator.getDirtyCount() );
+		List<Violation> violations = this.validator.revalidate();
+		assertEquals( 1, this.rule.checks );
+		assertEquals( 1, violations.size() );
+		assertSame( customer, violations.get( 0 ).getElement() );
+		assertSame( CwmConstraint.C_3_1, violations.get( 0 ).getConstraint() );
+
+		customer.setPrimaryKey( FACTORY.createPrimaryKey( "PK_CUSTOMER", Deferability.getDefault() ) );
+		assertTrue( this.validator.revalidate().isEmpty() );
+		assertEquals( 2, this.rule.checks );
+	}
+
+
+
+	/**
+	 * A Table linked below the root after the validation is evaluated by the next re-validation, its violation is dropped with the Table.
+	 *
+	 */
+	@Test
+	public void testLinkedAndUnlinkedElementsAreTracked() {
+		Table invoice = FACTORY.createTable( "INVOICE", Boolean.FALSE, Boolean.FALSE );
+		invoice.addColumn( "ID", getInteger( getSchema( this.catalog ) ) );
+		getSchema( this.catalog ).addOwnedElement( invoice );
+		List<Violation> violations = this.validator.revalidate();
+		assertEquals( 1, violations.size() );
+		assertSame( invoice, violations.get( 0 ).getElement() );
+		assertEquals( 1, this.rule.checks );
+
+		getSchema( this.catalog ).removeOwnedElement( invoice );
+		assertTrue( this.validator.revalidate().isEmpty() );
+		assertEquals( 1, this.rule.checks );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelValidatorTest internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * A Table must have a PrimaryKey, counting its checks.
+	 *
+	 */
+	private static final class PrimaryKeyRule
+	implements
+		ValidationRule<Table>
+	{
+
+
+		public CwmConstraint getConstraint() {
+			return CwmConstraint.C_3_1;
+		}
+
+
+
+		public Class<Table> getContext() {
+			return Table.class;
+		}
+
+
+
+		public Boolean check( Table element, ValidationContext context ) {
+			this.checks++;
+			context.read( element );
+
+			return Boolean.valueOf( context.read( element.getPrimaryKey() ) != null );
+		}
+
+
+
+		int checks = 0;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private Catalog catalog;
+
+
+
+	private PrimaryKeyRule rule;
+
+
+
+	private ModelValidator validator;
+}
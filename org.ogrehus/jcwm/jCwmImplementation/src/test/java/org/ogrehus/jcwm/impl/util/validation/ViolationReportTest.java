@@ -0,0 +1,173 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.impl.util.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ogrehus.jcwm.impl.ModelFixture.createCatalog;
+import static org.ogrehus.jcwm.impl.ModelFixture.getTable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.util.ConstraintViolation;
+import org.ogrehus.jcwm.api.objectmodel.core.util.CwmConstraint;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+
+
+/**
+ * Tests the localized messages of violations, formatted by the cached templates of the CwmConstraints, and their report.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ViolationReportTest {
+
+
+	/**
+	 * A message is formatted by the template of the Locale, a Locale without templates of its own falls back to English, not to the default
+	 * Locale of the JVM.
+	 *
+	 */
+	@Test
+	public void testMessagesAreLocalized() {
+		Violation violation = new Violation( getTable( createCatalog(), "CUSTOMER" ), CwmConstraint.C_3_1 );
+		String english = "[C-3-1] A Constraint cannot be applied to itself. Affected Element is SHOP.SALES.CUSTOMER.";
+		assertEquals( english, violation.getLocalizedMessage( Locale.ENGLISH ) );
+		assertEquals(
+			  "[C-3-1] Ein Constraint kann nicht zu sich selbst hinzugefügt werden. Betroffenes Element ist: SHOP.SALES.CUSTOMER."
+			, violation.getLocalizedMessage( Locale.GERMANY )
+		);
+		Locale previous = Locale.getDefault();
+		Locale.setDefault( Locale.GERMAN );
+		try {
+			assertEquals( english, violation.getLocalizedMessage( Locale.JAPANESE ) );
+		} finally {
+			Locale.setDefault( previous );
+		}
+	}
+
+
+
+	/**
+	 * The German messages cover the same CwmConstraints as the English ones, a CwmConstraint without a message formats none.
+	 *
+	 */
+	@Test
+	public void testGermanAndEnglishMessagesMatch() {
+		int defined = 0;
+		for ( CwmConstraint constraint : CwmConstraint.values() ) {
+			String english = CwmConstraint.getMessage( constraint, Locale.ENGLISH, "ELEMENT" );
+			String german = CwmConstraint.getMessage( constraint, Locale.GERMAN, "ELEMENT" );
+			assertEquals( constraint.name(), english == null, german == null );
+			if ( english != null ) {
+				defined++;
+				assertTrue( english, english.startsWith( "[" ) );
+				assertTrue( german, german.startsWith( english.substring( 0, english.indexOf( ']' ) + 1 ) ) );
+			}
+		}
+		assertTrue( defined > 0 );
+		assertNull( CwmConstraint.getMessage( CwmConstraint.C_3_3, Locale.ENGLISH, "ELEMENT" ) );
+		assertFalse( CwmConstraint.format( CwmConstraint.C_3_3, Locale.ENGLISH, new StringBuffer(), "ELEMENT" ).booleanValue() );
+	}
+
+
+
+	/**
+	 * Threads formatting the messages of the same templates at once get the messages of their own arguments.
+	 *
+	 */
+	@Test
+	public void testConcurrentFormattingKeepsTheArguments() throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch( 1 );
+		final AtomicInteger failures = new AtomicInteger();
+		List<Thread> threads = new ArrayList<Thread>();
+		for ( int i = 0; i < 8; i++ ) {
+			final String argument = "ELEMENT_" + i;
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch ( InterruptedException e ) {
+						return;
+					}
+					for ( int j = 0; j < 2000; j++ ) {
+						String message = CwmConstraint.getMessage( CwmConstraint.C_3_1, Locale.ENGLISH, argument );
+						if ( !message.endsWith( "Affected Element is " + argument + "." ) ) {
+							failures.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads.add( thread );
+			thread.start();
+		}
+		start.countDown();
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertEquals( 0, failures.get() );
+	}
+
+
+
+	/**
+	 * A report of more violations than its buffer holds writes one line per violation, ConstraintViolations without an element and without a
+	 * stack trace.
+	 *
+	 */
+	@Test
+	public void testReportWritesALinePerViolation() throws IOException {
+		Table customer = getTable( createCatalog(), "CUSTOMER" );
+		List<Violation> violations = new ArrayList<Violation>();
+		for ( int i = 0; i < 1000; i++ ) {
+			violations.add( new Violation( customer, CwmConstraint.C_3_1 ) );
+		}
+		StringWriter out = new StringWriter();
+		ViolationReport report = new ViolationReport( out, Locale.ENGLISH );
+		assertEquals( 1000, report.writeAll( violations ) );
+		ConstraintViolation thrown = ConstraintViolation.withoutStackTrace( CwmConstraint.C_3_2, "CONSTRAINT" );
+		assertEquals( 0, thrown.getStackTrace().length );
+		report.write( thrown );
+		report.flush();
+
+		String[] lines = out.toString().split( "\n" );
+		assertEquals( 1001, lines.length );
+		assertEquals( 1001, report.getWritten() );
+		for ( int i = 0; i < 1000; i++ ) {
+			assertEquals( "C_3_1\tSHOP.SALES.CUSTOMER\t" + violations.get( i ).getLocalizedMessage( Locale.ENGLISH ), lines[ i ] );
+		}
+		assertEquals( "C_3_2\t\t" + thrown.getLocalizedMessage( Locale.ENGLISH ), lines[ 1000 ] );
+		assertTrue( lines[ 1000 ], lines[ 1000 ].contains( "CONSTRAINT" ) );
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.json.JsonWriter;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+
+
+/**
+ * An ElementHandler answers the lookup of an element by its qualified name and the pages of its children.
+ * <ul>
+ * <li><code>GET /elements/{qualifiedName}?fields=...</code> - The element, see {@link ModelJsonWriter}.</li>
+ * <li><code>GET /elements/{qualifiedName}/children?offset=0&amp;limit=100&amp;fields=...</code> - A page of the owned elements and features
+ * of the element, like <code>{"total":1200,"offset":0,"items":[...]}</code>. The owned elements come first, then the features, both
+ * ordered by their ids, so the pages of an unchanged element neither overlap nor miss a child, whatever the order of its collections. The
+ * sorted children are cached by the ModelRepository, so paging through an unchanged element sorts its children once.</li>
+ * </ul>
+ * <p>
+ * Both are tagged by the Fingerprint of the element, the page also by its bounds, so an unchanged Table is answered by
+ * <code>304 Not Modified</code>.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class ElementHandler
+extends
+	JsonHandler
+{
+
+
+	ElementHandler( ModelRepository repository ) {
+		super( repository );
+	}
+
+
+
+//====================================================================================================================================================
+// JsonHandler capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	void respond( HttpExchange exchange, JsonRequest request ) throws IOException {
+		String path = request.getPath();
+		boolean children = path.endsWith( CHILDREN );
+		ModelElement element = lookup( children ? path.substring( 0, path.length() - CHILDREN.length() ) : path );
+		Set<String> fields = request.getFields();
+		ModelJsonWriter writer = new ModelJsonWriter( fields );
+		if ( !children ) {
+			JsonWriter out = begin( exchange, getTag( element, fields, "" ) );
+			if ( out != null ) {
+				writer.writeElement( out, element );
+				out.flush();
+			}
+			return;
+		}
+
+		int offset = request.getInt( "offset", 0, Integer.MAX_VALUE );
+		int limit  = request.getInt( "limit", DEFAULT_LIMIT, MAX_LIMIT );
+		JsonWriter out = begin( exchange, getTag( element, fields, offset + "-" + limit ) );
+		if ( out == null ) {
+			return;
+		}
+		List<ModelElement> sorted = this.repository.getChildren( element );
+		out.beginObject();
+		out.name( "total" ).value( sorted.size() );
+		out.name( "offset" ).value( offset );
+		out.name( "items" ).beginArray();
+		for ( int i = offset; i < sorted.size() && i - offset < limit; i++ ) {
+			writer.writeElement( out, sorted.get( i ) );
+		}
+		out.endArray();
+		out.endObject();
+		out.flush();
+	}
+
+
+
+//====================================================================================================================================================
+// ElementHandler internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The tag of a representation of an element: the Fingerprint of the element, the projection and the part of the element, like the
+	 * bounds of a page.
+	 *
+	 */
+	private static String getTag( ModelElement element, Set<String> fields, String part ) {
+		String tag = getTag( element );
+		if ( tag == null ) {
+			return null;
+		}
+
+		return tag + '-' + Integer.toHexString( fields == null ? 0 : fields.hashCode() ) + ( part.isEmpty() ? "" : '-' + part );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final String CHILDREN = "/children";
+
+
+
+	private static final int DEFAULT_LIMIT = 100;
+
+
+
+	private static final int MAX_LIMIT = 10000;
+}
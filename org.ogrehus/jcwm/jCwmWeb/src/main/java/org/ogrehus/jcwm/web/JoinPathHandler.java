@@ -0,0 +1,255 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import org.ogrehus.jcwm.api.foundation.keyindexes.util.generic.GKeyRelationship;
+import org.ogrehus.jcwm.api.foundation.keyindexes.util.generic.GUniqueKey;
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+
+import org.ogrehus.jcwm.impl.util.json.JsonWriter;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+
+
+/**
+ * A JoinPathHandler answers the shortest chain of foreign keys, that joins two tables.
+ * <ul>
+ * <li><code>GET /joins?from={qualifiedName}&amp;to={qualifiedName}&amp;maxLength=4</code> - The joins from the first table to the second,
+ * like <code>{"from":{...},"to":{...},"steps":[{"from":{...},"to":{...},"foreignKey":{...},"columns":["CUSTOMER_ID"],
+ * "referencedColumns":["ID"]}]}</code>. An empty list of steps if both are the same table, <code>404</code> if no chain within the maximum
+ * length exists.</li>
+ * </ul>
+ * <p>
+ * A foreign key joins the table owning it and the table owning the referenced unique key, in both directions, so a step may go from the
+ * referenced table to the referencing one. The <code>columns</code> of a step are the columns of the foreign key, the
+ * <code>referencedColumns</code> those of its unique key, in either direction. The chains are searched breadth first, so the first chain found
+ * is one of the shortest.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class JoinPathHandler
+extends
+	JsonHandler
+{
+
+
+	JoinPathHandler( ModelRepository repository ) {
+		super( repository );
+	}
+
+
+
+//====================================================================================================================================================
+// JsonHandler capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	void respond( HttpExchange exchange, JsonRequest request ) throws IOException {
+		ModelElement from = lookup( request.getRequired( "from" ) );
+		ModelElement to   = lookup( request.getRequired( "to" ) );
+		int maxLength = request.getInt( "maxLength", DEFAULT_LENGTH, MAX_LENGTH );
+		List<Step> steps = findPath( from, to, maxLength );
+		if ( steps == null ) {
+			throw new NoSuchElementException(
+				"No chain of at most " + maxLength + " foreign keys joins: " + from.getQualifiedName() + " and " + to.getQualifiedName()
+			);
+		}
+
+		JsonWriter out = begin( exchange, null );
+		if ( out == null ) {
+			return;
+		}
+		ModelJsonWriter writer = new ModelJsonWriter( request.getFields() );
+		out.beginObject();
+		out.name( "from" );
+		writer.writeReference( out, from );
+		out.name( "to" );
+		writer.writeReference( out, to );
+		out.name( "steps" ).beginArray();
+		for ( Step step : steps ) {
+			GKeyRelationship<?, ?, ?, ?> foreignKey = step.foreignKey;
+			out.beginObject();
+			out.name( "from" );
+			writer.writeReference( out, step.from );
+			out.name( "to" );
+			writer.writeReference( out, step.to );
+			out.name( "foreignKey" );
+			writer.writeReference( out, foreignKey );
+			out.name( "columns" ).beginArray();
+			for ( Object column : foreignKey.getFeatures() ) {
+				out.value( ( (ModelElement) column ).getSimpleName() );
+			}
+			out.endArray();
+			out.name( "referencedColumns" ).beginArray();
+			for ( Object column : foreignKey.getUniqueKey().getFeatures() ) {
+				out.value( ( (ModelElement) column ).getSimpleName() );
+			}
+			out.endArray();
+			out.endObject();
+		}
+		out.endArray();
+		out.endObject();
+		out.flush();
+	}
+
+
+
+//====================================================================================================================================================
+// JoinPathHandler internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The steps from one table to the other, <code>null</code> if no chain within the maximum length exists.
+	 *
+	 */
+	private static List<Step> findPath( ModelElement from, ModelElement to, int maxLength ) {
+		Map<ModelElement, Step> reached = new IdentityHashMap<ModelElement, Step>();
+		Deque<ModelElement> open = new ArrayDeque<ModelElement>();
+		Map<ModelElement, Integer> length = new IdentityHashMap<ModelElement, Integer>();
+		open.add( from );
+		length.put( from, Integer.valueOf( 0 ) );
+		while ( !open.isEmpty() && !length.containsKey( to ) ) {
+			ModelElement table = open.poll();
+			int next = length.get( table ).intValue() + 1;
+			if ( next > maxLength ) {
+				continue;
+			}
+			for ( Step step : getSteps( table ) ) {
+				if ( !length.containsKey( step.to ) ) {
+					length.put( step.to, Integer.valueOf( next ) );
+					reached.put( step.to, step );
+					open.add( step.to );
+				}
+			}
+		}
+		if ( !length.containsKey( to ) ) {
+			return null;
+		}
+
+		List<Step> steps = new ArrayList<Step>();
+		for ( ModelElement current = to; current != from; current = reached.get( current ).from ) {
+			steps.add( reached.get( current ) );
+		}
+		Collections.reverse( steps );
+
+		return steps;
+	}
+
+
+
+	/**
+	 * @return The joins of a table: by its foreign keys to the referenced tables, and by the foreign keys referencing its unique keys to the
+	 * referencing tables.
+	 *
+	 */
+	private static List<Step> getSteps( ModelElement table ) {
+		List<Step> steps = new ArrayList<Step>();
+		if ( !( table instanceof GNamespace<?, ?, ?, ?, ?> ) ) {
+			return steps;
+		}
+		for ( ModelElement owned : ( (GNamespace<?, ?, ?, ?, ?>) table ).getOwnedElements() ) {
+			if ( owned instanceof GKeyRelationship<?, ?, ?, ?> ) {
+				GKeyRelationship<?, ?, ?, ?> foreignKey = (GKeyRelationship<?, ?, ?, ?>) owned;
+				ModelElement referenced = getOwner( foreignKey.getUniqueKey() );
+				if ( referenced != null ) {
+					steps.add( new Step( table, referenced, foreignKey ) );
+				}
+			} else if ( owned instanceof GUniqueKey<?, ?, ?, ?> ) {
+				for ( Object relationship : ( (GUniqueKey<?, ?, ?, ?>) owned ).getKeyRelationships() ) {
+					ModelElement referencing = getOwner( relationship );
+					if ( referencing != null ) {
+						steps.add( new Step( table, referencing, (GKeyRelationship<?, ?, ?, ?>) relationship ) );
+					}
+				}
+			}
+		}
+
+		return steps;
+	}
+
+
+
+	private static ModelElement getOwner( Object key ) {
+		if ( key instanceof GModelElement<?, ?, ?, ?> ) {
+			Object namespace = ( (GModelElement<?, ?, ?, ?>) key ).getNamespace();
+			if ( namespace instanceof ModelElement ) {
+				return (ModelElement) namespace;
+			}
+		}
+
+		return null;
+	}
+
+
+
+	/**
+	 * A join of two tables by a foreign key, in either direction.
+	 *
+	 */
+	private static final class Step {
+
+		Step( ModelElement from, ModelElement to, GKeyRelationship<?, ?, ?, ?> foreignKey ) {
+			this.from       = from;
+			this.to         = to;
+			this.foreignKey = foreignKey;
+		}
+
+		final ModelElement from;
+
+		final ModelElement to;
+
+		final GKeyRelationship<?, ?, ?, ?> foreignKey;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final int DEFAULT_LENGTH = 4;
+
+
+
+	private static final int MAX_LENGTH = 8;
+}
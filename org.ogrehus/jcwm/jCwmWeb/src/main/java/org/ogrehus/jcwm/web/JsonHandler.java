@@ -0,0 +1,211 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.diff.Fingerprint;
+import org.ogrehus.jcwm.impl.util.json.JsonWriter;
+
+
+/**
+ * A JsonHandler answers the GET and HEAD requests of a context of a ModelServer with a streamed JSON document.
+ * <p>
+ * The document is written straight to the response while the model is read, in chunks, so large lists are never built in memory. Responses
+ * with an entity tag are answered by <code>304 Not Modified</code>, if the request has the same tag in <code>If-None-Match</code>. The tags
+ * are derived from the Fingerprints of the elements, so they change exactly when the content of the elements changes.
+ * </p>
+ * <p>
+ * Errors are answered by a JSON document <code>{"error":"..."}</code>: <code>400</code> for invalid parameters, <code>404</code> for unknown
+ * elements and <code>405</code> for other methods than GET and HEAD.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+abstract class JsonHandler
+implements
+	HttpHandler
+{
+
+
+	JsonHandler( ModelRepository repository ) {
+		this.repository = repository;
+	}
+
+
+
+//====================================================================================================================================================
+// HttpHandler capabilities
+//====================================================================================================================================================
+
+
+
+	public final void handle( HttpExchange exchange ) throws IOException {
+		try {
+			String method = exchange.getRequestMethod();
+			if ( !"GET".equals( method ) && !"HEAD".equals( method ) ) {
+				exchange.getResponseHeaders().set( "Allow", "GET, HEAD" );
+				sendError( exchange, 405, "The method: " + method + " is not supported." );
+				return;
+			}
+			respond( exchange, new JsonRequest( exchange ) );
+		} catch ( IllegalArgumentException e ) {
+			sendError( exchange, 400, e.getMessage() );
+		} catch ( NoSuchElementException e ) {
+			sendError( exchange, 404, e.getMessage() );
+		} finally {
+			exchange.close();
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// JsonHandler internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Answers a request, calls {@link #begin(HttpExchange, String)} and writes the document.
+	 *
+	 * @throws IllegalArgumentException If a parameter is invalid, answered by <code>400</code>.
+	 *
+	 * @throws NoSuchElementException If a requested element does not exist, answered by <code>404</code>.
+	 *
+	 */
+	abstract void respond( HttpExchange exchange, JsonRequest request ) throws IOException;
+
+
+
+	/**
+	 * Sends the headers of a successful response.
+	 *
+	 * @param tag The entity tag of the response, without quotes, <code>null</code> if the response has none.
+	 *
+	 * @return The JsonWriter of the body, <code>null</code> if the response has no body, cause the request was a HEAD request or the client
+	 * has the tag already.
+	 *
+	 */
+	final JsonWriter begin( HttpExchange exchange, String tag ) throws IOException {
+		Headers headers = exchange.getResponseHeaders();
+		headers.set( "Content-Type", "application/json; charset=utf-8" );
+		if ( tag != null ) {
+			String quoted = '"' + tag + '"';
+			headers.set( "ETag", quoted );
+			String match = exchange.getRequestHeaders().getFirst( "If-None-Match" );
+			if ( match != null && ( match.equals( quoted ) || match.equals( "W/" + quoted ) || match.equals( "*" ) ) ) {
+				exchange.sendResponseHeaders( 304, -1 );
+				return null;
+			}
+		}
+		if ( "HEAD".equals( exchange.getRequestMethod() ) ) {
+			exchange.sendResponseHeaders( 200, -1 );
+			return null;
+		}
+		exchange.sendResponseHeaders( 200, 0 ); // chunked
+
+		return new JsonWriter( new BufferedWriter( new OutputStreamWriter( exchange.getResponseBody(), StandardCharsets.UTF_8 ), BUFFER ) );
+	}
+
+
+
+	/**
+	 * @throws NoSuchElementException If the model has no element with the qualified name.
+	 *
+	 */
+	final ModelElement lookup( String qualifiedName ) {
+		if ( qualifiedName == null || qualifiedName.isEmpty() ) {
+			throw new IllegalArgumentException( "A qualified name is required." );
+		}
+		ModelElement element = this.repository.lookup( qualifiedName );
+		if ( element == null ) {
+			throw new NoSuchElementException( "The model has no element: " + qualifiedName );
+		}
+
+		return element;
+	}
+
+
+
+	/**
+	 * @return The tag of a representation of an element: the hexadecimal digits of the Fingerprint of the element and everything it owns,
+	 * and of the hash of its qualified name, which changes when an ancestor is renamed or the element is moved. <code>null</code> for
+	 * elements without Fingerprint.
+	 *
+	 */
+	static String getTag( ModelElement element ) {
+		if ( !( element instanceof GFunModelElement<?, ?, ?, ?> ) ) {
+			return null;
+		}
+		Fingerprint fingerprint = ( (GFunModelElement<?, ?, ?, ?>) element ).getFingerprint();
+
+		return String.format(
+			  "%016x%016x-%08x"
+			, Long.valueOf( fingerprint.getHigh() )
+			, Long.valueOf( fingerprint.getLow() )
+			, Integer.valueOf( element.getQualifiedName().hashCode() )
+		);
+	}
+
+
+
+	private static void sendError( HttpExchange exchange, int status, String message ) throws IOException {
+		StringWriter text = new StringWriter();
+		new JsonWriter( text ).beginObject().name( "error" ).value( message ).endObject();
+		byte[] body = text.toString().getBytes( StandardCharsets.UTF_8 );
+		exchange.getResponseHeaders().set( "Content-Type", "application/json; charset=utf-8" );
+		exchange.sendResponseHeaders( status, body.length );
+		exchange.getResponseBody().write( body );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The size of the chunks of a response, in characters.
+	 *
+	 */
+	private static final int BUFFER = 16 * 1024;
+
+
+
+	final ModelRepository repository;
+}
@@ -0,0 +1,181 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.net.httpserver.HttpExchange;
+
+
+/**
+ * A JsonRequest holds the path below the context of a handler and the decoded parameters of the query of a request.
+ * <p>
+ * The common parameters:
+ * </p>
+ * <ul>
+ * <li><code>fields</code> - The projection, the comma separated names of the fields of each written element, like
+ * <code>fields=name,type,isNullable</code>. All fields without it.</li>
+ * <li><code>offset</code>, <code>limit</code> - The page of a list, see {@link #getInt(String, int, int)}.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class JsonRequest {
+
+
+	JsonRequest( HttpExchange exchange ) {
+		String path    = exchange.getRequestURI().getPath();
+		String context = exchange.getHttpContext().getPath();
+		this.path       = path.length() > context.length() ? path.substring( context.length() ) : "";
+		this.parameters = new HashMap<String, String>();
+		String query = exchange.getRequestURI().getRawQuery();
+		if ( query != null ) {
+			for ( String pair : query.split( "&" ) ) {
+				int equals = pair.indexOf( '=' );
+				String name  = decode( equals < 0 ? pair : pair.substring( 0, equals ) );
+				String value = equals < 0 ? "" : decode( pair.substring( equals + 1 ) );
+				if ( !name.isEmpty() ) {
+					this.parameters.put( name, value );
+				}
+			}
+		}
+	}
+
+
+
+//====================================================================================================================================================
+// JsonRequest capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The decoded path below the context of the handler, without a leading slash, like <code>SALES.ORDERS/children</code>.
+	 *
+	 */
+	String getPath() {
+		return this.path.startsWith( "/" ) ? this.path.substring( 1 ) : this.path;
+	}
+
+
+
+	/**
+	 * @return The value of the parameter, <code>null</code> if the query has no such parameter.
+	 *
+	 */
+	String getParameter( String name ) {
+		return this.parameters.get( name );
+	}
+
+
+
+	/**
+	 * @throws IllegalArgumentException If the query has no such parameter.
+	 *
+	 */
+	String getRequired( String name ) {
+		String value = this.parameters.get( name );
+		if ( value == null || value.isEmpty() ) {
+			throw new IllegalArgumentException( "The parameter: " + name + " is required." );
+		}
+
+		return value;
+	}
+
+
+
+	/**
+	 * @return The value of an int parameter, the default if the query has no such parameter.
+	 *
+	 * @throws IllegalArgumentException If the value is no number, negative or greater than the maximum.
+	 *
+	 */
+	int getInt( String name, int defaultValue, int max ) {
+		String value = this.parameters.get( name );
+		if ( value == null || value.isEmpty() ) {
+			return defaultValue;
+		}
+		int number;
+		try {
+			number = Integer.parseInt( value );
+		} catch ( NumberFormatException e ) {
+			throw new IllegalArgumentException( "The parameter: " + name + " must be a number, not: " + value );
+		}
+		if ( number < 0 || number > max ) {
+			throw new IllegalArgumentException( "The parameter: " + name + " must be between 0 and " + max + ", not: " + number );
+		}
+
+		return number;
+	}
+
+
+
+	/**
+	 * @return The names of the projected fields, <code>null</code> for all fields.
+	 *
+	 */
+	Set<String> getFields() {
+		String fields = this.parameters.get( "fields" );
+		if ( fields == null || fields.isEmpty() ) {
+			return null;
+		}
+
+		return new LinkedHashSet<String>( Arrays.asList( fields.split( "," ) ) );
+	}
+
+
+
+//====================================================================================================================================================
+// JsonRequest internals
+//====================================================================================================================================================
+
+
+
+	private static String decode( String text ) {
+		try {
+			return URLDecoder.decode( text, StandardCharsets.UTF_8 );
+		} catch ( IllegalArgumentException e ) {
+			throw new IllegalArgumentException( "The query is not URL encoded: " + text );
+		}
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private final String path;
+
+
+
+	private final Map<String, String> parameters;
+}
@@ -0,0 +1,163 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+import org.ogrehus.jcwm.impl.util.graph.EdgeKind;
+import org.ogrehus.jcwm.impl.util.graph.ElementGraph;
+import org.ogrehus.jcwm.impl.util.json.JsonWriter;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+
+
+/**
+ * A LineageHandler answers the lineage and the impact of an element, the transitive closures of an ElementGraph.
+ * <ul>
+ * <li><code>GET /lineage/{qualifiedName}?direction=upstream&amp;kinds=foreignKey,dependency&amp;offset=0&amp;limit=100&amp;fields=...</code> -
+ * A page of the elements the element depends on (<code>upstream</code>, the default) or the elements depending on it
+ * (<code>downstream</code>), following the edges of the kinds, all kinds by default, like
+ * <code>{"element":{...},"direction":"upstream","total":12,"offset":0,"items":[...]}</code>.</li>
+ * </ul>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ * @see EdgeKind
+ *
+ */
+final class LineageHandler
+extends
+	JsonHandler
+{
+
+
+	LineageHandler( ModelRepository repository ) {
+		super( repository );
+	}
+
+
+
+//====================================================================================================================================================
+// JsonHandler capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	void respond( HttpExchange exchange, JsonRequest request ) throws IOException {
+		ModelElement element = lookup( request.getPath() );
+		String direction = request.getParameter( "direction" );
+		boolean upstream = direction == null || direction.equals( "upstream" );
+		if ( !upstream && !direction.equals( "downstream" ) ) {
+			throw new IllegalArgumentException( "The parameter: direction must be upstream or downstream, not: " + direction );
+		}
+		Set<EdgeKind> kinds = getKinds( request.getParameter( "kinds" ) );
+		int offset = request.getInt( "offset", 0, Integer.MAX_VALUE );
+		int limit  = request.getInt( "limit", DEFAULT_LIMIT, MAX_LIMIT );
+
+		ElementGraph graph = this.repository.getGraph();
+		Iterable<ModelElement> closure;
+		int total;
+		if ( graph.getId( element ) < 0 ) {
+			closure = Collections.<ModelElement>emptyList(); // linked to nothing
+			total   = 0;
+		} else {
+			Set<ModelElement> elements = upstream ? graph.getUpstream( element, kinds ) : graph.getDownstream( element, kinds );
+			closure = elements;
+			total   = elements.size();
+		}
+
+		JsonWriter out = begin( exchange, null );
+		if ( out == null ) {
+			return;
+		}
+		ModelJsonWriter writer = new ModelJsonWriter( request.getFields() );
+		out.beginObject();
+		out.name( "element" );
+		writer.writeReference( out, element );
+		out.name( "direction" ).value( upstream ? "upstream" : "downstream" );
+		out.name( "total" ).value( total );
+		out.name( "offset" ).value( offset );
+		out.name( "items" ).beginArray();
+		int position = 0;
+		for ( ModelElement member : closure ) {
+			if ( position++ < offset ) {
+				continue;
+			}
+			if ( position > offset + limit ) {
+				break;
+			}
+			writer.writeElement( out, member );
+		}
+		out.endArray();
+		out.endObject();
+		out.flush();
+	}
+
+
+
+//====================================================================================================================================================
+// LineageHandler internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * @return The kinds of the comma separated names, <code>null</code> for all kinds.
+	 *
+	 */
+	private static Set<EdgeKind> getKinds( String names ) {
+		if ( names == null || names.isEmpty() ) {
+			return null;
+		}
+		Set<EdgeKind> kinds = EnumSet.noneOf( EdgeKind.class );
+		for ( String name : names.split( "," ) ) {
+			try {
+				kinds.add( EdgeKind.valueOf( name ) );
+			} catch ( IllegalArgumentException e ) {
+				throw new IllegalArgumentException( "Unknown kind of edge: " + name + ", known are: " + EnumSet.allOf( EdgeKind.class ) );
+			}
+		}
+
+		return kinds;
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final int DEFAULT_LIMIT = 100;
+
+
+
+	private static final int MAX_LIMIT = 10000;
+}
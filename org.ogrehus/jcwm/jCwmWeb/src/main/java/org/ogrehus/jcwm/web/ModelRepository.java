@@ -0,0 +1,368 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GClassifier;
+import org.ogrehus.jcwm.api.objectmodel.core.util.generic.GNamespace;
+
+import org.ogrehus.jcwm.impl.objectmodel.core.util.generic.GFunModelElement;
+import org.ogrehus.jcwm.impl.util.diff.Fingerprint;
+import org.ogrehus.jcwm.impl.util.diff.ModelStructure;
+import org.ogrehus.jcwm.impl.util.graph.ElementGraph;
+import org.ogrehus.jcwm.impl.util.graph.ElementGraphIndex;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+import org.ogrehus.jcwm.impl.util.search.SearchIndex;
+
+
+/**
+ * A ModelRepository is the in-memory model a ModelServer serves, with the indexes of the queries.
+ * <p>
+ * Elements are looked up by their qualified names, like <code>CATALOG.SALES.ORDERS</code>, from the root down, name by name. Resolved names
+ * are cached. A cached element is checked on each hit, if it still has the name and still belongs to the model, so renamed and removed
+ * elements are never served under a stale name. The full-text search is served by a SearchIndex, lineage and join paths by an
+ * ElementGraphIndex, both follow the changes of the model.
+ * </p>
+ * <p>
+ * The children of an element, sorted for paging, are cached together with the Fingerprint of the element. The Fingerprint changes with any
+ * change of the element or its descendants, so a cached order is used as long as it is the order of the current children, and the pages of
+ * an unchanged element are served without sorting its children again.
+ * </p>
+ * <p>
+ * The model is read by many threads at once. It must not be changed while it is served, unless the changes are serialized with the readers by
+ * the application. A compacted model rejects changes, see <code>GFunModelElement.compact()</code>.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelRepository {
+
+
+	/**
+	 * Creates a new instance of ModelRepository and builds the indexes.
+	 *
+	 * @param root The root of the served model, like a Catalog. Must not be <code>null</code>.
+	 *
+	 */
+	public ModelRepository( ModelElement root ) {
+		if ( root == null ) {
+			throw new NullPointerException( "Parameter: root must not be null." );
+		}
+		this.root   = root;
+		this.search = SearchIndex.open( root );
+		this.graph  = ElementGraphIndex.open( root );
+		this.names  = new ConcurrentHashMap<String, ModelElement>();
+		this.children = new ConcurrentHashMap<ModelElement, Children>();
+	}
+
+
+
+//====================================================================================================================================================
+// ModelRepository capabilities
+//====================================================================================================================================================
+
+
+
+	public ModelElement getRoot() {
+		return this.root;
+	}
+
+
+
+	/**
+	 * @param qualifiedName The qualified name, starting with the name of the root. Must not be <code>null</code>.
+	 *
+	 * @return The element with the qualified name, <code>null</code> if the model has no such element.
+	 *
+	 */
+	public ModelElement lookup( String qualifiedName ) {
+		if ( qualifiedName == null ) {
+			throw new NullPointerException( "Parameter: qualifiedName must not be null." );
+		}
+		ModelElement cached = this.names.get( qualifiedName );
+		if ( cached != null ) {
+			if ( isNamed( cached, qualifiedName, qualifiedName.length() ) ) {
+				return cached;
+			}
+			this.names.remove( qualifiedName, cached ); // renamed, moved or removed
+		}
+
+		ModelElement found = resolve( qualifiedName );
+		if ( found != null ) {
+			if ( this.names.size() >= MAX_CACHED ) {
+				this.names.clear(); // simpler than an LRU, the hot names are back within a few requests
+			}
+			this.names.put( qualifiedName, found );
+		}
+
+		return found;
+	}
+
+
+
+	/**
+	 * @return The owned elements and features of an element, the owned elements first, both ordered by their ids. A read only List.
+	 *
+	 */
+	public List<ModelElement> getChildren( ModelElement element ) {
+		Fingerprint fingerprint = null;
+		if ( element instanceof GFunModelElement<?, ?, ?, ?> ) {
+			fingerprint = ( (GFunModelElement<?, ?, ?, ?>) element ).getFingerprint();
+		}
+		Children cached = this.children.get( element );
+		if ( cached != null && fingerprint != null && fingerprint.equals( cached.fingerprint ) ) {
+			return cached.sorted;
+		}
+
+		List<ModelElement> sorted = new ArrayList<ModelElement>( ModelJsonWriter.getChildCount( element ) );
+		if ( element instanceof GNamespace<?, ?, ?, ?, ?> ) {
+			addSorted( sorted, ( (GNamespace<?, ?, ?, ?, ?>) element ).getOwnedElements() );
+		}
+		if ( element instanceof GClassifier<?, ?, ?, ?, ?, ?> ) {
+			addSorted( sorted, ( (GClassifier<?, ?, ?, ?, ?, ?>) element ).getFeatures() );
+		}
+		sorted = Collections.unmodifiableList( sorted );
+		if ( fingerprint != null ) {
+			if ( this.children.size() >= MAX_CACHED_CHILDREN ) {
+				this.children.clear();
+			}
+			this.children.put( element, new Children( fingerprint, sorted ) );
+		}
+
+		return sorted;
+	}
+
+
+
+	public SearchIndex getSearchIndex() {
+		return this.search;
+	}
+
+
+
+	/**
+	 * @return The graph of the current state of the model. Can't be <code>null</code>.
+	 *
+	 */
+	public ElementGraph getGraph() {
+		return this.graph.getGraph();
+	}
+
+
+
+	/**
+	 * Cancels the registrations of the indexes for changes of the model.
+	 *
+	 */
+	public void close() {
+		this.search.close();
+		this.graph.close();
+		this.names.clear();
+		this.children.clear();
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ModelRepository" );
+		out.append( " | root=" + this.root.getSimpleName() );
+		out.append( " | cachedNames=" + this.names.size() );
+		out.append( " | cachedChildren=" + this.children.size() );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+// ModelRepository internals
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Walks from the root down, each name among the owned elements and features of the element found so far.
+	 *
+	 */
+	private ModelElement resolve( String qualifiedName ) {
+		String[] names = qualifiedName.split( "\\.", -1 );
+		if ( !names[0].equals( this.root.getSimpleName() ) ) {
+			return null;
+		}
+
+		ModelElement current = this.root;
+		for ( int i = 1; i < names.length && current != null; i++ ) {
+			current = getChild( current, names[i] );
+		}
+
+		return current;
+	}
+
+
+
+	private static ModelElement getChild( ModelElement parent, String name ) {
+		if ( parent instanceof GNamespace<?, ?, ?, ?, ?> ) {
+			for ( ModelElement child : ( (GNamespace<?, ?, ?, ?, ?>) parent ).getOwnedElements() ) {
+				if ( name.equals( child.getSimpleName() ) ) {
+					return child;
+				}
+			}
+		}
+		if ( parent instanceof GClassifier<?, ?, ?, ?, ?, ?> ) {
+			for ( ModelElement child : ( (GClassifier<?, ?, ?, ?, ?, ?>) parent ).getFeatures() ) {
+				if ( name.equals( child.getSimpleName() ) ) {
+					return child;
+				}
+			}
+		}
+
+		return null;
+	}
+
+
+
+	private static void addSorted( List<ModelElement> sorted, Collection<? extends ModelElement> elements ) {
+		ModelElement[] array = elements.toArray( new ModelElement[ elements.size() ] );
+		Arrays.sort( array, BY_ID );
+		sorted.addAll( Arrays.asList( array ) );
+	}
+
+
+
+	/**
+	 * The sorted children of an element and the Fingerprint of the element they were sorted for.
+	 *
+	 */
+	private static final class Children {
+
+
+		Children( Fingerprint fingerprint, List<ModelElement> sorted ) {
+			this.fingerprint = fingerprint;
+			this.sorted      = sorted;
+		}
+
+
+
+		final Fingerprint fingerprint;
+
+
+
+		final List<ModelElement> sorted;
+	}
+
+
+
+	/**
+	 * @return <code>true</code> if the element has the qualified name up to the position <code>end</code> and its ancestors lead to the
+	 * root. Compares name by name from the element up, without building the qualified name.
+	 *
+	 */
+	private boolean isNamed( ModelElement element, String qualifiedName, int end ) {
+		String name = element.getSimpleName();
+		int start = end - name.length();
+		if ( start < 0 || !qualifiedName.regionMatches( start, name, 0, name.length() ) ) {
+			return false;
+		}
+		if ( element == this.root ) {
+			return start == 0;
+		}
+		ModelElement parent = ModelStructure.getParent( element );
+
+		return parent != null && start > 0 && qualifiedName.charAt( start - 1 ) == '.' && isNamed( parent, qualifiedName, start - 1 );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The maximum number of cached qualified names.
+	 *
+	 */
+	private static final int MAX_CACHED = 100000;
+
+
+
+	/**
+	 * The maximum number of elements with cached children.
+	 *
+	 */
+	private static final int MAX_CACHED_CHILDREN = 10000;
+
+
+
+	private static final Comparator<ModelElement> BY_ID = new Comparator<ModelElement>() {
+		public int compare( ModelElement one, ModelElement other ) {
+			return Integer.compare( ModelJsonWriter.getId( one ), ModelJsonWriter.getId( other ) );
+		}
+	};
+
+
+
+	private final ModelElement root;
+
+
+
+	private final SearchIndex search;
+
+
+
+	private final ElementGraphIndex graph;
+
+
+
+	/**
+	 * The cache of the resolved qualified names.
+	 *
+	 */
+	private final Map<String, ModelElement> names;
+
+
+
+	/**
+	 * The cache of the sorted children by their parent.
+	 *
+	 */
+	private final Map<ModelElement, Children> children;
+}
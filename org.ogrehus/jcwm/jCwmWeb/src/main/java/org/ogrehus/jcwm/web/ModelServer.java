@@ -0,0 +1,202 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+
+
+/**
+ * A ModelServer serves read queries of an in-memory model over HTTP, by the HTTP server of the JDK.
+ * <p>
+ * Each exchange is handled on a virtual thread of its own, so thousands of concurrent lookups block no platform thread, even while a slow
+ * client receives a long response. All responses are streamed JSON documents, see {@link ModelRepository} for the concurrent reads of the
+ * model. The endpoints:
+ * </p>
+ * <ul>
+ * <li><code>GET /elements/{qualifiedName}</code> - An element by its qualified name, tagged by its Fingerprint.</li>
+ * <li><code>GET /elements/{qualifiedName}/children?offset=&amp;limit=</code> - A page of its owned elements and features.</li>
+ * <li><code>GET /search?q=&amp;limit=</code> - A full-text search over names and remarks.</li>
+ * <li><code>GET /lineage/{qualifiedName}?direction=upstream|downstream&amp;kinds=</code> - The lineage or impact of an element.</li>
+ * <li><code>GET /joins?from=&amp;to=&amp;maxLength=</code> - The shortest chain of foreign keys joining two tables.</li>
+ * </ul>
+ * <p>
+ * Each endpoint takes the parameter <code>fields</code>, the comma separated names of the fields written per element, like
+ * <code>fields=name,type,isNullable</code>.
+ * </p>
+ * <p>
+ * <b>Example</b>:
+ * </p>
+ * <pre>
+ * ModelServer server = new ModelServer( catalog, new InetSocketAddress( "localhost", 0 ) );
+ * server.start();
+ * // curl http://localhost:{server.getAddress().getPort()}/elements/CATALOG.SALES.ORDERS?fields=name,children
+ * server.stop( 0 );
+ * </pre>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public final class ModelServer {
+
+
+	/**
+	 * Creates a new instance of ModelServer, which is bound to the address, but does not accept requests before {@link #start()}.
+	 *
+	 * @param root The root of the served model. Must not be <code>null</code>.
+	 *
+	 * @param address The address the server is bound to, port <code>0</code> for any free port. Must not be <code>null</code>.
+	 *
+	 * @throws IOException If the server can't be bound to the address.
+	 *
+	 */
+	public ModelServer( ModelElement root, InetSocketAddress address ) throws IOException {
+		this( new ModelRepository( root ), address, DEFAULT_BACKLOG ); // throws NullPointerException
+	}
+
+
+
+	/**
+	 * Creates a new instance of ModelServer by specific parameters.
+	 *
+	 * @param repository The served model. Must not be <code>null</code>.
+	 *
+	 * @param address The address the server is bound to, port <code>0</code> for any free port. Must not be <code>null</code>.
+	 *
+	 * @param backlog The maximum number of queued incoming connections, <code>0</code> for the default of the system.
+	 *
+	 * @throws IOException If the server can't be bound to the address.
+	 *
+	 */
+	public ModelServer( ModelRepository repository, InetSocketAddress address, int backlog ) throws IOException {
+		if ( repository == null ) {
+			throw new NullPointerException( "Parameter: repository must not be null." );
+		}
+		if ( address == null ) {
+			throw new NullPointerException( "Parameter: address must not be null." );
+		}
+		this.repository = repository;
+		this.executor   = Executors.newVirtualThreadPerTaskExecutor();
+		this.server     = HttpServer.create( address, backlog );
+		this.server.setExecutor( this.executor );
+		this.server.createContext( "/elements/", new ElementHandler( repository ) );
+		this.server.createContext( "/search", new SearchHandler( repository ) );
+		this.server.createContext( "/lineage/", new LineageHandler( repository ) );
+		this.server.createContext( "/joins", new JoinPathHandler( repository ) );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelServer capabilities
+//====================================================================================================================================================
+
+
+
+	/**
+	 * Starts accepting requests in a background thread.
+	 *
+	 */
+	public void start() {
+		this.server.start();
+	}
+
+
+
+	/**
+	 * Stops accepting requests, waits for the running exchanges up to the delay and closes the repository.
+	 *
+	 * @param delay The maximum time to wait for the running exchanges, in seconds.
+	 *
+	 */
+	public void stop( int delay ) {
+		this.server.stop( delay );
+		this.executor.shutdownNow();
+		this.repository.close();
+	}
+
+
+
+	/**
+	 * @return The address the server is bound to, with the actual port if it was bound to any free port.
+	 *
+	 */
+	public InetSocketAddress getAddress() {
+		return this.server.getAddress();
+	}
+
+
+
+	public ModelRepository getRepository() {
+		return this.repository;
+	}
+
+
+
+//====================================================================================================================================================
+// Object capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	public String toString() {
+		StringBuffer out = new StringBuffer( "[ModelServer" );
+		out.append( " | address=" + getAddress() );
+		out.append( " | repository=" + this.repository );
+		out.append( "]" );
+
+		return out.toString();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	/**
+	 * The default maximum number of queued incoming connections, sized for bursts of thousands of concurrent clients.
+	 *
+	 */
+	public static final int DEFAULT_BACKLOG = 4096;
+
+
+
+	private final ModelRepository repository;
+
+
+
+	private final ExecutorService executor;
+
+
+
+	private final HttpServer server;
+}
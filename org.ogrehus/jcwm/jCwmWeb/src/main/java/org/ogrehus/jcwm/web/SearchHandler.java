@@ -0,0 +1,105 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import org.ogrehus.jcwm.impl.util.json.JsonWriter;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+import org.ogrehus.jcwm.impl.util.search.SearchHit;
+
+
+/**
+ * A SearchHandler answers full-text searches over the names and remarks of the elements, see <code>SearchIndex.search(String, int)</code>.
+ * <ul>
+ * <li><code>GET /search?q=order%20id&amp;limit=20&amp;fields=...</code> - The best matching elements by descending score, like
+ * <code>{"query":"order id","items":[{"score":3.2,"element":{...}},...]}</code>.</li>
+ * </ul>
+ * <p>
+ * The answers are not tagged, cause they depend on the whole model.
+ * </p>
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+final class SearchHandler
+extends
+	JsonHandler
+{
+
+
+	SearchHandler( ModelRepository repository ) {
+		super( repository );
+	}
+
+
+
+//====================================================================================================================================================
+// JsonHandler capabilities
+//====================================================================================================================================================
+
+
+
+	@Override
+	void respond( HttpExchange exchange, JsonRequest request ) throws IOException {
+		String query = request.getRequired( "q" );
+		int limit = request.getInt( "limit", DEFAULT_LIMIT, MAX_LIMIT );
+		List<SearchHit> hits = limit == 0 ? Collections.<SearchHit>emptyList() : this.repository.getSearchIndex().search( query, limit );
+
+		JsonWriter out = begin( exchange, null );
+		if ( out == null ) {
+			return;
+		}
+		ModelJsonWriter writer = new ModelJsonWriter( request.getFields() );
+		out.beginObject();
+		out.name( "query" ).value( query );
+		out.name( "items" ).beginArray();
+		for ( SearchHit hit : hits ) {
+			out.beginObject();
+			out.name( "score" ).value( hit.getScore() );
+			out.name( "element" );
+			writer.writeElement( out, hit.getElement() );
+			out.endObject();
+		}
+		out.endArray();
+		out.endObject();
+		out.flush();
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final int DEFAULT_LIMIT = 20;
+
+
+
+	private static final int MAX_LIMIT = 1000;
+}
@@ -0,0 +1,282 @@
+/*
+ * GNU Lesser General Public License v3.0
+ * https://www.gnu.org/licenses/lgpl-3.0-standalone.html
+ * 
+ * Copyright (C) 2025 Björn Witt
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * 
+ */
+package org.ogrehus.jcwm.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.ogrehus.jcwm.api.objectmodel.core.ModelElement;
+import org.ogrehus.jcwm.api.resource.relational.Catalog;
+import org.ogrehus.jcwm.api.resource.relational.PrimaryKey;
+import org.ogrehus.jcwm.api.resource.relational.SQLSimpleType;
+import org.ogrehus.jcwm.api.resource.relational.Table;
+import org.ogrehus.jcwm.api.resource.relational.util.Deferability;
+
+import org.ogrehus.jcwm.impl.resource.relational.FunRelationalPackage;
+import org.ogrehus.jcwm.impl.resource.relational.FunSchema;
+import org.ogrehus.jcwm.impl.util.json.JsonReader;
+import org.ogrehus.jcwm.impl.util.json.ModelJsonWriter;
+
+
+/**
+ * Tests a ModelServer on a free port of the loopback address: lookups, pages of children, search and the answers to conditional requests.
+ *
+ * @author Bjoern Witt, ogrehus.org, copyright 2025
+ *
+ */
+public class ModelServerTest {
+
+
+	@Before
+	public void setUp() throws IOException {
+		FunRelationalPackage factory = new FunRelationalPackage();
+		this.catalog = factory.createCatalog( "SHOP", "UTF8", "UTF8_BIN" );
+		this.schema = (FunSchema) factory.createSchema( "SALES" );
+		this.catalog.addOwnedElement( this.schema );
+		for ( String name : TABLES ) {
+			Table table = factory.createTable( name, Boolean.FALSE, Boolean.FALSE );
+			this.schema.addOwnedElement( table );
+			table.addColumn( "ID", getInteger() );
+			table.addColumn( name + "_NO", getInteger() );
+			PrimaryKey primaryKey = factory.createPrimaryKey( "PK_" + name, Deferability.getDefault() );
+			table.setPrimaryKey( primaryKey );
+			primaryKey.addFeature( table.getColumn( "ID" ) );
+		}
+		this.server = new ModelServer( this.catalog, new InetSocketAddress( "localhost", 0 ) );
+		this.server.start();
+	}
+
+
+
+	@After
+	public void tearDown() {
+		this.server.stop( 0 );
+	}
+
+
+
+	/**
+	 * An element is found by its qualified name, an unknown name is answered by <code>404</code> and an error document.
+	 *
+	 */
+	@Test
+	public void testLookupByQualifiedName() throws IOException {
+		Table orders = getTable( "ORDERS" );
+		Map<String, Object> element = getObject( "/elements/" + orders.getQualifiedName() );
+		assertEquals( "ORDERS", element.get( "name" ) );
+		assertEquals( orders.getQualifiedName(), element.get( "qualifiedName" ) );
+		assertEquals( Long.valueOf( ModelJsonWriter.getId( orders ) ), element.get( "id" ) );
+
+		HttpURLConnection connection = open( "/elements/" + this.catalog.getSimpleName() + ".NOWHERE", null );
+		assertEquals( 404, connection.getResponseCode() );
+		Map<String, Object> error = read( connection.getErrorStream() );
+		assertTrue( String.valueOf( error.get( "error" ) ).contains( "NOWHERE" ) );
+	}
+
+
+
+	/**
+	 * The pages of the children of an element cover every child once, ordered by their ids, and follow the changes of the element.
+	 *
+	 */
+	@Test
+	public void testChildrenArePagedByTheirIds() throws IOException {
+		String path = "/elements/" + this.schema.getQualifiedName() + "/children?limit=2&fields=id,name";
+		int total = ModelJsonWriter.getChildCount( this.schema );
+		Set<String> names = new HashSet<String>();
+		long last = Long.MIN_VALUE;
+		for ( int offset = 0; offset < total; offset += 2 ) {
+			Map<String, Object> page = getObject( path + "&offset=" + offset );
+			assertEquals( Long.valueOf( total ), page.get( "total" ) );
+			assertEquals( Long.valueOf( offset ), page.get( "offset" ) );
+			List<?> items = (List<?>) page.get( "items" );
+			assertEquals( Math.min( 2, total - offset ), items.size() );
+			for ( Object item : items ) {
+				long id = ( (Long) ( (Map<?, ?>) item ).get( "id" ) ).longValue();
+				assertTrue( id > last );
+				last = id;
+				assertTrue( names.add( (String) ( (Map<?, ?>) item ).get( "name" ) ) );
+			}
+		}
+		for ( String name : TABLES ) {
+			assertTrue( name, names.contains( name ) );
+		}
+		assertSame( this.server.getRepository().getChildren( this.schema ), this.server.getRepository().getChildren( this.schema ) );
+
+		List<ModelElement> before = this.server.getRepository().getChildren( this.schema );
+		getTable( "ITEMS" ).addColumn( "PRICE", getInteger() );
+		assertNotSame( before, this.server.getRepository().getChildren( this.schema ) );
+		Map<String, Object> page = getObject( "/elements/" + getTable( "ITEMS" ).getQualifiedName() + "/children?limit=100&fields=name" );
+		assertEquals( Long.valueOf( 4 ), page.get( "total" ) ); // the columns and the PrimaryKey
+		assertTrue( page.get( "items" ).toString().contains( "PRICE" ) );
+	}
+
+
+
+	/**
+	 * A search finds the elements by their names.
+	 *
+	 */
+	@Test
+	public void testSearchFindsTheElementsByName() throws IOException {
+		Map<String, Object> result = getObject( "/search?q=invoice_no&fields=qualifiedName" );
+		assertEquals( "invoice_no", result.get( "query" ) );
+		List<?> items = (List<?>) result.get( "items" );
+		assertFalse( items.isEmpty() );
+		Map<?, ?> element = (Map<?, ?>) ( (Map<?, ?>) items.get( 0 ) ).get( "element" );
+		assertEquals( getTable( "INVOICE" ).getColumn( "INVOICE_NO" ).getQualifiedName(), element.get( "qualifiedName" ) );
+
+		HttpURLConnection connection = open( "/search", null );
+		assertEquals( 400, connection.getResponseCode() );
+	}
+
+
+
+	/**
+	 * A request with the entity tag of the current representation is answered by <code>304</code>, after a change of the element by the new
+	 * representation.
+	 *
+	 */
+	@Test
+	public void testIfNoneMatchIsAnsweredByNotModified() throws IOException {
+		String path = "/elements/" + getTable( "CUSTOMER" ).getQualifiedName();
+		HttpURLConnection connection = open( path, null );
+		assertEquals( 200, connection.getResponseCode() );
+		String tag = connection.getHeaderField( "ETag" );
+		assertNotNull( tag );
+		read( connection.getInputStream() );
+
+		connection = open( path, tag );
+		assertEquals( 304, connection.getResponseCode() );
+
+		getTable( "CUSTOMER" ).addColumn( "EMAIL", getInteger() );
+		connection = open( path, tag );
+		assertEquals( 200, connection.getResponseCode() );
+		assertFalse( tag.equals( connection.getHeaderField( "ETag" ) ) );
+		assertEquals( Long.valueOf( 4 ), read( connection.getInputStream() ).get( "children" ) );
+	}
+
+
+
+//====================================================================================================================================================
+// ModelServerTest internals
+//====================================================================================================================================================
+
+
+
+	private HttpURLConnection open( String path, String tag ) throws IOException {
+		InetSocketAddress address = this.server.getAddress();
+		URI uri = URI.create( "http://localhost:" + address.getPort() + path );
+		HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+		connection.setConnectTimeout( TIMEOUT );
+		connection.setReadTimeout( TIMEOUT );
+		if ( tag != null ) {
+			connection.setRequestProperty( "If-None-Match", tag );
+		}
+
+		return connection;
+	}
+
+
+
+	private Map<String, Object> getObject( String path ) throws IOException {
+		HttpURLConnection connection = open( path, null );
+		assertEquals( path, 200, connection.getResponseCode() );
+
+		return read( connection.getInputStream() );
+	}
+
+
+
+	@SuppressWarnings( "unchecked" )
+	private static Map<String, Object> read( InputStream in ) throws IOException {
+		JsonReader reader = new JsonReader( new InputStreamReader( in, StandardCharsets.UTF_8 ) );
+		try {
+			return (Map<String, Object>) reader.readValue();
+		} finally {
+			reader.close();
+		}
+	}
+
+
+
+	private Table getTable( String name ) {
+		return (Table) this.schema.getNamedColumnSet( name );
+	}
+
+
+
+	private SQLSimpleType getInteger() {
+		return this.schema.getSQLSimpleTypePool().get( Types.INTEGER, "INTEGER", 10, null, (short) 0, (short) 10, null );
+	}
+
+
+
+//====================================================================================================================================================
+//	Properties
+//====================================================================================================================================================
+
+
+
+	private static final String[] TABLES = { "CUSTOMER", "ORDERS", "ITEMS", "INVOICE", "PAYMENT" };
+
+
+
+	/**
+	 * The timeout of connecting and reading, in milliseconds.
+	 *
+	 */
+	private static final int TIMEOUT = 10000;
+
+
+
+	private Catalog catalog;
+
+
+
+	private FunSchema schema;
+
+
+
+	private ModelServer server;
+}